@@ -25,25 +25,58 @@ import java.util.Objects;
 /**
  * The admin client configuration.
  *
- * @param clock  The clock used for timeouts
- * @param locale The locale
+ * @param clock                   The clock used for timeouts
+ * @param locale                  The locale
+ * @param maximumRequestsInFlight The maximum number of asynchronous requests
+ *                                that may be in flight at any given time
  */
 
 public record IdAClientConfiguration(
   Clock clock,
-  Locale locale)
+  Locale locale,
+  int maximumRequestsInFlight)
   implements HBConfigurationType
 {
+  /**
+   * The default maximum number of asynchronous requests in flight.
+   */
+
+  public static final int DEFAULT_MAXIMUM_REQUESTS_IN_FLIGHT = 64;
+
   /**
    * The admin client configuration.
    *
-   * @param clock  The clock used for timeouts
-   * @param locale The locale
+   * @param clock                   The clock used for timeouts
+   * @param locale                  The locale
+   * @param maximumRequestsInFlight The maximum number of asynchronous requests
+   *                                that may be in flight at any given time
    */
 
   public IdAClientConfiguration
   {
     Objects.requireNonNull(clock, "clock");
     Objects.requireNonNull(locale, "locale");
+
+    if (maximumRequestsInFlight < 1) {
+      throw new IllegalArgumentException(
+        "Maximum requests in flight must be positive (got %d)"
+          .formatted(Integer.valueOf(maximumRequestsInFlight))
+      );
+    }
+  }
+
+  /**
+   * The admin client configuration, using
+   * {@link #DEFAULT_MAXIMUM_REQUESTS_IN_FLIGHT}.
+   *
+   * @param clock  The clock used for timeouts
+   * @param locale The locale
+   */
+
+  public IdAClientConfiguration(
+    final Clock clock,
+    final Locale locale)
+  {
+    this(clock, locale, DEFAULT_MAXIMUM_REQUESTS_IN_FLIGHT);
   }
 }
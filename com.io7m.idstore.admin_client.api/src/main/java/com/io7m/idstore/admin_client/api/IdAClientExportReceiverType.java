@@ -0,0 +1,45 @@
+/*
+ * Copyright © 2024 Mark Raynsford <code@io7m.com> https://www.io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+
+package com.io7m.idstore.admin_client.api;
+
+import com.io7m.idstore.protocol.admin.IdAResponseType;
+
+import java.io.IOException;
+
+/**
+ * A receiver of export chunks. The receiver is called once per chunk, in the
+ * order in which the chunks arrive, on the thread that called the export
+ * method.
+ *
+ * @param <R> The type of chunks
+ */
+
+@FunctionalInterface
+public interface IdAClientExportReceiverType<R extends IdAResponseType>
+{
+  /**
+   * Receive a chunk.
+   *
+   * @param chunk The chunk
+   *
+   * @throws IOException On I/O errors
+   */
+
+  void receive(R chunk)
+    throws IOException;
+}
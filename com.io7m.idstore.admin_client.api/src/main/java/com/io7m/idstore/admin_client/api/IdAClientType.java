@@ -22,13 +22,22 @@ import com.io7m.hibiscus.api.HBConnectionFailed;
 import com.io7m.hibiscus.api.HBConnectionParametersType;
 import com.io7m.hibiscus.api.HBConnectionSucceeded;
 import com.io7m.hibiscus.api.HBMessageType;
+import com.io7m.idstore.protocol.admin.IdABatchTransactionMode;
+import com.io7m.idstore.protocol.admin.IdACommandAuditExport;
+import com.io7m.idstore.protocol.admin.IdACommandBatch;
 import com.io7m.idstore.protocol.admin.IdACommandType;
+import com.io7m.idstore.protocol.admin.IdACommandUserExport;
 import com.io7m.idstore.protocol.admin.IdAMessageType;
+import com.io7m.idstore.protocol.admin.IdAResponseAuditExport;
+import com.io7m.idstore.protocol.admin.IdAResponseBatch;
 import com.io7m.idstore.protocol.admin.IdAResponseError;
 import com.io7m.idstore.protocol.admin.IdAResponseType;
+import com.io7m.idstore.protocol.admin.IdAResponseUserExport;
 import com.io7m.repetoir.core.RPServiceType;
 
 import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.TimeoutException;
 
 /**
@@ -111,6 +120,102 @@ public interface IdAClientType
     };
   }
 
+  /**
+   * Execute a list of commands in order as a single batch request. The
+   * individual results are returned in the batch response; a failing command
+   * yields an {@link IdAResponseError} in the results rather than an
+   * exception.
+   *
+   * @param mode     The transaction mode
+   * @param commands The commands
+   * @param timeout  The timeout
+   *
+   * @return The batch result
+   *
+   * @throws IdAClientException   On errors
+   * @throws InterruptedException On interruption
+   * @throws TimeoutException     On timeouts
+   */
+
+  default IdAResponseBatch executeBatch(
+    final IdABatchTransactionMode mode,
+    final List<IdACommandType<?>> commands,
+    final Duration timeout)
+    throws IdAClientException, InterruptedException, TimeoutException
+  {
+    return this.sendAndWaitOrThrow(
+      new IdACommandBatch(mode, commands),
+      timeout
+    );
+  }
+
+  /**
+   * Send a command without waiting for the response. Several commands may be
+   * in flight at once, multiplexed over the client's connection; the number
+   * of commands in flight is bounded by the client configuration, and this
+   * method blocks until a slot is available if the bound has been reached.
+   * The returned future completes exceptionally with an
+   * {@link IdAClientException} if the server returns an error. Unlike
+   * {@link #sendAndWait(HBMessageType, Duration)}, expired sessions are not
+   * transparently renewed.
+   *
+   * @param command The command
+   * @param timeout The timeout
+   * @param <R>     The type of results
+   *
+   * @return The future result
+   *
+   * @throws IdAClientException   If the client is not connected
+   * @throws InterruptedException On interruption
+   */
+
+  <R extends IdAResponseType> CompletableFuture<R> sendAsync(
+    IdACommandType<R> command,
+    Duration timeout)
+    throws IdAClientException, InterruptedException;
+
+  /**
+   * Export every user matching the given parameters. The results are
+   * streamed from the server in chunks of at most the command's fetch size,
+   * and each chunk is passed to the receiver as it arrives, so the size of
+   * the export is not bounded by available memory. The method returns once
+   * the chunk marked as the last chunk has been received.
+   *
+   * @param command  The export command
+   * @param receiver The chunk receiver
+   * @param timeout  The timeout for the start of the response
+   *
+   * @throws IdAClientException   On errors, including errors raised by the
+   *                              receiver
+   * @throws InterruptedException On interruption
+   */
+
+  void exportUsers(
+    IdACommandUserExport command,
+    IdAClientExportReceiverType<IdAResponseUserExport> receiver,
+    Duration timeout)
+    throws IdAClientException, InterruptedException;
+
+  /**
+   * Export every audit event matching the given parameters.
+   *
+   * @param command  The export command
+   * @param receiver The chunk receiver
+   * @param timeout  The timeout for the start of the response
+   *
+   * @throws IdAClientException   On errors, including errors raised by the
+   *                              receiver
+   * @throws InterruptedException On interruption
+   *
+   * @see #exportUsers(IdACommandUserExport, IdAClientExportReceiverType, Duration)
+   */
+
+  void exportAuditEvents(
+    IdACommandAuditExport command,
+    IdAClientExportReceiverType<IdAResponseAuditExport> receiver,
+    Duration timeout)
+    throws IdAClientException, InterruptedException;
+
   @Override
   default String description()
   {
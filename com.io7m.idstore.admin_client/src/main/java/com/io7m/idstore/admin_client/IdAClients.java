@@ -56,6 +56,7 @@ public final class IdAClients implements IdAClientFactoryType
 
     final Supplier<HttpClient> clients = () -> {
       return HttpClient.newBuilder()
+        .version(HttpClient.Version.HTTP_2)
         .cookieHandler(new CookieManager())
         .executor(Executors.newVirtualThreadPerTaskExecutor())
         .build();
@@ -21,11 +21,29 @@ import com.io7m.hibiscus.api.HBClientAbstract;
 import com.io7m.idstore.admin_client.api.IdAClientConfiguration;
 import com.io7m.idstore.admin_client.api.IdAClientConnectionParameters;
 import com.io7m.idstore.admin_client.api.IdAClientException;
+import com.io7m.idstore.admin_client.api.IdAClientExportReceiverType;
 import com.io7m.idstore.admin_client.api.IdAClientType;
+import com.io7m.idstore.error_codes.IdStandardErrorCodes;
+import com.io7m.idstore.protocol.admin.IdACommandAuditExport;
+import com.io7m.idstore.protocol.admin.IdACommandType;
+import com.io7m.idstore.protocol.admin.IdACommandUserExport;
 import com.io7m.idstore.protocol.admin.IdAMessageType;
+import com.io7m.idstore.protocol.admin.IdAResponseAuditExport;
+import com.io7m.idstore.protocol.admin.IdAResponseError;
+import com.io7m.idstore.protocol.admin.IdAResponseType;
+import com.io7m.idstore.protocol.admin.IdAResponseUserExport;
+import com.io7m.idstore.strings.IdStringConstants;
 import com.io7m.idstore.strings.IdStrings;
 
 import java.net.http.HttpClient;
+import java.nio.channels.ClosedChannelException;
+import java.time.Duration;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.atomic.AtomicReference;
 import java.util.function.Supplier;
 
 /**
@@ -39,6 +57,9 @@ public final class IdAClient
   IdAClientException>
   implements IdAClientType
 {
+  private final AtomicReference<IdATransportType> asyncTransport;
+  private final IdStrings strings;
+
   /**
    * The client.
    *
@@ -51,10 +72,98 @@ public final class IdAClient
     final IdAClientConfiguration inConfiguration,
     final IdStrings inStrings,
     final Supplier<HttpClient> inHttpClients)
+  {
+    this(
+      inConfiguration,
+      inStrings,
+      inHttpClients,
+      new AtomicReference<>()
+    );
+  }
+
+  private IdAClient(
+    final IdAClientConfiguration inConfiguration,
+    final IdStrings inStrings,
+    final Supplier<HttpClient> inHttpClients,
+    final AtomicReference<IdATransportType> inAsyncTransport)
   {
     super(
-      new IdAHandlerDisconnected(inConfiguration, inStrings, inHttpClients)
+      new IdAHandlerDisconnected(
+        inConfiguration,
+        inStrings,
+        inHttpClients,
+        inAsyncTransport
+      )
     );
+
+    this.strings =
+      Objects.requireNonNull(inStrings, "inStrings");
+    this.asyncTransport =
+      Objects.requireNonNull(inAsyncTransport, "inAsyncTransport");
+  }
+
+  @Override
+  public <R extends IdAResponseType> CompletableFuture<R> sendAsync(
+    final IdACommandType<R> command,
+    final Duration timeout)
+    throws IdAClientException, InterruptedException
+  {
+    Objects.requireNonNull(command, "command");
+    Objects.requireNonNull(timeout, "timeout");
+
+    return this.transport()
+      .sendAsync(command, timeout)
+      .thenApply(response -> {
+        if (response instanceof final IdAResponseError error) {
+          throw new CompletionException(IdAClientException.ofError(error));
+        }
+        return command.responseClass().cast(response);
+      });
+  }
+
+  @Override
+  public void exportUsers(
+    final IdACommandUserExport command,
+    final IdAClientExportReceiverType<IdAResponseUserExport> receiver,
+    final Duration timeout)
+    throws IdAClientException, InterruptedException
+  {
+    Objects.requireNonNull(command, "command");
+    Objects.requireNonNull(receiver, "receiver");
+    Objects.requireNonNull(timeout, "timeout");
+
+    this.transport().export(command, receiver, timeout);
+  }
+
+  @Override
+  public void exportAuditEvents(
+    final IdACommandAuditExport command,
+    final IdAClientExportReceiverType<IdAResponseAuditExport> receiver,
+    final Duration timeout)
+    throws IdAClientException, InterruptedException
+  {
+    Objects.requireNonNull(command, "command");
+    Objects.requireNonNull(receiver, "receiver");
+    Objects.requireNonNull(timeout, "timeout");
+
+    this.transport().export(command, receiver, timeout);
+  }
+
+  private IdATransportType transport()
+    throws IdAClientException
+  {
+    final var transport = this.asyncTransport.get();
+    if (transport == null) {
+      throw new IdAClientException(
+        this.strings.format(IdStringConstants.ERROR_CLOSED_CHANNEL),
+        new ClosedChannelException(),
+        IdStandardErrorCodes.API_MISUSE_ERROR,
+        Map.of(),
+        Optional.empty(),
+        Optional.empty()
+      );
+    }
+    return transport;
   }
 
   @Override
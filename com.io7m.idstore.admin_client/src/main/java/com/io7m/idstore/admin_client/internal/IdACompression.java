@@ -16,8 +16,11 @@
 
 package com.io7m.idstore.admin_client.internal;
 
+import com.github.luben.zstd.ZstdInputStream;
+
 import java.io.ByteArrayInputStream;
 import java.io.IOException;
+import java.io.InputStream;
 import java.net.http.HttpHeaders;
 import java.net.http.HttpResponse;
 import java.util.Objects;
@@ -30,6 +33,12 @@ import java.util.zip.GZIPInputStream;
 
 public final class IdACompression
 {
+  /**
+   * The value of the {@code Accept-Encoding} header sent with requests.
+   */
+
+  public static final String ACCEPT_ENCODING = "zstd, gzip";
+
   private IdACompression()
   {
 
@@ -59,9 +68,43 @@ public final class IdACompression
       try (var s = new GZIPInputStream(new ByteArrayInputStream(response.body()))) {
         body = s.readAllBytes();
       }
+    } else if (Objects.equals(encoding, Optional.of("zstd"))) {
+      try (var s = new ZstdInputStream(new ByteArrayInputStream(response.body()))) {
+        body = s.readAllBytes();
+      }
     } else {
       body = response.body();
     }
     return body;
   }
+
+  /**
+   * Wrap the given response body stream such that it is decompressed as it
+   * is read, if necessary. This avoids holding both the compressed and the
+   * decompressed forms of the body in memory at once.
+   *
+   * @param body            The response body stream
+   * @param responseHeaders The response headers
+   *
+   * @return The decompressing stream
+   *
+   * @throws IOException On errors
+   */
+
+  public static InputStream decompressStream(
+    final InputStream body,
+    final HttpHeaders responseHeaders)
+    throws IOException
+  {
+    final var encoding =
+      responseHeaders.firstValue("Content-Encoding");
+
+    if (Objects.equals(encoding, Optional.of("gzip"))) {
+      return new GZIPInputStream(body);
+    }
+    if (Objects.equals(encoding, Optional.of("zstd"))) {
+      return new ZstdInputStream(body);
+    }
+    return body;
+  }
 }
@@ -19,6 +19,7 @@ package com.io7m.idstore.admin_client.internal;
 import com.io7m.hibiscus.api.HBClientHandlerType;
 import com.io7m.hibiscus.api.HBConnectionError;
 import com.io7m.hibiscus.api.HBConnectionResultType;
+import com.io7m.hibiscus.api.HBConnectionSucceeded;
 import com.io7m.hibiscus.api.HBTransportClosed;
 import com.io7m.hibiscus.api.HBTransportType;
 import com.io7m.idstore.admin_client.api.IdAClientConfiguration;
@@ -29,6 +30,7 @@ import com.io7m.idstore.strings.IdStrings;
 
 import java.net.http.HttpClient;
 import java.util.Objects;
+import java.util.concurrent.atomic.AtomicReference;
 import java.util.function.Supplier;
 
 /**
@@ -39,19 +41,23 @@ final class IdAHandlerDisconnected extends IdAHandlerAbstract
 {
   private final HBTransportType<IdAMessageType, IdAClientException> transport;
   private final Supplier<HttpClient> httpClients;
+  private final AtomicReference<IdATransportType> asyncTransport;
 
   /**
    * Construct a handler.
    *
-   * @param inConfiguration The configuration
-   * @param inStrings       The string resources
-   * @param inHttpClient    The client
+   * @param inConfiguration  The configuration
+   * @param inStrings        The string resources
+   * @param inHttpClient     The client
+   * @param inAsyncTransport The holder for the transport used by
+   *                         asynchronous sends once connected
    */
 
   IdAHandlerDisconnected(
     final IdAClientConfiguration inConfiguration,
     final IdStrings inStrings,
-    final Supplier<HttpClient> inHttpClient)
+    final Supplier<HttpClient> inHttpClient,
+    final AtomicReference<IdATransportType> inAsyncTransport)
   {
     super(inConfiguration, inStrings);
 
@@ -59,6 +65,8 @@ final class IdAHandlerDisconnected extends IdAHandlerAbstract
       new HBTransportClosed<>(IdAClientException::ofException);
     this.httpClients =
       Objects.requireNonNull(inHttpClient, "inHttpClient");
+    this.asyncTransport =
+      Objects.requireNonNull(inAsyncTransport, "inAsyncTransport");
   }
 
   @Override
@@ -93,7 +101,13 @@ final class IdAHandlerDisconnected extends IdAHandlerAbstract
           newTransport
         );
 
-      return newHandler.doConnect(parameters);
+      final var result =
+        newHandler.doConnect(parameters);
+
+      if (result instanceof HBConnectionSucceeded<?, ?, ?, ?>) {
+        this.asyncTransport.set(newTransport);
+      }
+      return result;
     } catch (final IdAClientException e) {
       return new HBConnectionError<>(e);
     }
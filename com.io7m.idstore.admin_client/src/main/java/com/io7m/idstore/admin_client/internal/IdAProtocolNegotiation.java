@@ -77,6 +77,7 @@ public final class IdAProtocolNegotiation
 
     final var request =
       HttpRequest.newBuilder(base)
+        .header("Accept-Encoding", IdACompression.ACCEPT_ENCODING)
         .GET()
         .build();
 
@@ -21,12 +21,18 @@ import com.io7m.hibiscus.api.HBReadNothing;
 import com.io7m.hibiscus.api.HBReadResponse;
 import com.io7m.hibiscus.api.HBReadType;
 import com.io7m.idstore.admin_client.api.IdAClientException;
+import com.io7m.idstore.admin_client.api.IdAClientExportReceiverType;
 import com.io7m.idstore.error_codes.IdStandardErrorCodes;
+import com.io7m.idstore.protocol.admin.IdACommandAuditExport;
+import com.io7m.idstore.protocol.admin.IdACommandBatch;
 import com.io7m.idstore.protocol.admin.IdACommandLogin;
 import com.io7m.idstore.protocol.admin.IdACommandType;
+import com.io7m.idstore.protocol.admin.IdACommandUserExport;
 import com.io7m.idstore.protocol.admin.IdAMessageType;
+import com.io7m.idstore.protocol.admin.IdAResponseAuditExport;
 import com.io7m.idstore.protocol.admin.IdAResponseError;
 import com.io7m.idstore.protocol.admin.IdAResponseType;
+import com.io7m.idstore.protocol.admin.IdAResponseUserExport;
 import com.io7m.idstore.protocol.admin.cb.IdACB1Messages;
 import com.io7m.idstore.protocol.api.IdProtocolException;
 import com.io7m.idstore.strings.IdStringConstants;
@@ -35,6 +41,7 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.io.IOException;
+import java.io.InputStream;
 import java.net.URI;
 import java.net.http.HttpClient;
 import java.net.http.HttpRequest;
@@ -45,10 +52,14 @@ import java.util.HashMap;
 import java.util.Map;
 import java.util.Objects;
 import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
 import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.Semaphore;
 import java.util.concurrent.TimeUnit;
 
-import static com.io7m.idstore.admin_client.internal.IdACompression.decompressResponse;
+import static com.io7m.idstore.admin_client.internal.IdACompression.decompressStream;
+import static com.io7m.idstore.error_codes.IdStandardErrorCodes.API_MISUSE_ERROR;
 import static com.io7m.idstore.error_codes.IdStandardErrorCodes.PROTOCOL_ERROR;
 import static com.io7m.idstore.strings.IdStringConstants.ERROR_EXPECTED_COMMAND_TYPE;
 import static com.io7m.idstore.strings.IdStringConstants.ERROR_UNEXPECTED_CONTENT_TYPE;
@@ -71,9 +82,12 @@ public final class IdATransport1
   private final IdACB1Messages messages;
   private final URI loginURI;
   private final URI commandURI;
+  private final URI commandsURI;
+  private final URI exportURI;
   private final HttpClient http;
   private final IdStrings strings;
   private final LinkedBlockingQueue<MessageAndResponse> inbox;
+  private final Semaphore inFlight;
 
   private record MessageAndResponse(
     IdAMessageType sent,
@@ -85,15 +99,18 @@ public final class IdATransport1
   /**
    * The version 1 transport.
    *
-   * @param inStrings    The string resources
-   * @param inHttpClient The HTTP client
-   * @param baseURI      The base URI
+   * @param inStrings                 The string resources
+   * @param inHttpClient              The HTTP client
+   * @param baseURI                   The base URI
+   * @param maximumRequestsInFlight   The maximum number of asynchronous
+   *                                  requests in flight
    */
 
   public IdATransport1(
     final IdStrings inStrings,
     final HttpClient inHttpClient,
-    final URI baseURI)
+    final URI baseURI,
+    final int maximumRequestsInFlight)
   {
     this.http =
       Objects.requireNonNull(inHttpClient, "inHttpClient");
@@ -102,6 +119,8 @@ public final class IdATransport1
 
     this.inbox =
       new LinkedBlockingQueue<>();
+    this.inFlight =
+      new Semaphore(maximumRequestsInFlight, true);
 
     this.messages =
       new IdACB1Messages();
@@ -111,6 +130,12 @@ public final class IdATransport1
     this.commandURI =
       baseURI.resolve("command")
         .normalize();
+    this.commandsURI =
+      baseURI.resolve("commands")
+        .normalize();
+    this.exportURI =
+      baseURI.resolve("export")
+        .normalize();
   }
 
   private IdAClientException errorClosed()
@@ -151,6 +176,20 @@ public final class IdATransport1
     InterruptedException,
     IdAClientException,
     IdProtocolException
+  {
+    final var response =
+      this.http.send(
+        this.commandRequest(targetURI, command, timeout),
+        HttpResponse.BodyHandlers.ofInputStream()
+      );
+
+    return this.processResponse(command, response);
+  }
+
+  private HttpRequest commandRequest(
+    final URI targetURI,
+    final IdACommandType<?> command,
+    final Optional<Duration> timeout)
   {
     final var data =
       this.messages.serialize(command);
@@ -158,16 +197,18 @@ public final class IdATransport1
     final var requestBuilder =
       HttpRequest.newBuilder()
         .uri(targetURI)
+        .header("Accept-Encoding", IdACompression.ACCEPT_ENCODING)
         .POST(HttpRequest.BodyPublishers.ofByteArray(data));
 
     timeout.ifPresent(requestBuilder::timeout);
+    return requestBuilder.build();
+  }
 
-    final var response =
-      this.http.send(
-        requestBuilder.build(),
-        HttpResponse.BodyHandlers.ofByteArray()
-      );
-
+  private MessageAndResponse processResponse(
+    final IdACommandType<?> command,
+    final HttpResponse<InputStream> response)
+    throws IOException, IdAClientException, IdProtocolException
+  {
     LOG.debug("Write: Status {}", Integer.valueOf(response.statusCode()));
 
     final var responseHeaders =
@@ -183,16 +224,19 @@ public final class IdATransport1
 
     final var expectedContentType = IdACB1Messages.contentType();
     if (!contentType.equals(expectedContentType)) {
+      response.body().close();
       throw this.errorContentType(contentType, expectedContentType);
     }
 
     /*
-     * Parse the response message, decompressing if necessary. If the
+     * Parse the response message, decompressing as the body is read. If the
      * parsed message isn't a response... fail.
      */
 
-    final var responseMessage =
-      this.messages.parse(decompressResponse(response, responseHeaders));
+    final IdAMessageType responseMessage;
+    try (var stream = decompressStream(response.body(), responseHeaders)) {
+      responseMessage = this.messages.parse(stream);
+    }
 
     if (!(responseMessage instanceof IdAResponseType)) {
       throw this.errorUnexpectedResponseType(command, responseMessage);
@@ -317,6 +361,16 @@ public final class IdATransport1
     return new HBReadResponse<>(r.sent(), r.received());
   }
 
+  private URI targetURIFor(
+    final IdAMessageType message)
+  {
+    return switch (message) {
+      case final IdACommandLogin ignored -> this.loginURI;
+      case final IdACommandBatch ignored -> this.commandsURI;
+      default -> this.commandURI;
+    };
+  }
+
   @Override
   public void send(
     final IdAMessageType message)
@@ -328,22 +382,11 @@ public final class IdATransport1
 
     try {
       this.inbox.put(
-        switch (message) {
-          case final IdACommandLogin m -> {
-            yield this.sendMessage(
-              message,
-              this.loginURI,
-              Optional.empty()
-            );
-          }
-          default -> {
-            yield this.sendMessage(
-              message,
-              this.commandURI,
-              Optional.empty()
-            );
-          }
-        }
+        this.sendMessage(
+          message,
+          this.targetURIFor(message),
+          Optional.empty()
+        )
       );
     } catch (final IOException | IdProtocolException e) {
       throw IdAClientException.ofException(e);
@@ -361,10 +404,7 @@ public final class IdATransport1
 
     try {
       final var targetURI =
-        switch (message) {
-          case final IdACommandLogin ignored -> this.loginURI;
-          default -> this.commandURI;
-        };
+        this.targetURIFor(message);
 
       final var data =
         this.messages.serialize(message);
@@ -395,29 +435,198 @@ public final class IdATransport1
     }
 
     try {
-      return (
-        switch (message) {
-          case final IdACommandLogin m -> {
-            yield this.sendMessage(
-              message,
-              this.loginURI,
-              Optional.of(timeout)
-            );
-          }
-          default -> {
-            yield this.sendMessage(
-              message,
-              this.commandURI,
-              Optional.of(timeout)
-            );
+      return this.sendMessage(
+        message,
+        this.targetURIFor(message),
+        Optional.of(timeout)
+      ).received();
+    } catch (final IOException | IdProtocolException e) {
+      throw IdAClientException.ofException(e);
+    }
+  }
+
+  @Override
+  public CompletableFuture<IdAMessageType> sendAsync(
+    final IdAMessageType message,
+    final Duration timeout)
+    throws IdAClientException, InterruptedException
+  {
+    Objects.requireNonNull(timeout, "timeout");
+
+    if (this.isClosed()) {
+      throw this.errorClosed();
+    }
+    if (!(message instanceof final IdACommandType<?> command)) {
+      throw this.errorNotCommand(message);
+    }
+
+    final var request =
+      this.commandRequest(
+        this.targetURIFor(message),
+        command,
+        Optional.of(timeout)
+      );
+
+    /*
+     * Block the caller until a slot is available. The slot is released
+     * only once the response body has been fully consumed.
+     */
+
+    this.inFlight.acquire();
+
+    final CompletableFuture<HttpResponse<InputStream>> future;
+    try {
+      future = this.http.sendAsync(
+        request,
+        HttpResponse.BodyHandlers.ofInputStream()
+      );
+    } catch (final RuntimeException e) {
+      this.inFlight.release();
+      throw IdAClientException.ofException(e);
+    }
+
+    return future
+      .thenApply(response -> {
+        try {
+          return this.processResponse(command, response).received();
+        } catch (final IOException
+                       | IdProtocolException
+                       | IdAClientException e) {
+          throw new CompletionException(IdAClientException.ofException(e));
+        }
+      })
+      .whenComplete((ignored0, ignored1) -> this.inFlight.release());
+  }
+
+  @Override
+  public <R extends IdAResponseType> void export(
+    final IdACommandType<R> command,
+    final IdAClientExportReceiverType<R> receiver,
+    final Duration timeout)
+    throws IdAClientException, InterruptedException
+  {
+    Objects.requireNonNull(command, "command");
+    Objects.requireNonNull(receiver, "receiver");
+    Objects.requireNonNull(timeout, "timeout");
+
+    if (this.isClosed()) {
+      throw this.errorClosed();
+    }
+
+    switch (command) {
+      case final IdACommandAuditExport ignored -> {
+
+      }
+      case final IdACommandUserExport ignored -> {
+
+      }
+      default -> throw this.errorNotExport(command);
+    }
+
+    try {
+      final var response =
+        this.http.send(
+          this.commandRequest(this.exportURI, command, Optional.of(timeout)),
+          HttpResponse.BodyHandlers.ofInputStream()
+        );
+
+      LOG.debug("Export: Status {}", Integer.valueOf(response.statusCode()));
+
+      final var responseHeaders =
+        response.headers();
+      final var contentType =
+        responseHeaders.firstValue("content-type")
+          .orElse("application/octet-stream");
+
+      try (var stream = decompressStream(response.body(), responseHeaders)) {
+
+        /*
+         * Failures that occur before the export begins (authentication,
+         * permissions, malformed commands) are delivered as a single
+         * ordinary message rather than as a stream.
+         */
+
+        if (contentType.equals(IdACB1Messages.contentType())) {
+          final var message = this.messages.parse(stream);
+          if (message instanceof final IdAResponseError error) {
+            throw IdAClientException.ofError(error);
           }
+          throw this.errorUnexpectedResponseType(command, message);
         }
-      ).received();
+
+        final var expectedContentType = IdACB1Messages.contentTypeStream();
+        if (!contentType.equals(expectedContentType)) {
+          throw this.errorContentType(contentType, expectedContentType);
+        }
+
+        this.exportReceive(command, receiver, stream);
+      }
     } catch (final IOException | IdProtocolException e) {
       throw IdAClientException.ofException(e);
     }
   }
 
+  private <R extends IdAResponseType> void exportReceive(
+    final IdACommandType<R> command,
+    final IdAClientExportReceiverType<R> receiver,
+    final InputStream stream)
+    throws IdProtocolException, IdAClientException, IOException
+  {
+    final var responseClass = command.responseClass();
+
+    while (true) {
+      final var next = this.messages.parseFramed(stream);
+      if (next.isEmpty()) {
+        throw new IdProtocolException(
+          "The export stream ended before the last chunk was received.",
+          PROTOCOL_ERROR,
+          Map.of(),
+          Optional.empty()
+        );
+      }
+
+      final var message = next.get();
+      if (message instanceof final IdAResponseError error) {
+        throw IdAClientException.ofError(error);
+      }
+      if (!responseClass.isInstance(message)) {
+        throw this.errorUnexpectedResponseType(command, message);
+      }
+
+      final var chunk = responseClass.cast(message);
+      receiver.receive(chunk);
+
+      final var last =
+        switch (chunk) {
+          case final IdAResponseAuditExport c -> c.last();
+          case final IdAResponseUserExport c -> c.last();
+          default -> true;
+        };
+
+      if (last) {
+        return;
+      }
+    }
+  }
+
+  private IdAClientException errorNotExport(
+    final IdAMessageType message)
+  {
+    final var attributes = new HashMap<String, String>();
+    attributes.put(
+      this.strings.format(IdStringConstants.MESSAGE_TYPE),
+      message.getClass().getSimpleName()
+    );
+
+    return new IdAClientException(
+      this.strings.format(IdStringConstants.COMMAND_NOT_HERE),
+      API_MISUSE_ERROR,
+      Map.copyOf(attributes),
+      Optional.empty(),
+      Optional.empty()
+    );
+  }
+
   @Override
   public String toString()
   {
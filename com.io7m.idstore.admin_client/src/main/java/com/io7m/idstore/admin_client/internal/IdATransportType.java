@@ -19,7 +19,13 @@ package com.io7m.idstore.admin_client.internal;
 
 import com.io7m.hibiscus.api.HBTransportType;
 import com.io7m.idstore.admin_client.api.IdAClientException;
+import com.io7m.idstore.admin_client.api.IdAClientExportReceiverType;
+import com.io7m.idstore.protocol.admin.IdACommandType;
 import com.io7m.idstore.protocol.admin.IdAMessageType;
+import com.io7m.idstore.protocol.admin.IdAResponseType;
+
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
 
 /**
  * The type of message transports.
@@ -28,5 +34,41 @@ import com.io7m.idstore.protocol.admin.IdAMessageType;
 public interface IdATransportType
   extends HBTransportType<IdAMessageType, IdAClientException>
 {
+  /**
+   * Send a message without waiting for the response. The number of
+   * requests that may be in flight at once is bounded; if the limit has been
+   * reached, this method blocks until a slot becomes available.
+   *
+   * @param message The message
+   * @param timeout The timeout
+   *
+   * @return A future representing the response, which may be an error
+   *
+   * @throws IdAClientException   On errors
+   * @throws InterruptedException On interruption
+   */
+
+  CompletableFuture<IdAMessageType> sendAsync(
+    IdAMessageType message,
+    Duration timeout)
+    throws IdAClientException, InterruptedException;
+
+  /**
+   * Send an export command, and pass each chunk of the streamed response to
+   * the given receiver until the last chunk has been received.
+   *
+   * @param command  The export command
+   * @param receiver The chunk receiver
+   * @param timeout  The timeout for the start of the response
+   * @param <R>      The type of chunks
+   *
+   * @throws IdAClientException   On errors
+   * @throws InterruptedException On interruption
+   */
 
+  <R extends IdAResponseType> void export(
+    IdACommandType<R> command,
+    IdAClientExportReceiverType<R> receiver,
+    Duration timeout)
+    throws IdAClientException, InterruptedException;
 }
@@ -63,7 +63,8 @@ public final class IdATransports1
     return new IdATransport1(
       inStrings,
       inHttpClient,
-      inBaseURI
+      inBaseURI,
+      configuration.maximumRequestsInFlight()
     );
   }
 
@@ -221,6 +221,24 @@ public non-sealed interface IdDatabaseAdminsQueriesType
     IdAdminSearchParameters parameters)
     throws IdDatabaseException;
 
+  /**
+   * Resume an admin search at a position previously obtained from
+   * {@link IdDatabasePagedQueryType#position()}. The parameters must be
+   * identical to those used to begin the search.
+   *
+   * @param parameters The search parameters
+   * @param position   The search position
+   *
+   * @return The admins
+   *
+   * @throws IdDatabaseException On errors
+   */
+
+  IdDatabaseAdminSearchType adminSearch(
+    IdAdminSearchParameters parameters,
+    IdDatabaseSearchPosition position)
+    throws IdDatabaseException;
+
   /**
    * @param id The admin ID
    *
@@ -344,4 +362,22 @@ public non-sealed interface IdDatabaseAdminsQueriesType
   IdDatabaseAdminSearchByEmailType adminSearchByEmail(
     IdAdminSearchByEmailParameters parameters)
     throws IdDatabaseException;
+
+  /**
+   * Resume an admin search by email at a position previously obtained from
+   * {@link IdDatabasePagedQueryType#position()}. The parameters must be
+   * identical to those used to begin the search.
+   *
+   * @param parameters The search parameters
+   * @param position   The search position
+   *
+   * @return The admins
+   *
+   * @throws IdDatabaseException On errors
+   */
+
+  IdDatabaseAdminSearchByEmailType adminSearchByEmail(
+    IdAdminSearchByEmailParameters parameters,
+    IdDatabaseSearchPosition position)
+    throws IdDatabaseException;
 }
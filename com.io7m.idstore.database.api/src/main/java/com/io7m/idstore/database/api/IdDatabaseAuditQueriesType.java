@@ -16,6 +16,7 @@
 
 package com.io7m.idstore.database.api;
 
+import com.io7m.idstore.model.IdAuditEvent;
 import com.io7m.idstore.model.IdAuditSearchParameters;
 
 import java.time.OffsetDateTime;
@@ -43,6 +44,41 @@ public non-sealed interface IdDatabaseAuditQueriesType
     IdAuditSearchParameters parameters)
     throws IdDatabaseException;
 
+  /**
+   * Resume an audit event search at a position previously obtained from
+   * {@link IdDatabasePagedQueryType#position()}. The parameters must be
+   * identical to those used to begin the search.
+   *
+   * @param parameters The search parameters
+   * @param position   The search position
+   *
+   * @return A series of audit events, sorted by time
+   *
+   * @throws IdDatabaseException On errors
+   */
+
+  IdDatabaseAuditEventsSearchType auditEventsSearch(
+    IdAuditSearchParameters parameters,
+    IdDatabaseSearchPosition position)
+    throws IdDatabaseException;
+
+  /**
+   * Export all audit events from the database matching the given parameters.
+   * The limit specified in the parameters is ignored.
+   *
+   * @param parameters The search parameters
+   * @param fetchSize  The number of events fetched per chunk
+   *
+   * @return An export of audit events, sorted by ID
+   *
+   * @throws IdDatabaseException On errors
+   */
+
+  IdDatabaseExportType<IdAuditEvent> auditEventsExport(
+    IdAuditSearchParameters parameters,
+    int fetchSize)
+    throws IdDatabaseException;
+
   /**
    * Create an audit event.
    *
@@ -19,6 +19,8 @@ package com.io7m.idstore.database.api;
 import com.io7m.idstore.strings.IdStrings;
 
 import java.time.Clock;
+import java.time.Duration;
+import java.util.List;
 import java.util.Objects;
 import java.util.Optional;
 
@@ -34,6 +36,11 @@ import java.util.Optional;
  * @param create             The creation specification
  * @param address            The database address
  * @param databaseName       The database name
+ * @param searchExactCountLimit Searches estimated to match more than this many rows report approximate page counts
+ * @param replicas           The read replicas used for read-only connections
+ * @param replicaMaximumLag  Replicas lagging further behind the primary than this are not used
+ * @param pool               The connection pool configuration
+ * @param slowQueryThreshold Statements taking longer than this are logged
  * @param strings            The string resources
  * @param clock              A clock for time retrievals
  */
@@ -48,6 +55,11 @@ public record IdDatabaseConfiguration(
   String databaseName,
   IdDatabaseCreate create,
   IdDatabaseUpgrade upgrade,
+  long searchExactCountLimit,
+  List<IdDatabaseReplica> replicas,
+  Duration replicaMaximumLag,
+  IdDatabasePoolConfiguration pool,
+  Duration slowQueryThreshold,
   IdStrings strings,
   Clock clock)
 {
@@ -63,6 +75,11 @@ public record IdDatabaseConfiguration(
    * @param create             The creation specification
    * @param address            The database address
    * @param databaseName       The database name
+   * @param searchExactCountLimit Searches estimated to match more than this many rows report approximate page counts
+   * @param replicas           The read replicas used for read-only connections
+   * @param replicaMaximumLag  Replicas lagging further behind the primary than this are not used
+   * @param pool               The connection pool configuration
+   * @param slowQueryThreshold Statements taking longer than this are logged
    * @param strings            The string resources
    * @param clock              A clock for time retrievals
    */
@@ -77,8 +94,29 @@ public record IdDatabaseConfiguration(
     Objects.requireNonNull(databaseName, "databaseName");
     Objects.requireNonNull(create, "create");
     Objects.requireNonNull(upgrade, "upgrade");
+    Objects.requireNonNull(replicaMaximumLag, "replicaMaximumLag");
+    Objects.requireNonNull(pool, "pool");
+    Objects.requireNonNull(slowQueryThreshold, "slowQueryThreshold");
     Objects.requireNonNull(strings, "strings");
     Objects.requireNonNull(clock, "clock");
+
+    replicas = List.copyOf(replicas);
+
+    if (searchExactCountLimit < 0L) {
+      throw new IllegalArgumentException(
+        "Search exact count limit %d must be non-negative"
+          .formatted(Long.valueOf(searchExactCountLimit)));
+    }
+    if (replicaMaximumLag.isNegative()) {
+      throw new IllegalArgumentException(
+        "Replica maximum lag %s must be non-negative"
+          .formatted(replicaMaximumLag));
+    }
+    if (slowQueryThreshold.isNegative()) {
+      throw new IllegalArgumentException(
+        "Slow query threshold %s must be non-negative"
+          .formatted(slowQueryThreshold));
+    }
   }
 
   /**
@@ -97,6 +135,129 @@ public record IdDatabaseConfiguration(
       this.databaseName(),
       IdDatabaseCreate.DO_NOT_CREATE_DATABASE,
       IdDatabaseUpgrade.DO_NOT_UPGRADE_DATABASE,
+      this.searchExactCountLimit(),
+      this.replicas(),
+      this.replicaMaximumLag(),
+      this.pool(),
+      this.slowQueryThreshold(),
+      this.strings(),
+      this.clock()
+    );
+  }
+
+  /**
+   * @param limit The new limit
+   *
+   * @return this, but with the given search exact count limit
+   */
+
+  public IdDatabaseConfiguration withSearchExactCountLimit(
+    final long limit)
+  {
+    return new IdDatabaseConfiguration(
+      this.ownerRoleName(),
+      this.ownerRolePassword(),
+      this.workerRolePassword(),
+      this.readerRolePassword(),
+      this.address(),
+      this.port(),
+      this.databaseName(),
+      this.create(),
+      this.upgrade(),
+      limit,
+      this.replicas(),
+      this.replicaMaximumLag(),
+      this.pool(),
+      this.slowQueryThreshold(),
+      this.strings(),
+      this.clock()
+    );
+  }
+
+  /**
+   * @param newReplicas   The new read replicas
+   * @param newMaximumLag The new maximum replica lag
+   *
+   * @return this, but with the given read replicas
+   */
+
+  public IdDatabaseConfiguration withReplicas(
+    final List<IdDatabaseReplica> newReplicas,
+    final Duration newMaximumLag)
+  {
+    return new IdDatabaseConfiguration(
+      this.ownerRoleName(),
+      this.ownerRolePassword(),
+      this.workerRolePassword(),
+      this.readerRolePassword(),
+      this.address(),
+      this.port(),
+      this.databaseName(),
+      this.create(),
+      this.upgrade(),
+      this.searchExactCountLimit(),
+      newReplicas,
+      newMaximumLag,
+      this.pool(),
+      this.slowQueryThreshold(),
+      this.strings(),
+      this.clock()
+    );
+  }
+
+  /**
+   * @param newPool The new pool configuration
+   *
+   * @return this, but with the given pool configuration
+   */
+
+  public IdDatabaseConfiguration withPool(
+    final IdDatabasePoolConfiguration newPool)
+  {
+    return new IdDatabaseConfiguration(
+      this.ownerRoleName(),
+      this.ownerRolePassword(),
+      this.workerRolePassword(),
+      this.readerRolePassword(),
+      this.address(),
+      this.port(),
+      this.databaseName(),
+      this.create(),
+      this.upgrade(),
+      this.searchExactCountLimit(),
+      this.replicas(),
+      this.replicaMaximumLag(),
+      newPool,
+      this.slowQueryThreshold(),
+      this.strings(),
+      this.clock()
+    );
+  }
+
+  /**
+   * @param threshold The new slow query threshold
+   *
+   * @return this, but with the given slow query threshold
+   */
+
+  public IdDatabaseConfiguration withSlowQueryThreshold(
+    final Duration threshold)
+  {
+    return new IdDatabaseConfiguration(
+      this.ownerRoleName(),
+      this.ownerRolePassword(),
+      this.workerRolePassword(),
+      this.readerRolePassword(),
+      this.address(),
+      this.port(),
+      this.databaseName(),
+      this.create(),
+      this.upgrade(),
+      this.searchExactCountLimit(),
+      this.replicas(),
+      this.replicaMaximumLag(),
+      this.pool(),
+      threshold,
       this.strings(),
       this.clock()
     );
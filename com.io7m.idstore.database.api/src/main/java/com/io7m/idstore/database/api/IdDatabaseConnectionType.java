@@ -17,6 +17,8 @@
 
 package com.io7m.idstore.database.api;
 
+import java.time.OffsetDateTime;
+
 /**
  * The type of database connections.
  */
@@ -37,4 +39,21 @@ public interface IdDatabaseConnectionType extends AutoCloseable
 
   IdDatabaseTransactionType openTransaction()
     throws IdDatabaseException;
+
+  /**
+   * Begin a new transaction that must finish before the given deadline.
+   * Each statement executed in the transaction is limited to the time
+   * remaining until the deadline, and the database cancels any statement
+   * that is still running when the deadline passes.
+   *
+   * @param deadline The deadline
+   *
+   * @return The transaction
+   *
+   * @throws IdDatabaseException On errors, or if the deadline has passed
+   */
+
+  IdDatabaseTransactionType openTransaction(
+    OffsetDateTime deadline)
+    throws IdDatabaseException;
 }
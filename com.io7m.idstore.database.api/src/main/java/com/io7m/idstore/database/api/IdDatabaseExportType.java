@@ -0,0 +1,54 @@
+/*
+ * Copyright © 2024 Mark Raynsford <code@io7m.com> https://www.io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+
+package com.io7m.idstore.database.api;
+
+import java.util.List;
+
+/**
+ * The type of exports. An export is a forward-only, server-side cursor
+ * over the results of a query, and yields results in chunks so that
+ * arbitrarily large result sets can be consumed in constant memory. An
+ * export is only valid for as long as the transaction that created it.
+ *
+ * @param <T> The type of result values
+ */
+
+public interface IdDatabaseExportType<T> extends AutoCloseable
+{
+  /**
+   * @return The maximum number of results returned by {@link #next()}
+   */
+
+  int fetchSize();
+
+  /**
+   * Fetch the next chunk of results.
+   *
+   * @return The next chunk of results, or an empty list if the results are
+   * exhausted
+   *
+   * @throws IdDatabaseException On errors
+   */
+
+  List<T> next()
+    throws IdDatabaseException;
+
+  @Override
+  void close()
+    throws IdDatabaseException;
+}
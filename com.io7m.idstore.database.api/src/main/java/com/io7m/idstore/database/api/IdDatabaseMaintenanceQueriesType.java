@@ -24,11 +24,66 @@ public non-sealed interface IdDatabaseMaintenanceQueriesType
   extends IdDatabaseQueriesType
 {
   /**
-   * Run maintenance tasks.
+   * Run all maintenance tasks to completion within the current transaction.
    *
    * @throws IdDatabaseException On errors
    */
 
   void runMaintenance()
     throws IdDatabaseException;
+
+  /**
+   * Run a single batch of the given maintenance task. Batched tasks (see
+   * {@link IdDatabaseMaintenanceTask#isBatched()}) delete at most
+   * {@code batchSize} records per batch, and are complete when a batch
+   * affects fewer than {@code batchSize} records. Other tasks ignore
+   * {@code batchSize} and are complete after a single run.
+   *
+   * @param task      The task
+   * @param batchSize The maximum number of records affected
+   *
+   * @return The number of records affected
+   *
+   * @throws IdDatabaseException On errors
+   */
+
+  long runMaintenanceTask(
+    IdDatabaseMaintenanceTask task,
+    int batchSize)
+    throws IdDatabaseException;
+
+  /**
+   * Try to acquire the maintenance leader lock. The lock is a session-level
+   * lock: it is held by the connection on which this transaction is running
+   * until it is released with {@link #maintenanceLeaderLockRelease()}, or
+   * until the connection is closed, regardless of whether this transaction
+   * is committed. At most one connection may hold the lock at any time.
+   *
+   * @return {@code true} if the lock was acquired
+   *
+   * @throws IdDatabaseException On errors
+   */
+
+  boolean maintenanceLeaderLockTry()
+    throws IdDatabaseException;
+
+  /**
+   * @return {@code true} if the connection on which this transaction is
+   * running currently holds the maintenance leader lock
+   *
+   * @throws IdDatabaseException On errors
+   */
+
+  boolean maintenanceLeaderLockHeld()
+    throws IdDatabaseException;
+
+  /**
+   * Release the maintenance leader lock, if the connection on which this
+   * transaction is running holds it.
+   *
+   * @throws IdDatabaseException On errors
+   */
+
+  void maintenanceLeaderLockRelease()
+    throws IdDatabaseException;
 }
@@ -0,0 +1,87 @@
+/*
+ * Copyright © 2024 Mark Raynsford <code@io7m.com> https://www.io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+
+package com.io7m.idstore.database.api;
+
+/**
+ * The individual database maintenance tasks.
+ */
+
+public enum IdDatabaseMaintenanceTask
+{
+  /**
+   * Delete expired email verifications.
+   */
+
+  EXPIRE_EMAIL_VERIFICATIONS("expire_email_verifications", true),
+
+  /**
+   * Delete expired bans.
+   */
+
+  EXPIRE_BANS("expire_bans", true),
+
+  /**
+   * Delete expired password resets.
+   */
+
+  EXPIRE_PASSWORD_RESETS("expire_password_resets", true),
+
+  /**
+   * Delete expired rate limit records.
+   */
+
+  EXPIRE_RATE_LIMITS("expire_rate_limits", true),
+
+  /**
+   * Grant every permission to the initial administrator.
+   */
+
+  UPDATE_INITIAL_ADMIN_PERMISSIONS("update_initial_admin_permissions", false);
+
+  private final String taskName;
+  private final boolean batched;
+
+  IdDatabaseMaintenanceTask(
+    final String inTaskName,
+    final boolean inBatched)
+  {
+    this.taskName = inTaskName;
+    this.batched = inBatched;
+  }
+
+  /**
+   * @return {@code true} if the task works in batches of at most the batch
+   * size, and must be run repeatedly until a batch affects fewer records
+   * than the batch size; {@code false} if a single run of the task
+   * completes it, regardless of the number of records affected
+   */
+
+  public boolean isBatched()
+  {
+    return this.batched;
+  }
+
+  /**
+   * @return The task name, as used in logs and metrics
+   */
+
+  public String taskName()
+  {
+    return this.taskName;
+  }
+}
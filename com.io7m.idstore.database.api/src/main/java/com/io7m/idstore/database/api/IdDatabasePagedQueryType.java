@@ -68,4 +68,12 @@ public interface IdDatabasePagedQueryType<Q extends IdDatabaseQueriesType, T>
 
   IdPage<T> pagePrevious(Q queries)
     throws IdDatabaseException;
+
+  /**
+   * @return The position of the page most recently returned by this search
+   *
+   * @throws IllegalStateException If no page has been returned yet
+   */
+
+  IdDatabaseSearchPosition position();
 }
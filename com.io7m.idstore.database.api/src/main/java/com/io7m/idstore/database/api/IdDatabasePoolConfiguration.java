@@ -0,0 +1,144 @@
+/*
+ * Copyright © 2024 Mark Raynsford <code@io7m.com> https://www.io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+
+package com.io7m.idstore.database.api;
+
+import java.time.Duration;
+import java.util.Objects;
+
+/**
+ * The database connection pool configuration.
+ *
+ * @param minimumSize                   The minimum number of connections
+ * @param maximumSize                   The maximum number of connections
+ * @param adaptive                      {@code true} if the pool size should
+ *                                      be adjusted between the minimum and
+ *                                      maximum according to observed demand
+ * @param connectionTimeout             The maximum time to wait for a
+ *                                      connection from the pool
+ * @param maximumLifetime               The maximum lifetime of a connection
+ * @param prepareThreshold              The number of executions of a
+ *                                      statement after which the driver
+ *                                      switches to server-side prepared
+ *                                      statements ({@code 0} disables
+ *                                      server-side prepared statements)
+ * @param preparedStatementCacheQueries The number of prepared statements
+ *                                      cached per connection
+ * @param secondaryMaximumSize          The maximum number of connections in
+ *                                      each of the pools for roles other
+ *                                      than the main role
+ */
+
+public record IdDatabasePoolConfiguration(
+  int minimumSize,
+  int maximumSize,
+  boolean adaptive,
+  Duration connectionTimeout,
+  Duration maximumLifetime,
+  int prepareThreshold,
+  int preparedStatementCacheQueries,
+  int secondaryMaximumSize)
+{
+  /**
+   * The database connection pool configuration.
+   *
+   * @param minimumSize                   The minimum number of connections
+   * @param maximumSize                   The maximum number of connections
+   * @param adaptive                      {@code true} if the pool size should
+   *                                      be adjusted between the minimum and
+   *                                      maximum according to observed demand
+   * @param connectionTimeout             The maximum time to wait for a
+   *                                      connection from the pool
+   * @param maximumLifetime               The maximum lifetime of a connection
+   * @param prepareThreshold              The number of executions of a
+   *                                      statement after which the driver
+   *                                      switches to server-side prepared
+   *                                      statements ({@code 0} disables
+   *                                      server-side prepared statements)
+   * @param preparedStatementCacheQueries The number of prepared statements
+   *                                      cached per connection
+   * @param secondaryMaximumSize          The maximum number of connections in
+   *                                      each of the pools for roles other
+   *                                      than the main role
+   */
+
+  public IdDatabasePoolConfiguration
+  {
+    Objects.requireNonNull(connectionTimeout, "connectionTimeout");
+    Objects.requireNonNull(maximumLifetime, "maximumLifetime");
+
+    if (minimumSize < 1) {
+      throw new IllegalArgumentException(
+        "Minimum pool size %d must be positive"
+          .formatted(Integer.valueOf(minimumSize)));
+    }
+    if (maximumSize < minimumSize) {
+      throw new IllegalArgumentException(
+        "Maximum pool size %d must be at least the minimum size %d"
+          .formatted(
+            Integer.valueOf(maximumSize),
+            Integer.valueOf(minimumSize)));
+    }
+    if (connectionTimeout.isNegative()) {
+      throw new IllegalArgumentException(
+        "Connection timeout %s must be non-negative"
+          .formatted(connectionTimeout));
+    }
+    if (maximumLifetime.isNegative()) {
+      throw new IllegalArgumentException(
+        "Maximum lifetime %s must be non-negative"
+          .formatted(maximumLifetime));
+    }
+    if (prepareThreshold < 0) {
+      throw new IllegalArgumentException(
+        "Prepare threshold %d must be non-negative"
+          .formatted(Integer.valueOf(prepareThreshold)));
+    }
+    if (preparedStatementCacheQueries < 0) {
+      throw new IllegalArgumentException(
+        "Prepared statement cache size %d must be non-negative"
+          .formatted(Integer.valueOf(preparedStatementCacheQueries)));
+    }
+    if (secondaryMaximumSize < 1) {
+      throw new IllegalArgumentException(
+        "Secondary pool size %d must be positive"
+          .formatted(Integer.valueOf(secondaryMaximumSize)));
+    }
+  }
+
+  /**
+   * The default pool configuration. This is a fixed-size pool of ten
+   * connections, using the driver's default statement preparation settings,
+   * with at most four connections for each of the other roles.
+   *
+   * @return The default pool configuration
+   */
+
+  public static IdDatabasePoolConfiguration defaults()
+  {
+    return new IdDatabasePoolConfiguration(
+      10,
+      10,
+      false,
+      Duration.ofSeconds(30L),
+      Duration.ofMinutes(30L),
+      5,
+      256,
+      4
+    );
+  }
+}
@@ -25,6 +25,7 @@ public sealed interface IdDatabaseQueriesType
   IdDatabaseAuditQueriesType,
   IdDatabaseEmailsQueriesType,
   IdDatabaseMaintenanceQueriesType,
+  IdDatabaseRateLimitsQueriesType,
   IdDatabaseUsersQueriesType
 {
 
@@ -0,0 +1,56 @@
+/*
+ * Copyright © 2024 Mark Raynsford <code@io7m.com> https://www.io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+
+package com.io7m.idstore.database.api;
+
+import java.time.Duration;
+
+/**
+ * The database queries involving shared rate limits.
+ */
+
+public non-sealed interface IdDatabaseRateLimitsQueriesType
+  extends IdDatabaseQueriesType
+{
+  /**
+   * Record operations that have already been permitted against the shared
+   * rate limit bucket identified by the given limiter and key. The
+   * operations are always recorded, even if they overdraw the bucket; the
+   * result indicates how long it will be before the bucket permits another
+   * operation. The bucket holds at most {@code burst} tokens, and gains one
+   * token every {@code interval}.
+   *
+   * @param limiter  The limiter name
+   * @param key      The key within the limiter
+   * @param interval The interval at which tokens are added to the bucket
+   * @param burst    The maximum number of tokens in the bucket
+   * @param count    The number of operations to record
+   *
+   * @return The time until another operation is permitted, or zero if one
+   * is permitted now
+   *
+   * @throws IdDatabaseException On errors
+   */
+
+  Duration rateLimitRecord(
+    String limiter,
+    String key,
+    Duration interval,
+    int burst,
+    long count)
+    throws IdDatabaseException;
+}
@@ -17,7 +17,8 @@
 package com.io7m.idstore.database.api;
 
 /**
- * The roles used by the server database.
+ * The roles used by the server database. Each role is served by its own
+ * pool of connections, and connections never change role.
  */
 
 public enum IdDatabaseRole
@@ -29,7 +30,8 @@ public enum IdDatabaseRole
   IDSTORE,
 
   /**
-   * The main read-only idstore role.
+   * The main read-only idstore role. Connections opened in this role may be
+   * served by a read replica, if any are configured.
    */
 
   IDSTORE_READ_ONLY,
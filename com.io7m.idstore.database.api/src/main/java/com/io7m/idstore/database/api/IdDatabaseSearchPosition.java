@@ -0,0 +1,101 @@
+/*
+ * Copyright © 2024 Mark Raynsford <code@io7m.com> https://www.io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+
+package com.io7m.idstore.database.api;
+
+import java.util.List;
+
+/**
+ * <p>The position of a paged search, sufficient to resume the search without
+ * any server-side state.</p>
+ *
+ * <p>The key lists hold the values of the search's sort fields for the first
+ * and last rows of the current page, in sort order. Key values are always
+ * one of {@link Long}, {@link String}, {@link java.util.UUID}, or
+ * {@link java.time.OffsetDateTime}. Both lists are empty if the current page
+ * is empty.</p>
+ *
+ * <p>If {@code pageCountApproximate} is {@code true}, the page count is an
+ * estimate, and the search may continue past it. The count becomes exact once
+ * the search reaches the final page.</p>
+ *
+ * @param pageIndex            The index of the current page (starting at 1)
+ * @param pageCount            The number of pages at the time the search began
+ * @param firstKey             The sort key of the first row of the current page
+ * @param lastKey              The sort key of the last row of the current page
+ * @param pageCountApproximate {@code true} if the page count is an estimate
+ */
+
+public record IdDatabaseSearchPosition(
+  int pageIndex,
+  int pageCount,
+  List<Object> firstKey,
+  List<Object> lastKey,
+  boolean pageCountApproximate)
+{
+  /**
+   * The position of a paged search.
+   *
+   * @param pageIndex            The index of the current page (starting at 1)
+   * @param pageCount            The number of pages at the time the search
+   *                             began
+   * @param firstKey             The sort key of the first row of the current
+   *                             page
+   * @param lastKey              The sort key of the last row of the current
+   *                             page
+   * @param pageCountApproximate {@code true} if the page count is an estimate
+   */
+
+  public IdDatabaseSearchPosition
+  {
+    firstKey = List.copyOf(firstKey);
+    lastKey = List.copyOf(lastKey);
+
+    if (pageIndex < 1) {
+      throw new IllegalArgumentException(
+        "Page index %d must be positive".formatted(pageIndex));
+    }
+    if (pageCount < pageIndex) {
+      throw new IllegalArgumentException(
+        "Page count %d must be at least the page index %d"
+          .formatted(pageCount, pageIndex));
+    }
+    if (firstKey.size() != lastKey.size()) {
+      throw new IllegalArgumentException(
+        "Key sizes %d and %d must match"
+          .formatted(firstKey.size(), lastKey.size()));
+    }
+  }
+
+  /**
+   * The position of a paged search with an exact page count.
+   *
+   * @param pageIndex The index of the current page (starting at 1)
+   * @param pageCount The number of pages at the time the search began
+   * @param firstKey  The sort key of the first row of the current page
+   * @param lastKey   The sort key of the last row of the current page
+   */
+
+  public IdDatabaseSearchPosition(
+    final int pageIndex,
+    final int pageCount,
+    final List<Object> firstKey,
+    final List<Object> lastKey)
+  {
+    this(pageIndex, pageCount, firstKey, lastKey, false);
+  }
+}
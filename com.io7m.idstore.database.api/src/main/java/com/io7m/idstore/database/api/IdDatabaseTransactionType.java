@@ -16,6 +16,10 @@
 
 package com.io7m.idstore.database.api;
 
+import com.io7m.idstore.model.IdAdmin;
+import com.io7m.idstore.model.IdUser;
+
+import java.time.OffsetDateTime;
 import java.util.UUID;
 
 /**
@@ -61,6 +65,21 @@ public interface IdDatabaseTransactionType extends AutoCloseable
   void commit()
     throws IdDatabaseException;
 
+  /**
+   * Replace the deadline of the transaction. Statements executed from now
+   * on, including those in the transactions begun by later commits and
+   * rollbacks, are limited to the time remaining until the new deadline.
+   * This allows work that commits repeatedly, or that spends a long time
+   * outside of the database, to give each unit of work its own budget.
+   *
+   * @param deadline The new deadline
+   *
+   * @throws IdDatabaseException On errors
+   */
+
+  void deadlineSet(OffsetDateTime deadline)
+    throws IdDatabaseException;
+
   /**
    * Set the user ID for the transaction. This is the ID that will typically end
    * up in audit events.
@@ -73,6 +92,20 @@ public interface IdDatabaseTransactionType extends AutoCloseable
   void userIdSet(UUID userId)
     throws IdDatabaseException;
 
+  /**
+   * Set the user for the transaction. Unlike {@link #userIdSet(UUID)}, the
+   * user is not looked up again: the user must have been loaded from the
+   * database by the caller. Audit events for a user that has since been
+   * deleted are rejected by the database when they are written.
+   *
+   * @param user The user
+   *
+   * @throws IdDatabaseException On errors
+   */
+
+  void userSet(IdUser user)
+    throws IdDatabaseException;
+
   /**
    * @return The current user ID
    *
@@ -94,6 +127,20 @@ public interface IdDatabaseTransactionType extends AutoCloseable
   void adminIdSet(UUID adminId)
     throws IdDatabaseException;
 
+  /**
+   * Set the admin for the transaction. Unlike {@link #adminIdSet(UUID)}, the
+   * admin is not looked up again: the admin must have been loaded from the
+   * database by the caller. Audit events for an admin that has since been
+   * deleted are rejected by the database when they are written.
+   *
+   * @param admin The admin
+   *
+   * @throws IdDatabaseException On errors
+   */
+
+  void adminSet(IdAdmin admin)
+    throws IdDatabaseException;
+
   /**
    * @return The current admin ID
    *
@@ -105,7 +152,8 @@ public interface IdDatabaseTransactionType extends AutoCloseable
 
   /**
    * Determine the executor ID. This is the value set by whichever of
-   * {@link #adminIdSet(UUID)} or {@link #userIdSet(UUID)} has been called
+   * {@link #adminIdSet(UUID)}, {@link #adminSet(IdAdmin)},
+   * {@link #userIdSet(UUID)}, or {@link #userSet(IdUser)} has been called
    * most recently.
    *
    * @return The current executor ID
@@ -0,0 +1,47 @@
+/*
+ * Copyright © 2024 Mark Raynsford <code@io7m.com> https://www.io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+
+package com.io7m.idstore.database.api;
+
+import com.io7m.idstore.model.IdUserImportError;
+
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * The result of importing a list of users.
+ *
+ * @param created The number of users created
+ * @param errors  The users that could not be imported, in list order
+ */
+
+public record IdDatabaseUserImportResult(
+  int created,
+  List<IdUserImportError> errors)
+{
+  /**
+   * The result of importing a list of users.
+   *
+   * @param created The number of users created
+   * @param errors  The users that could not be imported, in list order
+   */
+
+  public IdDatabaseUserImportResult
+  {
+    errors = List.copyOf(Objects.requireNonNull(errors, "errors"));
+  }
+}
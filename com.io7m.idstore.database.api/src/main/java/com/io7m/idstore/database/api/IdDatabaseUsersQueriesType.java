@@ -25,9 +25,11 @@ import com.io7m.idstore.model.IdPassword;
 import com.io7m.idstore.model.IdRealName;
 import com.io7m.idstore.model.IdToken;
 import com.io7m.idstore.model.IdUser;
+import com.io7m.idstore.model.IdUserCreate;
 import com.io7m.idstore.model.IdUserPasswordReset;
 import com.io7m.idstore.model.IdUserSearchByEmailParameters;
 import com.io7m.idstore.model.IdUserSearchParameters;
+import com.io7m.idstore.model.IdUserSummary;
 
 import java.time.OffsetDateTime;
 import java.util.List;
@@ -379,6 +381,62 @@ public non-sealed interface IdDatabaseUsersQueriesType
     IdUserSearchParameters parameters)
     throws IdDatabaseException;
 
+  /**
+   * Resume a user search at a position previously obtained from
+   * {@link IdDatabasePagedQueryType#position()}. The parameters must be
+   * identical to those used to begin the search.
+   *
+   * @param parameters The search parameters
+   * @param position   The search position
+   *
+   * @return The users
+   *
+   * @throws IdDatabaseException On errors
+   */
+
+  IdDatabaseUserSearchType userSearch(
+    IdUserSearchParameters parameters,
+    IdDatabaseSearchPosition position)
+    throws IdDatabaseException;
+
+  /**
+   * Export all users matching the given parameters. The limit specified in
+   * the parameters is ignored.
+   *
+   * @param parameters The search parameters
+   * @param fetchSize  The number of users fetched per chunk
+   *
+   * @return An export of users, sorted according to the parameters
+   *
+   * @throws IdDatabaseException On errors
+   */
+
+  IdDatabaseExportType<IdUserSummary> userExport(
+    IdUserSearchParameters parameters,
+    int fetchSize)
+    throws IdDatabaseException;
+
+  /**
+   * Create many users at once. Users that cannot be created (because their
+   * ID, ID name, or email address is already in use, either in the database
+   * or by an earlier user in the list) are reported as errors, and every
+   * other user is created. Users without an explicit ID are given a random
+   * ID.
+   *
+   * @param users   The users
+   * @param created The creation time
+   *
+   * @return The number of users created, and the errors for the rest
+   *
+   * @throws IdDatabaseException On errors
+   */
+
+  @IdDatabaseRequiresAdmin
+  IdDatabaseUserImportResult userImport(
+    List<IdUserCreate> users,
+    OffsetDateTime created)
+    throws IdDatabaseException;
+
   /**
    * List users.
    *
@@ -393,4 +451,22 @@ public non-sealed interface IdDatabaseUsersQueriesType
     IdUserSearchByEmailParameters parameters)
     throws IdDatabaseException;
 
+  /**
+   * Resume a user search by email at a position previously obtained from
+   * {@link IdDatabasePagedQueryType#position()}. The parameters must be
+   * identical to those used to begin the search.
+   *
+   * @param parameters The search parameters
+   * @param position   The search position
+   *
+   * @return The users
+   *
+   * @throws IdDatabaseException On errors
+   */
+
+  IdDatabaseUserSearchByEmailType userSearchByEmail(
+    IdUserSearchByEmailParameters parameters,
+    IdDatabaseSearchPosition position)
+    throws IdDatabaseException;
+
 }
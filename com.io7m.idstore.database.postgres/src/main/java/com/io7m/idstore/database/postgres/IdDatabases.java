@@ -20,10 +20,16 @@ import com.io7m.anethum.api.ParsingException;
 import com.io7m.idstore.database.api.IdDatabaseConfiguration;
 import com.io7m.idstore.database.api.IdDatabaseException;
 import com.io7m.idstore.database.api.IdDatabaseFactoryType;
+import com.io7m.idstore.database.api.IdDatabasePoolConfiguration;
+import com.io7m.idstore.database.api.IdDatabaseReplica;
+import com.io7m.idstore.database.api.IdDatabaseRole;
 import com.io7m.idstore.database.api.IdDatabaseTelemetry;
 import com.io7m.idstore.database.api.IdDatabaseType;
 import com.io7m.idstore.database.postgres.internal.IdDatabase;
+import com.io7m.idstore.database.postgres.internal.IdDatabaseReplicaPool;
+import com.io7m.idstore.database.postgres.internal.IdDatabaseRolePools;
 import com.io7m.jmulticlose.core.CloseableCollection;
+import com.io7m.jmulticlose.core.CloseableCollectionType;
 import com.io7m.trasco.api.TrArguments;
 import com.io7m.trasco.api.TrEventExecutingSQL;
 import com.io7m.trasco.api.TrEventType;
@@ -50,6 +56,8 @@ import java.net.URI;
 import java.sql.Connection;
 import java.sql.DriverManager;
 import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Locale;
 import java.util.Map;
 import java.util.Objects;
 import java.util.Optional;
@@ -59,6 +67,8 @@ import java.util.concurrent.TimeUnit;
 import java.util.concurrent.TimeoutException;
 import java.util.function.Consumer;
 
+import static com.io7m.idstore.database.api.IdDatabaseRole.IDSTORE;
+import static com.io7m.idstore.database.api.IdDatabaseRole.IDSTORE_READ_ONLY;
 import static com.io7m.idstore.error_codes.IdStandardErrorCodes.IO_ERROR;
 import static com.io7m.idstore.error_codes.IdStandardErrorCodes.SQL_ERROR;
 import static com.io7m.idstore.error_codes.IdStandardErrorCodes.SQL_REVISION_ERROR;
@@ -205,24 +215,168 @@ public final class IdDatabases implements IdDatabaseFactoryType
     url.append('/');
     url.append(configuration.databaseName());
 
-    final var config = new HikariConfig();
-    config.setJdbcUrl(url.toString());
-    config.setUsername("idstore");
-    config.setPassword(configuration.workerRolePassword());
-    config.setAutoCommit(false);
+    final var pool =
+      configuration.pool();
+    final var config =
+      roleConfiguration(configuration, url.toString(), IDSTORE);
+
+    /*
+     * An adaptive pool starts at the minimum size and is resized at run-time.
+     */
+
+    if (pool.adaptive()) {
+      config.setMaximumPoolSize(pool.minimumSize());
+    }
 
     final var dataSource =
       resources.add(new HikariDataSource(config));
 
+    final var rolePools =
+      resources.add(new IdDatabaseRolePools(dataSource, role -> {
+        return lazyRoleConfiguration(configuration, url.toString(), role);
+      }));
+
+    final var replicas = new ArrayList<IdDatabaseReplicaPool>();
+    for (final var replica : configuration.replicas()) {
+      replicas.add(connectReplica(configuration, resources, replica));
+    }
+
     return new IdDatabase(
       telemetry,
       configuration,
       configuration.clock(),
-      dataSource,
+      rolePools,
+      replicas,
       resources
     );
   }
 
+  /*
+   * Replica pools do not fail at startup if the replica is unreachable, and
+   * give up on obtaining a connection quickly, so that read-only connections
+   * can fall back to the primary database without stalling.
+   */
+
+  private static IdDatabaseReplicaPool connectReplica(
+    final IdDatabaseConfiguration configuration,
+    final CloseableCollectionType<IdDatabaseException> resources,
+    final IdDatabaseReplica replica)
+  {
+    final var url = new StringBuilder(128);
+    url.append("jdbc:postgresql://");
+    url.append(replica.address());
+    url.append(':');
+    url.append(replica.port());
+    url.append('/');
+    url.append(configuration.databaseName());
+
+    final var config =
+      roleConfiguration(configuration, url.toString(), IDSTORE_READ_ONLY);
+    config.setConnectionTimeout(1_000L);
+    config.setInitializationFailTimeout(-1L);
+    config.setPoolName(
+      "idstore-replica-%s-%d".formatted(
+        replica.address(),
+        Integer.valueOf(replica.port()))
+    );
+
+    final var dataSource =
+      resources.add(new HikariDataSource(config));
+
+    return new IdDatabaseReplicaPool(
+      replica,
+      dataSource,
+      configuration.replicaMaximumLag()
+    );
+  }
+
+  /*
+   * Pools for roles other than the main role are created on first use, and
+   * so must not fail or block if the database cannot be reached at that
+   * moment; the failure is instead reported by the connection request.
+   * These pools are kept small, and hold no idle connections, so that they
+   * do not multiply the number of connections held against the database.
+   */
+
+  private static HikariConfig lazyRoleConfiguration(
+    final IdDatabaseConfiguration configuration,
+    final String url,
+    final IdDatabaseRole role)
+  {
+    final var pool =
+      configuration.pool();
+    final var config =
+      roleConfiguration(configuration, url, role);
+
+    config.setMinimumIdle(0);
+    config.setMaximumPoolSize(pool.secondaryMaximumSize());
+    config.setInitializationFailTimeout(-1L);
+    config.setPoolName(
+      "idstore-%s".formatted(role.name().toLowerCase(Locale.ROOT))
+    );
+    return config;
+  }
+
+  /*
+   * Connections log in directly as the role where the role can log in.
+   * Roles that cannot log in are entered once, when each connection is
+   * created, and the connection then remains in that role until it is
+   * closed. The initialization statement is committed immediately, as
+   * connections do not use auto-commit.
+   */
+
+  private static HikariConfig roleConfiguration(
+    final IdDatabaseConfiguration configuration,
+    final String url,
+    final IdDatabaseRole role)
+  {
+    final var config = new HikariConfig();
+    config.setJdbcUrl(url);
+    config.setUsername("idstore");
+    config.setPassword(configuration.workerRolePassword());
+    config.setAutoCommit(false);
+    config.setIsolateInternalQueries(true);
+    configurePool(config, configuration.pool());
+
+    switch (role) {
+      case IDSTORE -> {
+        // The worker role is the login role.
+      }
+      case IDSTORE_READ_ONLY -> {
+        final var readerPassword = configuration.readerRolePassword();
+        if (readerPassword.isPresent()) {
+          config.setUsername("idstore_read_only");
+          config.setPassword(readerPassword.get());
+        } else {
+          config.setConnectionInitSql("SET ROLE idstore_read_only");
+        }
+        config.setReadOnly(true);
+      }
+      case NONE -> {
+        config.setConnectionInitSql("SET ROLE idstore_none");
+      }
+    }
+    return config;
+  }
+
+  private static void configurePool(
+    final HikariConfig config,
+    final IdDatabasePoolConfiguration pool)
+  {
+    config.setMinimumIdle(pool.minimumSize());
+    config.setMaximumPoolSize(pool.maximumSize());
+    config.setConnectionTimeout(pool.connectionTimeout().toMillis());
+    config.setMaxLifetime(pool.maximumLifetime().toMillis());
+    config.addDataSourceProperty(
+      "prepareThreshold",
+      Integer.toString(pool.prepareThreshold())
+    );
+    config.addDataSourceProperty(
+      "preparedStatementCacheQueries",
+      Integer.toString(pool.preparedStatementCacheQueries())
+    );
+  }
+
   private static void createOrUpgrade(
     final IdDatabaseTelemetry telemetry,
     final IdDatabaseConfiguration configuration,
@@ -14,59 +14,159 @@
  * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
  */
 
-
 package com.io7m.idstore.database.postgres.internal;
 
 import com.io7m.idstore.database.api.IdDatabaseException;
 import com.io7m.idstore.database.api.IdDatabasePagedQueryType;
 import com.io7m.idstore.database.api.IdDatabaseQueriesType;
+import com.io7m.idstore.database.api.IdDatabaseSearchPosition;
 import com.io7m.idstore.model.IdPage;
-import com.io7m.jqpage.core.JQKeysetRandomAccessPageDefinition;
+import org.jooq.Condition;
+import org.jooq.Field;
+import org.jooq.OrderField;
+import org.jooq.Record;
+import org.jooq.RecordMapper;
+import org.jooq.SelectField;
+import org.jooq.Table;
+import org.jooq.exception.DataAccessException;
+import org.jooq.impl.DSL;
 
+import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
+import java.util.Map;
 import java.util.Objects;
+import java.util.Optional;
+
+import static com.io7m.idstore.database.postgres.internal.IdDatabaseExceptions.handleDatabaseException;
+import static io.opentelemetry.semconv.trace.attributes.SemanticAttributes.DB_STATEMENT;
 
 /**
- * A convenient abstract class for performing paginated searches.
+ * <p>A convenient abstract class for performing paginated searches.</p>
+ *
+ * <p>Searches use keyset pagination: the search remembers only the sort keys
+ * of the first and last rows of the current page, and moves between pages
+ * by seeking relative to those keys. The sort keys must therefore identify
+ * rows uniquely; definitions typically end with the table's primary key as
+ * a tiebreaker. Because the entire state of a search is captured by its
+ * {@link IdDatabaseSearchPosition}, a search can be resumed by any server
+ * given the original parameters and a position.</p>
+ *
+ * <p>Counting every row that matches a search can be far more expensive
+ * than retrieving a page. When a search begins, the number of matching rows
+ * is first estimated, either from the table statistics (for searches without
+ * conditions) or from the query planner. Searches estimated to match no more
+ * than the configured limit are counted exactly; larger searches use the
+ * estimate, and their page counts are marked as approximate. An approximate
+ * count is corrected as the search moves forward, and becomes exact when the
+ * final page is reached.</p>
  *
  * @param <T> The type of returned values
  * @param <Q> The type of queries
- * @param <R> The (internal) type of queries
  */
 
-public abstract class IdAbstractSearch<R extends Q, Q extends IdDatabaseQueriesType, T>
+public abstract class IdAbstractSearch<Q extends IdDatabaseQueriesType, T>
   implements IdDatabasePagedQueryType<Q, T>
 {
-  private final List<JQKeysetRandomAccessPageDefinition> pages;
-  private int pageIndex;
+  private final Definition<T> definition;
+  private IdDatabaseSearchPosition position;
 
   IdAbstractSearch(
-    final List<JQKeysetRandomAccessPageDefinition> inPages)
+    final Definition<T> inDefinition,
+    final Optional<IdDatabaseSearchPosition> inPosition)
   {
-    this.pages =
-      Objects.requireNonNull(inPages, "pages");
-    this.pageIndex = 0;
+    this.definition =
+      Objects.requireNonNull(inDefinition, "definition");
+    this.position =
+      inPosition.orElse(null);
   }
 
-  protected final int pageCount()
+  /**
+   * The definition of a search.
+   *
+   * @param spanName  The base name of query spans
+   * @param table     The table (or join) to search
+   * @param condition The search condition
+   * @param unfiltered {@code true} if the condition matches every row of the
+   *                   table
+   * @param fields    The fields to retrieve
+   * @param keyFields The fields that make up the (unique) sort key
+   * @param ascending {@code true} if results are sorted in ascending order
+   * @param pageSize  The maximum number of results per page
+   * @param mapper    A function to map records to results
+   * @param <T>       The type of returned values
+   */
+
+  record Definition<T>(
+    String spanName,
+    Table<?> table,
+    Condition condition,
+    boolean unfiltered,
+    List<SelectField<?>> fields,
+    List<Field<?>> keyFields,
+    boolean ascending,
+    int pageSize,
+    RecordMapper<Record, T> mapper)
   {
-    return this.pages.size();
+    Definition
+    {
+      Objects.requireNonNull(spanName, "spanName");
+      Objects.requireNonNull(table, "table");
+      Objects.requireNonNull(condition, "condition");
+      Objects.requireNonNull(mapper, "mapper");
+      fields = List.copyOf(fields);
+      keyFields = List.copyOf(keyFields);
+
+      if (keyFields.isEmpty()) {
+        throw new IllegalArgumentException(
+          "At least one key field is required");
+      }
+      if (pageSize <= 0) {
+        throw new IllegalArgumentException(
+          "Page size %d must be positive".formatted(pageSize));
+      }
+    }
   }
 
-  protected abstract IdPage<T> page(
-    R queries,
-    JQKeysetRandomAccessPageDefinition page)
-    throws IdDatabaseException;
+  @Override
+  public final IdDatabaseSearchPosition position()
+  {
+    if (this.position == null) {
+      throw new IllegalStateException("No page has been retrieved");
+    }
+    return this.position;
+  }
 
   @Override
   public final IdPage<T> pageCurrent(
     final Q queries)
     throws IdDatabaseException
   {
-    return this.page(
-      (R) queries,
-      this.pages.get(this.pageIndex)
-    );
+    final var transaction = transactionOf(queries);
+    final var current = this.position;
+    if (current == null || current.firstKey().isEmpty()) {
+      return this.pageFirst(transaction);
+    }
+
+    final var count =
+      new Count(current.pageCount(), current.pageCountApproximate());
+    final var rows =
+      this.fetchRows(
+        transaction,
+        this.atOrAfter(current.firstKey()),
+        true,
+        count.approximate()
+      );
+
+    /*
+     * If every row on the current page has since been deleted, there's
+     * no meaningful "current" page; start again.
+     */
+
+    if (rows.isEmpty()) {
+      return this.pageFirst(transaction);
+    }
+    return this.finishPageForward(rows, current.pageIndex(), count);
   }
 
   @Override
@@ -74,10 +174,50 @@ public abstract class IdAbstractSearch<R extends Q, Q extends IdDatabaseQueriesT
     final Q queries)
     throws IdDatabaseException
   {
-    final var nextIndex = this.pageIndex + 1;
-    final var maxIndex = Math.max(0, this.pages.size() - 1);
-    this.pageIndex = Math.min(nextIndex, maxIndex);
-    return this.pageCurrent(queries);
+    final var current = this.position;
+    if (current == null
+        || current.lastKey().isEmpty()
+        || isKnownLastPage(current)) {
+      return this.pageCurrent(queries);
+    }
+
+    final var count =
+      new Count(current.pageCount(), current.pageCountApproximate());
+    final var transaction = transactionOf(queries);
+    final var rows =
+      this.fetchRows(
+        transaction,
+        this.after(current.lastKey()),
+        true,
+        count.approximate()
+      );
+
+    /*
+     * If there are no rows after the current page, then the current page
+     * is the last page, and an approximate count can be made exact.
+     */
+
+    if (rows.isEmpty()) {
+      if (count.approximate()) {
+        this.position =
+          new IdDatabaseSearchPosition(
+            current.pageIndex(),
+            current.pageIndex(),
+            current.firstKey(),
+            current.lastKey(),
+            false
+          );
+      }
+      return this.pageCurrent(queries);
+    }
+    return this.finishPageForward(rows, current.pageIndex() + 1, count);
+  }
+
+  private static boolean isKnownLastPage(
+    final IdDatabaseSearchPosition current)
+  {
+    return !current.pageCountApproximate()
+           && current.pageIndex() >= current.pageCount();
   }
 
   @Override
@@ -85,8 +225,328 @@ public abstract class IdAbstractSearch<R extends Q, Q extends IdDatabaseQueriesT
     final Q queries)
     throws IdDatabaseException
   {
-    final var prevIndex = this.pageIndex - 1;
-    this.pageIndex = Math.max(0, prevIndex);
-    return this.pageCurrent(queries);
+    final var current = this.position;
+    if (current == null
+        || current.firstKey().isEmpty()
+        || current.pageIndex() <= 1) {
+      return this.pageCurrent(queries);
+    }
+
+    final var transaction = transactionOf(queries);
+    final var rows =
+      this.fetchRows(
+        transaction,
+        this.before(current.firstKey()),
+        false,
+        false
+      );
+
+    if (rows.isEmpty()) {
+      return this.pageFirst(transaction);
+    }
+    return this.finishPage(
+      rows,
+      current.pageIndex() - 1,
+      new Count(current.pageCount(), current.pageCountApproximate())
+    );
+  }
+
+  private static IdDatabaseTransaction transactionOf(
+    final IdDatabaseQueriesType queries)
+  {
+    return ((IdBaseQueries) queries).transaction();
+  }
+
+  private IdPage<T> pageFirst(
+    final IdDatabaseTransaction transaction)
+    throws IdDatabaseException
+  {
+    final var count =
+      this.countPages(transaction);
+    final var rows =
+      this.fetchRows(
+        transaction,
+        DSL.trueCondition(),
+        true,
+        count.approximate()
+      );
+
+    return this.finishPageForward(rows, 1, count);
+  }
+
+  /**
+   * The page count of a search.
+   *
+   * @param pages       The number of pages
+   * @param approximate {@code true} if the number of pages is an estimate
+   */
+
+  private record Count(
+    int pages,
+    boolean approximate)
+  {
+
+  }
+
+  /**
+   * Finish a page that was fetched moving forward. If the page count is
+   * approximate, the rows include one extra row (if one exists) beyond the
+   * end of the page, and the presence of that row is used to correct the
+   * count.
+   */
+
+  private IdPage<T> finishPageForward(
+    final List<Record> rows,
+    final int pageIndex,
+    final Count count)
+  {
+    if (!count.approximate()) {
+      return this.finishPage(rows, pageIndex, count);
+    }
+
+    final var pageSize = this.definition.pageSize();
+    if (rows.size() > pageSize) {
+      return this.finishPage(
+        rows.subList(0, pageSize),
+        pageIndex,
+        new Count(Math.max(count.pages(), pageIndex + 1), true)
+      );
+    }
+    return this.finishPage(rows, pageIndex, new Count(pageIndex, false));
+  }
+
+  private IdPage<T> finishPage(
+    final List<Record> rows,
+    final int pageIndex,
+    final Count count)
+  {
+    final var pageCount =
+      Math.max(pageIndex, count.pages());
+    final var keyFields =
+      this.definition.keyFields();
+
+    if (rows.isEmpty()) {
+      this.position =
+        new IdDatabaseSearchPosition(
+          pageIndex,
+          pageCount,
+          List.of(),
+          List.of(),
+          count.approximate()
+        );
+    } else {
+      final var first = rows.get(0);
+      final var last = rows.get(rows.size() - 1);
+      this.position =
+        new IdDatabaseSearchPosition(
+          pageIndex,
+          pageCount,
+          keyFields.stream().map(f -> (Object) first.get(f)).toList(),
+          keyFields.stream().map(f -> (Object) last.get(f)).toList(),
+          count.approximate()
+        );
+    }
+
+    final var mapper = this.definition.mapper();
+    return new IdPage<>(
+      rows.stream().map(mapper::map).toList(),
+      pageIndex,
+      pageCount,
+      (long) (pageIndex - 1) * (long) this.definition.pageSize(),
+      Optional.empty(),
+      count.approximate()
+    );
+  }
+
+  private Condition after(
+    final List<Object> key)
+  {
+    final var row = DSL.row(this.definition.keyFields());
+    return this.definition.ascending()
+      ? row.gt(key.toArray())
+      : row.lt(key.toArray());
+  }
+
+  private Condition atOrAfter(
+    final List<Object> key)
+  {
+    final var row = DSL.row(this.definition.keyFields());
+    return this.definition.ascending()
+      ? row.ge(key.toArray())
+      : row.le(key.toArray());
+  }
+
+  private Condition before(
+    final List<Object> key)
+  {
+    final var row = DSL.row(this.definition.keyFields());
+    return this.definition.ascending()
+      ? row.lt(key.toArray())
+      : row.gt(key.toArray());
+  }
+
+  private Count countPages(
+    final IdDatabaseTransaction transaction)
+    throws IdDatabaseException
+  {
+    final var limit =
+      transaction.configuration().searchExactCountLimit();
+    final var estimate =
+      this.estimateRows(transaction);
+
+    if (estimate > limit) {
+      return new Count(this.pagesFor(estimate), true);
+    }
+    return new Count(this.pagesFor(this.countRows(transaction)), false);
+  }
+
+  private int pagesFor(
+    final long rows)
+  {
+    final long pageSize =
+      this.definition.pageSize();
+    final long pages =
+      Math.max(1L, (rows + pageSize - 1L) / pageSize);
+
+    return (int) Math.min(pages, Integer.MAX_VALUE);
+  }
+
+  /**
+   * Estimate the number of rows matching the search. For searches without
+   * conditions, the table statistics are used directly. Otherwise, the
+   * query planner's estimate for the search is used.
+   */
+
+  private long estimateRows(
+    final IdDatabaseTransaction transaction)
+    throws IdDatabaseException
+  {
+    final var context =
+      transaction.createContext();
+    final var querySpan =
+      transaction.createQuerySpan(this.definition.spanName() + ".estimate");
+
+    try {
+      if (this.definition.unfiltered()) {
+        final var query =
+          context.resultQuery(
+            "SELECT reltuples FROM pg_class WHERE oid = to_regclass({0})",
+            DSL.val(context.render(this.definition.table()))
+          );
+
+        querySpan.setAttribute(DB_STATEMENT, query.toString());
+
+        final var tuples = query.fetchOne(0, Double.class);
+
+        /*
+         * A negative value indicates that the table has never been
+         * analyzed; fall back to asking the planner.
+         */
+
+        if (tuples != null && tuples.doubleValue() >= 0.0) {
+          return tuples.longValue();
+        }
+      }
+
+      final var query =
+        context.selectOne()
+          .from(this.definition.table())
+          .where(this.definition.condition());
+
+      querySpan.setAttribute(DB_STATEMENT, "EXPLAIN " + query);
+
+      final var rows = context.explain(query).rows();
+      if (Double.isNaN(rows) || rows < 0.0) {
+        return 0L;
+      }
+      return (long) Math.ceil(rows);
+    } catch (final DataAccessException e) {
+      querySpan.recordException(e);
+      throw handleDatabaseException(transaction, e, Map.of());
+    } finally {
+      querySpan.end();
+    }
+  }
+
+  private long countRows(
+    final IdDatabaseTransaction transaction)
+    throws IdDatabaseException
+  {
+    final var context =
+      transaction.createContext();
+    final var querySpan =
+      transaction.createQuerySpan(this.definition.spanName() + ".count");
+
+    try {
+      final var query =
+        context.selectCount()
+          .from(this.definition.table())
+          .where(this.definition.condition());
+
+      querySpan.setAttribute(DB_STATEMENT, query.toString());
+
+      return query.fetchOne(0, Long.class).longValue();
+    } catch (final DataAccessException e) {
+      querySpan.recordException(e);
+      throw handleDatabaseException(transaction, e, Map.of());
+    } finally {
+      querySpan.end();
+    }
+  }
+
+  /**
+   * Fetch at most one page of rows satisfying the given seek condition.
+   * When seeking backwards, the rows are fetched in reverse sort order
+   * (so that the rows nearest the seek key are returned) and then put back
+   * into sort order. If {@code lookahead} is {@code true}, one extra row is
+   * fetched (if it exists) so that the caller can tell whether any rows
+   * follow the page.
+   */
+
+  private List<Record> fetchRows(
+    final IdDatabaseTransaction transaction,
+    final Condition seek,
+    final boolean forward,
+    final boolean lookahead)
+    throws IdDatabaseException
+  {
+    final var context =
+      transaction.createContext();
+    final var querySpan =
+      transaction.createQuerySpan(this.definition.spanName() + ".page");
+
+    try {
+      final var ascending =
+        forward == this.definition.ascending();
+      final List<OrderField<?>> ordering =
+        this.definition.keyFields()
+          .stream()
+          .<OrderField<?>>map(f -> ascending ? f.asc() : f.desc())
+          .toList();
+
+      final var query =
+        context.select(this.definition.fields())
+          .from(this.definition.table())
+          .where(this.definition.condition().and(seek))
+          .orderBy(ordering)
+          .limit(Integer.valueOf(
+            lookahead
+              ? this.definition.pageSize() + 1
+              : this.definition.pageSize()
+          ));
+
+      querySpan.setAttribute(DB_STATEMENT, query.toString());
+
+      final var rows = new ArrayList<Record>(query.fetch());
+      if (!forward) {
+        Collections.reverse(rows);
+      }
+      return rows;
+    } catch (final DataAccessException e) {
+      querySpan.recordException(e);
+      throw handleDatabaseException(transaction, e, Map.of());
+    } finally {
+      querySpan.end();
+    }
   }
 }
@@ -24,20 +24,29 @@ import com.io7m.idstore.database.api.IdDatabaseTelemetry;
 import com.io7m.idstore.database.api.IdDatabaseType;
 import com.io7m.jmulticlose.core.CloseableCollectionType;
 import com.zaxxer.hikari.HikariDataSource;
+import io.opentelemetry.api.common.AttributeKey;
+import io.opentelemetry.api.common.Attributes;
 import io.opentelemetry.api.metrics.LongCounter;
+import io.opentelemetry.api.metrics.LongHistogram;
+import io.opentelemetry.api.trace.Span;
 import io.opentelemetry.api.trace.SpanKind;
 import io.opentelemetry.api.trace.Tracer;
 import org.jooq.conf.RenderNameCase;
 import org.jooq.conf.Settings;
 
+import java.sql.Connection;
 import java.sql.SQLException;
 import java.time.Clock;
 import java.time.OffsetDateTime;
+import java.util.List;
 import java.util.Map;
 import java.util.Objects;
 import java.util.Optional;
 import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
 
+import static com.io7m.idstore.database.api.IdDatabaseRole.IDSTORE;
+import static com.io7m.idstore.database.api.IdDatabaseRole.IDSTORE_READ_ONLY;
 import static com.io7m.idstore.error_codes.IdStandardErrorCodes.SQL_ERROR;
 import static io.opentelemetry.semconv.trace.attributes.SemanticAttributes.DB_SYSTEM;
 import static io.opentelemetry.semconv.trace.attributes.SemanticAttributes.DbSystemValues.POSTGRESQL;
@@ -50,15 +59,29 @@ import static java.util.Objects.requireNonNullElse;
 
 public final class IdDatabase implements IdDatabaseType
 {
+  private static final AttributeKey<String> TARGET =
+    AttributeKey.stringKey("target");
+  private static final Attributes TARGET_PRIMARY =
+    Attributes.of(TARGET, "primary");
+  private static final Attributes TARGET_REPLICA =
+    Attributes.of(TARGET, "replica");
+
+  private final AtomicInteger replicaNext;
   private final Clock clock;
   private final CloseableCollectionType<IdDatabaseException> resources;
   private final ConcurrentLinkedQueue<Long> connectionTimes;
   private final HikariDataSource dataSource;
+  private final IdDatabaseRolePools rolePools;
   private final IdDatabaseConfiguration configuration;
   private final IdDatabaseTelemetry telemetry;
+  private final List<IdDatabaseReplicaPool> replicas;
+  private final Optional<IdDatabasePoolSizer> poolSizer;
+  private final LongCounter readOnlyConnections;
   private final LongCounter transactionCommits;
   private final LongCounter transactionRollbacks;
   private final LongCounter transactions;
+  private final LongHistogram queryTime;
+  private final LongCounter queryRows;
   private final Settings settings;
   private final Tracer tracer;
 
@@ -68,7 +91,8 @@ public final class IdDatabase implements IdDatabaseType
    * @param inTelemetry     A telemetry
    * @param inConfiguration The configuration
    * @param inClock      The clock
-   * @param inDataSource A pooled data source
+   * @param inRolePools  The per-role connection pools
+   * @param inReplicas   The read replica pools
    * @param inResources  The resources to be closed
    */
 
@@ -76,7 +100,8 @@ public final class IdDatabase implements IdDatabaseType
     final IdDatabaseTelemetry inTelemetry,
     final IdDatabaseConfiguration inConfiguration,
     final Clock inClock,
-    final HikariDataSource inDataSource,
+    final IdDatabaseRolePools inRolePools,
+    final List<IdDatabaseReplicaPool> inReplicas,
     final CloseableCollectionType<IdDatabaseException> inResources)
   {
     this.telemetry =
@@ -90,11 +115,26 @@ public final class IdDatabase implements IdDatabaseType
 
     this.clock =
       Objects.requireNonNull(inClock, "clock");
+    this.rolePools =
+      Objects.requireNonNull(inRolePools, "rolePools");
     this.dataSource =
-      Objects.requireNonNull(inDataSource, "dataSource");
+      inRolePools.primary();
+    this.replicas =
+      List.copyOf(inReplicas);
+    this.replicaNext =
+      new AtomicInteger(0);
     this.settings =
       new Settings().withRenderNameCase(RenderNameCase.LOWER);
 
+    final var pool = inConfiguration.pool();
+    if (pool.adaptive()) {
+      this.poolSizer = Optional.of(
+        this.resources.add(IdDatabasePoolSizer.start(this.dataSource, pool))
+      );
+    } else {
+      this.poolSizer = Optional.empty();
+    }
+
     final var dataSourceBean =
       this.dataSource.getHikariPoolMXBean();
 
@@ -116,6 +156,25 @@ public final class IdDatabase implements IdDatabaseType
         .setDescription("The number of database transaction rollbacks.")
         .build();
 
+    this.readOnlyConnections =
+      meter.counterBuilder("idstore_db_read_only_connections")
+        .setDescription(
+          "The number of read-only connections, by target database.")
+        .build();
+
+    this.queryTime =
+      meter.histogramBuilder("idstore_db_query_time")
+        .setDescription(
+          "The time taken by each named database query (nanoseconds).")
+        .ofLongs()
+        .build();
+
+    this.queryRows =
+      meter.counterBuilder("idstore_db_query_rows")
+        .setDescription(
+          "The number of rows returned or affected by each named query.")
+        .build();
+
     this.connectionTimes =
       new ConcurrentLinkedQueue<>();
 
@@ -161,6 +220,17 @@ public final class IdDatabase implements IdDatabaseType
         })
     );
 
+    this.resources.add(
+      meter.gaugeBuilder("idstore_db_connections_maximum")
+        .setDescription("The current maximum size of the connection pool.")
+        .ofLongs()
+        .buildWithCallback(measurement -> {
+          measurement.record(
+            Integer.toUnsignedLong(this.dataSource.getMaximumPoolSize())
+          );
+        })
+    );
+
     this.resources.add(
       meter.gaugeBuilder("idstore_db_threads_waiting")
         .setDescription("Number of threads waiting for connections.")
@@ -198,6 +268,16 @@ public final class IdDatabase implements IdDatabaseType
     return this.transactionRollbacks;
   }
 
+  LongHistogram histogramQueryTime()
+  {
+    return this.queryTime;
+  }
+
+  LongCounter counterQueryRows()
+  {
+    return this.queryRows;
+  }
+
   @Override
   public void close()
     throws IdDatabaseException
@@ -234,11 +314,31 @@ public final class IdDatabase implements IdDatabaseType
 
     try {
       span.addEvent("RequestConnection");
-      final var conn = this.dataSource.getConnection();
+      final var replicaConn =
+        this.replicaConnectionFor(role, span);
+      final var conn =
+        replicaConn.isPresent()
+          ? replicaConn.get()
+          : this.rolePools.connection(role);
       span.addEvent("ObtainedConnection");
       final var timeNow = OffsetDateTime.now();
       conn.setAutoCommit(false);
-      return new IdDatabaseConnection(this, conn, timeNow, role, span);
+
+      final Optional<IdDatabasePoolSizer.Hold> hold;
+      if (role == IDSTORE) {
+        hold = this.poolSizer.map(IdDatabasePoolSizer::holdStarted);
+      } else {
+        hold = Optional.empty();
+      }
+
+      return new IdDatabaseConnection(
+        this,
+        conn,
+        timeNow,
+        role,
+        span,
+        hold
+      );
     } catch (final SQLException e) {
       span.recordException(e);
       span.end();
@@ -253,6 +353,49 @@ public final class IdDatabase implements IdDatabaseType
     }
   }
 
+  /*
+   * Read-only connections are served by the replicas in turn, skipping any
+   * replica that is unreachable or lagging too far behind, and falling back
+   * to the primary if no replica is usable.
+   */
+
+  private Optional<Connection> replicaConnectionFor(
+    final IdDatabaseRole role,
+    final Span span)
+  {
+    if (role != IDSTORE_READ_ONLY) {
+      return Optional.empty();
+    }
+
+    final var count = this.replicas.size();
+    if (count > 0) {
+      final var start =
+        Integer.remainderUnsigned(this.replicaNext.getAndIncrement(), count);
+
+      for (int index = 0; index < count; ++index) {
+        final var pool =
+          this.replicas.get((start + index) % count);
+        final var conn =
+          pool.tryConnection();
+
+        if (conn.isPresent()) {
+          final var replica = pool.replica();
+          span.setAttribute(
+            "idstore.db.replica",
+            "%s:%d".formatted(
+              replica.address(),
+              Integer.valueOf(replica.port()))
+          );
+          this.readOnlyConnections.add(1L, TARGET_REPLICA);
+          return conn;
+        }
+      }
+    }
+
+    this.readOnlyConnections.add(1L, TARGET_PRIMARY);
+    return Optional.empty();
+  }
+
   /**
    * @return The jooq SQL settings
    */
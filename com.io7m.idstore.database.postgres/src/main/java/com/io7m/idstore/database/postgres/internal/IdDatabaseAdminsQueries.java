@@ -20,6 +20,8 @@ import com.io7m.idstore.database.api.IdDatabaseAdminSearchByEmailType;
 import com.io7m.idstore.database.api.IdDatabaseAdminSearchType;
 import com.io7m.idstore.database.api.IdDatabaseAdminsQueriesType;
 import com.io7m.idstore.database.api.IdDatabaseException;
+import com.io7m.idstore.database.api.IdDatabaseSearchPosition;
+import com.io7m.idstore.database.postgres.internal.IdAbstractSearch.Definition;
 import com.io7m.idstore.database.postgres.internal.tables.records.AdminsRecord;
 import com.io7m.idstore.database.postgres.internal.tables.records.EmailsRecord;
 import com.io7m.idstore.model.IdAdmin;
@@ -33,17 +35,14 @@ import com.io7m.idstore.model.IdBan;
 import com.io7m.idstore.model.IdEmail;
 import com.io7m.idstore.model.IdName;
 import com.io7m.idstore.model.IdNonEmptyList;
-import com.io7m.idstore.model.IdPage;
 import com.io7m.idstore.model.IdPassword;
 import com.io7m.idstore.model.IdPasswordAlgorithms;
 import com.io7m.idstore.model.IdPasswordException;
 import com.io7m.idstore.model.IdRealName;
-import com.io7m.jqpage.core.JQField;
-import com.io7m.jqpage.core.JQKeysetRandomAccessPageDefinition;
-import com.io7m.jqpage.core.JQKeysetRandomAccessPagination;
-import com.io7m.jqpage.core.JQKeysetRandomAccessPaginationParameters;
-import com.io7m.jqpage.core.JQOrder;
+import com.io7m.idstore.model.IdTimeRange;
 import org.jooq.Condition;
+import org.jooq.Field;
+import org.jooq.Record;
 import org.jooq.Result;
 import org.jooq.exception.DataAccessException;
 import org.jooq.impl.DSL;
@@ -51,6 +50,7 @@ import org.jooq.postgres.extensions.types.Hstore;
 
 import java.time.OffsetDateTime;
 import java.util.EnumSet;
+import java.util.HashMap;
 import java.util.List;
 import java.util.Locale;
 import java.util.Map;
@@ -78,7 +78,6 @@ import static com.io7m.idstore.error_codes.IdStandardErrorCodes.PASSWORD_ERROR;
 import static com.io7m.idstore.model.IdLoginMetadataStandard.remoteHost;
 import static com.io7m.idstore.model.IdLoginMetadataStandard.remoteHostProxied;
 import static com.io7m.idstore.model.IdLoginMetadataStandard.userAgent;
-import static io.opentelemetry.semconv.trace.attributes.SemanticAttributes.DB_STATEMENT;
 import static java.lang.Boolean.FALSE;
 import static java.lang.Boolean.TRUE;
 
@@ -154,10 +153,15 @@ final class IdDatabaseAdminsQueries
     );
   }
 
-  private static JQField orderingToJQField(
+  /*
+   * The admin ID is used as a tiebreaker so that the sort key is unique,
+   * as required by keyset pagination.
+   */
+
+  private static List<Field<?>> orderingKeyFields(
     final IdAdminColumnOrdering ordering)
   {
-    final var field =
+    final Field<?> field =
       switch (ordering.column()) {
         case BY_ID -> ADMINS.ID;
         case BY_IDNAME -> ADMINS.ID_NAME;
@@ -166,9 +170,47 @@ final class IdDatabaseAdminsQueries
         case BY_TIME_UPDATED -> ADMINS.TIME_UPDATED;
       };
 
-    return new JQField(
-      field,
-      ordering.ascending() ? JQOrder.ASCENDING : JQOrder.DESCENDING
+    if (field == ADMINS.ID) {
+      return List.of(ADMINS.ID);
+    }
+    return List.of(field, ADMINS.ID);
+  }
+
+  private static IdAdminSummary mapAdminSummary(
+    final Record record)
+  {
+    return new IdAdminSummary(
+      record.get(ADMINS.ID),
+      new IdName(record.get(ADMINS.ID_NAME)),
+      new IdRealName(record.get(ADMINS.REAL_NAME)),
+      record.get(ADMINS.TIME_CREATED),
+      record.get(ADMINS.TIME_UPDATED)
+    );
+  }
+
+  private static Definition<IdAdminSummary> searchDefinition(
+    final String spanName,
+    final Condition condition,
+    final boolean unfiltered,
+    final IdAdminColumnOrdering ordering,
+    final int limit)
+  {
+    return new Definition<>(
+      spanName,
+      ADMINS,
+      condition,
+      unfiltered,
+      List.of(
+        ADMINS.ID,
+        ADMINS.ID_NAME,
+        ADMINS.REAL_NAME,
+        ADMINS.TIME_CREATED,
+        ADMINS.TIME_UPDATED
+      ),
+      orderingKeyFields(ordering),
+      ordering.ascending(),
+      limit,
+      IdDatabaseAdminsQueries::mapAdminSummary
     );
   }
 
@@ -298,77 +340,87 @@ final class IdDatabaseAdminsQueries
       );
 
     try {
-      final var record =
-        context.fetchOne(ADMINS, ADMINS.ID.eq(id));
-
-      if (record == null) {
-        throw ADMIN_DOES_NOT_EXIST.get();
-      }
-
-      if (!record.<Boolean>get(ADMINS.INITIAL).booleanValue()) {
-        throw new IdDatabaseException(
-          "Admin is not the initial admin.",
-          ADMIN_NOT_INITIAL,
-          attributes,
-          Optional.empty()
-        );
-      }
+      final var changes =
+        new HashMap<Field<?>, Object>();
+      final var audit =
+        new IdDatabaseAuditBatch(context, this.currentTime(), id);
 
       if (withIdName.isPresent()) {
         final var name = withIdName.get();
-        record.setIdName(name.value());
+        changes.put(ADMINS.ID_NAME, name.value());
 
-        final var auditData =
+        audit.add(
+          "ADMIN_CHANGED_ID_NAME",
           Map.ofEntries(
             Map.entry("AdminID", id.toString()),
             Map.entry("IdName", name.value())
-          );
-
-        context.insertInto(AUDIT)
-          .set(AUDIT.TIME, this.currentTime())
-          .set(AUDIT.TYPE, "ADMIN_CHANGED_ID_NAME")
-          .set(AUDIT.USER_ID, id)
-          .set(AU_DATA, Hstore.hstore(auditData))
-          .execute();
+          )
+        );
       }
 
       if (withRealName.isPresent()) {
         final var name = withRealName.get();
-        record.setRealName(name.value());
+        changes.put(ADMINS.REAL_NAME, name.value());
 
-        final var auditData =
+        audit.add(
+          "ADMIN_CHANGED_REAL_NAME",
           Map.ofEntries(
             Map.entry("AdminID", id.toString()),
             Map.entry("RealName", name.value())
-          );
-
-        context.insertInto(AUDIT)
-          .set(AUDIT.TIME, this.currentTime())
-          .set(AUDIT.TYPE, "ADMIN_CHANGED_REAL_NAME")
-          .set(AUDIT.USER_ID, id)
-          .set(AU_DATA, Hstore.hstore(auditData))
-          .execute();
+          )
+        );
       }
 
       if (withPassword.isPresent()) {
         final var pass = withPassword.get();
-        record.setPasswordAlgo(pass.algorithm().identifier());
-        record.setPasswordHash(pass.hash());
-        record.setPasswordSalt(pass.salt());
-        record.setPasswordExpires(pass.expires().orElse(null));
+        changes.put(ADMINS.PASSWORD_ALGO, pass.algorithm().identifier());
+        changes.put(ADMINS.PASSWORD_HASH, pass.hash());
+        changes.put(ADMINS.PASSWORD_SALT, pass.salt());
+        changes.put(ADMINS.PASSWORD_EXPIRES, pass.expires().orElse(null));
+
+        audit.add(
+          "ADMIN_CHANGED_PASSWORD",
+          Map.<String, String>of()
+        );
+      }
 
-        final var auditData =
-          Map.<String, String>of();
+      /*
+       * The update only matches the initial admin. If it matches nothing,
+       * the admin is fetched to determine which error to report.
+       */
 
-        context.insertInto(AUDIT)
-          .set(AUDIT.TIME, this.currentTime())
-          .set(AUDIT.TYPE, "ADMIN_CHANGED_PASSWORD")
-          .set(AUDIT.USER_ID, id)
-          .set(AU_DATA, Hstore.hstore(auditData))
-          .execute();
+      final boolean updated;
+      if (changes.isEmpty()) {
+        updated = false;
+      } else {
+        updated =
+          context.update(ADMINS)
+            .set(changes)
+            .where(ADMINS.ID.eq(id).and(ADMINS.INITIAL.isTrue()))
+            .returning(ADMINS.ID)
+            .fetchOptional()
+            .isPresent();
       }
 
-      record.store();
+      if (!updated) {
+        final var initial =
+          context.select(ADMINS.INITIAL)
+            .from(ADMINS)
+            .where(ADMINS.ID.eq(id))
+            .fetchOptional(ADMINS.INITIAL)
+            .orElseThrow(ADMIN_DOES_NOT_EXIST);
+
+        if (!initial.booleanValue()) {
+          throw new IdDatabaseException(
+            "Admin is not the initial admin.",
+            ADMIN_NOT_INITIAL,
+            attributes,
+            Optional.empty()
+          );
+        }
+      }
+
+      audit.execute();
     } catch (final DataAccessException e) {
       querySpan.recordException(e);
       throw handleDatabaseException(this.transaction(), e, attributes);
@@ -506,8 +558,7 @@ final class IdDatabaseAdminsQueries
 
     try {
       final var adminRecordOpt =
-        context.selectFrom(ADMINS)
-          .where(ADMINS.ID.eq(id))
+        IdDatabaseStatements.adminGet(context, id)
           .fetchOptional();
 
       if (adminRecordOpt.isEmpty()) {
@@ -518,8 +569,7 @@ final class IdDatabaseAdminsQueries
         adminRecordOpt.get();
 
       final var emails =
-        context.selectFrom(EMAILS)
-          .where(EMAILS.ADMIN_ID.eq(adminRecord.getId()))
+        IdDatabaseStatements.adminEmails(context, adminRecord.getId())
           .fetch();
 
       return Optional.of(adminMap(adminRecord, emails));
@@ -550,8 +600,7 @@ final class IdDatabaseAdminsQueries
 
     try {
       final var adminRecordOpt =
-        context.selectFrom(ADMINS)
-          .where(ADMINS.ID_NAME.eq(name.value()))
+        IdDatabaseStatements.adminGetForName(context, name.value())
           .fetchOptional();
 
       if (adminRecordOpt.isEmpty()) {
@@ -562,8 +611,7 @@ final class IdDatabaseAdminsQueries
         adminRecordOpt.get();
 
       final var emails =
-        context.selectFrom(EMAILS)
-          .where(EMAILS.ADMIN_ID.eq(adminRecord.getId()))
+        IdDatabaseStatements.adminEmails(context, adminRecord.getId())
           .fetch();
 
       return Optional.of(adminMap(adminRecord, emails));
@@ -687,83 +735,83 @@ final class IdDatabaseAdminsQueries
     }
   }
 
-  @Override
-  public IdDatabaseAdminSearchType adminSearch(
+  private static Definition<IdAdminSummary> adminSearchDefinition(
     final IdAdminSearchParameters parameters)
-    throws IdDatabaseException
   {
-    Objects.requireNonNull(parameters, "parameters");
-
-    final var transaction = this.transaction();
-    final var context = transaction.createContext();
-    final var querySpan =
-      transaction.createQuerySpan(
-        "IdDatabaseAdminsQueries.adminSearch.create");
-
-    try {
+    /*
+     * The admins must lie within the given time ranges.
+     */
+
+    final var timeCreatedRange = parameters.timeCreatedRange();
+    final var timeCreatedCondition =
+      DSL.condition(
+        ADMINS.TIME_CREATED.ge(timeCreatedRange.timeLower())
+          .and(ADMINS.TIME_CREATED.le(timeCreatedRange.timeUpper()))
+      );
 
-      /*
-       * The admins must lie within the given time ranges.
-       */
+    final var timeUpdatedRange = parameters.timeUpdatedRange();
+    final var timeUpdatedCondition =
+      DSL.condition(
+        ADMINS.TIME_UPDATED.ge(timeUpdatedRange.timeLower())
+          .and(ADMINS.TIME_UPDATED.le(timeUpdatedRange.timeUpper()))
+      );
 
-      final var timeCreatedRange = parameters.timeCreatedRange();
-      final var timeCreatedCondition =
-        DSL.condition(
-          ADMINS.TIME_CREATED.ge(timeCreatedRange.timeLower())
-            .and(ADMINS.TIME_CREATED.le(timeCreatedRange.timeUpper()))
-        );
+    /*
+     * A search query might be present.
+     */
+
+    final Condition searchCondition;
+    final var search = parameters.search();
+    if (search.isPresent()) {
+      final var searchText = "%%%s%%".formatted(search.get());
+      searchCondition =
+        DSL.condition(ADMINS.ID_NAME.likeIgnoreCase(searchText))
+          .or(DSL.condition(ADMINS.REAL_NAME.likeIgnoreCase(searchText)))
+          .or(DSL.condition(ADMINS.ID.likeIgnoreCase(searchText)));
+    } else {
+      searchCondition = DSL.trueCondition();
+    }
 
-      final var timeUpdatedRange = parameters.timeUpdatedRange();
-      final var timeUpdatedCondition =
-        DSL.condition(
-          ADMINS.TIME_UPDATED.ge(timeUpdatedRange.timeLower())
-            .and(ADMINS.TIME_UPDATED.le(timeUpdatedRange.timeUpper()))
-        );
+    final var allConditions =
+      timeCreatedCondition
+        .and(timeUpdatedCondition)
+        .and(searchCondition);
+
+    return searchDefinition(
+      "IdDatabaseAdminsQueries.adminSearch",
+      allConditions,
+      search.isEmpty()
+        && timeCreatedRange.equals(IdTimeRange.largest())
+        && timeUpdatedRange.equals(IdTimeRange.largest()),
+      parameters.ordering(),
+      parameters.limit()
+    );
+  }
 
-      /*
-       * A search query might be present.
-       */
+  @Override
+  public IdDatabaseAdminSearchType adminSearch(
+    final IdAdminSearchParameters parameters)
+  {
+    Objects.requireNonNull(parameters, "parameters");
 
-      final Condition searchCondition;
-      final var search = parameters.search();
-      if (search.isPresent()) {
-        final var searchText = "%%%s%%".formatted(search.get());
-        searchCondition =
-          DSL.condition(ADMINS.ID_NAME.likeIgnoreCase(searchText))
-            .or(DSL.condition(ADMINS.REAL_NAME.likeIgnoreCase(searchText)))
-            .or(DSL.condition(ADMINS.ID.likeIgnoreCase(searchText)));
-      } else {
-        searchCondition = DSL.trueCondition();
-      }
+    return new AdminsSearch(
+      adminSearchDefinition(parameters),
+      Optional.empty()
+    );
+  }
 
-      final var allConditions =
-        timeCreatedCondition
-          .and(timeUpdatedCondition)
-          .and(searchCondition);
-
-      final var orderField =
-        orderingToJQField(parameters.ordering());
-
-      final var pages =
-        JQKeysetRandomAccessPagination.createPageDefinitions(
-          context,
-          JQKeysetRandomAccessPaginationParameters.forTable(ADMINS)
-            .addSortField(orderField)
-            .addWhereCondition(allConditions)
-            .setPageSize(Integer.toUnsignedLong(parameters.limit()))
-            .setStatementListener(statement -> {
-              querySpan.setAttribute(DB_STATEMENT, statement.toString());
-            })
-            .build()
-        );
+  @Override
+  public IdDatabaseAdminSearchType adminSearch(
+    final IdAdminSearchParameters parameters,
+    final IdDatabaseSearchPosition position)
+  {
+    Objects.requireNonNull(parameters, "parameters");
+    Objects.requireNonNull(position, "position");
 
-      return new AdminsSearch(pages);
-    } catch (final DataAccessException e) {
-      querySpan.recordException(e);
-      throw handleDatabaseException(this.transaction(), e, Map.of());
-    } finally {
-      querySpan.end();
-    }
+    return new AdminsSearch(
+      adminSearchDefinition(parameters),
+      Optional.of(position)
+    );
   }
 
   @Override
@@ -801,90 +849,93 @@ final class IdDatabaseAdminsQueries
       );
 
     try {
-      final var record = context.fetchOne(ADMINS, ADMINS.ID.eq(id));
-      if (record == null) {
-        throw ADMIN_DOES_NOT_EXIST.get();
-      }
+      final var changes =
+        new HashMap<Field<?>, Object>();
+      final var audit =
+        new IdDatabaseAuditBatch(context, this.currentTime(), executor);
 
       if (withIdName.isPresent()) {
         final var name = withIdName.get();
-        record.setIdName(name.value());
+        changes.put(ADMINS.ID_NAME, name.value());
 
-        final var auditData =
+        audit.add(
+          "ADMIN_CHANGED_ID_NAME",
           Map.ofEntries(
             Map.entry("AdminID", id.toString()),
             Map.entry("IdName", name.value())
-          );
-
-        context.insertInto(AUDIT)
-          .set(AUDIT.TIME, this.currentTime())
-          .set(AUDIT.TYPE, "ADMIN_CHANGED_ID_NAME")
-          .set(AUDIT.USER_ID, executor)
-          .set(AU_DATA, Hstore.hstore(auditData))
-          .execute();
+          )
+        );
       }
 
       if (withRealName.isPresent()) {
         final var name = withRealName.get();
-        record.setRealName(name.value());
+        changes.put(ADMINS.REAL_NAME, name.value());
 
-        final var auditData =
+        audit.add(
+          "ADMIN_CHANGED_REAL_NAME",
           Map.ofEntries(
             Map.entry("AdminID", id.toString()),
             Map.entry("RealName", name.value())
-          );
-
-        context.insertInto(AUDIT)
-          .set(AUDIT.TIME, this.currentTime())
-          .set(AUDIT.TYPE, "ADMIN_CHANGED_REAL_NAME")
-          .set(AUDIT.USER_ID, executor)
-          .set(AU_DATA, Hstore.hstore(auditData))
-          .execute();
+          )
+        );
       }
 
       if (withPassword.isPresent()) {
         final var pass = withPassword.get();
-        record.setPasswordAlgo(pass.algorithm().identifier());
-        record.setPasswordHash(pass.hash());
-        record.setPasswordSalt(pass.salt());
-        record.setPasswordExpires(pass.expires().orElse(null));
+        changes.put(ADMINS.PASSWORD_ALGO, pass.algorithm().identifier());
+        changes.put(ADMINS.PASSWORD_HASH, pass.hash());
+        changes.put(ADMINS.PASSWORD_SALT, pass.salt());
+        changes.put(ADMINS.PASSWORD_EXPIRES, pass.expires().orElse(null));
 
-        final var auditData =
+        audit.add(
+          "ADMIN_CHANGED_PASSWORD",
           Map.ofEntries(
             Map.entry("AdminID", id.toString())
-          );
-
-        context.insertInto(AUDIT)
-          .set(AUDIT.TIME, this.currentTime())
-          .set(AUDIT.TYPE, "ADMIN_CHANGED_PASSWORD")
-          .set(AUDIT.USER_ID, executor)
-          .set(AU_DATA, Hstore.hstore(auditData))
-          .execute();
+          )
+        );
       }
 
       if (withPermissions.isPresent()) {
-        final var permissions =
-          withPermissions.get();
         final var permissionString =
-          permissionsSerialize(permissions);
+          permissionsSerialize(withPermissions.get());
 
-        record.setPermissions(permissionString);
+        changes.put(ADMINS.PERMISSIONS, permissionString);
 
-        final var auditData =
+        audit.add(
+          "ADMIN_CHANGED_PERMISSIONS",
           Map.ofEntries(
             Map.entry("AdminID", id.toString()),
             Map.entry("Permissions", permissionString)
-          );
+          )
+        );
+      }
 
-        context.insertInto(AUDIT)
-          .set(AUDIT.TIME, this.currentTime())
-          .set(AUDIT.TYPE, "ADMIN_CHANGED_PERMISSIONS")
-          .set(AUDIT.USER_ID, executor)
-          .set(AU_DATA, Hstore.hstore(auditData))
-          .execute();
+      /*
+       * The update reports whether the admin exists, so the admin is only
+       * fetched separately when there is nothing to update.
+       */
+
+      final boolean exists;
+      if (changes.isEmpty()) {
+        exists =
+          IdDatabaseStatements.adminGet(context, id)
+            .fetchOptional()
+            .isPresent();
+      } else {
+        exists =
+          context.update(ADMINS)
+            .set(changes)
+            .where(ADMINS.ID.eq(id))
+            .returning(ADMINS.ID)
+            .fetchOptional()
+            .isPresent();
       }
 
-      record.store();
+      if (!exists) {
+        throw ADMIN_DOES_NOT_EXIST.get();
+      }
+
+      audit.execute();
     } catch (final DataAccessException e) {
       querySpan.recordException(e);
       throw handleDatabaseException(this.transaction(), e, attributes);
@@ -1081,32 +1132,37 @@ final class IdDatabaseAdminsQueries
       );
 
     try {
-      final var user =
-        this.adminGetRequire(ban.user());
-      var banRecord =
-        context.fetchOne(BANS, BANS.USER_ID.eq(user.id()));
+      final var banned =
+        context.insertInto(BANS, BANS.USER_ID, BANS.REASON, BANS.EXPIRES)
+          .select(
+            DSL.select(
+              ADMINS.ID,
+              DSL.val(ban.reason(), BANS.REASON),
+              DSL.val(ban.expires().orElse(null), BANS.EXPIRES)
+            ).from(ADMINS).where(ADMINS.ID.eq(ban.user()))
+          )
+          .onConflict(BANS.USER_ID)
+          .doUpdate()
+          .set(BANS.REASON, DSL.excluded(BANS.REASON))
+          .set(BANS.EXPIRES, DSL.excluded(BANS.EXPIRES))
+          .returning(BANS.USER_ID)
+          .fetchOptional();
 
-      if (banRecord == null) {
-        banRecord = context.newRecord(BANS);
+      if (banned.isEmpty()) {
+        throw ADMIN_DOES_NOT_EXIST.get();
       }
 
-      banRecord.set(BANS.USER_ID, user.id());
-      banRecord.set(BANS.EXPIRES, ban.expires().orElse(null));
-      banRecord.set(BANS.REASON, ban.reason());
-      banRecord.store();
+      final var audit =
+        new IdDatabaseAuditBatch(context, this.currentTime(), executor);
 
-      final var auditData =
+      audit.add(
+        "ADMIN_BANNED",
         Map.ofEntries(
-          Map.entry("AdminID", user.id().toString()),
+          Map.entry("AdminID", ban.user().toString()),
           Map.entry("BanReason", ban.reason())
-        );
-
-      context.insertInto(AUDIT)
-        .set(AUDIT.TIME, this.currentTime())
-        .set(AUDIT.TYPE, "ADMIN_BANNED")
-        .set(AUDIT.USER_ID, executor)
-        .set(AU_DATA, Hstore.hstore(auditData))
-        .execute();
+        )
+      );
+      audit.execute();
 
     } catch (final DataAccessException e) {
       querySpan.recordException(e);
@@ -1137,7 +1193,7 @@ final class IdDatabaseAdminsQueries
       final var user =
         this.adminGetRequire(id);
       final var banRecord =
-        context.fetchOne(BANS, BANS.USER_ID.eq(user.id()));
+        IdDatabaseStatements.banGet(context, user.id()).fetchOne();
 
       if (banRecord == null) {
         return Optional.empty();
@@ -1177,28 +1233,36 @@ final class IdDatabaseAdminsQueries
       );
 
     try {
-      final var user =
-        this.adminGetRequire(ban.user());
-      final var banRecord =
-        context.fetchOne(BANS, BANS.USER_ID.eq(user.id()));
+      final var removed =
+        context.deleteFrom(BANS)
+          .where(BANS.USER_ID.eq(ban.user()))
+          .and(DSL.exists(
+            DSL.selectOne()
+              .from(ADMINS)
+              .where(ADMINS.ID.eq(BANS.USER_ID))))
+          .returning(BANS.USER_ID)
+          .fetchOptional();
 
-      if (banRecord == null) {
+      /*
+       * Nothing was deleted; either the admin was not banned, or the admin
+       * does not exist. Only the latter is an error.
+       */
+
+      if (removed.isEmpty()) {
+        this.adminGetRequire(ban.user());
         return;
       }
 
-      banRecord.delete();
+      final var audit =
+        new IdDatabaseAuditBatch(context, this.currentTime(), executor);
 
-      final var auditData =
+      audit.add(
+        "ADMIN_BAN_REMOVED",
         Map.ofEntries(
-          Map.entry("AdminID", user.id().toString())
-        );
-
-      context.insertInto(AUDIT)
-        .set(AUDIT.TIME, this.currentTime())
-        .set(AUDIT.TYPE, "ADMIN_BAN_REMOVED")
-        .set(AUDIT.USER_ID, executor)
-        .set(AU_DATA, Hstore.hstore(auditData))
-        .execute();
+          Map.entry("AdminID", ban.user().toString())
+        )
+      );
+      audit.execute();
 
     } catch (final DataAccessException e) {
       querySpan.recordException(e);
@@ -1208,211 +1272,103 @@ final class IdDatabaseAdminsQueries
     }
   }
 
-  @Override
-  public IdDatabaseAdminSearchByEmailType adminSearchByEmail(
+  private static Definition<IdAdminSummary> adminSearchByEmailDefinition(
     final IdAdminSearchByEmailParameters parameters)
-    throws IdDatabaseException
   {
-    Objects.requireNonNull(parameters, "parameters");
-
-    final var transaction = this.transaction();
-    final var context = transaction.createContext();
-    final var querySpan =
-      transaction.createQuerySpan(
-        "IdDatabaseAdminsQueries.adminSearchByEmail.create");
+    /*
+     * The admins must lie within the given time ranges.
+     */
+
+    final var timeCreatedRange = parameters.timeCreatedRange();
+    final var timeCreatedCondition =
+      DSL.condition(
+        ADMINS.TIME_CREATED.ge(timeCreatedRange.timeLower())
+          .and(ADMINS.TIME_CREATED.le(timeCreatedRange.timeUpper()))
+      );
 
-    try {
-      final var baseTable =
-        ADMINS.join(EMAILS)
-          .on(ADMINS.ID.eq(EMAILS.ADMIN_ID));
+    final var timeUpdatedRange = parameters.timeUpdatedRange();
+    final var timeUpdatedCondition =
+      DSL.condition(
+        ADMINS.TIME_UPDATED.ge(timeUpdatedRange.timeLower())
+          .and(ADMINS.TIME_UPDATED.le(timeUpdatedRange.timeUpper()))
+      );
 
-      /*
-       * The admins must lie within the given time ranges.
-       */
+    /*
+     * Only admins with matching email addresses will be returned. A
+     * semi-join is used so that an admin with several matching addresses
+     * appears only once.
+     */
+
+    final var searchLike =
+      "%%%s%%".formatted(parameters.search());
+    final var searchCondition =
+      ADMINS.ID.in(
+        DSL.select(EMAILS.ADMIN_ID)
+          .from(EMAILS)
+          .where(EMAILS.EMAIL_ADDRESS.likeIgnoreCase(searchLike))
+      );
 
-      final var timeCreatedRange = parameters.timeCreatedRange();
-      final var timeCreatedCondition =
-        DSL.condition(
-          ADMINS.TIME_CREATED.ge(timeCreatedRange.timeLower())
-            .and(ADMINS.TIME_CREATED.le(timeCreatedRange.timeUpper()))
-        );
+    final var allConditions =
+      timeCreatedCondition
+        .and(timeUpdatedCondition)
+        .and(searchCondition);
+
+    return searchDefinition(
+      "IdDatabaseAdminsQueries.adminSearchByEmail",
+      allConditions,
+      false,
+      parameters.ordering(),
+      parameters.limit()
+    );
+  }
 
-      final var timeUpdatedRange = parameters.timeUpdatedRange();
-      final var timeUpdatedCondition =
-        DSL.condition(
-          ADMINS.TIME_UPDATED.ge(timeUpdatedRange.timeLower())
-            .and(ADMINS.TIME_UPDATED.le(timeUpdatedRange.timeUpper()))
-        );
+  @Override
+  public IdDatabaseAdminSearchByEmailType adminSearchByEmail(
+    final IdAdminSearchByEmailParameters parameters)
+  {
+    Objects.requireNonNull(parameters, "parameters");
 
-      /*
-       * Only admins with matching email addresses will be returned.
-       */
+    return new AdminsByEmailSearch(
+      adminSearchByEmailDefinition(parameters),
+      Optional.empty()
+    );
+  }
 
-      final var searchLike =
-        "%%%s%%".formatted(parameters.search());
-      final var searchCondition =
-        DSL.condition(EMAILS.EMAIL_ADDRESS.likeIgnoreCase(searchLike));
-
-      final var allConditions =
-        timeCreatedCondition
-          .and(timeUpdatedCondition)
-          .and(searchCondition);
-
-      final var orderField =
-        orderingToJQField(parameters.ordering());
-
-      final var pages =
-        JQKeysetRandomAccessPagination.createPageDefinitions(
-          context,
-          JQKeysetRandomAccessPaginationParameters.forTable(baseTable)
-            .addSortField(orderField)
-            .addWhereCondition(allConditions)
-            .addGroupByField(ADMINS.ID)
-            .setPageSize(Integer.toUnsignedLong(parameters.limit()))
-            .setStatementListener(statement -> {
-              querySpan.setAttribute(DB_STATEMENT, statement.toString());
-            })
-            .build()
-        );
+  @Override
+  public IdDatabaseAdminSearchByEmailType adminSearchByEmail(
+    final IdAdminSearchByEmailParameters parameters,
+    final IdDatabaseSearchPosition position)
+  {
+    Objects.requireNonNull(parameters, "parameters");
+    Objects.requireNonNull(position, "position");
 
-      return new AdminsByEmailSearch(pages);
-    } catch (final DataAccessException e) {
-      querySpan.recordException(e);
-      throw handleDatabaseException(this.transaction(), e, Map.of());
-    } finally {
-      querySpan.end();
-    }
+    return new AdminsByEmailSearch(
+      adminSearchByEmailDefinition(parameters),
+      Optional.of(position)
+    );
   }
 
   private static final class AdminsByEmailSearch
-    extends IdAbstractSearch<
-    IdDatabaseAdminsQueries,
-    IdDatabaseAdminsQueriesType,
-    IdAdminSummary>
+    extends IdAbstractSearch<IdDatabaseAdminsQueriesType, IdAdminSummary>
     implements IdDatabaseAdminSearchByEmailType
   {
     AdminsByEmailSearch(
-      final List<JQKeysetRandomAccessPageDefinition> inPages)
+      final Definition<IdAdminSummary> inDefinition,
+      final Optional<IdDatabaseSearchPosition> inPosition)
     {
-      super(inPages);
-    }
-
-    @Override
-    protected IdPage<IdAdminSummary> page(
-      final IdDatabaseAdminsQueries queries,
-      final JQKeysetRandomAccessPageDefinition page)
-      throws IdDatabaseException
-    {
-      final var transaction =
-        queries.transaction();
-      final var context =
-        transaction.createContext();
-
-      final var querySpan =
-        transaction.createQuerySpan(
-          "IdDatabaseAdminsQueries.adminSearchByEmail.page");
-
-      try {
-        final var query =
-          page.queryFields(context, List.of(
-            ADMINS.ID,
-            ADMINS.ID_NAME,
-            ADMINS.REAL_NAME,
-            ADMINS.TIME_CREATED,
-            ADMINS.TIME_UPDATED
-          ));
-
-        querySpan.setAttribute(DB_STATEMENT, query.toString());
-
-        final var items =
-          query.fetch().map(record -> {
-            return new IdAdminSummary(
-              record.get(ADMINS.ID),
-              new IdName(record.get(ADMINS.ID_NAME)),
-              new IdRealName(record.get(ADMINS.REAL_NAME)),
-              record.get(ADMINS.TIME_CREATED),
-              record.get(ADMINS.TIME_UPDATED)
-            );
-          });
-
-        return new IdPage<>(
-          items,
-          (int) page.index(),
-          this.pageCount(),
-          page.firstOffset()
-        );
-      } catch (final DataAccessException e) {
-        querySpan.recordException(e);
-        throw handleDatabaseException(transaction, e, Map.of());
-      } finally {
-        querySpan.end();
-      }
+      super(inDefinition, inPosition);
     }
   }
 
   private static final class AdminsSearch
-    extends IdAbstractSearch<
-    IdDatabaseAdminsQueries,
-    IdDatabaseAdminsQueriesType,
-    IdAdminSummary>
+    extends IdAbstractSearch<IdDatabaseAdminsQueriesType, IdAdminSummary>
     implements IdDatabaseAdminSearchType
   {
     AdminsSearch(
-      final List<JQKeysetRandomAccessPageDefinition> inPages)
-    {
-      super(inPages);
-    }
-
-    @Override
-    protected IdPage<IdAdminSummary> page(
-      final IdDatabaseAdminsQueries queries,
-      final JQKeysetRandomAccessPageDefinition page)
-      throws IdDatabaseException
+      final Definition<IdAdminSummary> inDefinition,
+      final Optional<IdDatabaseSearchPosition> inPosition)
     {
-      final var transaction =
-        queries.transaction();
-      final var context =
-        transaction.createContext();
-
-      final var querySpan =
-        transaction.createQuerySpan(
-          "IdDatabaseAdminsQueries.adminSearch.page");
-
-      try {
-        final var query =
-          page.queryFields(context, List.of(
-            ADMINS.ID,
-            ADMINS.ID_NAME,
-            ADMINS.REAL_NAME,
-            ADMINS.TIME_CREATED,
-            ADMINS.TIME_UPDATED
-          ));
-
-        querySpan.setAttribute(DB_STATEMENT, query.toString());
-
-        final var items =
-          query.fetch().map(record -> {
-            return new IdAdminSummary(
-              record.get(ADMINS.ID),
-              new IdName(record.get(ADMINS.ID_NAME)),
-              new IdRealName(record.get(ADMINS.REAL_NAME)),
-              record.get(ADMINS.TIME_CREATED),
-              record.get(ADMINS.TIME_UPDATED)
-            );
-          });
-
-        return new IdPage<>(
-          items,
-          (int) page.index(),
-          this.pageCount(),
-          page.firstOffset()
-        );
-      } catch (final DataAccessException e) {
-        querySpan.recordException(e);
-        throw handleDatabaseException(transaction, e, Map.of());
-      } finally {
-        querySpan.end();
-      }
+      super(inDefinition, inPosition);
     }
   }
 }
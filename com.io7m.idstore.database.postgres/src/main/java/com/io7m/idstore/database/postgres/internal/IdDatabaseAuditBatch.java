@@ -0,0 +1,98 @@
+/*
+ * Copyright © 2024 Mark Raynsford <code@io7m.com> https://www.io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+package com.io7m.idstore.database.postgres.internal;
+
+import com.io7m.idstore.database.postgres.internal.tables.records.AuditRecord;
+import org.jooq.DSLContext;
+import org.jooq.InsertValuesStep4;
+import org.jooq.postgres.extensions.types.Hstore;
+
+import java.time.OffsetDateTime;
+import java.util.Map;
+import java.util.Objects;
+import java.util.UUID;
+
+import static com.io7m.idstore.database.postgres.internal.IdDatabaseAuditQueries.AU_DATA;
+import static com.io7m.idstore.database.postgres.internal.Tables.AUDIT;
+
+/**
+ * A set of audit events that share an owner and a timestamp, written to
+ * the audit table with a single multi-row {@code INSERT}.
+ */
+
+final class IdDatabaseAuditBatch
+{
+  private final InsertValuesStep4<
+    AuditRecord, OffsetDateTime, String, UUID, Hstore> insert;
+  private final OffsetDateTime time;
+  private final UUID owner;
+  private int rows;
+
+  /**
+   * A set of audit events that share an owner and a timestamp.
+   *
+   * @param context The SQL context
+   * @param inTime  The time of the events
+   * @param inOwner The owner of the events
+   */
+
+  IdDatabaseAuditBatch(
+    final DSLContext context,
+    final OffsetDateTime inTime,
+    final UUID inOwner)
+  {
+    Objects.requireNonNull(context, "context");
+
+    this.time =
+      Objects.requireNonNull(inTime, "time");
+    this.owner =
+      Objects.requireNonNull(inOwner, "owner");
+    this.insert =
+      context.insertInto(AUDIT, AUDIT.TIME, AUDIT.TYPE, AUDIT.USER_ID, AU_DATA);
+    this.rows = 0;
+  }
+
+  /**
+   * Add an event to the batch.
+   *
+   * @param type The event type
+   * @param data The event data
+   */
+
+  void add(
+    final String type,
+    final Map<String, String> data)
+  {
+    Objects.requireNonNull(type, "type");
+    Objects.requireNonNull(data, "data");
+
+    this.insert.values(this.time, type, this.owner, Hstore.hstore(data));
+    ++this.rows;
+  }
+
+  /**
+   * Write all events in the batch. Nothing is sent to the database if the
+   * batch is empty.
+   */
+
+  void execute()
+  {
+    if (this.rows > 0) {
+      this.insert.execute();
+    }
+  }
+}
@@ -19,17 +19,16 @@ package com.io7m.idstore.database.postgres.internal;
 import com.io7m.idstore.database.api.IdDatabaseAuditEventsSearchType;
 import com.io7m.idstore.database.api.IdDatabaseAuditQueriesType;
 import com.io7m.idstore.database.api.IdDatabaseException;
+import com.io7m.idstore.database.api.IdDatabaseExportType;
+import com.io7m.idstore.database.api.IdDatabaseSearchPosition;
+import com.io7m.idstore.database.postgres.internal.IdAbstractSearch.Definition;
 import com.io7m.idstore.model.IdAuditEvent;
 import com.io7m.idstore.model.IdAuditSearchParameters;
-import com.io7m.idstore.model.IdPage;
-import com.io7m.jqpage.core.JQField;
-import com.io7m.jqpage.core.JQKeysetRandomAccessPageDefinition;
-import com.io7m.jqpage.core.JQKeysetRandomAccessPagination;
-import com.io7m.jqpage.core.JQKeysetRandomAccessPaginationParameters;
-import com.io7m.jqpage.core.JQOrder;
+import com.io7m.idstore.model.IdTimeRange;
 import org.jooq.Condition;
 import org.jooq.DataType;
 import org.jooq.Field;
+import org.jooq.Record;
 import org.jooq.exception.DataAccessException;
 import org.jooq.impl.DSL;
 import org.jooq.impl.SQLDataType;
@@ -40,6 +39,7 @@ import java.time.OffsetDateTime;
 import java.util.List;
 import java.util.Map;
 import java.util.Objects;
+import java.util.Optional;
 import java.util.UUID;
 
 import static com.io7m.idstore.database.postgres.internal.IdDatabaseExceptions.handleDatabaseException;
@@ -62,9 +62,106 @@ final class IdDatabaseAuditQueries
     super(inTransaction);
   }
 
+  private static Condition searchConditions(
+    final IdAuditSearchParameters parameters)
+  {
+    /*
+     * The events must lie within the given time ranges.
+     */
+
+    final var timeCreatedCondition =
+      DSL.condition(
+        AUDIT.TIME.ge(parameters.timeRange().timeLower())
+          .and(AUDIT.TIME.le(parameters.timeRange().timeUpper()))
+      );
+
+    /*
+     * Search queries might be present.
+     */
+
+    Condition searchCondition = DSL.trueCondition();
+
+    final var typeOpt = parameters.type();
+    if (typeOpt.isPresent()) {
+      final var q = "%%%s%%".formatted(typeOpt.get());
+      searchCondition =
+        searchCondition.and(DSL.condition(AUDIT.TYPE.likeIgnoreCase(q)));
+    }
+
+    final var ownerOpt = parameters.owner();
+    if (ownerOpt.isPresent()) {
+      final var q = "%%%s%%".formatted(ownerOpt.get());
+      searchCondition =
+        searchCondition.and(DSL.condition(AUDIT.USER_ID.likeIgnoreCase(q)));
+    }
+
+    return timeCreatedCondition.and(searchCondition);
+  }
+
+  private static IdAuditEvent mapAuditEvent(
+    final Record record)
+  {
+    return new IdAuditEvent(
+      record.getValue(AUDIT.ID).longValue(),
+      record.getValue(AUDIT.USER_ID),
+      record.getValue(AUDIT.TIME),
+      record.getValue(AUDIT.TYPE),
+      record.getValue(AU_DATA).data()
+    );
+  }
+
+  private static Definition<IdAuditEvent> searchDefinition(
+    final IdAuditSearchParameters parameters)
+  {
+    return new Definition<>(
+      "IdDatabaseAuditQueries.auditEventsSearch",
+      AUDIT,
+      searchConditions(parameters),
+      parameters.type().isEmpty()
+        && parameters.owner().isEmpty()
+        && parameters.timeRange().equals(IdTimeRange.largest()),
+      List.of(
+        AUDIT.ID,
+        AUDIT.USER_ID,
+        AUDIT.TIME,
+        AUDIT.TYPE,
+        AU_DATA
+      ),
+      List.of(AUDIT.ID),
+      true,
+      parameters.limit(),
+      IdDatabaseAuditQueries::mapAuditEvent
+    );
+  }
+
   @Override
   public IdDatabaseAuditEventsSearchType auditEventsSearch(
     final IdAuditSearchParameters parameters)
+  {
+    Objects.requireNonNull(parameters, "parameters");
+    return new AuditEventsSearch(
+      searchDefinition(parameters),
+      Optional.empty()
+    );
+  }
+
+  @Override
+  public IdDatabaseAuditEventsSearchType auditEventsSearch(
+    final IdAuditSearchParameters parameters,
+    final IdDatabaseSearchPosition position)
+  {
+    Objects.requireNonNull(parameters, "parameters");
+    Objects.requireNonNull(position, "position");
+    return new AuditEventsSearch(
+      searchDefinition(parameters),
+      Optional.of(position)
+    );
+  }
+
+  @Override
+  public IdDatabaseExportType<IdAuditEvent> auditEventsExport(
+    final IdAuditSearchParameters parameters,
+    final int fetchSize)
     throws IdDatabaseException
   {
     Objects.requireNonNull(parameters, "parameters");
@@ -75,62 +172,32 @@ final class IdDatabaseAuditQueries
       transaction.createContext();
     final var querySpan =
       transaction.createQuerySpan(
-        "IdDatabaseAuditQueries.auditEventsSearch.create");
+        "IdDatabaseAuditQueries.auditEventsExport");
 
     try {
-      /*
-       * The events must lie within the given time ranges.
-       */
-
-      final var timeCreatedCondition =
-        DSL.condition(
-          AUDIT.TIME.ge(parameters.timeRange().timeLower())
-            .and(AUDIT.TIME.le(parameters.timeRange().timeUpper()))
-        );
-
-      /*
-       * Search queries might be present.
-       */
-
-      Condition searchCondition = DSL.trueCondition();
-
-      final var typeOpt = parameters.type();
-      if (typeOpt.isPresent()) {
-        final var q = "%%%s%%".formatted(typeOpt.get());
-        searchCondition =
-          searchCondition.and(DSL.condition(AUDIT.TYPE.likeIgnoreCase(q)));
-      }
-
-      final var ownerOpt = parameters.owner();
-      if (ownerOpt.isPresent()) {
-        final var q = "%%%s%%".formatted(ownerOpt.get());
-        searchCondition =
-          searchCondition.and(DSL.condition(AUDIT.USER_ID.likeIgnoreCase(q)));
-      }
-
-      final var allConditions =
-        timeCreatedCondition.and(searchCondition);
-
-      final var baseTable =
-        AUDIT.where(allConditions);
-
-      final var pages =
-        JQKeysetRandomAccessPagination.createPageDefinitions(
-          context,
-          JQKeysetRandomAccessPaginationParameters.forTable(baseTable)
-            .setPageSize(Integer.toUnsignedLong(parameters.limit()))
-            .addSortField(new JQField(AUDIT.ID, JQOrder.ASCENDING))
-            .addWhereCondition(allConditions)
-            .setStatementListener(statement -> {
-              querySpan.setAttribute(DB_STATEMENT, statement.toString());
-            })
-            .build()
-        );
-
-      return new AuditEventsSearch(pages);
+      final var query =
+        context.select(
+            AUDIT.ID,
+            AUDIT.USER_ID,
+            AUDIT.TIME,
+            AUDIT.TYPE,
+            AU_DATA)
+          .from(AUDIT)
+          .where(searchConditions(parameters))
+          .orderBy(AUDIT.ID.asc())
+          .fetchSize(fetchSize);
+
+      querySpan.setAttribute(DB_STATEMENT, query.toString());
+
+      return new IdDatabaseExport<>(
+        transaction,
+        query.fetchLazy(),
+        IdDatabaseAuditQueries::mapAuditEvent,
+        fetchSize
+      );
     } catch (final DataAccessException e) {
       querySpan.recordException(e);
-      throw handleDatabaseException(this.transaction(), e, Map.of());
+      throw handleDatabaseException(transaction, e, Map.of());
     } finally {
       querySpan.end();
     }
@@ -156,11 +223,7 @@ final class IdDatabaseAuditQueries
       transaction.createQuerySpan("IdDatabaseAuditQueries.auditPut");
 
     try {
-      context.insertInto(AUDIT)
-        .set(AUDIT.TIME, time)
-        .set(AUDIT.TYPE, type)
-        .set(AUDIT.USER_ID, userId)
-        .set(AU_DATA, Hstore.hstore(data))
+      IdDatabaseStatements.auditPut(context, userId, time, type, data)
         .execute();
     } catch (final DataAccessException e) {
       querySpan.recordException(e);
@@ -171,68 +234,14 @@ final class IdDatabaseAuditQueries
   }
 
   private static final class AuditEventsSearch
-    extends IdAbstractSearch<IdDatabaseAuditQueries, IdDatabaseAuditQueriesType, IdAuditEvent>
+    extends IdAbstractSearch<IdDatabaseAuditQueriesType, IdAuditEvent>
     implements IdDatabaseAuditEventsSearchType
   {
     AuditEventsSearch(
-      final List<JQKeysetRandomAccessPageDefinition> inPages)
-    {
-      super(inPages);
-    }
-
-    @Override
-    protected IdPage<IdAuditEvent> page(
-      final IdDatabaseAuditQueries queries,
-      final JQKeysetRandomAccessPageDefinition page)
-      throws IdDatabaseException
+      final Definition<IdAuditEvent> inDefinition,
+      final Optional<IdDatabaseSearchPosition> inPosition)
     {
-      final var transaction =
-        queries.transaction();
-      final var context =
-        transaction.createContext();
-
-      final var querySpan =
-        transaction.createQuerySpan(
-          "IdDatabaseAuditQueries.auditEventsSearch.page");
-
-      try {
-        final var query =
-          page.queryFields(
-            context,
-            List.of(
-              AUDIT.ID,
-              AUDIT.USER_ID,
-              AUDIT.TIME,
-              AUDIT.TYPE,
-              AU_DATA
-            )
-          );
-
-        querySpan.setAttribute(DB_STATEMENT, query.toString());
-
-        final var items =
-          query.fetch().map(record -> {
-            return new IdAuditEvent(
-              record.getValue(AUDIT.ID).longValue(),
-              record.getValue(AUDIT.USER_ID),
-              record.getValue(AUDIT.TIME),
-              record.getValue(AUDIT.TYPE),
-              record.getValue(AU_DATA).data()
-            );
-          });
-
-        return new IdPage<>(
-          items,
-          (int) page.index(),
-          this.pageCount(),
-          page.firstOffset()
-        );
-      } catch (final DataAccessException e) {
-        querySpan.recordException(e);
-        throw handleDatabaseException(transaction, e, Map.of());
-      } finally {
-        querySpan.end();
-      }
+      super(inDefinition, inPosition);
     }
   }
 }
@@ -28,8 +28,10 @@ import java.sql.SQLException;
 import java.time.Duration;
 import java.time.OffsetDateTime;
 import java.util.Map;
+import java.util.Objects;
 import java.util.Optional;
 
+import static com.io7m.idstore.error_codes.IdStandardErrorCodes.REQUEST_TIMEOUT;
 import static com.io7m.idstore.error_codes.IdStandardErrorCodes.SQL_ERROR;
 import static java.util.Objects.requireNonNullElse;
 
@@ -38,47 +40,72 @@ record IdDatabaseConnection(
   Connection connection,
   OffsetDateTime timeStart,
   IdDatabaseRole role,
-  Span connectionSpan)
+  Span connectionSpan,
+  Optional<IdDatabasePoolSizer.Hold> poolHold)
   implements IdDatabaseConnectionType
 {
   @Override
   public IdDatabaseTransactionType openTransaction()
     throws IdDatabaseException
   {
-    final var transactionSpan =
-      this.database.tracer()
-        .spanBuilder("IdDatabaseTransaction")
-        .setParent(Context.current().with(this.connectionSpan))
-        .startSpan();
+    return this.openTransactionWith(Optional.empty());
+  }
 
-    try {
-      final var t =
-        new IdDatabaseTransaction(
-          this,
-          transactionSpan
-        );
+  @Override
+  public IdDatabaseTransactionType openTransaction(
+    final OffsetDateTime deadline)
+    throws IdDatabaseException
+  {
+    Objects.requireNonNull(deadline, "deadline");
 
-      this.database.counterTransactions().add(1L);
-      t.setRole(this.role);
-      t.commit();
-      return t;
-    } catch (final SQLException e) {
-      transactionSpan.recordException(e);
-      transactionSpan.end();
+    /*
+     * A request that has already run out of time is refused without
+     * touching the database at all.
+     */
+
+    final var timeNow = OffsetDateTime.now(this.database.clock());
+    if (!deadline.isAfter(timeNow)) {
       throw new IdDatabaseException(
-        requireNonNullElse(e.getMessage(), e.getClass().getSimpleName()),
-        e,
-        SQL_ERROR,
-        Map.of(),
+        "The request deadline has passed.",
+        REQUEST_TIMEOUT,
+        Map.of("Deadline", deadline.toString()),
         Optional.empty()
       );
     }
+
+    final var transaction = this.openTransactionWith(Optional.of(deadline));
+    try {
+      transaction.applyDeadline();
+    } catch (final IdDatabaseException e) {
+      try {
+        transaction.close();
+      } catch (final IdDatabaseException ex) {
+        e.addSuppressed(ex);
+      }
+      throw e;
+    }
+    return transaction;
+  }
+
+  private IdDatabaseTransaction openTransactionWith(
+    final Optional<OffsetDateTime> deadline)
+  {
+    final var transactionSpan =
+      this.database.tracer()
+        .spanBuilder("IdDatabaseTransaction")
+        .setParent(Context.current().with(this.connectionSpan))
+        .startSpan();
+
+    this.database.counterTransactions().add(1L);
+    return new IdDatabaseTransaction(this, transactionSpan, deadline);
   }
 
   @Override
   public void close()
     throws IdDatabaseException
   {
+    this.poolHold.ifPresent(IdDatabasePoolSizer.Hold::end);
+
     try {
       final var timeNow = OffsetDateTime.now();
       this.database.setConnectionTimeNow(
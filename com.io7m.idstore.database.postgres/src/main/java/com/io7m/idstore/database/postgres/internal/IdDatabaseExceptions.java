@@ -32,6 +32,7 @@ import static com.io7m.idstore.error_codes.IdStandardErrorCodes.EMAIL_DUPLICATE;
 import static com.io7m.idstore.error_codes.IdStandardErrorCodes.EMAIL_ONE_REQUIRED;
 import static com.io7m.idstore.error_codes.IdStandardErrorCodes.OPERATION_NOT_PERMITTED;
 import static com.io7m.idstore.error_codes.IdStandardErrorCodes.PROTOCOL_ERROR;
+import static com.io7m.idstore.error_codes.IdStandardErrorCodes.REQUEST_TIMEOUT;
 import static com.io7m.idstore.error_codes.IdStandardErrorCodes.SQL_ERROR;
 import static com.io7m.idstore.error_codes.IdStandardErrorCodes.USER_DUPLICATE_ID;
 import static com.io7m.idstore.error_codes.IdStandardErrorCodes.USER_DUPLICATE_ID_NAME;
@@ -192,6 +193,21 @@ public final class IdDatabaseExceptions
           );
         }
 
+        /*
+         * query_canceled: raised when a statement exceeds the
+         * statement_timeout derived from the request deadline.
+         */
+
+        case "57014" -> {
+          yield new IdDatabaseException(
+            m,
+            e,
+            REQUEST_TIMEOUT,
+            attributes,
+            Optional.empty()
+          );
+        }
+
         /*
          * insufficient_privilege
          */
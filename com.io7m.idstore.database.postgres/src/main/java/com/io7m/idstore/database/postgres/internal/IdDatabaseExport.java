@@ -0,0 +1,94 @@
+/*
+ * Copyright © 2024 Mark Raynsford <code@io7m.com> https://www.io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+
+package com.io7m.idstore.database.postgres.internal;
+
+import com.io7m.idstore.database.api.IdDatabaseException;
+import com.io7m.idstore.database.api.IdDatabaseExportType;
+import org.jooq.Cursor;
+import org.jooq.Record;
+import org.jooq.RecordMapper;
+import org.jooq.exception.DataAccessException;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+
+import static com.io7m.idstore.database.postgres.internal.IdDatabaseExceptions.handleDatabaseException;
+
+/**
+ * An export backed by a lazily-fetched jOOQ cursor. Because the enclosing
+ * transaction is never in auto-commit mode, the PostgreSQL driver honours
+ * the fetch size and holds the result set open as a server-side portal,
+ * retrieving at most {@code fetchSize} rows per round trip.
+ *
+ * @param <R> The type of records
+ * @param <T> The type of result values
+ */
+
+final class IdDatabaseExport<R extends Record, T>
+  implements IdDatabaseExportType<T>
+{
+  private final IdDatabaseTransaction transaction;
+  private final Cursor<R> cursor;
+  private final RecordMapper<R, T> mapper;
+  private final int fetchSize;
+
+  IdDatabaseExport(
+    final IdDatabaseTransaction inTransaction,
+    final Cursor<R> inCursor,
+    final RecordMapper<R, T> inMapper,
+    final int inFetchSize)
+  {
+    this.transaction =
+      Objects.requireNonNull(inTransaction, "transaction");
+    this.cursor =
+      Objects.requireNonNull(inCursor, "cursor");
+    this.mapper =
+      Objects.requireNonNull(inMapper, "mapper");
+    this.fetchSize =
+      inFetchSize;
+  }
+
+  @Override
+  public int fetchSize()
+  {
+    return this.fetchSize;
+  }
+
+  @Override
+  public List<T> next()
+    throws IdDatabaseException
+  {
+    try {
+      return this.cursor.fetchNext(this.fetchSize).map(this.mapper);
+    } catch (final DataAccessException e) {
+      throw handleDatabaseException(this.transaction, e, Map.of());
+    }
+  }
+
+  @Override
+  public void close()
+    throws IdDatabaseException
+  {
+    try {
+      this.cursor.close();
+    } catch (final DataAccessException e) {
+      throw handleDatabaseException(this.transaction, e, Map.of());
+    }
+  }
+}
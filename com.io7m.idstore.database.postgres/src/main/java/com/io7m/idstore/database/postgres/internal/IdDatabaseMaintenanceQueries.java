@@ -19,21 +19,30 @@ package com.io7m.idstore.database.postgres.internal;
 
 import com.io7m.idstore.database.api.IdDatabaseException;
 import com.io7m.idstore.database.api.IdDatabaseMaintenanceQueriesType;
+import com.io7m.idstore.database.api.IdDatabaseMaintenanceTask;
 import com.io7m.idstore.model.IdAdminPermission;
 import com.io7m.jaffirm.core.Invariants;
+import com.io7m.jaffirm.core.Preconditions;
 import com.io7m.jdeferthrow.core.ExceptionTracker;
+import org.jooq.Condition;
+import org.jooq.Field;
+import org.jooq.Table;
 import org.jooq.exception.DataAccessException;
+import org.jooq.impl.DSL;
+import org.jooq.impl.SQLDataType;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.util.EnumSet;
 import java.util.Map;
+import java.util.Objects;
 
 import static com.io7m.idstore.database.postgres.internal.IdDatabaseAdminsQueries.permissionsSerialize;
 import static com.io7m.idstore.database.postgres.internal.IdDatabaseExceptions.handleDatabaseException;
 import static com.io7m.idstore.database.postgres.internal.Tables.ADMINS;
 import static com.io7m.idstore.database.postgres.internal.Tables.BANS;
 import static com.io7m.idstore.database.postgres.internal.Tables.EMAIL_VERIFICATIONS;
+import static com.io7m.idstore.database.postgres.internal.Tables.RATE_LIMITS;
 import static com.io7m.idstore.database.postgres.internal.Tables.USER_PASSWORD_RESETS;
 import static java.lang.Integer.valueOf;
 
@@ -48,6 +57,47 @@ public final class IdDatabaseMaintenanceQueries
   private static final Logger LOG =
     LoggerFactory.getLogger(IdDatabaseMaintenanceQueries.class);
 
+  private static final int BATCH_SIZE_DEFAULT = 1000;
+
+  private static final Field<Object> CTID =
+    DSL.field(DSL.name("ctid"));
+
+  /**
+   * The key of the advisory lock used to elect a maintenance leader. The
+   * value is the ASCII string "idstore1".
+   */
+
+  private static final Long LEADER_LOCK_KEY =
+    Long.valueOf(0x6964_7374_6f72_6531L);
+
+  private static final Field<Boolean> LEADER_LOCK_TRY =
+    DSL.field(
+      "pg_try_advisory_lock({0})",
+      SQLDataType.BOOLEAN,
+      DSL.val(LEADER_LOCK_KEY)
+    );
+
+  /*
+   * A lock taken with a single bigint key appears in pg_locks with the high
+   * and low halves of the key in classid and objid, and an objsubid of 1.
+   */
+
+  private static final Field<Boolean> LEADER_LOCK_HELD =
+    DSL.field(
+      """
+        EXISTS (
+          SELECT 1 FROM pg_locks
+            WHERE locktype = 'advisory'
+              AND granted
+              AND pid = pg_backend_pid()
+              AND objsubid = 1
+              AND ((classid::bigint << 32) | objid::bigint) = {0}
+        )
+        """,
+      SQLDataType.BOOLEAN,
+      DSL.val(LEADER_LOCK_KEY)
+    );
+
   IdDatabaseMaintenanceQueries(
     final IdDatabaseTransaction inTransaction)
   {
@@ -61,34 +111,101 @@ public final class IdDatabaseMaintenanceQueries
     final var exceptions =
       new ExceptionTracker<IdDatabaseException>();
 
-    try {
-      this.runExpireEmailVerifications();
-    } catch (final IdDatabaseException e) {
-      exceptions.addException(e);
+    for (final var task : IdDatabaseMaintenanceTask.values()) {
+      try {
+        while (true) {
+          final var affected =
+            this.runMaintenanceTask(task, BATCH_SIZE_DEFAULT);
+          if (!task.isBatched() || affected < (long) BATCH_SIZE_DEFAULT) {
+            break;
+          }
+        }
+      } catch (final IdDatabaseException e) {
+        exceptions.addException(e);
+      }
     }
 
-    try {
-      this.runExpireBans();
-    } catch (final IdDatabaseException e) {
-      exceptions.addException(e);
-    }
+    exceptions.throwIfNecessary();
+  }
 
-    try {
-      this.runExpirePasswordResets();
-    } catch (final IdDatabaseException e) {
-      exceptions.addException(e);
-    }
+  @Override
+  public long runMaintenanceTask(
+    final IdDatabaseMaintenanceTask task,
+    final int batchSize)
+    throws IdDatabaseException
+  {
+    Objects.requireNonNull(task, "task");
 
-    try {
-      this.runUpdateInitialAdminPermissions();
-    } catch (final IdDatabaseException e) {
-      exceptions.addException(e);
-    }
+    Preconditions.checkPreconditionV(
+      batchSize > 0,
+      "Batch size must be positive."
+    );
 
-    exceptions.throwIfNecessary();
+    return switch (task) {
+      case EXPIRE_EMAIL_VERIFICATIONS -> this.runExpire(
+        task,
+        EMAIL_VERIFICATIONS,
+        EMAIL_VERIFICATIONS.EXPIRES.lt(this.currentTime()),
+        batchSize
+      );
+      case EXPIRE_BANS -> this.runExpire(
+        task,
+        BANS,
+        BANS.EXPIRES.lt(this.currentTime()),
+        batchSize
+      );
+      case EXPIRE_PASSWORD_RESETS -> this.runExpire(
+        task,
+        USER_PASSWORD_RESETS,
+        USER_PASSWORD_RESETS.EXPIRES.lt(this.currentTime()),
+        batchSize
+      );
+      case EXPIRE_RATE_LIMITS -> {
+        final var now =
+          IdDatabaseRateLimitsQueries.timeMicros(
+            this.transaction().clock().instant());
+
+        yield this.runExpire(
+          task,
+          RATE_LIMITS,
+          RATE_LIMITS.ARRIVAL.lt(Long.valueOf(now)),
+          batchSize
+        );
+      }
+      case UPDATE_INITIAL_ADMIN_PERMISSIONS ->
+        this.runUpdateInitialAdminPermissions();
+    };
+  }
+
+  @Override
+  public boolean maintenanceLeaderLockTry()
+    throws IdDatabaseException
+  {
+    return this.leaderLockQuery(
+      "IdDatabaseMaintenanceQueries.maintenanceLeaderLockTry",
+      LEADER_LOCK_TRY
+    );
   }
 
-  private void runUpdateInitialAdminPermissions()
+  @Override
+  public boolean maintenanceLeaderLockHeld()
+    throws IdDatabaseException
+  {
+    return this.leaderLockQuery(
+      "IdDatabaseMaintenanceQueries.maintenanceLeaderLockHeld",
+      LEADER_LOCK_HELD
+    );
+  }
+
+  /*
+   * All session-level advisory locks are released, rather than just one
+   * acquisition of the leader lock, because session-level advisory locks
+   * stack, and a pooled connection must never be returned to the pool while
+   * still holding the lock. The server takes no other session-level locks.
+   */
+
+  @Override
+  public void maintenanceLeaderLockRelease()
     throws IdDatabaseException
   {
     final var transaction =
@@ -97,24 +214,10 @@ public final class IdDatabaseMaintenanceQueries
       transaction.createContext();
     final var querySpan =
       transaction.createQuerySpan(
-        "IdDatabaseMaintenanceQueries.runUpdateInitialAdminPermissions");
+        "IdDatabaseMaintenanceQueries.maintenanceLeaderLockRelease");
 
     try {
-      final var updated =
-        context.update(ADMINS)
-          .set(
-            ADMINS.PERMISSIONS,
-            permissionsSerialize(EnumSet.allOf(IdAdminPermission.class)))
-          .where(ADMINS.INITIAL.eq(Boolean.TRUE))
-          .execute();
-
-      Invariants.checkInvariantI(
-        updated,
-        updated <= 1,
-        x -> "At most one administrator must have been updated."
-      );
-
-      LOG.debug("updated permissions for {} initial admins", valueOf(updated));
+      context.execute("SELECT pg_advisory_unlock_all()");
     } catch (final DataAccessException e) {
       querySpan.recordException(e);
       throw handleDatabaseException(transaction, e, Map.of());
@@ -123,7 +226,9 @@ public final class IdDatabaseMaintenanceQueries
     }
   }
 
-  private void runExpirePasswordResets()
+  private boolean leaderLockQuery(
+    final String name,
+    final Field<Boolean> field)
     throws IdDatabaseException
   {
     final var transaction =
@@ -131,16 +236,13 @@ public final class IdDatabaseMaintenanceQueries
     final var context =
       transaction.createContext();
     final var querySpan =
-      transaction.createQuerySpan(
-        "IdDatabaseMaintenanceQueries.runExpirePasswordResets");
+      transaction.createQuerySpan(name);
 
     try {
-      final var deleted =
-        context.deleteFrom(USER_PASSWORD_RESETS)
-          .where(USER_PASSWORD_RESETS.EXPIRES.lt(this.currentTime()))
-          .execute();
-
-      LOG.debug("deleted {} expired password resets", valueOf(deleted));
+      return context.select(field)
+        .fetchSingle()
+        .value1()
+        .booleanValue();
     } catch (final DataAccessException e) {
       querySpan.recordException(e);
       throw handleDatabaseException(transaction, e, Map.of());
@@ -149,7 +251,7 @@ public final class IdDatabaseMaintenanceQueries
     }
   }
 
-  private void runExpireEmailVerifications()
+  private long runUpdateInitialAdminPermissions()
     throws IdDatabaseException
   {
     final var transaction =
@@ -158,15 +260,25 @@ public final class IdDatabaseMaintenanceQueries
       transaction.createContext();
     final var querySpan =
       transaction.createQuerySpan(
-        "IdDatabaseMaintenanceQueries.runExpireEmailVerifications");
+        "IdDatabaseMaintenanceQueries.runUpdateInitialAdminPermissions");
 
     try {
-      final var deleted =
-        context.deleteFrom(EMAIL_VERIFICATIONS)
-          .where(EMAIL_VERIFICATIONS.EXPIRES.lt(this.currentTime()))
+      final var updated =
+        context.update(ADMINS)
+          .set(
+            ADMINS.PERMISSIONS,
+            permissionsSerialize(EnumSet.allOf(IdAdminPermission.class)))
+          .where(ADMINS.INITIAL.eq(Boolean.TRUE))
           .execute();
 
-      LOG.debug("deleted {} expired email verifications", valueOf(deleted));
+      Invariants.checkInvariantI(
+        updated,
+        updated <= 1,
+        x -> "At most one administrator must have been updated."
+      );
+
+      LOG.debug("updated permissions for {} initial admins", valueOf(updated));
+      return updated;
     } catch (final DataAccessException e) {
       querySpan.recordException(e);
       throw handleDatabaseException(transaction, e, Map.of());
@@ -175,7 +287,17 @@ public final class IdDatabaseMaintenanceQueries
     }
   }
 
-  private void runExpireBans()
+  /**
+   * Delete at most {@code batchSize} rows of {@code table} that match
+   * {@code condition}. Rows are selected by their physical location so that
+   * the deletion does not depend on the table having a primary key.
+   */
+
+  private long runExpire(
+    final IdDatabaseMaintenanceTask task,
+    final Table<?> table,
+    final Condition condition,
+    final int batchSize)
     throws IdDatabaseException
   {
     final var transaction =
@@ -183,15 +305,22 @@ public final class IdDatabaseMaintenanceQueries
     final var context =
       transaction.createContext();
     final var querySpan =
-      transaction.createQuerySpan("IdDatabaseMaintenanceQueries.runExpireBans");
+      transaction.createQuerySpan(
+        "IdDatabaseMaintenanceQueries.%s".formatted(task.taskName()));
 
     try {
       final var deleted =
-        context.deleteFrom(BANS)
-          .where(BANS.EXPIRES.lt(this.currentTime()))
+        context.deleteFrom(table)
+          .where(CTID.in(
+            DSL.select(CTID)
+              .from(table)
+              .where(condition)
+              .limit(Integer.valueOf(batchSize))
+          ))
           .execute();
 
-      LOG.debug("deleted {} expired bans", valueOf(deleted));
+      LOG.debug("{}: deleted {} rows", task.taskName(), valueOf(deleted));
+      return deleted;
     } catch (final DataAccessException e) {
       querySpan.recordException(e);
       throw handleDatabaseException(transaction, e, Map.of());
@@ -0,0 +1,242 @@
+/*
+ * Copyright © 2024 Mark Raynsford <code@io7m.com> https://www.io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+
+package com.io7m.idstore.database.postgres.internal;
+
+import com.io7m.idstore.database.api.IdDatabasePoolConfiguration;
+import com.zaxxer.hikari.HikariDataSource;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.time.Duration;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * <p>An adaptive pool sizer. The total time that connections are held during
+ * each sampling interval, divided by the length of the interval, gives the
+ * average number of connections in use (Little's law). The pool is sized to
+ * that average plus some headroom, plus the number of threads currently
+ * waiting for a connection. The pool grows immediately but shrinks by at most
+ * one connection per interval, so that short lulls do not discard
+ * connections that will be needed again shortly afterwards.</p>
+ *
+ * <p>Holds are sampled while they are still open: each interval is charged
+ * only with the part of each hold that fell within it. A connection that is
+ * held for a long time, such as the connection pinned by the maintenance
+ * leader, therefore counts as one connection in use for as long as it is
+ * held, rather than being charged in full to the interval in which it is
+ * finally closed.</p>
+ */
+
+final class IdDatabasePoolSizer implements AutoCloseable
+{
+  private static final Logger LOG =
+    LoggerFactory.getLogger(IdDatabasePoolSizer.class);
+
+  /**
+   * The interval between pool size adjustments.
+   */
+
+  static final Duration INTERVAL =
+    Duration.ofSeconds(5L);
+
+  private static final double HEADROOM = 1.25;
+
+  private final HikariDataSource dataSource;
+  private final IdDatabasePoolConfiguration configuration;
+  private final LongAdder heldNanos;
+  private final Set<Hold> holds;
+  private final ScheduledExecutorService executor;
+  private long sampledAt;
+
+  private IdDatabasePoolSizer(
+    final HikariDataSource inDataSource,
+    final IdDatabasePoolConfiguration inConfiguration,
+    final ScheduledExecutorService inExecutor)
+  {
+    this.dataSource =
+      Objects.requireNonNull(inDataSource, "dataSource");
+    this.configuration =
+      Objects.requireNonNull(inConfiguration, "configuration");
+    this.executor =
+      Objects.requireNonNull(inExecutor, "executor");
+    this.heldNanos =
+      new LongAdder();
+    this.holds =
+      ConcurrentHashMap.newKeySet();
+    this.sampledAt =
+      System.nanoTime();
+  }
+
+  /**
+   * Start an adaptive pool sizer.
+   *
+   * @param dataSource    The data source
+   * @param configuration The pool configuration
+   *
+   * @return A running sizer
+   */
+
+  static IdDatabasePoolSizer start(
+    final HikariDataSource dataSource,
+    final IdDatabasePoolConfiguration configuration)
+  {
+    final var executor =
+      Executors.newSingleThreadScheduledExecutor(
+        Thread.ofVirtual()
+          .name("com.io7m.idstore.db_pool_sizer-", 0L)
+          .factory()
+      );
+
+    final var sizer =
+      new IdDatabasePoolSizer(dataSource, configuration, executor);
+
+    final var period = INTERVAL.toMillis();
+    executor.scheduleAtFixedRate(
+      sizer::resizeSafely,
+      period,
+      period,
+      TimeUnit.MILLISECONDS
+    );
+    return sizer;
+  }
+
+  /**
+   * Record that a connection has been taken from the pool.
+   *
+   * @return The hold, to be ended when the connection is returned
+   */
+
+  Hold holdStarted()
+  {
+    final var hold = new Hold(this, System.nanoTime());
+    this.holds.add(hold);
+    return hold;
+  }
+
+  private void holdEnded(
+    final Hold hold)
+  {
+    if (this.holds.remove(hold)) {
+      this.heldNanos.add(hold.accountUpTo(System.nanoTime()));
+    }
+  }
+
+  private void resizeSafely()
+  {
+    try {
+      this.resize();
+    } catch (final Throwable e) {
+      LOG.error("Failed to resize the database pool: ", e);
+    }
+  }
+
+  private void resize()
+  {
+    final var pool = this.dataSource.getHikariPoolMXBean();
+    if (pool == null) {
+      return;
+    }
+
+    final var timeNow = System.nanoTime();
+    final var elapsed = Math.max(1L, timeNow - this.sampledAt);
+    this.sampledAt = timeNow;
+
+    for (final var hold : this.holds) {
+      this.heldNanos.add(hold.accountUpTo(timeNow));
+    }
+
+    final var inUse =
+      (double) this.heldNanos.sumThenReset() / (double) elapsed;
+    final var waiting =
+      pool.getThreadsAwaitingConnection();
+    final var wanted =
+      (int) Math.ceil(inUse * HEADROOM) + waiting;
+
+    final var current =
+      this.dataSource.getMaximumPoolSize();
+    final var target =
+      Math.clamp(
+        wanted >= current ? wanted : current - 1,
+        this.configuration.minimumSize(),
+        this.configuration.maximumSize()
+      );
+
+    if (target != current) {
+      LOG.debug(
+        "Resizing database pool {} -> {} (in use {}, waiting {})",
+        Integer.valueOf(current),
+        Integer.valueOf(target),
+        Double.valueOf(inUse),
+        Integer.valueOf(waiting)
+      );
+      this.dataSource.getHikariConfigMXBean().setMaximumPoolSize(target);
+    }
+  }
+
+  @Override
+  public void close()
+  {
+    this.executor.shutdownNow();
+  }
+
+  /**
+   * A connection currently held from the pool. The time up to which the
+   * hold has been charged to the sizer only ever advances, so concurrent
+   * sampling and ending never charge the same time twice.
+   */
+
+  static final class Hold
+  {
+    private final IdDatabasePoolSizer sizer;
+    private final AtomicLong accountedTo;
+
+    private Hold(
+      final IdDatabasePoolSizer inSizer,
+      final long timeStart)
+    {
+      this.sizer =
+        Objects.requireNonNull(inSizer, "sizer");
+      this.accountedTo =
+        new AtomicLong(timeStart);
+    }
+
+    private long accountUpTo(
+      final long time)
+    {
+      final var previous =
+        this.accountedTo.getAndAccumulate(time, Math::max);
+      return Math.max(0L, time - previous);
+    }
+
+    /**
+     * Record that the connection has been returned to the pool.
+     */
+
+    void end()
+    {
+      this.sizer.holdEnded(this);
+    }
+  }
+}
@@ -0,0 +1,140 @@
+/*
+ * Copyright © 2024 Mark Raynsford <code@io7m.com> https://www.io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+
+package com.io7m.idstore.database.postgres.internal;
+
+import org.jooq.ExecuteContext;
+import org.jooq.ExecuteListener;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.time.Duration;
+import java.util.Objects;
+
+import static java.lang.Long.valueOf;
+
+/**
+ * A listener that attributes the statements executed in a transaction to
+ * the current query span, counting the rows that they return or affect,
+ * and logging any statement that takes longer than the slow query
+ * threshold to execute.
+ */
+
+final class IdDatabaseQueryListener implements ExecuteListener
+{
+  private static final Logger LOG =
+    LoggerFactory.getLogger(IdDatabaseQueryListener.class);
+
+  private static final String QUERY =
+    "com.io7m.idstore.database.postgres.query";
+  private static final String TIME_START =
+    "com.io7m.idstore.database.postgres.timeStart";
+
+  private final IdDatabaseTransaction transaction;
+  private final long thresholdNanos;
+
+  IdDatabaseQueryListener(
+    final IdDatabaseTransaction inTransaction,
+    final Duration threshold)
+  {
+    this.transaction =
+      Objects.requireNonNull(inTransaction, "transaction");
+    this.thresholdNanos =
+      threshold.toNanos();
+  }
+
+  /*
+   * The query span is captured when the statement starts, as the records
+   * of a lazily fetched cursor may be read after the query that opened it
+   * has ended (and while another query is current). Such records are not
+   * counted, as the metrics of the ended query have already been recorded.
+   */
+
+  @Override
+  public void start(
+    final ExecuteContext ctx)
+  {
+    final var query = this.transaction.currentQuery();
+    if (query != null) {
+      ctx.data(QUERY, query);
+    }
+  }
+
+  @Override
+  public void executeStart(
+    final ExecuteContext ctx)
+  {
+    ctx.data(TIME_START, valueOf(System.nanoTime()));
+  }
+
+  /*
+   * Statements that produce results are counted by the records they
+   * return (including the results of RETURNING clauses); other statements
+   * are counted by the update counts that they report.
+   *
+   * Only the execution of the statement is timed, not the reading of its
+   * results, so that a cursor held open by an export is not reported as
+   * a slow query. Only the statement text is logged; bind values may
+   * contain password hashes and email addresses.
+   */
+
+  @Override
+  public void executeEnd(
+    final ExecuteContext ctx)
+  {
+    final var query = queryOf(ctx);
+    if (query != null && ctx.resultSet() == null && ctx.rows() > 0) {
+      query.addRows(ctx.rows());
+    }
+
+    final var timeStart = ctx.data(TIME_START);
+    if (!(timeStart instanceof final Long start)) {
+      return;
+    }
+
+    final var nanos = System.nanoTime() - start.longValue();
+    if (nanos < this.thresholdNanos) {
+      return;
+    }
+
+    LOG.warn(
+      "Slow query {} ({} ms): {}",
+      query != null ? query.name() : "(unnamed)",
+      valueOf(Duration.ofNanos(nanos).toMillis()),
+      ctx.sql() != null ? ctx.sql() : String.join("; ", ctx.batchSQL())
+    );
+  }
+
+  @Override
+  public void recordEnd(
+    final ExecuteContext ctx)
+  {
+    final var query = queryOf(ctx);
+    if (query != null) {
+      query.addRows(1L);
+    }
+  }
+
+  private static IdDatabaseQuerySpan queryOf(
+    final ExecuteContext ctx)
+  {
+    if (ctx.data(QUERY) instanceof final IdDatabaseQuerySpan query) {
+      return query;
+    }
+    return null;
+  }
+}
@@ -0,0 +1,205 @@
+/*
+ * Copyright © 2024 Mark Raynsford <code@io7m.com> https://www.io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+
+package com.io7m.idstore.database.postgres.internal;
+
+import io.opentelemetry.api.common.AttributeKey;
+import io.opentelemetry.api.common.Attributes;
+import io.opentelemetry.api.trace.Span;
+import io.opentelemetry.api.trace.SpanContext;
+import io.opentelemetry.api.trace.StatusCode;
+
+import java.util.Objects;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * A query span. The span delegates to an underlying tracing span, and
+ * records the time taken by the query, and the number of rows returned
+ * or affected by its statements, when it ends. Metrics are recorded even
+ * when tracing is disabled.
+ */
+
+final class IdDatabaseQuerySpan implements Span
+{
+  private static final AttributeKey<String> QUERY =
+    AttributeKey.stringKey("query");
+
+  private final IdDatabaseTransaction transaction;
+  private final IdDatabaseQuerySpan parent;
+  private final String name;
+  private final Span span;
+  private final Attributes attributes;
+  private final long timeStart;
+  private long rows;
+  private boolean ended;
+
+  IdDatabaseQuerySpan(
+    final IdDatabaseTransaction inTransaction,
+    final IdDatabaseQuerySpan inParent,
+    final String inName,
+    final Span inSpan)
+  {
+    this.transaction =
+      Objects.requireNonNull(inTransaction, "transaction");
+    this.parent =
+      inParent;
+    this.name =
+      Objects.requireNonNull(inName, "name");
+    this.span =
+      Objects.requireNonNull(inSpan, "span");
+    this.attributes =
+      Attributes.of(QUERY, inName);
+    this.timeStart =
+      System.nanoTime();
+  }
+
+  /**
+   * @return The query name
+   */
+
+  String name()
+  {
+    return this.name;
+  }
+
+  /**
+   * @return The query span that was current when this span was created,
+   * or {@code null} if there was none
+   */
+
+  IdDatabaseQuerySpan parent()
+  {
+    return this.parent;
+  }
+
+  /**
+   * Add to the number of rows returned or affected by the query.
+   *
+   * @param count The number of rows
+   */
+
+  void addRows(
+    final long count)
+  {
+    this.rows += count;
+  }
+
+  private void finish()
+  {
+    if (this.ended) {
+      return;
+    }
+    this.ended = true;
+
+    final var database = this.transaction.database();
+    database.histogramQueryTime()
+      .record(System.nanoTime() - this.timeStart, this.attributes);
+    database.counterQueryRows()
+      .add(this.rows, this.attributes);
+
+    this.transaction.queryEnded(this);
+  }
+
+  @Override
+  public <T> Span setAttribute(
+    final AttributeKey<T> key,
+    final T value)
+  {
+    this.span.setAttribute(key, value);
+    return this;
+  }
+
+  @Override
+  public Span addEvent(
+    final String eventName,
+    final Attributes eventAttributes)
+  {
+    this.span.addEvent(eventName, eventAttributes);
+    return this;
+  }
+
+  @Override
+  public Span addEvent(
+    final String eventName,
+    final Attributes eventAttributes,
+    final long timestamp,
+    final TimeUnit unit)
+  {
+    this.span.addEvent(eventName, eventAttributes, timestamp, unit);
+    return this;
+  }
+
+  @Override
+  public Span setStatus(
+    final StatusCode statusCode,
+    final String description)
+  {
+    this.span.setStatus(statusCode, description);
+    return this;
+  }
+
+  @Override
+  public Span recordException(
+    final Throwable exception,
+    final Attributes additionalAttributes)
+  {
+    this.span.recordException(exception, additionalAttributes);
+    return this;
+  }
+
+  @Override
+  public Span updateName(
+    final String newName)
+  {
+    this.span.updateName(newName);
+    return this;
+  }
+
+  @Override
+  public void end()
+  {
+    this.finish();
+    this.span.end();
+  }
+
+  @Override
+  public void end(
+    final long timestamp,
+    final TimeUnit unit)
+  {
+    this.finish();
+    this.span.end(timestamp, unit);
+  }
+
+  @Override
+  public SpanContext getSpanContext()
+  {
+    return this.span.getSpanContext();
+  }
+
+  @Override
+  public boolean isRecording()
+  {
+    return this.span.isRecording();
+  }
+
+  @Override
+  public String toString()
+  {
+    return "[IdDatabaseQuerySpan %s]".formatted(this.name);
+  }
+}
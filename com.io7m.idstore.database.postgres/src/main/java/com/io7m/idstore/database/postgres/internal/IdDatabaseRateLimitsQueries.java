@@ -0,0 +1,138 @@
+/*
+ * Copyright © 2024 Mark Raynsford <code@io7m.com> https://www.io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+
+package com.io7m.idstore.database.postgres.internal;
+
+import com.io7m.idstore.database.api.IdDatabaseException;
+import com.io7m.idstore.database.api.IdDatabaseRateLimitsQueriesType;
+import org.jooq.exception.DataAccessException;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Map;
+import java.util.Objects;
+
+import static com.io7m.idstore.database.postgres.internal.IdDatabaseExceptions.handleDatabaseException;
+import static com.io7m.idstore.database.postgres.internal.Tables.RATE_LIMITS;
+import static java.time.temporal.ChronoUnit.MICROS;
+import static java.util.concurrent.TimeUnit.MICROSECONDS;
+import static org.jooq.impl.DSL.greatest;
+import static org.jooq.impl.DSL.val;
+
+/**
+ * The shared rate limit queries.
+ */
+
+final class IdDatabaseRateLimitsQueries
+  extends IdBaseQueries
+  implements IdDatabaseRateLimitsQueriesType
+{
+  IdDatabaseRateLimitsQueries(
+    final IdDatabaseTransaction inTransaction)
+  {
+    super(inTransaction);
+  }
+
+  static long timeMicros(
+    final Instant time)
+  {
+    return MICROS.between(Instant.EPOCH, time);
+  }
+
+  @Override
+  public Duration rateLimitRecord(
+    final String limiter,
+    final String key,
+    final Duration interval,
+    final int burst,
+    final long count)
+    throws IdDatabaseException
+  {
+    Objects.requireNonNull(limiter, "limiter");
+    Objects.requireNonNull(key, "key");
+    Objects.requireNonNull(interval, "interval");
+
+    if (burst < 1) {
+      throw new IllegalArgumentException(
+        "Burst size %d must be positive".formatted(Integer.valueOf(burst))
+      );
+    }
+    if (count < 1L) {
+      throw new IllegalArgumentException(
+        "Operation count %d must be positive".formatted(Long.valueOf(count))
+      );
+    }
+
+    final var intervalMicros =
+      MICROSECONDS.convert(interval);
+
+    if (intervalMicros <= 0L) {
+      return Duration.ZERO;
+    }
+
+    final var transaction =
+      this.transaction();
+    final var context =
+      transaction.createContext();
+    final var querySpan =
+      transaction.createQuerySpan(
+        "IdDatabaseRateLimitsQueries.rateLimitRecord");
+
+    /*
+     * The generic cell rate algorithm: The row holds the theoretical arrival
+     * time of the next operation, and each operation pushes the arrival time
+     * forward by one interval. The operations have already happened, so the
+     * arrival time is pushed forward unconditionally. Another operation is
+     * permitted once the arrival time is no further in the future than the
+     * burst tolerance.
+     */
+
+    final var now =
+      timeMicros(transaction.clock().instant());
+    final var tolerance =
+      Math.multiplyExact(intervalMicros, (long) burst - 1L);
+    final var advance =
+      Math.multiplyExact(intervalMicros, count);
+
+    try {
+      final var arrival =
+        context.insertInto(RATE_LIMITS)
+          .set(RATE_LIMITS.LIMITER, limiter)
+          .set(RATE_LIMITS.LIMIT_KEY, key)
+          .set(RATE_LIMITS.ARRIVAL, Long.valueOf(now + advance))
+          .onConflict(RATE_LIMITS.LIMITER, RATE_LIMITS.LIMIT_KEY)
+          .doUpdate()
+          .set(
+            RATE_LIMITS.ARRIVAL,
+            greatest(RATE_LIMITS.ARRIVAL, val(Long.valueOf(now)))
+              .plus(Long.valueOf(advance))
+          )
+          .returning(RATE_LIMITS.ARRIVAL)
+          .fetchSingle()
+          .get(RATE_LIMITS.ARRIVAL)
+          .longValue();
+
+      final var wait = arrival - (now + tolerance);
+      return wait > 0L ? Duration.of(wait, MICROS) : Duration.ZERO;
+    } catch (final DataAccessException e) {
+      querySpan.recordException(e);
+      throw handleDatabaseException(transaction, e, Map.of());
+    } finally {
+      querySpan.end();
+    }
+  }
+}
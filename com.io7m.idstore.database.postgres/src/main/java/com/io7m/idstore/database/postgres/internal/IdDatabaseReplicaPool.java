@@ -0,0 +1,198 @@
+/*
+ * Copyright © 2024 Mark Raynsford <code@io7m.com> https://www.io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+
+package com.io7m.idstore.database.postgres.internal;
+
+import com.io7m.idstore.database.api.IdDatabaseReplica;
+import com.zaxxer.hikari.HikariDataSource;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.time.Duration;
+import java.util.Objects;
+import java.util.Optional;
+
+/**
+ * A connection pool for a single read replica. The replication lag of the
+ * replica is sampled at most once per {@link #LAG_SAMPLE_INTERVAL}, and
+ * connections are only handed out while the most recent sample is within
+ * the configured bound.
+ */
+
+public final class IdDatabaseReplicaPool
+{
+  private static final Logger LOG =
+    LoggerFactory.getLogger(IdDatabaseReplicaPool.class);
+
+  /**
+   * The minimum interval between replication lag samples.
+   */
+
+  public static final Duration LAG_SAMPLE_INTERVAL =
+    Duration.ofSeconds(1L);
+
+  /*
+   * A replica that is not in recovery has been promoted, and a replica
+   * that has replayed everything it has received is not behind the primary
+   * regardless of how long ago the last transaction was replayed.
+   */
+
+  private static final String LAG_QUERY = """
+    SELECT CASE
+      WHEN NOT pg_is_in_recovery() THEN 0.0
+      WHEN pg_last_wal_receive_lsn() = pg_last_wal_replay_lsn() THEN 0.0
+      ELSE extract(epoch FROM (now() - pg_last_xact_replay_timestamp()))
+    END
+    """;
+
+  private final IdDatabaseReplica replica;
+  private final HikariDataSource dataSource;
+  private final double maximumLagSeconds;
+  private final long sampleIntervalNanos;
+  private volatile long sampledAt;
+  private volatile boolean usable;
+
+  /**
+   * A connection pool for a single read replica.
+   *
+   * @param inReplica    The replica
+   * @param inDataSource The pooled data source for the replica
+   * @param maximumLag   The maximum permitted replication lag
+   */
+
+  public IdDatabaseReplicaPool(
+    final IdDatabaseReplica inReplica,
+    final HikariDataSource inDataSource,
+    final Duration maximumLag)
+  {
+    this.replica =
+      Objects.requireNonNull(inReplica, "replica");
+    this.dataSource =
+      Objects.requireNonNull(inDataSource, "dataSource");
+    this.maximumLagSeconds =
+      (double) maximumLag.toMillis() / 1000.0;
+    this.sampleIntervalNanos =
+      LAG_SAMPLE_INTERVAL.toNanos();
+    this.sampledAt =
+      System.nanoTime() - this.sampleIntervalNanos;
+    this.usable =
+      false;
+  }
+
+  /**
+   * @return The replica
+   */
+
+  public IdDatabaseReplica replica()
+  {
+    return this.replica;
+  }
+
+  /**
+   * Try to obtain a connection to the replica. No connection is returned if
+   * the replica could not be reached, or if it is lagging too far behind the
+   * primary database.
+   *
+   * @return A connection, with auto-commit disabled
+   */
+
+  Optional<Connection> tryConnection()
+  {
+    final var timeNow = System.nanoTime();
+    final var sampleDue =
+      timeNow - this.sampledAt >= this.sampleIntervalNanos;
+
+    if (!sampleDue && !this.usable) {
+      return Optional.empty();
+    }
+
+    Connection connection = null;
+    try {
+      connection = this.dataSource.getConnection();
+      connection.setAutoCommit(false);
+
+      if (sampleDue) {
+        this.usable = this.lagIsAcceptable(connection);
+        this.sampledAt = timeNow;
+      }
+
+      if (this.usable) {
+        return Optional.of(connection);
+      }
+      connection.close();
+      return Optional.empty();
+    } catch (final SQLException e) {
+      LOG.warn(
+        "Read replica {}:{} is unavailable: {}",
+        this.replica.address(),
+        Integer.valueOf(this.replica.port()),
+        e.getMessage()
+      );
+      this.usable = false;
+      this.sampledAt = timeNow;
+      closeQuietly(connection);
+      return Optional.empty();
+    }
+  }
+
+  private boolean lagIsAcceptable(
+    final Connection connection)
+    throws SQLException
+  {
+    try (var st = connection.prepareStatement(LAG_QUERY)) {
+      try (var rs = st.executeQuery()) {
+        rs.next();
+        final var lag = rs.getDouble(1);
+        final var known = !rs.wasNull();
+        connection.rollback();
+
+        if (known && lag <= this.maximumLagSeconds) {
+          return true;
+        }
+
+        LOG.warn(
+          "Read replica {}:{} is lagging behind the primary (lag {}s)",
+          this.replica.address(),
+          Integer.valueOf(this.replica.port()),
+          known ? Double.toString(lag) : "unknown"
+        );
+        return false;
+      }
+    }
+  }
+
+  private static void closeQuietly(
+    final Connection connection)
+  {
+    if (connection != null) {
+      try {
+        connection.close();
+      } catch (final SQLException e) {
+        LOG.debug("Failed to close replica connection: ", e);
+      }
+    }
+  }
+
+  @Override
+  public String toString()
+  {
+    return "[IdDatabaseReplicaPool %s:%d]"
+      .formatted(this.replica.address(), Integer.valueOf(this.replica.port()));
+  }
+}
@@ -0,0 +1,131 @@
+/*
+ * Copyright © 2024 Mark Raynsford <code@io7m.com> https://www.io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+
+package com.io7m.idstore.database.postgres.internal;
+
+import com.io7m.idstore.database.api.IdDatabaseRole;
+import com.zaxxer.hikari.HikariConfig;
+import com.zaxxer.hikari.HikariDataSource;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.EnumMap;
+import java.util.Objects;
+import java.util.function.Function;
+
+import static com.io7m.idstore.database.api.IdDatabaseRole.IDSTORE;
+
+/**
+ * One connection pool per database role. Every connection in a pool is
+ * in the pool's role for its entire lifetime, so transactions never need to
+ * switch roles, and a connection can never be returned to a pool in the
+ * wrong role. The pool for the main {@link IdDatabaseRole#IDSTORE} role is
+ * created eagerly; the pools for the other roles are created on first use.
+ */
+
+public final class IdDatabaseRolePools implements AutoCloseable
+{
+  private final HikariDataSource primary;
+  private final Function<IdDatabaseRole, HikariConfig> configurations;
+  private final EnumMap<IdDatabaseRole, HikariDataSource> pools;
+  private boolean closed;
+
+  /**
+   * One connection pool per database role.
+   *
+   * @param inPrimary        The pool for the {@link IdDatabaseRole#IDSTORE}
+   *                         role
+   * @param inConfigurations A function that yields pool configurations for
+   *                         the other roles
+   */
+
+  public IdDatabaseRolePools(
+    final HikariDataSource inPrimary,
+    final Function<IdDatabaseRole, HikariConfig> inConfigurations)
+  {
+    this.primary =
+      Objects.requireNonNull(inPrimary, "primary");
+    this.configurations =
+      Objects.requireNonNull(inConfigurations, "configurations");
+    this.pools =
+      new EnumMap<>(IdDatabaseRole.class);
+  }
+
+  /**
+   * @return The pool for the {@link IdDatabaseRole#IDSTORE} role
+   */
+
+  public HikariDataSource primary()
+  {
+    return this.primary;
+  }
+
+  /**
+   * Obtain a connection in the given role, creating the role's pool if
+   * necessary.
+   *
+   * @param role The role
+   *
+   * @return A connection
+   *
+   * @throws SQLException On errors
+   */
+
+  Connection connection(
+    final IdDatabaseRole role)
+    throws SQLException
+  {
+    if (role == IDSTORE) {
+      return this.primary.getConnection();
+    }
+    return this.pool(role).getConnection();
+  }
+
+  private synchronized HikariDataSource pool(
+    final IdDatabaseRole role)
+    throws SQLException
+  {
+    if (this.closed) {
+      throw new SQLException("The database has been closed.");
+    }
+
+    final var existing = this.pools.get(role);
+    if (existing != null) {
+      return existing;
+    }
+
+    final var pool =
+      new HikariDataSource(this.configurations.apply(role));
+    this.pools.put(role, pool);
+    return pool;
+  }
+
+  /**
+   * Close the pools for all roles other than
+   * {@link IdDatabaseRole#IDSTORE}, which is owned by the caller.
+   */
+
+  @Override
+  public synchronized void close()
+  {
+    this.closed = true;
+    for (final var pool : this.pools.values()) {
+      pool.close();
+    }
+    this.pools.clear();
+  }
+}
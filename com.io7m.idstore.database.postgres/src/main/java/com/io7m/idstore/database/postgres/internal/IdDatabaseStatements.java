@@ -0,0 +1,278 @@
+/*
+ * Copyright © 2024 Mark Raynsford <code@io7m.com> https://www.io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+
+package com.io7m.idstore.database.postgres.internal;
+
+import com.io7m.idstore.database.postgres.internal.tables.records.AdminsRecord;
+import com.io7m.idstore.database.postgres.internal.tables.records.BansRecord;
+import com.io7m.idstore.database.postgres.internal.tables.records.EmailsRecord;
+import com.io7m.idstore.database.postgres.internal.tables.records.UsersRecord;
+import org.jooq.DSLContext;
+import org.jooq.Field;
+import org.jooq.Param;
+import org.jooq.Query;
+import org.jooq.ResultQuery;
+import org.jooq.conf.RenderNameCase;
+import org.jooq.conf.Settings;
+import org.jooq.impl.DSL;
+import org.jooq.postgres.extensions.types.Hstore;
+
+import java.time.OffsetDateTime;
+import java.util.Map;
+import java.util.UUID;
+
+import static com.io7m.idstore.database.postgres.internal.IdDatabaseAuditQueries.AU_DATA;
+import static com.io7m.idstore.database.postgres.internal.Tables.ADMINS;
+import static com.io7m.idstore.database.postgres.internal.Tables.AUDIT;
+import static com.io7m.idstore.database.postgres.internal.Tables.BANS;
+import static com.io7m.idstore.database.postgres.internal.Tables.EMAILS;
+import static com.io7m.idstore.database.postgres.internal.Tables.USERS;
+import static org.jooq.SQLDialect.POSTGRES;
+
+/**
+ * Frequently executed statements. The SQL for each statement is rendered
+ * once from the jOOQ query model when this class is initialized, rather
+ * than on every execution, and each execution only supplies bind values.
+ * Bind values are passed as typed parameters so that they are bound
+ * exactly as they would be by the equivalent jOOQ query.
+ */
+
+final class IdDatabaseStatements
+{
+  private static final DSLContext RENDERER =
+    DSL.using(
+      POSTGRES,
+      new Settings().withRenderNameCase(RenderNameCase.LOWER)
+    );
+
+  private static final String USER_GET =
+    render(
+      DSL.selectFrom(USERS)
+        .where(USERS.ID.eq(param(USERS.ID)))
+    );
+
+  private static final String USER_GET_FOR_NAME =
+    render(
+      DSL.selectFrom(USERS)
+        .where(USERS.ID_NAME.eq(param(USERS.ID_NAME)))
+    );
+
+  private static final String USER_EMAILS =
+    render(
+      DSL.selectFrom(EMAILS)
+        .where(EMAILS.USER_ID.eq(param(EMAILS.USER_ID)))
+    );
+
+  private static final String ADMIN_GET =
+    render(
+      DSL.selectFrom(ADMINS)
+        .where(ADMINS.ID.eq(param(ADMINS.ID)))
+    );
+
+  private static final String ADMIN_GET_FOR_NAME =
+    render(
+      DSL.selectFrom(ADMINS)
+        .where(ADMINS.ID_NAME.eq(param(ADMINS.ID_NAME)))
+    );
+
+  private static final String ADMIN_EMAILS =
+    render(
+      DSL.selectFrom(EMAILS)
+        .where(EMAILS.ADMIN_ID.eq(param(EMAILS.ADMIN_ID)))
+    );
+
+  private static final String BAN_GET =
+    render(
+      DSL.selectFrom(BANS)
+        .where(BANS.USER_ID.eq(param(BANS.USER_ID)))
+    );
+
+  private static final String AUDIT_PUT =
+    render(
+      DSL.insertInto(AUDIT)
+        .set(AUDIT.TIME, param(AUDIT.TIME))
+        .set(AUDIT.TYPE, param(AUDIT.TYPE))
+        .set(AUDIT.USER_ID, param(AUDIT.USER_ID))
+        .set(AU_DATA, param(AU_DATA))
+    );
+
+  private IdDatabaseStatements()
+  {
+
+  }
+
+  private static <T> Param<T> param(
+    final Field<T> field)
+  {
+    return DSL.param(field.getName(), field.getDataType());
+  }
+
+  private static String render(
+    final Query query)
+  {
+    return RENDERER.render(query);
+  }
+
+  /**
+   * Select the user with the given ID.
+   *
+   * @param context The context
+   * @param id      The user ID
+   *
+   * @return The query
+   */
+
+  static ResultQuery<UsersRecord> userGet(
+    final DSLContext context,
+    final UUID id)
+  {
+    return context.resultQuery(USER_GET, DSL.val(id, USERS.ID))
+      .coerce(USERS);
+  }
+
+  /**
+   * Select the user with the given name.
+   *
+   * @param context The context
+   * @param name    The user name
+   *
+   * @return The query
+   */
+
+  static ResultQuery<UsersRecord> userGetForName(
+    final DSLContext context,
+    final String name)
+  {
+    return context.resultQuery(USER_GET_FOR_NAME, DSL.val(name, USERS.ID_NAME))
+      .coerce(USERS);
+  }
+
+  /**
+   * Select the emails of the user with the given ID.
+   *
+   * @param context The context
+   * @param id      The user ID
+   *
+   * @return The query
+   */
+
+  static ResultQuery<EmailsRecord> userEmails(
+    final DSLContext context,
+    final UUID id)
+  {
+    return context.resultQuery(USER_EMAILS, DSL.val(id, EMAILS.USER_ID))
+      .coerce(EMAILS);
+  }
+
+  /**
+   * Select the admin with the given ID.
+   *
+   * @param context The context
+   * @param id      The admin ID
+   *
+   * @return The query
+   */
+
+  static ResultQuery<AdminsRecord> adminGet(
+    final DSLContext context,
+    final UUID id)
+  {
+    return context.resultQuery(ADMIN_GET, DSL.val(id, ADMINS.ID))
+      .coerce(ADMINS);
+  }
+
+  /**
+   * Select the admin with the given name.
+   *
+   * @param context The context
+   * @param name    The admin name
+   *
+   * @return The query
+   */
+
+  static ResultQuery<AdminsRecord> adminGetForName(
+    final DSLContext context,
+    final String name)
+  {
+    return context.resultQuery(
+        ADMIN_GET_FOR_NAME,
+        DSL.val(name, ADMINS.ID_NAME))
+      .coerce(ADMINS);
+  }
+
+  /**
+   * Select the emails of the admin with the given ID.
+   *
+   * @param context The context
+   * @param id      The admin ID
+   *
+   * @return The query
+   */
+
+  static ResultQuery<EmailsRecord> adminEmails(
+    final DSLContext context,
+    final UUID id)
+  {
+    return context.resultQuery(ADMIN_EMAILS, DSL.val(id, EMAILS.ADMIN_ID))
+      .coerce(EMAILS);
+  }
+
+  /**
+   * Select the ban of the user or admin with the given ID.
+   *
+   * @param context The context
+   * @param id      The user or admin ID
+   *
+   * @return The query
+   */
+
+  static ResultQuery<BansRecord> banGet(
+    final DSLContext context,
+    final UUID id)
+  {
+    return context.resultQuery(BAN_GET, DSL.val(id, BANS.USER_ID))
+      .coerce(BANS);
+  }
+
+  /**
+   * Insert an audit event.
+   *
+   * @param context The context
+   * @param userId  The ID of the user or admin that caused the event
+   * @param time    The event time
+   * @param type    The event type
+   * @param data    The event data
+   *
+   * @return The query
+   */
+
+  static Query auditPut(
+    final DSLContext context,
+    final UUID userId,
+    final OffsetDateTime time,
+    final String type,
+    final Map<String, String> data)
+  {
+    return context.query(
+      AUDIT_PUT,
+      DSL.val(time, AUDIT.TIME),
+      DSL.val(type, AUDIT.TYPE),
+      DSL.val(userId, AUDIT.USER_ID),
+      DSL.val(Hstore.hstore(data), AU_DATA)
+    );
+  }
+}
@@ -18,22 +18,30 @@ package com.io7m.idstore.database.postgres.internal;
 
 import com.io7m.idstore.database.api.IdDatabaseAdminsQueriesType;
 import com.io7m.idstore.database.api.IdDatabaseAuditQueriesType;
+import com.io7m.idstore.database.api.IdDatabaseConfiguration;
 import com.io7m.idstore.database.api.IdDatabaseEmailsQueriesType;
 import com.io7m.idstore.database.api.IdDatabaseException;
 import com.io7m.idstore.database.api.IdDatabaseMaintenanceQueriesType;
 import com.io7m.idstore.database.api.IdDatabaseQueriesType;
-import com.io7m.idstore.database.api.IdDatabaseRole;
+import com.io7m.idstore.database.api.IdDatabaseRateLimitsQueriesType;
 import com.io7m.idstore.database.api.IdDatabaseTransactionType;
 import com.io7m.idstore.database.api.IdDatabaseUsersQueriesType;
+import com.io7m.idstore.model.IdAdmin;
+import com.io7m.idstore.model.IdUser;
 import io.opentelemetry.api.trace.Span;
 import io.opentelemetry.api.trace.Tracer;
 import io.opentelemetry.context.Context;
 import org.jooq.DSLContext;
 import org.jooq.exception.DataAccessException;
 import org.jooq.impl.DSL;
+import org.jooq.impl.DefaultConfiguration;
+import org.jooq.impl.DefaultExecuteListenerProvider;
 
+import java.sql.Connection;
 import java.sql.SQLException;
 import java.time.Clock;
+import java.time.Duration;
+import java.time.OffsetDateTime;
 import java.util.Map;
 import java.util.Objects;
 import java.util.Optional;
@@ -59,17 +67,23 @@ final class IdDatabaseTransaction
 {
   private final IdDatabaseConnection connection;
   private final Span transactionSpan;
+  private Optional<OffsetDateTime> deadline;
   private UUID currentUserId;
   private UUID currentAdminId;
+  private DSLContext context;
+  private IdDatabaseQuerySpan currentQuery;
 
   IdDatabaseTransaction(
     final IdDatabaseConnection inConnection,
-    final Span inTransactionScope)
+    final Span inTransactionScope,
+    final Optional<OffsetDateTime> inDeadline)
   {
     this.connection =
       Objects.requireNonNull(inConnection, "connection");
     this.transactionSpan =
       Objects.requireNonNull(inTransactionScope, "inMetricsScope");
+    this.deadline =
+      Objects.requireNonNull(inDeadline, "deadline");
   }
 
   @Override
@@ -79,7 +93,10 @@ final class IdDatabaseTransaction
   }
 
   /**
-   * Create a new query span for measuring query times.
+   * Create a new query span for measuring query times. The span becomes
+   * the current query of the transaction until it ends, and the time taken
+   * and the rows returned or affected are recorded as metrics under the
+   * given name.
    *
    * @param name The query name
    *
@@ -89,36 +106,34 @@ final class IdDatabaseTransaction
   public Span createQuerySpan(
     final String name)
   {
-    return this.tracer()
-      .spanBuilder(name)
-      .setParent(Context.current().with(this.transactionSpan))
-      .setAttribute(DB_SYSTEM, POSTGRESQL)
-      .setSpanKind(INTERNAL)
-      .startSpan();
+    final var span =
+      this.tracer()
+        .spanBuilder(name)
+        .setParent(Context.current().with(this.transactionSpan))
+        .setAttribute(DB_SYSTEM, POSTGRESQL)
+        .setSpanKind(INTERNAL)
+        .startSpan();
+
+    this.currentQuery =
+      new IdDatabaseQuerySpan(this, this.currentQuery, name, span);
+    return this.currentQuery;
   }
 
-  void setRole(
-    final IdDatabaseRole role)
-    throws SQLException
+  /**
+   * @return The query span that statements are currently attributed to,
+   * or {@code null} if no query is running
+   */
+
+  IdDatabaseQuerySpan currentQuery()
   {
-    switch (role) {
-      case IDSTORE -> {
-        // Transactions start in this role already.
-      }
-      case IDSTORE_READ_ONLY -> {
-        try (var st =
-               this.connection.connection()
-                 .prepareStatement("set role idstore_read_only")) {
-          st.execute();
-        }
-      }
-      case NONE -> {
-        try (var st =
-               this.connection.connection()
-                 .prepareStatement("set role idstore_none")) {
-          st.execute();
-        }
-      }
+    return this.currentQuery;
+  }
+
+  void queryEnded(
+    final IdDatabaseQuerySpan query)
+  {
+    if (this.currentQuery == query) {
+      this.currentQuery = query.parent();
     }
   }
 
@@ -142,6 +157,9 @@ final class IdDatabaseTransaction
     if (Objects.equals(qClass, IdDatabaseMaintenanceQueriesType.class)) {
       return qClass.cast(new IdDatabaseMaintenanceQueries(this));
     }
+    if (Objects.equals(qClass, IdDatabaseRateLimitsQueriesType.class)) {
+      return qClass.cast(new IdDatabaseRateLimitsQueries(this));
+    }
 
     throw new IdDatabaseException(
       "Unsupported query type: %s".formatted(qClass),
@@ -151,13 +169,40 @@ final class IdDatabaseTransaction
     );
   }
 
+  /**
+   * Obtain the jOOQ context for the transaction. The context is created on
+   * first use and then reused for the remainder of the transaction.
+   *
+   * @return The jOOQ context
+   */
+
   public DSLContext createContext()
   {
-    final var sqlConnection =
-      this.connection.connection();
-    final var settings =
-      this.connection.database().settings();
-    return DSL.using(sqlConnection, POSTGRES, settings);
+    if (this.context == null) {
+      final var sqlConnection =
+        this.connection.connection();
+      final var database =
+        this.connection.database();
+      final var listener =
+        new IdDatabaseQueryListener(
+          this,
+          database.configuration().slowQueryThreshold()
+        );
+
+      this.context = DSL.using(
+        new DefaultConfiguration()
+          .set(sqlConnection)
+          .set(POSTGRES)
+          .set(database.settings())
+          .set(new DefaultExecuteListenerProvider(listener))
+      );
+    }
+    return this.context;
+  }
+
+  IdDatabase database()
+  {
+    return this.connection.database();
   }
 
   public Clock clock()
@@ -165,9 +210,83 @@ final class IdDatabaseTransaction
     return this.connection.database().clock();
   }
 
+  /**
+   * @return The underlying JDBC connection, for operations such as
+   * {@code COPY} that jOOQ does not expose
+   */
+
+  Connection sqlConnection()
+  {
+    return this.connection.connection();
+  }
+
+  IdDatabaseConfiguration configuration()
+  {
+    return this.connection.database().configuration();
+  }
+
+  /**
+   * Limit the statements in the current transaction to the time remaining
+   * until the deadline, if there is one. The setting only lasts until the
+   * end of the current transaction, so it must be applied again after each
+   * commit or rollback. A deadline that has already passed leaves a minimal
+   * timeout in place so that the next statement is cancelled at once.
+   *
+   * @throws IdDatabaseException On errors
+   */
+
+  void applyDeadline()
+    throws IdDatabaseException
+  {
+    if (this.deadline.isEmpty()) {
+      return;
+    }
+
+    final var remaining =
+      Duration.between(
+        OffsetDateTime.now(this.clock()),
+        this.deadline.get()
+      );
+    final var millis =
+      Math.max(1L, remaining.toMillis());
+
+    try {
+      this.createContext()
+        .execute(
+          "SET LOCAL statement_timeout = {0}",
+          DSL.inline(Long.valueOf(millis))
+        );
+    } catch (final DataAccessException e) {
+      throw new IdDatabaseException(
+        requireNonNullElse(e.getMessage(), e.getClass().getSimpleName()),
+        e,
+        SQL_ERROR,
+        Map.of(),
+        Optional.empty()
+      );
+    }
+  }
+
+  @Override
+  public void deadlineSet(
+    final OffsetDateTime newDeadline)
+    throws IdDatabaseException
+  {
+    this.deadline =
+      Optional.of(Objects.requireNonNull(newDeadline, "deadline"));
+    this.applyDeadline();
+  }
+
   @Override
   public void rollback()
     throws IdDatabaseException
+  {
+    this.rollbackOnly();
+    this.applyDeadline();
+  }
+
+  private void rollbackOnly()
+    throws IdDatabaseException
   {
     try {
       this.connection.connection().rollback();
@@ -203,6 +322,7 @@ final class IdDatabaseTransaction
         Optional.empty()
       );
     }
+    this.applyDeadline();
   }
 
   @Override
@@ -210,7 +330,7 @@ final class IdDatabaseTransaction
     throws IdDatabaseException
   {
     try {
-      this.rollback();
+      this.rollbackOnly();
     } catch (final Exception e) {
       this.transactionSpan.recordException(e);
       throw e;
@@ -226,7 +346,10 @@ final class IdDatabaseTransaction
   {
     Objects.requireNonNull(userId, "userId");
 
-    final var context = this.createContext();
+    final var context =
+      this.createContext();
+    final var querySpan =
+      this.createQuerySpan("IdDatabaseTransaction.userIdSet");
 
     try {
       final var userOpt =
@@ -248,6 +371,7 @@ final class IdDatabaseTransaction
       this.currentUserId = userId;
       this.currentAdminId = null;
     } catch (final DataAccessException e) {
+      querySpan.recordException(e);
       throw new IdDatabaseException(
         requireNonNullElse(e.getMessage(), e.getClass().getSimpleName()),
         e,
@@ -255,9 +379,21 @@ final class IdDatabaseTransaction
         Map.of(),
         Optional.empty()
       );
+    } finally {
+      querySpan.end();
     }
   }
 
+  @Override
+  public void userSet(
+    final IdUser user)
+  {
+    Objects.requireNonNull(user, "user");
+
+    this.currentUserId = user.id();
+    this.currentAdminId = null;
+  }
+
   @Override
   public UUID userId()
     throws IdDatabaseException
@@ -279,7 +415,10 @@ final class IdDatabaseTransaction
   {
     Objects.requireNonNull(adminId, "adminId");
 
-    final var context = this.createContext();
+    final var context =
+      this.createContext();
+    final var querySpan =
+      this.createQuerySpan("IdDatabaseTransaction.adminIdSet");
 
     try {
       final var adminOpt =
@@ -301,6 +440,7 @@ final class IdDatabaseTransaction
       this.currentAdminId = adminId;
       this.currentUserId = null;
     } catch (final DataAccessException e) {
+      querySpan.recordException(e);
       throw new IdDatabaseException(
         requireNonNullElse(e.getMessage(), e.getClass().getSimpleName()),
         e,
@@ -308,9 +448,21 @@ final class IdDatabaseTransaction
         Map.of(),
         Optional.empty()
       );
+    } finally {
+      querySpan.end();
     }
   }
 
+  @Override
+  public void adminSet(
+    final IdAdmin admin)
+  {
+    Objects.requireNonNull(admin, "admin");
+
+    this.currentAdminId = admin.id();
+    this.currentUserId = null;
+  }
+
   @Override
   public UUID adminId()
     throws IdDatabaseException
@@ -0,0 +1,327 @@
+/*
+ * Copyright © 2024 Mark Raynsford <code@io7m.com> https://www.io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+
+package com.io7m.idstore.database.postgres.internal;
+
+import com.io7m.idstore.database.api.IdDatabaseUserImportResult;
+import com.io7m.idstore.error_codes.IdErrorCode;
+import com.io7m.idstore.model.IdUserCreate;
+import com.io7m.idstore.model.IdUserImportError;
+import org.jooq.DSLContext;
+import org.jooq.impl.DSL;
+import org.postgresql.PGConnection;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.time.OffsetDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.List;
+import java.util.UUID;
+
+import static com.io7m.idstore.error_codes.IdStandardErrorCodes.EMAIL_DUPLICATE;
+import static com.io7m.idstore.error_codes.IdStandardErrorCodes.USER_DUPLICATE_ID;
+import static com.io7m.idstore.error_codes.IdStandardErrorCodes.USER_DUPLICATE_ID_NAME;
+
+/**
+ * A bulk import of users. The users are loaded into a temporary staging
+ * table with {@code COPY}, staged rows that would violate one of the
+ * uniqueness constraints on the user tables are marked with an error, and
+ * the remaining rows are merged into the user tables with a single
+ * statement. The staging table only exists for the lifetime of the import.
+ */
+
+final class IdDatabaseUserImport
+{
+  private static final String STAGING_CREATE = """
+    CREATE TEMPORARY TABLE idstore_user_import (
+      row_index        INTEGER                  NOT NULL PRIMARY KEY,
+      id               UUID                     NOT NULL,
+      id_name          TEXT                     NOT NULL,
+      real_name        TEXT                     NOT NULL,
+      email            TEXT                     NOT NULL,
+      password_algo    TEXT                     NOT NULL,
+      password_hash    TEXT                     NOT NULL,
+      password_salt    TEXT                     NOT NULL,
+      password_expires TIMESTAMP WITH TIME ZONE,
+      error_code       TEXT,
+      error_message    TEXT
+    ) ON COMMIT DROP
+    """;
+
+  private static final String STAGING_COPY = """
+    COPY idstore_user_import (
+      row_index,
+      id,
+      id_name,
+      real_name,
+      email,
+      password_algo,
+      password_hash,
+      password_salt,
+      password_expires
+    ) FROM STDIN (FORMAT csv)
+    """;
+
+  /*
+   * A row is a duplicate if the database already contains its key, or if
+   * an earlier row that has not already been rejected has the same key.
+   * The keys are compared in the same way as the corresponding unique
+   * indexes compare them.
+   */
+
+  private static final String STAGING_MARK_DUPLICATE_IDS =
+    markDuplicates(
+      "i.id",
+      "SELECT 1 FROM user_ids AS e WHERE e.id = s.id"
+    );
+
+  private static final String STAGING_MARK_DUPLICATE_ID_NAMES =
+    markDuplicates(
+      "upper(i.id_name)",
+      "SELECT 1 FROM users AS e WHERE upper(e.id_name) = upper(s.id_name)"
+    );
+
+  private static final String STAGING_MARK_DUPLICATE_EMAILS =
+    markDuplicates(
+      "lower(i.email)",
+      """
+        SELECT 1 FROM emails AS e
+          WHERE lower(e.email_address) = lower(s.email)
+        """
+    );
+
+  /*
+   * The foreign keys between the user tables are checked at the end of
+   * the statement, so the parent and child rows can be inserted by
+   * sibling data-modifying CTEs.
+   */
+
+  private static final String STAGING_MERGE = """
+    WITH accepted AS (
+      SELECT * FROM idstore_user_import WHERE error_code IS NULL
+    ),
+    inserted_ids AS (
+      INSERT INTO user_ids (id) SELECT id FROM accepted
+    ),
+    inserted_users AS (
+      INSERT INTO users (
+        id,
+        id_name,
+        real_name,
+        time_created,
+        time_updated,
+        password_algo,
+        password_hash,
+        password_salt,
+        password_expires,
+        deleting
+      )
+      SELECT
+        id,
+        id_name,
+        real_name,
+        {0},
+        {0},
+        password_algo,
+        password_hash,
+        password_salt,
+        password_expires,
+        FALSE
+      FROM accepted
+      RETURNING id
+    ),
+    inserted_emails AS (
+      INSERT INTO emails (email_address, user_id) SELECT email, id FROM accepted
+    ),
+    inserted_audit AS (
+      INSERT INTO audit (time, type, user_id, data)
+        SELECT {1}, 'USER_CREATED', {2}, hstore('UserID', id::text)
+          FROM accepted
+          ORDER BY row_index
+    )
+    SELECT count(*) FROM inserted_users
+    """;
+
+  private static final String STAGING_ERRORS = """
+    SELECT row_index, error_code, error_message
+      FROM idstore_user_import
+      WHERE error_code IS NOT NULL
+      ORDER BY row_index
+    """;
+
+  private static final String STAGING_DROP =
+    "DROP TABLE idstore_user_import";
+
+  private IdDatabaseUserImport()
+  {
+
+  }
+
+  private static String markDuplicates(
+    final String key,
+    final String existing)
+  {
+    return """
+      UPDATE idstore_user_import AS s
+        SET error_code = {0}, error_message = {1}
+        FROM (
+          SELECT
+            i.row_index,
+            row_number() OVER (PARTITION BY %s ORDER BY i.row_index) AS n
+          FROM idstore_user_import AS i
+          WHERE i.error_code IS NULL
+        ) AS d
+        WHERE s.row_index = d.row_index
+          AND (d.n > 1 OR EXISTS (%s))
+      """.formatted(key, existing);
+  }
+
+  /**
+   * Import the given users.
+   *
+   * @param context    The SQL context
+   * @param connection The JDBC connection underlying the context
+   * @param admin      The admin performing the import
+   * @param users      The users
+   * @param created    The creation time of the users
+   * @param auditTime  The time of the audit events
+   *
+   * @return The number of users created, and the errors for the rest
+   *
+   * @throws SQLException On errors
+   * @throws IOException  On errors
+   */
+
+  static IdDatabaseUserImportResult importUsers(
+    final DSLContext context,
+    final Connection connection,
+    final UUID admin,
+    final List<IdUserCreate> users,
+    final OffsetDateTime created,
+    final OffsetDateTime auditTime)
+    throws SQLException, IOException
+  {
+    if (users.isEmpty()) {
+      return new IdDatabaseUserImportResult(0, List.of());
+    }
+
+    context.execute(STAGING_CREATE);
+
+    connection.unwrap(PGConnection.class)
+      .getCopyAPI()
+      .copyIn(STAGING_COPY, new StringReader(formatRows(users)));
+
+    markDuplicates(
+      context,
+      STAGING_MARK_DUPLICATE_IDS,
+      USER_DUPLICATE_ID,
+      "User ID already exists"
+    );
+    markDuplicates(
+      context,
+      STAGING_MARK_DUPLICATE_ID_NAMES,
+      USER_DUPLICATE_ID_NAME,
+      "User ID name already exists"
+    );
+    markDuplicates(
+      context,
+      STAGING_MARK_DUPLICATE_EMAILS,
+      EMAIL_DUPLICATE,
+      "Email already exists"
+    );
+
+    final var createdCount =
+      context.fetchOne(
+        STAGING_MERGE,
+        DSL.val(created),
+        DSL.val(auditTime),
+        DSL.val(admin)
+      ).get(0, Long.class);
+
+    final var errors =
+      context.fetch(STAGING_ERRORS)
+        .map(r -> new IdUserImportError(
+          r.get(0, Integer.class).intValue(),
+          new IdErrorCode(r.get(1, String.class)),
+          r.get(2, String.class)
+        ));
+
+    context.execute(STAGING_DROP);
+    return new IdDatabaseUserImportResult(createdCount.intValue(), errors);
+  }
+
+  private static void markDuplicates(
+    final DSLContext context,
+    final String statement,
+    final IdErrorCode errorCode,
+    final String message)
+  {
+    context.execute(
+      statement,
+      DSL.val(errorCode.id()),
+      DSL.val(message)
+    );
+  }
+
+  /**
+   * Format the users as CSV for {@code COPY}. Every text value is quoted so
+   * that no value can be mistaken for a null; the only unquoted empty value
+   * is a missing password expiration date.
+   */
+
+  private static String formatRows(
+    final List<IdUserCreate> users)
+  {
+    final var text = new StringBuilder(users.size() * 256);
+    for (int index = 0; index < users.size(); ++index) {
+      final var user = users.get(index);
+      final var password = user.password();
+
+      text.append(index);
+      text.append(',');
+      text.append(user.id().orElseGet(UUID::randomUUID));
+      text.append(',');
+      appendQuoted(text, user.idName().value());
+      text.append(',');
+      appendQuoted(text, user.realName().value());
+      text.append(',');
+      appendQuoted(text, user.email().value());
+      text.append(',');
+      appendQuoted(text, password.algorithm().identifier());
+      text.append(',');
+      appendQuoted(text, password.hash());
+      text.append(',');
+      appendQuoted(text, password.salt());
+      text.append(',');
+      password.expires().ifPresent(
+        t -> text.append(DateTimeFormatter.ISO_OFFSET_DATE_TIME.format(t)));
+      text.append('\n');
+    }
+    return text.toString();
+  }
+
+  private static void appendQuoted(
+    final StringBuilder text,
+    final String value)
+  {
+    text.append('"');
+    text.append(value.replace("\"", "\"\""));
+    text.append('"');
+  }
+}
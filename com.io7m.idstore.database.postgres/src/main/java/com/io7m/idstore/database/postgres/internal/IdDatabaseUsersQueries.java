@@ -18,9 +18,13 @@
 package com.io7m.idstore.database.postgres.internal;
 
 import com.io7m.idstore.database.api.IdDatabaseException;
+import com.io7m.idstore.database.api.IdDatabaseExportType;
+import com.io7m.idstore.database.api.IdDatabaseSearchPosition;
+import com.io7m.idstore.database.api.IdDatabaseUserImportResult;
 import com.io7m.idstore.database.api.IdDatabaseUserSearchByEmailType;
 import com.io7m.idstore.database.api.IdDatabaseUserSearchType;
 import com.io7m.idstore.database.api.IdDatabaseUsersQueriesType;
+import com.io7m.idstore.database.postgres.internal.IdAbstractSearch.Definition;
 import com.io7m.idstore.database.postgres.internal.tables.records.EmailsRecord;
 import com.io7m.idstore.database.postgres.internal.tables.records.LoginHistoryRecord;
 import com.io7m.idstore.database.postgres.internal.tables.records.UserPasswordResetsRecord;
@@ -30,31 +34,32 @@ import com.io7m.idstore.model.IdEmail;
 import com.io7m.idstore.model.IdLogin;
 import com.io7m.idstore.model.IdName;
 import com.io7m.idstore.model.IdNonEmptyList;
-import com.io7m.idstore.model.IdPage;
 import com.io7m.idstore.model.IdPassword;
 import com.io7m.idstore.model.IdPasswordAlgorithms;
 import com.io7m.idstore.model.IdPasswordException;
 import com.io7m.idstore.model.IdRealName;
+import com.io7m.idstore.model.IdTimeRange;
 import com.io7m.idstore.model.IdToken;
 import com.io7m.idstore.model.IdUser;
 import com.io7m.idstore.model.IdUserColumnOrdering;
+import com.io7m.idstore.model.IdUserCreate;
 import com.io7m.idstore.model.IdUserPasswordReset;
 import com.io7m.idstore.model.IdUserSearchByEmailParameters;
 import com.io7m.idstore.model.IdUserSearchParameters;
 import com.io7m.idstore.model.IdUserSummary;
-import com.io7m.jqpage.core.JQField;
-import com.io7m.jqpage.core.JQKeysetRandomAccessPageDefinition;
-import com.io7m.jqpage.core.JQKeysetRandomAccessPagination;
-import com.io7m.jqpage.core.JQKeysetRandomAccessPaginationParameters;
-import com.io7m.jqpage.core.JQOrder;
 import org.jooq.Condition;
 import org.jooq.DSLContext;
+import org.jooq.Field;
+import org.jooq.Record;
 import org.jooq.Result;
 import org.jooq.exception.DataAccessException;
 import org.jooq.impl.DSL;
 import org.jooq.postgres.extensions.types.Hstore;
 
+import java.io.IOException;
+import java.sql.SQLException;
 import java.time.OffsetDateTime;
+import java.util.HashMap;
 import java.util.List;
 import java.util.Locale;
 import java.util.Map;
@@ -79,6 +84,7 @@ import static com.io7m.idstore.model.IdLoginMetadataStandard.remoteHostProxied;
 import static com.io7m.idstore.model.IdLoginMetadataStandard.userAgent;
 import static io.opentelemetry.semconv.trace.attributes.SemanticAttributes.DB_STATEMENT;
 import static java.lang.Boolean.TRUE;
+import static java.util.Objects.requireNonNullElse;
 
 final class IdDatabaseUsersQueries
   extends IdBaseQueries
@@ -255,8 +261,7 @@ final class IdDatabaseUsersQueries
 
     try {
       final var userRecordOpt =
-        context.selectFrom(USERS)
-          .where(USERS.ID.eq(id))
+        IdDatabaseStatements.userGet(context, id)
           .fetchOptional();
 
       if (userRecordOpt.isEmpty()) {
@@ -267,8 +272,7 @@ final class IdDatabaseUsersQueries
         userRecordOpt.get();
 
       final var emails =
-        context.selectFrom(EMAILS)
-          .where(EMAILS.USER_ID.eq(userRecord.getId()))
+        IdDatabaseStatements.userEmails(context, userRecord.getId())
           .fetch();
 
       return Optional.of(userMap(userRecord, emails));
@@ -315,8 +319,7 @@ final class IdDatabaseUsersQueries
 
     try {
       final var userRecordOpt =
-        context.selectFrom(USERS)
-          .where(USERS.ID_NAME.eq(name.value()))
+        IdDatabaseStatements.userGetForName(context, name.value())
           .fetchOptional();
 
       if (userRecordOpt.isEmpty()) {
@@ -327,8 +330,7 @@ final class IdDatabaseUsersQueries
         userRecordOpt.get();
 
       final var emails =
-        context.selectFrom(EMAILS)
-          .where(EMAILS.USER_ID.eq(userRecord.getId()))
+        IdDatabaseStatements.userEmails(context, userRecord.getId())
           .fetch();
 
       return Optional.of(userMap(userRecord, emails));
@@ -436,7 +438,8 @@ final class IdDatabaseUsersQueries
       final var time =
         this.currentTime();
 
-      context.fetchOptional(USERS, USERS.ID.eq(id))
+      IdDatabaseStatements.userGet(context, id)
+        .fetchOptional()
         .orElseThrow(() -> userDoesNotExist(attributes));
 
       /*
@@ -594,68 +597,78 @@ final class IdDatabaseUsersQueries
       );
 
     try {
-      final var record = context.fetchOne(USERS, USERS.ID.eq(id));
-      if (record == null) {
-        throw userDoesNotExist(attributes);
-      }
+      final var changes =
+        new HashMap<Field<?>, Object>();
+      final var audit =
+        new IdDatabaseAuditBatch(context, this.currentTime(), owner);
 
       if (withIdName.isPresent()) {
         final var name = withIdName.get();
-        record.setIdName(name.value());
+        changes.put(USERS.ID_NAME, name.value());
 
-        final var auditData =
+        audit.add(
+          "USER_CHANGED_ID_NAME",
           Map.ofEntries(
             Map.entry("UserID", id.toString()),
             Map.entry("IdName", name.value())
-          );
-
-        context.insertInto(AUDIT)
-          .set(AUDIT.TIME, this.currentTime())
-          .set(AUDIT.TYPE, "USER_CHANGED_ID_NAME")
-          .set(AUDIT.USER_ID, owner)
-          .set(AU_DATA, Hstore.hstore(auditData))
-          .execute();
+          )
+        );
       }
 
       if (withRealName.isPresent()) {
         final var name = withRealName.get();
-        record.setRealName(name.value());
+        changes.put(USERS.REAL_NAME, name.value());
 
-        final var auditData =
+        audit.add(
+          "USER_CHANGED_REAL_NAME",
           Map.ofEntries(
             Map.entry("UserID", id.toString()),
             Map.entry("RealName", name.value())
-          );
-
-        context.insertInto(AUDIT)
-          .set(AUDIT.TIME, this.currentTime())
-          .set(AUDIT.TYPE, "USER_CHANGED_REAL_NAME")
-          .set(AUDIT.USER_ID, owner)
-          .set(AU_DATA, Hstore.hstore(auditData))
-          .execute();
+          )
+        );
       }
 
       if (withPassword.isPresent()) {
         final var pass = withPassword.get();
-        record.setPasswordAlgo(pass.algorithm().identifier());
-        record.setPasswordHash(pass.hash());
-        record.setPasswordSalt(pass.salt());
-        record.setPasswordExpires(pass.expires().orElse(null));
+        changes.put(USERS.PASSWORD_ALGO, pass.algorithm().identifier());
+        changes.put(USERS.PASSWORD_HASH, pass.hash());
+        changes.put(USERS.PASSWORD_SALT, pass.salt());
+        changes.put(USERS.PASSWORD_EXPIRES, pass.expires().orElse(null));
 
-        final var auditData =
+        audit.add(
+          "USER_CHANGED_PASSWORD",
           Map.ofEntries(
             Map.entry("UserID", id.toString())
-          );
+          )
+        );
+      }
 
-        context.insertInto(AUDIT)
-          .set(AUDIT.TIME, this.currentTime())
-          .set(AUDIT.TYPE, "USER_CHANGED_PASSWORD")
-          .set(AUDIT.USER_ID, owner)
-          .set(AU_DATA, Hstore.hstore(auditData))
-          .execute();
+      /*
+       * The update reports whether the user exists, so the user is only
+       * fetched separately when there is nothing to update.
+       */
+
+      final boolean exists;
+      if (changes.isEmpty()) {
+        exists =
+          IdDatabaseStatements.userGet(context, id)
+            .fetchOptional()
+            .isPresent();
+      } else {
+        exists =
+          context.update(USERS)
+            .set(changes)
+            .where(USERS.ID.eq(id))
+            .returning(USERS.ID)
+            .fetchOptional()
+            .isPresent();
+      }
+
+      if (!exists) {
+        throw userDoesNotExist(attributes);
       }
 
-      record.store();
+      audit.execute();
     } catch (final DataAccessException e) {
       querySpan.recordException(e);
       throw handleDatabaseException(transaction, e, attributes);
@@ -901,31 +914,36 @@ final class IdDatabaseUsersQueries
       );
 
     try {
-      final var user =
-        this.userGetRequire(ban.user());
-      var banRecord =
-        context.fetchOne(BANS, BANS.USER_ID.eq(user.id()));
+      final var banned =
+        context.insertInto(BANS, BANS.USER_ID, BANS.REASON, BANS.EXPIRES)
+          .select(
+            DSL.select(
+              USERS.ID,
+              DSL.val(ban.reason(), BANS.REASON),
+              DSL.val(ban.expires().orElse(null), BANS.EXPIRES)
+            ).from(USERS).where(USERS.ID.eq(ban.user()))
+          )
+          .onConflict(BANS.USER_ID)
+          .doUpdate()
+          .set(BANS.REASON, DSL.excluded(BANS.REASON))
+          .set(BANS.EXPIRES, DSL.excluded(BANS.EXPIRES))
+          .returning(BANS.USER_ID)
+          .fetchOptional();
 
-      if (banRecord == null) {
-        banRecord = context.newRecord(BANS);
+      if (banned.isEmpty()) {
+        throw userDoesNotExist(attributes);
       }
 
-      banRecord.set(BANS.USER_ID, user.id());
-      banRecord.set(BANS.EXPIRES, ban.expires().orElse(null));
-      banRecord.set(BANS.REASON, ban.reason());
-      banRecord.store();
+      final var audit =
+        new IdDatabaseAuditBatch(context, this.currentTime(), executor);
 
-      final var auditData =
+      audit.add(
+        "USER_BANNED",
         Map.ofEntries(
-          Map.entry("UserID", user.id().toString())
-        );
-
-      context.insertInto(AUDIT)
-        .set(AUDIT.TIME, this.currentTime())
-        .set(AUDIT.TYPE, "USER_BANNED")
-        .set(AUDIT.USER_ID, executor)
-        .set(AU_DATA, Hstore.hstore(auditData))
-        .execute();
+          Map.entry("UserID", ban.user().toString())
+        )
+      );
+      audit.execute();
 
     } catch (final DataAccessException e) {
       querySpan.recordException(e);
@@ -958,7 +976,7 @@ final class IdDatabaseUsersQueries
       final var user =
         this.userGetRequire(id);
       final var banRecord =
-        context.fetchOne(BANS, BANS.USER_ID.eq(user.id()));
+        IdDatabaseStatements.banGet(context, user.id()).fetchOne();
 
       if (banRecord == null) {
         return Optional.empty();
@@ -1002,28 +1020,36 @@ final class IdDatabaseUsersQueries
       );
 
     try {
-      final var user =
-        this.userGetRequire(ban.user());
-      final var banRecord =
-        context.fetchOne(BANS, BANS.USER_ID.eq(user.id()));
+      final var removed =
+        context.deleteFrom(BANS)
+          .where(BANS.USER_ID.eq(ban.user()))
+          .and(DSL.exists(
+            DSL.selectOne()
+              .from(USERS)
+              .where(USERS.ID.eq(BANS.USER_ID))))
+          .returning(BANS.USER_ID)
+          .fetchOptional();
 
-      if (banRecord == null) {
+      /*
+       * Nothing was deleted; either the user was not banned, or the user
+       * does not exist. Only the latter is an error.
+       */
+
+      if (removed.isEmpty()) {
+        this.userGetRequire(ban.user());
         return;
       }
 
-      banRecord.delete();
+      final var audit =
+        new IdDatabaseAuditBatch(context, this.currentTime(), executor);
 
-      final var auditData =
+      audit.add(
+        "USER_BAN_REMOVED",
         Map.ofEntries(
-          Map.entry("UserID", user.id().toString())
-        );
-
-      context.insertInto(AUDIT)
-        .set(AUDIT.TIME, this.currentTime())
-        .set(AUDIT.TYPE, "USER_BAN_REMOVED")
-        .set(AUDIT.USER_ID, executor)
-        .set(AU_DATA, Hstore.hstore(auditData))
-        .execute();
+          Map.entry("UserID", ban.user().toString())
+        )
+      );
+      audit.execute();
 
     } catch (final DataAccessException e) {
       querySpan.recordException(e);
@@ -1187,27 +1213,157 @@ final class IdDatabaseUsersQueries
     }
   }
 
-  private static JQField orderingToJQField(
+  private static Field<?> orderingField(
     final IdUserColumnOrdering ordering)
   {
-    final var field =
-      switch (ordering.column()) {
-        case BY_ID -> USERS.ID;
-        case BY_IDNAME -> USERS.ID_NAME;
-        case BY_REALNAME -> USERS.REAL_NAME;
-        case BY_TIME_CREATED -> USERS.TIME_CREATED;
-        case BY_TIME_UPDATED -> USERS.TIME_UPDATED;
-      };
-
-    return new JQField(
-      field,
-      ordering.ascending() ? JQOrder.ASCENDING : JQOrder.DESCENDING
+    return switch (ordering.column()) {
+      case BY_ID -> USERS.ID;
+      case BY_IDNAME -> USERS.ID_NAME;
+      case BY_REALNAME -> USERS.REAL_NAME;
+      case BY_TIME_CREATED -> USERS.TIME_CREATED;
+      case BY_TIME_UPDATED -> USERS.TIME_UPDATED;
+    };
+  }
+
+  /*
+   * The user ID is used as a tiebreaker so that the sort key is unique,
+   * as required by keyset pagination.
+   */
+
+  private static List<Field<?>> orderingKeyFields(
+    final IdUserColumnOrdering ordering)
+  {
+    final var field = orderingField(ordering);
+    if (field == USERS.ID) {
+      return List.of(USERS.ID);
+    }
+    return List.of(field, USERS.ID);
+  }
+
+  private static Definition<IdUserSummary> searchDefinition(
+    final String spanName,
+    final Condition condition,
+    final boolean unfiltered,
+    final IdUserColumnOrdering ordering,
+    final int limit)
+  {
+    return new Definition<>(
+      spanName,
+      USERS,
+      condition,
+      unfiltered,
+      List.of(
+        USERS.ID,
+        USERS.ID_NAME,
+        USERS.REAL_NAME,
+        USERS.TIME_CREATED,
+        USERS.TIME_UPDATED
+      ),
+      orderingKeyFields(ordering),
+      ordering.ascending(),
+      limit,
+      IdDatabaseUsersQueries::mapUserSummary
+    );
+  }
+
+  private static Condition userSearchConditions(
+    final IdUserSearchParameters parameters)
+  {
+    /*
+     * The users must lie within the given time ranges.
+     */
+
+    final var timeCreatedRange = parameters.timeCreatedRange();
+    final var timeCreatedCondition =
+      DSL.condition(
+        USERS.TIME_CREATED.ge(timeCreatedRange.timeLower())
+          .and(USERS.TIME_CREATED.le(timeCreatedRange.timeUpper()))
+      );
+
+    final var timeUpdatedRange = parameters.timeUpdatedRange();
+    final var timeUpdatedCondition =
+      DSL.condition(
+        USERS.TIME_UPDATED.ge(timeUpdatedRange.timeLower())
+          .and(USERS.TIME_UPDATED.le(timeUpdatedRange.timeUpper()))
+      );
+
+    /*
+     * A search query might be present.
+     */
+
+    final Condition searchCondition;
+    final var search = parameters.search();
+    if (search.isPresent()) {
+      final var searchText = "%%%s%%".formatted(search.get());
+      searchCondition =
+        DSL.condition(USERS.ID_NAME.likeIgnoreCase(searchText))
+          .or(DSL.condition(USERS.REAL_NAME.likeIgnoreCase(searchText)))
+          .or(DSL.condition(USERS.ID.likeIgnoreCase(searchText)));
+    } else {
+      searchCondition = DSL.trueCondition();
+    }
+
+    return timeCreatedCondition
+      .and(timeUpdatedCondition)
+      .and(searchCondition);
+  }
+
+  private static IdUserSummary mapUserSummary(
+    final Record record)
+  {
+    return new IdUserSummary(
+      record.get(USERS.ID),
+      new IdName(record.get(USERS.ID_NAME)),
+      new IdRealName(record.get(USERS.REAL_NAME)),
+      record.get(USERS.TIME_CREATED),
+      record.get(USERS.TIME_UPDATED)
+    );
+  }
+
+  private static Definition<IdUserSummary> userSearchDefinition(
+    final IdUserSearchParameters parameters)
+  {
+    return searchDefinition(
+      "IdDatabaseUsersQueries.userSearch",
+      userSearchConditions(parameters),
+      parameters.search().isEmpty()
+        && parameters.timeCreatedRange().equals(IdTimeRange.largest())
+        && parameters.timeUpdatedRange().equals(IdTimeRange.largest()),
+      parameters.ordering(),
+      parameters.limit()
     );
   }
 
   @Override
   public IdDatabaseUserSearchType userSearch(
     final IdUserSearchParameters parameters)
+  {
+    Objects.requireNonNull(parameters, "parameters");
+
+    return new UsersSearch(
+      userSearchDefinition(parameters),
+      Optional.empty()
+    );
+  }
+
+  @Override
+  public IdDatabaseUserSearchType userSearch(
+    final IdUserSearchParameters parameters,
+    final IdDatabaseSearchPosition position)
+  {
+    Objects.requireNonNull(parameters, "parameters");
+    Objects.requireNonNull(position, "position");
+
+    return new UsersSearch(
+      userSearchDefinition(parameters),
+      Optional.of(position)
+    );
+  }
+
+  @Override
+  public IdDatabaseExportType<IdUserSummary> userExport(
+    final IdUserSearchParameters parameters,
+    final int fetchSize)
     throws IdDatabaseException
   {
     Objects.requireNonNull(parameters, "parameters");
@@ -1215,283 +1371,193 @@ final class IdDatabaseUsersQueries
     final var transaction = this.transaction();
     final var context = transaction.createContext();
     final var querySpan =
-      transaction.createQuerySpan(
-        "IdDatabaseUsersQueries.userSearch.create");
+      transaction.createQuerySpan("IdDatabaseUsersQueries.userExport");
 
     try {
+      final var ordering =
+        parameters.ordering();
+      final var orderField =
+        orderingField(ordering);
 
       /*
-       * The users must lie within the given time ranges.
-       */
-
-      final var timeCreatedRange = parameters.timeCreatedRange();
-      final var timeCreatedCondition =
-        DSL.condition(
-          USERS.TIME_CREATED.ge(timeCreatedRange.timeLower())
-            .and(USERS.TIME_CREATED.le(timeCreatedRange.timeUpper()))
-        );
-
-      final var timeUpdatedRange = parameters.timeUpdatedRange();
-      final var timeUpdatedCondition =
-        DSL.condition(
-          USERS.TIME_UPDATED.ge(timeUpdatedRange.timeLower())
-            .and(USERS.TIME_UPDATED.le(timeUpdatedRange.timeUpper()))
-        );
-
-      /*
-       * A search query might be present.
+       * The user ID is used as a tiebreaker so that the export order is
+       * total, and therefore stable between runs.
        */
 
-      final Condition searchCondition;
-      final var search = parameters.search();
-      if (search.isPresent()) {
-        final var searchText = "%%%s%%".formatted(search.get());
-        searchCondition =
-          DSL.condition(USERS.ID_NAME.likeIgnoreCase(searchText))
-            .or(DSL.condition(USERS.REAL_NAME.likeIgnoreCase(searchText)))
-            .or(DSL.condition(USERS.ID.likeIgnoreCase(searchText)));
-      } else {
-        searchCondition = DSL.trueCondition();
-      }
-
-      final var allConditions =
-        timeCreatedCondition
-          .and(timeUpdatedCondition)
-          .and(searchCondition);
-
-      final var orderField =
-        orderingToJQField(parameters.ordering());
-
-      final var pages =
-        JQKeysetRandomAccessPagination.createPageDefinitions(
-          context,
-          JQKeysetRandomAccessPaginationParameters.forTable(USERS)
-            .addSortField(orderField)
-            .setPageSize(Integer.toUnsignedLong(parameters.limit()))
-            .addWhereCondition(allConditions)
-            .setStatementListener(statement -> {
-              querySpan.setAttribute(DB_STATEMENT, statement.toString());
-            })
-            .build()
-        );
-
-      return new IdDatabaseUsersQueries.UsersSearch(pages);
+      final var query =
+        context.select(
+            USERS.ID,
+            USERS.ID_NAME,
+            USERS.REAL_NAME,
+            USERS.TIME_CREATED,
+            USERS.TIME_UPDATED)
+          .from(USERS)
+          .where(userSearchConditions(parameters))
+          .orderBy(
+            ordering.ascending() ? orderField.asc() : orderField.desc(),
+            USERS.ID.asc())
+          .fetchSize(fetchSize);
+
+      querySpan.setAttribute(DB_STATEMENT, query.toString());
+
+      return new IdDatabaseExport<>(
+        transaction,
+        query.fetchLazy(),
+        IdDatabaseUsersQueries::mapUserSummary,
+        fetchSize
+      );
     } catch (final DataAccessException e) {
       querySpan.recordException(e);
-      throw handleDatabaseException(this.transaction(), e, Map.of());
+      throw handleDatabaseException(transaction, e, Map.of());
     } finally {
       querySpan.end();
     }
   }
 
   @Override
-  public IdDatabaseUserSearchByEmailType userSearchByEmail(
-    final IdUserSearchByEmailParameters parameters)
+  public IdDatabaseUserImportResult userImport(
+    final List<IdUserCreate> users,
+    final OffsetDateTime created)
     throws IdDatabaseException
   {
-    Objects.requireNonNull(parameters, "parameters");
+    Objects.requireNonNull(users, "users");
+    Objects.requireNonNull(created, "created");
 
     final var transaction = this.transaction();
     final var context = transaction.createContext();
+    final var adminId = transaction.adminId();
     final var querySpan =
-      transaction.createQuerySpan(
-        "IdDatabaseUsersQueries.userSearchByEmail.create");
+      transaction.createQuerySpan("IdDatabaseUsersQueries.userImport");
 
-    try {
-      final var baseTable =
-        USERS.join(EMAILS)
-          .on(USERS.ID.eq(EMAILS.USER_ID));
+    final var attributes =
+      Map.ofEntries(
+        Map.entry("Users", Integer.toString(users.size()))
+      );
 
-      /*
-       * The users must lie within the given time ranges.
-       */
+    try {
+      return IdDatabaseUserImport.importUsers(
+        context,
+        transaction.sqlConnection(),
+        adminId,
+        users,
+        created,
+        this.currentTime()
+      );
+    } catch (final DataAccessException e) {
+      querySpan.recordException(e);
+      throw handleDatabaseException(transaction, e, attributes);
+    } catch (final SQLException | IOException e) {
+      querySpan.recordException(e);
+      throw handleDatabaseException(
+        transaction,
+        new DataAccessException(
+          requireNonNullElse(e.getMessage(), e.getClass().getSimpleName()),
+          e
+        ),
+        attributes
+      );
+    } finally {
+      querySpan.end();
+    }
+  }
 
-      final var timeCreatedRange = parameters.timeCreatedRange();
-      final var timeCreatedCondition =
-        DSL.condition(
-          USERS.TIME_CREATED.ge(timeCreatedRange.timeLower())
-            .and(USERS.TIME_CREATED.le(timeCreatedRange.timeUpper()))
-        );
+  private static Definition<IdUserSummary> userSearchByEmailDefinition(
+    final IdUserSearchByEmailParameters parameters)
+  {
+    /*
+     * The users must lie within the given time ranges.
+     */
+
+    final var timeCreatedRange = parameters.timeCreatedRange();
+    final var timeCreatedCondition =
+      DSL.condition(
+        USERS.TIME_CREATED.ge(timeCreatedRange.timeLower())
+          .and(USERS.TIME_CREATED.le(timeCreatedRange.timeUpper()))
+      );
 
-      final var timeUpdatedRange = parameters.timeUpdatedRange();
-      final var timeUpdatedCondition =
-        DSL.condition(
-          USERS.TIME_UPDATED.ge(timeUpdatedRange.timeLower())
-            .and(USERS.TIME_UPDATED.le(timeUpdatedRange.timeUpper()))
-        );
+    final var timeUpdatedRange = parameters.timeUpdatedRange();
+    final var timeUpdatedCondition =
+      DSL.condition(
+        USERS.TIME_UPDATED.ge(timeUpdatedRange.timeLower())
+          .and(USERS.TIME_UPDATED.le(timeUpdatedRange.timeUpper()))
+      );
 
-      /*
-       * Only users with matching email addresses will be returned.
-       */
+    /*
+     * Only users with matching email addresses will be returned. A
+     * semi-join is used so that a user with several matching addresses
+     * appears only once.
+     */
+
+    final var searchLike =
+      "%%%s%%".formatted(parameters.search());
+    final var searchCondition =
+      USERS.ID.in(
+        DSL.select(EMAILS.USER_ID)
+          .from(EMAILS)
+          .where(EMAILS.EMAIL_ADDRESS.likeIgnoreCase(searchLike))
+      );
 
-      final var searchLike =
-        "%%%s%%".formatted(parameters.search());
-      final var searchCondition =
-        DSL.condition(EMAILS.EMAIL_ADDRESS.likeIgnoreCase(searchLike));
+    final var allConditions =
+      timeCreatedCondition
+        .and(timeUpdatedCondition)
+        .and(searchCondition);
+
+    return searchDefinition(
+      "IdDatabaseUsersQueries.userSearchByEmail",
+      allConditions,
+      false,
+      parameters.ordering(),
+      parameters.limit()
+    );
+  }
 
-      final var allConditions =
-        timeCreatedCondition
-          .and(timeUpdatedCondition)
-          .and(searchCondition);
+  @Override
+  public IdDatabaseUserSearchByEmailType userSearchByEmail(
+    final IdUserSearchByEmailParameters parameters)
+  {
+    Objects.requireNonNull(parameters, "parameters");
 
-      final var orderField =
-        orderingToJQField(parameters.ordering());
-
-      final var pages =
-        JQKeysetRandomAccessPagination.createPageDefinitions(
-          context,
-          JQKeysetRandomAccessPaginationParameters.forTable(baseTable)
-            .addSortField(orderField)
-            .addWhereCondition(allConditions)
-            .addGroupByField(USERS.ID)
-            .setPageSize(Integer.toUnsignedLong(parameters.limit()))
-            .setStatementListener(statement -> {
-              querySpan.setAttribute(DB_STATEMENT, statement.toString());
-            })
-            .build()
-        );
+    return new UsersByEmailSearch(
+      userSearchByEmailDefinition(parameters),
+      Optional.empty()
+    );
+  }
 
-      return new IdDatabaseUsersQueries.UsersByEmailSearch(
-        pages
-      );
+  @Override
+  public IdDatabaseUserSearchByEmailType userSearchByEmail(
+    final IdUserSearchByEmailParameters parameters,
+    final IdDatabaseSearchPosition position)
+  {
+    Objects.requireNonNull(parameters, "parameters");
+    Objects.requireNonNull(position, "position");
 
-    } catch (final DataAccessException e) {
-      querySpan.recordException(e);
-      throw handleDatabaseException(this.transaction(), e, Map.of());
-    } finally {
-      querySpan.end();
-    }
+    return new UsersByEmailSearch(
+      userSearchByEmailDefinition(parameters),
+      Optional.of(position)
+    );
   }
 
   private static final class UsersByEmailSearch
-    extends IdAbstractSearch<
-    IdDatabaseUsersQueries,
-    IdDatabaseUsersQueriesType,
-    IdUserSummary>
+    extends IdAbstractSearch<IdDatabaseUsersQueriesType, IdUserSummary>
     implements IdDatabaseUserSearchByEmailType
   {
     UsersByEmailSearch(
-      final List<JQKeysetRandomAccessPageDefinition> inPages)
+      final Definition<IdUserSummary> inDefinition,
+      final Optional<IdDatabaseSearchPosition> inPosition)
     {
-      super(inPages);
-    }
-
-    @Override
-    protected IdPage<IdUserSummary> page(
-      final IdDatabaseUsersQueries queries,
-      final JQKeysetRandomAccessPageDefinition page)
-      throws IdDatabaseException
-    {
-      final var transaction =
-        queries.transaction();
-      final var context =
-        transaction.createContext();
-
-      final var querySpan =
-        transaction.createQuerySpan(
-          "IdDatabaseUsersQueries.userSearchByEmail.page");
-
-      try {
-        final var query =
-          page.queryFields(context, List.of(
-            USERS.ID,
-            USERS.ID_NAME,
-            USERS.REAL_NAME,
-            USERS.TIME_CREATED,
-            USERS.TIME_UPDATED
-          ));
-
-        querySpan.setAttribute(DB_STATEMENT, query.toString());
-
-        final var items =
-          query.fetch().map(record -> {
-            return new IdUserSummary(
-              record.get(USERS.ID),
-              new IdName(record.get(USERS.ID_NAME)),
-              new IdRealName(record.get(USERS.REAL_NAME)),
-              record.get(USERS.TIME_CREATED),
-              record.get(USERS.TIME_UPDATED)
-            );
-          });
-
-        return new IdPage<>(
-          items,
-          (int) page.index(),
-          this.pageCount(),
-          page.firstOffset()
-        );
-      } catch (final DataAccessException e) {
-        querySpan.recordException(e);
-        throw handleDatabaseException(transaction, e, Map.of());
-      } finally {
-        querySpan.end();
-      }
+      super(inDefinition, inPosition);
     }
   }
 
   private static final class UsersSearch
-    extends IdAbstractSearch<
-    IdDatabaseUsersQueries,
-    IdDatabaseUsersQueriesType,
-    IdUserSummary>
+    extends IdAbstractSearch<IdDatabaseUsersQueriesType, IdUserSummary>
     implements IdDatabaseUserSearchType
   {
     UsersSearch(
-      final List<JQKeysetRandomAccessPageDefinition> inPages)
-    {
-      super(inPages);
-    }
-
-    @Override
-    protected IdPage<IdUserSummary> page(
-      final IdDatabaseUsersQueries queries,
-      final JQKeysetRandomAccessPageDefinition page)
-      throws IdDatabaseException
+      final Definition<IdUserSummary> inDefinition,
+      final Optional<IdDatabaseSearchPosition> inPosition)
     {
-      final var transaction =
-        queries.transaction();
-      final var context =
-        transaction.createContext();
-
-      final var querySpan =
-        transaction.createQuerySpan(
-          "IdDatabaseUsersQueries.userSearch.page");
-
-      try {
-        final var query =
-          page.queryFields(context, List.of(
-            USERS.ID,
-            USERS.ID_NAME,
-            USERS.REAL_NAME,
-            USERS.TIME_CREATED,
-            USERS.TIME_UPDATED
-          ));
-
-        querySpan.setAttribute(DB_STATEMENT, query.toString());
-
-        final var items =
-          query.fetch().map(record -> {
-            return new IdUserSummary(
-              record.get(USERS.ID),
-              new IdName(record.get(USERS.ID_NAME)),
-              new IdRealName(record.get(USERS.REAL_NAME)),
-              record.get(USERS.TIME_CREATED),
-              record.get(USERS.TIME_UPDATED)
-            );
-          });
-
-        return new IdPage<>(
-          items,
-          (int) page.index(),
-          this.pageCount(),
-          page.firstOffset()
-        );
-      } catch (final DataAccessException e) {
-        querySpan.recordException(e);
-        throw handleDatabaseException(transaction, e, Map.of());
-      } finally {
-        querySpan.end();
-      }
+      super(inDefinition, inPosition);
     }
   }
 }
@@ -103,6 +103,13 @@ public final class IdStandardErrorCodes
 
   public static final IdErrorCode SQL_ERROR_UNSUPPORTED_QUERY_CLASS =
     new IdErrorCode("error-sql-unsupported-query-class");
+
+  /**
+   * A request ran past its deadline, and its database work was cancelled.
+   */
+
+  public static final IdErrorCode REQUEST_TIMEOUT =
+    new IdErrorCode("error-request-timeout");
   /**
    * A generic "operation not permitted" error.
    */
@@ -19,6 +19,7 @@ package com.io7m.idstore.main;
 import com.io7m.idstore.main.internal.IdMCmdInitialAdmin;
 import com.io7m.idstore.main.internal.IdMCmdServer;
 import com.io7m.idstore.main.internal.IdMCmdShell;
+import com.io7m.idstore.main.internal.IdMCmdUserImport;
 import com.io7m.idstore.model.IdVersion;
 import com.io7m.quarrel.core.QApplication;
 import com.io7m.quarrel.core.QApplicationMetadata;
@@ -70,6 +71,7 @@ public final class IdMain implements Runnable
     builder.addCommand(new IdMCmdInitialAdmin());
     builder.addCommand(new IdMCmdServer());
     builder.addCommand(new IdMCmdShell());
+    builder.addCommand(new IdMCmdUserImport());
 
     this.application = builder.build();
     this.exitCode = 0;
@@ -0,0 +1,172 @@
+/*
+ * Copyright © 2024 Mark Raynsford <code@io7m.com> https://www.io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+
+package com.io7m.idstore.main.internal;
+
+import com.io7m.idstore.shell.admin.IdAUserImportConfiguration;
+import com.io7m.idstore.shell.admin.IdAUserImports;
+import com.io7m.quarrel.core.QCommandContextType;
+import com.io7m.quarrel.core.QCommandMetadata;
+import com.io7m.quarrel.core.QCommandStatus;
+import com.io7m.quarrel.core.QCommandType;
+import com.io7m.quarrel.core.QParameterNamed1;
+import com.io7m.quarrel.core.QParameterNamedType;
+import com.io7m.quarrel.core.QStringType.QConstant;
+import com.io7m.quarrel.ext.logback.QLogback;
+
+import java.net.URI;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.List;
+import java.util.Locale;
+import java.util.Optional;
+import java.util.stream.Stream;
+
+import static com.io7m.quarrel.core.QCommandStatus.FAILURE;
+import static com.io7m.quarrel.core.QCommandStatus.SUCCESS;
+
+/**
+ * The "user-import" command.
+ */
+
+public final class IdMCmdUserImport implements QCommandType
+{
+  private static final QParameterNamed1<String> SERVER =
+    new QParameterNamed1<>(
+      "--server",
+      List.of(),
+      new QConstant("The admin API base URI of the server."),
+      Optional.empty(),
+      String.class
+    );
+
+  private static final QParameterNamed1<String> USERNAME =
+    new QParameterNamed1<>(
+      "--username",
+      List.of(),
+      new QConstant("The name of the administrator used to log in."),
+      Optional.empty(),
+      String.class
+    );
+
+  private static final QParameterNamed1<String> PASSWORD =
+    new QParameterNamed1<>(
+      "--password",
+      List.of(),
+      new QConstant("The password of the administrator."),
+      Optional.empty(),
+      String.class
+    );
+
+  private static final QParameterNamed1<Path> FILE =
+    new QParameterNamed1<>(
+      "--file",
+      List.of(),
+      new QConstant("The file from which users will be read."),
+      Optional.empty(),
+      Path.class
+    );
+
+  private static final QParameterNamed1<String> FORMAT =
+    new QParameterNamed1<>(
+      "--format",
+      List.of(),
+      new QConstant("The file format ('csv' or 'ndjson')."),
+      Optional.of("csv"),
+      String.class
+    );
+
+  private static final QParameterNamed1<Integer> BATCH_SIZE =
+    new QParameterNamed1<>(
+      "--batch-size",
+      List.of(),
+      new QConstant("The number of users sent to the server per command."),
+      Optional.of(Integer.valueOf(1000)),
+      Integer.class
+    );
+
+  private static final QParameterNamed1<Duration> COMMAND_TIMEOUT =
+    new QParameterNamed1<>(
+      "--command-timeout",
+      List.of(),
+      new QConstant("The timeout for each command sent to the server."),
+      Optional.of(Duration.ofMinutes(5L)),
+      Duration.class
+    );
+
+  private final QCommandMetadata metadata;
+
+  /**
+   * The "user-import" command.
+   */
+
+  public IdMCmdUserImport()
+  {
+    this.metadata = new QCommandMetadata(
+      "user-import",
+      new QConstant("Import users from a file."),
+      Optional.empty()
+    );
+  }
+
+  @Override
+  public List<QParameterNamedType<?>> onListNamedParameters()
+  {
+    return Stream.concat(
+      Stream.of(
+        BATCH_SIZE,
+        COMMAND_TIMEOUT,
+        FILE,
+        FORMAT,
+        PASSWORD,
+        SERVER,
+        USERNAME
+      ),
+      QLogback.parameters().stream()
+    ).toList();
+  }
+
+  @Override
+  public QCommandStatus onExecute(
+    final QCommandContextType context)
+    throws Exception
+  {
+    QLogback.configure(context);
+
+    final var configuration =
+      new IdAUserImportConfiguration(
+        Locale.getDefault(),
+        new URI(context.parameterValue(SERVER)),
+        context.parameterValue(USERNAME),
+        context.parameterValue(PASSWORD),
+        context.parameterValue(FILE),
+        context.parameterValue(FORMAT),
+        context.parameterValue(BATCH_SIZE).intValue(),
+        context.parameterValue(COMMAND_TIMEOUT)
+      );
+
+    final var ok =
+      IdAUserImports.importUsers(configuration, context.output());
+    return ok ? SUCCESS : FAILURE;
+  }
+
+  @Override
+  public QCommandMetadata metadata()
+  {
+    return this.metadata;
+  }
+}
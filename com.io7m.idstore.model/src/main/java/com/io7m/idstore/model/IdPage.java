@@ -18,14 +18,19 @@ package com.io7m.idstore.model;
 
 import java.util.List;
 import java.util.Objects;
+import java.util.Optional;
 
 /**
  * A page of items.
  *
  * @param items           The items
- * @param pageIndex       The page index (starting at 0)
+ * @param pageIndex       The page index (starting at 1)
  * @param pageCount       The total page count
  * @param pageFirstOffset The offset of the first item in the list
+ * @param cursor          An opaque cursor that identifies this page, and that
+ *                        can be used to retrieve the pages either side of it
+ * @param pageCountApproximate {@code true} if the page count is an estimate
+ *                             rather than an exact count
  * @param <T>             The type of data
  */
 
@@ -33,14 +38,81 @@ public record IdPage<T>(
   List<T> items,
   int pageIndex,
   int pageCount,
-  long pageFirstOffset)
+  long pageFirstOffset,
+  Optional<String> cursor,
+  boolean pageCountApproximate)
 {
   /**
    * A page of items.
+   *
+   * @param items           The items
+   * @param pageIndex       The page index (starting at 1)
+   * @param pageCount       The total page count
+   * @param pageFirstOffset The offset of the first item in the list
+   * @param cursor          An opaque cursor that identifies this page
+   * @param pageCountApproximate {@code true} if the page count is an estimate
    */
 
   public IdPage
   {
     Objects.requireNonNull(items, "items");
+    Objects.requireNonNull(cursor, "cursor");
+  }
+
+  /**
+   * A page of items with an exact page count.
+   *
+   * @param items           The items
+   * @param pageIndex       The page index (starting at 1)
+   * @param pageCount       The total page count
+   * @param pageFirstOffset The offset of the first item in the list
+   * @param cursor          An opaque cursor that identifies this page
+   */
+
+  public IdPage(
+    final List<T> items,
+    final int pageIndex,
+    final int pageCount,
+    final long pageFirstOffset,
+    final Optional<String> cursor)
+  {
+    this(items, pageIndex, pageCount, pageFirstOffset, cursor, false);
+  }
+
+  /**
+   * A page of items without a cursor, with an exact page count.
+   *
+   * @param items           The items
+   * @param pageIndex       The page index (starting at 1)
+   * @param pageCount       The total page count
+   * @param pageFirstOffset The offset of the first item in the list
+   */
+
+  public IdPage(
+    final List<T> items,
+    final int pageIndex,
+    final int pageCount,
+    final long pageFirstOffset)
+  {
+    this(items, pageIndex, pageCount, pageFirstOffset, Optional.empty());
+  }
+
+  /**
+   * @param newCursor The cursor
+   *
+   * @return This page with the given cursor
+   */
+
+  public IdPage<T> withCursor(
+    final String newCursor)
+  {
+    return new IdPage<>(
+      this.items,
+      this.pageIndex,
+      this.pageCount,
+      this.pageFirstOffset,
+      Optional.of(newCursor),
+      this.pageCountApproximate
+    );
   }
 }
@@ -0,0 +1,56 @@
+/*
+ * Copyright © 2024 Mark Raynsford <code@io7m.com> https://www.io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+
+package com.io7m.idstore.model;
+
+import com.io7m.idstore.error_codes.IdErrorCode;
+
+import java.util.Objects;
+
+/**
+ * An error that prevented a single user from being imported.
+ *
+ * @param index     The index of the user in the imported list
+ * @param errorCode The error code
+ * @param message   The error message
+ */
+
+public record IdUserImportError(
+  int index,
+  IdErrorCode errorCode,
+  String message)
+{
+  /**
+   * An error that prevented a single user from being imported.
+   *
+   * @param index     The index of the user in the imported list
+   * @param errorCode The error code
+   * @param message   The error message
+   */
+
+  public IdUserImportError
+  {
+    Objects.requireNonNull(errorCode, "errorCode");
+    Objects.requireNonNull(message, "message");
+
+    if (index < 0) {
+      throw new IdValidityException(
+        "Index %d must be non-negative.".formatted(Integer.valueOf(index))
+      );
+    }
+  }
+}
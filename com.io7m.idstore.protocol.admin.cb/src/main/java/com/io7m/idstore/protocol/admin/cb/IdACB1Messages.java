@@ -18,8 +18,10 @@
 package com.io7m.idstore.protocol.admin.cb;
 
 import com.io7m.cedarbridge.runtime.api.CBProtocolMessageVersionedSerializerType;
+import com.io7m.cedarbridge.runtime.api.CBSerializationContextType;
 import com.io7m.cedarbridge.runtime.bssio.CBSerializationContextBSSIO;
 import com.io7m.idstore.protocol.admin.IdAMessageType;
+import com.io7m.idstore.protocol.api.IdProtocolBufferPool;
 import com.io7m.idstore.protocol.api.IdProtocolException;
 import com.io7m.idstore.protocol.api.IdProtocolMessagesType;
 import com.io7m.jbssio.api.BSSReaderProviderType;
@@ -28,9 +30,12 @@ import com.io7m.jbssio.vanilla.BSSReaders;
 import com.io7m.jbssio.vanilla.BSSWriters;
 import com.io7m.repetoir.core.RPServiceType;
 
-import java.io.ByteArrayOutputStream;
+import java.io.EOFException;
 import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
 import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
 import java.util.Map;
 import java.util.Objects;
 import java.util.Optional;
@@ -55,10 +60,24 @@ public final class IdACB1Messages
   public static final String CONTENT_TYPE =
     "application/idstore_admin+cedarbridge";
 
+  /**
+   * The content type for streams of length-prefixed protocol messages.
+   */
+
+  public static final String CONTENT_TYPE_STREAM =
+    "application/idstore_admin+cedarbridge-stream";
+
+  /**
+   * The maximum size of a single frame in a message stream.
+   */
+
+  public static final int FRAME_SIZE_MAXIMUM = 16777216;
+
   private final BSSReaderProviderType readers;
   private final BSSWriterProviderType writers;
   private final IdACB1Validation validator;
   private final CBProtocolMessageVersionedSerializerType<ProtocolIdAType> serializer;
+  private final IdProtocolBufferPool buffers;
 
   /**
    * The protocol messages for Admin v1 Cedarbridge.
@@ -77,6 +96,7 @@ public final class IdACB1Messages
       Objects.requireNonNull(inWriters, "writers");
 
     this.validator = new IdACB1Validation();
+    this.buffers = IdProtocolBufferPool.createDefault();
     this.serializer =
       PROTOCOL.serializerForProtocolVersion(1L)
         .orElseThrow(() -> {
@@ -102,6 +122,15 @@ public final class IdACB1Messages
     return CONTENT_TYPE;
   }
 
+  /**
+   * @return The content type for streams of length-prefixed messages
+   */
+
+  public static String contentTypeStream()
+  {
+    return CONTENT_TYPE_STREAM;
+  }
+
   /**
    * @return The protocol identifier
    */
@@ -116,9 +145,25 @@ public final class IdACB1Messages
     final byte[] data)
     throws IdProtocolException
   {
-    final var context =
-      CBSerializationContextBSSIO.createFromByteArray(this.readers, data);
+    return this.parseFrom(
+      CBSerializationContextBSSIO.createFromByteArray(this.readers, data)
+    );
+  }
 
+  @Override
+  public IdAMessageType parse(
+    final InputStream stream)
+    throws IdProtocolException
+  {
+    return this.parseFrom(
+      CBSerializationContextBSSIO.createFromInputStream(this.readers, stream)
+    );
+  }
+
+  private IdAMessageType parseFrom(
+    final CBSerializationContextType context)
+    throws IdProtocolException
+  {
     try {
       return this.validator.convertFromWire(
         (ProtocolIdAv1Type) this.serializer.deserialize(context)
@@ -138,20 +183,103 @@ public final class IdACB1Messages
   public byte[] serialize(
     final IdAMessageType message)
   {
-    try (var output = new ByteArrayOutputStream()) {
-      final var context =
-        CBSerializationContextBSSIO.createFromOutputStream(
-          this.writers,
-          output);
-      this.serializer.serialize(context, this.validator.convertToWire(message));
-      return output.toByteArray();
+    try {
+      return this.buffers.write(output -> this.serialize(message, output));
     } catch (final IOException e) {
       throw new UncheckedIOException(e);
+    }
+  }
+
+  @Override
+  public void serialize(
+    final IdAMessageType message,
+    final OutputStream output)
+    throws IOException
+  {
+    final var context =
+      CBSerializationContextBSSIO.createFromOutputStream(
+        this.writers,
+        output);
+
+    try {
+      this.serializer.serialize(context, this.validator.convertToWire(message));
     } catch (final IdProtocolException e) {
       throw new IllegalStateException(e);
     }
   }
 
+  /**
+   * Serialize the given message to the given stream as a single frame: a
+   * 32-bit big-endian length, followed by the serialized message.
+   *
+   * @param message The message
+   * @param output  The output stream
+   *
+   * @throws IOException On I/O errors
+   * @see #parseFramed(InputStream)
+   */
+
+  public void serializeFramed(
+    final IdAMessageType message,
+    final OutputStream output)
+    throws IOException
+  {
+    final var data = this.serialize(message);
+    output.write(ByteBuffer.allocate(4).putInt(data.length).array());
+    output.write(data);
+  }
+
+  /**
+   * Parse a single frame written by
+   * {@link #serializeFramed(IdAMessageType, OutputStream)} from the given
+   * stream.
+   *
+   * @param input The input stream
+   *
+   * @return The parsed message, or nothing if the stream is at its end
+   *
+   * @throws IdProtocolException If parsing fails, or the stream is truncated
+   */
+
+  public Optional<IdAMessageType> parseFramed(
+    final InputStream input)
+    throws IdProtocolException
+  {
+    try {
+      final var header = input.readNBytes(4);
+      if (header.length == 0) {
+        return Optional.empty();
+      }
+      if (header.length != 4) {
+        throw new EOFException("Truncated frame header.");
+      }
+
+      final var size = ByteBuffer.wrap(header).getInt();
+      if (size < 0 || size > FRAME_SIZE_MAXIMUM) {
+        throw new IOException(
+          "Frame size %s is out of range [0, %s]."
+            .formatted(
+              Integer.toUnsignedString(size),
+              Integer.valueOf(FRAME_SIZE_MAXIMUM))
+        );
+      }
+
+      final var data = input.readNBytes(size);
+      if (data.length != size) {
+        throw new EOFException("Truncated frame.");
+      }
+      return Optional.of(this.parse(data));
+    } catch (final IOException e) {
+      throw new IdProtocolException(
+        requireNonNullElse(e.getMessage(), e.getClass().getSimpleName()),
+        e,
+        IO_ERROR,
+        Map.of(),
+        Optional.empty()
+      );
+    }
+  }
+
   @Override
   public String description()
   {
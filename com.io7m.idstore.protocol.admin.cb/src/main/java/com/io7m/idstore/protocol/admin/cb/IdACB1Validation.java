@@ -18,6 +18,8 @@ package com.io7m.idstore.protocol.admin.cb;
 
 import com.io7m.cedarbridge.runtime.api.CBCore;
 import com.io7m.cedarbridge.runtime.api.CBIntegerUnsigned16;
+import com.io7m.cedarbridge.runtime.api.CBIntegerUnsigned32;
+import com.io7m.cedarbridge.runtime.api.CBList;
 import com.io7m.cedarbridge.runtime.api.CBMap;
 import com.io7m.cedarbridge.runtime.api.CBString;
 import com.io7m.cedarbridge.runtime.api.CBUUID;
@@ -30,6 +32,7 @@ import com.io7m.idstore.model.IdEmail;
 import com.io7m.idstore.model.IdName;
 import com.io7m.idstore.model.IdPasswordException;
 import com.io7m.idstore.model.IdShortHumanToken;
+import com.io7m.idstore.protocol.admin.IdABatchTransactionMode;
 import com.io7m.idstore.protocol.admin.IdACommandAdminBanCreate;
 import com.io7m.idstore.protocol.admin.IdACommandAdminBanDelete;
 import com.io7m.idstore.protocol.admin.IdACommandAdminBanGet;
@@ -50,9 +53,11 @@ import com.io7m.idstore.protocol.admin.IdACommandAdminSearchPrevious;
 import com.io7m.idstore.protocol.admin.IdACommandAdminSelf;
 import com.io7m.idstore.protocol.admin.IdACommandAdminUpdateCredentials;
 import com.io7m.idstore.protocol.admin.IdACommandAdminUpdatePasswordExpiration;
+import com.io7m.idstore.protocol.admin.IdACommandAuditExport;
 import com.io7m.idstore.protocol.admin.IdACommandAuditSearchBegin;
 import com.io7m.idstore.protocol.admin.IdACommandAuditSearchNext;
 import com.io7m.idstore.protocol.admin.IdACommandAuditSearchPrevious;
+import com.io7m.idstore.protocol.admin.IdACommandBatch;
 import com.io7m.idstore.protocol.admin.IdACommandLogin;
 import com.io7m.idstore.protocol.admin.IdACommandMailTest;
 import com.io7m.idstore.protocol.admin.IdACommandMaintenanceModeSet;
@@ -64,8 +69,10 @@ import com.io7m.idstore.protocol.admin.IdACommandUserCreate;
 import com.io7m.idstore.protocol.admin.IdACommandUserDelete;
 import com.io7m.idstore.protocol.admin.IdACommandUserEmailAdd;
 import com.io7m.idstore.protocol.admin.IdACommandUserEmailRemove;
+import com.io7m.idstore.protocol.admin.IdACommandUserExport;
 import com.io7m.idstore.protocol.admin.IdACommandUserGet;
 import com.io7m.idstore.protocol.admin.IdACommandUserGetByEmail;
+import com.io7m.idstore.protocol.admin.IdACommandUserImport;
 import com.io7m.idstore.protocol.admin.IdACommandUserLoginHistory;
 import com.io7m.idstore.protocol.admin.IdACommandUserSearchBegin;
 import com.io7m.idstore.protocol.admin.IdACommandUserSearchByEmailBegin;
@@ -94,9 +101,11 @@ import com.io7m.idstore.protocol.admin.IdAResponseAdminSearchNext;
 import com.io7m.idstore.protocol.admin.IdAResponseAdminSearchPrevious;
 import com.io7m.idstore.protocol.admin.IdAResponseAdminSelf;
 import com.io7m.idstore.protocol.admin.IdAResponseAdminUpdate;
+import com.io7m.idstore.protocol.admin.IdAResponseAuditExport;
 import com.io7m.idstore.protocol.admin.IdAResponseAuditSearchBegin;
 import com.io7m.idstore.protocol.admin.IdAResponseAuditSearchNext;
 import com.io7m.idstore.protocol.admin.IdAResponseAuditSearchPrevious;
+import com.io7m.idstore.protocol.admin.IdAResponseBatch;
 import com.io7m.idstore.protocol.admin.IdAResponseBlame;
 import com.io7m.idstore.protocol.admin.IdAResponseError;
 import com.io7m.idstore.protocol.admin.IdAResponseLogin;
@@ -108,7 +117,9 @@ import com.io7m.idstore.protocol.admin.IdAResponseUserBanDelete;
 import com.io7m.idstore.protocol.admin.IdAResponseUserBanGet;
 import com.io7m.idstore.protocol.admin.IdAResponseUserCreate;
 import com.io7m.idstore.protocol.admin.IdAResponseUserDelete;
+import com.io7m.idstore.protocol.admin.IdAResponseUserExport;
 import com.io7m.idstore.protocol.admin.IdAResponseUserGet;
+import com.io7m.idstore.protocol.admin.IdAResponseUserImport;
 import com.io7m.idstore.protocol.admin.IdAResponseUserLoginHistory;
 import com.io7m.idstore.protocol.admin.IdAResponseUserSearchBegin;
 import com.io7m.idstore.protocol.admin.IdAResponseUserSearchByEmailBegin;
@@ -121,11 +132,13 @@ import com.io7m.idstore.protocol.admin.cb.internal.IdACB1ValidationGeneral;
 import com.io7m.idstore.protocol.api.IdProtocolException;
 import com.io7m.idstore.protocol.api.IdProtocolMessageValidatorType;
 
+import java.util.ArrayList;
 import java.util.Map;
 import java.util.Objects;
 import java.util.Optional;
 import java.util.stream.Collectors;
 
+import static com.io7m.cedarbridge.runtime.api.CBBooleanType.fromBoolean;
 import static com.io7m.cedarbridge.runtime.api.CBCore.string;
 import static com.io7m.cedarbridge.runtime.api.CBOptionType.fromOptional;
 import static com.io7m.idstore.error_codes.IdStandardErrorCodes.PROTOCOL_ERROR;
@@ -210,6 +223,8 @@ import static com.io7m.idstore.protocol.admin.cb.internal.IdACB1ValidationUser.f
 import static com.io7m.idstore.protocol.admin.cb.internal.IdACB1ValidationUser.fromWireCommandUserDelete;
 import static com.io7m.idstore.protocol.admin.cb.internal.IdACB1ValidationUser.fromWireCommandUserEmailAdd;
 import static com.io7m.idstore.protocol.admin.cb.internal.IdACB1ValidationUser.fromWireCommandUserEmailRemove;
+import static com.io7m.idstore.protocol.admin.cb.internal.IdACB1ValidationUser.fromWireCommandUserExport;
+import static com.io7m.idstore.protocol.admin.cb.internal.IdACB1ValidationUser.fromWireCommandUserImport;
 import static com.io7m.idstore.protocol.admin.cb.internal.IdACB1ValidationUser.fromWireCommandUserGet;
 import static com.io7m.idstore.protocol.admin.cb.internal.IdACB1ValidationUser.fromWireCommandUserGetByEmail;
 import static com.io7m.idstore.protocol.admin.cb.internal.IdACB1ValidationUser.fromWireCommandUserSearchBegin;
@@ -224,6 +239,8 @@ import static com.io7m.idstore.protocol.admin.cb.internal.IdACB1ValidationUser.f
 import static com.io7m.idstore.protocol.admin.cb.internal.IdACB1ValidationUser.fromWireResponseUserBanGet;
 import static com.io7m.idstore.protocol.admin.cb.internal.IdACB1ValidationUser.fromWireResponseUserCreate;
 import static com.io7m.idstore.protocol.admin.cb.internal.IdACB1ValidationUser.fromWireResponseUserDelete;
+import static com.io7m.idstore.protocol.admin.cb.internal.IdACB1ValidationUser.fromWireResponseUserExport;
+import static com.io7m.idstore.protocol.admin.cb.internal.IdACB1ValidationUser.fromWireResponseUserImport;
 import static com.io7m.idstore.protocol.admin.cb.internal.IdACB1ValidationUser.fromWireResponseUserGet;
 import static com.io7m.idstore.protocol.admin.cb.internal.IdACB1ValidationUser.fromWireResponseUserSearchBegin;
 import static com.io7m.idstore.protocol.admin.cb.internal.IdACB1ValidationUser.fromWireResponseUserSearchByEmailBegin;
@@ -239,6 +256,8 @@ import static com.io7m.idstore.protocol.admin.cb.internal.IdACB1ValidationUser.t
 import static com.io7m.idstore.protocol.admin.cb.internal.IdACB1ValidationUser.toWireCommandUserDelete;
 import static com.io7m.idstore.protocol.admin.cb.internal.IdACB1ValidationUser.toWireCommandUserEmailAdd;
 import static com.io7m.idstore.protocol.admin.cb.internal.IdACB1ValidationUser.toWireCommandUserEmailRemove;
+import static com.io7m.idstore.protocol.admin.cb.internal.IdACB1ValidationUser.toWireCommandUserExport;
+import static com.io7m.idstore.protocol.admin.cb.internal.IdACB1ValidationUser.toWireCommandUserImport;
 import static com.io7m.idstore.protocol.admin.cb.internal.IdACB1ValidationUser.toWireCommandUserGet;
 import static com.io7m.idstore.protocol.admin.cb.internal.IdACB1ValidationUser.toWireCommandUserGetByEmail;
 import static com.io7m.idstore.protocol.admin.cb.internal.IdACB1ValidationUser.toWireCommandUserSearchBegin;
@@ -253,6 +272,8 @@ import static com.io7m.idstore.protocol.admin.cb.internal.IdACB1ValidationUser.t
 import static com.io7m.idstore.protocol.admin.cb.internal.IdACB1ValidationUser.toWireResponseUserBanGet;
 import static com.io7m.idstore.protocol.admin.cb.internal.IdACB1ValidationUser.toWireResponseUserCreate;
 import static com.io7m.idstore.protocol.admin.cb.internal.IdACB1ValidationUser.toWireResponseUserDelete;
+import static com.io7m.idstore.protocol.admin.cb.internal.IdACB1ValidationUser.toWireResponseUserExport;
+import static com.io7m.idstore.protocol.admin.cb.internal.IdACB1ValidationUser.toWireResponseUserImport;
 import static com.io7m.idstore.protocol.admin.cb.internal.IdACB1ValidationUser.toWireResponseUserGet;
 import static com.io7m.idstore.protocol.admin.cb.internal.IdACB1ValidationUser.toWireResponseUserSearchBegin;
 import static com.io7m.idstore.protocol.admin.cb.internal.IdACB1ValidationUser.toWireResponseUserSearchByEmailBegin;
@@ -312,6 +333,7 @@ public final class IdACB1Validation
         toWireResponseAdminSearchPrevious(c);
       case final IdAResponseAdminSelf c -> toWireResponseAdminSelf(c);
       case final IdAResponseAdminUpdate c -> toWireResponseAdminUpdate(c);
+      case final IdAResponseAuditExport c -> toWireResponseAuditExport(c);
       case final IdAResponseAuditSearchBegin c ->
         toWireResponseAuditSearchBegin(c);
       case final IdAResponseAuditSearchNext c ->
@@ -328,6 +350,8 @@ public final class IdACB1Validation
       case final IdAResponseUserBanGet c -> toWireResponseUserBanGet(c);
       case final IdAResponseUserCreate c -> toWireResponseUserCreate(c);
       case final IdAResponseUserDelete c -> toWireResponseUserDelete(c);
+      case final IdAResponseUserExport c -> toWireResponseUserExport(c);
+      case final IdAResponseUserImport c -> toWireResponseUserImport(c);
       case final IdAResponseUserGet c -> toWireResponseUserGet(c);
       case final IdAResponseUserSearchBegin c ->
         toWireResponseUserSearchBegin(c);
@@ -351,6 +375,7 @@ public final class IdACB1Validation
       case final IdAResponseMailTest c -> toWireResponseMailTest(c);
       case final IdAResponseMaintenanceModeSet c ->
         toWireResponseMaintenanceModeSet(c);
+      case final IdAResponseBatch c -> toWireResponseBatch(c);
     };
   }
 
@@ -381,6 +406,18 @@ public final class IdACB1Validation
     );
   }
 
+  private static IdA1ResponseAuditExport toWireResponseAuditExport(
+    final IdAResponseAuditExport r)
+  {
+    return new IdA1ResponseAuditExport(
+      new CBUUID(r.requestId()),
+      CBLists.ofCollection(
+        r.events(),
+        IdACB1ValidationGeneral::toWireAuditEvent),
+      fromBoolean(r.last())
+    );
+  }
+
   private static IdA1ResponseAuditSearchBegin toWireResponseAuditSearchBegin(
     final IdAResponseAuditSearchBegin r)
   {
@@ -469,22 +506,23 @@ public final class IdACB1Validation
       case final IdACommandAdminSearchByEmailBegin c ->
         toWireCommandAdminSearchByEmailBegin(c);
       case final IdACommandAdminSearchByEmailNext c ->
-        toWireCommandAdminSearchByEmailNext();
+        toWireCommandAdminSearchByEmailNext(c);
       case final IdACommandAdminSearchByEmailPrevious c ->
-        toWireCommandAdminSearchByEmailPrevious();
-      case final IdACommandAdminSearchNext c -> toWireCommandAdminSearchNext();
+        toWireCommandAdminSearchByEmailPrevious(c);
+      case final IdACommandAdminSearchNext c -> toWireCommandAdminSearchNext(c);
       case final IdACommandAdminSearchPrevious c ->
-        toWireCommandAdminSearchPrevious();
+        toWireCommandAdminSearchPrevious(c);
       case final IdACommandAdminSelf c -> toWireCommandAdminSelf();
       case final IdACommandAdminUpdateCredentials c ->
         toWireCommandAdminUpdateCredentials(c);
       case final IdACommandAdminUpdatePasswordExpiration c ->
         toWireCommandAdminUpdatePasswordExpiration(c);
+      case final IdACommandAuditExport c -> toWireCommandAuditExport(c);
       case final IdACommandAuditSearchBegin c ->
         toWireCommandAuditSearchBegin(c);
-      case final IdACommandAuditSearchNext c -> toWireCommandAuditSearchNext();
+      case final IdACommandAuditSearchNext c -> toWireCommandAuditSearchNext(c);
       case final IdACommandAuditSearchPrevious c ->
-        toWireCommandAuditSearchPrevious();
+        toWireCommandAuditSearchPrevious(c);
 
       /*
        * User commands.
@@ -497,18 +535,20 @@ public final class IdACB1Validation
       case final IdACommandUserDelete c -> toWireCommandUserDelete(c);
       case final IdACommandUserEmailAdd c -> toWireCommandUserEmailAdd(c);
       case final IdACommandUserEmailRemove c -> toWireCommandUserEmailRemove(c);
+      case final IdACommandUserExport c -> toWireCommandUserExport(c);
+      case final IdACommandUserImport c -> toWireCommandUserImport(c);
       case final IdACommandUserGet c -> toWireCommandUserGet(c);
       case final IdACommandUserGetByEmail c -> toWireCommandUserGetByEmail(c);
       case final IdACommandUserSearchBegin c -> toWireCommandUserSearchBegin(c);
       case final IdACommandUserSearchByEmailBegin c ->
         toWireCommandUserSearchByEmailBegin(c);
       case final IdACommandUserSearchByEmailNext c ->
-        toWireCommandUserSearchByEmailNext();
+        toWireCommandUserSearchByEmailNext(c);
       case final IdACommandUserSearchByEmailPrevious c ->
-        toWireCommandUserSearchByEmailPrevious();
-      case final IdACommandUserSearchNext c -> toWireCommandUserSearchNext();
+        toWireCommandUserSearchByEmailPrevious(c);
+      case final IdACommandUserSearchNext c -> toWireCommandUserSearchNext(c);
       case final IdACommandUserSearchPrevious c ->
-        toWireCommandUserSearchPrevious();
+        toWireCommandUserSearchPrevious(c);
       case final IdACommandUserUpdateCredentials c ->
         toWireCommandUserUpdateCredentials(c);
       case final IdACommandUserLoginHistory c ->
@@ -523,10 +563,296 @@ public final class IdACB1Validation
       case final IdACommandMailTest c -> toWireCommandMailTest(c);
       case final IdACommandMaintenanceModeSet c ->
         toWireCommandMaintenanceModeSet(c);
+      case final IdACommandBatch c -> toWireCommandBatch(c);
+    };
+  }
+
+  private static IdA1CommandBatch toWireCommandBatch(
+    final IdACommandBatch c)
+    throws IdProtocolException
+  {
+    final var commands =
+      new ArrayList<IdA1BatchCommand>(c.commands().size());
+
+    for (final var command : c.commands()) {
+      commands.add(toWireBatchCommand(command));
+    }
+
+    return new IdA1CommandBatch(
+      toWireBatchTransactionMode(c.mode()),
+      new CBList<>(commands)
+    );
+  }
+
+  private static IdA1BatchTransactionMode toWireBatchTransactionMode(
+    final IdABatchTransactionMode mode)
+  {
+    return switch (mode) {
+      case BATCH_TRANSACTION_SINGLE ->
+        new IdA1BatchTransactionMode.Single();
+      case BATCH_TRANSACTION_PER_COMMAND ->
+        new IdA1BatchTransactionMode.PerCommand();
+    };
+  }
+
+  private static IdA1BatchCommand toWireBatchCommand(
+    final IdACommandType<?> command)
+    throws IdProtocolException
+  {
+    return switch (command) {
+      case final IdACommandAdminBanCreate c ->
+        new IdA1BatchCommand.AdminBanCreate(toWireCommandAdminBanCreate(c));
+      case final IdACommandAdminBanDelete c ->
+        new IdA1BatchCommand.AdminBanDelete(toWireCommandAdminBanDelete(c));
+      case final IdACommandAdminBanGet c ->
+        new IdA1BatchCommand.AdminBanGet(toWireCommandAdminBanGet(c));
+      case final IdACommandAdminCreate c ->
+        new IdA1BatchCommand.AdminCreate(toWireCommandAdminCreate(c));
+      case final IdACommandAdminDelete c ->
+        new IdA1BatchCommand.AdminDelete(toWireCommandAdminDelete(c));
+      case final IdACommandAdminEmailAdd c ->
+        new IdA1BatchCommand.AdminEmailAdd(toWireCommandAdminEmailAdd(c));
+      case final IdACommandAdminEmailRemove c ->
+        new IdA1BatchCommand.AdminEmailRemove(toWireCommandAdminEmailRemove(c));
+      case final IdACommandAdminGet c ->
+        new IdA1BatchCommand.AdminGet(toWireCommandAdminGet(c));
+      case final IdACommandAdminGetByEmail c ->
+        new IdA1BatchCommand.AdminGetByEmail(toWireCommandAdminGetByEmail(c));
+      case final IdACommandAdminPermissionGrant c ->
+        new IdA1BatchCommand.AdminPermissionGrant(
+          toWireCommandAdminPermissionGrant(c));
+      case final IdACommandAdminPermissionRevoke c ->
+        new IdA1BatchCommand.AdminPermissionRevoke(
+          toWireCommandAdminPermissionRevoke(c));
+      case final IdACommandAdminSearchBegin c ->
+        new IdA1BatchCommand.AdminSearchBegin(
+          toWireCommandAdminSearchBegin(c));
+      case final IdACommandAdminSearchByEmailBegin c ->
+        new IdA1BatchCommand.AdminSearchByEmailBegin(
+          toWireCommandAdminSearchByEmailBegin(c));
+      case final IdACommandAdminSearchByEmailNext c ->
+        new IdA1BatchCommand.AdminSearchByEmailNext(
+          toWireCommandAdminSearchByEmailNext(c));
+      case final IdACommandAdminSearchByEmailPrevious c ->
+        new IdA1BatchCommand.AdminSearchByEmailPrevious(
+          toWireCommandAdminSearchByEmailPrevious(c));
+      case final IdACommandAdminSearchNext c ->
+        new IdA1BatchCommand.AdminSearchNext(toWireCommandAdminSearchNext(c));
+      case final IdACommandAdminSearchPrevious c ->
+        new IdA1BatchCommand.AdminSearchPrevious(
+          toWireCommandAdminSearchPrevious(c));
+      case final IdACommandAdminSelf c ->
+        new IdA1BatchCommand.AdminSelf(toWireCommandAdminSelf());
+      case final IdACommandAdminUpdateCredentials c ->
+        new IdA1BatchCommand.AdminUpdateCredentials(
+          toWireCommandAdminUpdateCredentials(c));
+      case final IdACommandAdminUpdatePasswordExpiration c ->
+        new IdA1BatchCommand.AdminUpdatePasswordExpiration(
+          toWireCommandAdminUpdatePasswordExpiration(c));
+      case final IdACommandAuditSearchBegin c ->
+        new IdA1BatchCommand.AuditSearchBegin(
+          toWireCommandAuditSearchBegin(c));
+      case final IdACommandAuditSearchNext c ->
+        new IdA1BatchCommand.AuditSearchNext(toWireCommandAuditSearchNext(c));
+      case final IdACommandAuditSearchPrevious c ->
+        new IdA1BatchCommand.AuditSearchPrevious(
+          toWireCommandAuditSearchPrevious(c));
+      case final IdACommandMailTest c ->
+        new IdA1BatchCommand.MailTest(toWireCommandMailTest(c));
+      case final IdACommandMaintenanceModeSet c ->
+        new IdA1BatchCommand.MaintenanceModeSet(
+          toWireCommandMaintenanceModeSet(c));
+      case final IdACommandUserBanCreate c ->
+        new IdA1BatchCommand.UserBanCreate(toWireCommandUserBanCreate(c));
+      case final IdACommandUserBanDelete c ->
+        new IdA1BatchCommand.UserBanDelete(toWireCommandUserBanDelete(c));
+      case final IdACommandUserBanGet c ->
+        new IdA1BatchCommand.UserBanGet(toWireCommandUserBanGet(c));
+      case final IdACommandUserCreate c ->
+        new IdA1BatchCommand.UserCreate(toWireCommandUserCreate(c));
+      case final IdACommandUserDelete c ->
+        new IdA1BatchCommand.UserDelete(toWireCommandUserDelete(c));
+      case final IdACommandUserEmailAdd c ->
+        new IdA1BatchCommand.UserEmailAdd(toWireCommandUserEmailAdd(c));
+      case final IdACommandUserEmailRemove c ->
+        new IdA1BatchCommand.UserEmailRemove(toWireCommandUserEmailRemove(c));
+      case final IdACommandUserGet c ->
+        new IdA1BatchCommand.UserGet(toWireCommandUserGet(c));
+      case final IdACommandUserGetByEmail c ->
+        new IdA1BatchCommand.UserGetByEmail(toWireCommandUserGetByEmail(c));
+      case final IdACommandUserLoginHistory c ->
+        new IdA1BatchCommand.UserLoginHistory(
+          toWireCommandUserLoginHistory(c));
+      case final IdACommandUserSearchBegin c ->
+        new IdA1BatchCommand.UserSearchBegin(toWireCommandUserSearchBegin(c));
+      case final IdACommandUserSearchByEmailBegin c ->
+        new IdA1BatchCommand.UserSearchByEmailBegin(
+          toWireCommandUserSearchByEmailBegin(c));
+      case final IdACommandUserSearchByEmailNext c ->
+        new IdA1BatchCommand.UserSearchByEmailNext(
+          toWireCommandUserSearchByEmailNext(c));
+      case final IdACommandUserSearchByEmailPrevious c ->
+        new IdA1BatchCommand.UserSearchByEmailPrevious(
+          toWireCommandUserSearchByEmailPrevious(c));
+      case final IdACommandUserSearchNext c ->
+        new IdA1BatchCommand.UserSearchNext(toWireCommandUserSearchNext(c));
+      case final IdACommandUserSearchPrevious c ->
+        new IdA1BatchCommand.UserSearchPrevious(
+          toWireCommandUserSearchPrevious(c));
+      case final IdACommandUserUpdateCredentials c ->
+        new IdA1BatchCommand.UserUpdateCredentials(
+          toWireCommandUserUpdateCredentials(c));
+      case final IdACommandUserUpdatePasswordExpiration c ->
+        new IdA1BatchCommand.UserUpdatePasswordExpiration(
+          toWireCommandUserUpdatePasswordExpiration(c));
+
+      /*
+       * Logins, nested batches, exports, and imports cannot appear inside
+       * a batch.
+       */
+
+      case final IdACommandLogin c -> throw errorNotBatchable(c);
+      case final IdACommandBatch c -> throw errorNotBatchable(c);
+      case final IdACommandAuditExport c -> throw errorNotBatchable(c);
+      case final IdACommandUserExport c -> throw errorNotBatchable(c);
+      case final IdACommandUserImport c -> throw errorNotBatchable(c);
     };
   }
 
-  private static ProtocolIdAv1Type toWireCommandMaintenanceModeSet(
+  private static IdA1ResponseBatch toWireResponseBatch(
+    final IdAResponseBatch r)
+    throws IdProtocolException
+  {
+    final var results =
+      new ArrayList<IdA1BatchResponse>(r.results().size());
+
+    for (final var result : r.results()) {
+      results.add(toWireBatchResponse(result));
+    }
+
+    return new IdA1ResponseBatch(
+      new CBUUID(r.requestId()),
+      fromBoolean(r.committed()),
+      new CBList<>(results)
+    );
+  }
+
+  private static IdA1BatchResponse toWireBatchResponse(
+    final IdAResponseType response)
+    throws IdProtocolException
+  {
+    return switch (response) {
+      case final IdAResponseError c ->
+        new IdA1BatchResponse.Error(toWireResponseError(c));
+      case final IdAResponseAdminBanCreate c ->
+        new IdA1BatchResponse.AdminBanCreate(toWireResponseAdminBanCreate(c));
+      case final IdAResponseAdminBanDelete c ->
+        new IdA1BatchResponse.AdminBanDelete(toWireResponseAdminBanDelete(c));
+      case final IdAResponseAdminBanGet c ->
+        new IdA1BatchResponse.AdminBanGet(toWireResponseAdminBanGet(c));
+      case final IdAResponseAdminCreate c ->
+        new IdA1BatchResponse.AdminCreate(toWireResponseAdminCreate(c));
+      case final IdAResponseAdminDelete c ->
+        new IdA1BatchResponse.AdminDelete(toWireResponseAdminDelete(c));
+      case final IdAResponseAdminGet c ->
+        new IdA1BatchResponse.AdminGet(toWireResponseAdminGet(c));
+      case final IdAResponseAdminSearchBegin c ->
+        new IdA1BatchResponse.AdminSearchBegin(
+          toWireResponseAdminSearchBegin(c));
+      case final IdAResponseAdminSearchByEmailBegin c ->
+        new IdA1BatchResponse.AdminSearchByEmailBegin(
+          toWireResponseAdminSearchByEmailBegin(c));
+      case final IdAResponseAdminSearchByEmailNext c ->
+        new IdA1BatchResponse.AdminSearchByEmailNext(
+          toWireResponseAdminSearchByEmailNext(c));
+      case final IdAResponseAdminSearchByEmailPrevious c ->
+        new IdA1BatchResponse.AdminSearchByEmailPrevious(
+          toWireResponseAdminSearchByEmailPrevious(c));
+      case final IdAResponseAdminSearchNext c ->
+        new IdA1BatchResponse.AdminSearchNext(
+          toWireResponseAdminSearchNext(c));
+      case final IdAResponseAdminSearchPrevious c ->
+        new IdA1BatchResponse.AdminSearchPrevious(
+          toWireResponseAdminSearchPrevious(c));
+      case final IdAResponseAdminSelf c ->
+        new IdA1BatchResponse.AdminSelf(toWireResponseAdminSelf(c));
+      case final IdAResponseAdminUpdate c ->
+        new IdA1BatchResponse.AdminUpdate(toWireResponseAdminUpdate(c));
+      case final IdAResponseAuditSearchBegin c ->
+        new IdA1BatchResponse.AuditSearchBegin(
+          toWireResponseAuditSearchBegin(c));
+      case final IdAResponseAuditSearchNext c ->
+        new IdA1BatchResponse.AuditSearchNext(
+          toWireResponseAuditSearchNext(c));
+      case final IdAResponseAuditSearchPrevious c ->
+        new IdA1BatchResponse.AuditSearchPrevious(
+          toWireResponseAuditSearchPrevious(c));
+      case final IdAResponseMailTest c ->
+        new IdA1BatchResponse.MailTest(toWireResponseMailTest(c));
+      case final IdAResponseMaintenanceModeSet c ->
+        new IdA1BatchResponse.MaintenanceModeSet(
+          toWireResponseMaintenanceModeSet(c));
+      case final IdAResponseUserBanCreate c ->
+        new IdA1BatchResponse.UserBanCreate(toWireResponseUserBanCreate(c));
+      case final IdAResponseUserBanDelete c ->
+        new IdA1BatchResponse.UserBanDelete(toWireResponseUserBanDelete(c));
+      case final IdAResponseUserBanGet c ->
+        new IdA1BatchResponse.UserBanGet(toWireResponseUserBanGet(c));
+      case final IdAResponseUserCreate c ->
+        new IdA1BatchResponse.UserCreate(toWireResponseUserCreate(c));
+      case final IdAResponseUserDelete c ->
+        new IdA1BatchResponse.UserDelete(toWireResponseUserDelete(c));
+      case final IdAResponseUserGet c ->
+        new IdA1BatchResponse.UserGet(toWireResponseUserGet(c));
+      case final IdAResponseUserLoginHistory c ->
+        new IdA1BatchResponse.UserLoginHistory(
+          toWireResponseUserLoginHistory(c));
+      case final IdAResponseUserSearchBegin c ->
+        new IdA1BatchResponse.UserSearchBegin(
+          toWireResponseUserSearchBegin(c));
+      case final IdAResponseUserSearchByEmailBegin c ->
+        new IdA1BatchResponse.UserSearchByEmailBegin(
+          toWireResponseUserSearchByEmailBegin(c));
+      case final IdAResponseUserSearchByEmailNext c ->
+        new IdA1BatchResponse.UserSearchByEmailNext(
+          toWireResponseUserSearchByEmailNext(c));
+      case final IdAResponseUserSearchByEmailPrevious c ->
+        new IdA1BatchResponse.UserSearchByEmailPrevious(
+          toWireResponseUserSearchByEmailPrevious(c));
+      case final IdAResponseUserSearchNext c ->
+        new IdA1BatchResponse.UserSearchNext(toWireResponseUserSearchNext(c));
+      case final IdAResponseUserSearchPrevious c ->
+        new IdA1BatchResponse.UserSearchPrevious(
+          toWireResponseUserSearchPrevious(c));
+      case final IdAResponseUserUpdate c ->
+        new IdA1BatchResponse.UserUpdate(toWireResponseUserUpdate(c));
+
+      /*
+       * Logins, nested batches, exports, and imports cannot appear inside
+       * a batch.
+       */
+
+      case final IdAResponseLogin c -> throw errorNotBatchable(c);
+      case final IdAResponseBatch c -> throw errorNotBatchable(c);
+      case final IdAResponseAuditExport c -> throw errorNotBatchable(c);
+      case final IdAResponseUserExport c -> throw errorNotBatchable(c);
+      case final IdAResponseUserImport c -> throw errorNotBatchable(c);
+    };
+  }
+
+  private static IdProtocolException errorNotBatchable(
+    final IdAMessageType message)
+  {
+    return new IdProtocolException(
+      "Messages of type %s cannot appear inside a batch."
+        .formatted(message.getClass().getSimpleName()),
+      PROTOCOL_ERROR,
+      Map.of(),
+      Optional.empty()
+    );
+  }
+
+  private static IdA1CommandMaintenanceModeSet toWireCommandMaintenanceModeSet(
     final IdACommandMaintenanceModeSet c)
   {
     return new IdA1CommandMaintenanceModeSet(
@@ -534,7 +860,7 @@ public final class IdACB1Validation
     );
   }
 
-  private static ProtocolIdAv1Type toWireCommandMailTest(
+  private static IdA1CommandMailTest toWireCommandMailTest(
     final IdACommandMailTest c)
   {
     return new IdA1CommandMailTest(
@@ -584,14 +910,25 @@ public final class IdACB1Validation
     );
   }
 
-  private static IdA1CommandAuditSearchNext toWireCommandAuditSearchNext()
+  private static IdA1CommandAuditExport toWireCommandAuditExport(
+    final IdACommandAuditExport c)
+  {
+    return new IdA1CommandAuditExport(
+      toWireAuditSearchParameters(c.parameters()),
+      new CBIntegerUnsigned32(Integer.toUnsignedLong(c.fetchSize()))
+    );
+  }
+
+  private static IdA1CommandAuditSearchNext toWireCommandAuditSearchNext(
+    final IdACommandAuditSearchNext c)
   {
-    return new IdA1CommandAuditSearchNext();
+    return new IdA1CommandAuditSearchNext(new CBString(c.cursor()));
   }
 
-  private static IdA1CommandAuditSearchPrevious toWireCommandAuditSearchPrevious()
+  private static IdA1CommandAuditSearchPrevious toWireCommandAuditSearchPrevious(
+    final IdACommandAuditSearchPrevious c)
   {
-    return new IdA1CommandAuditSearchPrevious();
+    return new IdA1CommandAuditSearchPrevious(new CBString(c.cursor()));
   }
 
   private static IdA1CommandAuditSearchBegin toWireCommandAuditSearchBegin(
@@ -727,24 +1064,26 @@ public final class IdACB1Validation
         case final IdA1CommandAdminSearchByEmailBegin c ->
           fromWireCommandAdminSearchByEmailBegin(c);
         case final IdA1CommandAdminSearchByEmailNext c ->
-          fromWireCommandAdminSearchByEmailNext();
+          fromWireCommandAdminSearchByEmailNext(c);
         case final IdA1CommandAdminSearchByEmailPrevious c ->
-          fromWireCommandAdminSearchByEmailPrevious();
+          fromWireCommandAdminSearchByEmailPrevious(c);
         case final IdA1CommandAdminSearchNext c ->
-          fromWireCommandAdminSearchNext();
+          fromWireCommandAdminSearchNext(c);
         case final IdA1CommandAdminSearchPrevious c ->
-          fromWireCommandAdminSearchPrevious();
+          fromWireCommandAdminSearchPrevious(c);
         case final IdA1CommandAdminSelf c -> fromWireCommandAdminSelf();
         case final IdA1CommandAdminUpdateCredentials c ->
           fromWireCommandAdminUpdateCredentials(c);
         case final IdA1CommandAdminUpdatePasswordExpiration c ->
           fromWireCommandAdminUpdatePasswordExpiration(c);
+        case final IdA1CommandAuditExport c ->
+          fromWireCommandAuditExport(c);
         case final IdA1CommandAuditSearchBegin c ->
           fromWireCommandAuditSearchBegin(c);
         case final IdA1CommandAuditSearchNext c ->
-          fromWireCommandAuditSearchNext();
+          fromWireCommandAuditSearchNext(c);
         case final IdA1CommandAuditSearchPrevious c ->
-          fromWireCommandAuditSearchPrevious();
+          fromWireCommandAuditSearchPrevious(c);
 
         /*
          * Admin responses.
@@ -777,6 +1116,8 @@ public final class IdACB1Validation
          * Audit responses.
          */
 
+        case final IdA1ResponseAuditExport c ->
+          fromWireResponseAuditExport(c);
         case final IdA1ResponseAuditSearchBegin c ->
           fromWireResponseAuditSearchBegin(c);
         case final IdA1ResponseAuditSearchNext c ->
@@ -801,18 +1142,20 @@ public final class IdACB1Validation
         case final IdA1CommandUserGet c -> fromWireCommandUserGet(c);
         case final IdA1CommandUserGetByEmail c ->
           fromWireCommandUserGetByEmail(c);
+        case final IdA1CommandUserExport c -> fromWireCommandUserExport(c);
+        case final IdA1CommandUserImport c -> fromWireCommandUserImport(c);
         case final IdA1CommandUserSearchBegin c ->
           fromWireCommandUserSearchBegin(c);
         case final IdA1CommandUserSearchByEmailBegin c ->
           fromWireCommandUserSearchByEmailBegin(c);
         case final IdA1CommandUserSearchByEmailNext c ->
-          fromWireCommandUserSearchByEmailNext();
+          fromWireCommandUserSearchByEmailNext(c);
         case final IdA1CommandUserSearchByEmailPrevious c ->
-          fromWireCommandUserSearchByEmailPrevious();
+          fromWireCommandUserSearchByEmailPrevious(c);
         case final IdA1CommandUserSearchNext c ->
-          fromWireCommandUserSearchNext();
+          fromWireCommandUserSearchNext(c);
         case final IdA1CommandUserSearchPrevious c ->
-          fromWireCommandUserSearchPrevious();
+          fromWireCommandUserSearchPrevious(c);
         case final IdA1CommandUserUpdateCredentials c ->
           fromWireCommandUserUpdateCredentials(c);
         case final IdA1CommandUserUpdatePasswordExpiration c ->
@@ -832,6 +1175,8 @@ public final class IdACB1Validation
         case final IdA1ResponseUserCreate c -> fromWireResponseUserCreate(c);
         case final IdA1ResponseUserDelete c -> fromWireResponseUserDelete(c);
         case final IdA1ResponseUserGet c -> fromWireResponseUserGet(c);
+        case final IdA1ResponseUserExport c -> fromWireResponseUserExport(c);
+        case final IdA1ResponseUserImport c -> fromWireResponseUserImport(c);
         case final IdA1ResponseUserSearchBegin c ->
           fromWireResponseUserSearchBegin(c);
         case final IdA1ResponseUserSearchByEmailBegin c ->
@@ -858,6 +1203,13 @@ public final class IdACB1Validation
           fromWireResponseMaintenanceModeSet(c);
         case final IdA1CommandMaintenanceModeSet c ->
           fromWireCommandMaintenanceModeSet(c);
+
+        /*
+         * Batches.
+         */
+
+        case final IdA1CommandBatch c -> this.fromWireCommandBatch(c);
+        case final IdA1ResponseBatch c -> this.fromWireResponseBatch(c);
       };
     } catch (final Exception e) {
       throw new IdProtocolException(
@@ -872,6 +1224,157 @@ public final class IdACB1Validation
     }
   }
 
+  private IdACommandBatch fromWireCommandBatch(
+    final IdA1CommandBatch c)
+    throws IdProtocolException
+  {
+    final var commands =
+      new ArrayList<IdACommandType<?>>(c.fieldCommands().values().size());
+
+    for (final var command : c.fieldCommands().values()) {
+      commands.add(
+        (IdACommandType<?>) this.convertFromWire(fromWireBatchCommand(command))
+      );
+    }
+
+    return new IdACommandBatch(
+      fromWireBatchTransactionMode(c.fieldMode()),
+      commands
+    );
+  }
+
+  private static IdABatchTransactionMode fromWireBatchTransactionMode(
+    final IdA1BatchTransactionMode mode)
+  {
+    return switch (mode) {
+      case final IdA1BatchTransactionMode.Single m ->
+        IdABatchTransactionMode.BATCH_TRANSACTION_SINGLE;
+      case final IdA1BatchTransactionMode.PerCommand m ->
+        IdABatchTransactionMode.BATCH_TRANSACTION_PER_COMMAND;
+    };
+  }
+
+  private static ProtocolIdAv1Type fromWireBatchCommand(
+    final IdA1BatchCommand c)
+  {
+    return switch (c) {
+      case final IdA1BatchCommand.AdminBanCreate m -> m.fieldCommand();
+      case final IdA1BatchCommand.AdminBanDelete m -> m.fieldCommand();
+      case final IdA1BatchCommand.AdminBanGet m -> m.fieldCommand();
+      case final IdA1BatchCommand.AdminCreate m -> m.fieldCommand();
+      case final IdA1BatchCommand.AdminDelete m -> m.fieldCommand();
+      case final IdA1BatchCommand.AdminEmailAdd m -> m.fieldCommand();
+      case final IdA1BatchCommand.AdminEmailRemove m -> m.fieldCommand();
+      case final IdA1BatchCommand.AdminGet m -> m.fieldCommand();
+      case final IdA1BatchCommand.AdminGetByEmail m -> m.fieldCommand();
+      case final IdA1BatchCommand.AdminPermissionGrant m -> m.fieldCommand();
+      case final IdA1BatchCommand.AdminPermissionRevoke m -> m.fieldCommand();
+      case final IdA1BatchCommand.AdminSearchBegin m -> m.fieldCommand();
+      case final IdA1BatchCommand.AdminSearchByEmailBegin m ->
+        m.fieldCommand();
+      case final IdA1BatchCommand.AdminSearchByEmailNext m -> m.fieldCommand();
+      case final IdA1BatchCommand.AdminSearchByEmailPrevious m ->
+        m.fieldCommand();
+      case final IdA1BatchCommand.AdminSearchNext m -> m.fieldCommand();
+      case final IdA1BatchCommand.AdminSearchPrevious m -> m.fieldCommand();
+      case final IdA1BatchCommand.AdminSelf m -> m.fieldCommand();
+      case final IdA1BatchCommand.AdminUpdateCredentials m -> m.fieldCommand();
+      case final IdA1BatchCommand.AdminUpdatePasswordExpiration m ->
+        m.fieldCommand();
+      case final IdA1BatchCommand.AuditSearchBegin m -> m.fieldCommand();
+      case final IdA1BatchCommand.AuditSearchNext m -> m.fieldCommand();
+      case final IdA1BatchCommand.AuditSearchPrevious m -> m.fieldCommand();
+      case final IdA1BatchCommand.MailTest m -> m.fieldCommand();
+      case final IdA1BatchCommand.MaintenanceModeSet m -> m.fieldCommand();
+      case final IdA1BatchCommand.UserBanCreate m -> m.fieldCommand();
+      case final IdA1BatchCommand.UserBanDelete m -> m.fieldCommand();
+      case final IdA1BatchCommand.UserBanGet m -> m.fieldCommand();
+      case final IdA1BatchCommand.UserCreate m -> m.fieldCommand();
+      case final IdA1BatchCommand.UserDelete m -> m.fieldCommand();
+      case final IdA1BatchCommand.UserEmailAdd m -> m.fieldCommand();
+      case final IdA1BatchCommand.UserEmailRemove m -> m.fieldCommand();
+      case final IdA1BatchCommand.UserGet m -> m.fieldCommand();
+      case final IdA1BatchCommand.UserGetByEmail m -> m.fieldCommand();
+      case final IdA1BatchCommand.UserLoginHistory m -> m.fieldCommand();
+      case final IdA1BatchCommand.UserSearchBegin m -> m.fieldCommand();
+      case final IdA1BatchCommand.UserSearchByEmailBegin m -> m.fieldCommand();
+      case final IdA1BatchCommand.UserSearchByEmailNext m -> m.fieldCommand();
+      case final IdA1BatchCommand.UserSearchByEmailPrevious m ->
+        m.fieldCommand();
+      case final IdA1BatchCommand.UserSearchNext m -> m.fieldCommand();
+      case final IdA1BatchCommand.UserSearchPrevious m -> m.fieldCommand();
+      case final IdA1BatchCommand.UserUpdateCredentials m -> m.fieldCommand();
+      case final IdA1BatchCommand.UserUpdatePasswordExpiration m ->
+        m.fieldCommand();
+    };
+  }
+
+  private IdAResponseBatch fromWireResponseBatch(
+    final IdA1ResponseBatch c)
+    throws IdProtocolException
+  {
+    final var results =
+      new ArrayList<IdAResponseType>(c.fieldResults().values().size());
+
+    for (final var result : c.fieldResults().values()) {
+      results.add(
+        (IdAResponseType) this.convertFromWire(fromWireBatchResponse(result))
+      );
+    }
+
+    return new IdAResponseBatch(
+      c.fieldRequestId().value(),
+      c.fieldCommitted().asBoolean(),
+      results
+    );
+  }
+
+  private static ProtocolIdAv1Type fromWireBatchResponse(
+    final IdA1BatchResponse c)
+  {
+    return switch (c) {
+      case final IdA1BatchResponse.Error m -> m.fieldResponse();
+      case final IdA1BatchResponse.AdminBanCreate m -> m.fieldResponse();
+      case final IdA1BatchResponse.AdminBanDelete m -> m.fieldResponse();
+      case final IdA1BatchResponse.AdminBanGet m -> m.fieldResponse();
+      case final IdA1BatchResponse.AdminCreate m -> m.fieldResponse();
+      case final IdA1BatchResponse.AdminDelete m -> m.fieldResponse();
+      case final IdA1BatchResponse.AdminGet m -> m.fieldResponse();
+      case final IdA1BatchResponse.AdminSearchBegin m -> m.fieldResponse();
+      case final IdA1BatchResponse.AdminSearchByEmailBegin m ->
+        m.fieldResponse();
+      case final IdA1BatchResponse.AdminSearchByEmailNext m ->
+        m.fieldResponse();
+      case final IdA1BatchResponse.AdminSearchByEmailPrevious m ->
+        m.fieldResponse();
+      case final IdA1BatchResponse.AdminSearchNext m -> m.fieldResponse();
+      case final IdA1BatchResponse.AdminSearchPrevious m -> m.fieldResponse();
+      case final IdA1BatchResponse.AdminSelf m -> m.fieldResponse();
+      case final IdA1BatchResponse.AdminUpdate m -> m.fieldResponse();
+      case final IdA1BatchResponse.AuditSearchBegin m -> m.fieldResponse();
+      case final IdA1BatchResponse.AuditSearchNext m -> m.fieldResponse();
+      case final IdA1BatchResponse.AuditSearchPrevious m -> m.fieldResponse();
+      case final IdA1BatchResponse.MailTest m -> m.fieldResponse();
+      case final IdA1BatchResponse.MaintenanceModeSet m -> m.fieldResponse();
+      case final IdA1BatchResponse.UserBanCreate m -> m.fieldResponse();
+      case final IdA1BatchResponse.UserBanDelete m -> m.fieldResponse();
+      case final IdA1BatchResponse.UserBanGet m -> m.fieldResponse();
+      case final IdA1BatchResponse.UserCreate m -> m.fieldResponse();
+      case final IdA1BatchResponse.UserDelete m -> m.fieldResponse();
+      case final IdA1BatchResponse.UserGet m -> m.fieldResponse();
+      case final IdA1BatchResponse.UserLoginHistory m -> m.fieldResponse();
+      case final IdA1BatchResponse.UserSearchBegin m -> m.fieldResponse();
+      case final IdA1BatchResponse.UserSearchByEmailBegin m ->
+        m.fieldResponse();
+      case final IdA1BatchResponse.UserSearchByEmailNext m -> m.fieldResponse();
+      case final IdA1BatchResponse.UserSearchByEmailPrevious m ->
+        m.fieldResponse();
+      case final IdA1BatchResponse.UserSearchNext m -> m.fieldResponse();
+      case final IdA1BatchResponse.UserSearchPrevious m -> m.fieldResponse();
+      case final IdA1BatchResponse.UserUpdate m -> m.fieldResponse();
+    };
+  }
+
   private static IdAMessageType fromWireCommandMaintenanceModeSet(
     final IdA1CommandMaintenanceModeSet c)
   {
@@ -960,6 +1463,20 @@ public final class IdACB1Validation
     );
   }
 
+  private static IdAResponseAuditExport fromWireResponseAuditExport(
+    final IdA1ResponseAuditExport c)
+  {
+    return new IdAResponseAuditExport(
+      c.fieldRequestId().value(),
+      c.fieldEvents()
+        .values()
+        .stream()
+        .map(IdACB1ValidationGeneral::fromWireAuditEvent)
+        .toList(),
+      c.fieldLast().asBoolean()
+    );
+  }
+
   private static IdAResponseAuditSearchBegin fromWireResponseAuditSearchBegin(
     final IdA1ResponseAuditSearchBegin c)
   {
@@ -995,14 +1512,25 @@ public final class IdACB1Validation
     );
   }
 
-  private static IdACommandAuditSearchNext fromWireCommandAuditSearchNext()
+  private static IdACommandAuditExport fromWireCommandAuditExport(
+    final IdA1CommandAuditExport c)
+  {
+    return new IdACommandAuditExport(
+      fromWireAuditSearchParameters(c.fieldParameters()),
+      (int) Math.min(c.fieldFetchSize().value(), Integer.MAX_VALUE)
+    );
+  }
+
+  private static IdACommandAuditSearchNext fromWireCommandAuditSearchNext(
+    final IdA1CommandAuditSearchNext c)
   {
-    return new IdACommandAuditSearchNext();
+    return new IdACommandAuditSearchNext(c.fieldCursor().value());
   }
 
-  private static IdACommandAuditSearchPrevious fromWireCommandAuditSearchPrevious()
+  private static IdACommandAuditSearchPrevious fromWireCommandAuditSearchPrevious(
+    final IdA1CommandAuditSearchPrevious c)
   {
-    return new IdACommandAuditSearchPrevious();
+    return new IdACommandAuditSearchPrevious(c.fieldCursor().value());
   }
 
   private static IdAuditSearchParameters fromWireAuditSearchParameters(
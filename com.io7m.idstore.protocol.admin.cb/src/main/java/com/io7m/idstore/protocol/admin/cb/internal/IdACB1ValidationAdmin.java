@@ -346,14 +346,16 @@ public final class IdACB1ValidationAdmin
     return new IdA1CommandAdminSelf();
   }
 
-  public static IdA1CommandAdminSearchByEmailNext toWireCommandAdminSearchByEmailNext()
+  public static IdA1CommandAdminSearchByEmailNext toWireCommandAdminSearchByEmailNext(
+    final IdACommandAdminSearchByEmailNext c)
   {
-    return new IdA1CommandAdminSearchByEmailNext();
+    return new IdA1CommandAdminSearchByEmailNext(new CBString(c.cursor()));
   }
 
-  public static IdA1CommandAdminSearchByEmailPrevious toWireCommandAdminSearchByEmailPrevious()
+  public static IdA1CommandAdminSearchByEmailPrevious toWireCommandAdminSearchByEmailPrevious(
+    final IdACommandAdminSearchByEmailPrevious c)
   {
-    return new IdA1CommandAdminSearchByEmailPrevious();
+    return new IdA1CommandAdminSearchByEmailPrevious(new CBString(c.cursor()));
   }
 
   public static IdA1CommandAdminSearchByEmailBegin toWireCommandAdminSearchByEmailBegin(
@@ -376,14 +378,16 @@ public final class IdACB1ValidationAdmin
     );
   }
 
-  public static IdA1CommandAdminSearchNext toWireCommandAdminSearchNext()
+  public static IdA1CommandAdminSearchNext toWireCommandAdminSearchNext(
+    final IdACommandAdminSearchNext c)
   {
-    return new IdA1CommandAdminSearchNext();
+    return new IdA1CommandAdminSearchNext(new CBString(c.cursor()));
   }
 
-  public static IdA1CommandAdminSearchPrevious toWireCommandAdminSearchPrevious()
+  public static IdA1CommandAdminSearchPrevious toWireCommandAdminSearchPrevious(
+    final IdACommandAdminSearchPrevious c)
   {
-    return new IdA1CommandAdminSearchPrevious();
+    return new IdA1CommandAdminSearchPrevious(new CBString(c.cursor()));
   }
 
   public static IdA1CommandAdminSearchBegin toWireCommandAdminSearchBegin(
@@ -804,14 +808,16 @@ public final class IdACB1ValidationAdmin
     );
   }
 
-  public static IdACommandAdminSearchNext fromWireCommandAdminSearchNext()
+  public static IdACommandAdminSearchNext fromWireCommandAdminSearchNext(
+    final IdA1CommandAdminSearchNext c)
   {
-    return new IdACommandAdminSearchNext();
+    return new IdACommandAdminSearchNext(c.fieldCursor().value());
   }
 
-  public static IdACommandAdminSearchPrevious fromWireCommandAdminSearchPrevious()
+  public static IdACommandAdminSearchPrevious fromWireCommandAdminSearchPrevious(
+    final IdA1CommandAdminSearchPrevious c)
   {
-    return new IdACommandAdminSearchPrevious();
+    return new IdACommandAdminSearchPrevious(c.fieldCursor().value());
   }
 
   public static IdACommandAdminSearchByEmailBegin fromWireCommandAdminSearchByEmailBegin(
@@ -822,14 +828,16 @@ public final class IdACB1ValidationAdmin
     );
   }
 
-  public static IdACommandAdminSearchByEmailNext fromWireCommandAdminSearchByEmailNext()
+  public static IdACommandAdminSearchByEmailNext fromWireCommandAdminSearchByEmailNext(
+    final IdA1CommandAdminSearchByEmailNext c)
   {
-    return new IdACommandAdminSearchByEmailNext();
+    return new IdACommandAdminSearchByEmailNext(c.fieldCursor().value());
   }
 
-  public static IdACommandAdminSearchByEmailPrevious fromWireCommandAdminSearchByEmailPrevious()
+  public static IdACommandAdminSearchByEmailPrevious fromWireCommandAdminSearchByEmailPrevious(
+    final IdA1CommandAdminSearchByEmailPrevious c)
   {
-    return new IdACommandAdminSearchByEmailPrevious();
+    return new IdACommandAdminSearchByEmailPrevious(c.fieldCursor().value());
   }
 
   public static IdACommandAdminUpdateCredentials fromWireCommandAdminUpdateCredentials(
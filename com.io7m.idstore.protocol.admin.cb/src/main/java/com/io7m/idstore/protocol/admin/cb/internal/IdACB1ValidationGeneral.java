@@ -54,6 +54,7 @@ import java.util.Map;
 import java.util.Optional;
 import java.util.function.Function;
 
+import static com.io7m.cedarbridge.runtime.api.CBBooleanType.fromBoolean;
 import static com.io7m.cedarbridge.runtime.api.CBOptionType.fromOptional;
 import static com.io7m.idstore.error_codes.IdStandardErrorCodes.PROTOCOL_ERROR;
 import static com.io7m.idstore.model.IdOptional.mapPartial;
@@ -78,7 +79,9 @@ public final class IdACB1ValidationGeneral
       new CBList<>(page.items().stream().map(f).toList()),
       new CBIntegerUnsigned32(Integer.toUnsignedLong(page.pageIndex())),
       new CBIntegerUnsigned32(Integer.toUnsignedLong(page.pageCount())),
-      new CBIntegerUnsigned64(page.pageFirstOffset())
+      new CBIntegerUnsigned64(page.pageFirstOffset()),
+      fromOptional(page.cursor().map(CBString::new)),
+      fromBoolean(page.pageCountApproximate())
     );
   }
 
@@ -136,7 +139,9 @@ public final class IdACB1ValidationGeneral
       page.fieldItems().values().stream().map(f).toList(),
       (int) page.fieldPageIndex().value(),
       (int) page.fieldPageCount().value(),
-      page.fieldPageFirstOffset().value()
+      page.fieldPageFirstOffset().value(),
+      page.fieldCursor().asOptional().map(CBString::value),
+      page.fieldPageCountApproximate().asBoolean()
     );
   }
 
@@ -17,11 +17,14 @@
 package com.io7m.idstore.protocol.admin.cb.internal;
 
 import com.io7m.cedarbridge.runtime.api.CBIntegerUnsigned16;
+import com.io7m.cedarbridge.runtime.api.CBIntegerUnsigned32;
 import com.io7m.cedarbridge.runtime.api.CBList;
 import com.io7m.cedarbridge.runtime.api.CBOptionType;
 import com.io7m.cedarbridge.runtime.api.CBSome;
 import com.io7m.cedarbridge.runtime.api.CBString;
 import com.io7m.cedarbridge.runtime.api.CBUUID;
+import com.io7m.cedarbridge.runtime.convenience.CBLists;
+import com.io7m.idstore.error_codes.IdErrorCode;
 import com.io7m.idstore.model.IdEmail;
 import com.io7m.idstore.model.IdName;
 import com.io7m.idstore.model.IdPasswordException;
@@ -29,6 +32,7 @@ import com.io7m.idstore.model.IdRealName;
 import com.io7m.idstore.model.IdUser;
 import com.io7m.idstore.model.IdUserColumn;
 import com.io7m.idstore.model.IdUserColumnOrdering;
+import com.io7m.idstore.model.IdUserImportError;
 import com.io7m.idstore.model.IdUserSearchByEmailParameters;
 import com.io7m.idstore.model.IdUserSearchParameters;
 import com.io7m.idstore.model.IdUserSummary;
@@ -39,8 +43,10 @@ import com.io7m.idstore.protocol.admin.IdACommandUserCreate;
 import com.io7m.idstore.protocol.admin.IdACommandUserDelete;
 import com.io7m.idstore.protocol.admin.IdACommandUserEmailAdd;
 import com.io7m.idstore.protocol.admin.IdACommandUserEmailRemove;
+import com.io7m.idstore.protocol.admin.IdACommandUserExport;
 import com.io7m.idstore.protocol.admin.IdACommandUserGet;
 import com.io7m.idstore.protocol.admin.IdACommandUserGetByEmail;
+import com.io7m.idstore.protocol.admin.IdACommandUserImport;
 import com.io7m.idstore.protocol.admin.IdACommandUserSearchBegin;
 import com.io7m.idstore.protocol.admin.IdACommandUserSearchByEmailBegin;
 import com.io7m.idstore.protocol.admin.IdACommandUserSearchByEmailNext;
@@ -53,7 +59,9 @@ import com.io7m.idstore.protocol.admin.IdAResponseUserBanDelete;
 import com.io7m.idstore.protocol.admin.IdAResponseUserBanGet;
 import com.io7m.idstore.protocol.admin.IdAResponseUserCreate;
 import com.io7m.idstore.protocol.admin.IdAResponseUserDelete;
+import com.io7m.idstore.protocol.admin.IdAResponseUserExport;
 import com.io7m.idstore.protocol.admin.IdAResponseUserGet;
+import com.io7m.idstore.protocol.admin.IdAResponseUserImport;
 import com.io7m.idstore.protocol.admin.IdAResponseUserSearchBegin;
 import com.io7m.idstore.protocol.admin.IdAResponseUserSearchByEmailBegin;
 import com.io7m.idstore.protocol.admin.IdAResponseUserSearchByEmailNext;
@@ -61,6 +69,10 @@ import com.io7m.idstore.protocol.admin.IdAResponseUserSearchByEmailPrevious;
 import com.io7m.idstore.protocol.admin.IdAResponseUserSearchNext;
 import com.io7m.idstore.protocol.admin.IdAResponseUserSearchPrevious;
 import com.io7m.idstore.protocol.admin.IdAResponseUserUpdate;
+import com.io7m.idstore.protocol.admin.IdAUserImport;
+import com.io7m.idstore.protocol.admin.IdAUserImportPasswordHashed;
+import com.io7m.idstore.protocol.admin.IdAUserImportPasswordPlain;
+import com.io7m.idstore.protocol.admin.IdAUserImportPasswordType;
 import com.io7m.idstore.protocol.admin.cb.IdA1CommandUserBanCreate;
 import com.io7m.idstore.protocol.admin.cb.IdA1CommandUserBanDelete;
 import com.io7m.idstore.protocol.admin.cb.IdA1CommandUserBanGet;
@@ -68,8 +80,10 @@ import com.io7m.idstore.protocol.admin.cb.IdA1CommandUserCreate;
 import com.io7m.idstore.protocol.admin.cb.IdA1CommandUserDelete;
 import com.io7m.idstore.protocol.admin.cb.IdA1CommandUserEmailAdd;
 import com.io7m.idstore.protocol.admin.cb.IdA1CommandUserEmailRemove;
+import com.io7m.idstore.protocol.admin.cb.IdA1CommandUserExport;
 import com.io7m.idstore.protocol.admin.cb.IdA1CommandUserGet;
 import com.io7m.idstore.protocol.admin.cb.IdA1CommandUserGetByEmail;
+import com.io7m.idstore.protocol.admin.cb.IdA1CommandUserImport;
 import com.io7m.idstore.protocol.admin.cb.IdA1CommandUserSearchBegin;
 import com.io7m.idstore.protocol.admin.cb.IdA1CommandUserSearchByEmailBegin;
 import com.io7m.idstore.protocol.admin.cb.IdA1CommandUserSearchByEmailNext;
@@ -82,7 +96,9 @@ import com.io7m.idstore.protocol.admin.cb.IdA1ResponseUserBanDelete;
 import com.io7m.idstore.protocol.admin.cb.IdA1ResponseUserBanGet;
 import com.io7m.idstore.protocol.admin.cb.IdA1ResponseUserCreate;
 import com.io7m.idstore.protocol.admin.cb.IdA1ResponseUserDelete;
+import com.io7m.idstore.protocol.admin.cb.IdA1ResponseUserExport;
 import com.io7m.idstore.protocol.admin.cb.IdA1ResponseUserGet;
+import com.io7m.idstore.protocol.admin.cb.IdA1ResponseUserImport;
 import com.io7m.idstore.protocol.admin.cb.IdA1ResponseUserSearchBegin;
 import com.io7m.idstore.protocol.admin.cb.IdA1ResponseUserSearchByEmailBegin;
 import com.io7m.idstore.protocol.admin.cb.IdA1ResponseUserSearchByEmailNext;
@@ -93,11 +109,15 @@ import com.io7m.idstore.protocol.admin.cb.IdA1ResponseUserUpdate;
 import com.io7m.idstore.protocol.admin.cb.IdA1User;
 import com.io7m.idstore.protocol.admin.cb.IdA1UserColumn;
 import com.io7m.idstore.protocol.admin.cb.IdA1UserColumnOrdering;
+import com.io7m.idstore.protocol.admin.cb.IdA1UserImport;
+import com.io7m.idstore.protocol.admin.cb.IdA1UserImportError;
+import com.io7m.idstore.protocol.admin.cb.IdA1UserImportPassword;
 import com.io7m.idstore.protocol.admin.cb.IdA1UserSearchByEmailParameters;
 import com.io7m.idstore.protocol.admin.cb.IdA1UserSearchParameters;
 import com.io7m.idstore.protocol.admin.cb.IdA1UserSummary;
 import com.io7m.idstore.protocol.api.IdProtocolException;
 
+import java.util.ArrayList;
 import java.util.Optional;
 
 import static com.io7m.cedarbridge.runtime.api.CBBooleanType.fromBoolean;
@@ -191,6 +211,16 @@ public final class IdACB1ValidationUser
     );
   }
 
+  public static IdA1ResponseUserExport toWireResponseUserExport(
+    final IdAResponseUserExport r)
+  {
+    return new IdA1ResponseUserExport(
+      new CBUUID(r.requestId()),
+      CBLists.ofCollection(r.users(), IdACB1ValidationUser::toWireUserSummary),
+      fromBoolean(r.last())
+    );
+  }
+
   private static IdA1UserSummary toWireUserSummary(
     final IdUserSummary s)
   {
@@ -296,14 +326,16 @@ public final class IdACB1ValidationUser
     );
   }
 
-  public static IdA1CommandUserSearchByEmailNext toWireCommandUserSearchByEmailNext()
+  public static IdA1CommandUserSearchByEmailNext toWireCommandUserSearchByEmailNext(
+    final IdACommandUserSearchByEmailNext c)
   {
-    return new IdA1CommandUserSearchByEmailNext();
+    return new IdA1CommandUserSearchByEmailNext(new CBString(c.cursor()));
   }
 
-  public static IdA1CommandUserSearchByEmailPrevious toWireCommandUserSearchByEmailPrevious()
+  public static IdA1CommandUserSearchByEmailPrevious toWireCommandUserSearchByEmailPrevious(
+    final IdACommandUserSearchByEmailPrevious c)
   {
-    return new IdA1CommandUserSearchByEmailPrevious();
+    return new IdA1CommandUserSearchByEmailPrevious(new CBString(c.cursor()));
   }
 
   public static IdA1CommandUserSearchByEmailBegin toWireCommandUserSearchByEmailBegin(
@@ -326,14 +358,16 @@ public final class IdACB1ValidationUser
     );
   }
 
-  public static IdA1CommandUserSearchNext toWireCommandUserSearchNext()
+  public static IdA1CommandUserSearchNext toWireCommandUserSearchNext(
+    final IdACommandUserSearchNext c)
   {
-    return new IdA1CommandUserSearchNext();
+    return new IdA1CommandUserSearchNext(new CBString(c.cursor()));
   }
 
-  public static IdA1CommandUserSearchPrevious toWireCommandUserSearchPrevious()
+  public static IdA1CommandUserSearchPrevious toWireCommandUserSearchPrevious(
+    final IdACommandUserSearchPrevious c)
   {
-    return new IdA1CommandUserSearchPrevious();
+    return new IdA1CommandUserSearchPrevious(new CBString(c.cursor()));
   }
 
   public static IdA1CommandUserSearchBegin toWireCommandUserSearchBegin(
@@ -344,6 +378,68 @@ public final class IdACB1ValidationUser
     );
   }
 
+  public static IdA1CommandUserExport toWireCommandUserExport(
+    final IdACommandUserExport c)
+  {
+    return new IdA1CommandUserExport(
+      toWireUserSearchParameters(c.parameters()),
+      new CBIntegerUnsigned32(Integer.toUnsignedLong(c.fetchSize()))
+    );
+  }
+
+  public static IdA1CommandUserImport toWireCommandUserImport(
+    final IdACommandUserImport c)
+  {
+    return new IdA1CommandUserImport(
+      CBLists.ofCollection(c.users(), IdACB1ValidationUser::toWireUserImport)
+    );
+  }
+
+  private static IdA1UserImport toWireUserImport(
+    final IdAUserImport u)
+  {
+    return new IdA1UserImport(
+      fromOptional(u.id().map(CBUUID::new)),
+      new CBString(u.idName().value()),
+      new CBString(u.realName().value()),
+      new CBString(u.email().value()),
+      toWireUserImportPassword(u.password())
+    );
+  }
+
+  private static IdA1UserImportPassword toWireUserImportPassword(
+    final IdAUserImportPasswordType password)
+  {
+    return switch (password) {
+      case final IdAUserImportPasswordHashed h ->
+        new IdA1UserImportPassword.Hashed(toWirePassword(h.password()));
+      case final IdAUserImportPasswordPlain p ->
+        new IdA1UserImportPassword.Plain(new CBString(p.password()));
+    };
+  }
+
+  public static IdA1ResponseUserImport toWireResponseUserImport(
+    final IdAResponseUserImport r)
+  {
+    return new IdA1ResponseUserImport(
+      new CBUUID(r.requestId()),
+      new CBIntegerUnsigned32(Integer.toUnsignedLong(r.created())),
+      CBLists.ofCollection(
+        r.errors(),
+        IdACB1ValidationUser::toWireUserImportError)
+    );
+  }
+
+  private static IdA1UserImportError toWireUserImportError(
+    final IdUserImportError e)
+  {
+    return new IdA1UserImportError(
+      new CBIntegerUnsigned32(Integer.toUnsignedLong(e.index())),
+      new CBString(e.errorCode().id()),
+      new CBString(e.message())
+    );
+  }
+
   private static IdA1UserSearchParameters toWireUserSearchParameters(
     final IdUserSearchParameters parameters)
   {
@@ -670,14 +766,100 @@ public final class IdACB1ValidationUser
     );
   }
 
-  public static IdACommandUserSearchNext fromWireCommandUserSearchNext()
+  public static IdACommandUserExport fromWireCommandUserExport(
+    final IdA1CommandUserExport c)
+  {
+    return new IdACommandUserExport(
+      fromWireUserSearchParameters(c.fieldParameters()),
+      (int) Math.min(c.fieldFetchSize().value(), Integer.MAX_VALUE)
+    );
+  }
+
+  public static IdACommandUserImport fromWireCommandUserImport(
+    final IdA1CommandUserImport c)
+    throws IdPasswordException
+  {
+    final var users =
+      new ArrayList<IdAUserImport>(c.fieldUsers().values().size());
+    for (final var u : c.fieldUsers().values()) {
+      users.add(fromWireUserImport(u));
+    }
+    return new IdACommandUserImport(users);
+  }
+
+  private static IdAUserImport fromWireUserImport(
+    final IdA1UserImport u)
+    throws IdPasswordException
+  {
+    return new IdAUserImport(
+      u.fieldUserId().asOptional().map(CBUUID::value),
+      new IdName(u.fieldIdName().value()),
+      new IdRealName(u.fieldRealName().value()),
+      new IdEmail(u.fieldEmail().value()),
+      fromWireUserImportPassword(u.fieldPassword())
+    );
+  }
+
+  private static IdAUserImportPasswordType fromWireUserImportPassword(
+    final IdA1UserImportPassword password)
+    throws IdPasswordException
+  {
+    return switch (password) {
+      case final IdA1UserImportPassword.Hashed h ->
+        new IdAUserImportPasswordHashed(fromWirePassword(h.fieldPassword()));
+      case final IdA1UserImportPassword.Plain p ->
+        new IdAUserImportPasswordPlain(p.fieldPassword().value());
+    };
+  }
+
+  public static IdAResponseUserImport fromWireResponseUserImport(
+    final IdA1ResponseUserImport c)
+  {
+    return new IdAResponseUserImport(
+      c.fieldRequestId().value(),
+      (int) Math.min(c.fieldCreated().value(), Integer.MAX_VALUE),
+      c.fieldErrors()
+        .values()
+        .stream()
+        .map(IdACB1ValidationUser::fromWireUserImportError)
+        .toList()
+    );
+  }
+
+  private static IdUserImportError fromWireUserImportError(
+    final IdA1UserImportError e)
+  {
+    return new IdUserImportError(
+      (int) Math.min(e.fieldIndex().value(), Integer.MAX_VALUE),
+      new IdErrorCode(e.fieldErrorCode().value()),
+      e.fieldMessage().value()
+    );
+  }
+
+  public static IdAResponseUserExport fromWireResponseUserExport(
+    final IdA1ResponseUserExport c)
+  {
+    return new IdAResponseUserExport(
+      c.fieldRequestId().value(),
+      c.fieldUsers()
+        .values()
+        .stream()
+        .map(IdACB1ValidationUser::fromWireUserSummary)
+        .toList(),
+      c.fieldLast().asBoolean()
+    );
+  }
+
+  public static IdACommandUserSearchNext fromWireCommandUserSearchNext(
+    final IdA1CommandUserSearchNext c)
   {
-    return new IdACommandUserSearchNext();
+    return new IdACommandUserSearchNext(c.fieldCursor().value());
   }
 
-  public static IdACommandUserSearchPrevious fromWireCommandUserSearchPrevious()
+  public static IdACommandUserSearchPrevious fromWireCommandUserSearchPrevious(
+    final IdA1CommandUserSearchPrevious c)
   {
-    return new IdACommandUserSearchPrevious();
+    return new IdACommandUserSearchPrevious(c.fieldCursor().value());
   }
 
   public static IdACommandUserSearchByEmailBegin fromWireCommandUserSearchByEmailBegin(
@@ -688,14 +870,16 @@ public final class IdACB1ValidationUser
     );
   }
 
-  public static IdACommandUserSearchByEmailNext fromWireCommandUserSearchByEmailNext()
+  public static IdACommandUserSearchByEmailNext fromWireCommandUserSearchByEmailNext(
+    final IdA1CommandUserSearchByEmailNext c)
   {
-    return new IdACommandUserSearchByEmailNext();
+    return new IdACommandUserSearchByEmailNext(c.fieldCursor().value());
   }
 
-  public static IdACommandUserSearchByEmailPrevious fromWireCommandUserSearchByEmailPrevious()
+  public static IdACommandUserSearchByEmailPrevious fromWireCommandUserSearchByEmailPrevious(
+    final IdA1CommandUserSearchByEmailPrevious c)
   {
-    return new IdACommandUserSearchByEmailPrevious();
+    return new IdACommandUserSearchByEmailPrevious(c.fieldCursor().value());
   }
 
   public static IdACommandUserUpdateCredentials fromWireCommandUserUpdateCredentials(
@@ -16,13 +16,29 @@
 
 package com.io7m.idstore.protocol.admin;
 
+import java.util.Objects;
+
 /**
  * Get the next page of the admin listing.
+ *
+ * @param cursor The cursor of the current page
  */
 
-public record IdACommandAdminSearchByEmailNext()
+public record IdACommandAdminSearchByEmailNext(
+  String cursor)
   implements IdACommandType<IdAResponseAdminSearchByEmailNext>
 {
+  /**
+   * Get the next page of the admin listing.
+   *
+   * @param cursor The cursor of the current page
+   */
+
+  public IdACommandAdminSearchByEmailNext
+  {
+    Objects.requireNonNull(cursor, "cursor");
+  }
+
   @Override
   public Class<IdAResponseAdminSearchByEmailNext> responseClass()
   {
@@ -16,13 +16,29 @@
 
 package com.io7m.idstore.protocol.admin;
 
+import java.util.Objects;
+
 /**
  * Get the previous page of the admin listing.
+ *
+ * @param cursor The cursor of the current page
  */
 
-public record IdACommandAdminSearchByEmailPrevious()
+public record IdACommandAdminSearchByEmailPrevious(
+  String cursor)
   implements IdACommandType<IdAResponseAdminSearchByEmailPrevious>
 {
+  /**
+   * Get the previous page of the admin listing.
+   *
+   * @param cursor The cursor of the current page
+   */
+
+  public IdACommandAdminSearchByEmailPrevious
+  {
+    Objects.requireNonNull(cursor, "cursor");
+  }
+
   @Override
   public Class<IdAResponseAdminSearchByEmailPrevious> responseClass()
   {
@@ -16,13 +16,29 @@
 
 package com.io7m.idstore.protocol.admin;
 
+import java.util.Objects;
+
 /**
  * Get the next page of the admin listing.
+ *
+ * @param cursor The cursor of the current page
  */
 
-public record IdACommandAdminSearchNext()
+public record IdACommandAdminSearchNext(
+  String cursor)
   implements IdACommandType<IdAResponseAdminSearchNext>
 {
+  /**
+   * Get the next page of the admin listing.
+   *
+   * @param cursor The cursor of the current page
+   */
+
+  public IdACommandAdminSearchNext
+  {
+    Objects.requireNonNull(cursor, "cursor");
+  }
+
   @Override
   public Class<IdAResponseAdminSearchNext> responseClass()
   {
@@ -16,13 +16,29 @@
 
 package com.io7m.idstore.protocol.admin;
 
+import java.util.Objects;
+
 /**
  * Get the previous page of the admin listing.
+ *
+ * @param cursor The cursor of the current page
  */
 
-public record IdACommandAdminSearchPrevious()
+public record IdACommandAdminSearchPrevious(
+  String cursor)
   implements IdACommandType<IdAResponseAdminSearchPrevious>
 {
+  /**
+   * Get the previous page of the admin listing.
+   *
+   * @param cursor The cursor of the current page
+   */
+
+  public IdACommandAdminSearchPrevious
+  {
+    Objects.requireNonNull(cursor, "cursor");
+  }
+
   @Override
   public Class<IdAResponseAdminSearchPrevious> responseClass()
   {
@@ -0,0 +1,59 @@
+/*
+ * Copyright © 2024 Mark Raynsford <code@io7m.com> https://www.io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+
+package com.io7m.idstore.protocol.admin;
+
+import com.io7m.idstore.model.IdAuditSearchParameters;
+
+import java.util.Objects;
+
+/**
+ * Export every audit event matching the given parameters. The command is only accepted by the export endpoint, and
+ * the results are delivered as a stream of {@link IdAResponseAuditExport} chunks.
+ *
+ * @param parameters The search parameters (the limit is ignored)
+ * @param fetchSize  The number of events fetched from the database per chunk
+ */
+
+public record IdACommandAuditExport(
+  IdAuditSearchParameters parameters,
+  int fetchSize)
+  implements IdACommandType<IdAResponseAuditExport>
+{
+  /**
+   * Export every audit event matching the given parameters.
+   *
+   * @param parameters The search parameters (the limit is ignored)
+   * @param fetchSize  The number of events fetched from the database per chunk
+   */
+
+  public IdACommandAuditExport
+  {
+    Objects.requireNonNull(parameters, "parameters");
+    if (fetchSize <= 0) {
+      throw new IllegalArgumentException(
+        "Fetch size %d must be positive.".formatted(Integer.valueOf(fetchSize))
+      );
+    }
+  }
+
+  @Override
+  public Class<IdAResponseAuditExport> responseClass()
+  {
+    return IdAResponseAuditExport.class;
+  }
+}
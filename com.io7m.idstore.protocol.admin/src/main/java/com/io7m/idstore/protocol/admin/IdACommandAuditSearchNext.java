@@ -16,13 +16,29 @@
 
 package com.io7m.idstore.protocol.admin;
 
+import java.util.Objects;
+
 /**
  * Get the next page of audit records.
+ *
+ * @param cursor The cursor of the current page
  */
 
-public record IdACommandAuditSearchNext()
+public record IdACommandAuditSearchNext(
+  String cursor)
   implements IdACommandType<IdAResponseAuditSearchNext>
 {
+  /**
+   * Get the next page of audit records.
+   *
+   * @param cursor The cursor of the current page
+   */
+
+  public IdACommandAuditSearchNext
+  {
+    Objects.requireNonNull(cursor, "cursor");
+  }
+
   @Override
   public Class<IdAResponseAuditSearchNext> responseClass()
   {
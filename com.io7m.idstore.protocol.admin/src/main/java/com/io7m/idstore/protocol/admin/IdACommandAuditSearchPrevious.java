@@ -16,13 +16,29 @@
 
 package com.io7m.idstore.protocol.admin;
 
+import java.util.Objects;
+
 /**
  * Get the previous page of audit records.
+ *
+ * @param cursor The cursor of the current page
  */
 
-public record IdACommandAuditSearchPrevious()
+public record IdACommandAuditSearchPrevious(
+  String cursor)
   implements IdACommandType<IdAResponseAuditSearchPrevious>
 {
+  /**
+   * Get the previous page of audit records.
+   *
+   * @param cursor The cursor of the current page
+   */
+
+  public IdACommandAuditSearchPrevious
+  {
+    Objects.requireNonNull(cursor, "cursor");
+  }
+
   @Override
   public Class<IdAResponseAuditSearchPrevious> responseClass()
   {
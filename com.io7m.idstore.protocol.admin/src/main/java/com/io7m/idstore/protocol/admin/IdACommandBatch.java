@@ -0,0 +1,53 @@
+/*
+ * Copyright © 2024 Mark Raynsford <code@io7m.com> https://www.io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+
+package com.io7m.idstore.protocol.admin;
+
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * Execute a list of commands in order.
+ *
+ * @param mode     The transaction mode
+ * @param commands The commands, in execution order
+ */
+
+public record IdACommandBatch(
+  IdABatchTransactionMode mode,
+  List<IdACommandType<?>> commands)
+  implements IdACommandType<IdAResponseBatch>
+{
+  /**
+   * Execute a list of commands in order.
+   *
+   * @param mode     The transaction mode
+   * @param commands The commands, in execution order
+   */
+
+  public IdACommandBatch
+  {
+    Objects.requireNonNull(mode, "mode");
+    commands = List.copyOf(commands);
+  }
+
+  @Override
+  public Class<IdAResponseBatch> responseClass()
+  {
+    return IdAResponseBatch.class;
+  }
+}
@@ -45,9 +45,11 @@ public sealed interface IdACommandType<R extends IdAResponseType>
   IdACommandAdminSelf,
   IdACommandAdminUpdateCredentials,
   IdACommandAdminUpdatePasswordExpiration,
+  IdACommandAuditExport,
   IdACommandAuditSearchBegin,
   IdACommandAuditSearchNext,
   IdACommandAuditSearchPrevious,
+  IdACommandBatch,
   IdACommandLogin,
   IdACommandMailTest,
   IdACommandMaintenanceModeSet,
@@ -58,8 +60,10 @@ public sealed interface IdACommandType<R extends IdAResponseType>
   IdACommandUserDelete,
   IdACommandUserEmailAdd,
   IdACommandUserEmailRemove,
+  IdACommandUserExport,
   IdACommandUserGet,
   IdACommandUserGetByEmail,
+  IdACommandUserImport,
   IdACommandUserLoginHistory,
   IdACommandUserSearchBegin,
   IdACommandUserSearchByEmailBegin,
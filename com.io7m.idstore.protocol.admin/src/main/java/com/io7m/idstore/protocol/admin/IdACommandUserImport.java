@@ -0,0 +1,51 @@
+/*
+ * Copyright © 2024 Mark Raynsford <code@io7m.com> https://www.io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+
+package com.io7m.idstore.protocol.admin;
+
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * Create many users at once. Users that cannot be created are reported
+ * individually in the response, and do not prevent the other users from
+ * being created.
+ *
+ * @param users The users
+ */
+
+public record IdACommandUserImport(
+  List<IdAUserImport> users)
+  implements IdACommandType<IdAResponseUserImport>
+{
+  /**
+   * Create many users at once.
+   *
+   * @param users The users
+   */
+
+  public IdACommandUserImport
+  {
+    users = List.copyOf(Objects.requireNonNull(users, "users"));
+  }
+
+  @Override
+  public Class<IdAResponseUserImport> responseClass()
+  {
+    return IdAResponseUserImport.class;
+  }
+}
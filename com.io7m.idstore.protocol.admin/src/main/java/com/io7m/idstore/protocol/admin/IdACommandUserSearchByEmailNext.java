@@ -16,13 +16,29 @@
 
 package com.io7m.idstore.protocol.admin;
 
+import java.util.Objects;
+
 /**
  * Get the next page of the user listing.
+ *
+ * @param cursor The cursor of the current page
  */
 
-public record IdACommandUserSearchByEmailNext()
+public record IdACommandUserSearchByEmailNext(
+  String cursor)
   implements IdACommandType<IdAResponseUserSearchByEmailNext>
 {
+  /**
+   * Get the next page of the user listing.
+   *
+   * @param cursor The cursor of the current page
+   */
+
+  public IdACommandUserSearchByEmailNext
+  {
+    Objects.requireNonNull(cursor, "cursor");
+  }
+
   @Override
   public Class<IdAResponseUserSearchByEmailNext> responseClass()
   {
@@ -16,13 +16,29 @@
 
 package com.io7m.idstore.protocol.admin;
 
+import java.util.Objects;
+
 /**
  * Get the previous page of the user listing.
+ *
+ * @param cursor The cursor of the current page
  */
 
-public record IdACommandUserSearchByEmailPrevious()
+public record IdACommandUserSearchByEmailPrevious(
+  String cursor)
   implements IdACommandType<IdAResponseUserSearchByEmailPrevious>
 {
+  /**
+   * Get the previous page of the user listing.
+   *
+   * @param cursor The cursor of the current page
+   */
+
+  public IdACommandUserSearchByEmailPrevious
+  {
+    Objects.requireNonNull(cursor, "cursor");
+  }
+
   @Override
   public Class<IdAResponseUserSearchByEmailPrevious> responseClass()
   {
@@ -16,13 +16,29 @@
 
 package com.io7m.idstore.protocol.admin;
 
+import java.util.Objects;
+
 /**
  * Get the next page of the user listing.
+ *
+ * @param cursor The cursor of the current page
  */
 
-public record IdACommandUserSearchNext()
+public record IdACommandUserSearchNext(
+  String cursor)
   implements IdACommandType<IdAResponseUserSearchNext>
 {
+  /**
+   * Get the next page of the user listing.
+   *
+   * @param cursor The cursor of the current page
+   */
+
+  public IdACommandUserSearchNext
+  {
+    Objects.requireNonNull(cursor, "cursor");
+  }
+
   @Override
   public Class<IdAResponseUserSearchNext> responseClass()
   {
@@ -16,13 +16,29 @@
 
 package com.io7m.idstore.protocol.admin;
 
+import java.util.Objects;
+
 /**
  * Get the previous page of the user listing.
+ *
+ * @param cursor The cursor of the current page
  */
 
-public record IdACommandUserSearchPrevious()
+public record IdACommandUserSearchPrevious(
+  String cursor)
   implements IdACommandType<IdAResponseUserSearchPrevious>
 {
+  /**
+   * Get the previous page of the user listing.
+   *
+   * @param cursor The cursor of the current page
+   */
+
+  public IdACommandUserSearchPrevious
+  {
+    Objects.requireNonNull(cursor, "cursor");
+  }
+
   @Override
   public Class<IdAResponseUserSearchPrevious> responseClass()
   {
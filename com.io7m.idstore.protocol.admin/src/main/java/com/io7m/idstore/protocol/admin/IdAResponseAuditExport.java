@@ -0,0 +1,53 @@
+/*
+ * Copyright © 2024 Mark Raynsford <code@io7m.com> https://www.io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+
+package com.io7m.idstore.protocol.admin;
+
+import com.io7m.idstore.model.IdAuditEvent;
+
+import java.util.List;
+import java.util.Objects;
+import java.util.UUID;
+
+/**
+ * A single chunk of the response to {@link IdACommandAuditExport}.
+ *
+ * @param requestId The request ID
+ * @param events    The audit events in this chunk
+ * @param last      {@code true} if this is the last chunk in the stream
+ */
+
+public record IdAResponseAuditExport(
+  UUID requestId,
+  List<IdAuditEvent> events,
+  boolean last)
+  implements IdAResponseType
+{
+  /**
+   * A single chunk of the response to {@link IdACommandAuditExport}.
+   *
+   * @param requestId The request ID
+   * @param events    The audit events in this chunk
+   * @param last      {@code true} if this is the last chunk in the stream
+   */
+
+  public IdAResponseAuditExport
+  {
+    Objects.requireNonNull(requestId, "requestId");
+    events = List.copyOf(events);
+  }
+}
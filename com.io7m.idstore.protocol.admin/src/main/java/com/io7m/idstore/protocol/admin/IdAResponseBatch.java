@@ -0,0 +1,57 @@
+/*
+ * Copyright © 2024 Mark Raynsford <code@io7m.com> https://www.io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+
+package com.io7m.idstore.protocol.admin;
+
+import java.util.List;
+import java.util.Objects;
+import java.util.UUID;
+
+/**
+ * A response to {@link IdACommandBatch}. The results are given in the order
+ * in which the commands were executed. In
+ * {@link IdABatchTransactionMode#BATCH_TRANSACTION_SINGLE} mode, execution
+ * stops at the first failure, and so there may be fewer results than
+ * commands.
+ *
+ * @param requestId The request ID
+ * @param committed {@code true} if the results of every successful command
+ *                  were committed
+ * @param results   The per-command results
+ */
+
+public record IdAResponseBatch(
+  UUID requestId,
+  boolean committed,
+  List<IdAResponseType> results)
+  implements IdAResponseType
+{
+  /**
+   * A response to {@link IdACommandBatch}.
+   *
+   * @param requestId The request ID
+   * @param committed {@code true} if the results of every successful command
+   *                  were committed
+   * @param results   The per-command results
+   */
+
+  public IdAResponseBatch
+  {
+    Objects.requireNonNull(requestId, "requestId");
+    results = List.copyOf(results);
+  }
+}
@@ -38,9 +38,11 @@ public sealed interface IdAResponseType
   IdAResponseAdminSearchPrevious,
   IdAResponseAdminSelf,
   IdAResponseAdminUpdate,
+  IdAResponseAuditExport,
   IdAResponseAuditSearchBegin,
   IdAResponseAuditSearchNext,
   IdAResponseAuditSearchPrevious,
+  IdAResponseBatch,
   IdAResponseError,
   IdAResponseLogin,
   IdAResponseMailTest,
@@ -50,7 +52,9 @@ public sealed interface IdAResponseType
   IdAResponseUserBanGet,
   IdAResponseUserCreate,
   IdAResponseUserDelete,
+  IdAResponseUserExport,
   IdAResponseUserGet,
+  IdAResponseUserImport,
   IdAResponseUserLoginHistory,
   IdAResponseUserSearchBegin,
   IdAResponseUserSearchByEmailBegin,
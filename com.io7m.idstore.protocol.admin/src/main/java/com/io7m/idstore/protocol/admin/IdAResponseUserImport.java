@@ -0,0 +1,50 @@
+/*
+ * Copyright © 2024 Mark Raynsford <code@io7m.com> https://www.io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+
+package com.io7m.idstore.protocol.admin;
+
+import com.io7m.idstore.model.IdUserImportError;
+
+import java.util.List;
+import java.util.Objects;
+import java.util.UUID;
+
+/**
+ * A response to {@link IdACommandUserImport}.
+ *
+ * @param requestId The request ID
+ * @param created   The number of users created
+ * @param errors    The users that could not be created, by index into the
+ *                  list of users in the command
+ */
+
+public record IdAResponseUserImport(
+  UUID requestId,
+  int created,
+  List<IdUserImportError> errors)
+  implements IdAResponseType
+{
+  /**
+   * A response to {@link IdACommandUserImport}.
+   */
+
+  public IdAResponseUserImport
+  {
+    Objects.requireNonNull(requestId, "requestId");
+    errors = List.copyOf(Objects.requireNonNull(errors, "errors"));
+  }
+}
@@ -0,0 +1,170 @@
+/*
+ * Copyright © 2024 Mark Raynsford <code@io7m.com> https://www.io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+
+package com.io7m.idstore.protocol.api;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.concurrent.ArrayBlockingQueue;
+
+/**
+ * A bounded pool of reusable buffers into which messages are serialized.
+ * Serializing into a recycled buffer avoids growing (and repeatedly copying)
+ * a fresh buffer for every message. Buffers that have grown beyond the
+ * retention limit are dropped instead of being returned to the pool, so a
+ * single unusually large message cannot pin memory indefinitely.
+ */
+
+public final class IdProtocolBufferPool
+{
+  /**
+   * The default number of pooled buffers.
+   */
+
+  public static final int DEFAULT_POOLED_BUFFERS = 64;
+
+  /**
+   * The default initial size of buffers.
+   */
+
+  public static final int DEFAULT_INITIAL_SIZE = 4096;
+
+  /**
+   * The default size above which buffers are not returned to the pool.
+   */
+
+  public static final int DEFAULT_RETAINED_SIZE_LIMIT = 1048576;
+
+  private final ArrayBlockingQueue<Buffer> buffers;
+  private final int initialSize;
+  private final int retainedSizeLimit;
+
+  /**
+   * A bounded pool of reusable buffers.
+   *
+   * @param inPooledBuffers     The maximum number of pooled buffers
+   * @param inInitialSize       The initial size of new buffers
+   * @param inRetainedSizeLimit The size above which buffers are discarded
+   */
+
+  public IdProtocolBufferPool(
+    final int inPooledBuffers,
+    final int inInitialSize,
+    final int inRetainedSizeLimit)
+  {
+    if (inPooledBuffers < 1) {
+      throw new IllegalArgumentException(
+        "Pooled buffer count must be positive (got %d)"
+          .formatted(Integer.valueOf(inPooledBuffers))
+      );
+    }
+
+    this.buffers =
+      new ArrayBlockingQueue<>(inPooledBuffers);
+    this.initialSize =
+      Math.max(32, inInitialSize);
+    this.retainedSizeLimit =
+      Math.max(this.initialSize, inRetainedSizeLimit);
+  }
+
+  /**
+   * @return A pool using the default sizes
+   */
+
+  public static IdProtocolBufferPool createDefault()
+  {
+    return new IdProtocolBufferPool(
+      DEFAULT_POOLED_BUFFERS,
+      DEFAULT_INITIAL_SIZE,
+      DEFAULT_RETAINED_SIZE_LIMIT
+    );
+  }
+
+  /**
+   * Borrow a buffer, pass it to the given writer, and return a copy of the
+   * written bytes. The buffer is returned to the pool afterwards.
+   *
+   * @param writer The writer
+   *
+   * @return The written bytes
+   *
+   * @throws IOException On errors
+   */
+
+  public byte[] write(
+    final WriterType writer)
+    throws IOException
+  {
+    var buffer = this.buffers.poll();
+    if (buffer == null) {
+      buffer = new Buffer(this.initialSize);
+    }
+
+    try {
+      writer.write(buffer);
+      return buffer.toByteArray();
+    } finally {
+      if (buffer.capacity() <= this.retainedSizeLimit) {
+        buffer.reset();
+        this.buffers.offer(buffer);
+      }
+    }
+  }
+
+  /**
+   * @return The number of buffers currently available in the pool
+   */
+
+  public int available()
+  {
+    return this.buffers.size();
+  }
+
+  /**
+   * A function that writes to an output stream.
+   */
+
+  @FunctionalInterface
+  public interface WriterType
+  {
+    /**
+     * Write to the given output stream.
+     *
+     * @param output The output stream
+     *
+     * @throws IOException On errors
+     */
+
+    void write(OutputStream output)
+      throws IOException;
+  }
+
+  private static final class Buffer extends ByteArrayOutputStream
+  {
+    Buffer(
+      final int size)
+    {
+      super(size);
+    }
+
+    int capacity()
+    {
+      return this.buf.length;
+    }
+  }
+}
@@ -17,6 +17,10 @@
 
 package com.io7m.idstore.protocol.api;
 
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+
 /**
  * The interface exposed by protocol message handlers.
  *
@@ -38,6 +42,20 @@ public interface IdProtocolMessagesType<T extends IdProtocolMessageType>
   T parse(byte[] data)
     throws IdProtocolException;
 
+  /**
+   * Parse a message from the given stream. The message is decoded as it is
+   * read, without first buffering the entire stream.
+   *
+   * @param stream The stream
+   *
+   * @return A parsed message
+   *
+   * @throws IdProtocolException If parsing fails
+   */
+
+  T parse(InputStream stream)
+    throws IdProtocolException;
+
   /**
    * Serialize the given message to a byte array.
    *
@@ -47,4 +65,18 @@ public interface IdProtocolMessagesType<T extends IdProtocolMessageType>
    */
 
   byte[] serialize(T message);
+
+  /**
+   * Serialize the given message directly to the given stream.
+   *
+   * @param message The message
+   * @param output  The output stream
+   *
+   * @throws IOException On I/O errors
+   */
+
+  void serialize(
+    T message,
+    OutputStream output)
+    throws IOException;
 }
@@ -18,7 +18,9 @@
 package com.io7m.idstore.protocol.user.cb;
 
 import com.io7m.cedarbridge.runtime.api.CBProtocolMessageVersionedSerializerType;
+import com.io7m.cedarbridge.runtime.api.CBSerializationContextType;
 import com.io7m.cedarbridge.runtime.bssio.CBSerializationContextBSSIO;
+import com.io7m.idstore.protocol.api.IdProtocolBufferPool;
 import com.io7m.idstore.protocol.api.IdProtocolException;
 import com.io7m.idstore.protocol.api.IdProtocolMessagesType;
 import com.io7m.idstore.protocol.user.IdUMessageType;
@@ -28,8 +30,9 @@ import com.io7m.jbssio.vanilla.BSSReaders;
 import com.io7m.jbssio.vanilla.BSSWriters;
 import com.io7m.repetoir.core.RPServiceType;
 
-import java.io.ByteArrayOutputStream;
 import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
 import java.util.Map;
 import java.util.Objects;
 import java.util.Optional;
@@ -57,6 +60,7 @@ public final class IdUCB1Messages
   private final BSSWriterProviderType writers;
   private final IdUCB1Validation validator;
   private final CBProtocolMessageVersionedSerializerType<ProtocolIdUType> serializer;
+  private final IdProtocolBufferPool buffers;
 
   /**
    * The protocol messages for Admin v1 Cedarbridge.
@@ -75,6 +79,7 @@ public final class IdUCB1Messages
       Objects.requireNonNull(inWriters, "writers");
 
     this.validator = new IdUCB1Validation();
+    this.buffers = IdProtocolBufferPool.createDefault();
     this.serializer =
       PROTOCOL.serializerForProtocolVersion(1L)
         .orElseThrow(() -> {
@@ -114,9 +119,25 @@ public final class IdUCB1Messages
     final byte[] data)
     throws IdProtocolException
   {
-    final var context =
-      CBSerializationContextBSSIO.createFromByteArray(this.readers, data);
+    return this.parseFrom(
+      CBSerializationContextBSSIO.createFromByteArray(this.readers, data)
+    );
+  }
 
+  @Override
+  public IdUMessageType parse(
+    final InputStream stream)
+    throws IdProtocolException
+  {
+    return this.parseFrom(
+      CBSerializationContextBSSIO.createFromInputStream(this.readers, stream)
+    );
+  }
+
+  private IdUMessageType parseFrom(
+    final CBSerializationContextType context)
+    throws IdProtocolException
+  {
     try {
       return this.validator.convertFromWire(
         (ProtocolIdUv1Type) this.serializer.deserialize(context)
@@ -136,14 +157,27 @@ public final class IdUCB1Messages
   public byte[] serialize(
     final IdUMessageType message)
   {
-    try (var output = new ByteArrayOutputStream()) {
-      final var context =
-        CBSerializationContextBSSIO.createFromOutputStream(
-          this.writers,
-          output);
+    try {
+      return this.buffers.write(output -> this.serialize(message, output));
+    } catch (final IOException e) {
+      throw new IllegalStateException(e);
+    }
+  }
+
+  @Override
+  public void serialize(
+    final IdUMessageType message,
+    final OutputStream output)
+    throws IOException
+  {
+    final var context =
+      CBSerializationContextBSSIO.createFromOutputStream(
+        this.writers,
+        output);
+
+    try {
       this.serializer.serialize(context, this.validator.convertToWire(message));
-      return output.toByteArray();
-    } catch (final IOException | IdProtocolException e) {
+    } catch (final IdProtocolException e) {
       throw new IllegalStateException(e);
     }
   }
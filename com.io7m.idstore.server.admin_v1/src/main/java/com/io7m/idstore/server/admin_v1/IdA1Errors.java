@@ -106,6 +106,28 @@ public final class IdA1Errors
     final IdACB1Messages messages,
     final IdHTTPRequestInformation information,
     final IdCommandExecutionFailure exception)
+  {
+    return new IdHTTPResponseFixedSize(
+      exception.httpStatusCode(),
+      Set.of(),
+      IdACB1Messages.contentType(),
+      messages.serialize(errorOf(information, exception))
+    );
+  }
+
+  /**
+   * Transform a command execution failure into an error response, assigning
+   * blame based on the failure's HTTP status code.
+   *
+   * @param information The request information
+   * @param exception   The exception
+   *
+   * @return An error response
+   */
+
+  public static IdAResponseError errorOf(
+    final IdHTTPRequestInformation information,
+    final IdCommandExecutionFailure exception)
   {
     final IdAResponseBlame blame;
     if (exception.httpStatusCode() < 500) {
@@ -113,12 +135,6 @@ public final class IdA1Errors
     } else {
       blame = IdAResponseBlame.BLAME_SERVER;
     }
-
-    return new IdHTTPResponseFixedSize(
-      exception.httpStatusCode(),
-      Set.of(),
-      IdACB1Messages.contentType(),
-      messages.serialize(errorOf(information, blame, exception))
-    );
+    return errorOf(information, blame, exception);
   }
 }
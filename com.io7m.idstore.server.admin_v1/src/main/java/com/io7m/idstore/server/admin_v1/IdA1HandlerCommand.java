@@ -50,6 +50,8 @@ import java.util.Map;
 import java.util.Optional;
 import java.util.Set;
 
+import static com.io7m.idstore.database.api.IdDatabaseRole.IDSTORE;
+import static com.io7m.idstore.database.api.IdDatabaseRole.IDSTORE_READ_ONLY;
 import static com.io7m.idstore.error_codes.IdStandardErrorCodes.API_MISUSE_ERROR;
 import static com.io7m.idstore.protocol.admin.IdAResponseBlame.BLAME_CLIENT;
 import static com.io7m.idstore.protocol.admin.IdAResponseBlame.BLAME_SERVER;
@@ -98,22 +100,17 @@ public final class IdA1HandlerCommand extends IdHTTPHandlerFunctional
           return withAuthentication(
             services,
             (req1, info1, session, user) -> {
-              return withTransaction(
+              return execute(
                 services,
-                (req2, info2, transaction) -> {
-                  return execute(
-                    services,
-                    req2,
-                    info2,
-                    messages,
-                    telemetry,
-                    limits,
-                    strings,
-                    session,
-                    user,
-                    transaction
-                  );
-                }).execute(req1, info1);
+                req1,
+                info1,
+                messages,
+                telemetry,
+                limits,
+                strings,
+                session,
+                user
+              );
             }).execute(req0, info0);
         }).execute(request, information);
     };
@@ -128,8 +125,7 @@ public final class IdA1HandlerCommand extends IdHTTPHandlerFunctional
     final IdRequestLimits limits,
     final IdStrings strings,
     final IdSessionAdmin session,
-    final IdAdmin user,
-    final IdDatabaseTransactionType transaction)
+    final IdAdmin user)
   {
     try (var input =
            limits.boundedMaximumInput(request, 1048576L)) {
@@ -137,17 +133,32 @@ public final class IdA1HandlerCommand extends IdHTTPHandlerFunctional
       final var message =
         parseMessage(telemetry, messages, input);
 
+      /*
+       * The message is parsed before a database connection is opened so
+       * that read-only commands can be routed to a read replica.
+       */
+
       if (message instanceof final IdACommandType<?> command) {
-        return executeCommand(
+        final var role =
+          IdACommandExecutor.isReadOnly(command)
+            ? IDSTORE_READ_ONLY
+            : IDSTORE;
+
+        return withTransaction(
           services,
-          information,
-          messages,
-          telemetry,
-          session,
-          user,
-          command,
-          transaction
-        );
+          role,
+          (req2, info2, transaction) -> {
+            return executeCommandTransactional(
+              services,
+              info2,
+              messages,
+              telemetry,
+              session,
+              user,
+              command,
+              transaction
+            );
+          }).execute(request, information);
       }
 
       return errorResponseOf(
@@ -167,6 +178,30 @@ public final class IdA1HandlerCommand extends IdHTTPHandlerFunctional
     } catch (final IdRequestLimitExceeded | IdProtocolException e) {
       setSpanErrorCode(e.errorCode());
       return errorResponseOf(messages, information, BLAME_CLIENT, e);
+    }
+  }
+
+  private static IdHTTPResponseType executeCommandTransactional(
+    final RPServiceDirectoryType services,
+    final IdHTTPRequestInformation information,
+    final IdACB1Messages messages,
+    final IdServerTelemetryServiceType telemetry,
+    final IdSessionAdmin session,
+    final IdAdmin user,
+    final IdACommandType<?> command,
+    final IdDatabaseTransactionType transaction)
+  {
+    try {
+      return executeCommand(
+        services,
+        information,
+        messages,
+        telemetry,
+        session,
+        user,
+        command,
+        transaction
+      );
     } catch (final IdDatabaseException e) {
       setSpanErrorCode(e.errorCode());
       return errorResponseOf(messages, information, BLAME_SERVER, e);
@@ -232,7 +267,7 @@ public final class IdA1HandlerCommand extends IdHTTPHandlerFunctional
     final IdServerTelemetryServiceType telemetry,
     final IdACB1Messages messages,
     final InputStream input)
-    throws IOException, IdProtocolException
+    throws IdProtocolException
   {
     final var parseSpan =
       telemetry.tracer()
@@ -240,8 +275,7 @@ public final class IdA1HandlerCommand extends IdHTTPHandlerFunctional
         .startSpan();
 
     try (var ignored = parseSpan.makeCurrent()) {
-      final var data = parseMessageReadData(telemetry, input);
-      return parseMessageDeserialize(telemetry, messages, data);
+      return parseMessageDeserialize(telemetry, messages, input);
     } finally {
       parseSpan.end();
     }
@@ -250,7 +284,7 @@ public final class IdA1HandlerCommand extends IdHTTPHandlerFunctional
   private static IdAMessageType parseMessageDeserialize(
     final IdServerTelemetryServiceType telemetry,
     final IdACB1Messages messages,
-    final byte[] data)
+    final InputStream input)
     throws IdProtocolException
   {
     final var readSpan =
@@ -259,24 +293,7 @@ public final class IdA1HandlerCommand extends IdHTTPHandlerFunctional
         .startSpan();
 
     try (var ignored = readSpan.makeCurrent()) {
-      return messages.parse(data);
-    } finally {
-      readSpan.end();
-    }
-  }
-
-  private static byte[] parseMessageReadData(
-    final IdServerTelemetryServiceType telemetry,
-    final InputStream input)
-    throws IOException
-  {
-    final var readSpan =
-      telemetry.tracer()
-        .spanBuilder("Read")
-        .startSpan();
-
-    try (var ignored = readSpan.makeCurrent()) {
-      return input.readAllBytes();
+      return messages.parse(input);
     } finally {
       readSpan.end();
     }
@@ -0,0 +1,298 @@
+/*
+ * Copyright © 2024 Mark Raynsford <code@io7m.com> https://www.io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+
+package com.io7m.idstore.server.admin_v1;
+
+import com.io7m.idstore.database.api.IdDatabaseException;
+import com.io7m.idstore.database.api.IdDatabaseTransactionType;
+import com.io7m.idstore.model.IdAdmin;
+import com.io7m.idstore.model.IdUserDomain;
+import com.io7m.idstore.protocol.admin.IdACommandBatch;
+import com.io7m.idstore.protocol.admin.IdACommandType;
+import com.io7m.idstore.protocol.admin.IdAResponseBatch;
+import com.io7m.idstore.protocol.admin.IdAResponseError;
+import com.io7m.idstore.protocol.admin.IdAResponseType;
+import com.io7m.idstore.protocol.admin.cb.IdACB1Messages;
+import com.io7m.idstore.protocol.api.IdProtocolException;
+import com.io7m.idstore.server.controller.admin.IdACommandContext;
+import com.io7m.idstore.server.controller.admin.IdACommandExecutor;
+import com.io7m.idstore.server.controller.command_exec.IdCommandExecutionFailure;
+import com.io7m.idstore.server.http.IdHTTPHandlerFunctional;
+import com.io7m.idstore.server.http.IdHTTPHandlerFunctionalCoreType;
+import com.io7m.idstore.server.http.IdHTTPRequestDeadlines;
+import com.io7m.idstore.server.http.IdHTTPRequestInformation;
+import com.io7m.idstore.server.http.IdHTTPResponseFixedSize;
+import com.io7m.idstore.server.http.IdHTTPResponseType;
+import com.io7m.idstore.server.service.reqlimit.IdRequestLimitExceeded;
+import com.io7m.idstore.server.service.reqlimit.IdRequestLimits;
+import com.io7m.idstore.server.service.sessions.IdSessionAdmin;
+import com.io7m.idstore.server.service.telemetry.api.IdServerTelemetryServiceType;
+import com.io7m.idstore.strings.IdStrings;
+import com.io7m.repetoir.core.RPServiceDirectoryType;
+import io.helidon.webserver.http.ServerRequest;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+
+import static com.io7m.idstore.error_codes.IdStandardErrorCodes.API_MISUSE_ERROR;
+import static com.io7m.idstore.protocol.admin.IdAResponseBlame.BLAME_CLIENT;
+import static com.io7m.idstore.protocol.admin.IdAResponseBlame.BLAME_SERVER;
+import static com.io7m.idstore.server.admin_v1.IdA1Errors.errorOf;
+import static com.io7m.idstore.server.admin_v1.IdA1Errors.errorResponseOf;
+import static com.io7m.idstore.server.admin_v1.IdA1HandlerCoreAuthenticated.withAuthentication;
+import static com.io7m.idstore.server.admin_v1.IdA1HandlerCoreTransactional.withTransaction;
+import static com.io7m.idstore.server.http.IdHTTPHandlerCoreInstrumented.withInstrumentation;
+import static com.io7m.idstore.server.service.telemetry.api.IdServerTelemetryServiceType.setSpanErrorCode;
+import static com.io7m.idstore.strings.IdStringConstants.COMMAND_NOT_HERE;
+
+/**
+ * The v1 batch command handler. A batch is authenticated once, and its
+ * commands are executed in order on a single database connection, either in
+ * one transaction or with a commit after each command. When each command is
+ * committed separately, each command is given a fresh request deadline so
+ * that a long batch does not exhaust the deadline of the request as a whole.
+ */
+
+public final class IdA1HandlerCommands extends IdHTTPHandlerFunctional
+{
+  /**
+   * The v1 batch command servlet.
+   *
+   * @param services The services
+   */
+
+  public IdA1HandlerCommands(
+    final RPServiceDirectoryType services)
+  {
+    super(createCore(services));
+  }
+
+  private static IdHTTPHandlerFunctionalCoreType createCore(
+    final RPServiceDirectoryType services)
+  {
+    final var limits =
+      services.requireService(IdRequestLimits.class);
+    final var messages =
+      services.requireService(IdACB1Messages.class);
+    final var strings =
+      services.requireService(IdStrings.class);
+    final var telemetry =
+      services.requireService(IdServerTelemetryServiceType.class);
+
+    return (request, information) -> {
+      return withInstrumentation(
+        services,
+        IdUserDomain.ADMIN,
+        (req0, info0) -> {
+          return withAuthentication(
+            services,
+            (req1, info1, session, user) -> {
+              return withTransaction(
+                services,
+                (req2, info2, transaction) -> {
+                  return execute(
+                    services,
+                    req2,
+                    info2,
+                    messages,
+                    telemetry,
+                    limits,
+                    strings,
+                    session,
+                    user,
+                    transaction
+                  );
+                }).execute(req1, info1);
+            }).execute(req0, info0);
+        }).execute(request, information);
+    };
+  }
+
+  private static IdHTTPResponseType execute(
+    final RPServiceDirectoryType services,
+    final ServerRequest request,
+    final IdHTTPRequestInformation information,
+    final IdACB1Messages messages,
+    final IdServerTelemetryServiceType telemetry,
+    final IdRequestLimits limits,
+    final IdStrings strings,
+    final IdSessionAdmin session,
+    final IdAdmin user,
+    final IdDatabaseTransactionType transaction)
+  {
+    /*
+     * Batches are permitted to be considerably larger than single commands.
+     */
+
+    try (var input =
+           limits.boundedMaximumInput(request, 16777216L)) {
+
+      final var message =
+        messages.parse(input);
+
+      if (message instanceof final IdACommandBatch batch) {
+        final var context =
+          new IdACommandContext(
+            services,
+            information.requestId(),
+            transaction,
+            session,
+            information.remoteAddress(),
+            information.userAgent(),
+            user
+          );
+
+        final var span =
+          telemetry.tracer()
+            .spanBuilder("Batch")
+            .setAttribute("idstore.batch.mode", batch.mode().name())
+            .setAttribute("idstore.batch.size", batch.commands().size())
+            .startSpan();
+
+        try (var ignored = span.makeCurrent()) {
+          return new IdHTTPResponseFixedSize(
+            200,
+            Set.of(),
+            IdACB1Messages.contentType(),
+            messages.serialize(
+              switch (batch.mode()) {
+                case BATCH_TRANSACTION_SINGLE ->
+                  executeSingle(information, context, batch, transaction);
+                case BATCH_TRANSACTION_PER_COMMAND -> executePerCommand(
+                  services.requireService(IdHTTPRequestDeadlines.class),
+                  information,
+                  context,
+                  batch,
+                  transaction
+                );
+              }
+            )
+          );
+        } finally {
+          span.end();
+        }
+      }
+
+      return errorResponseOf(
+        messages,
+        information,
+        BLAME_CLIENT,
+        new IdProtocolException(
+          strings.format(COMMAND_NOT_HERE),
+          API_MISUSE_ERROR,
+          Map.of(),
+          Optional.empty()
+        )
+      );
+
+    } catch (final IOException e) {
+      throw new UncheckedIOException(e);
+    } catch (final IdRequestLimitExceeded | IdProtocolException e) {
+      setSpanErrorCode(e.errorCode());
+      return errorResponseOf(messages, information, BLAME_CLIENT, e);
+    } catch (final IdDatabaseException e) {
+      setSpanErrorCode(e.errorCode());
+      return errorResponseOf(messages, information, BLAME_SERVER, e);
+    }
+  }
+
+  /**
+   * Execute every command in a single transaction. Execution stops at the
+   * first failure, and nothing is committed.
+   */
+
+  private static IdAResponseBatch executeSingle(
+    final IdHTTPRequestInformation information,
+    final IdACommandContext context,
+    final IdACommandBatch batch,
+    final IdDatabaseTransactionType transaction)
+    throws IdDatabaseException
+  {
+    final var executor =
+      new IdACommandExecutor();
+    final var results =
+      new ArrayList<IdAResponseType>(batch.commands().size());
+
+    for (final var command : batch.commands()) {
+      final var result =
+        executeOne(executor, information, context, command);
+
+      results.add(result);
+      if (result instanceof IdAResponseError) {
+        transaction.rollback();
+        return new IdAResponseBatch(information.requestId(), false, results);
+      }
+    }
+
+    transaction.commit();
+    return new IdAResponseBatch(information.requestId(), true, results);
+  }
+
+  /**
+   * Execute each command in its own transaction. Failed commands are rolled
+   * back, and execution continues with the next command. Each command has
+   * its own deadline.
+   */
+
+  private static IdAResponseBatch executePerCommand(
+    final IdHTTPRequestDeadlines deadlines,
+    final IdHTTPRequestInformation information,
+    final IdACommandContext context,
+    final IdACommandBatch batch,
+    final IdDatabaseTransactionType transaction)
+    throws IdDatabaseException
+  {
+    final var executor =
+      new IdACommandExecutor();
+    final var results =
+      new ArrayList<IdAResponseType>(batch.commands().size());
+
+    for (final var command : batch.commands()) {
+      transaction.deadlineSet(deadlines.deadlineForNewRequest());
+
+      final var result =
+        executeOne(executor, information, context, command);
+
+      results.add(result);
+      if (result instanceof IdAResponseError) {
+        transaction.rollback();
+      } else {
+        transaction.commit();
+      }
+    }
+
+    return new IdAResponseBatch(information.requestId(), true, results);
+  }
+
+  private static IdAResponseType executeOne(
+    final IdACommandExecutor executor,
+    final IdHTTPRequestInformation information,
+    final IdACommandContext context,
+    final IdACommandType<?> command)
+  {
+    try {
+      return executor.execute(context, command);
+    } catch (final IdCommandExecutionFailure e) {
+      setSpanErrorCode(e.errorCode());
+      return errorOf(information, e);
+    }
+  }
+}
@@ -17,6 +17,7 @@
 package com.io7m.idstore.server.admin_v1;
 
 import com.io7m.idstore.database.api.IdDatabaseException;
+import com.io7m.idstore.database.api.IdDatabaseRole;
 import com.io7m.idstore.database.api.IdDatabaseType;
 import com.io7m.idstore.protocol.admin.cb.IdACB1Messages;
 import com.io7m.idstore.server.http.IdHTTPHandlerFunctionalCoreTransactionalType;
@@ -40,17 +41,21 @@ public final class IdA1HandlerCoreTransactional
   implements IdHTTPHandlerFunctionalCoreType
 {
   private final IdHTTPHandlerFunctionalCoreTransactionalType core;
+  private final IdDatabaseRole role;
   private final IdDatabaseType database;
   private final IdACB1Messages messages;
 
   private IdA1HandlerCoreTransactional(
     final RPServiceDirectoryType services,
+    final IdDatabaseRole inRole,
     final IdHTTPHandlerFunctionalCoreTransactionalType inCore)
   {
     Objects.requireNonNull(services, "services");
 
     this.core =
       Objects.requireNonNull(inCore, "core");
+    this.role =
+      Objects.requireNonNull(inRole, "role");
     this.database =
       services.requireService(IdDatabaseType.class);
     this.messages =
@@ -68,7 +73,24 @@ public final class IdA1HandlerCoreTransactional
     final RPServiceDirectoryType inServices,
     final IdHTTPHandlerFunctionalCoreTransactionalType inCore)
   {
-    return new IdA1HandlerCoreTransactional(inServices, inCore);
+    return new IdA1HandlerCoreTransactional(inServices, IDSTORE, inCore);
+  }
+
+  /**
+   * @param inServices The services
+   * @param inRole     The database role
+   * @param inCore     The core
+   *
+   * @return A servlet core that executes the given core with a database
+   * transaction in the given role
+   */
+
+  public static IdHTTPHandlerFunctionalCoreType withTransaction(
+    final RPServiceDirectoryType inServices,
+    final IdDatabaseRole inRole,
+    final IdHTTPHandlerFunctionalCoreTransactionalType inCore)
+  {
+    return new IdA1HandlerCoreTransactional(inServices, inRole, inCore);
   }
 
   @Override
@@ -76,8 +98,8 @@ public final class IdA1HandlerCoreTransactional
     final ServerRequest request,
     final IdHTTPRequestInformation information)
   {
-    try (var connection = this.database.openConnection(IDSTORE)) {
-      try (var transaction = connection.openTransaction()) {
+    try (var connection = this.database.openConnection(this.role)) {
+      try (var transaction = information.openTransaction(connection)) {
         return this.core.executeTransactional(
           request,
           information,
@@ -0,0 +1,331 @@
+/*
+ * Copyright © 2024 Mark Raynsford <code@io7m.com> https://www.io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+
+package com.io7m.idstore.server.admin_v1;
+
+import com.io7m.idstore.database.api.IdDatabaseAuditQueriesType;
+import com.io7m.idstore.database.api.IdDatabaseException;
+import com.io7m.idstore.database.api.IdDatabaseExportType;
+import com.io7m.idstore.database.api.IdDatabaseTransactionType;
+import com.io7m.idstore.database.api.IdDatabaseType;
+import com.io7m.idstore.database.api.IdDatabaseUsersQueriesType;
+import com.io7m.idstore.model.IdAdmin;
+import com.io7m.idstore.model.IdUserDomain;
+import com.io7m.idstore.protocol.admin.IdACommandAuditExport;
+import com.io7m.idstore.protocol.admin.IdACommandUserExport;
+import com.io7m.idstore.protocol.admin.IdAResponseAuditExport;
+import com.io7m.idstore.protocol.admin.IdAResponseType;
+import com.io7m.idstore.protocol.admin.IdAResponseUserExport;
+import com.io7m.idstore.protocol.admin.cb.IdACB1Messages;
+import com.io7m.idstore.protocol.api.IdProtocolException;
+import com.io7m.idstore.server.controller.admin.IdACommandContext;
+import com.io7m.idstore.server.http.IdHTTPHandlerFunctional;
+import com.io7m.idstore.server.http.IdHTTPHandlerFunctionalCoreType;
+import com.io7m.idstore.server.http.IdHTTPRequestInformation;
+import com.io7m.idstore.server.http.IdHTTPResponseStreamed;
+import com.io7m.idstore.server.http.IdHTTPResponseType;
+import com.io7m.idstore.server.security.IdSecAdminActionAuditRead;
+import com.io7m.idstore.server.security.IdSecAdminActionUserRead;
+import com.io7m.idstore.server.security.IdSecurityException;
+import com.io7m.idstore.server.service.reqlimit.IdRequestLimitExceeded;
+import com.io7m.idstore.server.service.reqlimit.IdRequestLimits;
+import com.io7m.idstore.server.service.sessions.IdSessionAdmin;
+import com.io7m.idstore.strings.IdStrings;
+import com.io7m.repetoir.core.RPServiceDirectoryType;
+import io.helidon.webserver.http.ServerRequest;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
+
+import static com.io7m.idstore.database.api.IdDatabaseRole.IDSTORE;
+import static com.io7m.idstore.error_codes.IdStandardErrorCodes.API_MISUSE_ERROR;
+import static com.io7m.idstore.protocol.admin.IdAResponseBlame.BLAME_CLIENT;
+import static com.io7m.idstore.protocol.admin.IdAResponseBlame.BLAME_SERVER;
+import static com.io7m.idstore.server.admin_v1.IdA1Errors.errorOf;
+import static com.io7m.idstore.server.admin_v1.IdA1Errors.errorResponseOf;
+import static com.io7m.idstore.server.admin_v1.IdA1HandlerCoreAuthenticated.withAuthentication;
+import static com.io7m.idstore.server.admin_v1.IdA1HandlerCoreTransactional.withTransaction;
+import static com.io7m.idstore.server.http.IdHTTPHandlerCoreInstrumented.withInstrumentation;
+import static com.io7m.idstore.server.service.telemetry.api.IdServerTelemetryServiceType.setSpanErrorCode;
+import static com.io7m.idstore.strings.IdStringConstants.COMMAND_NOT_HERE;
+
+/**
+ * The v1 export handler. The command is authenticated and checked against
+ * the security policy up front, and the results are then streamed to the
+ * client as a series of length-prefixed response frames read from a
+ * server-side database cursor, so that memory use on both sides is bounded
+ * by the fetch size rather than by the size of the result set.
+ */
+
+public final class IdA1HandlerExport extends IdHTTPHandlerFunctional
+{
+  /**
+   * The maximum number of rows fetched from the database per frame.
+   */
+
+  public static final int FETCH_SIZE_MAXIMUM = 10000;
+
+  /**
+   * The v1 export servlet.
+   *
+   * @param services The services
+   */
+
+  public IdA1HandlerExport(
+    final RPServiceDirectoryType services)
+  {
+    super(createCore(services));
+  }
+
+  private static IdHTTPHandlerFunctionalCoreType createCore(
+    final RPServiceDirectoryType services)
+  {
+    final var limits =
+      services.requireService(IdRequestLimits.class);
+    final var messages =
+      services.requireService(IdACB1Messages.class);
+    final var strings =
+      services.requireService(IdStrings.class);
+    final var database =
+      services.requireService(IdDatabaseType.class);
+
+    return (request, information) -> {
+      return withInstrumentation(
+        services,
+        IdUserDomain.ADMIN,
+        (req0, info0) -> {
+          return withAuthentication(
+            services,
+            (req1, info1, session, user) -> {
+              return withTransaction(
+                services,
+                (req2, info2, transaction) -> {
+                  return execute(
+                    services,
+                    req2,
+                    info2,
+                    messages,
+                    limits,
+                    strings,
+                    database,
+                    session,
+                    user,
+                    transaction
+                  );
+                }).execute(req1, info1);
+            }).execute(req0, info0);
+        }).execute(request, information);
+    };
+  }
+
+  private static IdHTTPResponseType execute(
+    final RPServiceDirectoryType services,
+    final ServerRequest request,
+    final IdHTTPRequestInformation information,
+    final IdACB1Messages messages,
+    final IdRequestLimits limits,
+    final IdStrings strings,
+    final IdDatabaseType database,
+    final IdSessionAdmin session,
+    final IdAdmin user,
+    final IdDatabaseTransactionType transaction)
+  {
+    final var context =
+      new IdACommandContext(
+        services,
+        information.requestId(),
+        transaction,
+        session,
+        information.remoteAddress(),
+        information.userAgent(),
+        user
+      );
+
+    try (var input =
+           limits.boundedMaximumInput(request, 1048576L)) {
+
+      final var message =
+        messages.parse(input);
+
+      return switch (message) {
+        case final IdACommandAuditExport c -> {
+          context.securityCheck(new IdSecAdminActionAuditRead(user));
+          yield streamed(
+            messages,
+            information,
+            database,
+            clampFetchSize(c.fetchSize()),
+            (t, fetchSize) -> {
+              return t.queries(IdDatabaseAuditQueriesType.class)
+                .auditEventsExport(c.parameters(), fetchSize);
+            },
+            IdAResponseAuditExport::new
+          );
+        }
+
+        case final IdACommandUserExport c -> {
+          context.securityCheck(new IdSecAdminActionUserRead(user));
+          yield streamed(
+            messages,
+            information,
+            database,
+            clampFetchSize(c.fetchSize()),
+            (t, fetchSize) -> {
+              return t.queries(IdDatabaseUsersQueriesType.class)
+                .userExport(c.parameters(), fetchSize);
+            },
+            IdAResponseUserExport::new
+          );
+        }
+
+        default -> errorResponseOf(
+          messages,
+          information,
+          BLAME_CLIENT,
+          new IdProtocolException(
+            strings.format(COMMAND_NOT_HERE),
+            API_MISUSE_ERROR,
+            Map.of(),
+            Optional.empty()
+          )
+        );
+      };
+
+    } catch (final IOException e) {
+      throw new UncheckedIOException(e);
+    } catch (final IdRequestLimitExceeded | IdProtocolException e) {
+      setSpanErrorCode(e.errorCode());
+      return errorResponseOf(messages, information, BLAME_CLIENT, e);
+    } catch (final IdSecurityException e) {
+      setSpanErrorCode(e.errorCode());
+      return errorResponseOf(messages, information, context.failSecurity(e));
+    }
+  }
+
+  private static int clampFetchSize(
+    final int fetchSize)
+  {
+    return Math.clamp(fetchSize, 1, FETCH_SIZE_MAXIMUM);
+  }
+
+  /**
+   * Produce a streamed response. The writer runs after the request's own
+   * transaction has been closed, and so it opens a separate connection and
+   * transaction that remain open for as long as the cursor is being read.
+   */
+
+  private static <T> IdHTTPResponseType streamed(
+    final IdACB1Messages messages,
+    final IdHTTPRequestInformation information,
+    final IdDatabaseType database,
+    final int fetchSize,
+    final ExportOpenerType<T> opener,
+    final ExportChunkConstructorType<T> chunks)
+  {
+    return new IdHTTPResponseStreamed(
+      200,
+      Set.of(),
+      IdACB1Messages.contentTypeStream(),
+      output -> {
+        writeExport(
+          messages,
+          information,
+          database,
+          fetchSize,
+          opener,
+          chunks,
+          output
+        );
+      }
+    );
+  }
+
+  private static <T> void writeExport(
+    final IdACB1Messages messages,
+    final IdHTTPRequestInformation information,
+    final IdDatabaseType database,
+    final int fetchSize,
+    final ExportOpenerType<T> opener,
+    final ExportChunkConstructorType<T> chunks,
+    final OutputStream output)
+    throws IOException
+  {
+    try (var connection = database.openConnection(IDSTORE)) {
+      try (var transaction = connection.openTransaction()) {
+        try (var export = opener.open(transaction, fetchSize)) {
+          writeChunks(messages, information, export, chunks, output);
+        }
+      }
+    } catch (final IdDatabaseException e) {
+      setSpanErrorCode(e.errorCode());
+      messages.serializeFramed(
+        errorOf(information, BLAME_SERVER, e),
+        output
+      );
+    }
+  }
+
+  /**
+   * Write chunks until a chunk smaller than the fetch size is seen. If the
+   * number of results is an exact multiple of the fetch size, the stream
+   * ends with an empty chunk.
+   */
+
+  private static <T> void writeChunks(
+    final IdACB1Messages messages,
+    final IdHTTPRequestInformation information,
+    final IdDatabaseExportType<T> export,
+    final ExportChunkConstructorType<T> chunks,
+    final OutputStream output)
+    throws IdDatabaseException, IOException
+  {
+    while (true) {
+      final var items = export.next();
+      final var last = items.size() < export.fetchSize();
+      messages.serializeFramed(
+        chunks.create(information.requestId(), items, last),
+        output
+      );
+      output.flush();
+      if (last) {
+        return;
+      }
+    }
+  }
+
+  private interface ExportOpenerType<T>
+  {
+    IdDatabaseExportType<T> open(
+      IdDatabaseTransactionType transaction,
+      int fetchSize)
+      throws IdDatabaseException;
+  }
+
+  private interface ExportChunkConstructorType<T>
+  {
+    IdAResponseType create(
+      UUID requestId,
+      List<T> items,
+      boolean last);
+  }
+}
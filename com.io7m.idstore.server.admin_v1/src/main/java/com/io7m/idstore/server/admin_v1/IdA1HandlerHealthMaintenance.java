@@ -0,0 +1,78 @@
+/*
+ * Copyright © 2024 Mark Raynsford <code@io7m.com> https://www.io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+
+package com.io7m.idstore.server.admin_v1;
+
+import com.io7m.idstore.server.http.IdHTTPHandlerFunctional;
+import com.io7m.idstore.server.http.IdHTTPHandlerFunctionalCoreType;
+import com.io7m.idstore.server.http.IdHTTPResponseFixedSize;
+import com.io7m.idstore.server.http.IdHTTPResponseType;
+import com.io7m.idstore.server.service.maintenance.IdMaintenanceService;
+import com.io7m.repetoir.core.RPServiceDirectoryType;
+
+import java.util.Set;
+
+import static com.io7m.idstore.model.IdUserDomain.ADMIN;
+import static com.io7m.idstore.server.http.IdHTTPHandlerCoreInstrumented.withInstrumentation;
+import static java.nio.charset.StandardCharsets.UTF_8;
+
+/**
+ * The v1 maintenance leadership servlet. This reports whether the server is
+ * the maintenance leader; it is not a health check, and always succeeds.
+ */
+
+public final class IdA1HandlerHealthMaintenance
+  extends IdHTTPHandlerFunctional
+{
+  /**
+   * The v1 maintenance leadership servlet.
+   *
+   * @param services The services
+   */
+
+  public IdA1HandlerHealthMaintenance(
+    final RPServiceDirectoryType services)
+  {
+    super(createCore(services));
+  }
+
+  private static IdHTTPHandlerFunctionalCoreType createCore(
+    final RPServiceDirectoryType services)
+  {
+    final var maintenance =
+      services.requireService(IdMaintenanceService.class);
+
+    final IdHTTPHandlerFunctionalCoreType main =
+      (request, information) -> execute(maintenance);
+
+    return withInstrumentation(services, ADMIN, main);
+  }
+
+  private static IdHTTPResponseType execute(
+    final IdMaintenanceService maintenance)
+  {
+    final var text =
+      maintenance.isLeader() ? "LEADER" : "FOLLOWER";
+
+    return new IdHTTPResponseFixedSize(
+      200,
+      Set.of(),
+      "text/plain",
+      text.getBytes(UTF_8)
+    );
+  }
+}
@@ -31,12 +31,15 @@ import com.io7m.idstore.server.controller.command_exec.IdCommandExecutionFailure
 import com.io7m.idstore.server.http.IdHTTPCookieDeclaration;
 import com.io7m.idstore.server.http.IdHTTPHandlerFunctional;
 import com.io7m.idstore.server.http.IdHTTPHandlerFunctionalCoreType;
+import com.io7m.idstore.server.http.IdHTTPRequestDeadlines;
 import com.io7m.idstore.server.http.IdHTTPRequestInformation;
 import com.io7m.idstore.server.http.IdHTTPResponseFixedSize;
 import com.io7m.idstore.server.http.IdHTTPResponseType;
 import com.io7m.idstore.server.service.configuration.IdServerConfigurationService;
+import com.io7m.idstore.server.service.ratelimit.IdRateLimitAdminLoginServiceType;
 import com.io7m.idstore.server.service.reqlimit.IdRequestLimitExceeded;
 import com.io7m.idstore.server.service.reqlimit.IdRequestLimits;
+import com.io7m.idstore.server.service.telemetry.api.IdServerTelemetryServiceType;
 import com.io7m.idstore.strings.IdStrings;
 import com.io7m.repetoir.core.RPServiceDirectoryType;
 import io.helidon.webserver.http.ServerRequest;
@@ -55,7 +58,7 @@ import static com.io7m.idstore.model.IdLoginMetadataStandard.userAgent;
 import static com.io7m.idstore.protocol.admin.IdAResponseBlame.BLAME_CLIENT;
 import static com.io7m.idstore.protocol.admin.IdAResponseBlame.BLAME_SERVER;
 import static com.io7m.idstore.server.admin_v1.IdA1HandlerCoreTransactional.withTransaction;
-import static com.io7m.idstore.server.http.IdHTTPHandlerCoreFixedDelay.withFixedDelay;
+import static com.io7m.idstore.server.http.IdHTTPDelays.applyDelay;
 import static com.io7m.idstore.server.http.IdHTTPHandlerCoreInstrumented.withInstrumentation;
 import static com.io7m.idstore.server.service.telemetry.api.IdServerTelemetryServiceType.setSpanErrorCode;
 import static com.io7m.idstore.strings.IdStringConstants.COMMAND_NOT_HERE;
@@ -89,14 +92,15 @@ public final class IdA1HandlerLogin extends IdHTTPHandlerFunctional
       services.requireService(IdStrings.class);
     final var logins =
       services.requireService(IdAdminLoginService.class);
+    final var rateLimit =
+      services.requireService(IdRateLimitAdminLoginServiceType.class);
+    final var telemetry =
+      services.requireService(IdServerTelemetryServiceType.class);
+    final var deadlines =
+      services.requireService(IdHTTPRequestDeadlines.class);
     final var configuration =
       services.requireService(IdServerConfigurationService.class);
 
-    final var delay =
-      configuration.configuration()
-        .rateLimit()
-        .adminLoginDelay();
-
     final var sessionDuration =
       configuration.configuration()
         .sessions()
@@ -107,49 +111,63 @@ public final class IdA1HandlerLogin extends IdHTTPHandlerFunctional
         services,
         IdUserDomain.ADMIN,
         (req0, info0) -> {
-          return withFixedDelay(
+          final IdACommandLogin login;
+          try {
+            login = readLoginCommand(strings, limits, messages, req0);
+          } catch (final IOException e) {
+            throw new UncheckedIOException(e);
+          } catch (final IdException e) {
+            setSpanErrorCode(e.errorCode());
+            return IdA1Errors.errorResponseOf(
+              messages,
+              info0,
+              BLAME_CLIENT,
+              e
+            );
+          }
+
+          /*
+           * The delay is applied before a database transaction is opened so
+           * that delayed logins do not hold database connections. The
+           * request's deadline starts again after the delay so that the
+           * delay does not consume the time allowed for database work.
+           */
+
+          applyDelay(
+            telemetry,
+            rateLimit.loginDelay(
+              info0.remoteAddress(),
+              login.userName().value()
+            )
+          );
+
+          return withTransaction(
             services,
-            delay,
-            (req1, info1) -> {
-              return withTransaction(
-                services,
-                (req2, info2, transaction) -> {
-                  return execute(
-                    strings,
-                    limits,
-                    messages,
-                    logins,
-                    req2,
-                    info2,
-                    transaction,
-                    sessionDuration
-                  );
-                }).execute(req1, info1);
-            }).execute(req0, info0);
+            (req1, info1, transaction) -> {
+              return execute(
+                messages,
+                logins,
+                login,
+                info1,
+                transaction,
+                sessionDuration
+              );
+            }).execute(
+              req0,
+              info0.withDeadline(deadlines.deadlineForNewRequest())
+            );
         }).execute(request, information);
     };
   }
 
   private static IdHTTPResponseType execute(
-    final IdStrings strings,
-    final IdRequestLimits limits,
     final IdACB1Messages messages,
     final IdAdminLoginService logins,
-    final ServerRequest request,
+    final IdACommandLogin login,
     final IdHTTPRequestInformation information,
     final IdDatabaseTransactionType transaction,
     final Duration sessionDuration)
   {
-    final IdACommandLogin login;
-    try {
-      login = readLoginCommand(strings, limits, messages, request);
-    } catch (final IOException e) {
-      throw new UncheckedIOException(e);
-    } catch (final IdException e) {
-      setSpanErrorCode(e.errorCode());
-      return IdA1Errors.errorResponseOf(messages, information, BLAME_CLIENT, e);
-    }
-
     final var meta = new HashMap<>(login.metadata());
     meta.put(remoteHost(), information.remoteAddress());
     meta.put(userAgent(), information.userAgent());
@@ -204,8 +222,7 @@ public final class IdA1HandlerLogin extends IdHTTPHandlerFunctional
     throws IOException, IdRequestLimitExceeded, IdProtocolException
   {
     try (var input = limits.boundedMaximumInput(request, 1024L)) {
-      final var data = input.readAllBytes();
-      final var message = messages.parse(data);
+      final var message = messages.parse(input);
       if (message instanceof final IdACommandLogin login) {
         return login;
       }
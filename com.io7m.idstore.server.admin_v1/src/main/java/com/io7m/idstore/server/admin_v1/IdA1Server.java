@@ -95,8 +95,14 @@ public final class IdA1Server
              new IdA1HandlerLogin(services))
         .post("/admin/1/0/command",
              new IdA1HandlerCommand(services))
+        .post("/admin/1/0/commands",
+             new IdA1HandlerCommands(services))
+        .post("/admin/1/0/export",
+             new IdA1HandlerExport(services))
         .get("/health",
-             new IdA1HandlerHealth(services));
+             new IdA1HandlerHealth(services))
+        .get("/health/maintenance",
+             new IdA1HandlerHealthMaintenance(services));
 
     final var webServerBuilder =
       WebServerConfig.builder();
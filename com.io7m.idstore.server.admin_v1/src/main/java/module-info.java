@@ -30,6 +30,7 @@ module com.io7m.idstore.server.admin_v1
   requires com.io7m.idstore.protocol.admin;
   requires com.io7m.idstore.server.api;
   requires com.io7m.idstore.server.controller;
+  requires com.io7m.idstore.server.security;
   requires com.io7m.idstore.server.http;
   requires com.io7m.idstore.server.service.clock;
   requires com.io7m.idstore.server.service.configuration;
@@ -46,6 +47,7 @@ module com.io7m.idstore.server.admin_v1
 
   requires com.io7m.verdant.core;
   requires io.helidon.webserver;
+  requires io.helidon.webserver.http2;
   requires io.opentelemetry.api;
   requires org.slf4j;
 
@@ -20,6 +20,7 @@ import com.io7m.idstore.database.api.IdDatabaseConfiguration;
 import com.io7m.idstore.database.api.IdDatabaseFactoryType;
 
 import java.time.Clock;
+import java.time.Duration;
 import java.time.OffsetDateTime;
 import java.util.Locale;
 import java.util.Objects;
@@ -38,6 +39,8 @@ import java.util.Optional;
  * @param mailConfiguration        The mail server configuration
  * @param openTelemetry            The OpenTelemetry configuration
  * @param rateLimit                The rate limiting configuration
+ * @param requestTimeout           The maximum time a request may spend
+ *                                 executing database statements
  * @param passwordExpiration       The password expiration configuration
  * @param sessions                 The session configuration
  * @param userApiAddress           The user API address
@@ -54,6 +57,7 @@ public record IdServerConfiguration(
   IdServerHTTPServiceConfiguration userApiAddress,
   IdServerHTTPServiceConfiguration userViewAddress,
   IdServerHTTPServiceConfiguration adminApiAddress,
+  Duration requestTimeout,
   IdServerSessionConfiguration sessions,
   IdServerBrandingConfiguration branding,
   IdServerHistoryConfiguration history,
@@ -75,6 +79,8 @@ public record IdServerConfiguration(
    * @param mailConfiguration        The mail server configuration
    * @param openTelemetry            The OpenTelemetry configuration
    * @param rateLimit                The rate limiting configuration
+   * @param requestTimeout           The maximum time a request may spend
+   *                                 executing database statements
    * @param passwordExpiration       The password expiration configuration
    * @param sessions                 The session configuration
    * @param userApiAddress           The user API address
@@ -94,6 +100,7 @@ public record IdServerConfiguration(
     Objects.requireNonNull(mailConfiguration, "mailConfiguration");
     Objects.requireNonNull(openTelemetry, "openTelemetry");
     Objects.requireNonNull(rateLimit, "rateLimit");
+    Objects.requireNonNull(requestTimeout, "requestTimeout");
     Objects.requireNonNull(passwordExpiration, "passwordExpiration");
     Objects.requireNonNull(sessions, "sessions");
     Objects.requireNonNull(userApiAddress, "userApiAddress");
@@ -19,6 +19,8 @@ package com.io7m.idstore.server.api;
 
 import com.io7m.idstore.database.api.IdDatabaseConfiguration;
 import com.io7m.idstore.database.api.IdDatabaseFactoryType;
+import com.io7m.idstore.database.api.IdDatabasePoolConfiguration;
+import com.io7m.idstore.database.api.IdDatabaseReplica;
 import com.io7m.idstore.strings.IdStrings;
 
 import java.time.Clock;
@@ -66,6 +68,8 @@ public final class IdServerConfigurations
 
     final var fileDbConfig =
       file.databaseConfiguration();
+    final var filePool =
+      fileDbConfig.pool();
 
     final var strings =
       IdStrings.create(locale);
@@ -81,6 +85,23 @@ public final class IdServerConfigurations
         fileDbConfig.databaseName(),
         fileDbConfig.create() ? CREATE_DATABASE : DO_NOT_CREATE_DATABASE,
         fileDbConfig.upgrade() ? UPGRADE_DATABASE : DO_NOT_UPGRADE_DATABASE,
+        fileDbConfig.searchExactCountLimit(),
+        fileDbConfig.replicas()
+          .stream()
+          .map(r -> new IdDatabaseReplica(r.address(), r.port()))
+          .toList(),
+        fileDbConfig.replicaMaximumLag(),
+        new IdDatabasePoolConfiguration(
+          filePool.minimumSize(),
+          filePool.maximumSize(),
+          filePool.adaptive(),
+          filePool.connectionTimeout(),
+          filePool.maximumLifetime(),
+          filePool.prepareThreshold(),
+          filePool.preparedStatementCacheQueries(),
+          filePool.secondaryMaximumSize()
+        ),
+        fileDbConfig.slowQueryThreshold(),
         strings,
         clock
       );
@@ -104,6 +125,7 @@ public final class IdServerConfigurations
       fileHttp.userAPIService(),
       fileHttp.userViewService(),
       fileHttp.adminAPIService(),
+      fileHttp.requestTimeout(),
       file.sessionConfiguration(),
       file.brandingConfiguration(),
       file.historyConfiguration(),
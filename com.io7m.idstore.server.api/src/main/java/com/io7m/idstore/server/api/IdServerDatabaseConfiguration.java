@@ -16,6 +16,8 @@
 
 package com.io7m.idstore.server.api;
 
+import java.time.Duration;
+import java.util.List;
 import java.util.Objects;
 import java.util.Optional;
 
@@ -35,6 +37,13 @@ import java.util.Optional;
  * @param kind               The underlying SQL database kind
  * @param port               The database port
  * @param upgrade            {@code true} if the database schema should be upgraded
+ * @param searchExactCountLimit Searches estimated to match more than this
+ *                           many rows report approximate page counts
+ * @param replicas           The read replicas used for read-only commands
+ * @param replicaMaximumLag  Replicas lagging further behind the primary
+ *                           than this are not used
+ * @param pool               The connection pool configuration
+ * @param slowQueryThreshold Statements taking longer than this are logged
  */
 
 public record IdServerDatabaseConfiguration(
@@ -47,7 +56,12 @@ public record IdServerDatabaseConfiguration(
   int port,
   String databaseName,
   boolean create,
-  boolean upgrade)
+  boolean upgrade,
+  long searchExactCountLimit,
+  List<IdServerDatabaseReplicaConfiguration> replicas,
+  Duration replicaMaximumLag,
+  IdServerDatabasePoolConfiguration pool,
+  Duration slowQueryThreshold)
   implements IdServerJSONConfigurationElementType
 {
   /**
@@ -67,6 +81,13 @@ public record IdServerDatabaseConfiguration(
    * @param kind               The underlying SQL database kind
    * @param port               The database port
    * @param upgrade            {@code true} if the database schema should be upgraded
+   * @param searchExactCountLimit Searches estimated to match more than this
+   *                           many rows report approximate page counts
+   * @param replicas           The read replicas used for read-only commands
+   * @param replicaMaximumLag  Replicas lagging further behind the primary
+   *                           than this are not used
+   * @param pool               The connection pool configuration
+   * @param slowQueryThreshold Statements taking longer than this are logged
    */
 
   public IdServerDatabaseConfiguration
@@ -78,5 +99,10 @@ public record IdServerDatabaseConfiguration(
     Objects.requireNonNull(readerRolePassword, "readerRolePassword");
     Objects.requireNonNull(address, "address");
     Objects.requireNonNull(databaseName, "databaseName");
+    Objects.requireNonNull(replicaMaximumLag, "replicaMaximumLag");
+    Objects.requireNonNull(pool, "pool");
+    Objects.requireNonNull(slowQueryThreshold, "slowQueryThreshold");
+
+    replicas = List.copyOf(replicas);
   }
 }
@@ -0,0 +1,92 @@
+/*
+ * Copyright © 2024 Mark Raynsford <code@io7m.com> https://www.io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+
+package com.io7m.idstore.server.api;
+
+import java.time.Duration;
+import java.util.Objects;
+
+/**
+ * Configuration for the database connection pool.
+ *
+ * @param minimumSize                   The minimum number of connections
+ * @param maximumSize                   The maximum number of connections
+ * @param adaptive                      {@code true} if the pool size should
+ *                                      be adjusted according to demand
+ * @param connectionTimeout             The maximum time to wait for a
+ *                                      connection
+ * @param maximumLifetime               The maximum lifetime of a connection
+ * @param prepareThreshold              The number of executions after which
+ *                                      statements are prepared on the server
+ * @param preparedStatementCacheQueries The number of prepared statements
+ *                                      cached per connection
+ * @param secondaryMaximumSize          The maximum number of connections in
+ *                                      each pool for a secondary role
+ */
+
+public record IdServerDatabasePoolConfiguration(
+  int minimumSize,
+  int maximumSize,
+  boolean adaptive,
+  Duration connectionTimeout,
+  Duration maximumLifetime,
+  int prepareThreshold,
+  int preparedStatementCacheQueries,
+  int secondaryMaximumSize)
+{
+  /**
+   * Configuration for the database connection pool.
+   *
+   * @param minimumSize                   The minimum number of connections
+   * @param maximumSize                   The maximum number of connections
+   * @param adaptive                      {@code true} if the pool size should
+   *                                      be adjusted according to demand
+   * @param connectionTimeout             The maximum time to wait for a
+   *                                      connection
+   * @param maximumLifetime               The maximum lifetime of a connection
+   * @param prepareThreshold              The number of executions after which
+   *                                      statements are prepared on the server
+   * @param preparedStatementCacheQueries The number of prepared statements
+   *                                      cached per connection
+   * @param secondaryMaximumSize          The maximum number of connections in
+   *                                      each pool for a secondary role
+   */
+
+  public IdServerDatabasePoolConfiguration
+  {
+    Objects.requireNonNull(connectionTimeout, "connectionTimeout");
+    Objects.requireNonNull(maximumLifetime, "maximumLifetime");
+  }
+
+  /**
+   * @return The default pool configuration
+   */
+
+  public static IdServerDatabasePoolConfiguration defaults()
+  {
+    return new IdServerDatabasePoolConfiguration(
+      10,
+      10,
+      false,
+      Duration.ofSeconds(30L),
+      Duration.ofMinutes(30L),
+      5,
+      256,
+      4
+    );
+  }
+}
@@ -16,6 +16,7 @@
 
 package com.io7m.idstore.server.api;
 
+import java.time.Duration;
 import java.util.Objects;
 import java.util.Set;
 
@@ -25,20 +26,32 @@ import java.util.Set;
  * @param adminAPIService  The admin API service
  * @param userAPIService   The user API service
  * @param userViewService  The user view service
+ * @param requestTimeout   The maximum time a request may spend executing
+ *                         database statements
  */
 
 public record IdServerHTTPConfiguration(
   IdServerHTTPServiceConfiguration adminAPIService,
   IdServerHTTPServiceConfiguration userAPIService,
-  IdServerHTTPServiceConfiguration userViewService)
+  IdServerHTTPServiceConfiguration userViewService,
+  Duration requestTimeout)
   implements IdServerJSONConfigurationElementType
 {
+  /**
+   * The default request timeout.
+   */
+
+  public static final Duration DEFAULT_REQUEST_TIMEOUT =
+    Duration.ofSeconds(30L);
+
   /**
    * Configuration for the parts of the server that serve over HTTP.
    *
    * @param adminAPIService  The admin API service
    * @param userAPIService   The user API service
    * @param userViewService  The user view service
+   * @param requestTimeout   The maximum time a request may spend executing
+   *                         database statements
    */
 
   public IdServerHTTPConfiguration
@@ -46,6 +59,13 @@ public record IdServerHTTPConfiguration(
     Objects.requireNonNull(adminAPIService, "adminAPIService");
     Objects.requireNonNull(userAPIService, "userAPIService");
     Objects.requireNonNull(userViewService, "userViewService");
+    Objects.requireNonNull(requestTimeout, "requestTimeout");
+
+    if (requestTimeout.isNegative() || requestTimeout.isZero()) {
+      throw new IllegalArgumentException(
+        "Request timeout %s must be positive.".formatted(requestTimeout)
+      );
+    }
 
     try {
       Set.of(
@@ -61,4 +81,26 @@ public record IdServerHTTPConfiguration(
       );
     }
   }
+
+  /**
+   * Configuration for the parts of the server that serve over HTTP, using
+   * the default request timeout.
+   *
+   * @param adminAPIService  The admin API service
+   * @param userAPIService   The user API service
+   * @param userViewService  The user view service
+   */
+
+  public IdServerHTTPConfiguration(
+    final IdServerHTTPServiceConfiguration adminAPIService,
+    final IdServerHTTPServiceConfiguration userAPIService,
+    final IdServerHTTPServiceConfiguration userViewService)
+  {
+    this(
+      adminAPIService,
+      userAPIService,
+      userViewService,
+      DEFAULT_REQUEST_TIMEOUT
+    );
+  }
 }
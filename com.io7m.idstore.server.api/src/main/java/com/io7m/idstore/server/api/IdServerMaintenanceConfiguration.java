@@ -17,6 +17,7 @@
 package com.io7m.idstore.server.api;
 
 import java.time.Duration;
+import java.time.LocalTime;
 import java.util.Objects;
 import java.util.Optional;
 
@@ -24,20 +25,59 @@ import java.util.Optional;
  * Configuration information for the server's maintenance service.
  *
  * @param tlsReloadInterval The interval at which to reload TLS contexts
+ * @param schedule          The schedule on which database maintenance runs
+ * @param batchSize         The maximum number of records that a maintenance
+ *                          task will modify in a single transaction
  */
 
 public record IdServerMaintenanceConfiguration(
-  Optional<Duration> tlsReloadInterval)
+  Optional<Duration> tlsReloadInterval,
+  IdServerMaintenanceScheduleType schedule,
+  int batchSize)
 {
+  /**
+   * The default maintenance batch size.
+   */
+
+  public static final int DEFAULT_BATCH_SIZE = 1000;
+
   /**
    * Configuration information for the server's maintenance service.
    *
    * @param tlsReloadInterval The interval at which to reload TLS contexts
+   * @param schedule          The schedule on which database maintenance runs
+   * @param batchSize         The maximum number of records that a maintenance
+   *                          task will modify in a single transaction
    */
 
   public IdServerMaintenanceConfiguration
   {
     Objects.requireNonNull(
       tlsReloadInterval, "tlsReloadInterval");
+    Objects.requireNonNull(
+      schedule, "schedule");
+
+    if (batchSize <= 0) {
+      throw new IllegalArgumentException(
+        "Maintenance batch size %d must be positive.".formatted(batchSize)
+      );
+    }
+  }
+
+  /**
+   * Configuration information for the server's maintenance service. Database
+   * maintenance runs daily at midnight with the default batch size.
+   *
+   * @param tlsReloadInterval The interval at which to reload TLS contexts
+   */
+
+  public IdServerMaintenanceConfiguration(
+    final Optional<Duration> tlsReloadInterval)
+  {
+    this(
+      tlsReloadInterval,
+      new IdServerMaintenanceScheduleDaily(LocalTime.MIDNIGHT),
+      DEFAULT_BATCH_SIZE
+    );
   }
 }
@@ -0,0 +1,51 @@
+/*
+ * Copyright © 2024 Mark Raynsford <code@io7m.com> https://www.io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+
+package com.io7m.idstore.server.api;
+
+import java.time.Duration;
+import java.util.Objects;
+
+/**
+ * Run maintenance when the server starts, and then repeatedly after the
+ * given interval has elapsed.
+ *
+ * @param interval The interval
+ */
+
+public record IdServerMaintenanceScheduleInterval(
+  Duration interval)
+  implements IdServerMaintenanceScheduleType
+{
+  /**
+   * Run maintenance when the server starts, and then repeatedly after the
+   * given interval has elapsed.
+   *
+   * @param interval The interval
+   */
+
+  public IdServerMaintenanceScheduleInterval
+  {
+    Objects.requireNonNull(interval, "interval");
+
+    if (interval.isNegative() || interval.isZero()) {
+      throw new IllegalArgumentException(
+        "Maintenance interval %s must be positive.".formatted(interval)
+      );
+    }
+  }
+}
@@ -19,6 +19,7 @@ package com.io7m.idstore.server.api;
 import java.net.URI;
 import java.util.Objects;
 import java.util.Optional;
+import java.util.Set;
 
 /**
  * Configuration information for OpenTelemetry.
@@ -74,13 +75,15 @@ public record IdServerOpenTelemetryConfiguration(
   /**
    * Metrics configuration.
    *
-   * @param endpoint The endpoint to which OTLP metrics data will be sent.
-   * @param protocol The protocol used to deliver OpenTelemetry data.
+   * @param endpoint        The endpoint to which OTLP metrics data will be sent.
+   * @param protocol        The protocol used to deliver OpenTelemetry data.
+   * @param attributePolicy The policy applied to unbounded metric attributes
    */
 
   public record IdMetrics(
     URI endpoint,
-    IdOTLPProtocol protocol)
+    IdOTLPProtocol protocol,
+    IdMetricsAttributePolicy attributePolicy)
   {
     /**
      * Metrics configuration.
@@ -90,6 +93,69 @@ public record IdServerOpenTelemetryConfiguration(
     {
       Objects.requireNonNull(endpoint, "endpoint");
       Objects.requireNonNull(protocol, "protocol");
+      Objects.requireNonNull(attributePolicy, "attributePolicy");
+    }
+  }
+
+  /**
+   * The policy applied to metric attributes that would otherwise have
+   * unbounded cardinality (such as remote hosts, user names, and email
+   * addresses). Values that do not appear in the relevant allow-list are
+   * hashed into one of a fixed number of buckets, and the most frequently
+   * rate-limited sources are tracked separately in a fixed-size table.
+   *
+   * @param hashBuckets        The number of buckets into which values are hashed
+   * @param heavyHitters       The maximum number of rate-limited sources tracked
+   * @param allowedHosts       The hosts that are reported verbatim
+   * @param allowedUsers       The user names that are reported verbatim
+   * @param allowedMailDomains The mail domains that are reported verbatim
+   */
+
+  public record IdMetricsAttributePolicy(
+    int hashBuckets,
+    int heavyHitters,
+    Set<String> allowedHosts,
+    Set<String> allowedUsers,
+    Set<String> allowedMailDomains)
+  {
+    /**
+     * The policy applied to metric attributes.
+     */
+
+    public IdMetricsAttributePolicy
+    {
+      if (hashBuckets < 1) {
+        throw new IllegalArgumentException(
+          "Hash bucket count %d must be positive".formatted(hashBuckets)
+        );
+      }
+      if (heavyHitters < 0) {
+        throw new IllegalArgumentException(
+          "Heavy hitter count %d must be non-negative".formatted(heavyHitters)
+        );
+      }
+
+      allowedHosts =
+        Set.copyOf(allowedHosts);
+      allowedUsers =
+        Set.copyOf(allowedUsers);
+      allowedMailDomains =
+        Set.copyOf(allowedMailDomains);
+    }
+
+    /**
+     * @return The default attribute policy
+     */
+
+    public static IdMetricsAttributePolicy defaults()
+    {
+      return new IdMetricsAttributePolicy(
+        32,
+        10,
+        Set.of(),
+        Set.of(),
+        Set.of()
+      );
     }
   }
 
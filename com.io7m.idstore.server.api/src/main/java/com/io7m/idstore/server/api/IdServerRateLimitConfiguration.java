@@ -27,9 +27,31 @@ import java.util.Objects;
  * @param passwordResetRateLimit     The minimum allowed time between password
  *                                   resets
  * @param userLoginRateLimit         The minimum time allowed between (user) login attempts for a host
- * @param userLoginDelay             A delay applied to each (user) login attempt
+ * @param userLoginDelay             The base delay for (user) login attempts. The
+ *                                   delay is applied only after recent failed
+ *                                   attempts from the same host or for the same
+ *                                   account, and doubles with each further
+ *                                   failure up to 32 times the base delay.
+ *                                   Failures are forgotten after 15 minutes
+ *                                   without a further failure.
  * @param adminLoginRateLimit        The minimum time allowed between (admin) login attempts for a host
- * @param adminLoginDelay            A delay applied to each (admin) login attempt
+ * @param adminLoginDelay            The base delay for (admin) login attempts. The
+ *                                   delay is applied only after recent failed
+ *                                   attempts from the same host or for the same
+ *                                   account, and doubles with each further
+ *                                   failure up to 32 times the base delay.
+ *                                   Failures are forgotten after 15 minutes
+ *                                   without a further failure.
+ * @param emailVerificationBurst     The number of email verifications that may be made in quick succession
+ * @param passwordResetBurst         The number of password resets that may be made in quick succession
+ * @param userLoginBurst             The number of (user) login attempts that may be made in quick succession
+ * @param adminLoginBurst            The number of (admin) login attempts that may be made in quick succession
+ * @param maximumTrackedKeys         The maximum number of hosts/users tracked by each rate limiter
+ * @param shared                     {@code true} if rate limits are shared between all servers using the database
+ * @param loginNetworkRateLimit      The minimum time allowed between login attempts from a network
+ * @param loginNetworkBurst          The number of login attempts from a network that may be made in quick succession
+ * @param loginAccountRateLimit      The minimum time allowed between login attempts for an account
+ * @param loginAccountBurst          The number of login attempts for an account that may be made in quick succession
  */
 
 public record IdServerRateLimitConfiguration(
@@ -38,7 +60,17 @@ public record IdServerRateLimitConfiguration(
   Duration userLoginRateLimit,
   Duration userLoginDelay,
   Duration adminLoginRateLimit,
-  Duration adminLoginDelay)
+  Duration adminLoginDelay,
+  int emailVerificationBurst,
+  int passwordResetBurst,
+  int userLoginBurst,
+  int adminLoginBurst,
+  long maximumTrackedKeys,
+  boolean shared,
+  Duration loginNetworkRateLimit,
+  int loginNetworkBurst,
+  Duration loginAccountRateLimit,
+  int loginAccountBurst)
   implements IdServerJSONConfigurationElementType
 {
   /**
@@ -49,9 +81,31 @@ public record IdServerRateLimitConfiguration(
    * @param passwordResetRateLimit     The minimum allowed time between password
    *                                   resets
    * @param userLoginRateLimit         The minimum time allowed between (user) login attempts for a host
-   * @param userLoginDelay             A delay applied to each (user) login attempt
+   * @param userLoginDelay             The base delay for (user) login attempts. The
+   *                                   delay is applied only after recent failed
+   *                                   attempts from the same host or for the same
+   *                                   account, and doubles with each further
+   *                                   failure up to 32 times the base delay.
+   *                                   Failures are forgotten after 15 minutes
+   *                                   without a further failure.
    * @param adminLoginRateLimit        The minimum time allowed between (admin) login attempts for a host
-   * @param adminLoginDelay            A delay applied to each (admin) login attempt
+   * @param adminLoginDelay            The base delay for (admin) login attempts. The
+   *                                   delay is applied only after recent failed
+   *                                   attempts from the same host or for the same
+   *                                   account, and doubles with each further
+   *                                   failure up to 32 times the base delay.
+   *                                   Failures are forgotten after 15 minutes
+   *                                   without a further failure.
+   * @param emailVerificationBurst     The number of email verifications that may be made in quick succession
+   * @param passwordResetBurst         The number of password resets that may be made in quick succession
+   * @param userLoginBurst             The number of (user) login attempts that may be made in quick succession
+   * @param adminLoginBurst            The number of (admin) login attempts that may be made in quick succession
+   * @param maximumTrackedKeys         The maximum number of hosts/users tracked by each rate limiter
+   * @param shared                     {@code true} if rate limits are shared between all servers using the database
+   * @param loginNetworkRateLimit      The minimum time allowed between login attempts from a network
+   * @param loginNetworkBurst          The number of login attempts from a network that may be made in quick succession
+   * @param loginAccountRateLimit      The minimum time allowed between login attempts for an account
+   * @param loginAccountBurst          The number of login attempts for an account that may be made in quick succession
    */
 
   public IdServerRateLimitConfiguration
@@ -68,5 +122,28 @@ public record IdServerRateLimitConfiguration(
       adminLoginRateLimit, "adminLoginRateLimit");
     Objects.requireNonNull(
       adminLoginDelay, "adminLoginDelay");
+    Objects.requireNonNull(
+      loginNetworkRateLimit, "loginNetworkRateLimit");
+    Objects.requireNonNull(
+      loginAccountRateLimit, "loginAccountRateLimit");
+
+    checkPositive(emailVerificationBurst, "emailVerificationBurst");
+    checkPositive(passwordResetBurst, "passwordResetBurst");
+    checkPositive(userLoginBurst, "userLoginBurst");
+    checkPositive(adminLoginBurst, "adminLoginBurst");
+    checkPositive(maximumTrackedKeys, "maximumTrackedKeys");
+    checkPositive(loginNetworkBurst, "loginNetworkBurst");
+    checkPositive(loginAccountBurst, "loginAccountBurst");
+  }
+
+  private static void checkPositive(
+    final long value,
+    final String name)
+  {
+    if (value < 1L) {
+      throw new IllegalArgumentException(
+        "%s (%d) must be positive".formatted(name, Long.valueOf(value))
+      );
+    }
   }
 }
@@ -18,6 +18,7 @@ package com.io7m.idstore.server.api;
 
 import java.time.Duration;
 import java.util.Objects;
+import java.util.Optional;
 
 /**
  * Configuration for user and admin login sessions.
@@ -25,11 +26,15 @@ import java.util.Objects;
  * @param userSessionExpiration  The expiration time for inactive user sessions
  * @param adminSessionExpiration The expiration time for inactive admin
  *                               sessions
+ * @param searchCursorSecret     The secret used to sign search cursors; if
+ *                               absent, a random secret is generated at
+ *                               startup
  */
 
 public record IdServerSessionConfiguration(
   Duration userSessionExpiration,
-  Duration adminSessionExpiration)
+  Duration adminSessionExpiration,
+  Optional<String> searchCursorSecret)
 {
   /**
    * Configuration for user and admin login sessions.
@@ -38,11 +43,15 @@ public record IdServerSessionConfiguration(
    *                               sessions
    * @param adminSessionExpiration The expiration time for inactive admin
    *                               sessions
+   * @param searchCursorSecret     The secret used to sign search cursors; if
+   *                               absent, a random secret is generated at
+   *                               startup
    */
 
   public IdServerSessionConfiguration
   {
     Objects.requireNonNull(userSessionExpiration, "userSessionExpiration");
     Objects.requireNonNull(adminSessionExpiration, "adminSessionExpiration");
+    Objects.requireNonNull(searchCursorSecret, "searchCursorSecret");
   }
 }
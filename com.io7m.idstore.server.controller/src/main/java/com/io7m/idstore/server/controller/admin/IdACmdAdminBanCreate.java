@@ -55,7 +55,7 @@ public final class IdACmdAdminBanCreate
     final var ban = command.ban();
     context.securityCheck(new IdSecAdminActionAdminBanCreate(admin));
 
-    transaction.adminIdSet(admin.id());
+    transaction.adminSet(admin);
 
     final var admins =
       transaction.queries(IdDatabaseAdminsQueriesType.class);
@@ -57,7 +57,7 @@ public final class IdACmdAdminBanDelete
 
     context.securityCheck(new IdSecAdminActionAdminBanDelete(admin));
 
-    transaction.adminIdSet(admin.id());
+    transaction.adminSet(admin);
 
     final var admins =
       transaction.queries(IdDatabaseAdminsQueriesType.class);
@@ -54,7 +54,7 @@ public final class IdACmdAdminBanGet
 
     context.securityCheck(new IdSecAdminActionAdminBanGet(admin));
 
-    transaction.adminIdSet(admin.id());
+    transaction.adminSet(admin);
 
     final var admins =
       transaction.queries(IdDatabaseAdminsQueriesType.class);
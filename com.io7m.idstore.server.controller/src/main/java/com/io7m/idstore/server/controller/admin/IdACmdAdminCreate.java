@@ -68,7 +68,7 @@ public final class IdACmdAdminCreate
     final var permissions = command.permissions();
     context.securityCheck(new IdSecAdminActionAdminCreate(admin, permissions));
 
-    transaction.adminIdSet(admin.id());
+    transaction.adminSet(admin);
 
     final var admins =
       transaction.queries(IdDatabaseAdminsQueriesType.class);
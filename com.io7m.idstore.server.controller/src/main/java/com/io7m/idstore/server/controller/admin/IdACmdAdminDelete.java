@@ -69,7 +69,7 @@ public final class IdACmdAdminDelete
       );
     }
 
-    transaction.adminIdSet(admin.id());
+    transaction.adminSet(admin);
     admins.adminDelete(command.adminId());
     return new IdAResponseAdminDelete(context.requestId());
   }
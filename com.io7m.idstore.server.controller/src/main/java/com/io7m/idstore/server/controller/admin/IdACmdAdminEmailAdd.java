@@ -63,7 +63,7 @@ public final class IdACmdAdminEmailAdd
 
     context.securityCheck(new IdSecAdminActionAdminEmailAdd(admin, newAdmin));
 
-    transaction.adminIdSet(admin.id());
+    transaction.adminSet(admin);
 
     final var admins =
       transaction.queries(IdDatabaseAdminsQueriesType.class);
@@ -57,7 +57,7 @@ public final class IdACmdAdminEmailRemove
     context.securityCheck(
       new IdSecAdminActionAdminEmailRemove(admin, newAdmin));
 
-    transaction.adminIdSet(admin.id());
+    transaction.adminSet(admin);
 
     final var admins =
       transaction.queries(IdDatabaseAdminsQueriesType.class);
@@ -63,7 +63,7 @@ public final class IdACmdAdminPermissionGrant
     context.securityCheck(
       new IdSecAdminActionAdminPermissionGrant(admin, newAdmin, newPerm));
 
-    transaction.adminIdSet(admin.id());
+    transaction.adminSet(admin);
 
     final var admins =
       transaction.queries(IdDatabaseAdminsQueriesType.class);
@@ -57,15 +57,24 @@ public final class IdACmdAdminSearchBegin
 
     final var admins =
       transaction.queries(IdDatabaseAdminsQueriesType.class);
+    final var parameters =
+      obtainListParameters(command);
     final var search =
-      admins.adminSearch(obtainListParameters(command));
-
-    final var session = context.session();
-    session.setAdminSearch(search);
+      admins.adminSearch(parameters);
+    final var page =
+      search.pageCurrent(admins);
 
+    IdACmdSearchCursors.discard(context, IdASearchKind.ADMINS);
     return new IdAResponseAdminSearchBegin(
       context.requestId(),
-      search.pageCurrent(admins)
+      IdACmdSearchCursors.issue(
+        context,
+        IdASearchKind.ADMINS,
+        parameters,
+        search.position(),
+        page,
+        IdASearchFetchers::admins
+      )
     );
   }
 
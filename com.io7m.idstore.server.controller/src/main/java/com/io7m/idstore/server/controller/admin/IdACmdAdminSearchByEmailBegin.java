@@ -56,15 +56,24 @@ public final class IdACmdAdminSearchByEmailBegin
 
     final var admins =
       transaction.queries(IdDatabaseAdminsQueriesType.class);
+    final var parameters =
+      obtainListParameters(command);
     final var search =
-      admins.adminSearchByEmail(obtainListParameters(command));
-
-    final var session = context.session();
-    session.setAdminSearchByEmail(search);
+      admins.adminSearchByEmail(parameters);
+    final var page =
+      search.pageCurrent(admins);
 
+    IdACmdSearchCursors.discard(context, IdASearchKind.ADMINS_BY_EMAIL);
     return new IdAResponseAdminSearchByEmailBegin(
       context.requestId(),
-      search.pageCurrent(admins)
+      IdACmdSearchCursors.issue(
+        context,
+        IdASearchKind.ADMINS_BY_EMAIL,
+        parameters,
+        search.position(),
+        page,
+        IdASearchFetchers::adminsByEmail
+      )
     );
   }
 
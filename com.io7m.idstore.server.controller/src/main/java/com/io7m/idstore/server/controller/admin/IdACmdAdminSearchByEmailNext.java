@@ -17,16 +17,13 @@
 
 package com.io7m.idstore.server.controller.admin;
 
-import com.io7m.idstore.database.api.IdDatabaseAdminsQueriesType;
 import com.io7m.idstore.error_codes.IdException;
+import com.io7m.idstore.model.IdAdminSearchByEmailParameters;
 import com.io7m.idstore.protocol.admin.IdACommandAdminSearchByEmailNext;
 import com.io7m.idstore.protocol.admin.IdAResponseAdminSearchByEmailNext;
 import com.io7m.idstore.protocol.admin.IdAResponseType;
 import com.io7m.idstore.server.security.IdSecAdminActionAdminRead;
 
-import static com.io7m.idstore.error_codes.IdStandardErrorCodes.API_MISUSE_ERROR;
-import static com.io7m.idstore.strings.IdStringConstants.ERROR_SEARCH_START;
-
 /**
  * IdACmdAdminSearchByEmailNext
  */
@@ -50,27 +47,20 @@ public final class IdACmdAdminSearchByEmailNext
     final IdACommandAdminSearchByEmailNext command)
     throws IdException
   {
-    final var transaction =
-      context.transaction();
     final var admin =
       context.admin();
 
     context.securityCheck(new IdSecAdminActionAdminRead(admin));
 
-    final var admins =
-      transaction.queries(IdDatabaseAdminsQueriesType.class);
-    final var session =
-      context.session();
-    final var searchOpt =
-      session.adminSearchByEmail();
-
-    if (searchOpt.isEmpty()) {
-      throw context.failFormatted(400, API_MISUSE_ERROR, ERROR_SEARCH_START);
-    }
-
     return new IdAResponseAdminSearchByEmailNext(
       context.requestId(),
-      searchOpt.get().pageNext(admins)
+      IdACmdSearchCursors.next(
+        context,
+        IdASearchKind.ADMINS_BY_EMAIL,
+        IdAdminSearchByEmailParameters.class,
+        command.cursor(),
+        IdASearchFetchers::adminsByEmail
+      )
     );
   }
 }
@@ -19,14 +19,12 @@ package com.io7m.idstore.server.controller.admin;
 
 import com.io7m.idstore.database.api.IdDatabaseAdminsQueriesType;
 import com.io7m.idstore.error_codes.IdException;
+import com.io7m.idstore.model.IdAdminSearchByEmailParameters;
 import com.io7m.idstore.protocol.admin.IdACommandAdminSearchByEmailPrevious;
 import com.io7m.idstore.protocol.admin.IdAResponseAdminSearchByEmailPrevious;
 import com.io7m.idstore.protocol.admin.IdAResponseType;
 import com.io7m.idstore.server.security.IdSecAdminActionAdminRead;
 
-import static com.io7m.idstore.error_codes.IdStandardErrorCodes.API_MISUSE_ERROR;
-import static com.io7m.idstore.strings.IdStringConstants.ERROR_SEARCH_START;
-
 /**
  * IdACmdAdminSearchByEmailPrevious
  */
@@ -57,21 +55,27 @@ public final class IdACmdAdminSearchByEmailPrevious
 
     context.securityCheck(new IdSecAdminActionAdminRead(admin));
 
+    final var cursor =
+      IdACmdSearchCursors.open(
+        context,
+        IdAdminSearchByEmailParameters.class,
+        command.cursor()
+      );
     final var admins =
       transaction.queries(IdDatabaseAdminsQueriesType.class);
-    final var session =
-      context.session();
-    final var searchOpt =
-      session.adminSearchByEmail();
-
-    if (searchOpt.isEmpty()) {
-      throw context.failFormatted(
-        400, API_MISUSE_ERROR, ERROR_SEARCH_START);
-    }
+    final var search =
+      admins.adminSearchByEmail(cursor.parameters(), cursor.position());
+    final var page =
+      search.pagePrevious(admins);
 
     return new IdAResponseAdminSearchByEmailPrevious(
       context.requestId(),
-      searchOpt.get().pagePrevious(admins)
+      IdACmdSearchCursors.issuePrevious(
+        context,
+        cursor.parameters(),
+        search.position(),
+        page
+      )
     );
   }
 }
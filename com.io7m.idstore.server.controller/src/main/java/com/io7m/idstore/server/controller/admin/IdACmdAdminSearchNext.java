@@ -17,16 +17,13 @@
 
 package com.io7m.idstore.server.controller.admin;
 
-import com.io7m.idstore.database.api.IdDatabaseAdminsQueriesType;
 import com.io7m.idstore.error_codes.IdException;
+import com.io7m.idstore.model.IdAdminSearchParameters;
 import com.io7m.idstore.protocol.admin.IdACommandAdminSearchNext;
 import com.io7m.idstore.protocol.admin.IdAResponseAdminSearchNext;
 import com.io7m.idstore.protocol.admin.IdAResponseType;
 import com.io7m.idstore.server.security.IdSecAdminActionAdminRead;
 
-import static com.io7m.idstore.error_codes.IdStandardErrorCodes.API_MISUSE_ERROR;
-import static com.io7m.idstore.strings.IdStringConstants.ERROR_SEARCH_START;
-
 /**
  * IdACmdAdminSearchNext
  */
@@ -50,28 +47,20 @@ public final class IdACmdAdminSearchNext
     final IdACommandAdminSearchNext command)
     throws IdException
   {
-    final var transaction =
-      context.transaction();
     final var admin =
       context.admin();
 
     context.securityCheck(new IdSecAdminActionAdminRead(admin));
 
-    final var admins =
-      transaction.queries(IdDatabaseAdminsQueriesType.class);
-    final var session =
-      context.session();
-    final var searchOpt =
-      session.adminSearch();
-
-    if (searchOpt.isEmpty()) {
-      throw context.failFormatted(
-        400, API_MISUSE_ERROR, ERROR_SEARCH_START);
-    }
-
     return new IdAResponseAdminSearchNext(
       context.requestId(),
-      searchOpt.get().pageNext(admins)
+      IdACmdSearchCursors.next(
+        context,
+        IdASearchKind.ADMINS,
+        IdAdminSearchParameters.class,
+        command.cursor(),
+        IdASearchFetchers::admins
+      )
     );
   }
 }
@@ -78,7 +78,7 @@ public final class IdACmdAdminUpdateCredentials
 
     context.securityCheck(new IdSecAdminActionAdminUpdate(admin, newAdmin));
 
-    transaction.adminIdSet(admin.id());
+    transaction.adminSet(admin);
 
     final var admins =
       transaction.queries(IdDatabaseAdminsQueriesType.class);
@@ -76,7 +76,7 @@ public final class IdACmdAdminUpdatePasswordExpiration
 
     context.securityCheck(new IdSecAdminActionAdminUpdate(admin, targetAdminId));
 
-    transaction.adminIdSet(admin.id());
+    transaction.adminSet(admin);
 
     final var admins =
       transaction.queries(IdDatabaseAdminsQueriesType.class);
@@ -0,0 +1,63 @@
+/*
+ * Copyright © 2024 Mark Raynsford <code@io7m.com> https://www.io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+package com.io7m.idstore.server.controller.admin;
+
+import com.io7m.idstore.protocol.admin.IdACommandAuditExport;
+import com.io7m.idstore.protocol.admin.IdAResponseType;
+import com.io7m.idstore.server.controller.command_exec.IdCommandExecutionFailure;
+import com.io7m.idstore.server.controller.command_exec.IdCommandExecutorType;
+import com.io7m.idstore.server.service.sessions.IdSessionAdmin;
+
+import java.util.Objects;
+
+import static com.io7m.idstore.error_codes.IdStandardErrorCodes.API_MISUSE_ERROR;
+import static com.io7m.idstore.strings.IdStringConstants.COMMAND_NOT_HERE;
+
+/**
+ * IdACmdAuditExport. Exports are streamed by the export endpoint, so an
+ * export reaching the executor is always a misuse.
+ */
+
+public final class IdACmdAuditExport
+  implements IdCommandExecutorType<
+  IdSessionAdmin, IdACommandContext, IdACommandAuditExport, IdAResponseType>
+{
+  /**
+   * IdACmdAuditExport
+   */
+
+  public IdACmdAuditExport()
+  {
+
+  }
+
+  @Override
+  public IdAResponseType execute(
+    final IdACommandContext context,
+    final IdACommandAuditExport command)
+    throws IdCommandExecutionFailure
+  {
+    Objects.requireNonNull(context, "context");
+    Objects.requireNonNull(command, "command");
+
+    throw context.failFormatted(
+      400,
+      API_MISUSE_ERROR,
+      COMMAND_NOT_HERE
+    );
+  }
+}
@@ -57,17 +57,25 @@ public final class IdACmdAuditSearchBegin
 
     final var audit =
       transaction.queries(IdDatabaseAuditQueriesType.class);
-
-    final var session =
-      context.session();
     final var parameters =
       obtainListParameters(command);
+    final var search =
+      audit.auditEventsSearch(parameters);
+    final var page =
+      search.pageCurrent(audit);
 
-    final var search = audit.auditEventsSearch(parameters);
-    session.setAuditSearch(search);
-
-    final var page = search.pageCurrent(audit);
-    return new IdAResponseAuditSearchBegin(context.requestId(), page);
+    IdACmdSearchCursors.discard(context, IdASearchKind.AUDIT);
+    return new IdAResponseAuditSearchBegin(
+      context.requestId(),
+      IdACmdSearchCursors.issue(
+        context,
+        IdASearchKind.AUDIT,
+        parameters,
+        search.position(),
+        page,
+        IdASearchFetchers::audit
+      )
+    );
   }
 
   private static IdAuditSearchParameters obtainListParameters(
@@ -17,16 +17,13 @@
 
 package com.io7m.idstore.server.controller.admin;
 
-import com.io7m.idstore.database.api.IdDatabaseAuditQueriesType;
 import com.io7m.idstore.error_codes.IdException;
+import com.io7m.idstore.model.IdAuditSearchParameters;
 import com.io7m.idstore.protocol.admin.IdACommandAuditSearchNext;
 import com.io7m.idstore.protocol.admin.IdAResponseAuditSearchNext;
 import com.io7m.idstore.protocol.admin.IdAResponseType;
 import com.io7m.idstore.server.security.IdSecAdminActionAuditRead;
 
-import static com.io7m.idstore.error_codes.IdStandardErrorCodes.API_MISUSE_ERROR;
-import static com.io7m.idstore.strings.IdStringConstants.ERROR_SEARCH_START;
-
 /**
  * IdACmdAuditSearchNext
  */
@@ -50,27 +47,20 @@ public final class IdACmdAuditSearchNext
     final IdACommandAuditSearchNext command)
     throws IdException
   {
-    final var transaction =
-      context.transaction();
     final var admin =
       context.admin();
 
     context.securityCheck(new IdSecAdminActionAuditRead(admin));
 
-    final var audit =
-      transaction.queries(IdDatabaseAuditQueriesType.class);
-    final var session =
-      context.session();
-    final var searchOpt =
-      session.auditSearch();
-
-    if (searchOpt.isEmpty()) {
-      throw context.failFormatted(
-        400, API_MISUSE_ERROR, ERROR_SEARCH_START);
-    }
-
-    final var search = searchOpt.get();
-    final var page = search.pageNext(audit);
-    return new IdAResponseAuditSearchNext(context.requestId(), page);
+    return new IdAResponseAuditSearchNext(
+      context.requestId(),
+      IdACmdSearchCursors.next(
+        context,
+        IdASearchKind.AUDIT,
+        IdAuditSearchParameters.class,
+        command.cursor(),
+        IdASearchFetchers::audit
+      )
+    );
   }
 }
@@ -19,14 +19,12 @@ package com.io7m.idstore.server.controller.admin;
 
 import com.io7m.idstore.database.api.IdDatabaseAuditQueriesType;
 import com.io7m.idstore.error_codes.IdException;
+import com.io7m.idstore.model.IdAuditSearchParameters;
 import com.io7m.idstore.protocol.admin.IdACommandAuditSearchPrevious;
 import com.io7m.idstore.protocol.admin.IdAResponseAuditSearchPrevious;
 import com.io7m.idstore.protocol.admin.IdAResponseType;
 import com.io7m.idstore.server.security.IdSecAdminActionAuditRead;
 
-import static com.io7m.idstore.error_codes.IdStandardErrorCodes.API_MISUSE_ERROR;
-import static com.io7m.idstore.strings.IdStringConstants.ERROR_SEARCH_START;
-
 /**
  * IdACmdAuditSearchPrevious
  */
@@ -57,20 +55,27 @@ public final class IdACmdAuditSearchPrevious
 
     context.securityCheck(new IdSecAdminActionAuditRead(admin));
 
+    final var cursor =
+      IdACmdSearchCursors.open(
+        context,
+        IdAuditSearchParameters.class,
+        command.cursor()
+      );
     final var audit =
       transaction.queries(IdDatabaseAuditQueriesType.class);
-    final var session =
-      context.session();
-    final var searchOpt =
-      session.auditSearch();
-
-    if (searchOpt.isEmpty()) {
-      throw context.failFormatted(
-        400, API_MISUSE_ERROR, ERROR_SEARCH_START);
-    }
+    final var search =
+      audit.auditEventsSearch(cursor.parameters(), cursor.position());
+    final var page =
+      search.pagePrevious(audit);
 
-    final var search = searchOpt.get();
-    final var page = search.pagePrevious(audit);
-    return new IdAResponseAuditSearchPrevious(context.requestId(), page);
+    return new IdAResponseAuditSearchPrevious(
+      context.requestId(),
+      IdACmdSearchCursors.issuePrevious(
+        context,
+        cursor.parameters(),
+        search.position(),
+        page
+      )
+    );
   }
 }
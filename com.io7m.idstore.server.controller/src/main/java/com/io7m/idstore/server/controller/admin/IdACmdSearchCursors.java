@@ -0,0 +1,221 @@
+/*
+ * Copyright © 2024 Mark Raynsford <code@io7m.com> https://www.io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+
+package com.io7m.idstore.server.controller.admin;
+
+import com.io7m.idstore.database.api.IdDatabaseException;
+import com.io7m.idstore.database.api.IdDatabaseSearchPosition;
+import com.io7m.idstore.model.IdPage;
+import com.io7m.idstore.server.controller.admin.IdASearchCursorService.IdASearchCursor;
+import com.io7m.idstore.server.controller.admin.IdASearchPrefetchService.IdASearchFetcherType;
+import com.io7m.idstore.server.controller.admin.IdASearchPrefetchService.IdASearchPrefetched;
+import com.io7m.idstore.server.controller.command_exec.IdCommandExecutionFailure;
+
+import static com.io7m.idstore.error_codes.IdStandardErrorCodes.API_MISUSE_ERROR;
+import static com.io7m.idstore.strings.IdStringConstants.ERROR_SEARCH_CURSOR;
+import static com.io7m.idstore.strings.IdStringConstants.ERROR_SEARCH_START;
+
+/**
+ * Functions to open and issue search cursors from within commands. Issuing a
+ * cursor after a forward step schedules a background fetch of the page that
+ * the cursor would return from a subsequent "next" command.
+ */
+
+final class IdACmdSearchCursors
+{
+  private IdACmdSearchCursors()
+  {
+
+  }
+
+  /**
+   * Open the cursor presented with a command.
+   *
+   * @param context         The command context
+   * @param parametersClass The expected type of search parameters
+   * @param cursor          The encoded cursor
+   * @param <P>             The type of search parameters
+   *
+   * @return The decoded cursor
+   *
+   * @throws IdCommandExecutionFailure If the cursor is missing or invalid
+   */
+
+  static <P> IdASearchCursor<P> open(
+    final IdACommandContext context,
+    final Class<P> parametersClass,
+    final String cursor)
+    throws IdCommandExecutionFailure
+  {
+    if (cursor.isEmpty()) {
+      throw context.failFormatted(400, API_MISUSE_ERROR, ERROR_SEARCH_START);
+    }
+
+    final var cursors =
+      context.services().requireService(IdASearchCursorService.class);
+
+    return cursors.decode(context.admin().id(), parametersClass, cursor)
+      .orElseThrow(() -> {
+        return context.failFormatted(
+          400, API_MISUSE_ERROR, ERROR_SEARCH_CURSOR);
+      });
+  }
+
+  /**
+   * Return the page following the page at the given cursor, preferring a
+   * page that was fetched in the background when the cursor was issued.
+   *
+   * @param context         The command context
+   * @param kind            The kind of search
+   * @param parametersClass The expected type of search parameters
+   * @param cursorText      The encoded cursor
+   * @param fetcher         The function that fetches the next page
+   * @param <P>             The type of search parameters
+   * @param <T>             The type of search results
+   *
+   * @return The next page, with a cursor
+   *
+   * @throws IdCommandExecutionFailure If the cursor is missing or invalid
+   * @throws IdDatabaseException       On database errors
+   */
+
+  static <P, T> IdPage<T> next(
+    final IdACommandContext context,
+    final IdASearchKind kind,
+    final Class<P> parametersClass,
+    final String cursorText,
+    final IdASearchFetcherType<P, T> fetcher)
+    throws IdCommandExecutionFailure, IdDatabaseException
+  {
+    final var cursor =
+      open(context, parametersClass, cursorText);
+    final var prefetch =
+      context.services().requireService(IdASearchPrefetchService.class);
+    final var prefetched =
+      prefetch.<T>take(context.session().id(), kind, cursorText);
+
+    final IdASearchPrefetched<T> next;
+    if (prefetched.isPresent()) {
+      next = prefetched.get();
+    } else {
+      next = fetcher.fetchNext(
+        context.transaction(),
+        cursor.parameters(),
+        cursor.position()
+      );
+    }
+
+    return issue(
+      context,
+      kind,
+      cursor.parameters(),
+      next.position(),
+      next.page(),
+      fetcher
+    );
+  }
+
+  /**
+   * Discard any page fetched in the background for the given kind of search.
+   * This is called whenever a new search begins, as the parameters may have
+   * changed.
+   *
+   * @param context The command context
+   * @param kind    The kind of search
+   */
+
+  static void discard(
+    final IdACommandContext context,
+    final IdASearchKind kind)
+  {
+    context.services()
+      .requireService(IdASearchPrefetchService.class)
+      .discard(context.session().id(), kind);
+  }
+
+  /**
+   * Attach a new cursor to a page returned from a search, and fetch the
+   * following page in the background.
+   *
+   * @param context    The command context
+   * @param kind       The kind of search
+   * @param parameters The search parameters
+   * @param position   The position of the search after returning the page
+   * @param page       The page most recently returned from the search
+   * @param fetcher    The function that fetches the next page
+   * @param <P>        The type of search parameters
+   * @param <T>        The type of search results
+   *
+   * @return The page with a cursor
+   */
+
+  static <P, T> IdPage<T> issue(
+    final IdACommandContext context,
+    final IdASearchKind kind,
+    final P parameters,
+    final IdDatabaseSearchPosition position,
+    final IdPage<T> page,
+    final IdASearchFetcherType<P, T> fetcher)
+  {
+    final var cursors =
+      context.services().requireService(IdASearchCursorService.class);
+    final var prefetch =
+      context.services().requireService(IdASearchPrefetchService.class);
+
+    final var cursor =
+      cursors.encode(context.admin().id(), parameters, position);
+
+    prefetch.prefetch(
+      context.session().id(),
+      kind,
+      cursor,
+      parameters,
+      position,
+      fetcher
+    );
+    return page.withCursor(cursor);
+  }
+
+  /**
+   * Attach a new cursor to a page returned from a "previous" command. Nothing
+   * is fetched in the background: a client that is paging backwards has
+   * already seen the following page, and is unlikely to ask for it again.
+   *
+   * @param context    The command context
+   * @param parameters The search parameters
+   * @param position   The position of the search after returning the page
+   * @param page       The page most recently returned from the search
+   * @param <P>        The type of search parameters
+   * @param <T>        The type of search results
+   *
+   * @return The page with a cursor
+   */
+
+  static <P, T> IdPage<T> issuePrevious(
+    final IdACommandContext context,
+    final P parameters,
+    final IdDatabaseSearchPosition position,
+    final IdPage<T> page)
+  {
+    final var cursors =
+      context.services().requireService(IdASearchCursorService.class);
+
+    return page.withCursor(
+      cursors.encode(context.admin().id(), parameters, position)
+    );
+  }
+}
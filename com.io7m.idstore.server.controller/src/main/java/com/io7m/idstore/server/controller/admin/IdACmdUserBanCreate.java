@@ -55,7 +55,7 @@ public final class IdACmdUserBanCreate
     final var ban = command.ban();
     context.securityCheck(new IdSecAdminActionUserBanCreate(admin));
 
-    transaction.adminIdSet(admin.id());
+    transaction.adminSet(admin);
 
     final var users =
       transaction.queries(IdDatabaseUsersQueriesType.class);
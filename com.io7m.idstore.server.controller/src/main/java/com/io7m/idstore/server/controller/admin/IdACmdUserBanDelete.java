@@ -57,7 +57,7 @@ public final class IdACmdUserBanDelete
 
     context.securityCheck(new IdSecAdminActionUserBanDelete(admin));
 
-    transaction.adminIdSet(admin.id());
+    transaction.adminSet(admin);
 
     final var users =
       transaction.queries(IdDatabaseUsersQueriesType.class);
@@ -54,7 +54,7 @@ public final class IdACmdUserBanGet
 
     context.securityCheck(new IdSecAdminActionUserBanGet(admin));
 
-    transaction.adminIdSet(admin.id());
+    transaction.adminSet(admin);
 
     final var users =
       transaction.queries(IdDatabaseUsersQueriesType.class);
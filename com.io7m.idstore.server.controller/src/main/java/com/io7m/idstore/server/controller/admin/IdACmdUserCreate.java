@@ -67,7 +67,7 @@ public final class IdACmdUserCreate
 
     context.securityCheck(new IdSecAdminActionUserCreate(admin));
 
-    transaction.adminIdSet(admin.id());
+    transaction.adminSet(admin);
 
     final var users =
       transaction.queries(IdDatabaseUsersQueriesType.class);
@@ -57,7 +57,7 @@ public final class IdACmdUserDelete
     final var users =
       transaction.queries(IdDatabaseUsersQueriesType.class);
 
-    transaction.adminIdSet(admin.id());
+    transaction.adminSet(admin);
     users.userDelete(command.userId());
 
     return new IdAResponseUserDelete(context.requestId());
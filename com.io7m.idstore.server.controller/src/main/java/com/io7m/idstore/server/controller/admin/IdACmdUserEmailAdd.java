@@ -64,7 +64,7 @@ public final class IdACmdUserEmailAdd
     final var strings =
       context.services().requireService(IdStrings.class);
 
-    transaction.adminIdSet(admin.id());
+    transaction.adminSet(admin);
 
     final var users =
       transaction.queries(IdDatabaseUsersQueriesType.class);
@@ -54,7 +54,7 @@ public final class IdACmdUserEmailRemove
 
     context.securityCheck(new IdSecAdminActionUserUpdateEmail(admin));
 
-    transaction.adminIdSet(admin.id());
+    transaction.adminSet(admin);
 
     final var users =
       transaction.queries(IdDatabaseUsersQueriesType.class);
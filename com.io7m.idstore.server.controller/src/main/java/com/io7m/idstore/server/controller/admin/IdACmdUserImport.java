@@ -0,0 +1,203 @@
+/*
+ * Copyright © 2024 Mark Raynsford <code@io7m.com> https://www.io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+
+package com.io7m.idstore.server.controller.admin;
+
+import com.io7m.idstore.database.api.IdDatabaseUsersQueriesType;
+import com.io7m.idstore.error_codes.IdException;
+import com.io7m.idstore.model.IdPassword;
+import com.io7m.idstore.model.IdPasswordAlgorithmPBKDF2HmacSHA256;
+import com.io7m.idstore.model.IdPasswordAlgorithmType;
+import com.io7m.idstore.model.IdPasswordException;
+import com.io7m.idstore.model.IdUserCreate;
+import com.io7m.idstore.model.IdUserImportError;
+import com.io7m.idstore.protocol.admin.IdACommandUserImport;
+import com.io7m.idstore.protocol.admin.IdAResponseType;
+import com.io7m.idstore.protocol.admin.IdAResponseUserImport;
+import com.io7m.idstore.protocol.admin.IdAUserImport;
+import com.io7m.idstore.protocol.admin.IdAUserImportPasswordHashed;
+import com.io7m.idstore.protocol.admin.IdAUserImportPasswordPlain;
+import com.io7m.idstore.server.security.IdSecAdminActionUserCreate;
+import com.io7m.idstore.server.service.clock.IdServerClock;
+import com.io7m.idstore.server.service.configuration.IdServerConfigurationService;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Optional;
+
+/**
+ * IdACmdUserImport
+ */
+
+public final class IdACmdUserImport
+  extends IdACmdAbstract<
+  IdACommandContext, IdACommandUserImport, IdAResponseType>
+{
+  /**
+   * IdACmdUserImport
+   */
+
+  public IdACmdUserImport()
+  {
+
+  }
+
+  /**
+   * A user ready to be written to the database, or the reason that it
+   * cannot be.
+   */
+
+  private record Prepared(
+    int index,
+    Optional<IdUserCreate> user,
+    Optional<IdUserImportError> error)
+  {
+
+  }
+
+  private static Prepared prepare(
+    final IdPasswordAlgorithmType algorithm,
+    final int index,
+    final IdAUserImport user)
+  {
+    try {
+      final IdPassword password =
+        switch (user.password()) {
+          case final IdAUserImportPasswordHashed h -> h.password();
+          case final IdAUserImportPasswordPlain p ->
+            algorithm.createHashed(p.password());
+        };
+
+      return new Prepared(
+        index,
+        Optional.of(new IdUserCreate(
+          user.id(),
+          user.idName(),
+          user.realName(),
+          user.email(),
+          password
+        )),
+        Optional.empty()
+      );
+    } catch (final IdPasswordException e) {
+      return new Prepared(
+        index,
+        Optional.empty(),
+        Optional.of(new IdUserImportError(index, e.errorCode(), e.getMessage()))
+      );
+    }
+  }
+
+  @Override
+  protected IdAResponseType executeActual(
+    final IdACommandContext context,
+    final IdACommandUserImport command)
+    throws IdException
+  {
+    final var services =
+      context.services();
+    final var configuration =
+      services.requireService(IdServerConfigurationService.class)
+        .configuration();
+    final var expiration =
+      configuration.passwordExpiration();
+    final var clock =
+      services.requireService(IdServerClock.class);
+
+    final var transaction =
+      context.transaction();
+    final var admin =
+      context.admin();
+
+    context.securityCheck(new IdSecAdminActionUserCreate(admin));
+
+    /*
+     * Hashing plaintext passwords dominates the cost of an import, so the
+     * passwords are hashed in parallel on the dedicated hashing threads
+     * before anything is written.
+     */
+
+    final var algorithm =
+      IdPasswordAlgorithmPBKDF2HmacSHA256.create();
+    final var entries =
+      command.users();
+    final var prepared =
+      services.requireService(IdAUserImportHasher.class)
+        .map(entries.size(), i -> prepare(algorithm, i, entries.get(i)));
+
+    final var errors =
+      new ArrayList<IdUserImportError>();
+    final var accepted =
+      new ArrayList<IdUserCreate>(prepared.size());
+    final var acceptedIndices =
+      new int[prepared.size()];
+
+    for (final var p : prepared) {
+      if (p.user().isPresent()) {
+        final var user = p.user().get();
+        acceptedIndices[accepted.size()] = p.index();
+        accepted.add(new IdUserCreate(
+          user.id(),
+          user.idName(),
+          user.realName(),
+          user.email(),
+          expiration.expireUserPasswordIfNecessary(
+            clock.clock(),
+            user.password()
+          )
+        ));
+      }
+      p.error().ifPresent(errors::add);
+    }
+
+    /*
+     * The time spent hashing passwords is not database work, so the
+     * write is given the full request timeout of its own rather than
+     * whatever remains of the request's deadline.
+     */
+
+    transaction.deadlineSet(
+      clock.nowPrecise().plus(configuration.requestTimeout())
+    );
+    transaction.adminSet(admin);
+
+    final var users =
+      transaction.queries(IdDatabaseUsersQueriesType.class);
+    final var result =
+      users.userImport(accepted, context.now());
+
+    /*
+     * The database reports errors by position in the list of accepted
+     * users, which must be mapped back to positions in the command.
+     */
+
+    for (final var e : result.errors()) {
+      errors.add(new IdUserImportError(
+        acceptedIndices[e.index()],
+        e.errorCode(),
+        e.message()
+      ));
+    }
+    errors.sort(Comparator.comparingInt(IdUserImportError::index));
+
+    return new IdAResponseUserImport(
+      context.requestId(),
+      result.created(),
+      errors
+    );
+  }
+}
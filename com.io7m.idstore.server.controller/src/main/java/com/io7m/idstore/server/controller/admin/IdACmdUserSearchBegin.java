@@ -57,17 +57,24 @@ public final class IdACmdUserSearchBegin
 
     final var users =
       transaction.queries(IdDatabaseUsersQueriesType.class);
-
-    final var session =
-      context.session();
+    final var parameters =
+      obtainListParameters(command);
     final var search =
-      users.userSearch(obtainListParameters(command));
-
-    session.setUserSearch(search);
+      users.userSearch(parameters);
+    final var page =
+      search.pageCurrent(users);
 
+    IdACmdSearchCursors.discard(context, IdASearchKind.USERS);
     return new IdAResponseUserSearchBegin(
       context.requestId(),
-      search.pageCurrent(users)
+      IdACmdSearchCursors.issue(
+        context,
+        IdASearchKind.USERS,
+        parameters,
+        search.position(),
+        page,
+        IdASearchFetchers::users
+      )
     );
   }
 
@@ -56,15 +56,24 @@ public final class IdACmdUserSearchByEmailBegin
 
     final var users =
       transaction.queries(IdDatabaseUsersQueriesType.class);
+    final var parameters =
+      obtainListParameters(command);
     final var search =
-      users.userSearchByEmail(obtainListParameters(command));
-
-    final var session = context.session();
-    session.setUserSearchByEmail(search);
+      users.userSearchByEmail(parameters);
+    final var page =
+      search.pageCurrent(users);
 
+    IdACmdSearchCursors.discard(context, IdASearchKind.USERS_BY_EMAIL);
     return new IdAResponseUserSearchByEmailBegin(
       context.requestId(),
-      search.pageCurrent(users)
+      IdACmdSearchCursors.issue(
+        context,
+        IdASearchKind.USERS_BY_EMAIL,
+        parameters,
+        search.position(),
+        page,
+        IdASearchFetchers::usersByEmail
+      )
     );
   }
 
@@ -17,16 +17,13 @@
 
 package com.io7m.idstore.server.controller.admin;
 
-import com.io7m.idstore.database.api.IdDatabaseUsersQueriesType;
 import com.io7m.idstore.error_codes.IdException;
+import com.io7m.idstore.model.IdUserSearchByEmailParameters;
 import com.io7m.idstore.protocol.admin.IdACommandUserSearchByEmailNext;
 import com.io7m.idstore.protocol.admin.IdAResponseType;
 import com.io7m.idstore.protocol.admin.IdAResponseUserSearchByEmailNext;
 import com.io7m.idstore.server.security.IdSecAdminActionUserRead;
 
-import static com.io7m.idstore.error_codes.IdStandardErrorCodes.API_MISUSE_ERROR;
-import static com.io7m.idstore.strings.IdStringConstants.ERROR_SEARCH_START;
-
 /**
  * IdACmdUserSearchByEmailNext
  */
@@ -50,29 +47,20 @@ public final class IdACmdUserSearchByEmailNext
     final IdACommandUserSearchByEmailNext command)
     throws IdException
   {
-    final var transaction =
-      context.transaction();
     final var admin =
       context.admin();
 
     context.securityCheck(new IdSecAdminActionUserRead(admin));
 
-    final var users =
-      transaction.queries(IdDatabaseUsersQueriesType.class);
-
-    final var session =
-      context.session();
-    final var searchOpt =
-      session.userSearchByEmail();
-
-    if (searchOpt.isEmpty()) {
-      throw context.failFormatted(
-        400, API_MISUSE_ERROR, ERROR_SEARCH_START);
-    }
-
     return new IdAResponseUserSearchByEmailNext(
       context.requestId(),
-      searchOpt.get().pageNext(users)
+      IdACmdSearchCursors.next(
+        context,
+        IdASearchKind.USERS_BY_EMAIL,
+        IdUserSearchByEmailParameters.class,
+        command.cursor(),
+        IdASearchFetchers::usersByEmail
+      )
     );
   }
 }
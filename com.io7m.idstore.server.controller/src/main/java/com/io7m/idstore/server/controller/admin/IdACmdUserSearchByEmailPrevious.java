@@ -19,14 +19,12 @@ package com.io7m.idstore.server.controller.admin;
 
 import com.io7m.idstore.database.api.IdDatabaseUsersQueriesType;
 import com.io7m.idstore.error_codes.IdException;
+import com.io7m.idstore.model.IdUserSearchByEmailParameters;
 import com.io7m.idstore.protocol.admin.IdACommandUserSearchByEmailPrevious;
 import com.io7m.idstore.protocol.admin.IdAResponseType;
 import com.io7m.idstore.protocol.admin.IdAResponseUserSearchByEmailPrevious;
 import com.io7m.idstore.server.security.IdSecAdminActionUserRead;
 
-import static com.io7m.idstore.error_codes.IdStandardErrorCodes.API_MISUSE_ERROR;
-import static com.io7m.idstore.strings.IdStringConstants.ERROR_SEARCH_START;
-
 /**
  * IdACmdUserSearchByEmailPrevious
  */
@@ -57,22 +55,27 @@ public final class IdACmdUserSearchByEmailPrevious
 
     context.securityCheck(new IdSecAdminActionUserRead(admin));
 
+    final var cursor =
+      IdACmdSearchCursors.open(
+        context,
+        IdUserSearchByEmailParameters.class,
+        command.cursor()
+      );
     final var users =
       transaction.queries(IdDatabaseUsersQueriesType.class);
-
-    final var session =
-      context.session();
-    final var searchOpt =
-      session.userSearchByEmail();
-
-    if (searchOpt.isEmpty()) {
-      throw context.failFormatted(
-        400, API_MISUSE_ERROR, ERROR_SEARCH_START);
-    }
+    final var search =
+      users.userSearchByEmail(cursor.parameters(), cursor.position());
+    final var page =
+      search.pagePrevious(users);
 
     return new IdAResponseUserSearchByEmailPrevious(
       context.requestId(),
-      searchOpt.get().pagePrevious(users)
+      IdACmdSearchCursors.issuePrevious(
+        context,
+        cursor.parameters(),
+        search.position(),
+        page
+      )
     );
   }
 }
@@ -17,16 +17,13 @@
 
 package com.io7m.idstore.server.controller.admin;
 
-import com.io7m.idstore.database.api.IdDatabaseUsersQueriesType;
 import com.io7m.idstore.error_codes.IdException;
+import com.io7m.idstore.model.IdUserSearchParameters;
 import com.io7m.idstore.protocol.admin.IdACommandUserSearchNext;
 import com.io7m.idstore.protocol.admin.IdAResponseType;
 import com.io7m.idstore.protocol.admin.IdAResponseUserSearchNext;
 import com.io7m.idstore.server.security.IdSecAdminActionUserRead;
 
-import static com.io7m.idstore.error_codes.IdStandardErrorCodes.API_MISUSE_ERROR;
-import static com.io7m.idstore.strings.IdStringConstants.ERROR_SEARCH_START;
-
 /**
  * IdACmdUserSearchNext
  */
@@ -50,28 +47,20 @@ public final class IdACmdUserSearchNext
     final IdACommandUserSearchNext command)
     throws IdException
   {
-    final var transaction =
-      context.transaction();
     final var admin =
       context.admin();
 
     context.securityCheck(new IdSecAdminActionUserRead(admin));
 
-    final var users =
-      transaction.queries(IdDatabaseUsersQueriesType.class);
-    final var session =
-      context.session();
-    final var searchOpt =
-      session.userSearch();
-
-    if (searchOpt.isEmpty()) {
-      throw context.failFormatted(
-        400, API_MISUSE_ERROR, ERROR_SEARCH_START);
-    }
-
     return new IdAResponseUserSearchNext(
       context.requestId(),
-      searchOpt.get().pageNext(users)
+      IdACmdSearchCursors.next(
+        context,
+        IdASearchKind.USERS,
+        IdUserSearchParameters.class,
+        command.cursor(),
+        IdASearchFetchers::users
+      )
     );
   }
 }
@@ -19,14 +19,12 @@ package com.io7m.idstore.server.controller.admin;
 
 import com.io7m.idstore.database.api.IdDatabaseUsersQueriesType;
 import com.io7m.idstore.error_codes.IdException;
+import com.io7m.idstore.model.IdUserSearchParameters;
 import com.io7m.idstore.protocol.admin.IdACommandUserSearchPrevious;
 import com.io7m.idstore.protocol.admin.IdAResponseType;
 import com.io7m.idstore.protocol.admin.IdAResponseUserSearchPrevious;
 import com.io7m.idstore.server.security.IdSecAdminActionUserRead;
 
-import static com.io7m.idstore.error_codes.IdStandardErrorCodes.API_MISUSE_ERROR;
-import static com.io7m.idstore.strings.IdStringConstants.ERROR_SEARCH_START;
-
 /**
  * IdACmdUserSearchPrevious
  */
@@ -57,21 +55,27 @@ public final class IdACmdUserSearchPrevious
 
     context.securityCheck(new IdSecAdminActionUserRead(admin));
 
+    final var cursor =
+      IdACmdSearchCursors.open(
+        context,
+        IdUserSearchParameters.class,
+        command.cursor()
+      );
     final var users =
       transaction.queries(IdDatabaseUsersQueriesType.class);
-    final var session =
-      context.session();
-    final var searchOpt =
-      session.userSearch();
-
-    if (searchOpt.isEmpty()) {
-      throw context.failFormatted(
-        400, API_MISUSE_ERROR, ERROR_SEARCH_START);
-    }
+    final var search =
+      users.userSearch(cursor.parameters(), cursor.position());
+    final var page =
+      search.pagePrevious(users);
 
     return new IdAResponseUserSearchPrevious(
       context.requestId(),
-      searchOpt.get().pagePrevious(users)
+      IdACmdSearchCursors.issuePrevious(
+        context,
+        cursor.parameters(),
+        search.position(),
+        page
+      )
     );
   }
 }
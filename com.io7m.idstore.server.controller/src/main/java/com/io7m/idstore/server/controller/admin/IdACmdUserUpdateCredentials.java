@@ -75,7 +75,7 @@ public final class IdACmdUserUpdateCredentials
 
     context.securityCheck(new IdSecAdminActionUserUpdateCredentials(admin));
 
-    transaction.adminIdSet(admin.id());
+    transaction.adminSet(admin);
 
     final var users =
       transaction.queries(IdDatabaseUsersQueriesType.class);
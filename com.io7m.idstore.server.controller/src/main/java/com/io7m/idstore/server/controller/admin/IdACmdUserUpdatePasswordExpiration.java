@@ -74,7 +74,7 @@ public final class IdACmdUserUpdatePasswordExpiration
 
     context.securityCheck(new IdSecAdminActionUserUpdateCredentials(admin));
 
-    transaction.adminIdSet(admin.id());
+    transaction.adminSet(admin);
 
     final var users =
       transaction.queries(IdDatabaseUsersQueriesType.class);
@@ -37,9 +37,11 @@ import com.io7m.idstore.protocol.admin.IdACommandAdminSearchPrevious;
 import com.io7m.idstore.protocol.admin.IdACommandAdminSelf;
 import com.io7m.idstore.protocol.admin.IdACommandAdminUpdateCredentials;
 import com.io7m.idstore.protocol.admin.IdACommandAdminUpdatePasswordExpiration;
+import com.io7m.idstore.protocol.admin.IdACommandAuditExport;
 import com.io7m.idstore.protocol.admin.IdACommandAuditSearchBegin;
 import com.io7m.idstore.protocol.admin.IdACommandAuditSearchNext;
 import com.io7m.idstore.protocol.admin.IdACommandAuditSearchPrevious;
+import com.io7m.idstore.protocol.admin.IdACommandBatch;
 import com.io7m.idstore.protocol.admin.IdACommandLogin;
 import com.io7m.idstore.protocol.admin.IdACommandMailTest;
 import com.io7m.idstore.protocol.admin.IdACommandMaintenanceModeSet;
@@ -51,8 +53,10 @@ import com.io7m.idstore.protocol.admin.IdACommandUserCreate;
 import com.io7m.idstore.protocol.admin.IdACommandUserDelete;
 import com.io7m.idstore.protocol.admin.IdACommandUserEmailAdd;
 import com.io7m.idstore.protocol.admin.IdACommandUserEmailRemove;
+import com.io7m.idstore.protocol.admin.IdACommandUserExport;
 import com.io7m.idstore.protocol.admin.IdACommandUserGet;
 import com.io7m.idstore.protocol.admin.IdACommandUserGetByEmail;
+import com.io7m.idstore.protocol.admin.IdACommandUserImport;
 import com.io7m.idstore.protocol.admin.IdACommandUserLoginHistory;
 import com.io7m.idstore.protocol.admin.IdACommandUserSearchBegin;
 import com.io7m.idstore.protocol.admin.IdACommandUserSearchByEmailBegin;
@@ -67,6 +71,8 @@ import com.io7m.idstore.server.controller.command_exec.IdCommandExecutionFailure
 import com.io7m.idstore.server.controller.command_exec.IdCommandExecutorType;
 import com.io7m.idstore.server.service.sessions.IdSessionAdmin;
 
+import java.util.Set;
+
 import static com.io7m.idstore.server.service.telemetry.api.IdServerTelemetryServiceType.recordSpanException;
 
 /**
@@ -80,6 +86,33 @@ public final class IdACommandExecutor
   IdACommandType<? extends IdAResponseType>,
   IdAResponseType>
 {
+  private static final Set<Class<?>> READ_ONLY_COMMANDS =
+    Set.of(
+      IdACommandAdminBanGet.class,
+      IdACommandAdminGet.class,
+      IdACommandAdminGetByEmail.class,
+      IdACommandAdminSearchBegin.class,
+      IdACommandAdminSearchByEmailBegin.class,
+      IdACommandAdminSearchByEmailNext.class,
+      IdACommandAdminSearchByEmailPrevious.class,
+      IdACommandAdminSearchNext.class,
+      IdACommandAdminSearchPrevious.class,
+      IdACommandAdminSelf.class,
+      IdACommandAuditSearchBegin.class,
+      IdACommandAuditSearchNext.class,
+      IdACommandAuditSearchPrevious.class,
+      IdACommandUserBanGet.class,
+      IdACommandUserGet.class,
+      IdACommandUserGetByEmail.class,
+      IdACommandUserLoginHistory.class,
+      IdACommandUserSearchBegin.class,
+      IdACommandUserSearchByEmailBegin.class,
+      IdACommandUserSearchByEmailNext.class,
+      IdACommandUserSearchByEmailPrevious.class,
+      IdACommandUserSearchNext.class,
+      IdACommandUserSearchPrevious.class
+    );
+
   /**
    * A command executor for public commands.
    */
@@ -89,6 +122,22 @@ public final class IdACommandExecutor
 
   }
 
+  /**
+   * Determine whether a command only reads data. Read-only commands may be
+   * executed against a read replica of the database, and so may observe
+   * data that is slightly out of date.
+   *
+   * @param command The command
+   *
+   * @return {@code true} if the command never writes to the database
+   */
+
+  public static boolean isReadOnly(
+    final IdACommandType<?> command)
+  {
+    return READ_ONLY_COMMANDS.contains(command.getClass());
+  }
+
   @Override
   public IdAResponseType execute(
     final IdACommandContext context,
@@ -203,6 +252,14 @@ public final class IdACommandExecutor
         new IdACmdMailTest().execute(context, c);
       case final IdACommandMaintenanceModeSet c ->
         new IdACmdMaintenanceModeSet().execute(context, c);
+      case final IdACommandBatch c ->
+        new IdACmdBatch().execute(context, c);
+      case final IdACommandAuditExport c ->
+        new IdACmdAuditExport().execute(context, c);
+      case final IdACommandUserExport c ->
+        new IdACmdUserExport().execute(context, c);
+      case final IdACommandUserImport c ->
+        new IdACmdUserImport().execute(context, c);
     };
   }
 }
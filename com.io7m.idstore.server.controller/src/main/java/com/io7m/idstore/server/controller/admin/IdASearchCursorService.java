@@ -0,0 +1,640 @@
+/*
+ * Copyright © 2024 Mark Raynsford <code@io7m.com> https://www.io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+
+package com.io7m.idstore.server.controller.admin;
+
+import com.io7m.idstore.database.api.IdDatabaseSearchPosition;
+import com.io7m.idstore.model.IdAdminColumn;
+import com.io7m.idstore.model.IdAdminColumnOrdering;
+import com.io7m.idstore.model.IdAdminSearchByEmailParameters;
+import com.io7m.idstore.model.IdAdminSearchParameters;
+import com.io7m.idstore.model.IdAuditSearchParameters;
+import com.io7m.idstore.model.IdTimeRange;
+import com.io7m.idstore.model.IdUserColumn;
+import com.io7m.idstore.model.IdUserColumnOrdering;
+import com.io7m.idstore.model.IdUserSearchByEmailParameters;
+import com.io7m.idstore.model.IdUserSearchParameters;
+import com.io7m.repetoir.core.RPServiceType;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.security.SecureRandom;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.OffsetDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.List;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.UUID;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+
+/**
+ * <p>A service that encodes and decodes search cursors.</p>
+ *
+ * <p>A search cursor is an opaque string handed to an admin client with each
+ * page of search results. It contains the search parameters, the ID of the
+ * admin that started the search, and the position of the page within the
+ * results. The cursor is signed with HMAC-SHA256 so that clients cannot
+ * forge positions or parameters, and so that no per-session search state
+ * needs to be held on the server.</p>
+ *
+ * <p>Each cursor records the time at which it was issued, and cursors older
+ * than the configured lifetime are rejected, so a cursor that has leaked
+ * cannot be replayed indefinitely.</p>
+ *
+ * <p>If no secret is configured, each server signs cursors with its own
+ * random key. In a deployment with more than one server behind a load
+ * balancer, a cursor issued by one server is then rejected by every other
+ * server, and so all servers must be configured with the same secret.</p>
+ */
+
+public final class IdASearchCursorService implements RPServiceType
+{
+  private static final int VERSION = 3;
+  private static final String MAC_ALGORITHM = "HmacSHA256";
+  private static final int MAC_SIZE = 32;
+
+  private static final int KIND_USER = 1;
+  private static final int KIND_USER_BY_EMAIL = 2;
+  private static final int KIND_ADMIN = 3;
+  private static final int KIND_ADMIN_BY_EMAIL = 4;
+  private static final int KIND_AUDIT = 5;
+
+  private static final int KEY_LONG = 0;
+  private static final int KEY_STRING = 1;
+  private static final int KEY_UUID = 2;
+  private static final int KEY_TIME = 3;
+
+  private static final Base64.Encoder ENCODER =
+    Base64.getUrlEncoder().withoutPadding();
+  private static final Base64.Decoder DECODER =
+    Base64.getUrlDecoder();
+
+  /**
+   * The lifetime of cursors created by {@link #create(Optional)}.
+   */
+
+  public static final Duration DEFAULT_LIFETIME = Duration.ofHours(1L);
+
+  private final Clock clock;
+  private final Duration lifetime;
+  private final SecretKeySpec key;
+
+  private IdASearchCursorService(
+    final Clock inClock,
+    final Duration inLifetime,
+    final byte[] inKey)
+  {
+    this.clock =
+      Objects.requireNonNull(inClock, "clock");
+    this.lifetime =
+      Objects.requireNonNull(inLifetime, "lifetime");
+    this.key =
+      new SecretKeySpec(inKey, MAC_ALGORITHM);
+  }
+
+  /**
+   * Create a cursor service using the system clock and a cursor lifetime
+   * of {@link #DEFAULT_LIFETIME}.
+   *
+   * @param secret The secret, if any
+   *
+   * @return A cursor service
+   *
+   * @see #create(Clock, Duration, Optional)
+   */
+
+  public static IdASearchCursorService create(
+    final Optional<String> secret)
+  {
+    return create(Clock.systemUTC(), DEFAULT_LIFETIME, secret);
+  }
+
+  /**
+   * Create a cursor service. If a secret is provided, the signing key is
+   * derived from the secret, and servers configured with the same secret
+   * accept each other's cursors. Otherwise, a random key is generated, and
+   * only this service accepts the cursors that it issues.
+   *
+   * @param clock    The clock used to timestamp and expire cursors
+   * @param lifetime The time after which an issued cursor is rejected
+   * @param secret   The secret, if any
+   *
+   * @return A cursor service
+   */
+
+  public static IdASearchCursorService create(
+    final Clock clock,
+    final Duration lifetime,
+    final Optional<String> secret)
+  {
+    Objects.requireNonNull(clock, "clock");
+    Objects.requireNonNull(lifetime, "lifetime");
+    Objects.requireNonNull(secret, "secret");
+
+    if (lifetime.isNegative() || lifetime.isZero()) {
+      throw new IllegalArgumentException(
+        "Cursor lifetime %s must be positive".formatted(lifetime)
+      );
+    }
+
+    try {
+      if (secret.isPresent()) {
+        final var digest = MessageDigest.getInstance("SHA-256");
+        return new IdASearchCursorService(
+          clock,
+          lifetime,
+          digest.digest(secret.get().getBytes(UTF_8))
+        );
+      }
+    } catch (final GeneralSecurityException e) {
+      throw new IllegalStateException(e);
+    }
+
+    final var key = new byte[32];
+    new SecureRandom().nextBytes(key);
+    return new IdASearchCursorService(clock, lifetime, key);
+  }
+
+  /**
+   * A decoded search cursor.
+   *
+   * @param parameters The search parameters
+   * @param position   The search position
+   * @param <P>        The type of search parameters
+   */
+
+  public record IdASearchCursor<P>(
+    P parameters,
+    IdDatabaseSearchPosition position)
+  {
+    /**
+     * A decoded search cursor.
+     *
+     * @param parameters The search parameters
+     * @param position   The search position
+     */
+
+    public IdASearchCursor
+    {
+      Objects.requireNonNull(parameters, "parameters");
+      Objects.requireNonNull(position, "position");
+    }
+  }
+
+  /**
+   * Encode a search cursor.
+   *
+   * @param admin      The admin that owns the search
+   * @param parameters The search parameters
+   * @param position   The current search position
+   *
+   * @return An encoded cursor
+   */
+
+  public String encode(
+    final UUID admin,
+    final Object parameters,
+    final IdDatabaseSearchPosition position)
+  {
+    Objects.requireNonNull(admin, "admin");
+    Objects.requireNonNull(parameters, "parameters");
+    Objects.requireNonNull(position, "position");
+
+    try (var bytes = new ByteArrayOutputStream();
+         var output = new DataOutputStream(bytes)) {
+      output.writeByte(VERSION);
+      output.writeByte(kindOf(parameters.getClass()));
+      output.writeLong(admin.getMostSignificantBits());
+      output.writeLong(admin.getLeastSignificantBits());
+      output.writeLong(this.clock.millis());
+      writeParameters(output, parameters);
+      writePosition(output, position);
+      output.flush();
+
+      final var payload = bytes.toByteArray();
+      final var tag = this.mac(payload);
+      final var result = Arrays.copyOf(payload, payload.length + tag.length);
+      System.arraycopy(tag, 0, result, payload.length, tag.length);
+      return ENCODER.encodeToString(result);
+    } catch (final IOException e) {
+      throw new UncheckedIOException(e);
+    }
+  }
+
+  /**
+   * Decode a search cursor. Decoding fails if the cursor is malformed, if
+   * the signature does not match, if the cursor belongs to a different kind
+   * of search, if the cursor was issued to a different admin, or if the
+   * cursor was issued longer ago than the cursor lifetime.
+   *
+   * @param admin           The admin presenting the cursor
+   * @param parametersClass The expected type of search parameters
+   * @param text            The encoded cursor
+   * @param <P>             The type of search parameters
+   *
+   * @return The decoded cursor, or nothing if the cursor is not acceptable
+   */
+
+  public <P> Optional<IdASearchCursor<P>> decode(
+    final UUID admin,
+    final Class<P> parametersClass,
+    final String text)
+  {
+    Objects.requireNonNull(admin, "admin");
+    Objects.requireNonNull(parametersClass, "parametersClass");
+    Objects.requireNonNull(text, "text");
+
+    final byte[] data;
+    try {
+      data = DECODER.decode(text);
+    } catch (final IllegalArgumentException e) {
+      return Optional.empty();
+    }
+
+    if (data.length <= MAC_SIZE) {
+      return Optional.empty();
+    }
+
+    final var split = data.length - MAC_SIZE;
+    final var payload = Arrays.copyOfRange(data, 0, split);
+    final var tag = Arrays.copyOfRange(data, split, data.length);
+    if (!MessageDigest.isEqual(this.mac(payload), tag)) {
+      return Optional.empty();
+    }
+
+    try (var input = new DataInputStream(new ByteArrayInputStream(payload))) {
+      if (input.readUnsignedByte() != VERSION) {
+        return Optional.empty();
+      }
+      if (input.readUnsignedByte() != kindOf(parametersClass)) {
+        return Optional.empty();
+      }
+      final var owner = new UUID(input.readLong(), input.readLong());
+      if (!Objects.equals(owner, admin)) {
+        return Optional.empty();
+      }
+      final var issued = Instant.ofEpochMilli(input.readLong());
+      if (this.isExpired(issued)) {
+        return Optional.empty();
+      }
+
+      final var parameters =
+        parametersClass.cast(readParameters(input, parametersClass));
+      final var position =
+        readPosition(input);
+
+      if (input.available() != 0) {
+        return Optional.empty();
+      }
+      return Optional.of(new IdASearchCursor<>(parameters, position));
+    } catch (final IOException | RuntimeException e) {
+      return Optional.empty();
+    }
+  }
+
+  private boolean isExpired(
+    final Instant issued)
+  {
+    final var age = Duration.between(issued, this.clock.instant());
+    return age.compareTo(this.lifetime) > 0;
+  }
+
+  private byte[] mac(
+    final byte[] payload)
+  {
+    try {
+      final var mac = Mac.getInstance(MAC_ALGORITHM);
+      mac.init(this.key);
+      return mac.doFinal(payload);
+    } catch (final GeneralSecurityException e) {
+      throw new IllegalStateException(e);
+    }
+  }
+
+  private static int kindOf(
+    final Class<?> c)
+  {
+    if (c == IdUserSearchParameters.class) {
+      return KIND_USER;
+    }
+    if (c == IdUserSearchByEmailParameters.class) {
+      return KIND_USER_BY_EMAIL;
+    }
+    if (c == IdAdminSearchParameters.class) {
+      return KIND_ADMIN;
+    }
+    if (c == IdAdminSearchByEmailParameters.class) {
+      return KIND_ADMIN_BY_EMAIL;
+    }
+    if (c == IdAuditSearchParameters.class) {
+      return KIND_AUDIT;
+    }
+    throw new IllegalArgumentException(
+      "Unrecognized search parameters: %s".formatted(c));
+  }
+
+  private static void writeParameters(
+    final DataOutputStream output,
+    final Object parameters)
+    throws IOException
+  {
+    switch (parameters) {
+      case final IdUserSearchParameters p -> {
+        writeTimeRange(output, p.timeCreatedRange());
+        writeTimeRange(output, p.timeUpdatedRange());
+        writeOptionalString(output, p.search());
+        writeString(output, p.ordering().column().name());
+        output.writeBoolean(p.ordering().ascending());
+        output.writeInt(p.limit());
+      }
+      case final IdUserSearchByEmailParameters p -> {
+        writeTimeRange(output, p.timeCreatedRange());
+        writeTimeRange(output, p.timeUpdatedRange());
+        writeString(output, p.search());
+        writeString(output, p.ordering().column().name());
+        output.writeBoolean(p.ordering().ascending());
+        output.writeInt(p.limit());
+      }
+      case final IdAdminSearchParameters p -> {
+        writeTimeRange(output, p.timeCreatedRange());
+        writeTimeRange(output, p.timeUpdatedRange());
+        writeOptionalString(output, p.search());
+        writeString(output, p.ordering().column().name());
+        output.writeBoolean(p.ordering().ascending());
+        output.writeInt(p.limit());
+      }
+      case final IdAdminSearchByEmailParameters p -> {
+        writeTimeRange(output, p.timeCreatedRange());
+        writeTimeRange(output, p.timeUpdatedRange());
+        writeString(output, p.search());
+        writeString(output, p.ordering().column().name());
+        output.writeBoolean(p.ordering().ascending());
+        output.writeInt(p.limit());
+      }
+      case final IdAuditSearchParameters p -> {
+        writeTimeRange(output, p.timeRange());
+        writeOptionalString(output, p.owner());
+        writeOptionalString(output, p.type());
+        output.writeInt(p.limit());
+      }
+      default -> throw new IllegalArgumentException(
+        "Unrecognized search parameters: %s".formatted(parameters));
+    }
+  }
+
+  private static Object readParameters(
+    final DataInputStream input,
+    final Class<?> c)
+    throws IOException
+  {
+    if (c == IdUserSearchParameters.class) {
+      return new IdUserSearchParameters(
+        readTimeRange(input),
+        readTimeRange(input),
+        readOptionalString(input),
+        new IdUserColumnOrdering(
+          IdUserColumn.valueOf(readString(input)),
+          input.readBoolean()
+        ),
+        input.readInt()
+      );
+    }
+    if (c == IdUserSearchByEmailParameters.class) {
+      return new IdUserSearchByEmailParameters(
+        readTimeRange(input),
+        readTimeRange(input),
+        readString(input),
+        new IdUserColumnOrdering(
+          IdUserColumn.valueOf(readString(input)),
+          input.readBoolean()
+        ),
+        input.readInt()
+      );
+    }
+    if (c == IdAdminSearchParameters.class) {
+      return new IdAdminSearchParameters(
+        readTimeRange(input),
+        readTimeRange(input),
+        readOptionalString(input),
+        new IdAdminColumnOrdering(
+          IdAdminColumn.valueOf(readString(input)),
+          input.readBoolean()
+        ),
+        input.readInt()
+      );
+    }
+    if (c == IdAdminSearchByEmailParameters.class) {
+      return new IdAdminSearchByEmailParameters(
+        readTimeRange(input),
+        readTimeRange(input),
+        readString(input),
+        new IdAdminColumnOrdering(
+          IdAdminColumn.valueOf(readString(input)),
+          input.readBoolean()
+        ),
+        input.readInt()
+      );
+    }
+    if (c == IdAuditSearchParameters.class) {
+      return new IdAuditSearchParameters(
+        readTimeRange(input),
+        readOptionalString(input),
+        readOptionalString(input),
+        input.readInt()
+      );
+    }
+    throw new IllegalArgumentException(
+      "Unrecognized search parameters: %s".formatted(c));
+  }
+
+  private static void writePosition(
+    final DataOutputStream output,
+    final IdDatabaseSearchPosition position)
+    throws IOException
+  {
+    output.writeInt(position.pageIndex());
+    output.writeInt(position.pageCount());
+    output.writeBoolean(position.pageCountApproximate());
+    output.writeInt(position.firstKey().size());
+    for (final var k : position.firstKey()) {
+      writeKey(output, k);
+    }
+    for (final var k : position.lastKey()) {
+      writeKey(output, k);
+    }
+  }
+
+  private static IdDatabaseSearchPosition readPosition(
+    final DataInputStream input)
+    throws IOException
+  {
+    final var pageIndex = input.readInt();
+    final var pageCount = input.readInt();
+    final var pageCountApproximate = input.readBoolean();
+    final var size = input.readInt();
+    if (size < 0 || size > input.available()) {
+      throw new IOException("Invalid key size: %d".formatted(size));
+    }
+
+    final var firstKey = new ArrayList<>(size);
+    for (int index = 0; index < size; ++index) {
+      firstKey.add(readKey(input));
+    }
+    final var lastKey = new ArrayList<>(size);
+    for (int index = 0; index < size; ++index) {
+      lastKey.add(readKey(input));
+    }
+    return new IdDatabaseSearchPosition(
+      pageIndex,
+      pageCount,
+      List.copyOf(firstKey),
+      List.copyOf(lastKey),
+      pageCountApproximate
+    );
+  }
+
+  private static void writeKey(
+    final DataOutputStream output,
+    final Object key)
+    throws IOException
+  {
+    switch (key) {
+      case final Long x -> {
+        output.writeByte(KEY_LONG);
+        output.writeLong(x.longValue());
+      }
+      case final String x -> {
+        output.writeByte(KEY_STRING);
+        writeString(output, x);
+      }
+      case final UUID x -> {
+        output.writeByte(KEY_UUID);
+        output.writeLong(x.getMostSignificantBits());
+        output.writeLong(x.getLeastSignificantBits());
+      }
+      case final OffsetDateTime x -> {
+        output.writeByte(KEY_TIME);
+        writeString(output, x.toString());
+      }
+      default -> throw new IllegalArgumentException(
+        "Unsupported key type: %s".formatted(key.getClass()));
+    }
+  }
+
+  private static Object readKey(
+    final DataInputStream input)
+    throws IOException
+  {
+    final var tag = input.readUnsignedByte();
+    return switch (tag) {
+      case KEY_LONG -> Long.valueOf(input.readLong());
+      case KEY_STRING -> readString(input);
+      case KEY_UUID -> new UUID(input.readLong(), input.readLong());
+      case KEY_TIME -> OffsetDateTime.parse(readString(input));
+      default -> throw new IOException(
+        "Unrecognized key type: %d".formatted(tag));
+    };
+  }
+
+  private static void writeTimeRange(
+    final DataOutputStream output,
+    final IdTimeRange range)
+    throws IOException
+  {
+    writeString(output, range.timeLower().toString());
+    writeString(output, range.timeUpper().toString());
+  }
+
+  private static IdTimeRange readTimeRange(
+    final DataInputStream input)
+    throws IOException
+  {
+    return new IdTimeRange(
+      OffsetDateTime.parse(readString(input)),
+      OffsetDateTime.parse(readString(input))
+    );
+  }
+
+  private static void writeOptionalString(
+    final DataOutputStream output,
+    final Optional<String> text)
+    throws IOException
+  {
+    output.writeBoolean(text.isPresent());
+    if (text.isPresent()) {
+      writeString(output, text.get());
+    }
+  }
+
+  private static Optional<String> readOptionalString(
+    final DataInputStream input)
+    throws IOException
+  {
+    if (input.readBoolean()) {
+      return Optional.of(readString(input));
+    }
+    return Optional.empty();
+  }
+
+  private static void writeString(
+    final DataOutputStream output,
+    final String text)
+    throws IOException
+  {
+    final var bytes = text.getBytes(UTF_8);
+    output.writeInt(bytes.length);
+    output.write(bytes);
+  }
+
+  private static String readString(
+    final DataInputStream input)
+    throws IOException
+  {
+    final var size = input.readInt();
+    if (size < 0 || size > input.available()) {
+      throw new IOException("Invalid string size: %d".formatted(size));
+    }
+    return new String(input.readNBytes(size), UTF_8);
+  }
+
+  @Override
+  public String description()
+  {
+    return "Search cursor service.";
+  }
+
+  @Override
+  public String toString()
+  {
+    return "[IdASearchCursorService 0x%s]"
+      .formatted(Long.toUnsignedString(this.hashCode(), 16));
+  }
+}
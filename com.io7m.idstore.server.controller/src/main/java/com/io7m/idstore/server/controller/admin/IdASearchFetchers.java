@@ -0,0 +1,126 @@
+/*
+ * Copyright © 2024 Mark Raynsford <code@io7m.com> https://www.io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+
+package com.io7m.idstore.server.controller.admin;
+
+import com.io7m.idstore.database.api.IdDatabaseAdminsQueriesType;
+import com.io7m.idstore.database.api.IdDatabaseAuditQueriesType;
+import com.io7m.idstore.database.api.IdDatabaseException;
+import com.io7m.idstore.database.api.IdDatabaseSearchPosition;
+import com.io7m.idstore.database.api.IdDatabaseTransactionType;
+import com.io7m.idstore.database.api.IdDatabaseUsersQueriesType;
+import com.io7m.idstore.model.IdAdminSearchByEmailParameters;
+import com.io7m.idstore.model.IdAdminSearchParameters;
+import com.io7m.idstore.model.IdAdminSummary;
+import com.io7m.idstore.model.IdAuditEvent;
+import com.io7m.idstore.model.IdAuditSearchParameters;
+import com.io7m.idstore.model.IdUserSearchByEmailParameters;
+import com.io7m.idstore.model.IdUserSearchParameters;
+import com.io7m.idstore.model.IdUserSummary;
+import com.io7m.idstore.server.controller.admin.IdASearchPrefetchService.IdASearchPrefetched;
+
+/**
+ * Functions that fetch the page following a given search position.
+ */
+
+final class IdASearchFetchers
+{
+  private IdASearchFetchers()
+  {
+
+  }
+
+  static IdASearchPrefetched<IdUserSummary> users(
+    final IdDatabaseTransactionType transaction,
+    final IdUserSearchParameters parameters,
+    final IdDatabaseSearchPosition position)
+    throws IdDatabaseException
+  {
+    final var users =
+      transaction.queries(IdDatabaseUsersQueriesType.class);
+    final var search =
+      users.userSearch(parameters, position);
+    final var page =
+      search.pageNext(users);
+
+    return new IdASearchPrefetched<>(page, search.position());
+  }
+
+  static IdASearchPrefetched<IdUserSummary> usersByEmail(
+    final IdDatabaseTransactionType transaction,
+    final IdUserSearchByEmailParameters parameters,
+    final IdDatabaseSearchPosition position)
+    throws IdDatabaseException
+  {
+    final var users =
+      transaction.queries(IdDatabaseUsersQueriesType.class);
+    final var search =
+      users.userSearchByEmail(parameters, position);
+    final var page =
+      search.pageNext(users);
+
+    return new IdASearchPrefetched<>(page, search.position());
+  }
+
+  static IdASearchPrefetched<IdAdminSummary> admins(
+    final IdDatabaseTransactionType transaction,
+    final IdAdminSearchParameters parameters,
+    final IdDatabaseSearchPosition position)
+    throws IdDatabaseException
+  {
+    final var admins =
+      transaction.queries(IdDatabaseAdminsQueriesType.class);
+    final var search =
+      admins.adminSearch(parameters, position);
+    final var page =
+      search.pageNext(admins);
+
+    return new IdASearchPrefetched<>(page, search.position());
+  }
+
+  static IdASearchPrefetched<IdAdminSummary> adminsByEmail(
+    final IdDatabaseTransactionType transaction,
+    final IdAdminSearchByEmailParameters parameters,
+    final IdDatabaseSearchPosition position)
+    throws IdDatabaseException
+  {
+    final var admins =
+      transaction.queries(IdDatabaseAdminsQueriesType.class);
+    final var search =
+      admins.adminSearchByEmail(parameters, position);
+    final var page =
+      search.pageNext(admins);
+
+    return new IdASearchPrefetched<>(page, search.position());
+  }
+
+  static IdASearchPrefetched<IdAuditEvent> audit(
+    final IdDatabaseTransactionType transaction,
+    final IdAuditSearchParameters parameters,
+    final IdDatabaseSearchPosition position)
+    throws IdDatabaseException
+  {
+    final var audit =
+      transaction.queries(IdDatabaseAuditQueriesType.class);
+    final var search =
+      audit.auditEventsSearch(parameters, position);
+    final var page =
+      search.pageNext(audit);
+
+    return new IdASearchPrefetched<>(page, search.position());
+  }
+}
@@ -0,0 +1,72 @@
+/*
+ * Copyright © 2024 Mark Raynsford <code@io7m.com> https://www.io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+
+package com.io7m.idstore.server.controller.admin;
+
+/**
+ * The kinds of admin searches.
+ */
+
+public enum IdASearchKind
+{
+  /**
+   * A user search.
+   */
+
+  USERS("users"),
+
+  /**
+   * A user search by email.
+   */
+
+  USERS_BY_EMAIL("users_by_email"),
+
+  /**
+   * An admin search.
+   */
+
+  ADMINS("admins"),
+
+  /**
+   * An admin search by email.
+   */
+
+  ADMINS_BY_EMAIL("admins_by_email"),
+
+  /**
+   * An audit event search.
+   */
+
+  AUDIT("audit");
+
+  private final String metricName;
+
+  IdASearchKind(
+    final String inMetricName)
+  {
+    this.metricName = inMetricName;
+  }
+
+  /**
+   * @return The name used for the search in metrics
+   */
+
+  public String metricName()
+  {
+    return this.metricName;
+  }
+}
@@ -0,0 +1,394 @@
+/*
+ * Copyright © 2024 Mark Raynsford <code@io7m.com> https://www.io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+
+package com.io7m.idstore.server.controller.admin;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.io7m.idstore.database.api.IdDatabaseConnectionType;
+import com.io7m.idstore.database.api.IdDatabaseException;
+import com.io7m.idstore.database.api.IdDatabaseSearchPosition;
+import com.io7m.idstore.database.api.IdDatabaseTransactionType;
+import com.io7m.idstore.database.api.IdDatabaseType;
+import com.io7m.idstore.model.IdPage;
+import com.io7m.idstore.server.service.sessions.IdSessionSecretIdentifier;
+import com.io7m.idstore.server.service.telemetry.api.IdMetricsServiceType;
+import com.io7m.repetoir.core.RPServiceType;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.time.Duration;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static com.io7m.idstore.database.api.IdDatabaseRole.IDSTORE_READ_ONLY;
+
+/**
+ * <p>A service that fetches the next page of admin searches in the
+ * background.</p>
+ *
+ * <p>Each time a search page is served, the following page is fetched
+ * asynchronously and held against the cursor that was issued with the served
+ * page. If the admin then requests the next page with that cursor, the page
+ * is served without touching the database.</p>
+ *
+ * <p>At most one prefetched page is held per session and kind of search, and
+ * the total number of items held across all sessions is bounded. Prefetched
+ * pages expire quickly so that stale results are not served. Pages are held
+ * against the session and kind of search, along with the cursor that they
+ * were fetched for, so that storing, taking, and discarding a page only ever
+ * touches that one slot.</p>
+ */
+
+public final class IdASearchPrefetchService
+  implements RPServiceType, AutoCloseable
+{
+  private static final Logger LOG =
+    LoggerFactory.getLogger(IdASearchPrefetchService.class);
+
+  private static final long MAXIMUM_ITEMS = 50_000L;
+  private static final Duration EXPIRATION = Duration.ofSeconds(30L);
+  private static final int MAXIMUM_CONCURRENT_FETCHES = 4;
+
+  private final IdDatabaseType database;
+  private final IdMetricsServiceType metrics;
+  private final ExecutorService executor;
+  private final Semaphore fetches;
+  private final AtomicLong sequence;
+  private final Cache<Key, Entry> pages;
+
+  private record Key(
+    IdSessionSecretIdentifier session,
+    IdASearchKind kind)
+  {
+
+  }
+
+  private record Entry(
+    String cursor,
+    long sequence,
+    IdASearchPrefetched<?> prefetched)
+  {
+
+  }
+
+  /**
+   * A prefetched page.
+   *
+   * @param page     The page
+   * @param position The position of the page
+   * @param <T>      The type of search results
+   */
+
+  public record IdASearchPrefetched<T>(
+    IdPage<T> page,
+    IdDatabaseSearchPosition position)
+  {
+    /**
+     * A prefetched page.
+     *
+     * @param page     The page
+     * @param position The position of the page
+     */
+
+    public IdASearchPrefetched
+    {
+      Objects.requireNonNull(page, "page");
+      Objects.requireNonNull(position, "position");
+    }
+  }
+
+  /**
+   * A function that fetches the page after the page at the given position.
+   *
+   * @param <P> The type of search parameters
+   * @param <T> The type of search results
+   */
+
+  @FunctionalInterface
+  public interface IdASearchFetcherType<P, T>
+  {
+    /**
+     * Fetch the page after the page at the given position.
+     *
+     * @param transaction The transaction
+     * @param parameters  The search parameters
+     * @param position    The position of the current page
+     *
+     * @return The next page
+     *
+     * @throws IdDatabaseException On errors
+     */
+
+    IdASearchPrefetched<T> fetchNext(
+      IdDatabaseTransactionType transaction,
+      P parameters,
+      IdDatabaseSearchPosition position)
+      throws IdDatabaseException;
+  }
+
+  private IdASearchPrefetchService(
+    final IdDatabaseType inDatabase,
+    final IdMetricsServiceType inMetrics,
+    final ExecutorService inExecutor)
+  {
+    this.database =
+      Objects.requireNonNull(inDatabase, "database");
+    this.metrics =
+      Objects.requireNonNull(inMetrics, "metrics");
+    this.executor =
+      Objects.requireNonNull(inExecutor, "executor");
+    this.fetches =
+      new Semaphore(MAXIMUM_CONCURRENT_FETCHES);
+    this.sequence =
+      new AtomicLong(0L);
+
+    this.pages =
+      Caffeine.newBuilder()
+        .maximumWeight(MAXIMUM_ITEMS)
+        .<Key, Entry>weigher((key, entry) -> {
+          return entry.prefetched().page().items().size() + 1;
+        })
+        .expireAfterWrite(EXPIRATION)
+        .evictionListener((key, entry, cause) -> {
+          if (key != null) {
+            this.onDiscarded(key.kind());
+          }
+        })
+        .build();
+  }
+
+  /**
+   * Create a prefetch service.
+   *
+   * @param database The database used for background fetches
+   * @param metrics  The metrics service
+   *
+   * @return A prefetch service
+   */
+
+  public static IdASearchPrefetchService create(
+    final IdDatabaseType database,
+    final IdMetricsServiceType metrics)
+  {
+    return new IdASearchPrefetchService(
+      database,
+      metrics,
+      Executors.newThreadPerTaskExecutor(
+        Thread.ofVirtual()
+          .name("com.io7m.idstore.search_prefetch-", 0L)
+          .factory()
+      )
+    );
+  }
+
+  /**
+   * Take the page prefetched for the given cursor, if there is one. A page
+   * can be taken at most once.
+   *
+   * @param session The session
+   * @param kind    The kind of search
+   * @param cursor  The cursor that was issued with the current page
+   * @param <T>     The type of search results
+   *
+   * @return The prefetched page, if any
+   */
+
+  @SuppressWarnings("unchecked")
+  public <T> Optional<IdASearchPrefetched<T>> take(
+    final IdSessionSecretIdentifier session,
+    final IdASearchKind kind,
+    final String cursor)
+  {
+    Objects.requireNonNull(session, "session");
+    Objects.requireNonNull(kind, "kind");
+    Objects.requireNonNull(cursor, "cursor");
+
+    final var taken = new AtomicReference<Entry>();
+    this.pages.asMap().computeIfPresent(
+      new Key(session, kind),
+      (key, existing) -> {
+        if (Objects.equals(existing.cursor(), cursor)) {
+          taken.set(existing);
+          return null;
+        }
+        return existing;
+      }
+    );
+
+    final var entry = taken.get();
+    if (entry == null) {
+      this.metrics.onSearchPrefetch(kind.metricName(), "miss");
+      return Optional.empty();
+    }
+
+    this.metrics.onSearchPrefetch(kind.metricName(), "hit");
+    return Optional.of((IdASearchPrefetched<T>) entry.prefetched());
+  }
+
+  /**
+   * Discard any page prefetched for the given kind of search in the given
+   * session. This is used when a new search begins.
+   *
+   * @param session The session
+   * @param kind    The kind of search
+   */
+
+  public void discard(
+    final IdSessionSecretIdentifier session,
+    final IdASearchKind kind)
+  {
+    Objects.requireNonNull(session, "session");
+    Objects.requireNonNull(kind, "kind");
+
+    if (this.pages.asMap().remove(new Key(session, kind)) != null) {
+      this.onDiscarded(kind);
+    }
+  }
+
+  /**
+   * Fetch the page after the page at the given position in the background.
+   * If too many fetches are already in progress, or the current page is
+   * known to be the last page, nothing is fetched.
+   *
+   * @param session    The session
+   * @param kind       The kind of search
+   * @param cursor     The cursor that was issued with the current page
+   * @param parameters The search parameters
+   * @param position   The position of the current page
+   * @param fetcher    The function that fetches the next page
+   * @param <P>        The type of search parameters
+   * @param <T>        The type of search results
+   */
+
+  public <P, T> void prefetch(
+    final IdSessionSecretIdentifier session,
+    final IdASearchKind kind,
+    final String cursor,
+    final P parameters,
+    final IdDatabaseSearchPosition position,
+    final IdASearchFetcherType<P, T> fetcher)
+  {
+    Objects.requireNonNull(session, "session");
+    Objects.requireNonNull(kind, "kind");
+    Objects.requireNonNull(cursor, "cursor");
+    Objects.requireNonNull(parameters, "parameters");
+    Objects.requireNonNull(position, "position");
+    Objects.requireNonNull(fetcher, "fetcher");
+
+    if (!position.pageCountApproximate()
+        && position.pageIndex() >= position.pageCount()) {
+      return;
+    }
+    if (!this.fetches.tryAcquire()) {
+      return;
+    }
+
+    final var key =
+      new Key(session, kind);
+    final var fetchSequence =
+      this.sequence.incrementAndGet();
+
+    try {
+      this.executor.execute(() -> {
+        try {
+          this.store(
+            key,
+            new Entry(
+              cursor,
+              fetchSequence,
+              this.fetch(parameters, position, fetcher)
+            )
+          );
+        } catch (final Exception e) {
+          LOG.debug("Search prefetch failed: ", e);
+        } finally {
+          this.fetches.release();
+        }
+      });
+    } catch (final Exception e) {
+      this.fetches.release();
+      LOG.debug("Search prefetch could not be started: ", e);
+    }
+  }
+
+  private <P, T> IdASearchPrefetched<T> fetch(
+    final P parameters,
+    final IdDatabaseSearchPosition position,
+    final IdASearchFetcherType<P, T> fetcher)
+    throws IdDatabaseException
+  {
+    try (IdDatabaseConnectionType connection =
+           this.database.openConnection(IDSTORE_READ_ONLY)) {
+      try (var transaction = connection.openTransaction()) {
+        return fetcher.fetchNext(transaction, parameters, position);
+      }
+    }
+  }
+
+  /*
+   * Fetches for the same slot may complete out of order; a page is only
+   * stored if it was requested after the page that it replaces.
+   */
+
+  private void store(
+    final Key key,
+    final Entry entry)
+  {
+    this.pages.asMap().compute(key, (k, existing) -> {
+      if (existing == null) {
+        return entry;
+      }
+      this.onDiscarded(k.kind());
+      if (existing.sequence() > entry.sequence()) {
+        return existing;
+      }
+      return entry;
+    });
+  }
+
+  private void onDiscarded(
+    final IdASearchKind kind)
+  {
+    this.metrics.onSearchPrefetch(kind.metricName(), "discarded");
+  }
+
+  @Override
+  public void close()
+  {
+    this.executor.shutdownNow();
+    this.pages.invalidateAll();
+  }
+
+  @Override
+  public String description()
+  {
+    return "Search prefetch service.";
+  }
+
+  @Override
+  public String toString()
+  {
+    return "[IdASearchPrefetchService 0x%s]"
+      .formatted(Long.toUnsignedString(this.hashCode(), 16));
+  }
+}
@@ -0,0 +1,178 @@
+/*
+ * Copyright © 2024 Mark Raynsford <code@io7m.com> https://www.io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+
+package com.io7m.idstore.server.controller.admin;
+
+import com.io7m.idstore.error_codes.IdException;
+import com.io7m.repetoir.core.RPServiceType;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.function.IntFunction;
+
+import static com.io7m.idstore.error_codes.IdStandardErrorCodes.IO_ERROR;
+
+/**
+ * A service that hashes the passwords of imported users. Hashing is CPU
+ * bound, so it runs on a dedicated pool with a fixed number of threads
+ * rather than on the common fork/join pool, where it would compete with
+ * every other parallel task in the server. Concurrent imports share the
+ * pool, so the number of threads occupied by imports is bounded however
+ * many imports run at once.
+ */
+
+public final class IdAUserImportHasher
+  implements RPServiceType, AutoCloseable
+{
+  private final ExecutorService executor;
+  private final int threads;
+
+  private IdAUserImportHasher(
+    final ExecutorService inExecutor,
+    final int inThreads)
+  {
+    this.executor =
+      Objects.requireNonNull(inExecutor, "executor");
+    this.threads =
+      inThreads;
+  }
+
+  /**
+   * Create a hashing service.
+   *
+   * @param threads The number of threads used for hashing
+   *
+   * @return A hashing service
+   */
+
+  public static IdAUserImportHasher create(
+    final int threads)
+  {
+    if (threads < 1) {
+      throw new IllegalArgumentException(
+        "Thread count %d must be positive"
+          .formatted(Integer.valueOf(threads))
+      );
+    }
+
+    return new IdAUserImportHasher(
+      Executors.newFixedThreadPool(
+        threads,
+        Thread.ofPlatform()
+          .daemon(true)
+          .name("com.io7m.idstore.user_import_hash-", 0L)
+          .factory()
+      ),
+      threads
+    );
+  }
+
+  /**
+   * Apply the given function to each of the indices {@code [0, count)} on
+   * the hashing threads. The indices are divided into one contiguous range
+   * per thread.
+   *
+   * @param count    The number of indices
+   * @param function The function
+   * @param <T>      The type of results
+   *
+   * @return The results, in index order
+   *
+   * @throws IdException If the calling thread is interrupted
+   */
+
+  public <T> List<T> map(
+    final int count,
+    final IntFunction<T> function)
+    throws IdException
+  {
+    Objects.requireNonNull(function, "function");
+
+    final var chunkSize =
+      Math.max(1, (count + this.threads - 1) / this.threads);
+    final var futures =
+      new ArrayList<Future<List<T>>>(this.threads);
+
+    try {
+      for (int start = 0; start < count; start += chunkSize) {
+        final var lower = start;
+        final var upper = Math.min(count, start + chunkSize);
+        futures.add(this.executor.submit(() -> {
+          final var results = new ArrayList<T>(upper - lower);
+          for (int index = lower; index < upper; ++index) {
+            results.add(function.apply(index));
+          }
+          return results;
+        }));
+      }
+
+      final var results = new ArrayList<T>(count);
+      for (final var future : futures) {
+        results.addAll(future.get());
+      }
+      return results;
+    } catch (final InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new IdException(
+        "Interrupted while hashing passwords.",
+        e,
+        IO_ERROR,
+        Map.of(),
+        Optional.empty()
+      );
+    } catch (final ExecutionException e) {
+      final var cause = e.getCause();
+      if (cause instanceof final RuntimeException x) {
+        throw x;
+      }
+      if (cause instanceof final Error x) {
+        throw x;
+      }
+      throw new IllegalStateException(cause);
+    } finally {
+      for (final var future : futures) {
+        future.cancel(true);
+      }
+    }
+  }
+
+  @Override
+  public void close()
+  {
+    this.executor.shutdownNow();
+  }
+
+  @Override
+  public String description()
+  {
+    return "User import password hashing service.";
+  }
+
+  @Override
+  public String toString()
+  {
+    return "[IdAUserImportHasher 0x%s]"
+      .formatted(Long.toUnsignedString(this.hashCode(), 16));
+  }
+}
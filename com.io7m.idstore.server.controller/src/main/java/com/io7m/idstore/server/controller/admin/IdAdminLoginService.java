@@ -130,15 +130,17 @@ public final class IdAdminLoginService implements RPServiceType
         admins.adminGetForNameRequire(new IdName(username));
 
       this.checkBan(requestId, admins, user);
-      this.checkPassword(requestId, remoteHost, password, user);
+      this.checkPassword(requestId, remoteHost, username, password, user);
 
       admins.adminLogin(user.id(), metadata);
+      this.rateLimit.onLoginSucceeded(remoteHost, username);
       this.events.emit(new IdEventAdminLoggedIn(user.id()));
 
       final var session = this.sessions.createSession(user.id());
       return new IdAdminLoggedIn(session, user.withRedactedPassword());
     } catch (final IdDatabaseException e) {
       if (Objects.equals(e.errorCode(), ADMIN_NONEXISTENT)) {
+        this.rateLimit.onLoginFailed(remoteHost, username);
         throw this.authenticationFailed(requestId, e);
       }
       throw new IdCommandExecutionFailure(
@@ -169,7 +171,7 @@ public final class IdAdminLoginService implements RPServiceType
     final String username)
     throws IdCommandExecutionFailure
   {
-    if (!this.rateLimit.isAllowedByRateLimit(remoteHost)) {
+    if (!this.rateLimit.isAllowedByRateLimit(remoteHost, username)) {
       this.events.emit(
         new IdEventAdminLoginRateLimitExceeded(remoteHost, username)
       );
@@ -190,6 +192,7 @@ public final class IdAdminLoginService implements RPServiceType
   private void checkPassword(
     final UUID requestId,
     final String remoteHost,
+    final String username,
     final String password,
     final IdAdmin user)
     throws IdPasswordException, IdCommandExecutionFailure
@@ -199,6 +202,7 @@ public final class IdAdminLoginService implements RPServiceType
         .check(this.clock.clock(), password);
 
     if (!ok) {
+      this.rateLimit.onLoginFailed(remoteHost, username);
       this.events.emit(
         new IdEventAdminLoginAuthenticationFailed(remoteHost, user.id())
       );
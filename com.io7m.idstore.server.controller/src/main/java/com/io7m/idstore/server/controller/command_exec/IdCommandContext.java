@@ -46,6 +46,7 @@ import java.util.UUID;
 
 import static com.io7m.idstore.error_codes.IdStandardErrorCodes.HTTP_PARAMETER_INVALID;
 import static com.io7m.idstore.error_codes.IdStandardErrorCodes.MAIL_SYSTEM_FAILURE;
+import static com.io7m.idstore.error_codes.IdStandardErrorCodes.REQUEST_TIMEOUT;
 import static com.io7m.idstore.error_codes.IdStandardErrorCodes.SECURITY_POLICY_DENIED;
 
 /**
@@ -183,7 +184,8 @@ public abstract class IdCommandContext<E extends IdProtocolMessageType, S extend
   }
 
   /**
-   * Produce an exception indicating a database error.
+   * Produce an exception indicating a database error. Requests that ran
+   * past their deadline are reported as temporarily unavailable.
    *
    * @param e The database exception
    *
@@ -200,7 +202,7 @@ public abstract class IdCommandContext<E extends IdProtocolMessageType, S extend
       e.attributes(),
       e.remediatingAction(),
       this.requestId,
-      500
+      REQUEST_TIMEOUT.equals(e.errorCode()) ? 503 : 500
     );
   }
 
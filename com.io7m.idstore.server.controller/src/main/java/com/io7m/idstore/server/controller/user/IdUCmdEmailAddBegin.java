@@ -105,7 +105,7 @@ public final class IdUCmdEmailAddBegin
     final var user =
       context.user();
 
-    transaction.userIdSet(user.id());
+    transaction.userSet(user);
     if (!rateLimitService.isAllowedByRateLimit(user.id())) {
       eventService.emit(
         new IdEventUserEmailVerificationRateLimitExceeded(user.id(), email)
@@ -125,7 +125,7 @@ public final class IdUCmdEmailAddBegin
 
     checkPreconditions(context, emails, strings, email);
 
-    transaction.userIdSet(user.id());
+    transaction.userSet(user);
 
     final var verification =
       createVerification(context, emails, mailConfiguration, user, email);
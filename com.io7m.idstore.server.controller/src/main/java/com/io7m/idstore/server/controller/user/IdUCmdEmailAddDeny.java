@@ -85,7 +85,7 @@ public final class IdUCmdEmailAddDeny
       );
     }
 
-    transaction.userIdSet(user.id());
+    transaction.userSet(user);
     emails.emailVerificationDelete(token, DENIED);
     return new IdUResponseEmailAddDeny(context.requestId());
   }
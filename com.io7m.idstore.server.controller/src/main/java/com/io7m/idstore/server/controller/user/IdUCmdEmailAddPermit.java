@@ -89,7 +89,7 @@ public final class IdUCmdEmailAddPermit
       );
     }
 
-    transaction.userIdSet(user.id());
+    transaction.userSet(user);
     users.userEmailAdd(user.id(), verification.email());
     emails.emailVerificationDelete(token, PERMITTED);
 
@@ -115,7 +115,7 @@ public final class IdUCmdEmailRemoveBegin
     }
 
     final var transaction = context.transaction();
-    transaction.userIdSet(user.id());
+    transaction.userSet(user);
 
     final var emails =
       transaction.queries(IdDatabaseEmailsQueriesType.class);
@@ -130,7 +130,7 @@ public final class IdUCmdEmailRemoveBegin
 
     checkPreconditions(context, user, email);
 
-    transaction.userIdSet(user.id());
+    transaction.userSet(user);
     final var verification =
       createVerification(context, emails, mailConfiguration, user, email);
 
@@ -86,7 +86,7 @@ public final class IdUCmdEmailRemoveDeny
       );
     }
 
-    transaction.userIdSet(user.id());
+    transaction.userSet(user);
     emails.emailVerificationDelete(token, DENIED);
 
     return new IdUResponseEmailRemoveDeny(context.requestId());
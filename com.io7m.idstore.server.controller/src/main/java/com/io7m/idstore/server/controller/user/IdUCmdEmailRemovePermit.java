@@ -98,7 +98,7 @@ public final class IdUCmdEmailRemovePermit
       );
     }
 
-    transaction.userIdSet(user.id());
+    transaction.userSet(user);
     users.userEmailRemove(user.id(), verification.email());
     emails.emailVerificationDelete(token, PERMITTED);
 
@@ -86,7 +86,7 @@ public final class IdUCmdPasswordUpdate
     final var users =
       transaction.queries(IdDatabaseUsersQueriesType.class);
 
-    transaction.userIdSet(user.id());
+    transaction.userSet(user);
 
     final var newPassword =
       hashPassword(clock, telemetry, command, expiration);
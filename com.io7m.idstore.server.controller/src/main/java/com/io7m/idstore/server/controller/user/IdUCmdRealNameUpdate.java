@@ -56,7 +56,7 @@ public final class IdUCmdRealNameUpdate
     final var users =
       transaction.queries(IdDatabaseUsersQueriesType.class);
 
-    transaction.userIdSet(user.id());
+    transaction.userSet(user);
     users.userUpdate(
       user.id(),
       Optional.empty(),
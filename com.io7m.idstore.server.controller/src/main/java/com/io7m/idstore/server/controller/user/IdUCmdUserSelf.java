@@ -51,7 +51,7 @@ public final class IdUCmdUserSelf
       transaction.queries(IdDatabaseUsersQueriesType.class);
 
     final var userId = context.user().id();
-    transaction.userIdSet(userId);
+    transaction.userSet(context.user());
     final var user = users.userGetRequire(userId);
     return new IdUResponseUserSelf(context.requestId(), user);
   }
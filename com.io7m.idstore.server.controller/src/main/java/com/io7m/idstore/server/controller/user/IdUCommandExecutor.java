@@ -32,6 +32,8 @@ import com.io7m.idstore.server.controller.command_exec.IdCommandExecutionFailure
 import com.io7m.idstore.server.controller.command_exec.IdCommandExecutorType;
 import com.io7m.idstore.server.service.sessions.IdSessionUser;
 
+import java.util.Set;
+
 import static com.io7m.idstore.server.service.telemetry.api.IdServerTelemetryServiceType.recordSpanException;
 
 /**
@@ -45,6 +47,9 @@ public final class IdUCommandExecutor
   IdUCommandType<? extends IdUResponseType>,
   IdUResponseType>
 {
+  private static final Set<Class<?>> READ_ONLY_COMMANDS =
+    Set.of(IdUCommandUserSelf.class);
+
   /**
    * A command executor for public commands.
    */
@@ -54,6 +59,21 @@ public final class IdUCommandExecutor
 
   }
 
+  /**
+   * Determine whether a command only reads data. Read-only commands may be
+   * executed against a read replica of the database.
+   *
+   * @param command The command
+   *
+   * @return {@code true} if the command never writes to the database
+   */
+
+  public static boolean isReadOnly(
+    final IdUCommandType<?> command)
+  {
+    return READ_ONLY_COMMANDS.contains(command.getClass());
+  }
+
   @Override
   public IdUResponseType execute(
     final IdUCommandContext context,
@@ -137,7 +137,7 @@ public final class IdUserLoginService implements RPServiceType
         users.userGetForNameRequire(new IdName(username));
 
       this.checkBan(requestId, users, user);
-      this.checkPassword(requestId, remoteHost, password, user);
+      this.checkPassword(requestId, remoteHost, username, password, user);
 
       users.userLogin(
         user.id(),
@@ -147,12 +147,14 @@ public final class IdUserLoginService implements RPServiceType
           .userLoginHistoryLimit()
       );
 
+      this.rateLimit.onLoginSucceeded(remoteHost, username);
       this.events.emit(new IdEventUserLoggedIn(user.id()));
 
       final var session = this.sessions.createSession(user.id());
       return new IdUserLoggedIn(session, user.withRedactedPassword());
     } catch (final IdDatabaseException e) {
       if (Objects.equals(e.errorCode(), USER_NONEXISTENT)) {
+        this.rateLimit.onLoginFailed(remoteHost, username);
         throw this.authenticationFailed(requestId, e);
       }
       throw new IdCommandExecutionFailure(
@@ -180,12 +182,14 @@ public final class IdUserLoginService implements RPServiceType
   private void checkPassword(
     final UUID requestId,
     final String remoteHost,
+    final String username,
     final String password,
     final IdUser user)
     throws IdPasswordException, IdCommandExecutionFailure
   {
     final var ok = user.password().check(this.clock.clock(), password);
     if (!ok) {
+      this.rateLimit.onLoginFailed(remoteHost, username);
       this.events.emit(
         new IdEventUserLoginAuthenticationFailed(remoteHost, user.id())
       );
@@ -207,7 +211,7 @@ public final class IdUserLoginService implements RPServiceType
     final String username)
     throws IdCommandExecutionFailure
   {
-    if (!this.rateLimit.isAllowedByRateLimit(remoteHost)) {
+    if (!this.rateLimit.isAllowedByRateLimit(remoteHost, username)) {
       this.events.emit(
         new IdEventUserLoginRateLimitExceeded(remoteHost, username)
       );
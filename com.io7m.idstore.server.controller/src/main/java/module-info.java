@@ -40,6 +40,7 @@ module com.io7m.idstore.server.controller
   requires com.io7m.idstore.server.service.templating;
   requires com.io7m.idstore.strings;
 
+  requires com.github.benmanes.caffeine;
   requires com.io7m.jaffirm.core;
   requires com.io7m.jdeferthrow.core;
   requires com.io7m.jxtrand.vanilla;
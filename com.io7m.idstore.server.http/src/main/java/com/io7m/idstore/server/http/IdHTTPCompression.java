@@ -0,0 +1,160 @@
+/*
+ * Copyright © 2024 Mark Raynsford <code@io7m.com> https://www.io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+
+package com.io7m.idstore.server.http;
+
+import com.github.luben.zstd.Zstd;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.Locale;
+import java.util.Objects;
+import java.util.zip.GZIPOutputStream;
+
+import static com.io7m.idstore.server.http.IdHTTPContentEncoding.GZIP;
+import static com.io7m.idstore.server.http.IdHTTPContentEncoding.IDENTITY;
+import static com.io7m.idstore.server.http.IdHTTPContentEncoding.ZSTD;
+
+/**
+ * Functions to negotiate and apply response compression.
+ */
+
+public final class IdHTTPCompression
+{
+  /**
+   * Responses smaller than this size (in bytes) are never compressed; the
+   * framing overhead and the time spent compressing outweigh the savings.
+   */
+
+  public static final int MINIMUM_SIZE = 1024;
+
+  /**
+   * The Zstandard compression level. Level 3 is the library default and
+   * compresses substantially faster than gzip at a comparable ratio.
+   */
+
+  public static final int ZSTD_LEVEL = 3;
+
+  private IdHTTPCompression()
+  {
+
+  }
+
+  /**
+   * Negotiate a content encoding from the value of an
+   * {@code Accept-Encoding} header. Zstandard is preferred over gzip when the
+   * client assigns both the same quality value. Encodings with a quality
+   * value of zero are never selected.
+   *
+   * @param acceptEncoding The header value, or the empty string if the client
+   *                       did not send the header
+   *
+   * @return The negotiated encoding
+   */
+
+  public static IdHTTPContentEncoding negotiate(
+    final String acceptEncoding)
+  {
+    Objects.requireNonNull(acceptEncoding, "acceptEncoding");
+
+    var qualityZstd = -1.0;
+    var qualityGzip = -1.0;
+    var qualityAny = -1.0;
+
+    for (final var element : acceptEncoding.split(",")) {
+      final var parts = element.split(";");
+      final var name = parts[0].trim().toLowerCase(Locale.ROOT);
+      final var quality = qualityOf(parts);
+
+      switch (name) {
+        case "zstd" -> qualityZstd = quality;
+        case "gzip", "x-gzip" -> qualityGzip = quality;
+        case "*" -> qualityAny = quality;
+        default -> {
+          // Unsupported encodings are ignored.
+        }
+      }
+    }
+
+    if (qualityZstd < 0.0) {
+      qualityZstd = qualityAny;
+    }
+    if (qualityGzip < 0.0) {
+      qualityGzip = qualityAny;
+    }
+
+    if (qualityZstd > 0.0 && qualityZstd >= qualityGzip) {
+      return ZSTD;
+    }
+    if (qualityGzip > 0.0) {
+      return GZIP;
+    }
+    return IDENTITY;
+  }
+
+  private static double qualityOf(
+    final String[] parts)
+  {
+    for (int index = 1; index < parts.length; ++index) {
+      final var parameter = parts[index].trim();
+      if (parameter.startsWith("q=") || parameter.startsWith("Q=")) {
+        try {
+          return Double.parseDouble(parameter.substring(2).trim());
+        } catch (final NumberFormatException e) {
+          return 0.0;
+        }
+      }
+    }
+    return 1.0;
+  }
+
+  /**
+   * Compress the given data.
+   *
+   * @param encoding The encoding
+   * @param data     The data
+   *
+   * @return The compressed data
+   */
+
+  public static byte[] compress(
+    final IdHTTPContentEncoding encoding,
+    final byte[] data)
+  {
+    Objects.requireNonNull(encoding, "encoding");
+    Objects.requireNonNull(data, "data");
+
+    return switch (encoding) {
+      case IDENTITY -> data;
+      case GZIP -> compressGzip(data);
+      case ZSTD -> Zstd.compress(data, ZSTD_LEVEL);
+    };
+  }
+
+  private static byte[] compressGzip(
+    final byte[] data)
+  {
+    final var output = new ByteArrayOutputStream(data.length / 2);
+    try (var stream = new GZIPOutputStream(output)) {
+      stream.write(data);
+    } catch (final IOException e) {
+      throw new UncheckedIOException(e);
+    }
+    return output.toByteArray();
+  }
+}
@@ -0,0 +1,63 @@
+/*
+ * Copyright © 2024 Mark Raynsford <code@io7m.com> https://www.io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+
+package com.io7m.idstore.server.http;
+
+import java.util.Objects;
+
+/**
+ * The content encodings supported for responses.
+ */
+
+public enum IdHTTPContentEncoding
+{
+  /**
+   * The response is not compressed.
+   */
+
+  IDENTITY("identity"),
+
+  /**
+   * The response is compressed with gzip.
+   */
+
+  GZIP("gzip"),
+
+  /**
+   * The response is compressed with Zstandard.
+   */
+
+  ZSTD("zstd");
+
+  private final String headerValue;
+
+  IdHTTPContentEncoding(
+    final String inHeaderValue)
+  {
+    this.headerValue =
+      Objects.requireNonNull(inHeaderValue, "headerValue");
+  }
+
+  /**
+   * @return The value of this encoding as it appears in HTTP headers
+   */
+
+  public String headerValue()
+  {
+    return this.headerValue;
+  }
+}
@@ -0,0 +1,72 @@
+/*
+ * Copyright © 2024 Mark Raynsford <code@io7m.com> https://www.io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+
+package com.io7m.idstore.server.http;
+
+import com.io7m.idstore.server.service.telemetry.api.IdServerTelemetryServiceType;
+
+import java.time.Duration;
+import java.util.Objects;
+
+/**
+ * Functions to delay the processing of requests.
+ */
+
+public final class IdHTTPDelays
+{
+  private IdHTTPDelays()
+  {
+
+  }
+
+  /**
+   * Delay the current request by sleeping the calling thread for the given
+   * duration. Requests are handled on virtual threads, so sleeping does not
+   * occupy a carrier thread. A zero delay returns immediately. If the thread
+   * is interrupted, the delay ends early and the interrupt status is
+   * preserved.
+   *
+   * @param telemetry The telemetry service
+   * @param delay     The delay
+   */
+
+  public static void applyDelay(
+    final IdServerTelemetryServiceType telemetry,
+    final Duration delay)
+  {
+    Objects.requireNonNull(telemetry, "telemetry");
+    Objects.requireNonNull(delay, "delay");
+
+    if (delay.isZero() || delay.isNegative()) {
+      return;
+    }
+
+    final var childSpan =
+      telemetry.tracer()
+        .spanBuilder("LoginDelay")
+        .setAttribute("idstore.delay", delay.toString())
+        .startSpan();
+
+    try (var ignored = childSpan.makeCurrent()) {
+      Thread.sleep(delay);
+    } catch (final InterruptedException e) {
+      Thread.currentThread().interrupt();
+    } finally {
+      childSpan.end();
+    }
+  }
+}
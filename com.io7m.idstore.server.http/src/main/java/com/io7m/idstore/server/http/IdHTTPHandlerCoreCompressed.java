@@ -0,0 +1,116 @@
+/*
+ * Copyright © 2024 Mark Raynsford <code@io7m.com> https://www.io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+
+package com.io7m.idstore.server.http;
+
+import com.io7m.idstore.model.IdUserDomain;
+import com.io7m.idstore.server.service.telemetry.api.IdMetricsServiceType;
+import com.io7m.repetoir.core.RPServiceDirectoryType;
+import io.helidon.webserver.http.ServerRequest;
+
+import java.time.Duration;
+import java.util.Objects;
+
+import static com.io7m.idstore.server.http.IdHTTPContentEncoding.IDENTITY;
+
+/**
+ * A servlet core that compresses the responses of the given core using an
+ * encoding negotiated with the client. Responses smaller than
+ * {@link IdHTTPCompression#MINIMUM_SIZE} are sent uncompressed, as are
+ * responses that would not be made smaller by compression.
+ */
+
+public final class IdHTTPHandlerCoreCompressed
+  implements IdHTTPHandlerFunctionalCoreType
+{
+  private final IdUserDomain domain;
+  private final IdHTTPHandlerFunctionalCoreType core;
+  private final IdMetricsServiceType metrics;
+
+  private IdHTTPHandlerCoreCompressed(
+    final RPServiceDirectoryType inServices,
+    final IdUserDomain inDomain,
+    final IdHTTPHandlerFunctionalCoreType inCore)
+  {
+    this.metrics =
+      inServices.requireService(IdMetricsServiceType.class);
+    this.domain =
+      Objects.requireNonNull(inDomain, "inDomain");
+    this.core =
+      Objects.requireNonNull(inCore, "core");
+  }
+
+  /**
+   * @param inServices The services
+   * @param inDomain   The user domain
+   * @param inCore     The core
+   *
+   * @return A servlet core that compresses the responses of the given core
+   */
+
+  public static IdHTTPHandlerFunctionalCoreType withCompression(
+    final RPServiceDirectoryType inServices,
+    final IdUserDomain inDomain,
+    final IdHTTPHandlerFunctionalCoreType inCore)
+  {
+    return new IdHTTPHandlerCoreCompressed(inServices, inDomain, inCore);
+  }
+
+  @Override
+  public IdHTTPResponseType execute(
+    final ServerRequest request,
+    final IdHTTPRequestInformation information)
+  {
+    final var response =
+      this.core.execute(request, information);
+
+    if (!(response instanceof final IdHTTPResponseFixedSize fixed)) {
+      return response;
+    }
+    if (fixed.contentEncoding() != IDENTITY) {
+      return fixed;
+    }
+
+    final var data = fixed.data();
+    if (data.length < IdHTTPCompression.MINIMUM_SIZE) {
+      return fixed;
+    }
+
+    final var encoding =
+      IdHTTPCompression.negotiate(IdHTTPServerRequests.acceptEncoding(request));
+    if (encoding == IDENTITY) {
+      return fixed;
+    }
+
+    final var timeThen = System.nanoTime();
+    final var compressed = IdHTTPCompression.compress(encoding, data);
+    final var timeNow = System.nanoTime();
+
+    this.metrics.onHttpResponseCompressed(
+      this.domain,
+      encoding.headerValue(),
+      data.length,
+      compressed.length,
+      Duration.ofNanos(timeNow - timeThen)
+    );
+
+    if (compressed.length >= data.length) {
+      return fixed;
+    }
+    return fixed.withContentEncoding(encoding, compressed);
+  }
+}
@@ -46,6 +46,7 @@ public final class IdHTTPHandlerCoreInstrumented
   private final IdHTTPHandlerFunctionalCoreType core;
   private final IdServerTelemetryServiceType telemetry;
   private final IdMetricsServiceType metrics;
+  private final IdHTTPRequestDeadlines deadlines;
 
   private IdHTTPHandlerCoreInstrumented(
     final RPServiceDirectoryType inServices,
@@ -56,6 +57,8 @@ public final class IdHTTPHandlerCoreInstrumented
       inServices.requireService(IdServerTelemetryServiceType.class);
     this.metrics =
       inServices.requireService(IdMetricsServiceType.class);
+    this.deadlines =
+      inServices.requireService(IdHTTPRequestDeadlines.class);
     this.domain =
       Objects.requireNonNull(inDomain, "inDomain");
 
@@ -64,6 +67,11 @@ public final class IdHTTPHandlerCoreInstrumented
   }
 
   /**
+   * Responses produced by the given core are compressed according to
+   * {@link IdHTTPHandlerCoreCompressed} before being measured, so response
+   * size metrics reflect the bytes actually sent. The request is assigned a
+   * deadline by {@link IdHTTPRequestDeadlines} before the core executes.
+   *
    * @param inServices The services
    * @param inDomain   The user domain
    * @param inCore     The core
@@ -76,7 +84,11 @@ public final class IdHTTPHandlerCoreInstrumented
     final IdUserDomain inDomain,
     final IdHTTPHandlerFunctionalCoreType inCore)
   {
-    return new IdHTTPHandlerCoreInstrumented(inServices, inDomain, inCore);
+    return new IdHTTPHandlerCoreInstrumented(
+      inServices,
+      inDomain,
+      IdHTTPHandlerCoreCompressed.withCompression(inServices, inDomain, inCore)
+    );
   }
 
   @Override
@@ -84,6 +96,9 @@ public final class IdHTTPHandlerCoreInstrumented
     final ServerRequest request,
     final IdHTTPRequestInformation information)
   {
+    final var informationWithDeadline =
+      information.withDeadline(this.deadlines.deadlineForNewRequest());
+
     final var context =
       this.telemetry.textMapPropagator()
         .extract(
@@ -115,7 +130,7 @@ public final class IdHTTPHandlerCoreInstrumented
 
     try (var ignored = span.makeCurrent()) {
       final var response =
-        this.core.execute(request, information);
+        this.core.execute(request, informationWithDeadline);
 
       final var code = response.statusCode();
       if (code >= 400) {
@@ -25,7 +25,10 @@ import io.helidon.webserver.http.ServerResponse;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.io.IOException;
+import java.io.UncheckedIOException;
 import java.util.Objects;
+import java.util.Optional;
 import java.util.UUID;
 
 import static com.io7m.idstore.model.IdVersion.MAIN_BUILD;
@@ -69,7 +72,8 @@ public abstract class IdHTTPHandlerFunctional implements Handler
         new IdHTTPRequestInformation(
           UUID.randomUUID(),
           userAgent,
-          remoteAddr
+          remoteAddr,
+          Optional.empty()
         );
 
       final var output =
@@ -93,8 +97,42 @@ public abstract class IdHTTPHandlerFunctional implements Handler
         case final IdHTTPResponseFixedSize fixed -> {
           response.status(fixed.statusCode());
           response.header(HeaderNames.CONTENT_TYPE, fixed.contentType());
+          response.header(HeaderNames.VARY, "Accept-Encoding");
+          if (fixed.contentEncoding() != IdHTTPContentEncoding.IDENTITY) {
+            response.header(
+              HeaderNames.CONTENT_ENCODING,
+              fixed.contentEncoding().headerValue()
+            );
+          }
           response.send(fixed.data());
         }
+        case final IdHTTPResponseStatic asset -> {
+          response.status(asset.statusCode());
+          response.header(HeaderNames.ETAG, asset.entityTag());
+          response.header(HeaderNames.CACHE_CONTROL, asset.cacheControl());
+          response.header(HeaderNames.VARY, "Accept-Encoding");
+          if (asset.isNotModified()) {
+            response.send();
+          } else {
+            response.header(HeaderNames.CONTENT_TYPE, asset.contentType());
+            if (asset.contentEncoding() != IdHTTPContentEncoding.IDENTITY) {
+              response.header(
+                HeaderNames.CONTENT_ENCODING,
+                asset.contentEncoding().headerValue()
+              );
+            }
+            response.send(asset.data());
+          }
+        }
+        case final IdHTTPResponseStreamed streamed -> {
+          response.status(streamed.statusCode());
+          response.header(HeaderNames.CONTENT_TYPE, streamed.contentType());
+          try (var stream = response.outputStream()) {
+            streamed.writer().write(stream);
+          } catch (final IOException e) {
+            throw new UncheckedIOException(e);
+          }
+        }
         case final IdHTTPResponseRedirect target -> {
           response.header(HeaderNames.LOCATION, target.path());
           response.status(Status.FOUND_302);
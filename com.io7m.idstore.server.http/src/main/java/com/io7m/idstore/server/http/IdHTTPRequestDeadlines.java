@@ -0,0 +1,74 @@
+/*
+ * Copyright © 2024 Mark Raynsford <code@io7m.com> https://www.io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+
+package com.io7m.idstore.server.http;
+
+import com.io7m.idstore.server.service.clock.IdServerClock;
+import com.io7m.repetoir.core.RPServiceType;
+
+import java.time.Duration;
+import java.time.OffsetDateTime;
+import java.util.Objects;
+
+/**
+ * A service that assigns deadlines to incoming requests.
+ */
+
+public final class IdHTTPRequestDeadlines implements RPServiceType
+{
+  private final IdServerClock clock;
+  private final Duration timeout;
+
+  /**
+   * A service that assigns deadlines to incoming requests.
+   *
+   * @param inClock   The clock
+   * @param inTimeout The maximum time a request may take
+   */
+
+  public IdHTTPRequestDeadlines(
+    final IdServerClock inClock,
+    final Duration inTimeout)
+  {
+    this.clock =
+      Objects.requireNonNull(inClock, "clock");
+    this.timeout =
+      Objects.requireNonNull(inTimeout, "timeout");
+  }
+
+  /**
+   * @return The deadline for a request that starts now
+   */
+
+  public OffsetDateTime deadlineForNewRequest()
+  {
+    return this.clock.nowPrecise().plus(this.timeout);
+  }
+
+  @Override
+  public String description()
+  {
+    return "Request deadline service.";
+  }
+
+  @Override
+  public String toString()
+  {
+    return "[IdHTTPRequestDeadlines 0x%s]"
+      .formatted(Long.toUnsignedString(this.hashCode(), 16));
+  }
+}
@@ -16,7 +16,13 @@
 
 package com.io7m.idstore.server.http;
 
+import com.io7m.idstore.database.api.IdDatabaseConnectionType;
+import com.io7m.idstore.database.api.IdDatabaseException;
+import com.io7m.idstore.database.api.IdDatabaseTransactionType;
+
+import java.time.OffsetDateTime;
 import java.util.Objects;
+import java.util.Optional;
 import java.util.UUID;
 
 /**
@@ -25,12 +31,15 @@ import java.util.UUID;
  * @param requestId     The unique request ID
  * @param userAgent     The user agent
  * @param remoteAddress The remote address
+ * @param deadline      The time by which the request must have finished
+ *                      its database work, if any
  */
 
 public record IdHTTPRequestInformation(
   UUID requestId,
   String userAgent,
-  String remoteAddress)
+  String remoteAddress,
+  Optional<OffsetDateTime> deadline)
 {
   /**
    * Information about a request.
@@ -38,6 +47,8 @@ public record IdHTTPRequestInformation(
    * @param requestId     The unique request ID
    * @param userAgent     The user agent
    * @param remoteAddress The remote address
+   * @param deadline      The time by which the request must have finished
+   *                      its database work, if any
    */
 
   public IdHTTPRequestInformation
@@ -45,5 +56,44 @@ public record IdHTTPRequestInformation(
     Objects.requireNonNull(requestId, "requestId");
     Objects.requireNonNull(userAgent, "userAgent");
     Objects.requireNonNull(remoteAddress, "remoteAddress");
+    Objects.requireNonNull(deadline, "deadline");
+  }
+
+  /**
+   * @param newDeadline The deadline
+   *
+   * @return This information with the given deadline
+   */
+
+  public IdHTTPRequestInformation withDeadline(
+    final OffsetDateTime newDeadline)
+  {
+    return new IdHTTPRequestInformation(
+      this.requestId,
+      this.userAgent,
+      this.remoteAddress,
+      Optional.of(newDeadline)
+    );
+  }
+
+  /**
+   * Open a transaction on the given connection. If the request has a
+   * deadline, the transaction's statements are bounded by it.
+   *
+   * @param connection The connection
+   *
+   * @return The transaction
+   *
+   * @throws IdDatabaseException On errors, or if the deadline has passed
+   */
+
+  public IdDatabaseTransactionType openTransaction(
+    final IdDatabaseConnectionType connection)
+    throws IdDatabaseException
+  {
+    if (this.deadline.isPresent()) {
+      return connection.openTransaction(this.deadline.get());
+    }
+    return connection.openTransaction();
   }
 }
@@ -23,26 +23,29 @@ import java.util.Set;
 /**
  * A fixed size servlet response.
  *
- * @param statusCode  The status code
- * @param cookies     The cookies to set
- * @param contentType The content type
- * @param data        The data
+ * @param statusCode      The status code
+ * @param cookies         The cookies to set
+ * @param contentType     The content type
+ * @param data            The data
+ * @param contentEncoding The encoding of the data
  */
 
 public record IdHTTPResponseFixedSize(
   int statusCode,
   Set<IdHTTPCookieDeclaration> cookies,
   String contentType,
-  byte[] data)
+  byte[] data,
+  IdHTTPContentEncoding contentEncoding)
   implements IdHTTPResponseType
 {
   /**
    * A fixed size servlet response.
    *
-   * @param statusCode  The status code
-   * @param cookies     The cookies to set
-   * @param contentType The content type
-   * @param data        The data
+   * @param statusCode      The status code
+   * @param cookies         The cookies to set
+   * @param contentType     The content type
+   * @param data            The data
+   * @param contentEncoding The encoding of the data
    */
 
   public IdHTTPResponseFixedSize
@@ -50,9 +53,48 @@ public record IdHTTPResponseFixedSize(
     Objects.requireNonNull(contentType, "contentType");
     Objects.requireNonNull(cookies, "cookies");
     Objects.requireNonNull(data, "data");
+    Objects.requireNonNull(contentEncoding, "contentEncoding");
     cookies = Set.copyOf(cookies);
   }
 
+  /**
+   * A fixed size servlet response with uncompressed data.
+   *
+   * @param statusCode  The status code
+   * @param cookies     The cookies to set
+   * @param contentType The content type
+   * @param data        The data
+   */
+
+  public IdHTTPResponseFixedSize(
+    final int statusCode,
+    final Set<IdHTTPCookieDeclaration> cookies,
+    final String contentType,
+    final byte[] data)
+  {
+    this(statusCode, cookies, contentType, data, IdHTTPContentEncoding.IDENTITY);
+  }
+
+  /**
+   * @param newEncoding The new encoding
+   * @param newData     The data in the new encoding
+   *
+   * @return This response with the given encoded data
+   */
+
+  public IdHTTPResponseFixedSize withContentEncoding(
+    final IdHTTPContentEncoding newEncoding,
+    final byte[] newData)
+  {
+    return new IdHTTPResponseFixedSize(
+      this.statusCode,
+      this.cookies,
+      this.contentType,
+      newData,
+      newEncoding
+    );
+  }
+
   @Override
   public OptionalLong contentLengthOptional()
   {
@@ -0,0 +1,85 @@
+/*
+ * Copyright © 2024 Mark Raynsford <code@io7m.com> https://www.io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+
+package com.io7m.idstore.server.http;
+
+import java.util.Objects;
+import java.util.OptionalLong;
+import java.util.Set;
+
+/**
+ * A response carrying a cacheable static asset, or a {@code 304 Not Modified}
+ * response for an asset the client already holds.
+ *
+ * @param statusCode      The status code
+ * @param contentType     The content type
+ * @param data            The data (empty for {@code 304} responses)
+ * @param contentEncoding The encoding of the data
+ * @param entityTag       The quoted entity tag
+ * @param cacheControl    The value of the {@code Cache-Control} header
+ */
+
+public record IdHTTPResponseStatic(
+  int statusCode,
+  String contentType,
+  byte[] data,
+  IdHTTPContentEncoding contentEncoding,
+  String entityTag,
+  String cacheControl)
+  implements IdHTTPResponseType
+{
+  /**
+   * A response carrying a cacheable static asset.
+   *
+   * @param statusCode      The status code
+   * @param contentType     The content type
+   * @param data            The data (empty for {@code 304} responses)
+   * @param contentEncoding The encoding of the data
+   * @param entityTag       The quoted entity tag
+   * @param cacheControl    The value of the {@code Cache-Control} header
+   */
+
+  public IdHTTPResponseStatic
+  {
+    Objects.requireNonNull(contentType, "contentType");
+    Objects.requireNonNull(data, "data");
+    Objects.requireNonNull(contentEncoding, "contentEncoding");
+    Objects.requireNonNull(entityTag, "entityTag");
+    Objects.requireNonNull(cacheControl, "cacheControl");
+  }
+
+  /**
+   * @return {@code true} if this is a {@code 304 Not Modified} response
+   */
+
+  public boolean isNotModified()
+  {
+    return this.statusCode == 304;
+  }
+
+  @Override
+  public OptionalLong contentLengthOptional()
+  {
+    return OptionalLong.of(Integer.toUnsignedLong(this.data.length));
+  }
+
+  @Override
+  public Set<IdHTTPCookieDeclaration> cookies()
+  {
+    return Set.of();
+  }
+}
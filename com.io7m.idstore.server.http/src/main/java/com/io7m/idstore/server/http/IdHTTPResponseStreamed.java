@@ -0,0 +1,64 @@
+/*
+ * Copyright © 2024 Mark Raynsford <code@io7m.com> https://www.io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+
+package com.io7m.idstore.server.http;
+
+import java.util.Objects;
+import java.util.OptionalLong;
+import java.util.Set;
+
+/**
+ * A streamed servlet response. The body is produced incrementally by the
+ * writer and sent using chunked transfer encoding, and so the length of the
+ * content is not known in advance. Streamed responses are never compressed.
+ *
+ * @param statusCode  The status code
+ * @param cookies     The cookies to set
+ * @param contentType The content type
+ * @param writer      The body writer
+ */
+
+public record IdHTTPResponseStreamed(
+  int statusCode,
+  Set<IdHTTPCookieDeclaration> cookies,
+  String contentType,
+  IdHTTPResponseStreamWriterType writer)
+  implements IdHTTPResponseType
+{
+  /**
+   * A streamed servlet response.
+   *
+   * @param statusCode  The status code
+   * @param cookies     The cookies to set
+   * @param contentType The content type
+   * @param writer      The body writer
+   */
+
+  public IdHTTPResponseStreamed
+  {
+    Objects.requireNonNull(cookies, "cookies");
+    Objects.requireNonNull(contentType, "contentType");
+    Objects.requireNonNull(writer, "writer");
+    cookies = Set.copyOf(cookies);
+  }
+
+  @Override
+  public OptionalLong contentLengthOptional()
+  {
+    return OptionalLong.empty();
+  }
+}
@@ -25,7 +25,10 @@ import java.util.Set;
  */
 
 public sealed interface IdHTTPResponseType
-  permits IdHTTPResponseFixedSize, IdHTTPResponseRedirect
+  permits IdHTTPResponseFixedSize,
+  IdHTTPResponseRedirect,
+  IdHTTPResponseStatic,
+  IdHTTPResponseStreamed
 {
   /**
    * @return The response status code
@@ -72,6 +72,52 @@ public final class IdHTTPServerRequests
     }
   }
 
+  /**
+   * Obtain the accepted content encodings for the given request, or the empty
+   * string if none were specified.
+   *
+   * @param request The request
+   *
+   * @return The accepted encodings
+   */
+
+  public static String acceptEncoding(
+    final ServerRequest request)
+  {
+    try {
+      final var headers = request.headers();
+      return String.join(
+        ",",
+        headers.get(HeaderNames.ACCEPT_ENCODING).allValues()
+      );
+    } catch (final NoSuchElementException | UnsupportedOperationException e) {
+      return "";
+    }
+  }
+
+  /**
+   * Obtain the entity tags listed in the {@code If-None-Match} header of the
+   * given request, or the empty string if the header was not specified.
+   *
+   * @param request The request
+   *
+   * @return The entity tags
+   */
+
+  public static String ifNoneMatch(
+    final ServerRequest request)
+  {
+    try {
+      final var headers = request.headers();
+      return String.join(
+        ",",
+        headers.get(HeaderNames.IF_NONE_MATCH).allValues()
+      );
+    } catch (final NoSuchElementException | UnsupportedOperationException e) {
+      return "";
+    }
+  }
+
   /**
    * Obtain the remote address for the given request. The function takes into
    * account headers such as "X-Forwarded-For".
@@ -0,0 +1,224 @@
+/*
+ * Copyright © 2024 Mark Raynsford <code@io7m.com> https://www.io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+
+package com.io7m.idstore.server.http;
+
+import io.helidon.webserver.http.ServerRequest;
+
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.Objects;
+
+import static com.io7m.idstore.server.http.IdHTTPContentEncoding.GZIP;
+import static com.io7m.idstore.server.http.IdHTTPContentEncoding.IDENTITY;
+import static com.io7m.idstore.server.http.IdHTTPContentEncoding.ZSTD;
+
+/**
+ * A static asset served with a strong entity tag and caching headers. The
+ * compressed variants of the asset are computed once on creation and held in
+ * memory, so serving the asset never compresses anything.
+ *
+ * Requests that carry the asset hash in the {@code v} query parameter (as
+ * produced by fingerprinted URLs in pages) are told that the response may be
+ * cached indefinitely. Other requests are told to revalidate, which costs
+ * only a {@code 304 Not Modified} response when the content is unchanged.
+ */
+
+public final class IdHTTPStaticAsset
+{
+  /**
+   * The {@code Cache-Control} value for fingerprinted requests.
+   */
+
+  public static final String CACHE_IMMUTABLE =
+    "public, max-age=31536000, immutable";
+
+  /**
+   * The {@code Cache-Control} value for unversioned requests.
+   */
+
+  public static final String CACHE_REVALIDATE =
+    "public, no-cache";
+
+  private final String contentType;
+  private final String hash;
+  private final Map<IdHTTPContentEncoding, byte[]> variants;
+
+  private IdHTTPStaticAsset(
+    final String inContentType,
+    final String inHash,
+    final Map<IdHTTPContentEncoding, byte[]> inVariants)
+  {
+    this.contentType =
+      Objects.requireNonNull(inContentType, "contentType");
+    this.hash =
+      Objects.requireNonNull(inHash, "hash");
+    this.variants =
+      Objects.requireNonNull(inVariants, "variants");
+  }
+
+  /**
+   * Create a static asset, precomputing each compressed variant that is
+   * smaller than the original data.
+   *
+   * @param contentType The content type
+   * @param data        The uncompressed data
+   * @param hash        The hash of the uncompressed data
+   *
+   * @return A static asset
+   */
+
+  public static IdHTTPStaticAsset create(
+    final String contentType,
+    final byte[] data,
+    final String hash)
+  {
+    Objects.requireNonNull(contentType, "contentType");
+    Objects.requireNonNull(data, "data");
+    Objects.requireNonNull(hash, "hash");
+
+    final var variants =
+      new EnumMap<IdHTTPContentEncoding, byte[]>(IdHTTPContentEncoding.class);
+
+    variants.put(IDENTITY, data);
+    for (final var encoding : new IdHTTPContentEncoding[]{GZIP, ZSTD}) {
+      final var compressed = IdHTTPCompression.compress(encoding, data);
+      if (compressed.length < data.length) {
+        variants.put(encoding, compressed);
+      }
+    }
+    return new IdHTTPStaticAsset(contentType, hash, variants);
+  }
+
+  /**
+   * @return The hash of the uncompressed data
+   */
+
+  public String hash()
+  {
+    return this.hash;
+  }
+
+  /**
+   * @param encoding The content encoding
+   *
+   * @return The strong entity tag of the variant with the given encoding
+   */
+
+  public String entityTag(
+    final IdHTTPContentEncoding encoding)
+  {
+    if (encoding == IDENTITY) {
+      return "\"%s\"".formatted(this.hash);
+    }
+    return "\"%s-%s\"".formatted(this.hash, encoding.headerValue());
+  }
+
+  /**
+   * Produce a response for the given request.
+   *
+   * @param request The request
+   *
+   * @return The response
+   */
+
+  public IdHTTPResponseStatic respond(
+    final ServerRequest request)
+  {
+    return this.respond(
+      IdHTTPServerRequests.acceptEncoding(request),
+      IdHTTPServerRequests.ifNoneMatch(request),
+      IdHTTPServerRequests.parameter(request, "v")
+    );
+  }
+
+  /**
+   * Produce a response for a request with the given header values.
+   *
+   * @param acceptEncoding The {@code Accept-Encoding} header value, or the
+   *                       empty string
+   * @param ifNoneMatch    The {@code If-None-Match} header value, or the
+   *                       empty string
+   * @param version        The {@code v} query parameter, or {@code null}
+   *
+   * @return The response
+   */
+
+  public IdHTTPResponseStatic respond(
+    final String acceptEncoding,
+    final String ifNoneMatch,
+    final String version)
+  {
+    Objects.requireNonNull(acceptEncoding, "acceptEncoding");
+    Objects.requireNonNull(ifNoneMatch, "ifNoneMatch");
+
+    final var cacheControl =
+      Objects.equals(version, this.hash) ? CACHE_IMMUTABLE : CACHE_REVALIDATE;
+
+    var encoding = IdHTTPCompression.negotiate(acceptEncoding);
+    if (!this.variants.containsKey(encoding)) {
+      encoding = IDENTITY;
+    }
+
+    final var tag = this.entityTag(encoding);
+    if (matches(ifNoneMatch, tag)) {
+      return new IdHTTPResponseStatic(
+        304,
+        this.contentType,
+        new byte[0],
+        encoding,
+        tag,
+        cacheControl
+      );
+    }
+
+    return new IdHTTPResponseStatic(
+      200,
+      this.contentType,
+      this.variants.get(encoding),
+      encoding,
+      tag,
+      cacheControl
+    );
+  }
+
+  private static boolean matches(
+    final String ifNoneMatch,
+    final String tag)
+  {
+    for (final var element : ifNoneMatch.split(",")) {
+      var candidate = element.trim();
+      if ("*".equals(candidate)) {
+        return true;
+      }
+      if (candidate.startsWith("W/")) {
+        candidate = candidate.substring(2);
+      }
+      if (candidate.equals(tag)) {
+        return true;
+      }
+    }
+    return false;
+  }
+
+  @Override
+  public String toString()
+  {
+    return "[IdHTTPStaticAsset %s %s]"
+      .formatted(this.contentType, this.hash);
+  }
+}
@@ -28,6 +28,7 @@ module com.io7m.idstore.server.http
   requires com.io7m.idstore.server.service.clock;
   requires com.io7m.idstore.server.service.telemetry.api;
 
+  requires com.github.luben.zstd_jni;
   requires io.helidon.http;
   requires io.helidon.webserver;
   requires io.opentelemetry.api;
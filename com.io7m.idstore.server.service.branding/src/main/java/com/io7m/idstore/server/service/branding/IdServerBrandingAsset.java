@@ -0,0 +1,117 @@
+/*
+ * Copyright © 2024 Mark Raynsford <code@io7m.com> https://www.io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+
+package com.io7m.idstore.server.service.branding;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.Objects;
+
+/**
+ * A static branding asset such as a stylesheet or logo, along with a hash of
+ * its content computed once when the asset was loaded.
+ *
+ * @param contentType The content type of the asset
+ * @param data        The asset data
+ * @param hash        The lowercase hexadecimal SHA-256 hash of the data
+ */
+
+public record IdServerBrandingAsset(
+  String contentType,
+  byte[] data,
+  String hash)
+{
+  /**
+   * A static branding asset.
+   *
+   * @param contentType The content type of the asset
+   * @param data        The asset data
+   * @param hash        The lowercase hexadecimal SHA-256 hash of the data
+   */
+
+  public IdServerBrandingAsset
+  {
+    Objects.requireNonNull(contentType, "contentType");
+    Objects.requireNonNull(data, "data");
+    Objects.requireNonNull(hash, "hash");
+  }
+
+  /**
+   * Create an asset, hashing the given data.
+   *
+   * @param contentType The content type of the asset
+   * @param data        The asset data
+   *
+   * @return An asset
+   */
+
+  public static IdServerBrandingAsset of(
+    final String contentType,
+    final byte[] data)
+  {
+    Objects.requireNonNull(contentType, "contentType");
+    Objects.requireNonNull(data, "data");
+
+    try {
+      final var digest = MessageDigest.getInstance("SHA-256");
+      return new IdServerBrandingAsset(
+        contentType,
+        data,
+        HexFormat.of().formatHex(digest.digest(data))
+      );
+    } catch (final NoSuchAlgorithmException e) {
+      throw new IllegalStateException(e);
+    }
+  }
+
+  /**
+   * Create an asset, hashing the UTF-8 encoding of the given text.
+   *
+   * @param contentType The content type of the asset
+   * @param text        The asset text
+   *
+   * @return An asset
+   */
+
+  public static IdServerBrandingAsset ofText(
+    final String contentType,
+    final String text)
+  {
+    return of(contentType, text.getBytes(StandardCharsets.UTF_8));
+  }
+
+  /**
+   * @param path The unversioned path of the asset
+   *
+   * @return The given path with a fingerprint derived from the asset hash
+   */
+
+  public String fingerprinted(
+    final String path)
+  {
+    return "%s?v=%s".formatted(path, this.hash);
+  }
+
+  @Override
+  public String toString()
+  {
+    return "[IdServerBrandingAsset %s %s]"
+      .formatted(this.contentType, this.hash);
+  }
+}
@@ -21,6 +21,7 @@ import com.io7m.cxbutton.core.CxButtonCSS;
 import com.io7m.idstore.model.IdOptional;
 import com.io7m.idstore.server.api.IdServerBrandingConfiguration;
 import com.io7m.idstore.server.api.IdServerColorScheme;
+import com.io7m.idstore.server.service.templating.IdFMAssetPaths;
 import com.io7m.idstore.server.service.templating.IdFMCSSData;
 import com.io7m.idstore.server.service.templating.IdFMTemplateServiceType;
 import com.io7m.idstore.server.service.templating.IdFMTemplateType;
@@ -41,25 +42,38 @@ import java.util.Optional;
 public final class IdServerBrandingService
   implements IdServerBrandingServiceType
 {
-  private final byte[] logo;
-  private final String mainCss;
-  private final String xButtonCSS;
+  private static final String CSS_TYPE =
+    "text/css; charset=utf-8";
+
+  private final IdServerBrandingAsset logo;
+  private final IdServerBrandingAsset resetCss;
+  private final IdServerBrandingAsset mainCss;
+  private final IdServerBrandingAsset xButtonCSS;
+  private final String mainCssText;
+  private final String xButtonCSSText;
   private final String title;
   private final Optional<String> loginExtraText;
 
   private IdServerBrandingService(
     final byte[] inLogo,
+    final byte[] inResetCss,
     final String inMainCss,
     final String inXButtonCss,
     final String inTitle,
     final Optional<String> inLoginExtraText)
   {
     this.logo =
-      Objects.requireNonNull(inLogo, "logo");
-    this.mainCss =
+      IdServerBrandingAsset.of("image/svg+xml; charset=utf-8", inLogo);
+    this.resetCss =
+      IdServerBrandingAsset.of(CSS_TYPE, inResetCss);
+    this.mainCssText =
       Objects.requireNonNull(inMainCss, "css");
-    this.xButtonCSS =
+    this.mainCss =
+      IdServerBrandingAsset.ofText(CSS_TYPE, inMainCss);
+    this.xButtonCSSText =
       Objects.requireNonNull(inXButtonCss, "xButtonCss");
+    this.xButtonCSS =
+      IdServerBrandingAsset.ofText(CSS_TYPE, inXButtonCss);
     this.title =
       Objects.requireNonNull(inTitle, "title");
     this.loginExtraText =
@@ -67,7 +81,9 @@ public final class IdServerBrandingService
   }
 
   /**
-   * Create a branding service.
+   * Create a branding service. The content of each static asset is hashed
+   * once, and the template service is configured to refer to the assets
+   * using URLs fingerprinted with those hashes.
    *
    * @param configuration The branding configuration
    * @param templates     The template service
@@ -87,6 +103,8 @@ public final class IdServerBrandingService
 
     final var logo =
       loadLogo(configuration.logo());
+    final var resetCss =
+      loadResetCSS();
     final var xbuttonCss =
       loadXButtonCSS(configuration.scheme());
     final var mainCss =
@@ -98,15 +116,42 @@ public final class IdServerBrandingService
         configuration.loginExtra(),
         IdServerBrandingService::loadLoginExtraText);
 
-    return new IdServerBrandingService(
-      logo,
-      mainCss,
-      xbuttonCss,
-      title,
-      brandingText
+    final var branding =
+      new IdServerBrandingService(
+        logo,
+        resetCss,
+        mainCss,
+        xbuttonCss,
+        title,
+        brandingText
+      );
+
+    templates.setAssetPaths(branding.assetPaths());
+    return branding;
+  }
+
+  private IdFMAssetPaths assetPaths()
+  {
+    final var unversioned = IdFMAssetPaths.unversioned();
+    return new IdFMAssetPaths(
+      this.resetCss.fingerprinted(unversioned.resetCss()),
+      this.mainCss.fingerprinted(unversioned.styleCss()),
+      this.xButtonCSS.fingerprinted(unversioned.xButtonCss()),
+      this.logo.fingerprinted(unversioned.logo())
     );
   }
 
+  private static byte[] loadResetCSS()
+    throws IOException
+  {
+    final var c = IdServerBrandingService.class;
+    try (var stream =
+           c.getResourceAsStream(
+             "/com/io7m/idstore/server/service/branding/reset.css")) {
+      return stream.readAllBytes();
+    }
+  }
+
   private static String loadLoginExtraText(
     final Path file)
     throws IOException
@@ -161,10 +206,34 @@ public final class IdServerBrandingService
 
   @Override
   public byte[] logoImage()
+  {
+    return this.logo.data();
+  }
+
+  @Override
+  public IdServerBrandingAsset logoAsset()
   {
     return this.logo;
   }
 
+  @Override
+  public IdServerBrandingAsset resetCSSAsset()
+  {
+    return this.resetCss;
+  }
+
+  @Override
+  public IdServerBrandingAsset cssAsset()
+  {
+    return this.mainCss;
+  }
+
+  @Override
+  public IdServerBrandingAsset xButtonCSSAsset()
+  {
+    return this.xButtonCSS;
+  }
+
   @Override
   public String title()
   {
@@ -174,13 +243,13 @@ public final class IdServerBrandingService
   @Override
   public String xButtonCSS()
   {
-    return this.xButtonCSS;
+    return this.xButtonCSSText;
   }
 
   @Override
   public String css()
   {
-    return this.mainCss;
+    return this.mainCssText;
   }
 
   @Override
@@ -33,6 +33,30 @@ public interface IdServerBrandingServiceType extends RPServiceType
 
   byte[] logoImage();
 
+  /**
+   * @return The logo image as a hashed static asset
+   */
+
+  IdServerBrandingAsset logoAsset();
+
+  /**
+   * @return The reset CSS as a hashed static asset
+   */
+
+  IdServerBrandingAsset resetCSSAsset();
+
+  /**
+   * @return The main CSS as a hashed static asset
+   */
+
+  IdServerBrandingAsset cssAsset();
+
+  /**
+   * @return The xButton CSS as a hashed static asset
+   */
+
+  IdServerBrandingAsset xButtonCSSAsset();
+
   /**
    * @return The product title
    */
@@ -35,7 +35,10 @@ import com.io7m.idstore.server.api.IdServerMailTransportSMTP;
 import com.io7m.idstore.server.api.IdServerMailTransportSMTPS;
 import com.io7m.idstore.server.api.IdServerMailTransportSMTP_TLS;
 import com.io7m.idstore.server.api.IdServerMaintenanceConfiguration;
+import com.io7m.idstore.server.api.IdServerMaintenanceScheduleDaily;
+import com.io7m.idstore.server.api.IdServerMaintenanceScheduleInterval;
 import com.io7m.idstore.server.api.IdServerOpenTelemetryConfiguration;
+import com.io7m.idstore.server.api.IdServerOpenTelemetryConfiguration.IdMetricsAttributePolicy;
 import com.io7m.idstore.server.api.IdServerPasswordExpirationConfiguration;
 import com.io7m.idstore.server.api.IdServerRateLimitConfiguration;
 import com.io7m.idstore.server.api.IdServerSessionConfiguration;
@@ -51,8 +54,11 @@ import java.io.OutputStream;
 import java.net.URI;
 import java.util.Objects;
 import java.util.Optional;
+import java.util.Set;
+import java.util.stream.Collectors;
 
 import static java.lang.Integer.toUnsignedString;
+import static java.time.format.DateTimeFormatter.ISO_LOCAL_TIME;
 
 final class IdServerConfigurationSerializer
   implements IdServerConfigurationSerializerType
@@ -135,6 +141,19 @@ final class IdServerConfigurationSerializer
       final var r = c.tlsReloadInterval().get();
       this.output.writeAttribute("TLSReloadInterval", r.toString());
     }
+
+    switch (c.schedule()) {
+      case final IdServerMaintenanceScheduleInterval s -> {
+        this.output.writeAttribute("Interval", s.interval().toString());
+      }
+      case final IdServerMaintenanceScheduleDaily s -> {
+        this.output.writeAttribute(
+          "TimeOfDay", ISO_LOCAL_TIME.format(s.timeOfDay()));
+      }
+    }
+
+    this.output.writeAttribute(
+      "BatchSize", toUnsignedString(c.batchSize()));
     this.output.writeEndElement();
   }
 
@@ -143,6 +162,8 @@ final class IdServerConfigurationSerializer
     throws XMLStreamException
   {
     this.output.writeStartElement("HTTPServices");
+    this.output.writeAttribute(
+      "RequestTimeout", http.requestTimeout().toString());
 
     this.serializeHTTPAdminAPI(http.adminAPIService());
     this.serializeHTTPUserAPI(http.userAPIService());
@@ -308,6 +329,7 @@ final class IdServerConfigurationSerializer
       this.output.writeStartElement("Metrics");
       this.output.writeAttribute("Endpoint", e.endpoint().toString());
       this.output.writeAttribute("Protocol", e.protocol().toString());
+      this.serializeMetricsAttributePolicy(e.attributePolicy());
       this.output.writeEndElement();
     }
 
@@ -335,6 +357,10 @@ final class IdServerConfigurationSerializer
       "AdminSessionExpiration",
       c.adminSessionExpiration().toString()
     );
+    if (c.searchCursorSecret().isPresent()) {
+      final var s = c.searchCursorSecret().get();
+      this.output.writeAttribute("SearchCursorSecret", s);
+    }
     this.output.writeEndElement();
   }
 
@@ -361,6 +387,36 @@ final class IdServerConfigurationSerializer
     this.output.writeEndElement();
   }
 
+  private void serializeMetricsAttributePolicy(
+    final IdMetricsAttributePolicy c)
+    throws XMLStreamException
+  {
+    this.output.writeAttribute(
+      "AttributeHashBuckets",
+      toUnsignedString(c.hashBuckets())
+    );
+    this.output.writeAttribute(
+      "AttributeHeavyHitters",
+      toUnsignedString(c.heavyHitters())
+    );
+    this.serializeStringList("AllowedHosts", c.allowedHosts());
+    this.serializeStringList("AllowedUsers", c.allowedUsers());
+    this.serializeStringList("AllowedMailDomains", c.allowedMailDomains());
+  }
+
+  private void serializeStringList(
+    final String name,
+    final Set<String> values)
+    throws XMLStreamException
+  {
+    if (!values.isEmpty()) {
+      this.output.writeAttribute(
+        name,
+        values.stream().sorted().collect(Collectors.joining(" "))
+      );
+    }
+  }
+
   private void serializeRateLimit(
     final IdServerRateLimitConfiguration c)
     throws XMLStreamException
@@ -390,6 +446,46 @@ final class IdServerConfigurationSerializer
       "PasswordResetRateLimit",
       c.passwordResetRateLimit().toString()
     );
+    this.output.writeAttribute(
+      "EmailVerificationBurst",
+      toUnsignedString(c.emailVerificationBurst())
+    );
+    this.output.writeAttribute(
+      "PasswordResetBurst",
+      toUnsignedString(c.passwordResetBurst())
+    );
+    this.output.writeAttribute(
+      "UserLoginBurst",
+      toUnsignedString(c.userLoginBurst())
+    );
+    this.output.writeAttribute(
+      "AdminLoginBurst",
+      toUnsignedString(c.adminLoginBurst())
+    );
+    this.output.writeAttribute(
+      "MaximumTrackedKeys",
+      Long.toUnsignedString(c.maximumTrackedKeys())
+    );
+    this.output.writeAttribute(
+      "Shared",
+      Boolean.toString(c.shared())
+    );
+    this.output.writeAttribute(
+      "LoginNetworkRateLimit",
+      c.loginNetworkRateLimit().toString()
+    );
+    this.output.writeAttribute(
+      "LoginNetworkBurst",
+      Integer.toUnsignedString(c.loginNetworkBurst())
+    );
+    this.output.writeAttribute(
+      "LoginAccountRateLimit",
+      c.loginAccountRateLimit().toString()
+    );
+    this.output.writeAttribute(
+      "LoginAccountBurst",
+      Integer.toUnsignedString(c.loginAccountBurst())
+    );
     this.output.writeEndElement();
   }
 
@@ -456,6 +552,62 @@ final class IdServerConfigurationSerializer
       "Upgrade",
       Boolean.toString(c.upgrade())
     );
+    this.output.writeAttribute(
+      "SearchExactCountLimit",
+      Long.toUnsignedString(c.searchExactCountLimit())
+    );
+    this.output.writeAttribute(
+      "ReplicaMaximumLag",
+      c.replicaMaximumLag().toString()
+    );
+    this.output.writeAttribute(
+      "SlowQueryThreshold",
+      c.slowQueryThreshold().toString()
+    );
+
+    final var pool = c.pool();
+    this.output.writeStartElement("DatabasePool");
+    this.output.writeAttribute(
+      "MinimumSize",
+      toUnsignedString(pool.minimumSize())
+    );
+    this.output.writeAttribute(
+      "MaximumSize",
+      toUnsignedString(pool.maximumSize())
+    );
+    this.output.writeAttribute(
+      "Adaptive",
+      Boolean.toString(pool.adaptive())
+    );
+    this.output.writeAttribute(
+      "ConnectionTimeout",
+      pool.connectionTimeout().toString()
+    );
+    this.output.writeAttribute(
+      "MaximumLifetime",
+      pool.maximumLifetime().toString()
+    );
+    this.output.writeAttribute(
+      "PrepareThreshold",
+      toUnsignedString(pool.prepareThreshold())
+    );
+    this.output.writeAttribute(
+      "PreparedStatementCacheQueries",
+      toUnsignedString(pool.preparedStatementCacheQueries())
+    );
+    this.output.writeAttribute(
+      "SecondaryMaximumSize",
+      toUnsignedString(pool.secondaryMaximumSize())
+    );
+    this.output.writeEndElement();
+
+    for (final var replica : c.replicas()) {
+      this.output.writeStartElement("DatabaseReplica");
+      this.output.writeAttribute("Address", replica.address());
+      this.output.writeAttribute("Port", toUnsignedString(replica.port()));
+      this.output.writeEndElement();
+    }
+
     this.output.writeEndElement();
   }
 
@@ -14,26 +14,69 @@
  * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
  */
 
-
 package com.io7m.idstore.server.service.configuration.v1;
 
+import com.io7m.blackthorne.core.BTElementHandlerConstructorType;
 import com.io7m.blackthorne.core.BTElementHandlerType;
 import com.io7m.blackthorne.core.BTElementParsingContextType;
+import com.io7m.blackthorne.core.BTQualifiedName;
 import com.io7m.idstore.server.api.IdServerDatabaseConfiguration;
 import com.io7m.idstore.server.api.IdServerDatabaseKind;
+import com.io7m.idstore.server.api.IdServerDatabasePoolConfiguration;
+import com.io7m.idstore.server.api.IdServerDatabaseReplicaConfiguration;
 import org.xml.sax.Attributes;
 
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 
+import static com.io7m.idstore.server.service.configuration.v1.IdC1Names.qName;
+
 final class IdC1Database
   implements BTElementHandlerType<Object, IdServerDatabaseConfiguration>
 {
+  private final List<IdServerDatabaseReplicaConfiguration> replicas;
+  private IdServerDatabasePoolConfiguration pool;
   private IdServerDatabaseConfiguration result;
 
   IdC1Database(
     final BTElementParsingContextType context)
   {
+    this.replicas = new ArrayList<>();
+    this.pool = IdServerDatabasePoolConfiguration.defaults();
+  }
 
+  @Override
+  public Map<BTQualifiedName, BTElementHandlerConstructorType<?, ?>>
+  onChildHandlersRequested(
+    final BTElementParsingContextType context)
+  {
+    return Map.ofEntries(
+      Map.entry(qName("DatabasePool"), IdC1DatabasePool::new),
+      Map.entry(qName("DatabaseReplica"), IdC1DatabaseReplica::new)
+    );
+  }
+
+  @Override
+  public void onChildValueProduced(
+    final BTElementParsingContextType context,
+    final Object result)
+  {
+    switch (result) {
+      case final IdServerDatabasePoolConfiguration p -> {
+        this.pool = p;
+      }
+      case final IdServerDatabaseReplicaConfiguration r -> {
+        this.replicas.add(r);
+      }
+      default -> {
+        throw new IllegalArgumentException(
+          "Unrecognized element: %s".formatted(result)
+        );
+      }
+    }
   }
 
   @Override
@@ -52,7 +95,19 @@ final class IdC1Database
         Integer.valueOf(attributes.getValue("Port")).intValue(),
         attributes.getValue("Name"),
         Boolean.parseBoolean(attributes.getValue("Create")),
-        Boolean.parseBoolean(attributes.getValue("Upgrade"))
+        Boolean.parseBoolean(attributes.getValue("Upgrade")),
+        Optional.ofNullable(attributes.getValue("SearchExactCountLimit"))
+          .map(Long::parseUnsignedLong)
+          .orElse(Long.valueOf(10_000L))
+          .longValue(),
+        List.of(),
+        Optional.ofNullable(attributes.getValue("ReplicaMaximumLag"))
+          .map(IdC1Durations::parse)
+          .orElse(Duration.ofSeconds(5L)),
+        IdServerDatabasePoolConfiguration.defaults(),
+        Optional.ofNullable(attributes.getValue("SlowQueryThreshold"))
+          .map(IdC1Durations::parse)
+          .orElse(Duration.ofSeconds(1L))
       );
   }
 
@@ -60,6 +115,22 @@ final class IdC1Database
   public IdServerDatabaseConfiguration onElementFinished(
     final BTElementParsingContextType context)
   {
-    return this.result;
+    return new IdServerDatabaseConfiguration(
+      this.result.kind(),
+      this.result.ownerRoleName(),
+      this.result.ownerRolePassword(),
+      this.result.workerRolePassword(),
+      this.result.readerRolePassword(),
+      this.result.address(),
+      this.result.port(),
+      this.result.databaseName(),
+      this.result.create(),
+      this.result.upgrade(),
+      this.result.searchExactCountLimit(),
+      this.replicas,
+      this.result.replicaMaximumLag(),
+      this.pool,
+      this.result.slowQueryThreshold()
+    );
   }
 }
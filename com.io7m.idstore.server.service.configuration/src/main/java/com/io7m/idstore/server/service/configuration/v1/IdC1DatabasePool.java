@@ -0,0 +1,88 @@
+/*
+ * Copyright © 2024 Mark Raynsford <code@io7m.com> https://www.io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+
+package com.io7m.idstore.server.service.configuration.v1;
+
+import com.io7m.blackthorne.core.BTElementHandlerType;
+import com.io7m.blackthorne.core.BTElementParsingContextType;
+import com.io7m.idstore.server.api.IdServerDatabasePoolConfiguration;
+import org.xml.sax.Attributes;
+
+import java.util.Optional;
+
+final class IdC1DatabasePool
+  implements BTElementHandlerType<Object, IdServerDatabasePoolConfiguration>
+{
+  private IdServerDatabasePoolConfiguration result;
+
+  IdC1DatabasePool(
+    final BTElementParsingContextType context)
+  {
+
+  }
+
+  @Override
+  public void onElementStart(
+    final BTElementParsingContextType context,
+    final Attributes attributes)
+  {
+    final var defaults =
+      IdServerDatabasePoolConfiguration.defaults();
+
+    this.result =
+      new IdServerDatabasePoolConfiguration(
+        Optional.ofNullable(attributes.getValue("MinimumSize"))
+          .map(Integer::parseUnsignedInt)
+          .orElse(Integer.valueOf(defaults.minimumSize()))
+          .intValue(),
+        Optional.ofNullable(attributes.getValue("MaximumSize"))
+          .map(Integer::parseUnsignedInt)
+          .orElse(Integer.valueOf(defaults.maximumSize()))
+          .intValue(),
+        Optional.ofNullable(attributes.getValue("Adaptive"))
+          .map(Boolean::parseBoolean)
+          .orElse(Boolean.valueOf(defaults.adaptive()))
+          .booleanValue(),
+        Optional.ofNullable(attributes.getValue("ConnectionTimeout"))
+          .map(IdC1Durations::parse)
+          .orElse(defaults.connectionTimeout()),
+        Optional.ofNullable(attributes.getValue("MaximumLifetime"))
+          .map(IdC1Durations::parse)
+          .orElse(defaults.maximumLifetime()),
+        Optional.ofNullable(attributes.getValue("PrepareThreshold"))
+          .map(Integer::parseUnsignedInt)
+          .orElse(Integer.valueOf(defaults.prepareThreshold()))
+          .intValue(),
+        Optional.ofNullable(
+            attributes.getValue("PreparedStatementCacheQueries"))
+          .map(Integer::parseUnsignedInt)
+          .orElse(Integer.valueOf(defaults.preparedStatementCacheQueries()))
+          .intValue(),
+        Optional.ofNullable(attributes.getValue("SecondaryMaximumSize"))
+          .map(Integer::parseUnsignedInt)
+          .orElse(Integer.valueOf(defaults.secondaryMaximumSize()))
+          .intValue()
+      );
+  }
+
+  @Override
+  public IdServerDatabasePoolConfiguration onElementFinished(
+    final BTElementParsingContextType context)
+  {
+    return this.result;
+  }
+}
@@ -22,8 +22,11 @@ import com.io7m.blackthorne.core.BTElementHandlerType;
 import com.io7m.blackthorne.core.BTElementParsingContextType;
 import com.io7m.blackthorne.core.BTQualifiedName;
 import com.io7m.idstore.server.api.IdServerHTTPConfiguration;
+import org.xml.sax.Attributes;
 
+import java.time.Duration;
 import java.util.Map;
+import java.util.Optional;
 
 import static com.io7m.idstore.server.service.configuration.v1.IdC1Names.qName;
 import static java.util.Map.entry;
@@ -34,6 +37,7 @@ final class IdC1HTTPServices
   private IdC1HTTPServiceConfiguration userAPI;
   private IdC1HTTPServiceConfiguration userView;
   private IdC1HTTPServiceConfiguration adminAPI;
+  private Duration requestTimeout;
 
   IdC1HTTPServices(
     final BTElementParsingContextType context)
@@ -41,6 +45,17 @@ final class IdC1HTTPServices
 
   }
 
+  @Override
+  public void onElementStart(
+    final BTElementParsingContextType context,
+    final Attributes attributes)
+  {
+    this.requestTimeout =
+      Optional.ofNullable(attributes.getValue("RequestTimeout"))
+        .map(IdC1Durations::parse)
+        .orElse(IdServerHTTPConfiguration.DEFAULT_REQUEST_TIMEOUT);
+  }
+
   @Override
   public Map<BTQualifiedName, BTElementHandlerConstructorType<?, ?>>
   onChildHandlersRequested(
@@ -92,7 +107,8 @@ final class IdC1HTTPServices
     return new IdServerHTTPConfiguration(
       this.adminAPI.configuration(),
       this.userAPI.configuration(),
-      this.userView.configuration()
+      this.userView.configuration(),
+      this.requestTimeout
     );
   }
 }
@@ -20,15 +20,21 @@ package com.io7m.idstore.server.service.configuration.v1;
 import com.io7m.blackthorne.core.BTElementHandlerType;
 import com.io7m.blackthorne.core.BTElementParsingContextType;
 import com.io7m.idstore.server.api.IdServerMaintenanceConfiguration;
+import com.io7m.idstore.server.api.IdServerMaintenanceScheduleDaily;
+import com.io7m.idstore.server.api.IdServerMaintenanceScheduleInterval;
+import com.io7m.idstore.server.api.IdServerMaintenanceScheduleType;
 import org.xml.sax.Attributes;
 
 import java.time.Duration;
+import java.time.LocalTime;
 import java.util.Optional;
 
 final class IdC1Maintenance
   implements BTElementHandlerType<Object, IdServerMaintenanceConfiguration>
 {
   private Optional<Duration> tlsReloadInterval;
+  private IdServerMaintenanceScheduleType schedule;
+  private int batchSize;
 
   IdC1Maintenance(
     final BTElementParsingContextType context)
@@ -44,6 +50,29 @@ final class IdC1Maintenance
     this.tlsReloadInterval =
       Optional.ofNullable(attributes.getValue("TLSReloadInterval"))
         .map(IdC1Durations::parse);
+
+    final var interval =
+      Optional.ofNullable(attributes.getValue("Interval"))
+        .map(IdC1Durations::parse);
+
+    if (interval.isPresent()) {
+      this.schedule =
+        new IdServerMaintenanceScheduleInterval(interval.get());
+    } else {
+      this.schedule =
+        new IdServerMaintenanceScheduleDaily(
+          Optional.ofNullable(attributes.getValue("TimeOfDay"))
+            .map(LocalTime::parse)
+            .orElse(LocalTime.MIDNIGHT)
+        );
+    }
+
+    this.batchSize =
+      Optional.ofNullable(attributes.getValue("BatchSize"))
+        .map(Integer::parseUnsignedInt)
+        .orElse(
+          Integer.valueOf(IdServerMaintenanceConfiguration.DEFAULT_BATCH_SIZE))
+        .intValue();
   }
 
   @Override
@@ -52,7 +81,9 @@ final class IdC1Maintenance
     throws Exception
   {
     return new IdServerMaintenanceConfiguration(
-      this.tlsReloadInterval
+      this.tlsReloadInterval,
+      this.schedule,
+      this.batchSize
     );
   }
 }
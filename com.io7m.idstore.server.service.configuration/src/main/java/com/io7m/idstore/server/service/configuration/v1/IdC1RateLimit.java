@@ -48,10 +48,42 @@ final class IdC1RateLimit
         optionalDuration(a, "UserLoginRateLimit", Duration.ofSeconds(5L)),
         optionalDuration(a, "UserLoginDelay", Duration.ofSeconds(1L)),
         optionalDuration(a, "AdminLoginRateLimit", Duration.ofSeconds(5L)),
-        optionalDuration(a, "AdminLoginDelay", Duration.ofSeconds(1L))
+        optionalDuration(a, "AdminLoginDelay", Duration.ofSeconds(1L)),
+        optionalInt(a, "EmailVerificationBurst", 1),
+        optionalInt(a, "PasswordResetBurst", 1),
+        optionalInt(a, "UserLoginBurst", 1),
+        optionalInt(a, "AdminLoginBurst", 1),
+        optionalLong(a, "MaximumTrackedKeys", 100_000L),
+        Boolean.parseBoolean(a.getValue("Shared")),
+        optionalDuration(a, "LoginNetworkRateLimit", Duration.ofSeconds(1L)),
+        optionalInt(a, "LoginNetworkBurst", 30),
+        optionalDuration(a, "LoginAccountRateLimit", Duration.ofSeconds(5L)),
+        optionalInt(a, "LoginAccountBurst", 10)
       );
   }
 
+  private static int optionalInt(
+    final Attributes attributes,
+    final String name,
+    final int otherwise)
+  {
+    return Optional.ofNullable(attributes.getValue(name))
+      .map(Integer::parseUnsignedInt)
+      .orElse(Integer.valueOf(otherwise))
+      .intValue();
+  }
+
+  private static long optionalLong(
+    final Attributes attributes,
+    final String name,
+    final long otherwise)
+  {
+    return Optional.ofNullable(attributes.getValue(name))
+      .map(Long::parseUnsignedLong)
+      .orElse(Long.valueOf(otherwise))
+      .longValue();
+  }
+
   private static Duration requiredDuration(
     final Attributes attributes,
     final String name)
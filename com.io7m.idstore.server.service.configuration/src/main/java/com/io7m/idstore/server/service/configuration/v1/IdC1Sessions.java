@@ -22,6 +22,8 @@ import com.io7m.blackthorne.core.BTElementParsingContextType;
 import com.io7m.idstore.server.api.IdServerSessionConfiguration;
 import org.xml.sax.Attributes;
 
+import java.util.Optional;
+
 final class IdC1Sessions
   implements BTElementHandlerType<Object, IdServerSessionConfiguration>
 {
@@ -43,7 +45,8 @@ final class IdC1Sessions
         IdC1Durations.parse(
           attributes.getValue("UserSessionExpiration")),
         IdC1Durations.parse(
-          attributes.getValue("AdminSessionExpiration"))
+          attributes.getValue("AdminSessionExpiration")),
+        Optional.ofNullable(attributes.getValue("SearchCursorSecret"))
       );
   }
 
@@ -20,10 +20,15 @@ package com.io7m.idstore.server.service.configuration.v1;
 import com.io7m.blackthorne.core.BTElementHandlerType;
 import com.io7m.blackthorne.core.BTElementParsingContextType;
 import com.io7m.idstore.server.api.IdServerOpenTelemetryConfiguration.IdMetrics;
+import com.io7m.idstore.server.api.IdServerOpenTelemetryConfiguration.IdMetricsAttributePolicy;
 import com.io7m.idstore.server.api.IdServerOpenTelemetryConfiguration.IdOTLPProtocol;
 import org.xml.sax.Attributes;
 
 import java.net.URI;
+import java.util.Arrays;
+import java.util.Optional;
+import java.util.Set;
+import java.util.stream.Collectors;
 
 final class IdC1TelemetryMetrics
   implements BTElementHandlerType<Object, IdMetrics>
@@ -41,12 +46,51 @@ final class IdC1TelemetryMetrics
     final BTElementParsingContextType context,
     final Attributes attributes)
   {
+    final var defaults =
+      IdMetricsAttributePolicy.defaults();
+
+    final var policy =
+      new IdMetricsAttributePolicy(
+        optionalInt(
+          attributes, "AttributeHashBuckets", defaults.hashBuckets()),
+        optionalInt(
+          attributes, "AttributeHeavyHitters", defaults.heavyHitters()),
+        optionalSet(attributes, "AllowedHosts"),
+        optionalSet(attributes, "AllowedUsers"),
+        optionalSet(attributes, "AllowedMailDomains")
+      );
+
     this.result = new IdMetrics(
       URI.create(attributes.getValue("Endpoint")),
-      IdOTLPProtocol.valueOf(attributes.getValue("Protocol"))
+      IdOTLPProtocol.valueOf(attributes.getValue("Protocol")),
+      policy
     );
   }
 
+  private static int optionalInt(
+    final Attributes attributes,
+    final String name,
+    final int otherwise)
+  {
+    return Optional.ofNullable(attributes.getValue(name))
+      .map(Integer::parseUnsignedInt)
+      .orElse(Integer.valueOf(otherwise))
+      .intValue();
+  }
+
+  private static Set<String> optionalSet(
+    final Attributes attributes,
+    final String name)
+  {
+    return Optional.ofNullable(attributes.getValue(name))
+      .map(text -> {
+        return Arrays.stream(text.split("\\s+"))
+          .filter(x -> !x.isBlank())
+          .collect(Collectors.toUnmodifiableSet());
+      })
+      .orElse(Set.of());
+  }
+
   @Override
   public IdMetrics onElementFinished(
     final BTElementParsingContextType context)
@@ -26,7 +26,6 @@ module com.io7m.idstore.server.service.configuration
   requires com.io7m.idstore.database.api;
   requires com.io7m.idstore.model;
   requires com.io7m.idstore.server.api;
-  requires com.io7m.idstore.server.service.telemetry.api;
   requires com.io7m.idstore.tls;
 
   requires com.io7m.anethum.api;
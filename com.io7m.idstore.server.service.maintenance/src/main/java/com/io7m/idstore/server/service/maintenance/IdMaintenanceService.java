@@ -17,11 +17,17 @@
 
 package com.io7m.idstore.server.service.maintenance;
 
+import com.io7m.idstore.database.api.IdDatabaseConnectionType;
+import com.io7m.idstore.database.api.IdDatabaseException;
 import com.io7m.idstore.database.api.IdDatabaseMaintenanceQueriesType;
+import com.io7m.idstore.database.api.IdDatabaseMaintenanceTask;
 import com.io7m.idstore.database.api.IdDatabaseRole;
 import com.io7m.idstore.database.api.IdDatabaseType;
+import com.io7m.idstore.server.api.IdServerMaintenanceScheduleDaily;
+import com.io7m.idstore.server.api.IdServerMaintenanceScheduleInterval;
 import com.io7m.idstore.server.service.clock.IdServerClock;
 import com.io7m.idstore.server.service.configuration.IdServerConfigurationService;
+import com.io7m.idstore.server.service.telemetry.api.IdMetricsServiceType;
 import com.io7m.idstore.server.service.telemetry.api.IdServerTelemetryServiceType;
 import com.io7m.idstore.server.service.tls.IdTLSContextServiceType;
 import com.io7m.repetoir.core.RPServiceType;
@@ -31,13 +37,15 @@ import org.slf4j.LoggerFactory;
 import java.time.Duration;
 import java.util.Objects;
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
 import java.util.concurrent.atomic.AtomicBoolean;
 
 /**
- * A service that performs nightly database maintenance.
+ * A service that performs scheduled database maintenance.
  */
 
 public final class IdMaintenanceService
@@ -49,17 +57,21 @@ public final class IdMaintenanceService
   private final ExecutorService executor;
   private final IdServerClock clock;
   private final IdServerTelemetryServiceType telemetry;
+  private final IdMetricsServiceType metrics;
   private final IdDatabaseType database;
   private final IdTLSContextServiceType tlsContexts;
   private final IdServerConfigurationService configuration;
   private final AtomicBoolean closed;
   private final CompletableFuture<Void> waitTLS;
   private final CompletableFuture<Void> waitMaintenance;
+  private volatile boolean leader;
+  private IdDatabaseConnectionType leaderConnection;
 
   private IdMaintenanceService(
     final ExecutorService inExecutor,
     final IdServerClock inClock,
     final IdServerTelemetryServiceType inTelemetry,
+    final IdMetricsServiceType inMetrics,
     final IdDatabaseType inDatabase,
     final IdTLSContextServiceType inTlsContexts,
     final IdServerConfigurationService inConfiguration)
@@ -70,6 +82,8 @@ public final class IdMaintenanceService
       Objects.requireNonNull(inClock, "clock");
     this.telemetry =
       Objects.requireNonNull(inTelemetry, "telemetry");
+    this.metrics =
+      Objects.requireNonNull(inMetrics, "metrics");
     this.database =
       Objects.requireNonNull(inDatabase, "database");
     this.tlsContexts =
@@ -85,10 +99,11 @@ public final class IdMaintenanceService
   }
 
   /**
-   * A service that performs nightly maintenance.
+   * A service that performs scheduled maintenance.
    *
    * @param clock         The clock
    * @param telemetry     The telemetry service
+   * @param metrics       The metrics service
    * @param database      The database
    * @param configuration The configuration service
    * @param tlsContexts   The TLS contexts
@@ -99,6 +114,7 @@ public final class IdMaintenanceService
   public static IdMaintenanceService create(
     final IdServerClock clock,
     final IdServerTelemetryServiceType telemetry,
+    final IdMetricsServiceType metrics,
     final IdServerConfigurationService configuration,
     final IdTLSContextServiceType tlsContexts,
     final IdDatabaseType database)
@@ -106,6 +122,7 @@ public final class IdMaintenanceService
     Objects.requireNonNull(clock, "clock");
     Objects.requireNonNull(configuration, "configuration");
     Objects.requireNonNull(database, "database");
+    Objects.requireNonNull(metrics, "metrics");
     Objects.requireNonNull(telemetry, "telemetry");
     Objects.requireNonNull(tlsContexts, "tlsContexts");
 
@@ -121,6 +138,7 @@ public final class IdMaintenanceService
         executor,
         clock,
         telemetry,
+        metrics,
         database,
         tlsContexts,
         configuration
@@ -133,37 +151,212 @@ public final class IdMaintenanceService
 
   /**
    * A task that executes maintenance once when the service starts, and then
-   * again at every subsequent midnight.
+   * again according to the configured schedule. Only the server that holds
+   * the maintenance leader lock executes maintenance; other servers try to
+   * acquire the lock each time maintenance is due, and so take over when the
+   * leader's database session ends.
    */
 
   private void runMaintenanceTask()
   {
     while (!this.closed.get()) {
       try {
-        this.runMaintenance();
+        if (this.electLeader()) {
+          this.runMaintenance();
+        } else {
+          LOG.debug("Not the maintenance leader; skipping maintenance.");
+        }
       } catch (final Exception e) {
         // Not important.
       }
 
-      final var timeNow =
-        this.clock.now();
-      final var timeNextMidnight =
-        timeNow.withHour(0)
-          .withMinute(0)
-          .withSecond(0)
-          .plusDays(1L);
+      if (!this.waitUntilNext(
+        this.waitMaintenance,
+        this.timeUntilNextMaintenance())) {
+        break;
+      }
+    }
+
+    this.resignLeader();
+  }
+
+  /**
+   * Wait for the given period of time, or until the service is closed.
+   *
+   * @param waitClose The future that is completed when the service closes
+   * @param period    The period of time
+   *
+   * @return {@code true} if the period elapsed and the service is still open
+   */
+
+  private boolean waitUntilNext(
+    final CompletableFuture<Void> waitClose,
+    final Duration period)
+  {
+    try {
+      waitClose.get(Math.max(1L, period.toNanos()), TimeUnit.NANOSECONDS);
+      return false;
+    } catch (final TimeoutException e) {
+      return !this.closed.get();
+    } catch (final InterruptedException e) {
+      Thread.currentThread().interrupt();
+      return false;
+    } catch (final ExecutionException e) {
+      return false;
+    }
+  }
+
+  /**
+   * Determine whether this server is the maintenance leader, acquiring the
+   * leader lock if no other server holds it. The lock is held by a dedicated
+   * connection for as long as this server remains the leader.
+   *
+   * @return {@code true} if this server is the leader
+   */
+
+  private boolean electLeader()
+  {
+    try {
+      if (this.leaderConnection != null) {
+        if (this.withLeaderQueries(
+          this.leaderConnection,
+          IdDatabaseMaintenanceQueriesType::maintenanceLeaderLockHeld)) {
+          return this.setLeader(true);
+        }
+
+        LOG.warn("Lost the maintenance leader lock.");
+        this.closeLeaderConnection();
+      }
 
-      final var untilNext =
-        Duration.between(timeNow, timeNextMidnight);
+      /*
+       * The new connection is recorded as the leader connection before the
+       * lock is attempted, so that if anything fails, the connection is
+       * closed by the same path that releases the lock.
+       */
 
+      final var connection =
+        this.database.openConnection(IdDatabaseRole.IDSTORE);
+
+      this.leaderConnection = connection;
+      if (this.withLeaderQueries(
+        connection,
+        IdDatabaseMaintenanceQueriesType::maintenanceLeaderLockTry)) {
+        return this.setLeader(true);
+      }
+
+      this.leaderConnection = null;
+      connection.close();
+      return this.setLeader(false);
+    } catch (final IdDatabaseException e) {
+      LOG.error("Maintenance leader election failed: ", e);
+      this.closeLeaderConnection();
+      return this.setLeader(false);
+    }
+  }
+
+  private boolean setLeader(
+    final boolean isLeader)
+  {
+    if (this.leader != isLeader) {
+      LOG.info(
+        isLeader
+          ? "This server is now the maintenance leader."
+          : "This server is no longer the maintenance leader."
+      );
+    }
+
+    this.leader = isLeader;
+    this.metrics.onMaintenanceLeader(isLeader);
+    return isLeader;
+  }
+
+  private void resignLeader()
+  {
+    this.closeLeaderConnection();
+    this.setLeader(false);
+  }
+
+  /**
+   * Release the leader lock (if it is still held) and close the leader
+   * connection. The lock must be released explicitly because closing the
+   * connection returns it to the pool rather than ending the session.
+   */
+
+  private void closeLeaderConnection()
+  {
+    final var connection = this.leaderConnection;
+    this.leaderConnection = null;
+
+    if (connection != null) {
       try {
-        this.waitMaintenance.get(untilNext.toSeconds(), TimeUnit.SECONDS);
-      } catch (final Exception e) {
-        break;
+        this.withLeaderQueries(connection, queries -> {
+          queries.maintenanceLeaderLockRelease();
+          return false;
+        });
+      } catch (final IdDatabaseException e) {
+        LOG.error("Failed to release the maintenance leader lock: ", e);
       }
+
+      try {
+        connection.close();
+      } catch (final IdDatabaseException e) {
+        LOG.error("Failed to close the maintenance leader connection: ", e);
+      }
+    }
+  }
+
+  private interface LeaderQueryType
+  {
+    boolean execute(IdDatabaseMaintenanceQueriesType queries)
+      throws IdDatabaseException;
+  }
+
+  private boolean withLeaderQueries(
+    final IdDatabaseConnectionType connection,
+    final LeaderQueryType query)
+    throws IdDatabaseException
+  {
+    try (var transaction = connection.openTransaction()) {
+      final var result =
+        query.execute(
+          transaction.queries(IdDatabaseMaintenanceQueriesType.class));
+      transaction.commit();
+      return result;
     }
   }
 
+  /**
+   * @return {@code true} if this server is currently the maintenance leader
+   */
+
+  public boolean isLeader()
+  {
+    return this.leader;
+  }
+
+  private Duration timeUntilNextMaintenance()
+  {
+    final var schedule =
+      this.configuration.configuration()
+        .maintenanceConfiguration()
+        .schedule();
+
+    return switch (schedule) {
+      case final IdServerMaintenanceScheduleInterval s -> s.interval();
+      case final IdServerMaintenanceScheduleDaily s -> {
+        final var timeNow =
+          this.clock.now();
+
+        var timeNext =
+          timeNow.with(s.timeOfDay());
+        if (!timeNext.isAfter(timeNow)) {
+          timeNext = timeNext.plusDays(1L);
+        }
+        yield Duration.between(timeNow, timeNext);
+      }
+    };
+  }
+
   /**
    * A task that reloads TLS contexts at the specified reload interval.
    */
@@ -189,9 +382,7 @@ public final class IdMaintenanceService
         // Not important.
       }
 
-      try {
-        this.waitTLS.get(reloadInterval.toSeconds(), TimeUnit.SECONDS);
-      } catch (final Exception e) {
+      if (!this.waitUntilNext(this.waitTLS, reloadInterval)) {
         break;
       }
     }
@@ -213,16 +404,19 @@ public final class IdMaintenanceService
         .startSpan();
 
     try (var ignored = span.makeCurrent()) {
-      try (var connection =
-             this.database.openConnection(IdDatabaseRole.IDSTORE)) {
-        try (var transaction = connection.openTransaction()) {
-          transaction.queries(IdDatabaseMaintenanceQueriesType.class)
-              .runMaintenance();
+      for (final var task : IdDatabaseMaintenanceTask.values()) {
+        if (this.closed.get()) {
+          break;
+        }
 
-          transaction.commit();
-          LOG.info("Maintenance task completed.");
+        try {
+          this.runMaintenanceTaskBatches(this.leaderConnection, task);
+        } catch (final IdDatabaseException e) {
+          LOG.error("Maintenance task {} failed: ", task.taskName(), e);
+          span.recordException(e);
         }
       }
+      LOG.info("Maintenance task completed.");
     } catch (final Exception e) {
       LOG.error("Maintenance task failed: ", e);
       span.recordException(e);
@@ -231,6 +425,52 @@ public final class IdMaintenanceService
     }
   }
 
+  /**
+   * Run the given task in batches, committing after each batch so that
+   * locks are released and the amount of work lost to a failure is bounded.
+   * Tasks that are not batched are run exactly once.
+   */
+
+  private void runMaintenanceTaskBatches(
+    final IdDatabaseConnectionType connection,
+    final IdDatabaseMaintenanceTask task)
+    throws IdDatabaseException
+  {
+    final var batchSize =
+      this.configuration.configuration()
+        .maintenanceConfiguration()
+        .batchSize();
+
+    final var timeThen = System.nanoTime();
+    var rows = 0L;
+
+    try {
+      while (!this.closed.get()) {
+        final long affected;
+        try (var transaction = connection.openTransaction()) {
+          affected =
+            transaction.queries(IdDatabaseMaintenanceQueriesType.class)
+              .runMaintenanceTask(task, batchSize);
+          transaction.commit();
+        }
+
+        rows += affected;
+        if (!task.isBatched() || affected < (long) batchSize) {
+          break;
+        }
+      }
+    } finally {
+      final var time = Duration.ofNanos(System.nanoTime() - timeThen);
+      this.metrics.onMaintenanceTask(task.taskName(), rows, time);
+      LOG.debug(
+        "{}: {} records in {}",
+        task.taskName(),
+        Long.valueOf(rows),
+        time
+      );
+    }
+  }
+
   @Override
   public String description()
   {
@@ -0,0 +1,271 @@
+/*
+ * Copyright © 2024 Mark Raynsford <code@io7m.com> https://www.io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+
+package com.io7m.idstore.server.service.ratelimit;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.io7m.idstore.model.IdUserDomain;
+import com.io7m.idstore.server.service.telemetry.api.IdMetricsServiceType;
+
+import java.time.Duration;
+import java.util.Locale;
+import java.util.Objects;
+import java.util.function.LongSupplier;
+
+/**
+ * <p>Delays applied to login attempts based on recent failures.</p>
+ *
+ * <p>Login attempts from sources and for accounts with no recent failures
+ * are not delayed at all. Each failed attempt doubles the delay applied to
+ * subsequent attempts from the same source host or for the same account,
+ * starting from the configured base delay, up to a maximum of
+ * {@link #MAXIMUM_DOUBLINGS} doublings. Failures are forgotten once no
+ * further failures have been observed for {@link #FAILURE_WINDOW}, and a
+ * successful login clears the failures recorded against the account.</p>
+ */
+
+public final class IdLoginDelays
+{
+  /**
+   * The period of time after which failures are forgotten if no further
+   * failures occur.
+   */
+
+  public static final Duration FAILURE_WINDOW = Duration.ofMinutes(15L);
+
+  /**
+   * The maximum number of times the base delay will be doubled.
+   */
+
+  public static final int MAXIMUM_DOUBLINGS = 5;
+
+  private final IdMetricsServiceType metrics;
+  private final IdUserDomain domain;
+  private final Duration baseDelay;
+  private final Cache<String, Integer> hosts;
+  private final Cache<String, Integer> users;
+
+  private IdLoginDelays(
+    final IdMetricsServiceType inMetrics,
+    final IdUserDomain inDomain,
+    final Duration inBaseDelay,
+    final Cache<String, Integer> inHosts,
+    final Cache<String, Integer> inUsers)
+  {
+    this.metrics =
+      Objects.requireNonNull(inMetrics, "metrics");
+    this.domain =
+      Objects.requireNonNull(inDomain, "domain");
+    this.baseDelay =
+      Objects.requireNonNull(inBaseDelay, "baseDelay");
+    this.hosts =
+      Objects.requireNonNull(inHosts, "hosts");
+    this.users =
+      Objects.requireNonNull(inUsers, "users");
+  }
+
+  /**
+   * Create login delays.
+   *
+   * @param metrics     The metrics service
+   * @param domain      The user domain
+   * @param baseDelay   The delay applied after a single failure
+   * @param maximumKeys The maximum number of hosts and accounts tracked
+   *
+   * @return The login delays
+   */
+
+  public static IdLoginDelays create(
+    final IdMetricsServiceType metrics,
+    final IdUserDomain domain,
+    final Duration baseDelay,
+    final long maximumKeys)
+  {
+    return create(metrics, domain, baseDelay, maximumKeys, System::nanoTime);
+  }
+
+  /**
+   * Create login delays.
+   *
+   * @param metrics     The metrics service
+   * @param domain      The user domain
+   * @param baseDelay   The delay applied after a single failure
+   * @param maximumKeys The maximum number of hosts and accounts tracked
+   * @param nanoTime    The source of monotonic time in nanoseconds
+   *
+   * @return The login delays
+   */
+
+  public static IdLoginDelays create(
+    final IdMetricsServiceType metrics,
+    final IdUserDomain domain,
+    final Duration baseDelay,
+    final long maximumKeys,
+    final LongSupplier nanoTime)
+  {
+    Objects.requireNonNull(baseDelay, "baseDelay");
+    Objects.requireNonNull(nanoTime, "nanoTime");
+
+    if (baseDelay.isNegative()) {
+      throw new IllegalArgumentException(
+        "Base delay %s must be non-negative".formatted(baseDelay)
+      );
+    }
+    if (maximumKeys <= 0L) {
+      throw new IllegalArgumentException(
+        "Maximum keys %d must be positive".formatted(maximumKeys)
+      );
+    }
+
+    return new IdLoginDelays(
+      metrics,
+      domain,
+      baseDelay,
+      failureCache(maximumKeys, nanoTime),
+      failureCache(maximumKeys, nanoTime)
+    );
+  }
+
+  /**
+   * Create login delays that never delay anything.
+   *
+   * @param metrics The metrics service
+   * @param domain  The user domain
+   *
+   * @return The login delays
+   */
+
+  public static IdLoginDelays disabled(
+    final IdMetricsServiceType metrics,
+    final IdUserDomain domain)
+  {
+    return create(metrics, domain, Duration.ZERO, 1L);
+  }
+
+  private static Cache<String, Integer> failureCache(
+    final long maximumKeys,
+    final LongSupplier nanoTime)
+  {
+    return Caffeine.newBuilder()
+      .maximumSize(maximumKeys)
+      .expireAfterWrite(FAILURE_WINDOW)
+      .ticker(nanoTime::getAsLong)
+      .build();
+  }
+
+  private static String userKey(
+    final String user)
+  {
+    return user.toUpperCase(Locale.ROOT);
+  }
+
+  private static int failuresOf(
+    final Cache<String, Integer> cache,
+    final String key)
+  {
+    final var count = cache.getIfPresent(key);
+    return count == null ? 0 : count.intValue();
+  }
+
+  /**
+   * Determine the delay that must be applied before a login attempt from
+   * the given host for the given user is processed. The delay is published
+   * to the metrics service. Nothing is waited for here; the login handlers
+   * sleep the request thread for the returned delay before opening a
+   * database transaction.
+   *
+   * @param host The host performing the login
+   * @param user The name of the user being logged in
+   *
+   * @return The delay
+   */
+
+  public Duration delayFor(
+    final String host,
+    final String user)
+  {
+    Objects.requireNonNull(host, "host");
+    Objects.requireNonNull(user, "user");
+
+    final var failures =
+      Math.max(
+        failuresOf(this.hosts, IdRateLimiterSubnets.hostKey(host)),
+        failuresOf(this.users, userKey(user))
+      );
+
+    final Duration delay;
+    if (failures == 0 || this.baseDelay.isZero()) {
+      delay = Duration.ZERO;
+    } else {
+      final var doublings = Math.min(failures - 1, MAXIMUM_DOUBLINGS);
+      delay = this.baseDelay.multipliedBy(1L << doublings);
+    }
+
+    this.metrics.onLoginPauseTime(this.domain, delay);
+    return delay;
+  }
+
+  /**
+   * Record a failed login attempt.
+   *
+   * @param host The host performing the login
+   * @param user The name of the user being logged in
+   */
+
+  public void onLoginFailed(
+    final String host,
+    final String user)
+  {
+    Objects.requireNonNull(host, "host");
+    Objects.requireNonNull(user, "user");
+
+    if (this.baseDelay.isZero()) {
+      return;
+    }
+
+    this.hosts.asMap()
+      .merge(IdRateLimiterSubnets.hostKey(host), 1, Integer::sum);
+    this.users.asMap()
+      .merge(userKey(user), 1, Integer::sum);
+  }
+
+  /**
+   * Record a successful login attempt. Failures recorded against the account
+   * are cleared; failures recorded against the host are retained.
+   *
+   * @param host The host performing the login
+   * @param user The name of the user being logged in
+   */
+
+  public void onLoginSucceeded(
+    final String host,
+    final String user)
+  {
+    Objects.requireNonNull(host, "host");
+    Objects.requireNonNull(user, "user");
+
+    this.users.invalidate(userKey(user));
+  }
+
+  @Override
+  public String toString()
+  {
+    return "[IdLoginDelays %s]"
+      .formatted(Integer.toUnsignedString(this.hashCode(), 16));
+  }
+}
@@ -17,6 +17,8 @@
 
 package com.io7m.idstore.server.service.ratelimit;
 
+import java.time.Duration;
+
 /**
  * A rate limiting service for admin logins.
  */
@@ -24,10 +26,63 @@ package com.io7m.idstore.server.service.ratelimit;
 public interface IdRateLimitAdminLoginServiceType extends IdRateLimiterType
 {
   /**
+   * Determine if a login is allowed by the per-host rate limit.
+   *
    * @param host The host performing the action
    *
    * @return {@code true} if the given operation is allowed by rate limiting
    */
 
   boolean isAllowedByRateLimit(String host);
+
+  /**
+   * Determine if a login is allowed by the per-host, per-network, and
+   * per-user rate limits.
+   *
+   * @param host     The host performing the action
+   * @param username The name of the admin being logged in
+   *
+   * @return {@code true} if the given operation is allowed by rate limiting
+   */
+
+  boolean isAllowedByRateLimit(
+    String host,
+    String username);
+
+  /**
+   * Determine the delay that must be applied before processing a login. The
+   * delay grows with the number of recent failed logins from the host and
+   * for the user, and is zero if there have been no recent failures.
+   *
+   * @param host     The host performing the action
+   * @param username The name of the user being logged in
+   *
+   * @return The delay
+   */
+
+  Duration loginDelay(
+    String host,
+    String username);
+
+  /**
+   * Record that a login failed due to invalid credentials.
+   *
+   * @param host     The host performing the action
+   * @param username The name of the user being logged in
+   */
+
+  void onLoginFailed(
+    String host,
+    String username);
+
+  /**
+   * Record that a login succeeded.
+   *
+   * @param host     The host performing the action
+   * @param username The name of the user being logged in
+   */
+
+  void onLoginSucceeded(
+    String host,
+    String username);
 }
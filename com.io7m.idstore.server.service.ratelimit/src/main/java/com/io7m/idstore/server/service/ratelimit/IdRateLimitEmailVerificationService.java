@@ -17,6 +17,7 @@
 
 package com.io7m.idstore.server.service.ratelimit;
 
+import com.io7m.idstore.database.api.IdDatabaseType;
 import com.io7m.idstore.server.service.telemetry.api.IdMetricsServiceType;
 
 import java.time.Duration;
@@ -31,10 +32,10 @@ import java.util.concurrent.TimeUnit;
 public final class IdRateLimitEmailVerificationService
   implements IdRateLimitEmailVerificationServiceType
 {
-  private final IdRateLimiter limiter;
+  private final IdRateLimiterKeyedType limiter;
 
   private IdRateLimitEmailVerificationService(
-    final IdRateLimiter inLimiter)
+    final IdRateLimiterKeyedType inLimiter)
   {
     this.limiter = Objects.requireNonNull(inLimiter, "limiter");
   }
@@ -64,6 +65,54 @@ public final class IdRateLimitEmailVerificationService
     );
   }
 
+  /**
+   * Create a rate limit service.
+   *
+   * @param metrics       The metrics service
+   * @param configuration The limiter configuration
+   *
+   * @return A rate limiter
+   */
+
+  public static IdRateLimitEmailVerificationServiceType create(
+    final IdMetricsServiceType metrics,
+    final IdRateLimiterConfiguration configuration)
+  {
+    return new IdRateLimitEmailVerificationService(
+      IdRateLimiter.create(
+        metrics,
+        "email_verification",
+        configuration
+      )
+    );
+  }
+
+  /**
+   * Create a rate limit service that is shared between all servers that use
+   * the given database.
+   *
+   * @param metrics       The metrics service
+   * @param database      The database
+   * @param configuration The limiter configuration
+   *
+   * @return A rate limiter
+   */
+
+  public static IdRateLimitEmailVerificationServiceType createShared(
+    final IdMetricsServiceType metrics,
+    final IdDatabaseType database,
+    final IdRateLimiterConfiguration configuration)
+  {
+    return new IdRateLimitEmailVerificationService(
+      IdRateLimiterShared.create(
+        metrics,
+        database,
+        "email_verification",
+        configuration
+      )
+    );
+  }
+
   @Override
   public boolean isAllowedByRateLimit(
     final UUID user)
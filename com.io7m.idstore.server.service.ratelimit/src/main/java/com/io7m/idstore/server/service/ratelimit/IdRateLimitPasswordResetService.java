@@ -16,6 +16,7 @@
 
 package com.io7m.idstore.server.service.ratelimit;
 
+import com.io7m.idstore.database.api.IdDatabaseType;
 import com.io7m.idstore.server.service.telemetry.api.IdMetricsServiceType;
 
 import java.time.Duration;
@@ -29,10 +30,10 @@ import java.util.concurrent.TimeUnit;
 public final class IdRateLimitPasswordResetService
   implements IdRateLimitPasswordResetServiceType
 {
-  private final IdRateLimiter limiter;
+  private final IdRateLimiterKeyedType limiter;
 
   private IdRateLimitPasswordResetService(
-    final IdRateLimiter inLimiter)
+    final IdRateLimiterKeyedType inLimiter)
   {
     this.limiter = Objects.requireNonNull(inLimiter, "limiter");
   }
@@ -62,6 +63,54 @@ public final class IdRateLimitPasswordResetService
     );
   }
 
+  /**
+   * Create a rate limit service.
+   *
+   * @param metrics       The metrics service
+   * @param configuration The limiter configuration
+   *
+   * @return A rate limiter
+   */
+
+  public static IdRateLimitPasswordResetServiceType create(
+    final IdMetricsServiceType metrics,
+    final IdRateLimiterConfiguration configuration)
+  {
+    return new IdRateLimitPasswordResetService(
+      IdRateLimiter.create(
+        metrics,
+        "password_reset",
+        configuration
+      )
+    );
+  }
+
+  /**
+   * Create a rate limit service that is shared between all servers that use
+   * the given database.
+   *
+   * @param metrics       The metrics service
+   * @param database      The database
+   * @param configuration The limiter configuration
+   *
+   * @return A rate limiter
+   */
+
+  public static IdRateLimitPasswordResetServiceType createShared(
+    final IdMetricsServiceType metrics,
+    final IdDatabaseType database,
+    final IdRateLimiterConfiguration configuration)
+  {
+    return new IdRateLimitPasswordResetService(
+      IdRateLimiterShared.create(
+        metrics,
+        database,
+        "password_reset",
+        configuration
+      )
+    );
+  }
+
   @Override
   public boolean isAllowedByRateLimit(
     final String host)
@@ -0,0 +1,208 @@
+/*
+ * Copyright © 2024 Mark Raynsford <code@io7m.com> https://www.io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+
+package com.io7m.idstore.server.service.ratelimit;
+
+import java.net.Inet4Address;
+import java.net.Inet6Address;
+import java.net.InetAddress;
+import java.net.UnknownHostException;
+import java.nio.ByteBuffer;
+import java.util.Optional;
+
+/**
+ * <p>The leading bits of an IP address, used as a compact rate limiting key
+ * for a network rather than a single address.</p>
+ *
+ * <p>Prefixes of IPv6 addresses are limited to at most 64 bits, so that
+ * the prefix of any address fits into a single {@code long}.</p>
+ *
+ * @param version The IP version ({@code 4} or {@code 6})
+ * @param length  The prefix length in bits
+ * @param bits    The leading {@code length} bits of the address, with all
+ *                other bits set to zero
+ */
+
+public record IdRateLimitPrefix(
+  int version,
+  int length,
+  long bits)
+{
+  /**
+   * The leading bits of an IP address.
+   *
+   * @param version The IP version ({@code 4} or {@code 6})
+   * @param length  The prefix length in bits
+   * @param bits    The leading {@code length} bits of the address
+   */
+
+  public IdRateLimitPrefix
+  {
+    switch (version) {
+      case 4 -> {
+        if (length < 0 || length > 32) {
+          throw new IllegalArgumentException(
+            "IPv4 prefix length %d must be in [0, 32]"
+              .formatted(Integer.valueOf(length))
+          );
+        }
+      }
+      case 6 -> {
+        if (length < 0 || length > 64) {
+          throw new IllegalArgumentException(
+            "IPv6 prefix length %d must be in [0, 64]"
+              .formatted(Integer.valueOf(length))
+          );
+        }
+      }
+      default -> {
+        throw new IllegalArgumentException(
+          "Unsupported IP version %d".formatted(Integer.valueOf(version))
+        );
+      }
+    }
+  }
+
+  /**
+   * Parse the given IP address literal and take a prefix of it. Host names
+   * are never resolved; anything that is not an IP address literal yields
+   * an empty result.
+   *
+   * @param host       The address
+   * @param lengthIPv4 The prefix length for IPv4 addresses
+   * @param lengthIPv6 The prefix length for IPv6 addresses
+   *
+   * @return The prefix, if the host is an address
+   */
+
+  public static Optional<IdRateLimitPrefix> of(
+    final String host,
+    final int lengthIPv4,
+    final int lengthIPv6)
+  {
+    final var address = parseAddress(host);
+    if (address instanceof final Inet4Address a4) {
+      final var value =
+        Integer.toUnsignedLong(ByteBuffer.wrap(a4.getAddress()).getInt());
+      return Optional.of(
+        new IdRateLimitPrefix(4, lengthIPv4, value & maskOf(32, lengthIPv4))
+      );
+    }
+    if (address instanceof final Inet6Address a6) {
+      final var value =
+        ByteBuffer.wrap(a6.getAddress()).getLong();
+      return Optional.of(
+        new IdRateLimitPrefix(6, lengthIPv6, value & maskOf(64, lengthIPv6))
+      );
+    }
+    return Optional.empty();
+  }
+
+  private static long maskOf(
+    final int width,
+    final int length)
+  {
+    if (length == 0) {
+      return 0L;
+    }
+    final var all = width == 64 ? -1L : (1L << width) - 1L;
+    return all & (all << (width - length));
+  }
+
+  private static InetAddress parseAddress(
+    final String host)
+  {
+    if (host == null || host.isEmpty() || host.length() > 64) {
+      return null;
+    }
+
+    var text = host;
+    if (text.startsWith("[") && text.endsWith("]")) {
+      text = text.substring(1, text.length() - 1);
+    }
+
+    /*
+     * InetAddress.getByName() would perform a DNS lookup for anything
+     * that isn't an address literal, so only strings that look like IP
+     * addresses are passed to it. Strings containing colons are always
+     * parsed as IPv6 literals without any lookup.
+     */
+
+    final var isIPv6 = text.indexOf(':') >= 0;
+    for (int index = 0; index < text.length(); ++index) {
+      final var c = text.charAt(index);
+      final var ok =
+        (c >= '0' && c <= '9')
+        || c == '.'
+        || (isIPv6 && (c == ':' || c == '%'
+                       || (c >= 'a' && c <= 'f')
+                       || (c >= 'A' && c <= 'F')));
+      if (!ok) {
+        return null;
+      }
+    }
+
+    if (!isIPv6 && !isIPv4Literal(text)) {
+      return null;
+    }
+
+    try {
+      return InetAddress.getByName(text);
+    } catch (final UnknownHostException | IllegalArgumentException e) {
+      return null;
+    }
+  }
+
+  private static boolean isIPv4Literal(
+    final String text)
+  {
+    final var parts = text.split("\\.", -1);
+    if (parts.length != 4) {
+      return false;
+    }
+    for (final var part : parts) {
+      if (part.isEmpty() || part.length() > 3) {
+        return false;
+      }
+      if (Integer.parseInt(part) > 255) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  @Override
+  public String toString()
+  {
+    return switch (this.version) {
+      case 4 -> "%d.%d.%d.%d/%d".formatted(
+        Long.valueOf((this.bits >>> 24) & 0xffL),
+        Long.valueOf((this.bits >>> 16) & 0xffL),
+        Long.valueOf((this.bits >>> 8) & 0xffL),
+        Long.valueOf(this.bits & 0xffL),
+        Integer.valueOf(this.length)
+      );
+      default -> "%x:%x:%x:%x::/%d".formatted(
+        Long.valueOf((this.bits >>> 48) & 0xffffL),
+        Long.valueOf((this.bits >>> 32) & 0xffffL),
+        Long.valueOf((this.bits >>> 16) & 0xffffL),
+        Long.valueOf(this.bits & 0xffffL),
+        Integer.valueOf(this.length)
+      );
+    };
+  }
+}
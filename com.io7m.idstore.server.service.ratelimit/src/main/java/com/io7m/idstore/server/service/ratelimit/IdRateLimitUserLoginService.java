@@ -16,6 +16,8 @@
 
 package com.io7m.idstore.server.service.ratelimit;
 
+import com.io7m.idstore.database.api.IdDatabaseType;
+import com.io7m.idstore.model.IdUserDomain;
 import com.io7m.idstore.server.service.telemetry.api.IdMetricsServiceType;
 
 import java.time.Duration;
@@ -29,12 +31,18 @@ import java.util.concurrent.TimeUnit;
 public final class IdRateLimitUserLoginService
   implements IdRateLimitUserLoginServiceType
 {
-  private final IdRateLimiter limiter;
+  private final IdRateLimiterKeyedType limiter;
+  private final IdRateLimiterSubnets subnets;
+  private final IdLoginDelays delays;
 
   private IdRateLimitUserLoginService(
-    final IdRateLimiter inLimiter)
+    final IdRateLimiterKeyedType inLimiter,
+    final IdRateLimiterSubnets inSubnets,
+    final IdLoginDelays inDelays)
   {
     this.limiter = Objects.requireNonNull(inLimiter, "limiter");
+    this.subnets = Objects.requireNonNull(inSubnets, "subnets");
+    this.delays = Objects.requireNonNull(inDelays, "delays");
   }
 
   /**
@@ -58,6 +66,111 @@ public final class IdRateLimitUserLoginService
         "user_login",
         expiration,
         timeUnit
+      ),
+      IdRateLimiterSubnets.disabled(metrics, "user_login", "LOGIN"),
+      IdLoginDelays.disabled(metrics, IdUserDomain.USER)
+    );
+  }
+
+  /**
+   * Create a rate limit service.
+   *
+   * @param metrics       The metrics service
+   * @param configuration The limiter configuration
+   *
+   * @return A rate limiter
+   */
+
+  public static IdRateLimitUserLoginServiceType create(
+    final IdMetricsServiceType metrics,
+    final IdRateLimiterConfiguration configuration)
+  {
+    return new IdRateLimitUserLoginService(
+      IdRateLimiter.create(
+        metrics,
+        "user_login",
+        configuration
+      ),
+      IdRateLimiterSubnets.disabled(metrics, "user_login", "LOGIN"),
+      IdLoginDelays.disabled(metrics, IdUserDomain.USER)
+    );
+  }
+
+  /**
+   * Create a rate limit service with per-network and per-user limits in
+   * addition to the per-host limit.
+   *
+   * @param metrics  The metrics service
+   * @param hosts    The per-host limiter configuration
+   * @param networks The per-network limiter configuration
+   * @param users    The per-user limiter configuration
+   * @param delay    The base delay applied to logins after failures
+   *
+   * @return A rate limiter
+   */
+
+  public static IdRateLimitUserLoginServiceType create(
+    final IdMetricsServiceType metrics,
+    final IdRateLimiterConfiguration hosts,
+    final IdRateLimiterConfiguration networks,
+    final IdRateLimiterConfiguration users,
+    final Duration delay)
+  {
+    return new IdRateLimitUserLoginService(
+      IdRateLimiter.create(metrics, "user_login", hosts),
+      IdRateLimiterSubnets.create(
+        metrics,
+        "user_login",
+        "LOGIN",
+        networks,
+        users
+      ),
+      IdLoginDelays.create(
+        metrics,
+        IdUserDomain.USER,
+        delay,
+        users.maximumKeys()
+      )
+    );
+  }
+
+  /**
+   * Create a rate limit service whose per-host limit is shared between all
+   * servers that use the given database. The per-network and per-user
+   * limits are applied locally.
+   *
+   * @param metrics  The metrics service
+   * @param database The database
+   * @param hosts    The per-host limiter configuration
+   * @param networks The per-network limiter configuration
+   * @param users    The per-user limiter configuration
+   * @param delay    The base delay applied to logins after failures
+   *
+   * @return A rate limiter
+   */
+
+  public static IdRateLimitUserLoginServiceType createShared(
+    final IdMetricsServiceType metrics,
+    final IdDatabaseType database,
+    final IdRateLimiterConfiguration hosts,
+    final IdRateLimiterConfiguration networks,
+    final IdRateLimiterConfiguration users,
+    final Duration delay)
+  {
+    return new IdRateLimitUserLoginService(
+      IdRateLimiterShared.create(metrics, database, "user_login", hosts),
+      IdRateLimiterSubnets.create(
+        metrics,
+        "user_login",
+        "LOGIN",
+        networks,
+        users
+      ),
+      IdLoginDelays.create(
+        metrics,
+        IdUserDomain.USER,
+        delay,
+        users.maximumKeys()
       )
     );
   }
@@ -66,7 +179,41 @@ public final class IdRateLimitUserLoginService
   public boolean isAllowedByRateLimit(
     final String host)
   {
-    return this.limiter.isAllowedByRateLimit(host, "", "LOGIN");
+    return this.limiter.isAllowedByRateLimit(
+      IdRateLimiterSubnets.hostKey(host), "", "LOGIN");
+  }
+
+  @Override
+  public boolean isAllowedByRateLimit(
+    final String host,
+    final String username)
+  {
+    return this.isAllowedByRateLimit(host)
+           && this.subnets.isAllowedByRateLimit(host, username);
+  }
+
+  @Override
+  public Duration loginDelay(
+    final String host,
+    final String username)
+  {
+    return this.delays.delayFor(host, username);
+  }
+
+  @Override
+  public void onLoginFailed(
+    final String host,
+    final String username)
+  {
+    this.delays.onLoginFailed(host, username);
+  }
+
+  @Override
+  public void onLoginSucceeded(
+    final String host,
+    final String username)
+  {
+    this.delays.onLoginSucceeded(host, username);
   }
 
   @Override
@@ -15,45 +15,55 @@
  */
 
 
+
 package com.io7m.idstore.server.service.ratelimit;
 
-import com.github.benmanes.caffeine.cache.Cache;
-import com.github.benmanes.caffeine.cache.Caffeine;
 import com.io7m.idstore.server.service.telemetry.api.IdMetricsServiceType;
 
 import java.time.Duration;
 import java.util.Objects;
 import java.util.concurrent.TimeUnit;
+import java.util.function.LongSupplier;
 
 /**
- * A trivial rate limiter.
+ * <p>A token bucket rate limiter.</p>
+ *
+ * <p>The limiter is implemented using the <i>generic cell rate algorithm</i>,
+ * which is equivalent to a token bucket that holds at most {@code burst}
+ * tokens and gains one token every {@code interval}, but requires only a
+ * single {@code long} (the theoretical arrival time of the next operation)
+ * to be stored per key. Keys are held in a cache with a bounded size; a key
+ * that has been idle for long enough to have refilled its bucket is
+ * indistinguishable from a key that has never been seen, and so is allowed
+ * to expire.</p>
  */
 
-public final class IdRateLimiter implements IdRateLimiterType
+public final class IdRateLimiter implements IdRateLimiterKeyedType
 {
   private final IdMetricsServiceType metrics;
-  private final Cache<Operation, Operation> cache;
+  private final IdRateLimiterCells<Operation> cells;
   private final String name;
   private final Duration waitTime;
 
   private IdRateLimiter(
     final IdMetricsServiceType inMetrics,
-    final Cache<Operation, Operation> inCache,
+    final IdRateLimiterCells<Operation> inCells,
     final String inName,
     final Duration inWaitTime)
   {
     this.metrics =
       Objects.requireNonNull(inMetrics, "metrics");
-    this.cache =
-      Objects.requireNonNull(inCache, "cache");
+    this.cells =
+      Objects.requireNonNull(inCells, "cells");
     this.name =
       Objects.requireNonNull(inName, "name");
     this.waitTime =
-      Objects.requireNonNull(inWaitTime, "inWaitTime");
+      Objects.requireNonNull(inWaitTime, "waitTime");
   }
 
   /**
-   * Create a rate limiter.
+   * Create a rate limiter that permits one operation per key per expiration
+   * period.
    *
    * @param metrics    The metrics service
    * @param name       The rate name
@@ -69,49 +79,82 @@ public final class IdRateLimiter implements IdRateLimiterType
     final long expiration,
     final TimeUnit timeUnit)
   {
-    final Cache<Operation, Operation> cache =
-      Caffeine.newBuilder()
-        .expireAfterWrite(expiration, timeUnit)
-        .build();
-
-    return new IdRateLimiter(
+    return create(
       metrics,
-      cache,
       name,
-      Duration.of(expiration, timeUnit.toChronoUnit())
+      IdRateLimiterConfiguration.ofInterval(
+        Duration.of(expiration, timeUnit.toChronoUnit())
+      )
     );
   }
 
   /**
-   * @param host      The host performing the action
-   * @param user      The user performing the action
-   * @param operation The operation
+   * Create a rate limiter.
+   *
+   * @param metrics       The metrics service
+   * @param name          The rate name
+   * @param configuration The limiter configuration
    *
-   * @return {@code true} if the given operation is allowed by rate limiting
+   * @return A rate limiter
    */
 
+  public static IdRateLimiter create(
+    final IdMetricsServiceType metrics,
+    final String name,
+    final IdRateLimiterConfiguration configuration)
+  {
+    return create(metrics, name, configuration, System::nanoTime);
+  }
+
+  /**
+   * Create a rate limiter.
+   *
+   * @param metrics       The metrics service
+   * @param name          The rate name
+   * @param configuration The limiter configuration
+   * @param nanoTime      The source of monotonic time in nanoseconds
+   *
+   * @return A rate limiter
+   */
+
+  public static IdRateLimiter create(
+    final IdMetricsServiceType metrics,
+    final String name,
+    final IdRateLimiterConfiguration configuration,
+    final LongSupplier nanoTime)
+  {
+    Objects.requireNonNull(configuration, "configuration");
+
+    return new IdRateLimiter(
+      metrics,
+      IdRateLimiterCells.create(configuration, nanoTime),
+      name,
+      configuration.interval()
+    );
+  }
+
+  @Override
   public boolean isAllowedByRateLimit(
     final String host,
     final String user,
     final String operation)
   {
-    final var op =
-      new Operation(host, user, operation);
-    final var existing =
-      this.cache.getIfPresent(op);
-
-    if (existing != null) {
-      this.metrics.onRateLimitTriggered(
-        this.name,
-        host,
-        user,
-        operation
-      );
-      return false;
+    final var op = new Operation(host, user, operation);
+    if (this.cells.take(op)) {
+      return true;
     }
 
-    this.cache.put(op, op);
-    return true;
+    this.metrics.onRateLimitTriggered(this.name, host, user, operation);
+    return false;
+  }
+
+  /**
+   * @return The approximate number of keys currently tracked
+   */
+
+  public long trackedKeys()
+  {
+    return this.cells.size();
   }
 
   @Override
@@ -130,7 +173,7 @@ public final class IdRateLimiter implements IdRateLimiterType
   @Override
   public String description()
   {
-    return "A basic rate limiter.";
+    return "A token bucket rate limiter.";
   }
 
   private record Operation(
@@ -0,0 +1,133 @@
+/*
+ * Copyright © 2024 Mark Raynsford <code@io7m.com> https://www.io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+
+package com.io7m.idstore.server.service.ratelimit;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+
+import java.util.Objects;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongSupplier;
+
+/**
+ * A bounded set of token buckets, one per key, implemented using the
+ * generic cell rate algorithm. Each key stores only the theoretical arrival
+ * time of the next operation.
+ *
+ * @param <K> The type of keys
+ */
+
+final class IdRateLimiterCells<K>
+{
+  private final Cache<K, AtomicLong> cache;
+  private final LongSupplier nanoTime;
+  private final long intervalNanos;
+  private final long toleranceNanos;
+
+  private IdRateLimiterCells(
+    final Cache<K, AtomicLong> inCache,
+    final IdRateLimiterConfiguration inConfiguration,
+    final LongSupplier inNanoTime)
+  {
+    this.cache =
+      Objects.requireNonNull(inCache, "cache");
+    this.nanoTime =
+      Objects.requireNonNull(inNanoTime, "nanoTime");
+    this.intervalNanos =
+      inConfiguration.interval().toNanos();
+    this.toleranceNanos =
+      this.intervalNanos * (long) (inConfiguration.burst() - 1);
+  }
+
+  static <K> IdRateLimiterCells<K> create(
+    final IdRateLimiterConfiguration configuration,
+    final LongSupplier nanoTime)
+  {
+    Objects.requireNonNull(configuration, "configuration");
+    Objects.requireNonNull(nanoTime, "nanoTime");
+
+    final var window =
+      configuration.interval()
+        .multipliedBy(configuration.burst());
+
+    final Cache<K, AtomicLong> cache =
+      Caffeine.newBuilder()
+        .maximumSize(configuration.maximumKeys())
+        .expireAfterAccess(window)
+        .ticker(nanoTime::getAsLong)
+        .build();
+
+    return new IdRateLimiterCells<>(cache, configuration, nanoTime);
+  }
+
+  /**
+   * @return {@code true} if the cells have a zero interval and therefore
+   * permit everything
+   */
+
+  boolean isDisabled()
+  {
+    return this.intervalNanos == 0L;
+  }
+
+  /**
+   * Try to take a token from the bucket for the given key.
+   *
+   * @param key The key
+   *
+   * @return {@code true} if a token was available
+   */
+
+  boolean take(
+    final K key)
+  {
+    if (this.isDisabled()) {
+      return true;
+    }
+
+    final var now =
+      this.nanoTime.getAsLong();
+    final var state =
+      this.cache.get(key, k -> new AtomicLong(now));
+
+    while (true) {
+      final var arrival =
+        state.get();
+      final var base =
+        arrival - now > 0L ? arrival : now;
+
+      if (base - now > this.toleranceNanos) {
+        return false;
+      }
+
+      if (state.compareAndSet(arrival, base + this.intervalNanos)) {
+        return true;
+      }
+    }
+  }
+
+  /**
+   * @return The approximate number of keys currently tracked
+   */
+
+  long size()
+  {
+    this.cache.cleanUp();
+    return this.cache.estimatedSize();
+  }
+}
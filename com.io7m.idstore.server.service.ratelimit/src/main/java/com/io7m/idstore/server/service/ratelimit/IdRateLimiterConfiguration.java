@@ -0,0 +1,95 @@
+/*
+ * Copyright © 2024 Mark Raynsford <code@io7m.com> https://www.io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+
+
+package com.io7m.idstore.server.service.ratelimit;
+
+import java.time.Duration;
+import java.util.Objects;
+
+/**
+ * The configuration of a single rate limiter.
+ *
+ * @param interval    The interval at which tokens are replenished; a limiter
+ *                    permits on average one operation per interval per key
+ * @param burst       The maximum number of operations that can be performed
+ *                    in quick succession by a key that has been idle
+ * @param maximumKeys The maximum number of keys tracked at any one time
+ */
+
+public record IdRateLimiterConfiguration(
+  Duration interval,
+  int burst,
+  long maximumKeys)
+{
+  /**
+   * The default maximum number of keys tracked by a limiter.
+   */
+
+  public static final long DEFAULT_MAXIMUM_KEYS = 100_000L;
+
+  /**
+   * The configuration of a single rate limiter.
+   *
+   * @param interval    The interval at which tokens are replenished
+   * @param burst       The maximum number of operations that can be performed
+   *                    in quick succession by a key that has been idle
+   * @param maximumKeys The maximum number of keys tracked at any one time
+   */
+
+  public IdRateLimiterConfiguration
+  {
+    Objects.requireNonNull(interval, "interval");
+
+    if (interval.isNegative()) {
+      throw new IllegalArgumentException(
+        "Interval %s must be non-negative".formatted(interval)
+      );
+    }
+    if (burst < 1) {
+      throw new IllegalArgumentException(
+        "Burst %d must be positive".formatted(Integer.valueOf(burst))
+      );
+    }
+    if (maximumKeys < 1L) {
+      throw new IllegalArgumentException(
+        "Maximum keys %d must be positive".formatted(Long.valueOf(maximumKeys))
+      );
+    }
+
+    /*
+     * Check that the burst window is representable in nanoseconds.
+     */
+
+    Math.multiplyExact(interval.toNanos(), (long) burst);
+  }
+
+  /**
+   * A configuration that permits one operation per interval, with no
+   * bursting.
+   *
+   * @param interval The interval
+   *
+   * @return A configuration
+   */
+
+  public static IdRateLimiterConfiguration ofInterval(
+    final Duration interval)
+  {
+    return new IdRateLimiterConfiguration(interval, 1, DEFAULT_MAXIMUM_KEYS);
+  }
+}
@@ -0,0 +1,407 @@
+/*
+ * Copyright © 2024 Mark Raynsford <code@io7m.com> https://www.io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+
+package com.io7m.idstore.server.service.ratelimit;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import com.io7m.idstore.database.api.IdDatabaseException;
+import com.io7m.idstore.database.api.IdDatabaseRateLimitsQueriesType;
+import com.io7m.idstore.database.api.IdDatabaseType;
+import com.io7m.idstore.server.service.telemetry.api.IdMetricsServiceType;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.LongSupplier;
+
+import static com.io7m.idstore.database.api.IdDatabaseRole.IDSTORE;
+
+/**
+ * <p>A token bucket rate limiter that is shared between all servers that
+ * use the same database.</p>
+ *
+ * <p>Each operation is decided without consulting the database: it must be
+ * allowed by a local limiter with the same configuration, and its key must
+ * not have been refused by the shared limiter. Because the shared bucket
+ * for a key is drained by the operations of every server, an operation that
+ * is refused locally would also be refused by the shared limiter.</p>
+ *
+ * <p>Allowed operations are counted in memory and reported to the shared
+ * bucket in the background, in batches, shortly after they happen. If the
+ * report shows that a key has exhausted its shared allowance, the key is
+ * refused locally until the shared bucket would permit another operation.
+ * Requests therefore never wait for, or hold, a database connection on
+ * behalf of the rate limiter.</p>
+ *
+ * <p>The price is that the shared limit takes effect after a delay rather
+ * than immediately. A server only learns that a key is exhausted when it
+ * reports an operation for that key, so each server may allow at most its
+ * local burst for a key before the shared refusal reaches it; this is the
+ * same allowance that an unshared limiter would give, but a client that
+ * continues beyond it is then refused by every server that it reaches,
+ * rather than by none of them.</p>
+ *
+ * <p>If the database cannot be reached, the unreported counts are discarded
+ * and the limiter falls back to the decisions made by the local limiter.</p>
+ */
+
+public final class IdRateLimiterShared implements IdRateLimiterKeyedType
+{
+  private static final Logger LOG =
+    LoggerFactory.getLogger(IdRateLimiterShared.class);
+
+  /**
+   * The time for which operations are allowed to accumulate before being
+   * reported, so that a burst of operations costs one transaction.
+   */
+
+  private static final Duration SETTLE_DELAY =
+    Duration.ofMillis(100L);
+
+  private final IdMetricsServiceType metrics;
+  private final IdDatabaseType database;
+  private final String name;
+  private final IdRateLimiterConfiguration configuration;
+  private final IdRateLimiter local;
+  private final Cache<String, Long> refused;
+  private final ConcurrentHashMap<String, Long> pending;
+  private final AtomicBoolean settling;
+  private final Executor executor;
+  private final LongSupplier nanoTime;
+
+  private IdRateLimiterShared(
+    final IdMetricsServiceType inMetrics,
+    final IdDatabaseType inDatabase,
+    final String inName,
+    final IdRateLimiterConfiguration inConfiguration,
+    final IdRateLimiter inLocal,
+    final Cache<String, Long> inRefused,
+    final Executor inExecutor,
+    final LongSupplier inNanoTime)
+  {
+    this.metrics =
+      Objects.requireNonNull(inMetrics, "metrics");
+    this.database =
+      Objects.requireNonNull(inDatabase, "database");
+    this.name =
+      Objects.requireNonNull(inName, "name");
+    this.configuration =
+      Objects.requireNonNull(inConfiguration, "configuration");
+    this.local =
+      Objects.requireNonNull(inLocal, "local");
+    this.refused =
+      Objects.requireNonNull(inRefused, "refused");
+    this.executor =
+      Objects.requireNonNull(inExecutor, "executor");
+    this.nanoTime =
+      Objects.requireNonNull(inNanoTime, "nanoTime");
+    this.pending =
+      new ConcurrentHashMap<>();
+    this.settling =
+      new AtomicBoolean(false);
+  }
+
+  /**
+   * Create a shared rate limiter. Operations are reported to the database
+   * on virtual threads.
+   *
+   * @param metrics       The metrics service
+   * @param database      The database
+   * @param name          The rate name
+   * @param configuration The limiter configuration
+   *
+   * @return A rate limiter
+   */
+
+  public static IdRateLimiterShared create(
+    final IdMetricsServiceType metrics,
+    final IdDatabaseType database,
+    final String name,
+    final IdRateLimiterConfiguration configuration)
+  {
+    return create(
+      metrics,
+      database,
+      name,
+      configuration,
+      System::nanoTime,
+      task -> {
+        Thread.ofVirtual()
+          .name("com.io7m.idstore.ratelimit.settle-" + name)
+          .start(task);
+      }
+    );
+  }
+
+  /**
+   * Create a shared rate limiter.
+   *
+   * @param metrics       The metrics service
+   * @param database      The database
+   * @param name          The rate name
+   * @param configuration The limiter configuration
+   * @param nanoTime      The source of monotonic time in nanoseconds
+   * @param executor      The executor on which operations are reported to
+   *                      the database in the background
+   *
+   * @return A rate limiter
+   */
+
+  public static IdRateLimiterShared create(
+    final IdMetricsServiceType metrics,
+    final IdDatabaseType database,
+    final String name,
+    final IdRateLimiterConfiguration configuration,
+    final LongSupplier nanoTime,
+    final Executor executor)
+  {
+    Objects.requireNonNull(configuration, "configuration");
+    Objects.requireNonNull(nanoTime, "nanoTime");
+
+    final Cache<String, Long> refused =
+      Caffeine.newBuilder()
+        .maximumSize(configuration.maximumKeys())
+        .expireAfter(new RefusalExpiry())
+        .ticker(nanoTime::getAsLong)
+        .build();
+
+    return new IdRateLimiterShared(
+      metrics,
+      database,
+      name,
+      configuration,
+      IdRateLimiter.create(metrics, name, configuration, nanoTime),
+      refused,
+      executor,
+      nanoTime
+    );
+  }
+
+  @Override
+  public boolean isAllowedByRateLimit(
+    final String host,
+    final String user,
+    final String operation)
+  {
+    if (!this.local.isAllowedByRateLimit(host, user, operation)) {
+      return false;
+    }
+
+    if (this.configuration.interval().isZero()) {
+      return true;
+    }
+
+    final var key = keyOf(host, user, operation);
+    if (this.refused.getIfPresent(key) != null) {
+      this.metrics.onRateLimitTriggered(this.name, host, user, operation);
+      return false;
+    }
+
+    this.pending.merge(key, Long.valueOf(1L), Long::sum);
+    this.scheduleSettlement();
+    return true;
+  }
+
+  private void scheduleSettlement()
+  {
+    if (this.settling.compareAndSet(false, true)) {
+      try {
+        this.executor.execute(this::runSettlement);
+      } catch (final RuntimeException e) {
+        this.settling.set(false);
+        LOG.warn(
+          "Shared rate limit {} could not schedule a report: {}",
+          this.name,
+          e.getMessage()
+        );
+      }
+    }
+  }
+
+  private void runSettlement()
+  {
+    try {
+      Thread.sleep(SETTLE_DELAY);
+      this.settle();
+    } catch (final InterruptedException e) {
+      Thread.currentThread().interrupt();
+    } finally {
+      this.settling.set(false);
+    }
+
+    if (!this.pending.isEmpty()) {
+      this.scheduleSettlement();
+    }
+  }
+
+  /**
+   * Report all operations that have not yet been reported to the shared
+   * rate limit buckets, and refuse any key whose shared allowance has been
+   * exhausted. This is normally called in the background shortly after
+   * operations are allowed.
+   */
+
+  public void settle()
+  {
+    final var counts = new HashMap<String, Long>();
+    for (final var key : this.pending.keySet()) {
+      final var count = this.pending.remove(key);
+      if (count != null) {
+        counts.put(key, count);
+      }
+    }
+
+    if (counts.isEmpty()) {
+      return;
+    }
+
+    final var waits = new ArrayList<Map.Entry<String, Duration>>();
+    try (var connection = this.database.openConnection(IDSTORE)) {
+      try (var transaction = connection.openTransaction()) {
+        final var queries =
+          transaction.queries(IdDatabaseRateLimitsQueriesType.class);
+
+        for (final var entry : counts.entrySet()) {
+          final var wait =
+            queries.rateLimitRecord(
+              this.name,
+              entry.getKey(),
+              this.configuration.interval(),
+              this.configuration.burst(),
+              entry.getValue().longValue()
+            );
+          if (!wait.isZero()) {
+            waits.add(Map.entry(entry.getKey(), wait));
+          }
+        }
+        transaction.commit();
+      }
+    } catch (final IdDatabaseException e) {
+      LOG.warn(
+        "Shared rate limit {} unavailable, using local limit: {}",
+        this.name,
+        e.getMessage()
+      );
+      return;
+    }
+
+    final var timeNow = this.nanoTime.getAsLong();
+    for (final var wait : waits) {
+      this.refused.put(
+        wait.getKey(),
+        Long.valueOf(timeNow + wait.getValue().toNanos())
+      );
+    }
+  }
+
+  private static String keyOf(
+    final String host,
+    final String user,
+    final String operation)
+  {
+    /*
+     * Hosts may contain colons (IPv6), so the length of the host is included
+     * to keep the key unambiguous.
+     */
+
+    return "%s:%d:%s:%s".formatted(
+      operation,
+      Integer.valueOf(host.length()),
+      host,
+      user
+    );
+  }
+
+  /**
+   * @return The approximate number of keys currently tracked locally
+   */
+
+  public long trackedKeys()
+  {
+    return this.local.trackedKeys();
+  }
+
+  @Override
+  public String toString()
+  {
+    return "[IdRateLimiterShared %s]"
+      .formatted(Integer.toUnsignedString(this.hashCode(), 16));
+  }
+
+  @Override
+  public Duration waitTime()
+  {
+    return this.configuration.interval();
+  }
+
+  @Override
+  public String description()
+  {
+    return "A token bucket rate limiter shared through the database.";
+  }
+
+  /**
+   * Refused keys are held until the time at which the shared bucket will
+   * permit another operation.
+   */
+
+  private static final class RefusalExpiry implements Expiry<String, Long>
+  {
+    RefusalExpiry()
+    {
+
+    }
+
+    @Override
+    public long expireAfterCreate(
+      final String key,
+      final Long until,
+      final long currentTime)
+    {
+      return Math.max(0L, until.longValue() - currentTime);
+    }
+
+    @Override
+    public long expireAfterUpdate(
+      final String key,
+      final Long until,
+      final long currentTime,
+      final long currentDuration)
+    {
+      return Math.max(0L, until.longValue() - currentTime);
+    }
+
+    @Override
+    public long expireAfterRead(
+      final String key,
+      final Long until,
+      final long currentTime,
+      final long currentDuration)
+    {
+      return currentDuration;
+    }
+  }
+}
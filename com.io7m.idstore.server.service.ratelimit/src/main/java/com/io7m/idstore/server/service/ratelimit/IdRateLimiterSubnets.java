@@ -0,0 +1,252 @@
+/*
+ * Copyright © 2024 Mark Raynsford <code@io7m.com> https://www.io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+
+package com.io7m.idstore.server.service.ratelimit;
+
+import com.io7m.idstore.server.service.telemetry.api.IdMetricsServiceType;
+
+import java.time.Duration;
+import java.util.Locale;
+import java.util.Objects;
+import java.util.function.LongSupplier;
+
+/**
+ * <p>Hierarchical rate limits applied to logins in addition to the per-host
+ * rate limit.</p>
+ *
+ * <p>An attacker with access to a whole network (trivially the case for
+ * IPv6, where each site typically receives at least a /64) can otherwise
+ * rotate through source addresses to evade the per-host limit. Logins are
+ * therefore additionally limited per network (an IPv4 /24 or an IPv6 /48),
+ * and per target user name to defeat attacks distributed over many
+ * networks. Networks are keyed by {@link IdRateLimitPrefix} values rather
+ * than strings.</p>
+ */
+
+public final class IdRateLimiterSubnets
+{
+  /**
+   * The prefix length used to identify a single IPv4 host.
+   */
+
+  public static final int HOST_LENGTH_IPV4 = 32;
+
+  /**
+   * The prefix length used to identify a single IPv6 host. A /64 is the
+   * smallest subnet that is routinely assigned to a single site.
+   */
+
+  public static final int HOST_LENGTH_IPV6 = 64;
+
+  /**
+   * The prefix length used to identify an IPv4 network.
+   */
+
+  public static final int NETWORK_LENGTH_IPV4 = 24;
+
+  /**
+   * The prefix length used to identify an IPv6 network.
+   */
+
+  public static final int NETWORK_LENGTH_IPV6 = 48;
+
+  private final IdMetricsServiceType metrics;
+  private final String name;
+  private final String operation;
+  private final IdRateLimiterCells<IdRateLimitPrefix> networks;
+  private final IdRateLimiterCells<String> users;
+
+  private IdRateLimiterSubnets(
+    final IdMetricsServiceType inMetrics,
+    final String inName,
+    final String inOperation,
+    final IdRateLimiterCells<IdRateLimitPrefix> inNetworks,
+    final IdRateLimiterCells<String> inUsers)
+  {
+    this.metrics =
+      Objects.requireNonNull(inMetrics, "metrics");
+    this.name =
+      Objects.requireNonNull(inName, "name");
+    this.operation =
+      Objects.requireNonNull(inOperation, "operation");
+    this.networks =
+      Objects.requireNonNull(inNetworks, "networks");
+    this.users =
+      Objects.requireNonNull(inUsers, "users");
+  }
+
+  /**
+   * Create hierarchical rate limits.
+   *
+   * @param metrics   The metrics service
+   * @param name      The rate name
+   * @param operation The operation name
+   * @param networks  The configuration of the per-network limit
+   * @param users     The configuration of the per-user limit
+   *
+   * @return The rate limits
+   */
+
+  public static IdRateLimiterSubnets create(
+    final IdMetricsServiceType metrics,
+    final String name,
+    final String operation,
+    final IdRateLimiterConfiguration networks,
+    final IdRateLimiterConfiguration users)
+  {
+    return create(metrics, name, operation, networks, users, System::nanoTime);
+  }
+
+  /**
+   * Create hierarchical rate limits.
+   *
+   * @param metrics   The metrics service
+   * @param name      The rate name
+   * @param operation The operation name
+   * @param networks  The configuration of the per-network limit
+   * @param users     The configuration of the per-user limit
+   * @param nanoTime  The source of monotonic time in nanoseconds
+   *
+   * @return The rate limits
+   */
+
+  public static IdRateLimiterSubnets create(
+    final IdMetricsServiceType metrics,
+    final String name,
+    final String operation,
+    final IdRateLimiterConfiguration networks,
+    final IdRateLimiterConfiguration users,
+    final LongSupplier nanoTime)
+  {
+    return new IdRateLimiterSubnets(
+      metrics,
+      name,
+      operation,
+      IdRateLimiterCells.create(networks, nanoTime),
+      IdRateLimiterCells.create(users, nanoTime)
+    );
+  }
+
+  /**
+   * Create hierarchical rate limits that permit everything.
+   *
+   * @param metrics   The metrics service
+   * @param name      The rate name
+   * @param operation The operation name
+   *
+   * @return The rate limits
+   */
+
+  public static IdRateLimiterSubnets disabled(
+    final IdMetricsServiceType metrics,
+    final String name,
+    final String operation)
+  {
+    final var off =
+      IdRateLimiterConfiguration.ofInterval(Duration.ZERO);
+    return create(metrics, name, operation, off, off);
+  }
+
+  /**
+   * Determine the key that should be used to rate limit the given host
+   * individually. IPv4 addresses are used as-is, IPv6 addresses are
+   * reduced to their /64 prefix, and anything else is returned unchanged.
+   *
+   * @param host The host
+   *
+   * @return The host key
+   */
+
+  public static String hostKey(
+    final String host)
+  {
+    Objects.requireNonNull(host, "host");
+
+    return IdRateLimitPrefix.of(host, HOST_LENGTH_IPV4, HOST_LENGTH_IPV6)
+      .map(IdRateLimitPrefix::toString)
+      .orElse(host);
+  }
+
+  /**
+   * Determine if an operation is allowed by the per-network and per-user
+   * rate limits.
+   *
+   * @param host The host performing the action
+   * @param user The user name that is the target of the action
+   *
+   * @return {@code true} if the given operation is allowed by rate limiting
+   */
+
+  public boolean isAllowedByRateLimit(
+    final String host,
+    final String user)
+  {
+    Objects.requireNonNull(host, "host");
+    Objects.requireNonNull(user, "user");
+
+    final var network =
+      IdRateLimitPrefix.of(host, NETWORK_LENGTH_IPV4, NETWORK_LENGTH_IPV6);
+
+    if (network.isPresent() && !this.networks.take(network.get())) {
+      this.metrics.onRateLimitTriggered(
+        this.name + "_network",
+        host,
+        user,
+        this.operation
+      );
+      return false;
+    }
+
+    if (!user.isEmpty()
+        && !this.users.take(user.toUpperCase(Locale.ROOT))) {
+      this.metrics.onRateLimitTriggered(
+        this.name + "_user",
+        host,
+        user,
+        this.operation
+      );
+      return false;
+    }
+
+    return true;
+  }
+
+  /**
+   * @return The approximate number of networks currently tracked
+   */
+
+  public long trackedNetworks()
+  {
+    return this.networks.size();
+  }
+
+  /**
+   * @return The approximate number of user names currently tracked
+   */
+
+  public long trackedUsers()
+  {
+    return this.users.size();
+  }
+
+  @Override
+  public String toString()
+  {
+    return "[IdRateLimiterSubnets %s]"
+      .formatted(Integer.toUnsignedString(this.hashCode(), 16));
+  }
+}
@@ -23,10 +23,13 @@ module com.io7m.idstore.server.service.ratelimit
   requires static org.osgi.annotation.bundle;
   requires static org.osgi.annotation.versioning;
 
+  requires com.io7m.idstore.database.api;
+  requires com.io7m.idstore.model;
   requires com.io7m.idstore.server.service.telemetry.api;
 
   requires com.io7m.repetoir.core;
   requires com.github.benmanes.caffeine;
+  requires org.slf4j;
 
   exports com.io7m.idstore.server.service.ratelimit;
 }
@@ -16,29 +16,18 @@
 
 package com.io7m.idstore.server.service.sessions;
 
-import com.io7m.idstore.database.api.IdDatabaseAdminSearchByEmailType;
-import com.io7m.idstore.database.api.IdDatabaseAdminSearchType;
-import com.io7m.idstore.database.api.IdDatabaseAuditEventsSearchType;
-import com.io7m.idstore.database.api.IdDatabaseUserSearchByEmailType;
-import com.io7m.idstore.database.api.IdDatabaseUserSearchType;
-
 import java.util.Objects;
-import java.util.Optional;
 import java.util.UUID;
 
 /**
- * A session for an admin.
+ * A session for an admin. Search state is not held here; the server hands
+ * out signed search cursors that clients present on subsequent requests.
  */
 
 public final class IdSessionAdmin implements IdSessionType
 {
   private final UUID adminId;
   private final IdSessionSecretIdentifier sessionId;
-  private Optional<IdDatabaseAuditEventsSearchType> auditPaging;
-  private Optional<IdDatabaseAdminSearchType> adminSearch;
-  private Optional<IdDatabaseAdminSearchByEmailType> adminSearchByEmail;
-  private Optional<IdDatabaseUserSearchType> userSearch;
-  private Optional<IdDatabaseUserSearchByEmailType> userSearchByEmail;
 
   /**
    * A controller for a single admin session.
@@ -55,127 +44,6 @@ public final class IdSessionAdmin implements IdSessionType
       Objects.requireNonNull(inUserId, "userId");
     this.sessionId =
       Objects.requireNonNull(inSessionId, "sessionId");
-
-    this.auditPaging =
-      Optional.empty();
-    this.adminSearch =
-      Optional.empty();
-    this.adminSearchByEmail =
-      Optional.empty();
-    this.userSearch =
-      Optional.empty();
-    this.userSearchByEmail =
-      Optional.empty();
-  }
-
-  /**
-   * @return The audit record search
-   */
-
-  public Optional<IdDatabaseAuditEventsSearchType> auditSearch()
-  {
-    return this.auditPaging;
-  }
-
-  /**
-   * Set the new audit record search.
-   *
-   * @param search The audit record search
-   */
-
-  public void setAuditSearch(
-    final IdDatabaseAuditEventsSearchType search)
-  {
-    this.auditPaging =
-      Optional.of(Objects.requireNonNull(search, "search"));
-  }
-
-  /**
-   * @return The admin by email search
-   */
-
-  public Optional<IdDatabaseAdminSearchByEmailType> adminSearchByEmail()
-  {
-    return this.adminSearchByEmail;
-  }
-
-  /**
-   * Set the new admin by email search.
-   *
-   * @param search The admin by email search
-   */
-
-  public void setAdminSearchByEmail(
-    final IdDatabaseAdminSearchByEmailType search)
-  {
-    this.adminSearchByEmail =
-      Optional.of(Objects.requireNonNull(search, "search"));
-  }
-
-  /**
-   * @return The admin search
-   */
-
-  public Optional<IdDatabaseAdminSearchType> adminSearch()
-  {
-    return this.adminSearch;
-  }
-
-  /**
-   * Set the new admin search.
-   *
-   * @param search The admin search
-   */
-
-  public void setAdminSearch(
-    final IdDatabaseAdminSearchType search)
-  {
-    this.adminSearch =
-      Optional.of(Objects.requireNonNull(search, "search"));
-  }
-
-  /**
-   * @return The user by email search
-   */
-
-  public Optional<IdDatabaseUserSearchByEmailType> userSearchByEmail()
-  {
-    return this.userSearchByEmail;
-  }
-
-  /**
-   * Set the new user by email search.
-   *
-   * @param search The user by email search
-   */
-
-  public void setUserSearchByEmail(
-    final IdDatabaseUserSearchByEmailType search)
-  {
-    this.userSearchByEmail =
-      Optional.of(Objects.requireNonNull(search, "search"));
-  }
-
-  /**
-   * @return The user search
-   */
-
-  public Optional<IdDatabaseUserSearchType> userSearch()
-  {
-    return this.userSearch;
-  }
-
-  /**
-   * Set the new user search.
-   *
-   * @param search The user search
-   */
-
-  public void setUserSearch(
-    final IdDatabaseUserSearchType search)
-  {
-    this.userSearch =
-      Optional.of(Objects.requireNonNull(search, "search"));
   }
 
   /**
@@ -0,0 +1,235 @@
+/*
+ * Copyright © 2024 Mark Raynsford <code@io7m.com> https://www.io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+
+package com.io7m.idstore.server.service.telemetry.api;
+
+import com.io7m.idstore.model.IdEmail;
+import com.io7m.idstore.server.api.IdServerOpenTelemetryConfiguration.IdMetricsAttributePolicy;
+
+import java.nio.ByteBuffer;
+import java.security.SecureRandom;
+import java.util.Objects;
+
+import static java.nio.ByteOrder.LITTLE_ENDIAN;
+import static java.nio.charset.StandardCharsets.UTF_8;
+
+/**
+ * <p>Functions to reduce the cardinality of metric attributes.</p>
+ *
+ * <p>Attribute values such as remote hosts, user names, and email addresses
+ * are supplied by (potentially hostile) clients, and each distinct value
+ * would otherwise create a new time series that is held in memory
+ * indefinitely by the metrics SDK. Values that appear in the configured
+ * allow-lists are published verbatim; all other values are hashed into one of
+ * a fixed number of buckets. The UTF-8 encoding of each value is hashed with
+ * SipHash-2-4 under a 128-bit key that is chosen randomly on startup, so
+ * that clients cannot choose values that fall into a given bucket, or values
+ * that share a bucket with each other, without knowing the key.</p>
+ */
+
+public final class IdMetricsAttributes
+{
+  private final IdMetricsAttributePolicy policy;
+  private final String[] bucketNames;
+  private final long key0;
+  private final long key1;
+
+  /**
+   * Functions to reduce the cardinality of metric attributes.
+   *
+   * @param inPolicy The attribute policy
+   */
+
+  public IdMetricsAttributes(
+    final IdMetricsAttributePolicy inPolicy)
+  {
+    this(inPolicy, new SecureRandom());
+  }
+
+  private IdMetricsAttributes(
+    final IdMetricsAttributePolicy inPolicy,
+    final SecureRandom random)
+  {
+    this(inPolicy, random.nextLong(), random.nextLong());
+  }
+
+  /**
+   * Functions to reduce the cardinality of metric attributes.
+   *
+   * @param inPolicy The attribute policy
+   * @param inKey0   The low 64 bits of the hash key
+   * @param inKey1   The high 64 bits of the hash key
+   */
+
+  public IdMetricsAttributes(
+    final IdMetricsAttributePolicy inPolicy,
+    final long inKey0,
+    final long inKey1)
+  {
+    this.policy =
+      Objects.requireNonNull(inPolicy, "policy");
+    this.key0 =
+      inKey0;
+    this.key1 =
+      inKey1;
+    this.bucketNames =
+      new String[inPolicy.hashBuckets()];
+
+    for (int index = 0; index < this.bucketNames.length; ++index) {
+      this.bucketNames[index] = "bucket-%d".formatted(Integer.valueOf(index));
+    }
+  }
+
+  /**
+   * @return The attribute policy
+   */
+
+  public IdMetricsAttributePolicy policy()
+  {
+    return this.policy;
+  }
+
+  /**
+   * @param host The remote host
+   *
+   * @return The attribute value that should be published for the host
+   */
+
+  public String host(
+    final String host)
+  {
+    Objects.requireNonNull(host, "host");
+
+    if (host.isEmpty() || this.policy.allowedHosts().contains(host)) {
+      return host;
+    }
+    return this.bucketOf(host);
+  }
+
+  /**
+   * @param user The user name
+   *
+   * @return The attribute value that should be published for the user
+   */
+
+  public String user(
+    final String user)
+  {
+    Objects.requireNonNull(user, "user");
+
+    if (user.isEmpty() || this.policy.allowedUsers().contains(user)) {
+      return user;
+    }
+    return this.bucketOf(user);
+  }
+
+  /**
+   * @param address The mail address
+   *
+   * @return The attribute value that should be published for the address
+   */
+
+  public String mailDomain(
+    final IdEmail address)
+  {
+    Objects.requireNonNull(address, "address");
+
+    final var value = address.value();
+    final var domain = value.substring(value.lastIndexOf('@') + 1);
+    if (this.policy.allowedMailDomains().contains(domain)) {
+      return domain;
+    }
+    return this.bucketOf(domain);
+  }
+
+  private String bucketOf(
+    final String value)
+  {
+    final var hash =
+      sipHash24(this.key0, this.key1, value.getBytes(UTF_8));
+
+    return this.bucketNames[
+      (int) Long.remainderUnsigned(hash, this.bucketNames.length)
+      ];
+  }
+
+  /**
+   * SipHash-2-4, as specified by Aumasson and Bernstein.
+   */
+
+  private static long sipHash24(
+    final long k0,
+    final long k1,
+    final byte[] data)
+  {
+    final var state = new long[]{
+      k0 ^ 0x736f6d6570736575L,
+      k1 ^ 0x646f72616e646f6dL,
+      k0 ^ 0x6c7967656e657261L,
+      k1 ^ 0x7465646279746573L,
+    };
+
+    final var buffer =
+      ByteBuffer.wrap(data).order(LITTLE_ENDIAN);
+    final var blocksEnd =
+      data.length - (data.length % 8);
+
+    for (int index = 0; index < blocksEnd; index += 8) {
+      final var m = buffer.getLong(index);
+      state[3] ^= m;
+      sipRound(state);
+      sipRound(state);
+      state[0] ^= m;
+    }
+
+    long last = ((long) data.length & 0xffL) << 56;
+    for (int index = blocksEnd; index < data.length; ++index) {
+      last |= ((long) data[index] & 0xffL) << (8 * (index - blocksEnd));
+    }
+
+    state[3] ^= last;
+    sipRound(state);
+    sipRound(state);
+    state[0] ^= last;
+
+    state[2] ^= 0xffL;
+    sipRound(state);
+    sipRound(state);
+    sipRound(state);
+    sipRound(state);
+    return state[0] ^ state[1] ^ state[2] ^ state[3];
+  }
+
+  private static void sipRound(
+    final long[] v)
+  {
+    v[0] += v[1];
+    v[1] = Long.rotateLeft(v[1], 13);
+    v[1] ^= v[0];
+    v[0] = Long.rotateLeft(v[0], 32);
+    v[2] += v[3];
+    v[3] = Long.rotateLeft(v[3], 16);
+    v[3] ^= v[2];
+    v[0] += v[3];
+    v[3] = Long.rotateLeft(v[3], 21);
+    v[3] ^= v[0];
+    v[2] += v[1];
+    v[1] = Long.rotateLeft(v[1], 17);
+    v[1] ^= v[2];
+    v[2] = Long.rotateLeft(v[2], 32);
+  }
+}
@@ -0,0 +1,206 @@
+/*
+ * Copyright © 2024 Mark Raynsford <code@io7m.com> https://www.io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+
+package com.io7m.idstore.server.service.telemetry.api;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * <p>A fixed-size table that tracks the most frequently occurring keys in a
+ * stream of keys.</p>
+ *
+ * <p>The implementation is the <i>Space-Saving</i> algorithm: at most
+ * {@code capacity} counters are held at any given time. When an untracked key
+ * arrives and the table is full, the key with the smallest count is evicted
+ * and the new key inherits its count (recorded as the possible
+ * overestimation error of the new key). Any key that occurs more than
+ * {@code n / capacity} times in a stream of {@code n} keys is guaranteed to
+ * be present in the table.</p>
+ *
+ * <p>Counts are not cumulative over the lifetime of the table: each call to
+ * {@link #decay()} halves every count, and forgets keys whose counts reach
+ * zero. Calling {@link #decay()} once per collection interval means that
+ * the table reflects recent activity, and a key that stops occurring is
+ * eventually replaced by keys that are occurring now, rather than holding
+ * its place forever on the strength of its historical count.</p>
+ *
+ * @param <K> The type of keys
+ */
+
+public final class IdMetricsHeavyHitters<K>
+{
+  private final int capacity;
+  private final HashMap<K, Counter<K>> counters;
+
+  /**
+   * A fixed-size table that tracks the most frequently occurring keys.
+   *
+   * @param inCapacity The maximum number of keys tracked
+   */
+
+  public IdMetricsHeavyHitters(
+    final int inCapacity)
+  {
+    if (inCapacity < 0) {
+      throw new IllegalArgumentException(
+        "Capacity %d must be non-negative".formatted(inCapacity)
+      );
+    }
+
+    this.capacity = inCapacity;
+    this.counters = new HashMap<>(inCapacity * 2);
+  }
+
+  /**
+   * @return The maximum number of keys tracked
+   */
+
+  public int capacity()
+  {
+    return this.capacity;
+  }
+
+  /**
+   * Record an occurrence of the given key.
+   *
+   * @param key The key
+   */
+
+  public void record(
+    final K key)
+  {
+    Objects.requireNonNull(key, "key");
+
+    if (this.capacity == 0) {
+      return;
+    }
+
+    synchronized (this.counters) {
+      final var existing = this.counters.get(key);
+      if (existing != null) {
+        ++existing.count;
+        return;
+      }
+
+      if (this.counters.size() < this.capacity) {
+        this.counters.put(key, new Counter<>(key, 1L, 0L));
+        return;
+      }
+
+      Counter<K> smallest = null;
+      for (final var counter : this.counters.values()) {
+        if (smallest == null || counter.count < smallest.count) {
+          smallest = counter;
+        }
+      }
+
+      this.counters.remove(smallest.key);
+      this.counters.put(
+        key,
+        new Counter<>(key, smallest.count + 1L, smallest.count)
+      );
+    }
+  }
+
+  /**
+   * Halve the count (and the error) of every tracked key, and stop tracking
+   * keys whose counts reach zero.
+   */
+
+  public void decay()
+  {
+    synchronized (this.counters) {
+      final var iterator = this.counters.values().iterator();
+      while (iterator.hasNext()) {
+        final var counter = iterator.next();
+        counter.count /= 2L;
+        counter.error /= 2L;
+        if (counter.count == 0L) {
+          iterator.remove();
+        }
+      }
+    }
+  }
+
+  /**
+   * @return A snapshot of the tracked keys, most frequent first
+   */
+
+  public List<IdMetricsHeavyHitter<K>> snapshot()
+  {
+    final var results =
+      new ArrayList<IdMetricsHeavyHitter<K>>(this.capacity);
+
+    synchronized (this.counters) {
+      for (final var counter : this.counters.values()) {
+        results.add(
+          new IdMetricsHeavyHitter<>(counter.key, counter.count, counter.error)
+        );
+      }
+    }
+
+    results.sort(
+      Comparator.comparingLong(IdMetricsHeavyHitter<K>::count).reversed()
+    );
+    return List.copyOf(results);
+  }
+
+  /**
+   * A tracked key.
+   *
+   * @param key   The key
+   * @param count The estimated number of occurrences
+   * @param error The maximum amount by which the count may be overestimated
+   * @param <K>   The type of keys
+   */
+
+  public record IdMetricsHeavyHitter<K>(
+    K key,
+    long count,
+    long error)
+  {
+    /**
+     * A tracked key.
+     */
+
+    public IdMetricsHeavyHitter
+    {
+      Objects.requireNonNull(key, "key");
+    }
+  }
+
+  private static final class Counter<K>
+  {
+    private final K key;
+    private long error;
+    private long count;
+
+    Counter(
+      final K inKey,
+      final long inCount,
+      final long inError)
+    {
+      this.key = inKey;
+      this.count = inCount;
+      this.error = inError;
+    }
+  }
+}
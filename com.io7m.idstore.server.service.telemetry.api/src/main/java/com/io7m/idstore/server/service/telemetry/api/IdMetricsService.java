@@ -19,11 +19,15 @@ package com.io7m.idstore.server.service.telemetry.api;
 
 import com.io7m.idstore.model.IdEmail;
 import com.io7m.idstore.model.IdUserDomain;
+import com.io7m.idstore.server.api.IdServerOpenTelemetryConfiguration.IdMetricsAttributePolicy;
 import com.io7m.jmulticlose.core.CloseableCollection;
 import com.io7m.jmulticlose.core.CloseableCollectionType;
 import com.io7m.jmulticlose.core.ClosingResourceFailedException;
+import io.opentelemetry.api.common.AttributeKey;
 import io.opentelemetry.api.common.Attributes;
+import io.opentelemetry.api.metrics.DoubleHistogram;
 import io.opentelemetry.api.metrics.LongCounter;
+import io.opentelemetry.api.metrics.LongHistogram;
 import io.opentelemetry.api.metrics.ObservableLongMeasurement;
 
 import java.time.Duration;
@@ -32,6 +36,7 @@ import java.util.List;
 import java.util.Objects;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicLong;
 
 import static com.io7m.idstore.model.IdUserDomain.USER;
 import static io.opentelemetry.api.common.AttributeKey.stringKey;
@@ -49,16 +54,24 @@ public final class IdMetricsService implements IdMetricsServiceType
   private final LongCounter http5xx;
   private final LongCounter httpSizeRequest;
   private final LongCounter httpSizeResponse;
+  private final DoubleHistogram httpCompressionRatio;
+  private final LongHistogram httpCompressionTime;
   private final LongCounter mailOK;
   private final LongCounter mailFail;
   private final LongCounter rateLimitTrigger;
+  private final LongCounter searchPrefetch;
+  private final LongHistogram loginPauseTime;
+  private final LongHistogram maintenanceTaskTime;
+  private final LongCounter maintenanceTaskRows;
+  private final IdMetricsAttributes attributes;
+  private final IdMetricsHeavyHitters<RateLimitSource> rateLimitHitters;
   private final ConcurrentHashMap<IdUserDomain, Long> loginCountsNow;
   private final EnumMap<IdUserDomain, ConcurrentLinkedQueue<TimeSample>> mailTimeNow;
   private final EnumMap<IdUserDomain, ConcurrentLinkedQueue<TimeSample>> httpTimeNow;
   private final boolean isNoOp;
-  private volatile long loginPauseTimeUser;
-  private volatile long loginPauseTimeAdmin;
+  private final EnumMap<IdUserDomain, AtomicLong> loginPauseTimeMax;
   private volatile long closedForMaintenance;
+  private volatile long maintenanceLeader;
 
   private record TimeSample(
     IdUserDomain type,
@@ -67,6 +80,14 @@ public final class IdMetricsService implements IdMetricsServiceType
 
   }
 
+  private record RateLimitSource(
+    String name,
+    String host,
+    String user)
+  {
+
+  }
+
   private static final List<IdUserDomain> DOMAINS =
     List.of(IdUserDomain.values());
 
@@ -78,11 +99,30 @@ public final class IdMetricsService implements IdMetricsServiceType
 
   public IdMetricsService(
     final IdServerTelemetryServiceType telemetry)
+  {
+    this(telemetry, IdMetricsAttributePolicy.defaults());
+  }
+
+  /**
+   * The metrics service.
+   *
+   * @param telemetry       The underlying telemetry system
+   * @param attributePolicy The policy applied to unbounded metric attributes
+   */
+
+  public IdMetricsService(
+    final IdServerTelemetryServiceType telemetry,
+    final IdMetricsAttributePolicy attributePolicy)
   {
     Objects.requireNonNull(telemetry, "telemetry");
+    Objects.requireNonNull(attributePolicy, "attributePolicy");
 
     this.isNoOp =
       telemetry.isNoOp();
+    this.attributes =
+      new IdMetricsAttributes(attributePolicy);
+    this.rateLimitHitters =
+      new IdMetricsHeavyHitters<>(attributePolicy.heavyHitters());
     this.resources =
       CloseableCollection.create();
 
@@ -102,6 +142,15 @@ public final class IdMetricsService implements IdMetricsServiceType
         .buildWithCallback(m -> m.record(this.closedForMaintenance))
     );
 
+    this.resources.add(
+      telemetry.meter()
+        .gaugeBuilder("idstore_maintenance_leader")
+        .setDescription(
+          "The idstore server is the leader for database maintenance.")
+        .ofLongs()
+        .buildWithCallback(m -> m.record(this.maintenanceLeader))
+    );
+
     this.httpTimeNow = new EnumMap<>(IdUserDomain.class);
     for (final var domain : DOMAINS) {
       this.httpTimeNow.put(domain, new ConcurrentLinkedQueue<>());
@@ -141,6 +190,21 @@ public final class IdMetricsService implements IdMetricsServiceType
         .setDescription("The total size of all HTTP responses so far.")
         .build();
 
+    this.httpCompressionRatio =
+      telemetry.meter()
+        .histogramBuilder("idstore_http_compression_ratio")
+        .setDescription(
+          "The ratio of compressed to uncompressed HTTP response sizes.")
+        .build();
+
+    this.httpCompressionTime =
+      telemetry.meter()
+        .histogramBuilder("idstore_http_compression_time")
+        .setDescription(
+          "The time taken to compress HTTP responses (nanoseconds).")
+        .ofLongs()
+        .build();
+
     this.http2xx =
       telemetry.meter()
         .counterBuilder("idstore_http_responses_2xx")
@@ -200,17 +264,67 @@ public final class IdMetricsService implements IdMetricsServiceType
         .setDescription("The number of times a rate limit has been triggered.")
         .build();
 
+    this.searchPrefetch =
+      telemetry.meter()
+        .counterBuilder("idstore_search_prefetch")
+        .setDescription(
+          "The number of search page requests, by prefetch result.")
+        .build();
+
+    this.resources.add(
+      telemetry.meter()
+        .gaugeBuilder("idstore_ratelimit_heavy_hitters")
+        .setDescription(
+          "The sources that have most frequently triggered rate limits.")
+        .ofLongs()
+        .buildWithCallback(this::reportRateLimitHitters)
+    );
+
+    this.loginPauseTimeMax = new EnumMap<>(IdUserDomain.class);
+    for (final var domain : DOMAINS) {
+      this.loginPauseTimeMax.put(domain, new AtomicLong());
+    }
+
     this.resources.add(
       telemetry.meter()
         .gaugeBuilder("idstore_ratelimit_login_delay")
-        .setDescription("The delay applied to each login attempt.")
+        .setDescription(
+          "The longest delay applied to a login attempt since the last "
+          + "collection (nanoseconds).")
         .ofLongs()
         .buildWithCallback(measurement -> {
-          measurement.record(this.loginPauseTimeAdmin, ADMIN_ATTRIBUTES);
-          measurement.record(this.loginPauseTimeUser, USER_ATTRIBUTES);
+          for (final var domain : DOMAINS) {
+            measurement.record(
+              this.loginPauseTimeMax.get(domain).getAndSet(0L),
+              typeAttributesFor(domain)
+            );
+          }
         })
     );
 
+    this.loginPauseTime =
+      telemetry.meter()
+        .histogramBuilder("idstore_ratelimit_login_delay_time")
+        .setDescription(
+          "The distribution of delays applied to login attempts (nanoseconds).")
+        .ofLongs()
+        .build();
+
+    this.maintenanceTaskTime =
+      telemetry.meter()
+        .histogramBuilder("idstore_maintenance_task_time")
+        .setDescription(
+          "The time taken to run each maintenance task (nanoseconds).")
+        .ofLongs()
+        .build();
+
+    this.maintenanceTaskRows =
+      telemetry.meter()
+        .counterBuilder("idstore_maintenance_task_rows")
+        .setDescription(
+          "The number of records affected by each maintenance task.")
+        .build();
+
     this.loginCountsNow =
       new ConcurrentHashMap<>();
 
@@ -246,6 +360,29 @@ public final class IdMetricsService implements IdMetricsServiceType
     }
   }
 
+  private void reportRateLimitHitters(
+    final ObservableLongMeasurement m)
+  {
+    for (final var hitter : this.rateLimitHitters.snapshot()) {
+      final var source = hitter.key();
+      m.record(
+        hitter.count(),
+        Attributes.builder()
+          .put("name", source.name())
+          .put("host", source.host())
+          .put("user", source.user())
+          .build()
+      );
+    }
+
+    /*
+     * Counts decay after each collection so that sources that have stopped
+     * violating rate limits are replaced by the sources violating them now.
+     */
+
+    this.rateLimitHitters.decay();
+  }
+
   @Override
   public String toString()
   {
@@ -266,6 +403,12 @@ public final class IdMetricsService implements IdMetricsServiceType
     this.resources.close();
   }
 
+  private static final AttributeKey<String> ENCODING =
+    stringKey("encoding");
+
+  private static final AttributeKey<String> TASK =
+    stringKey("task");
+
   private static final Attributes USER_ATTRIBUTES =
     Attributes.of(stringKey("type"), "user");
 
@@ -339,6 +482,34 @@ public final class IdMetricsService implements IdMetricsServiceType
     this.httpSizeRequest.add(size, typeAttributesFor(type));
   }
 
+  @Override
+  public void onHttpResponseCompressed(
+    final IdUserDomain type,
+    final String encoding,
+    final long sizeUncompressed,
+    final long sizeCompressed,
+    final Duration time)
+  {
+    if (this.isNoOp) {
+      return;
+    }
+    if (sizeUncompressed <= 0L) {
+      return;
+    }
+
+    final var attributes =
+      typeAttributesFor(type)
+        .toBuilder()
+        .put(ENCODING, encoding)
+        .build();
+
+    this.httpCompressionRatio.record(
+      (double) sizeCompressed / (double) sizeUncompressed,
+      attributes
+    );
+    this.httpCompressionTime.record(time.toNanos(), attributes);
+  }
+
   @Override
   public void onHttpResponseSize(
     final IdUserDomain type,
@@ -364,7 +535,7 @@ public final class IdMetricsService implements IdMetricsServiceType
 
     this.mailOK.add(
       1L,
-      Attributes.of(stringKey("to"), address.value())
+      Attributes.of(stringKey("to_domain"), this.attributes.mailDomain(address))
     );
 
     this.mailTimeNow.get(USER)
@@ -382,7 +553,7 @@ public final class IdMetricsService implements IdMetricsServiceType
 
     this.mailFail.add(
       1L,
-      Attributes.of(stringKey("to"), address.value())
+      Attributes.of(stringKey("to_domain"), this.attributes.mailDomain(address))
     );
 
     this.mailTimeNow.get(USER)
@@ -400,15 +571,16 @@ public final class IdMetricsService implements IdMetricsServiceType
       return;
     }
 
-    final var attributes =
+    final var bounded =
       Attributes.builder()
         .put("name", name)
-        .put("host", host)
-        .put("user", user)
+        .put("host", this.attributes.host(host))
+        .put("user", this.attributes.user(user))
         .put("operation", operation)
         .build();
 
-    this.rateLimitTrigger.add(1L, attributes);
+    this.rateLimitTrigger.add(1L, bounded);
+    this.rateLimitHitters.record(new RateLimitSource(name, host, user));
   }
 
   @Override
@@ -457,14 +629,44 @@ public final class IdMetricsService implements IdMetricsServiceType
       return;
     }
 
-    switch (type) {
-      case USER -> {
-        this.loginPauseTimeUser = duration.toNanos();
-      }
-      case ADMIN -> {
-        this.loginPauseTimeAdmin = duration.toNanos();
-      }
+    final var nanos = duration.toNanos();
+    this.loginPauseTime.record(nanos, typeAttributesFor(type));
+    this.loginPauseTimeMax.get(type).accumulateAndGet(nanos, Math::max);
+  }
+
+  @Override
+  public void onSearchPrefetch(
+    final String search,
+    final String result)
+  {
+    if (this.isNoOp) {
+      return;
     }
+
+    this.searchPrefetch.add(
+      1L,
+      Attributes.builder()
+        .put("search", search)
+        .put("result", result)
+        .build()
+    );
+  }
+
+  @Override
+  public void onMaintenanceTask(
+    final String task,
+    final long rows,
+    final Duration time)
+  {
+    if (this.isNoOp) {
+      return;
+    }
+
+    final var taskAttributes =
+      Attributes.of(TASK, task);
+
+    this.maintenanceTaskTime.record(time.toNanos(), taskAttributes);
+    this.maintenanceTaskRows.add(rows, taskAttributes);
   }
 
   @Override
@@ -473,4 +675,11 @@ public final class IdMetricsService implements IdMetricsServiceType
   {
     this.closedForMaintenance = closed ? 1L : 0L;
   }
+
+  @Override
+  public void onMaintenanceLeader(
+    final boolean leader)
+  {
+    this.maintenanceLeader = leader ? 1L : 0L;
+  }
 }
@@ -82,6 +82,23 @@ public interface IdMetricsServiceType extends AutoCloseable, RPServiceType
     IdUserDomain type,
     long size);
 
+  /**
+   * An HTTP response was compressed.
+   *
+   * @param type             The user domain
+   * @param encoding         The content encoding (such as "gzip")
+   * @param sizeUncompressed The size of the response before compression
+   * @param sizeCompressed   The size of the response after compression
+   * @param time             The time taken to compress the response
+   */
+
+  void onHttpResponseCompressed(
+    IdUserDomain type,
+    String encoding,
+    long sizeUncompressed,
+    long sizeCompressed,
+    Duration time);
+
   /**
    * Mail was sent to the given address.
    *
@@ -155,7 +172,8 @@ public interface IdMetricsServiceType extends AutoCloseable, RPServiceType
     long countNow);
 
   /**
-   * The login pause time is known.
+   * A login attempt has been delayed. This is called for every login attempt,
+   * including those that were delayed by zero time.
    *
    * @param type     The user domain
    * @param duration The pause time
@@ -172,4 +190,38 @@ public interface IdMetricsServiceType extends AutoCloseable, RPServiceType
    */
 
   void onClosedForMaintenance(boolean closed);
+
+  /**
+   * This server has become, or has stopped being, the maintenance leader.
+   *
+   * @param leader {@code true} if this server is the maintenance leader
+   */
+
+  void onMaintenanceLeader(boolean leader);
+
+  /**
+   * A search page was requested, and the prefetched page was either used
+   * ({@code "hit"}), not available ({@code "miss"}), or discarded unused
+   * ({@code "discarded"}).
+   *
+   * @param search The kind of search
+   * @param result The result
+   */
+
+  void onSearchPrefetch(
+    String search,
+    String result);
+
+  /**
+   * A maintenance task has run to completion.
+   *
+   * @param task The task name
+   * @param rows The number of records the task affected
+   * @param time The time taken to run the task
+   */
+
+  void onMaintenanceTask(
+    String task,
+    long rows,
+    Duration time);
 }
@@ -0,0 +1,85 @@
+/*
+ * Copyright © 2024 Mark Raynsford <code@io7m.com> https://www.io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+
+package com.io7m.idstore.server.service.templating;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * The URLs at which pages refer to static assets. The URLs are typically
+ * fingerprinted with a hash of the asset content so that clients can cache
+ * them indefinitely.
+ *
+ * @param resetCss   The URL of the reset stylesheet
+ * @param styleCss   The URL of the main stylesheet
+ * @param xButtonCss The URL of the button stylesheet
+ * @param logo       The URL of the logo image
+ */
+
+public record IdFMAssetPaths(
+  String resetCss,
+  String styleCss,
+  String xButtonCss,
+  String logo)
+{
+  /**
+   * The URLs at which pages refer to static assets.
+   *
+   * @param resetCss   The URL of the reset stylesheet
+   * @param styleCss   The URL of the main stylesheet
+   * @param xButtonCss The URL of the button stylesheet
+   * @param logo       The URL of the logo image
+   */
+
+  public IdFMAssetPaths
+  {
+    Objects.requireNonNull(resetCss, "resetCss");
+    Objects.requireNonNull(styleCss, "styleCss");
+    Objects.requireNonNull(xButtonCss, "xButtonCss");
+    Objects.requireNonNull(logo, "logo");
+  }
+
+  /**
+   * @return The asset URLs without any fingerprints
+   */
+
+  public static IdFMAssetPaths unversioned()
+  {
+    return new IdFMAssetPaths(
+      "/css/reset.css",
+      "/css/style.css",
+      "/css/xbutton.css",
+      "/logo"
+    );
+  }
+
+  /**
+   * @return The asset URLs as a freemarker template hash
+   */
+
+  public Map<String, Object> toTemplateHash()
+  {
+    final var m = new HashMap<String, Object>(4);
+    m.put("resetCss", this.resetCss);
+    m.put("styleCss", this.styleCss);
+    m.put("xButtonCss", this.xButtonCss);
+    m.put("logo", this.logo);
+    return m;
+  }
+}
@@ -24,6 +24,7 @@ import freemarker.template.TemplateException;
 import java.io.IOException;
 import java.io.UncheckedIOException;
 import java.io.Writer;
+import java.util.HashMap;
 import java.util.Objects;
 
 import static freemarker.template.Configuration.SQUARE_BRACKET_TAG_SYNTAX;
@@ -35,12 +36,15 @@ import static freemarker.template.Configuration.SQUARE_BRACKET_TAG_SYNTAX;
 public final class IdFMTemplateService implements IdFMTemplateServiceType
 {
   private final Configuration configuration;
+  private volatile IdFMAssetPaths assets;
 
   private IdFMTemplateService(
     final Configuration inConfiguration)
   {
     this.configuration =
       Objects.requireNonNull(inConfiguration, "configuration");
+    this.assets =
+      IdFMAssetPaths.unversioned();
   }
 
   /**
@@ -61,6 +65,7 @@ public final class IdFMTemplateService implements IdFMTemplateServiceType
   public IdFMTemplateType<IdFMLoginData> pageLoginTemplate()
   {
     return new IdGenericTemplate<>(
+      this,
       this.findTemplate("pageLogin")
     );
   }
@@ -69,6 +74,7 @@ public final class IdFMTemplateService implements IdFMTemplateServiceType
   public IdFMTemplateType<IdFMUserSelfData> pageUserSelfTemplate()
   {
     return new IdGenericTemplate<>(
+      this,
       this.findTemplate("pageUserSelf")
     );
   }
@@ -77,6 +83,7 @@ public final class IdFMTemplateService implements IdFMTemplateServiceType
   public IdFMTemplateType<IdFMEmailVerificationData> emailVerificationTemplate()
   {
     return new IdGenericTemplate<>(
+      this,
       this.findTemplate("emailVerification")
     );
   }
@@ -85,6 +92,7 @@ public final class IdFMTemplateService implements IdFMTemplateServiceType
   public IdFMTemplateType<IdFMEmailPasswordResetData> emailPasswordResetTemplate()
   {
     return new IdGenericTemplate<>(
+      this,
       this.findTemplate("emailPasswordReset")
     );
   }
@@ -100,6 +108,19 @@ public final class IdFMTemplateService implements IdFMTemplateServiceType
     }
   }
 
+  @Override
+  public void setAssetPaths(
+    final IdFMAssetPaths paths)
+  {
+    this.assets = Objects.requireNonNull(paths, "paths");
+  }
+
+  @Override
+  public IdFMAssetPaths assetPaths()
+  {
+    return this.assets;
+  }
+
   @Override
   public String description()
   {
@@ -117,6 +138,7 @@ public final class IdFMTemplateService implements IdFMTemplateServiceType
   public IdFMTemplateType<IdFMEmailAddData> pageEmailAddTemplate()
   {
     return new IdGenericTemplate<>(
+      this,
       this.findTemplate("pageEmailAdd")
     );
   }
@@ -125,6 +147,7 @@ public final class IdFMTemplateService implements IdFMTemplateServiceType
   public IdFMTemplateType<IdFMMessageData> pageMessage()
   {
     return new IdGenericTemplate<>(
+      this,
       this.findTemplate("pageMessage")
     );
   }
@@ -133,6 +156,7 @@ public final class IdFMTemplateService implements IdFMTemplateServiceType
   public IdFMTemplateType<IdFMCSSData> cssTemplate()
   {
     return new IdGenericTemplate<>(
+      this,
       this.findTemplate("mainCss")
     );
   }
@@ -141,6 +165,7 @@ public final class IdFMTemplateService implements IdFMTemplateServiceType
   public IdFMTemplateType<IdFMRealNameUpdateData> pageRealnameUpdateTemplate()
   {
     return new IdGenericTemplate<>(
+      this,
       this.findTemplate("pageRealNameUpdate")
     );
   }
@@ -149,6 +174,7 @@ public final class IdFMTemplateService implements IdFMTemplateServiceType
   public IdFMTemplateType<IdFMPasswordUpdateData> pagePasswordUpdateTemplate()
   {
     return new IdGenericTemplate<>(
+      this,
       this.findTemplate("pagePasswordUpdate")
     );
   }
@@ -157,6 +183,7 @@ public final class IdFMTemplateService implements IdFMTemplateServiceType
   public IdFMTemplateType<IdFMPasswordResetData> pagePasswordResetTemplate()
   {
     return new IdGenericTemplate<>(
+      this,
       this.findTemplate("pagePasswordReset")
     );
   }
@@ -165,6 +192,7 @@ public final class IdFMTemplateService implements IdFMTemplateServiceType
   public IdFMTemplateType<IdFMPasswordResetConfirmData> pagePasswordResetConfirmTemplate()
   {
     return new IdGenericTemplate<>(
+      this,
       this.findTemplate("pagePasswordResetConfirm")
     );
   }
@@ -173,6 +201,7 @@ public final class IdFMTemplateService implements IdFMTemplateServiceType
   public IdFMTemplateType<IdFMEmailTestData> emailTestTemplate()
   {
     return new IdGenericTemplate<>(
+      this,
       this.findTemplate("emailTest")
     );
   }
@@ -180,11 +209,14 @@ public final class IdFMTemplateService implements IdFMTemplateServiceType
   private static final class IdGenericTemplate<T extends IdFMDataModelType>
     implements IdFMTemplateType<T>
   {
+    private final IdFMTemplateService service;
     private final Template template;
 
     IdGenericTemplate(
+      final IdFMTemplateService inService,
       final Template inTemplate)
     {
+      this.service = Objects.requireNonNull(inService, "service");
       this.template = Objects.requireNonNull(inTemplate, "template");
     }
 
@@ -194,7 +226,9 @@ public final class IdFMTemplateService implements IdFMTemplateServiceType
       final Writer output)
       throws TemplateException, IOException
     {
-      this.template.process(value.toTemplateHash(), output);
+      final var hash = new HashMap<>(value.toTemplateHash());
+      hash.putIfAbsent("assets", this.service.assets.toTemplateHash());
+      this.template.process(hash, output);
     }
   }
 }
@@ -96,4 +96,19 @@ public interface IdFMTemplateServiceType extends RPServiceType
    */
 
   IdFMTemplateType<IdFMEmailTestData> emailTestTemplate();
+
+  /**
+   * Set the URLs at which pages refer to static assets. The URLs are exposed
+   * to every template as {@code assets}.
+   *
+   * @param paths The asset URLs
+   */
+
+  void setAssetPaths(IdFMAssetPaths paths);
+
+  /**
+   * @return The URLs at which pages refer to static assets
+   */
+
+  IdFMAssetPaths assetPaths();
 }
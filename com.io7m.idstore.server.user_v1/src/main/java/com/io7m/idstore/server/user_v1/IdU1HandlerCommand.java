@@ -49,6 +49,8 @@ import java.util.Map;
 import java.util.Optional;
 import java.util.Set;
 
+import static com.io7m.idstore.database.api.IdDatabaseRole.IDSTORE;
+import static com.io7m.idstore.database.api.IdDatabaseRole.IDSTORE_READ_ONLY;
 import static com.io7m.idstore.error_codes.IdStandardErrorCodes.API_MISUSE_ERROR;
 import static com.io7m.idstore.model.IdUserDomain.USER;
 import static com.io7m.idstore.protocol.user.IdUResponseBlame.BLAME_CLIENT;
@@ -93,20 +95,17 @@ public final class IdU1HandlerCommand extends IdHTTPHandlerFunctional
 
     final var authenticated =
       withAuthentication(services, (req1, info1, session, user) -> {
-        return withTransaction(services, (req2, info2, transaction) -> {
-          return execute(
-            services,
-            req2,
-            info2,
-            messages,
-            telemetry,
-            limits,
-            strings,
-            session,
-            user,
-            transaction
-          );
-        }).execute(req1, info1);
+        return execute(
+          services,
+          req1,
+          info1,
+          messages,
+          telemetry,
+          limits,
+          strings,
+          session,
+          user
+        );
       });
 
     final var maintenanceAware =
@@ -124,24 +123,38 @@ public final class IdU1HandlerCommand extends IdHTTPHandlerFunctional
     final IdRequestLimits limits,
     final IdStrings strings,
     final IdSessionUser session,
-    final IdUser user,
-    final IdDatabaseTransactionType transaction)
+    final IdUser user)
   {
     try (var input = limits.boundedMaximumInput(request, 1048576)) {
       final var message =
         parseMessage(telemetry, messages, input);
 
+      /*
+       * The message is parsed before a database connection is opened so
+       * that read-only commands can be routed to a read replica.
+       */
+
       if (message instanceof final IdUCommandType<?> command) {
-        return executeCommand(
+        final var role =
+          IdUCommandExecutor.isReadOnly(command)
+            ? IDSTORE_READ_ONLY
+            : IDSTORE;
+
+        return withTransaction(
           services,
-          information,
-          messages,
-          telemetry,
-          session,
-          user,
-          command,
-          transaction
-        );
+          role,
+          (req2, info2, transaction) -> {
+            return executeCommandTransactional(
+              services,
+              info2,
+              messages,
+              telemetry,
+              session,
+              user,
+              command,
+              transaction
+            );
+          }).execute(request, information);
       }
 
       return errorResponseOf(
@@ -161,6 +174,30 @@ public final class IdU1HandlerCommand extends IdHTTPHandlerFunctional
     } catch (final IdRequestLimitExceeded | IdProtocolException e) {
       setSpanErrorCode(e.errorCode());
       return errorResponseOf(messages, information, BLAME_CLIENT, e);
+    }
+  }
+
+  private static IdHTTPResponseType executeCommandTransactional(
+    final RPServiceDirectoryType services,
+    final IdHTTPRequestInformation information,
+    final IdUCB1Messages messages,
+    final IdServerTelemetryServiceType telemetry,
+    final IdSessionUser session,
+    final IdUser user,
+    final IdUCommandType<?> command,
+    final IdDatabaseTransactionType transaction)
+  {
+    try {
+      return executeCommand(
+        services,
+        information,
+        messages,
+        telemetry,
+        session,
+        user,
+        command,
+        transaction
+      );
     } catch (final IdDatabaseException e) {
       setSpanErrorCode(e.errorCode());
       return errorResponseOf(messages, information, BLAME_SERVER, e);
@@ -171,7 +208,7 @@ public final class IdU1HandlerCommand extends IdHTTPHandlerFunctional
     final IdServerTelemetryServiceType telemetry,
     final IdUCB1Messages messages,
     final InputStream input)
-    throws IOException, IdProtocolException
+    throws IdProtocolException
   {
     final var parseSpan =
       telemetry.tracer()
@@ -179,8 +216,7 @@ public final class IdU1HandlerCommand extends IdHTTPHandlerFunctional
         .startSpan();
 
     try (var ignored = parseSpan.makeCurrent()) {
-      final var data = parseMessageReadData(telemetry, input);
-      return parseMessageDeserialize(telemetry, messages, data);
+      return parseMessageDeserialize(telemetry, messages, input);
     } finally {
       parseSpan.end();
     }
@@ -189,7 +225,7 @@ public final class IdU1HandlerCommand extends IdHTTPHandlerFunctional
   private static IdUMessageType parseMessageDeserialize(
     final IdServerTelemetryServiceType telemetry,
     final IdUCB1Messages messages,
-    final byte[] data)
+    final InputStream input)
     throws IdProtocolException
   {
     final var readSpan =
@@ -198,24 +234,7 @@ public final class IdU1HandlerCommand extends IdHTTPHandlerFunctional
         .startSpan();
 
     try (var ignored = readSpan.makeCurrent()) {
-      return messages.parse(data);
-    } finally {
-      readSpan.end();
-    }
-  }
-
-  private static byte[] parseMessageReadData(
-    final IdServerTelemetryServiceType telemetry,
-    final InputStream input)
-    throws IOException
-  {
-    final var readSpan =
-      telemetry.tracer()
-        .spanBuilder("Read")
-        .startSpan();
-
-    try (var ignored = readSpan.makeCurrent()) {
-      return input.readAllBytes();
+      return messages.parse(input);
     } finally {
       readSpan.end();
     }
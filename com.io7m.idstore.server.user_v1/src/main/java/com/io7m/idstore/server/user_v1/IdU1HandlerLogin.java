@@ -30,12 +30,15 @@ import com.io7m.idstore.server.controller.user.IdUserLoginService;
 import com.io7m.idstore.server.http.IdHTTPCookieDeclaration;
 import com.io7m.idstore.server.http.IdHTTPHandlerFunctional;
 import com.io7m.idstore.server.http.IdHTTPHandlerFunctionalCoreType;
+import com.io7m.idstore.server.http.IdHTTPRequestDeadlines;
 import com.io7m.idstore.server.http.IdHTTPRequestInformation;
 import com.io7m.idstore.server.http.IdHTTPResponseFixedSize;
 import com.io7m.idstore.server.http.IdHTTPResponseType;
 import com.io7m.idstore.server.service.configuration.IdServerConfigurationService;
+import com.io7m.idstore.server.service.ratelimit.IdRateLimitUserLoginServiceType;
 import com.io7m.idstore.server.service.reqlimit.IdRequestLimitExceeded;
 import com.io7m.idstore.server.service.reqlimit.IdRequestLimits;
+import com.io7m.idstore.server.service.telemetry.api.IdServerTelemetryServiceType;
 import com.io7m.idstore.strings.IdStrings;
 import com.io7m.repetoir.core.RPServiceDirectoryType;
 import io.helidon.webserver.http.ServerRequest;
@@ -54,7 +57,7 @@ import static com.io7m.idstore.model.IdLoginMetadataStandard.userAgent;
 import static com.io7m.idstore.model.IdUserDomain.USER;
 import static com.io7m.idstore.protocol.user.IdUResponseBlame.BLAME_CLIENT;
 import static com.io7m.idstore.protocol.user.IdUResponseBlame.BLAME_SERVER;
-import static com.io7m.idstore.server.http.IdHTTPHandlerCoreFixedDelay.withFixedDelay;
+import static com.io7m.idstore.server.http.IdHTTPDelays.applyDelay;
 import static com.io7m.idstore.server.http.IdHTTPHandlerCoreInstrumented.withInstrumentation;
 import static com.io7m.idstore.server.service.telemetry.api.IdServerTelemetryServiceType.setSpanErrorCode;
 import static com.io7m.idstore.server.user_v1.IdU1HandlerCoreMaintenanceAware.withMaintenanceAwareness;
@@ -90,63 +93,82 @@ public final class IdU1HandlerLogin extends IdHTTPHandlerFunctional
       services.requireService(IdStrings.class);
     final var logins =
       services.requireService(IdUserLoginService.class);
+    final var rateLimit =
+      services.requireService(IdRateLimitUserLoginServiceType.class);
+    final var telemetry =
+      services.requireService(IdServerTelemetryServiceType.class);
+    final var deadlines =
+      services.requireService(IdHTTPRequestDeadlines.class);
 
     final var configuration =
       services.requireService(IdServerConfigurationService.class);
 
-    final var delay =
-      configuration.configuration()
-        .rateLimit()
-        .userLoginDelay();
-
     final var sessionDuration =
       configuration.configuration()
         .sessions()
         .userSessionExpiration();
 
-    final var transactional =
-      withTransaction(services, (request, info, transaction) -> {
-        return execute(
-          strings,
-          limits,
-          messages,
-          logins,
-          request,
-          info,
-          transaction,
-          sessionDuration
+    final IdHTTPHandlerFunctionalCoreType main =
+      (request, information) -> {
+        final IdUCommandLogin login;
+        try {
+          login = readLoginCommand(strings, limits, messages, request);
+        } catch (final IOException e) {
+          throw new UncheckedIOException(e);
+        } catch (final IdException e) {
+          setSpanErrorCode(e.errorCode());
+          return IdU1Errors.errorResponseOf(
+            messages,
+            information,
+            BLAME_CLIENT,
+            e
+          );
+        }
+
+        /*
+         * The delay is applied before a database transaction is opened so
+         * that delayed logins do not hold database connections. The
+         * request's deadline starts again after the delay so that the
+         * delay does not consume the time allowed for database work.
+         */
+
+        applyDelay(
+          telemetry,
+          rateLimit.loginDelay(
+            information.remoteAddress(),
+            login.userName().value()
+          )
         );
-      });
 
-    final var fixedDelay =
-      withFixedDelay(services, delay, transactional);
+        return withTransaction(services, (req, info, transaction) -> {
+          return execute(
+            messages,
+            logins,
+            login,
+            info,
+            transaction,
+            sessionDuration
+          );
+        }).execute(
+          request,
+          information.withDeadline(deadlines.deadlineForNewRequest())
+        );
+      };
 
     final var maintenanceAware =
-      withMaintenanceAwareness(services, fixedDelay);
+      withMaintenanceAwareness(services, main);
 
     return withInstrumentation(services, USER, maintenanceAware);
   }
 
   private static IdHTTPResponseType execute(
-    final IdStrings strings,
-    final IdRequestLimits limits,
     final IdUCB1Messages messages,
     final IdUserLoginService logins,
-    final ServerRequest request,
+    final IdUCommandLogin login,
     final IdHTTPRequestInformation information,
     final IdDatabaseTransactionType transaction,
     final Duration sessionDuration)
   {
-    final IdUCommandLogin login;
-    try {
-      login = readLoginCommand(strings, limits, messages, request);
-    } catch (final IOException e) {
-      throw new UncheckedIOException(e);
-    } catch (final IdException e) {
-      setSpanErrorCode(e.errorCode());
-      return IdU1Errors.errorResponseOf(messages, information, BLAME_CLIENT, e);
-    }
-
     final var meta = new HashMap<>(login.metadata());
     meta.put(remoteHost(), information.remoteAddress());
     meta.put(userAgent(), information.userAgent());
@@ -201,8 +223,7 @@ public final class IdU1HandlerLogin extends IdHTTPHandlerFunctional
     throws IOException, IdRequestLimitExceeded, IdProtocolException
   {
     try (var input = limits.boundedMaximumInput(request, 1024)) {
-      final var data = input.readAllBytes();
-      final var message = messages.parse(data);
+      final var message = messages.parse(input);
       if (message instanceof final IdUCommandLogin login) {
         return login;
       }
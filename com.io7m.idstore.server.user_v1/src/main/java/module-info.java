@@ -35,6 +35,7 @@ module com.io7m.idstore.server.user_v1
   requires com.io7m.idstore.server.service.configuration;
   requires com.io7m.idstore.server.service.health;
   requires com.io7m.idstore.server.service.maintenance;
+  requires com.io7m.idstore.server.service.ratelimit;
   requires com.io7m.idstore.server.service.reqlimit;
   requires com.io7m.idstore.server.service.sessions;
   requires com.io7m.idstore.server.service.telemetry.api;
@@ -44,6 +45,7 @@ module com.io7m.idstore.server.user_v1
 
   requires com.io7m.verdant.core;
   requires io.helidon.webserver;
+  requires io.helidon.webserver.http2;
   requires io.opentelemetry.api;
   requires org.slf4j;
   requires com.io7m.idstore.tls;
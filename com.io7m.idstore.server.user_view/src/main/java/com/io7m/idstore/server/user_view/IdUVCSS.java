@@ -21,19 +21,18 @@ import com.io7m.idstore.server.http.IdHTTPHandlerFunctional;
 import com.io7m.idstore.server.http.IdHTTPHandlerFunctionalCoreType;
 import com.io7m.idstore.server.http.IdHTTPResponseFixedSize;
 import com.io7m.idstore.server.http.IdHTTPResponseType;
+import com.io7m.idstore.server.http.IdHTTPStaticAsset;
+import com.io7m.idstore.server.service.branding.IdServerBrandingAsset;
 import com.io7m.idstore.server.service.branding.IdServerBrandingServiceType;
 import com.io7m.repetoir.core.RPServiceDirectoryType;
 import io.helidon.webserver.http.ServerRequest;
 
-import java.io.IOException;
-import java.io.UncheckedIOException;
-import java.util.Objects;
+import java.util.Map;
 import java.util.Set;
 import java.util.regex.Pattern;
 
 import static com.io7m.idstore.model.IdUserDomain.USER;
 import static com.io7m.idstore.server.http.IdHTTPHandlerCoreInstrumented.withInstrumentation;
-import static java.nio.charset.StandardCharsets.UTF_8;
 
 /**
  * A CSS servlet.
@@ -65,26 +64,32 @@ public final class IdUVCSS extends IdHTTPHandlerFunctional
     final var branding =
       services.requireService(IdServerBrandingServiceType.class);
 
-    final byte[] resetCssData;
-    try (var stream =
-           IdUVCSS.class.getResourceAsStream(
-             "/com/io7m/idstore/server/user_view/reset.css")) {
-      resetCssData = stream.readAllBytes();
-    } catch (final IOException e) {
-      throw new UncheckedIOException(e);
-    }
+    final var assets = Map.of(
+      "css/reset.css", staticAsset(branding.resetCSSAsset()),
+      "css/style.css", staticAsset(branding.cssAsset()),
+      "css/xbutton.css", staticAsset(branding.xButtonCSSAsset())
+    );
 
     final IdHTTPHandlerFunctionalCoreType main = (request, information) -> {
-      return execute(request, branding, resetCssData);
+      return execute(request, assets);
     };
 
     return withInstrumentation(services, USER, main);
   }
 
+  static IdHTTPStaticAsset staticAsset(
+    final IdServerBrandingAsset asset)
+  {
+    return IdHTTPStaticAsset.create(
+      asset.contentType(),
+      asset.data(),
+      asset.hash()
+    );
+  }
+
   private static IdHTTPResponseType execute(
     final ServerRequest request,
-    final IdServerBrandingServiceType branding,
-    final byte[] resetCssData)
+    final Map<String, IdHTTPStaticAsset> assets)
   {
     final var path =
       request.path()
@@ -93,31 +98,9 @@ public final class IdUVCSS extends IdHTTPHandlerFunctional
       LEADING_SLASHES.matcher(path)
         .replaceFirst("");
 
-    if (Objects.equals(stripped, "css/reset.css")) {
-      return new IdHTTPResponseFixedSize(
-        200,
-        Set.of(),
-        "text/css; charset=utf-8",
-        resetCssData
-      );
-    }
-
-    if (Objects.equals(stripped, "css/style.css")) {
-      return new IdHTTPResponseFixedSize(
-        200,
-        Set.of(),
-        "text/css; charset=utf-8",
-        branding.css().getBytes(UTF_8)
-      );
-    }
-
-    if (Objects.equals(stripped, "css/xbutton.css")) {
-      return new IdHTTPResponseFixedSize(
-        200,
-        Set.of(),
-        "text/css; charset=utf-8",
-        branding.xButtonCSS().getBytes(UTF_8)
-      );
+    final var asset = assets.get(stripped);
+    if (asset != null) {
+      return asset.respond(request);
     }
 
     return new IdHTTPResponseFixedSize(
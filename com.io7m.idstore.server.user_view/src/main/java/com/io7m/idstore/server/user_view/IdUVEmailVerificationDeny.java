@@ -179,7 +179,7 @@ public final class IdUVEmailVerificationDeny
   {
     try (var connection = database.openConnection(IDSTORE)) {
       try (var transaction =
-             connection.openTransaction()) {
+             information.openTransaction(connection)) {
         final var emails =
           transaction.queries(IdDatabaseEmailsQueriesType.class);
         final var users =
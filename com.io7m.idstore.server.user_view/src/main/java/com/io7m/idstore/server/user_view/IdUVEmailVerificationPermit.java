@@ -178,7 +178,7 @@ public final class IdUVEmailVerificationPermit
   {
     try (var connection = database.openConnection(IDSTORE)) {
       try (var transaction =
-             connection.openTransaction()) {
+             information.openTransaction(connection)) {
         final var emails =
           transaction.queries(IdDatabaseEmailsQueriesType.class);
         final var users =
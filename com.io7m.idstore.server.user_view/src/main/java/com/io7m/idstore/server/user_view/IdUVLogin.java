@@ -18,7 +18,6 @@ package com.io7m.idstore.server.user_view;
 
 import com.io7m.idstore.database.api.IdDatabaseException;
 import com.io7m.idstore.database.api.IdDatabaseType;
-import com.io7m.idstore.server.api.IdServerRateLimitConfiguration;
 import com.io7m.idstore.server.api.IdServerSessionConfiguration;
 import com.io7m.idstore.server.controller.command_exec.IdCommandExecutionFailure;
 import com.io7m.idstore.server.controller.user.IdUserLoggedIn;
@@ -26,12 +25,14 @@ import com.io7m.idstore.server.controller.user.IdUserLoginService;
 import com.io7m.idstore.server.http.IdHTTPCookieDeclaration;
 import com.io7m.idstore.server.http.IdHTTPHandlerFunctional;
 import com.io7m.idstore.server.http.IdHTTPHandlerFunctionalCoreType;
+import com.io7m.idstore.server.http.IdHTTPRequestDeadlines;
 import com.io7m.idstore.server.http.IdHTTPRequestInformation;
 import com.io7m.idstore.server.http.IdHTTPResponseFixedSize;
 import com.io7m.idstore.server.http.IdHTTPResponseRedirect;
 import com.io7m.idstore.server.http.IdHTTPResponseType;
 import com.io7m.idstore.server.service.branding.IdServerBrandingServiceType;
 import com.io7m.idstore.server.service.configuration.IdServerConfigurationService;
+import com.io7m.idstore.server.service.ratelimit.IdRateLimitUserLoginServiceType;
 import com.io7m.idstore.server.service.sessions.IdSessionMessage;
 import com.io7m.idstore.server.service.telemetry.api.IdServerTelemetryServiceType;
 import com.io7m.idstore.server.service.templating.IdFMLoginData;
@@ -47,7 +48,6 @@ import java.io.IOException;
 import java.io.StringWriter;
 import java.io.UncheckedIOException;
 import java.nio.charset.StandardCharsets;
-import java.time.Duration;
 import java.util.HashMap;
 import java.util.Optional;
 import java.util.Set;
@@ -56,6 +56,7 @@ import static com.io7m.idstore.database.api.IdDatabaseRole.IDSTORE;
 import static com.io7m.idstore.model.IdLoginMetadataStandard.remoteHost;
 import static com.io7m.idstore.model.IdLoginMetadataStandard.userAgent;
 import static com.io7m.idstore.model.IdUserDomain.USER;
+import static com.io7m.idstore.server.http.IdHTTPDelays.applyDelay;
 import static com.io7m.idstore.server.http.IdHTTPHandlerCoreInstrumented.withInstrumentation;
 import static com.io7m.idstore.server.service.telemetry.api.IdServerTelemetryServiceType.setSpanErrorCode;
 import static com.io7m.idstore.server.user_view.IdUVHandlerCoreMaintenanceAware.withMaintenanceAwareness;
@@ -98,9 +99,9 @@ public final class IdUVLogin extends IdHTTPHandlerFunctional
     final var telemetry =
       services.requireService(IdServerTelemetryServiceType.class);
     final var rateLimit =
-      services.requireService(IdServerConfigurationService.class)
-        .configuration()
-        .rateLimit();
+      services.requireService(IdRateLimitUserLoginServiceType.class);
+    final var deadlines =
+      services.requireService(IdHTTPRequestDeadlines.class);
     final var sessions =
       services.requireService(IdServerConfigurationService.class)
         .configuration()
@@ -116,6 +117,7 @@ public final class IdUVLogin extends IdHTTPHandlerFunctional
           template,
           telemetry,
           rateLimit,
+          deadlines,
           sessions,
           request,
           information
@@ -134,10 +136,11 @@ public final class IdUVLogin extends IdHTTPHandlerFunctional
     final IdStrings strings,
     final IdFMTemplateType<IdFMLoginData> template,
     final IdServerTelemetryServiceType telemetry,
-    final IdServerRateLimitConfiguration rateLimit,
+    final IdRateLimitUserLoginServiceType rateLimit,
+    final IdHTTPRequestDeadlines deadlines,
     final IdServerSessionConfiguration sessions,
     final ServerRequest request,
-    final IdHTTPRequestInformation information)
+    final IdHTTPRequestInformation requestInformation)
   {
     final var parameters =
       request.content().as(Parameters.class);
@@ -152,10 +155,21 @@ public final class IdUVLogin extends IdHTTPHandlerFunctional
       return showLoginForm(branding, template, Optional.empty(), 200);
     }
 
-    applyFixedDelay(telemetry, rateLimit.userLoginDelay());
+    applyDelay(
+      telemetry,
+      rateLimit.loginDelay(requestInformation.remoteAddress(), username)
+    );
+
+    /*
+     * The request's deadline starts again after the delay so that the
+     * delay does not consume the time allowed for database work.
+     */
+
+    final var information =
+      requestInformation.withDeadline(deadlines.deadlineForNewRequest());
 
     try (var connection = database.openConnection(IDSTORE)) {
-      try (var transaction = connection.openTransaction()) {
+      try (var transaction = information.openTransaction(connection)) {
         final var metadata = new HashMap<String, String>(2);
         metadata.put(userAgent(), information.userAgent());
         metadata.put(remoteHost(), information.remoteAddress());
@@ -217,26 +231,6 @@ public final class IdUVLogin extends IdHTTPHandlerFunctional
     }
   }
 
-  private static void applyFixedDelay(
-    final IdServerTelemetryServiceType telemetry,
-    final Duration duration)
-  {
-    try {
-      final var childSpan =
-        telemetry.tracer()
-          .spanBuilder("FixedDelay")
-          .startSpan();
-
-      try (var ignored = childSpan.makeCurrent()) {
-        Thread.sleep(duration.toMillis());
-      } finally {
-        childSpan.end();
-      }
-    } catch (final InterruptedException e) {
-      Thread.currentThread().interrupt();
-    }
-  }
-
   /**
    * Display a login form.
    *
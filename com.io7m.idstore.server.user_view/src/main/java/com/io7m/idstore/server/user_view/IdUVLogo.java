@@ -19,13 +19,9 @@ package com.io7m.idstore.server.user_view;
 
 import com.io7m.idstore.server.http.IdHTTPHandlerFunctional;
 import com.io7m.idstore.server.http.IdHTTPHandlerFunctionalCoreType;
-import com.io7m.idstore.server.http.IdHTTPResponseFixedSize;
-import com.io7m.idstore.server.http.IdHTTPResponseType;
 import com.io7m.idstore.server.service.branding.IdServerBrandingServiceType;
 import com.io7m.repetoir.core.RPServiceDirectoryType;
 
-import java.util.Set;
-
 import static com.io7m.idstore.model.IdUserDomain.USER;
 import static com.io7m.idstore.server.http.IdHTTPHandlerCoreInstrumented.withInstrumentation;
 
@@ -53,20 +49,12 @@ public final class IdUVLogo extends IdHTTPHandlerFunctional
     final var branding =
       services.requireService(IdServerBrandingServiceType.class);
 
+    final var logo =
+      IdUVCSS.staticAsset(branding.logoAsset());
+
     final IdHTTPHandlerFunctionalCoreType main =
-      (request, information) -> execute(branding);
+      (request, information) -> logo.respond(request);
 
     return withInstrumentation(services, USER, main);
   }
-
-  private static IdHTTPResponseType execute(
-    final IdServerBrandingServiceType branding)
-  {
-    return new IdHTTPResponseFixedSize(
-      200,
-      Set.of(),
-      "image/svg+xml; charset=utf-8",
-      branding.logoImage()
-    );
-  }
 }
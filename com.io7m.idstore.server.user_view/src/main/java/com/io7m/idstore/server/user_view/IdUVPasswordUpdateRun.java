@@ -150,7 +150,7 @@ public final class IdUVPasswordUpdateRun extends IdHTTPHandlerFunctional
     }
 
     try (var connection = database.openConnection(IDSTORE)) {
-      try (var transaction = connection.openTransaction()) {
+      try (var transaction = information.openTransaction(connection)) {
         final var context =
           new IdUCommandContext(
             services,
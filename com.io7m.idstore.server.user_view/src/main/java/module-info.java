@@ -33,6 +33,7 @@ module com.io7m.idstore.server.user_view
   requires com.io7m.idstore.server.service.clock;
   requires com.io7m.idstore.server.service.configuration;
   requires com.io7m.idstore.server.service.maintenance;
+  requires com.io7m.idstore.server.service.ratelimit;
   requires com.io7m.idstore.server.service.sessions;
   requires com.io7m.idstore.server.service.telemetry.api;
   requires com.io7m.idstore.server.service.templating;
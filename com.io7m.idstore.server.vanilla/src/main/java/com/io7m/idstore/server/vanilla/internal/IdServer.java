@@ -31,11 +31,18 @@ import com.io7m.idstore.protocol.user.cb.IdUCB1Messages;
 import com.io7m.idstore.server.admin_v1.IdA1Server;
 import com.io7m.idstore.server.api.IdServerConfiguration;
 import com.io7m.idstore.server.api.IdServerException;
+import com.io7m.idstore.server.api.IdServerOpenTelemetryConfiguration;
+import com.io7m.idstore.server.api.IdServerOpenTelemetryConfiguration.IdMetrics;
+import com.io7m.idstore.server.api.IdServerOpenTelemetryConfiguration.IdMetricsAttributePolicy;
 import com.io7m.idstore.server.api.IdServerType;
+import com.io7m.idstore.server.controller.admin.IdASearchCursorService;
+import com.io7m.idstore.server.controller.admin.IdASearchPrefetchService;
+import com.io7m.idstore.server.controller.admin.IdAUserImportHasher;
 import com.io7m.idstore.server.controller.admin.IdAdminLoginService;
 import com.io7m.idstore.server.controller.user.IdUserLoginService;
 import com.io7m.idstore.server.controller.user_pwreset.IdUserPasswordResetService;
 import com.io7m.idstore.server.controller.user_pwreset.IdUserPasswordResetServiceType;
+import com.io7m.idstore.server.http.IdHTTPRequestDeadlines;
 import com.io7m.idstore.server.service.branding.IdServerBrandingService;
 import com.io7m.idstore.server.service.branding.IdServerBrandingServiceType;
 import com.io7m.idstore.server.service.clock.IdServerClock;
@@ -53,6 +60,7 @@ import com.io7m.idstore.server.service.ratelimit.IdRateLimitPasswordResetService
 import com.io7m.idstore.server.service.ratelimit.IdRateLimitPasswordResetServiceType;
 import com.io7m.idstore.server.service.ratelimit.IdRateLimitUserLoginService;
 import com.io7m.idstore.server.service.ratelimit.IdRateLimitUserLoginServiceType;
+import com.io7m.idstore.server.service.ratelimit.IdRateLimiterConfiguration;
 import com.io7m.idstore.server.service.reqlimit.IdRequestLimits;
 import com.io7m.idstore.server.service.sessions.IdSessionAdminService;
 import com.io7m.idstore.server.service.sessions.IdSessionUserService;
@@ -94,7 +102,6 @@ import java.util.concurrent.atomic.AtomicBoolean;
 import static com.io7m.idstore.database.api.IdDatabaseRole.IDSTORE;
 import static com.io7m.idstore.error_codes.IdStandardErrorCodes.ADMIN_NOT_INITIAL;
 import static com.io7m.idstore.server.service.telemetry.api.IdServerTelemetryServiceType.recordSpanException;
-import static java.util.concurrent.TimeUnit.SECONDS;
 
 /**
  * The internal server frontend.
@@ -240,7 +247,13 @@ public final class IdServer implements IdServerType
     final var tls = IdTLSContextService.createService(services);
     services.register(IdTLSContextServiceType.class, tls);
 
-    final var metrics = new IdMetricsService(this.telemetry);
+    final var metricsPolicy =
+      this.configuration.openTelemetry()
+        .flatMap(IdServerOpenTelemetryConfiguration::metrics)
+        .map(IdMetrics::attributePolicy)
+        .orElseGet(IdMetricsAttributePolicy::defaults);
+
+    final var metrics = new IdMetricsService(this.telemetry, metricsPolicy);
     services.register(IdMetricsServiceType.class, metrics);
 
     services.register(
@@ -274,35 +287,88 @@ public final class IdServer implements IdServerType
     services.register(IdSessionUserService.class, sessionUserService);
 
     final var config =
-      new IdServerConfigurationService(metrics, this.configuration);
+      new IdServerConfigurationService(this.configuration);
     services.register(IdServerConfigurationService.class, config);
 
     final var clock = new IdServerClock(this.configuration.clock());
     services.register(IdServerClock.class, clock);
 
-    final var userLoginRateLimitService =
-      IdRateLimitUserLoginService.create(
-        metrics,
-        this.configuration.rateLimit()
-          .userLoginRateLimit()
-          .toSeconds(),
-        SECONDS
+    services.register(
+      IdHTTPRequestDeadlines.class,
+      new IdHTTPRequestDeadlines(
+        clock,
+        this.configuration.requestTimeout()
+      )
+    );
+
+    final var rateLimit =
+      this.configuration.rateLimit();
+
+    final var loginNetworkLimits =
+      new IdRateLimiterConfiguration(
+        rateLimit.loginNetworkRateLimit(),
+        rateLimit.loginNetworkBurst(),
+        rateLimit.maximumTrackedKeys()
+      );
+
+    final var loginAccountLimits =
+      new IdRateLimiterConfiguration(
+        rateLimit.loginAccountRateLimit(),
+        rateLimit.loginAccountBurst(),
+        rateLimit.maximumTrackedKeys()
       );
 
+    final var userLoginLimits =
+      new IdRateLimiterConfiguration(
+        rateLimit.userLoginRateLimit(),
+        rateLimit.userLoginBurst(),
+        rateLimit.maximumTrackedKeys()
+      );
+
+    final var userLoginRateLimitService =
+      rateLimit.shared()
+        ? IdRateLimitUserLoginService.createShared(
+          metrics,
+          newDatabase,
+          userLoginLimits,
+          loginNetworkLimits,
+          loginAccountLimits,
+          rateLimit.userLoginDelay())
+        : IdRateLimitUserLoginService.create(
+          metrics,
+          userLoginLimits,
+          loginNetworkLimits,
+          loginAccountLimits,
+          rateLimit.userLoginDelay());
+
     services.register(
       IdRateLimitUserLoginServiceType.class,
       userLoginRateLimitService
     );
 
-    final var adminLoginRateLimitService =
-      IdRateLimitAdminLoginService.create(
-        metrics,
-        this.configuration.rateLimit()
-          .userLoginRateLimit()
-          .toSeconds(),
-        SECONDS
+    final var adminLoginLimits =
+      new IdRateLimiterConfiguration(
+        rateLimit.adminLoginRateLimit(),
+        rateLimit.adminLoginBurst(),
+        rateLimit.maximumTrackedKeys()
       );
 
+    final var adminLoginRateLimitService =
+      rateLimit.shared()
+        ? IdRateLimitAdminLoginService.createShared(
+          metrics,
+          newDatabase,
+          adminLoginLimits,
+          loginNetworkLimits,
+          loginAccountLimits,
+          rateLimit.adminLoginDelay())
+        : IdRateLimitAdminLoginService.create(
+          metrics,
+          adminLoginLimits,
+          loginNetworkLimits,
+          loginAccountLimits,
+          rateLimit.adminLoginDelay());
+
     services.register(
       IdRateLimitAdminLoginServiceType.class,
       adminLoginRateLimitService
@@ -331,6 +397,40 @@ public final class IdServer implements IdServerType
       )
     );
 
+    /*
+     * Search cursors are valid for as long as an idle admin session. Without
+     * a configured secret, each server signs cursors with its own random key,
+     * and cursors cannot be followed on any other server.
+     */
+
+    final var sessions = this.configuration.sessions();
+    if (sessions.searchCursorSecret().isEmpty()) {
+      LOG.warn(
+        "No search cursor secret is configured; search cursors will only be "
+        + "accepted by this server. Servers that share a database must be "
+        + "configured with the same SearchCursorSecret."
+      );
+    }
+
+    services.register(
+      IdASearchCursorService.class,
+      IdASearchCursorService.create(
+        clock.clock(),
+        sessions.adminSessionExpiration(),
+        sessions.searchCursorSecret()
+      )
+    );
+    services.register(
+      IdASearchPrefetchService.class,
+      IdASearchPrefetchService.create(newDatabase, metrics)
+    );
+    services.register(
+      IdAUserImportHasher.class,
+      IdAUserImportHasher.create(
+        Math.max(1, Runtime.getRuntime().availableProcessors() / 2)
+      )
+    );
+
     final var templates = IdFMTemplateService.create();
     services.register(IdFMTemplateServiceType.class, templates);
 
@@ -347,29 +447,39 @@ public final class IdServer implements IdServerType
     final var idU1Messages = new IdUCB1Messages();
     services.register(IdUCB1Messages.class, idU1Messages);
 
-    final var userPasswordRateLimitService =
-      IdRateLimitPasswordResetService.create(
-        metrics,
-        this.configuration.rateLimit()
-          .passwordResetRateLimit()
-          .toSeconds(),
-        SECONDS
+    final var passwordResetLimits =
+      new IdRateLimiterConfiguration(
+        rateLimit.passwordResetRateLimit(),
+        rateLimit.passwordResetBurst(),
+        rateLimit.maximumTrackedKeys()
       );
 
+    final var userPasswordRateLimitService =
+      rateLimit.shared()
+        ? IdRateLimitPasswordResetService.createShared(
+          metrics, newDatabase, passwordResetLimits)
+        : IdRateLimitPasswordResetService.create(
+          metrics, passwordResetLimits);
+
     services.register(
       IdRateLimitPasswordResetServiceType.class,
       userPasswordRateLimitService
     );
 
-    final var emailVerificationRateLimitService =
-      IdRateLimitEmailVerificationService.create(
-        metrics,
-        this.configuration.rateLimit()
-          .emailVerificationRateLimit()
-          .toSeconds(),
-        SECONDS
+    final var emailVerificationLimits =
+      new IdRateLimiterConfiguration(
+        rateLimit.emailVerificationRateLimit(),
+        rateLimit.emailVerificationBurst(),
+        rateLimit.maximumTrackedKeys()
       );
 
+    final var emailVerificationRateLimitService =
+      rateLimit.shared()
+        ? IdRateLimitEmailVerificationService.createShared(
+          metrics, newDatabase, emailVerificationLimits)
+        : IdRateLimitEmailVerificationService.create(
+          metrics, emailVerificationLimits);
+
     services.register(
       IdRateLimitEmailVerificationServiceType.class,
       emailVerificationRateLimitService
@@ -400,6 +510,7 @@ public final class IdServer implements IdServerType
       IdMaintenanceService.create(
         clock,
         this.telemetry,
+        metrics,
         config,
         tls,
         newDatabase
@@ -36,6 +36,7 @@ module com.io7m.idstore.server.vanilla
   requires com.io7m.idstore.protocol.user.cb;
   requires com.io7m.idstore.server.admin_v1;
   requires com.io7m.idstore.server.controller;
+  requires com.io7m.idstore.server.http;
   requires com.io7m.idstore.server.service.branding;
   requires com.io7m.idstore.server.service.clock;
   requires com.io7m.idstore.server.service.configuration;
@@ -37,6 +37,7 @@ import com.io7m.idstore.shell.admin.internal.IdAShellCmdAdminSearchByEmailPrevio
 import com.io7m.idstore.shell.admin.internal.IdAShellCmdAdminSearchNext;
 import com.io7m.idstore.shell.admin.internal.IdAShellCmdAdminSearchPrevious;
 import com.io7m.idstore.shell.admin.internal.IdAShellCmdAdminUpdatePasswordExpiration;
+import com.io7m.idstore.shell.admin.internal.IdAShellCmdAuditExport;
 import com.io7m.idstore.shell.admin.internal.IdAShellCmdAuditSearchBegin;
 import com.io7m.idstore.shell.admin.internal.IdAShellCmdAuditSearchNext;
 import com.io7m.idstore.shell.admin.internal.IdAShellCmdAuditSearchPrevious;
@@ -52,9 +53,11 @@ import com.io7m.idstore.shell.admin.internal.IdAShellCmdUserBanDelete;
 import com.io7m.idstore.shell.admin.internal.IdAShellCmdUserBanGet;
 import com.io7m.idstore.shell.admin.internal.IdAShellCmdUserCreate;
 import com.io7m.idstore.shell.admin.internal.IdAShellCmdUserEmailAdd;
+import com.io7m.idstore.shell.admin.internal.IdAShellCmdUserExport;
 import com.io7m.idstore.shell.admin.internal.IdAShellCmdUserEmailRemove;
 import com.io7m.idstore.shell.admin.internal.IdAShellCmdUserGet;
 import com.io7m.idstore.shell.admin.internal.IdAShellCmdUserGetByEmail;
+import com.io7m.idstore.shell.admin.internal.IdAShellCmdUserImport;
 import com.io7m.idstore.shell.admin.internal.IdAShellCmdUserLoginHistory;
 import com.io7m.idstore.shell.admin.internal.IdAShellCmdUserSearchBegin;
 import com.io7m.idstore.shell.admin.internal.IdAShellCmdUserSearchByEmailBegin;
@@ -65,6 +68,7 @@ import com.io7m.idstore.shell.admin.internal.IdAShellCmdUserSearchPrevious;
 import com.io7m.idstore.shell.admin.internal.IdAShellCmdUserUpdatePasswordExpiration;
 import com.io7m.idstore.shell.admin.internal.IdAShellCmdVersion;
 import com.io7m.idstore.shell.admin.internal.IdAShellOptions;
+import com.io7m.idstore.shell.admin.internal.IdAShellSearchCursors;
 import com.io7m.idstore.shell.admin.internal.IdAShellTerminalHolder;
 import com.io7m.repetoir.core.RPServiceDirectory;
 import org.jline.reader.LineReaderBuilder;
@@ -130,6 +134,10 @@ public final class IdAShells implements IdAShellFactoryType
       IdAShellTerminalHolder.class,
       new IdAShellTerminalHolder(terminal)
     );
+    services.register(
+      IdAShellSearchCursors.class,
+      new IdAShellSearchCursors()
+    );
 
     final List<IdAShellCmdType> commands =
       List.of(
@@ -149,6 +157,7 @@ public final class IdAShells implements IdAShellFactoryType
         new IdAShellCmdAdminSearchNext(services),
         new IdAShellCmdAdminSearchPrevious(services),
         new IdAShellCmdAdminUpdatePasswordExpiration(services),
+        new IdAShellCmdAuditExport(services),
         new IdAShellCmdAuditSearchBegin(services),
         new IdAShellCmdAuditSearchNext(services),
         new IdAShellCmdAuditSearchPrevious(services),
@@ -163,9 +172,11 @@ public final class IdAShells implements IdAShellFactoryType
         new IdAShellCmdUserBanGet(services),
         new IdAShellCmdUserCreate(services),
         new IdAShellCmdUserEmailAdd(services),
+        new IdAShellCmdUserExport(services),
         new IdAShellCmdUserEmailRemove(services),
         new IdAShellCmdUserGet(services),
         new IdAShellCmdUserGetByEmail(services),
+        new IdAShellCmdUserImport(services),
         new IdAShellCmdUserLoginHistory(services),
         new IdAShellCmdUserSearchBegin(services),
         new IdAShellCmdUserSearchByEmailBegin(services),
@@ -0,0 +1,72 @@
+/*
+ * Copyright © 2024 Mark Raynsford <code@io7m.com> https://www.io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+
+package com.io7m.idstore.shell.admin;
+
+import java.net.URI;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.Locale;
+import java.util.Objects;
+
+/**
+ * The configuration for an import of users from a file.
+ *
+ * @param locale         The locale
+ * @param server         The server base URI
+ * @param userName       The name of the administrator used to log in
+ * @param password       The password of the administrator
+ * @param file           The file from which users will be read
+ * @param format         The file format ("csv" or "ndjson")
+ * @param batchSize      The number of users sent to the server per command
+ * @param commandTimeout The timeout for each command sent to the server
+ */
+
+public record IdAUserImportConfiguration(
+  Locale locale,
+  URI server,
+  String userName,
+  String password,
+  Path file,
+  String format,
+  int batchSize,
+  Duration commandTimeout)
+{
+  /**
+   * The configuration for an import of users from a file.
+   *
+   * @param locale         The locale
+   * @param server         The server base URI
+   * @param userName       The name of the administrator used to log in
+   * @param password       The password of the administrator
+   * @param file           The file from which users will be read
+   * @param format         The file format ("csv" or "ndjson")
+   * @param batchSize      The number of users sent to the server per command
+   * @param commandTimeout The timeout for each command sent to the server
+   */
+
+  public IdAUserImportConfiguration
+  {
+    Objects.requireNonNull(locale, "locale");
+    Objects.requireNonNull(server, "server");
+    Objects.requireNonNull(userName, "userName");
+    Objects.requireNonNull(password, "password");
+    Objects.requireNonNull(file, "file");
+    Objects.requireNonNull(format, "format");
+    Objects.requireNonNull(commandTimeout, "commandTimeout");
+  }
+}
@@ -0,0 +1,91 @@
+/*
+ * Copyright © 2024 Mark Raynsford <code@io7m.com> https://www.io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+
+package com.io7m.idstore.shell.admin;
+
+import com.io7m.idstore.admin_client.IdAClients;
+import com.io7m.idstore.admin_client.api.IdAClientConfiguration;
+import com.io7m.idstore.admin_client.api.IdAClientConnectionParameters;
+import com.io7m.idstore.shell.admin.internal.IdAUserImporter;
+
+import java.io.PrintWriter;
+import java.time.Clock;
+import java.time.Duration;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * Functions to import users from a file without an interactive shell.
+ */
+
+public final class IdAUserImports
+{
+  private IdAUserImports()
+  {
+
+  }
+
+  /**
+   * Log in to the server and import users from a file. Users that cannot be
+   * created are reported to the given output by their line in the file.
+   *
+   * @param configuration The import configuration
+   * @param output        The output to which progress is reported
+   *
+   * @return {@code true} if every user in the file was created
+   *
+   * @throws Exception On errors
+   */
+
+  public static boolean importUsers(
+    final IdAUserImportConfiguration configuration,
+    final PrintWriter output)
+    throws Exception
+  {
+    Objects.requireNonNull(configuration, "configuration");
+    Objects.requireNonNull(output, "output");
+
+    try (var client =
+           new IdAClients()
+             .create(new IdAClientConfiguration(
+               Clock.systemUTC(),
+               configuration.locale()
+             ))) {
+
+      client.connectOrThrow(
+        new IdAClientConnectionParameters(
+          configuration.userName(),
+          configuration.password(),
+          configuration.server(),
+          Map.of(),
+          Duration.ofSeconds(30L),
+          configuration.commandTimeout()
+        )
+      );
+
+      return new IdAUserImporter(
+        client,
+        configuration.commandTimeout(),
+        output
+      ).execute(
+        configuration.file(),
+        configuration.format(),
+        configuration.batchSize()
+      );
+    }
+  }
+}
@@ -71,6 +71,11 @@ public abstract class IdAShellCmdAbstract
     return this.services().requireService(IdAShellOptions.class);
   }
 
+  protected final IdAShellSearchCursors searchCursors()
+  {
+    return this.services().requireService(IdAShellSearchCursors.class);
+  }
+
   protected final RPServiceDirectoryType services()
   {
     return this.services;
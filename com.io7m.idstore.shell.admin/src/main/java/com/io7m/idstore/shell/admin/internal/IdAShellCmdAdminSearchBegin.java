@@ -157,6 +157,8 @@ public final class IdAShellCmdAdminSearchBegin
     final IdAResponseAdminSearchBegin response)
     throws Exception
   {
+    this.searchCursors()
+      .put(IdACommandAdminSearchBegin.class, response.page().cursor());
     this.formatter().formatAdmins(response.page());
   }
 }
@@ -157,6 +157,8 @@ public final class IdAShellCmdAdminSearchByEmailBegin
     final IdAResponseAdminSearchByEmailBegin response)
     throws Exception
   {
+    this.searchCursors()
+      .put(IdACommandAdminSearchByEmailBegin.class, response.page().cursor());
     this.formatter().formatAdmins(response.page());
   }
 }
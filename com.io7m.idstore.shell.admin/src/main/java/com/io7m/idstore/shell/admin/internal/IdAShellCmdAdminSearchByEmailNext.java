@@ -16,6 +16,7 @@
 
 package com.io7m.idstore.shell.admin.internal;
 
+import com.io7m.idstore.protocol.admin.IdACommandAdminSearchByEmailBegin;
 import com.io7m.idstore.protocol.admin.IdACommandAdminSearchByEmailNext;
 import com.io7m.idstore.protocol.admin.IdAResponseAdminSearchByEmailNext;
 import com.io7m.quarrel.core.QCommandContextType;
@@ -65,7 +66,9 @@ public final class IdAShellCmdAdminSearchByEmailNext
   protected IdACommandAdminSearchByEmailNext onCreateCommand(
     final QCommandContextType context)
   {
-    return new IdACommandAdminSearchByEmailNext();
+    return new IdACommandAdminSearchByEmailNext(
+      this.searchCursors().get(IdACommandAdminSearchByEmailBegin.class)
+    );
   }
 
   @Override
@@ -74,6 +77,8 @@ public final class IdAShellCmdAdminSearchByEmailNext
     final IdAResponseAdminSearchByEmailNext response)
     throws Exception
   {
+    this.searchCursors()
+      .put(IdACommandAdminSearchByEmailBegin.class, response.page().cursor());
     this.formatter().formatAdmins(response.page());
   }
 }
@@ -16,6 +16,7 @@
 
 package com.io7m.idstore.shell.admin.internal;
 
+import com.io7m.idstore.protocol.admin.IdACommandAdminSearchByEmailBegin;
 import com.io7m.idstore.protocol.admin.IdACommandAdminSearchByEmailPrevious;
 import com.io7m.idstore.protocol.admin.IdAResponseAdminSearchByEmailPrevious;
 import com.io7m.quarrel.core.QCommandContextType;
@@ -65,7 +66,9 @@ public final class IdAShellCmdAdminSearchByEmailPrevious
   protected IdACommandAdminSearchByEmailPrevious onCreateCommand(
     final QCommandContextType context)
   {
-    return new IdACommandAdminSearchByEmailPrevious();
+    return new IdACommandAdminSearchByEmailPrevious(
+      this.searchCursors().get(IdACommandAdminSearchByEmailBegin.class)
+    );
   }
 
   @Override
@@ -74,6 +77,8 @@ public final class IdAShellCmdAdminSearchByEmailPrevious
     final IdAResponseAdminSearchByEmailPrevious response)
     throws Exception
   {
+    this.searchCursors()
+      .put(IdACommandAdminSearchByEmailBegin.class, response.page().cursor());
     this.formatter().formatAdmins(response.page());
   }
 }
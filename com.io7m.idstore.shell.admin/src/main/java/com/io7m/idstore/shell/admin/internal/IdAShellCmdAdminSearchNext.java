@@ -16,6 +16,7 @@
 
 package com.io7m.idstore.shell.admin.internal;
 
+import com.io7m.idstore.protocol.admin.IdACommandAdminSearchBegin;
 import com.io7m.idstore.protocol.admin.IdACommandAdminSearchNext;
 import com.io7m.idstore.protocol.admin.IdAResponseAdminSearchNext;
 import com.io7m.quarrel.core.QCommandContextType;
@@ -65,7 +66,9 @@ public final class IdAShellCmdAdminSearchNext
   protected IdACommandAdminSearchNext onCreateCommand(
     final QCommandContextType context)
   {
-    return new IdACommandAdminSearchNext();
+    return new IdACommandAdminSearchNext(
+      this.searchCursors().get(IdACommandAdminSearchBegin.class)
+    );
   }
 
   @Override
@@ -74,6 +77,8 @@ public final class IdAShellCmdAdminSearchNext
     final IdAResponseAdminSearchNext response)
     throws Exception
   {
+    this.searchCursors()
+      .put(IdACommandAdminSearchBegin.class, response.page().cursor());
     this.formatter().formatAdmins(response.page());
   }
 }
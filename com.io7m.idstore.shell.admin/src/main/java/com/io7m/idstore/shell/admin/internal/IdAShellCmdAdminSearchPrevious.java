@@ -16,6 +16,7 @@
 
 package com.io7m.idstore.shell.admin.internal;
 
+import com.io7m.idstore.protocol.admin.IdACommandAdminSearchBegin;
 import com.io7m.idstore.protocol.admin.IdACommandAdminSearchPrevious;
 import com.io7m.idstore.protocol.admin.IdAResponseAdminSearchPrevious;
 import com.io7m.quarrel.core.QCommandContextType;
@@ -65,7 +66,9 @@ public final class IdAShellCmdAdminSearchPrevious
   protected IdACommandAdminSearchPrevious onCreateCommand(
     final QCommandContextType context)
   {
-    return new IdACommandAdminSearchPrevious();
+    return new IdACommandAdminSearchPrevious(
+      this.searchCursors().get(IdACommandAdminSearchBegin.class)
+    );
   }
 
   @Override
@@ -74,6 +77,8 @@ public final class IdAShellCmdAdminSearchPrevious
     final IdAResponseAdminSearchPrevious response)
     throws Exception
   {
+    this.searchCursors()
+      .put(IdACommandAdminSearchBegin.class, response.page().cursor());
     this.formatter().formatAdmins(response.page());
   }
 }
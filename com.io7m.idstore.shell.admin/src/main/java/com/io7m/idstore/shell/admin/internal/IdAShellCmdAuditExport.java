@@ -0,0 +1,177 @@
+/*
+ * Copyright © 2024 Mark Raynsford <code@io7m.com> https://www.io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+
+package com.io7m.idstore.shell.admin.internal;
+
+import com.io7m.idstore.model.IdAuditSearchParameters;
+import com.io7m.idstore.model.IdTimeRange;
+import com.io7m.idstore.protocol.admin.IdACommandAuditExport;
+import com.io7m.quarrel.core.QCommandContextType;
+import com.io7m.quarrel.core.QCommandMetadata;
+import com.io7m.quarrel.core.QCommandStatus;
+import com.io7m.quarrel.core.QParameterNamed01;
+import com.io7m.quarrel.core.QParameterNamed1;
+import com.io7m.quarrel.core.QParameterNamedType;
+import com.io7m.quarrel.core.QStringType.QConstant;
+import com.io7m.repetoir.core.RPServiceDirectoryType;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.OffsetDateTime;
+import java.util.List;
+import java.util.Optional;
+
+import static com.io7m.quarrel.core.QCommandStatus.SUCCESS;
+import static java.nio.charset.StandardCharsets.UTF_8;
+
+/**
+ * "audit-export"
+ */
+
+public final class IdAShellCmdAuditExport extends IdAShellCmdAbstract
+{
+  private static final QParameterNamed1<Path> FILE =
+    new QParameterNamed1<>(
+      "--file",
+      List.of(),
+      new QConstant("The file to which audit events will be written."),
+      Optional.empty(),
+      Path.class
+    );
+
+  private static final QParameterNamed1<OffsetDateTime> TIME_FROM =
+    new QParameterNamed1<>(
+      "--time-from",
+      List.of(),
+      new QConstant("Export audit events later than this date."),
+      Optional.of(IdTimeRange.largest().timeLower()),
+      OffsetDateTime.class
+    );
+
+  private static final QParameterNamed1<OffsetDateTime> TIME_TO =
+    new QParameterNamed1<>(
+      "--time-to",
+      List.of(),
+      new QConstant("Export audit events earlier than this date."),
+      Optional.of(IdTimeRange.largest().timeUpper()),
+      OffsetDateTime.class
+    );
+
+  private static final QParameterNamed01<String> OWNER =
+    new QParameterNamed01<>(
+      "--owner",
+      List.of(),
+      new QConstant("Filter events by owner."),
+      Optional.empty(),
+      String.class
+    );
+
+  private static final QParameterNamed01<String> TYPE =
+    new QParameterNamed01<>(
+      "--type",
+      List.of(),
+      new QConstant("Filter events by type."),
+      Optional.empty(),
+      String.class
+    );
+
+  private static final QParameterNamed1<Integer> FETCH_SIZE =
+    new QParameterNamed1<>(
+      "--fetch-size",
+      List.of(),
+      new QConstant("The number of events the server sends per chunk."),
+      Optional.of(Integer.valueOf(1000)),
+      Integer.class
+    );
+
+  /**
+   * Construct a command.
+   *
+   * @param inServices The service directory
+   */
+
+  public IdAShellCmdAuditExport(
+    final RPServiceDirectoryType inServices)
+  {
+    super(
+      inServices,
+      new QCommandMetadata(
+        "audit-export",
+        new QConstant("Export audit events to a file."),
+        Optional.empty()
+      )
+    );
+  }
+
+  @Override
+  public List<QParameterNamedType<?>> onListNamedParameters()
+  {
+    return List.of(
+      FETCH_SIZE,
+      FILE,
+      OWNER,
+      TIME_FROM,
+      TIME_TO,
+      TYPE
+    );
+  }
+
+  @Override
+  public QCommandStatus onExecute(
+    final QCommandContextType context)
+    throws Exception
+  {
+    final var fetchSize =
+      context.parameterValue(FETCH_SIZE).intValue();
+
+    final var parameters =
+      new IdAuditSearchParameters(
+        new IdTimeRange(
+          context.parameterValue(TIME_FROM),
+          context.parameterValue(TIME_TO)
+        ),
+        context.parameterValue(OWNER),
+        context.parameterValue(TYPE),
+        fetchSize
+      );
+
+    final var command =
+      new IdACommandAuditExport(parameters, fetchSize);
+
+    try (var writer =
+           Files.newBufferedWriter(context.parameterValue(FILE), UTF_8)) {
+      writer.write("# ID\tTime\tOwner\tType\tData");
+      writer.newLine();
+
+      this.client().exportAuditEvents(command, chunk -> {
+        for (final var audit : chunk.events()) {
+          writer.write(Long.toUnsignedString(audit.id()));
+          writer.write('\t');
+          writer.write(audit.time().toString());
+          writer.write('\t');
+          writer.write(audit.owner().toString());
+          writer.write('\t');
+          writer.write(audit.type());
+          writer.write('\t');
+          writer.write(audit.data().toString());
+          writer.newLine();
+        }
+      }, this.options().commandTimeout());
+    }
+    return SUCCESS;
+  }
+}
@@ -141,6 +141,8 @@ public final class IdAShellCmdAuditSearchBegin
     final IdAResponseAuditSearchBegin response)
     throws Exception
   {
+    this.searchCursors()
+      .put(IdACommandAuditSearchBegin.class, response.page().cursor());
     this.formatter().formatAudits(response.page());
   }
 }
@@ -16,6 +16,7 @@
 
 package com.io7m.idstore.shell.admin.internal;
 
+import com.io7m.idstore.protocol.admin.IdACommandAuditSearchBegin;
 import com.io7m.idstore.protocol.admin.IdACommandAuditSearchNext;
 import com.io7m.idstore.protocol.admin.IdAResponseAuditSearchNext;
 import com.io7m.quarrel.core.QCommandContextType;
@@ -65,7 +66,9 @@ public final class IdAShellCmdAuditSearchNext
   protected IdACommandAuditSearchNext onCreateCommand(
     final QCommandContextType context)
   {
-    return new IdACommandAuditSearchNext();
+    return new IdACommandAuditSearchNext(
+      this.searchCursors().get(IdACommandAuditSearchBegin.class)
+    );
   }
 
   @Override
@@ -74,6 +77,8 @@ public final class IdAShellCmdAuditSearchNext
     final IdAResponseAuditSearchNext response)
     throws Exception
   {
+    this.searchCursors()
+      .put(IdACommandAuditSearchBegin.class, response.page().cursor());
     this.formatter().formatAudits(response.page());
   }
 }
@@ -16,6 +16,7 @@
 
 package com.io7m.idstore.shell.admin.internal;
 
+import com.io7m.idstore.protocol.admin.IdACommandAuditSearchBegin;
 import com.io7m.idstore.protocol.admin.IdACommandAuditSearchPrevious;
 import com.io7m.idstore.protocol.admin.IdAResponseAuditSearchPrevious;
 import com.io7m.quarrel.core.QCommandContextType;
@@ -65,7 +66,9 @@ public final class IdAShellCmdAuditSearchPrevious
   protected IdACommandAuditSearchPrevious onCreateCommand(
     final QCommandContextType context)
   {
-    return new IdACommandAuditSearchPrevious();
+    return new IdACommandAuditSearchPrevious(
+      this.searchCursors().get(IdACommandAuditSearchBegin.class)
+    );
   }
 
   @Override
@@ -74,6 +77,8 @@ public final class IdAShellCmdAuditSearchPrevious
     final IdAResponseAuditSearchPrevious response)
     throws Exception
   {
+    this.searchCursors()
+      .put(IdACommandAuditSearchBegin.class, response.page().cursor());
     this.formatter().formatAudits(response.page());
   }
 }
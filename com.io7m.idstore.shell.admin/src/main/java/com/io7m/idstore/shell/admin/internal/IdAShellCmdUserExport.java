@@ -0,0 +1,193 @@
+/*
+ * Copyright © 2024 Mark Raynsford <code@io7m.com> https://www.io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+
+package com.io7m.idstore.shell.admin.internal;
+
+import com.io7m.idstore.model.IdTimeRange;
+import com.io7m.idstore.model.IdUserColumn;
+import com.io7m.idstore.model.IdUserColumnOrdering;
+import com.io7m.idstore.model.IdUserSearchParameters;
+import com.io7m.idstore.protocol.admin.IdACommandUserExport;
+import com.io7m.quarrel.core.QCommandContextType;
+import com.io7m.quarrel.core.QCommandMetadata;
+import com.io7m.quarrel.core.QCommandStatus;
+import com.io7m.quarrel.core.QParameterNamed01;
+import com.io7m.quarrel.core.QParameterNamed1;
+import com.io7m.quarrel.core.QParameterNamedType;
+import com.io7m.quarrel.core.QStringType.QConstant;
+import com.io7m.repetoir.core.RPServiceDirectoryType;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.OffsetDateTime;
+import java.util.List;
+import java.util.Optional;
+
+import static com.io7m.quarrel.core.QCommandStatus.SUCCESS;
+import static java.nio.charset.StandardCharsets.UTF_8;
+
+/**
+ * "user-export"
+ */
+
+public final class IdAShellCmdUserExport extends IdAShellCmdAbstract
+{
+  private static final QParameterNamed1<Path> FILE =
+    new QParameterNamed1<>(
+      "--file",
+      List.of(),
+      new QConstant("The file to which users will be written."),
+      Optional.empty(),
+      Path.class
+    );
+
+  private static final QParameterNamed1<OffsetDateTime> CREATED_FROM =
+    new QParameterNamed1<>(
+      "--created-from",
+      List.of(),
+      new QConstant("Export users created later than this date."),
+      Optional.of(IdTimeRange.largest().timeLower()),
+      OffsetDateTime.class
+    );
+
+  private static final QParameterNamed1<OffsetDateTime> CREATED_TO =
+    new QParameterNamed1<>(
+      "--created-to",
+      List.of(),
+      new QConstant("Export users created earlier than this date."),
+      Optional.of(IdTimeRange.largest().timeUpper()),
+      OffsetDateTime.class
+    );
+
+  private static final QParameterNamed1<OffsetDateTime> UPDATED_FROM =
+    new QParameterNamed1<>(
+      "--updated-from",
+      List.of(),
+      new QConstant("Export users updated later than this date."),
+      Optional.of(IdTimeRange.largest().timeLower()),
+      OffsetDateTime.class
+    );
+
+  private static final QParameterNamed1<OffsetDateTime> UPDATED_TO =
+    new QParameterNamed1<>(
+      "--updated-to",
+      List.of(),
+      new QConstant("Export users updated earlier than this date."),
+      Optional.of(IdTimeRange.largest().timeUpper()),
+      OffsetDateTime.class
+    );
+
+  private static final QParameterNamed01<String> QUERY =
+    new QParameterNamed01<>(
+      "--query",
+      List.of(),
+      new QConstant("Match users against this query text."),
+      Optional.empty(),
+      String.class
+    );
+
+  private static final QParameterNamed1<Integer> FETCH_SIZE =
+    new QParameterNamed1<>(
+      "--fetch-size",
+      List.of(),
+      new QConstant("The number of users the server sends per chunk."),
+      Optional.of(Integer.valueOf(1000)),
+      Integer.class
+    );
+
+  /**
+   * Construct a command.
+   *
+   * @param inServices The service directory
+   */
+
+  public IdAShellCmdUserExport(
+    final RPServiceDirectoryType inServices)
+  {
+    super(
+      inServices,
+      new QCommandMetadata(
+        "user-export",
+        new QConstant("Export users to a file."),
+        Optional.empty()
+      )
+    );
+  }
+
+  @Override
+  public List<QParameterNamedType<?>> onListNamedParameters()
+  {
+    return List.of(
+      CREATED_FROM,
+      CREATED_TO,
+      FETCH_SIZE,
+      FILE,
+      QUERY,
+      UPDATED_FROM,
+      UPDATED_TO
+    );
+  }
+
+  @Override
+  public QCommandStatus onExecute(
+    final QCommandContextType context)
+    throws Exception
+  {
+    final var fetchSize =
+      context.parameterValue(FETCH_SIZE).intValue();
+
+    final var parameters =
+      new IdUserSearchParameters(
+        new IdTimeRange(
+          context.parameterValue(CREATED_FROM),
+          context.parameterValue(CREATED_TO)
+        ),
+        new IdTimeRange(
+          context.parameterValue(UPDATED_FROM),
+          context.parameterValue(UPDATED_TO)
+        ),
+        context.parameterValue(QUERY),
+        new IdUserColumnOrdering(IdUserColumn.BY_IDNAME, true),
+        fetchSize
+      );
+
+    final var command =
+      new IdACommandUserExport(parameters, fetchSize);
+
+    try (var writer =
+           Files.newBufferedWriter(context.parameterValue(FILE), UTF_8)) {
+      writer.write("# User ID\tName\tReal Name\tCreated\tUpdated");
+      writer.newLine();
+
+      this.client().exportUsers(command, chunk -> {
+        for (final var user : chunk.users()) {
+          writer.write(user.id().toString());
+          writer.write('\t');
+          writer.write(user.idName().value());
+          writer.write('\t');
+          writer.write(user.realName().value());
+          writer.write('\t');
+          writer.write(user.timeCreated().toString());
+          writer.write('\t');
+          writer.write(user.timeUpdated().toString());
+          writer.newLine();
+        }
+      }, this.options().commandTimeout());
+    }
+    return SUCCESS;
+  }
+}
@@ -0,0 +1,114 @@
+/*
+ * Copyright © 2024 Mark Raynsford <code@io7m.com> https://www.io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+
+package com.io7m.idstore.shell.admin.internal;
+
+import com.io7m.quarrel.core.QCommandContextType;
+import com.io7m.quarrel.core.QCommandMetadata;
+import com.io7m.quarrel.core.QCommandStatus;
+import com.io7m.quarrel.core.QParameterNamed1;
+import com.io7m.quarrel.core.QParameterNamedType;
+import com.io7m.quarrel.core.QStringType.QConstant;
+import com.io7m.repetoir.core.RPServiceDirectoryType;
+
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Optional;
+
+import static com.io7m.quarrel.core.QCommandStatus.FAILURE;
+import static com.io7m.quarrel.core.QCommandStatus.SUCCESS;
+
+/**
+ * "user-import"
+ */
+
+public final class IdAShellCmdUserImport extends IdAShellCmdAbstract
+{
+  private static final QParameterNamed1<Path> FILE =
+    new QParameterNamed1<>(
+      "--file",
+      List.of(),
+      new QConstant("The file from which users will be read."),
+      Optional.empty(),
+      Path.class
+    );
+
+  private static final QParameterNamed1<String> FORMAT =
+    new QParameterNamed1<>(
+      "--format",
+      List.of(),
+      new QConstant("The file format ('csv' or 'ndjson')."),
+      Optional.of("csv"),
+      String.class
+    );
+
+  private static final QParameterNamed1<Integer> BATCH_SIZE =
+    new QParameterNamed1<>(
+      "--batch-size",
+      List.of(),
+      new QConstant("The number of users sent to the server per command."),
+      Optional.of(Integer.valueOf(1000)),
+      Integer.class
+    );
+
+  /**
+   * Construct a command.
+   *
+   * @param inServices The service directory
+   */
+
+  public IdAShellCmdUserImport(
+    final RPServiceDirectoryType inServices)
+  {
+    super(
+      inServices,
+      new QCommandMetadata(
+        "user-import",
+        new QConstant("Import users from a file."),
+        Optional.empty()
+      )
+    );
+  }
+
+  @Override
+  public List<QParameterNamedType<?>> onListNamedParameters()
+  {
+    return List.of(BATCH_SIZE, FILE, FORMAT);
+  }
+
+  @Override
+  public QCommandStatus onExecute(
+    final QCommandContextType context)
+    throws Exception
+  {
+    final var importer =
+      new IdAUserImporter(
+        this.client(),
+        this.options().commandTimeout(),
+        context.output()
+      );
+
+    final var ok =
+      importer.execute(
+        context.parameterValue(FILE),
+        context.parameterValue(FORMAT),
+        context.parameterValue(BATCH_SIZE).intValue()
+      );
+
+    return ok ? SUCCESS : FAILURE;
+  }
+}
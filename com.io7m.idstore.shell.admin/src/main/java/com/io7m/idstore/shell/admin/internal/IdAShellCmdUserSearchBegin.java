@@ -157,6 +157,8 @@ public final class IdAShellCmdUserSearchBegin
     final IdAResponseUserSearchBegin response)
     throws Exception
   {
+    this.searchCursors()
+      .put(IdACommandUserSearchBegin.class, response.page().cursor());
     this.formatter().formatUsers(response.page());
   }
 }
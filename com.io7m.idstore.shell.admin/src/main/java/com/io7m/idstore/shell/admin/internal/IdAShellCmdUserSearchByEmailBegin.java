@@ -157,6 +157,8 @@ public final class IdAShellCmdUserSearchByEmailBegin
     final IdAResponseUserSearchByEmailBegin response)
     throws Exception
   {
+    this.searchCursors()
+      .put(IdACommandUserSearchByEmailBegin.class, response.page().cursor());
     this.formatter().formatUsers(response.page());
   }
 }
@@ -16,6 +16,7 @@
 
 package com.io7m.idstore.shell.admin.internal;
 
+import com.io7m.idstore.protocol.admin.IdACommandUserSearchByEmailBegin;
 import com.io7m.idstore.protocol.admin.IdACommandUserSearchByEmailPrevious;
 import com.io7m.idstore.protocol.admin.IdAResponseUserSearchByEmailPrevious;
 import com.io7m.quarrel.core.QCommandContextType;
@@ -65,7 +66,9 @@ public final class IdAShellCmdUserSearchByEmailPrevious
   protected IdACommandUserSearchByEmailPrevious onCreateCommand(
     final QCommandContextType context)
   {
-    return new IdACommandUserSearchByEmailPrevious();
+    return new IdACommandUserSearchByEmailPrevious(
+      this.searchCursors().get(IdACommandUserSearchByEmailBegin.class)
+    );
   }
 
   @Override
@@ -74,6 +77,8 @@ public final class IdAShellCmdUserSearchByEmailPrevious
     final IdAResponseUserSearchByEmailPrevious response)
     throws Exception
   {
+    this.searchCursors()
+      .put(IdACommandUserSearchByEmailBegin.class, response.page().cursor());
     this.formatter().formatUsers(response.page());
   }
 }
@@ -16,6 +16,7 @@
 
 package com.io7m.idstore.shell.admin.internal;
 
+import com.io7m.idstore.protocol.admin.IdACommandUserSearchBegin;
 import com.io7m.idstore.protocol.admin.IdACommandUserSearchNext;
 import com.io7m.idstore.protocol.admin.IdAResponseUserSearchNext;
 import com.io7m.quarrel.core.QCommandContextType;
@@ -65,7 +66,9 @@ public final class IdAShellCmdUserSearchNext
   protected IdACommandUserSearchNext onCreateCommand(
     final QCommandContextType context)
   {
-    return new IdACommandUserSearchNext();
+    return new IdACommandUserSearchNext(
+      this.searchCursors().get(IdACommandUserSearchBegin.class)
+    );
   }
 
   @Override
@@ -74,6 +77,8 @@ public final class IdAShellCmdUserSearchNext
     final IdAResponseUserSearchNext response)
     throws Exception
   {
+    this.searchCursors()
+      .put(IdACommandUserSearchBegin.class, response.page().cursor());
     this.formatter().formatUsers(response.page());
   }
 }
@@ -16,6 +16,7 @@
 
 package com.io7m.idstore.shell.admin.internal;
 
+import com.io7m.idstore.protocol.admin.IdACommandUserSearchBegin;
 import com.io7m.idstore.protocol.admin.IdACommandUserSearchPrevious;
 import com.io7m.idstore.protocol.admin.IdAResponseUserSearchPrevious;
 import com.io7m.quarrel.core.QCommandContextType;
@@ -65,7 +66,9 @@ public final class IdAShellCmdUserSearchPrevious
   protected IdACommandUserSearchPrevious onCreateCommand(
     final QCommandContextType context)
   {
-    return new IdACommandUserSearchPrevious();
+    return new IdACommandUserSearchPrevious(
+      this.searchCursors().get(IdACommandUserSearchBegin.class)
+    );
   }
 
   @Override
@@ -74,6 +77,8 @@ public final class IdAShellCmdUserSearchPrevious
     final IdAResponseUserSearchPrevious response)
     throws Exception
   {
+    this.searchCursors()
+      .put(IdACommandUserSearchBegin.class, response.page().cursor());
     this.formatter().formatUsers(response.page());
   }
 }
@@ -0,0 +1,91 @@
+/*
+ * Copyright © 2024 Mark Raynsford <code@io7m.com> https://www.io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+
+package com.io7m.idstore.shell.admin.internal;
+
+import com.io7m.repetoir.core.RPServiceType;
+
+import java.util.Objects;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * The most recent search cursor returned by the server for each kind of
+ * search. The cursor is sent back to the server with the next/previous
+ * commands.
+ */
+
+public final class IdAShellSearchCursors implements RPServiceType
+{
+  private final ConcurrentHashMap<Class<?>, String> cursors;
+
+  /**
+   * The most recent search cursors.
+   */
+
+  public IdAShellSearchCursors()
+  {
+    this.cursors = new ConcurrentHashMap<>();
+  }
+
+  /**
+   * Record the cursor for a kind of search.
+   *
+   * @param search The command that begins the search
+   * @param cursor The cursor, if any
+   */
+
+  public void put(
+    final Class<?> search,
+    final Optional<String> cursor)
+  {
+    Objects.requireNonNull(search, "search");
+    Objects.requireNonNull(cursor, "cursor");
+
+    cursor.ifPresentOrElse(
+      c -> this.cursors.put(search, c),
+      () -> this.cursors.remove(search)
+    );
+  }
+
+  /**
+   * @param search The command that begins the search
+   *
+   * @return The most recent cursor for the given kind of search, or the
+   * empty string if no search has begun
+   */
+
+  public String get(
+    final Class<?> search)
+  {
+    Objects.requireNonNull(search, "search");
+    return this.cursors.getOrDefault(search, "");
+  }
+
+  @Override
+  public String description()
+  {
+    return "Shell search cursor service.";
+  }
+
+  @Override
+  public String toString()
+  {
+    return "[IdAShellSearchCursors 0x%s]"
+      .formatted(Long.toUnsignedString(this.hashCode(), 16));
+  }
+}
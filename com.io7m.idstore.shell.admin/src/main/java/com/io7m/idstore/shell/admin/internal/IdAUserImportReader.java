@@ -0,0 +1,433 @@
+/*
+ * Copyright © 2024 Mark Raynsford <code@io7m.com> https://www.io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+
+package com.io7m.idstore.shell.admin.internal;
+
+import com.io7m.idstore.model.IdEmail;
+import com.io7m.idstore.model.IdName;
+import com.io7m.idstore.model.IdPassword;
+import com.io7m.idstore.model.IdPasswordAlgorithms;
+import com.io7m.idstore.model.IdPasswordException;
+import com.io7m.idstore.model.IdRealName;
+import com.io7m.idstore.model.IdValidityException;
+import com.io7m.idstore.protocol.admin.IdAUserImport;
+import com.io7m.idstore.protocol.admin.IdAUserImportPasswordHashed;
+import com.io7m.idstore.protocol.admin.IdAUserImportPasswordPlain;
+import com.io7m.idstore.protocol.admin.IdAUserImportPasswordType;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.UUID;
+
+/**
+ * A reader of users to be imported. Users are read one per line, either
+ * from CSV (with a header line naming the columns) or from newline-delimited
+ * JSON objects. Each user has the fields {@code id} (optional),
+ * {@code name}, {@code real-name}, {@code email}, and either a plaintext
+ * {@code password}, or a {@code password-algorithm}, {@code password-hash},
+ * and {@code password-salt}.
+ */
+
+final class IdAUserImportReader
+{
+  private final BufferedReader reader;
+  private final Format format;
+  private List<String> header;
+  private long line;
+
+  /**
+   * The supported input formats.
+   */
+
+  enum Format
+  {
+    /**
+     * Comma-separated values, with a header line.
+     */
+
+    CSV,
+
+    /**
+     * Newline-delimited JSON objects.
+     */
+
+    NDJSON
+  }
+
+  /**
+   * A line of input.
+   */
+
+  sealed interface LineType
+  {
+    /**
+     * @return The line number
+     */
+
+    long line();
+  }
+
+  /**
+   * A line that yielded a user.
+   *
+   * @param line The line number
+   * @param user The user
+   */
+
+  record Parsed(long line, IdAUserImport user)
+    implements LineType
+  {
+
+  }
+
+  /**
+   * A line that could not be parsed.
+   *
+   * @param line    The line number
+   * @param message The reason the line could not be parsed
+   */
+
+  record Invalid(long line, String message)
+    implements LineType
+  {
+
+  }
+
+  /**
+   * A reader of users to be imported.
+   *
+   * @param inReader The underlying reader
+   * @param inFormat The input format
+   */
+
+  IdAUserImportReader(
+    final BufferedReader inReader,
+    final Format inFormat)
+  {
+    this.reader =
+      Objects.requireNonNull(inReader, "reader");
+    this.format =
+      Objects.requireNonNull(inFormat, "format");
+    this.line = 0L;
+  }
+
+  /**
+   * Read the next line that contains a user. Blank lines are skipped.
+   *
+   * @return The next line, or nothing at the end of the input
+   *
+   * @throws IOException On I/O errors
+   */
+
+  Optional<LineType> next()
+    throws IOException
+  {
+    while (true) {
+      final var text = this.reader.readLine();
+      if (text == null) {
+        return Optional.empty();
+      }
+      ++this.line;
+
+      if (text.isBlank()) {
+        continue;
+      }
+
+      try {
+        switch (this.format) {
+          case CSV -> {
+            final var values = parseCSV(text);
+            if (this.header == null) {
+              this.header = values;
+              continue;
+            }
+            if (values.size() != this.header.size()) {
+              throw new IllegalArgumentException(
+                "Expected %d values, but found %d."
+                  .formatted(
+                    Integer.valueOf(this.header.size()),
+                    Integer.valueOf(values.size()))
+              );
+            }
+            final var fields = new HashMap<String, String>();
+            for (int index = 0; index < values.size(); ++index) {
+              fields.put(this.header.get(index), values.get(index));
+            }
+            return Optional.of(new Parsed(this.line, toUser(fields)));
+          }
+          case NDJSON -> {
+            return Optional.of(new Parsed(this.line, toUser(parseJSON(text))));
+          }
+        }
+      } catch (final IllegalArgumentException
+                     | IdValidityException
+                     | IdPasswordException e) {
+        return Optional.of(new Invalid(this.line, e.getMessage()));
+      }
+    }
+  }
+
+  private static IdAUserImport toUser(
+    final Map<String, String> fields)
+    throws IdPasswordException
+  {
+    final var id =
+      Optional.ofNullable(fields.get("id"))
+        .filter(s -> !s.isEmpty())
+        .map(UUID::fromString);
+
+    return new IdAUserImport(
+      id,
+      new IdName(required(fields, "name")),
+      new IdRealName(required(fields, "real-name")),
+      new IdEmail(required(fields, "email")),
+      toPassword(fields)
+    );
+  }
+
+  private static IdAUserImportPasswordType toPassword(
+    final Map<String, String> fields)
+    throws IdPasswordException
+  {
+    final var plain = fields.get("password");
+    if (plain != null && !plain.isEmpty()) {
+      return new IdAUserImportPasswordPlain(plain);
+    }
+
+    return new IdAUserImportPasswordHashed(
+      new IdPassword(
+        IdPasswordAlgorithms.parse(required(fields, "password-algorithm")),
+        required(fields, "password-hash").toUpperCase(Locale.ROOT),
+        required(fields, "password-salt").toUpperCase(Locale.ROOT),
+        Optional.empty()
+      )
+    );
+  }
+
+  private static String required(
+    final Map<String, String> fields,
+    final String name)
+  {
+    final var value = fields.get(name);
+    if (value == null || value.isEmpty()) {
+      throw new IllegalArgumentException(
+        "The field '%s' is required.".formatted(name)
+      );
+    }
+    return value;
+  }
+
+  /**
+   * Parse a single line of CSV. Values may be quoted, and a doubled quote
+   * within a quoted value denotes a single quote. Values cannot span lines.
+   */
+
+  private static List<String> parseCSV(
+    final String text)
+  {
+    final var values = new ArrayList<String>();
+    final var value = new StringBuilder();
+    var quoted = false;
+
+    for (int index = 0; index < text.length(); ++index) {
+      final var c = text.charAt(index);
+      if (quoted) {
+        if (c == '"') {
+          if (index + 1 < text.length() && text.charAt(index + 1) == '"') {
+            value.append('"');
+            ++index;
+          } else {
+            quoted = false;
+          }
+        } else {
+          value.append(c);
+        }
+      } else if (c == '"') {
+        quoted = true;
+      } else if (c == ',') {
+        values.add(value.toString());
+        value.setLength(0);
+      } else {
+        value.append(c);
+      }
+    }
+
+    if (quoted) {
+      throw new IllegalArgumentException("Unterminated quoted value.");
+    }
+    values.add(value.toString());
+    return values;
+  }
+
+  /**
+   * Parse a single JSON object whose values are all strings or null.
+   * Null values are treated as absent.
+   */
+
+  private static Map<String, String> parseJSON(
+    final String text)
+  {
+    final var parser = new JSONObjectParser(text);
+    return parser.parse();
+  }
+
+  private static final class JSONObjectParser
+  {
+    private final String text;
+    private int index;
+
+    JSONObjectParser(
+      final String inText)
+    {
+      this.text = inText;
+      this.index = 0;
+    }
+
+    Map<String, String> parse()
+    {
+      final var fields = new HashMap<String, String>();
+
+      this.skipSpace();
+      this.expect('{');
+      this.skipSpace();
+      if (this.peek() == '}') {
+        ++this.index;
+        return this.finish(fields);
+      }
+
+      while (true) {
+        this.skipSpace();
+        final var key = this.string();
+        this.skipSpace();
+        this.expect(':');
+        this.skipSpace();
+
+        if (this.text.startsWith("null", this.index)) {
+          this.index += 4;
+        } else if (this.peek() == '"') {
+          fields.put(key, this.string());
+        } else {
+          throw this.error("Values must be strings or null.");
+        }
+
+        this.skipSpace();
+        final var c = this.peek();
+        ++this.index;
+        if (c == '}') {
+          return this.finish(fields);
+        }
+        if (c != ',') {
+          throw this.error("Expected ',' or '}'.");
+        }
+      }
+    }
+
+    private Map<String, String> finish(
+      final Map<String, String> fields)
+    {
+      this.skipSpace();
+      if (this.index != this.text.length()) {
+        throw this.error("Unexpected text after the object.");
+      }
+      return fields;
+    }
+
+    private String string()
+    {
+      this.expect('"');
+      final var value = new StringBuilder();
+      while (true) {
+        final var c = this.peek();
+        ++this.index;
+        switch (c) {
+          case '"' -> {
+            return value.toString();
+          }
+          case '\\' -> {
+            final var e = this.peek();
+            ++this.index;
+            switch (e) {
+              case '"', '\\', '/' -> value.append(e);
+              case 'b' -> value.append('\b');
+              case 'f' -> value.append('\f');
+              case 'n' -> value.append('\n');
+              case 'r' -> value.append('\r');
+              case 't' -> value.append('\t');
+              case 'u' -> {
+                if (this.index + 4 > this.text.length()) {
+                  throw this.error("Truncated unicode escape.");
+                }
+                final var hex =
+                  this.text.substring(this.index, this.index + 4);
+                try {
+                  value.append((char) HexFormat.fromHexDigits(hex));
+                } catch (final IllegalArgumentException ex) {
+                  throw this.error("Invalid unicode escape.");
+                }
+                this.index += 4;
+              }
+              default -> throw this.error("Invalid escape.");
+            }
+          }
+          default -> value.append(c);
+        }
+      }
+    }
+
+    private void expect(
+      final char c)
+    {
+      if (this.peek() != c) {
+        throw this.error("Expected '%c'.".formatted(Character.valueOf(c)));
+      }
+      ++this.index;
+    }
+
+    private char peek()
+    {
+      if (this.index >= this.text.length()) {
+        throw this.error("Unexpected end of line.");
+      }
+      return this.text.charAt(this.index);
+    }
+
+    private void skipSpace()
+    {
+      while (this.index < this.text.length()
+             && Character.isWhitespace(this.text.charAt(this.index))) {
+        ++this.index;
+      }
+    }
+
+    private IllegalArgumentException error(
+      final String message)
+    {
+      return new IllegalArgumentException(
+        "Invalid JSON at column %d: %s"
+          .formatted(Integer.valueOf(this.index + 1), message)
+      );
+    }
+  }
+}
@@ -0,0 +1,186 @@
+/*
+ * Copyright © 2024 Mark Raynsford <code@io7m.com> https://www.io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+
+package com.io7m.idstore.shell.admin.internal;
+
+import com.io7m.idstore.admin_client.api.IdAClientType;
+import com.io7m.idstore.protocol.admin.IdACommandUserImport;
+import com.io7m.idstore.shell.admin.internal.IdAUserImportReader.Format;
+import com.io7m.idstore.shell.admin.internal.IdAUserImportReader.Invalid;
+import com.io7m.idstore.shell.admin.internal.IdAUserImportReader.Parsed;
+
+import java.io.PrintWriter;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Objects;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+
+/**
+ * Import users from a file by sending them to the server in batches. Users
+ * that cannot be created are reported by their line in the input file. This
+ * is shared by the shell's {@code user-import} command and the
+ * {@code idstore user-import} command.
+ */
+
+public final class IdAUserImporter
+{
+  private final IdAClientType client;
+  private final Duration commandTimeout;
+  private final PrintWriter output;
+
+  /**
+   * Import users from a file.
+   *
+   * @param inClient         A connected client
+   * @param inCommandTimeout The timeout for each command sent to the server
+   * @param inOutput         The output to which progress is reported
+   */
+
+  public IdAUserImporter(
+    final IdAClientType inClient,
+    final Duration inCommandTimeout,
+    final PrintWriter inOutput)
+  {
+    this.client =
+      Objects.requireNonNull(inClient, "client");
+    this.commandTimeout =
+      Objects.requireNonNull(inCommandTimeout, "commandTimeout");
+    this.output =
+      Objects.requireNonNull(inOutput, "output");
+  }
+
+  /**
+   * Import users from the given file.
+   *
+   * @param file      The file
+   * @param format    The file format ("csv" or "ndjson")
+   * @param batchSize The number of users sent to the server per command
+   *
+   * @return {@code true} if every user in the file was created
+   *
+   * @throws Exception On errors
+   */
+
+  public boolean execute(
+    final Path file,
+    final String format,
+    final int batchSize)
+    throws Exception
+  {
+    Objects.requireNonNull(file, "file");
+    Objects.requireNonNull(format, "format");
+
+    final var fileFormat =
+      Format.valueOf(format.toUpperCase(Locale.ROOT));
+
+    if (batchSize <= 0) {
+      throw new IllegalArgumentException(
+        "Batch size %d must be positive."
+          .formatted(Integer.valueOf(batchSize))
+      );
+    }
+
+    final var batch =
+      new ArrayList<Parsed>(batchSize);
+
+    long created = 0L;
+    long failed = 0L;
+
+    try (var reader = Files.newBufferedReader(file, UTF_8)) {
+      final var input = new IdAUserImportReader(reader, fileFormat);
+
+      while (true) {
+        final var next = input.next();
+        if (next.isEmpty()) {
+          break;
+        }
+
+        switch (next.get()) {
+          case final Parsed parsed -> {
+            batch.add(parsed);
+            if (batch.size() >= batchSize) {
+              final var sent = this.send(file, batch);
+              created += sent;
+              failed += batch.size() - sent;
+              batch.clear();
+            }
+          }
+          case final Invalid invalid -> {
+            this.output.printf(
+              "%s:%d: %s%n",
+              file,
+              Long.valueOf(invalid.line()),
+              invalid.message()
+            );
+            ++failed;
+          }
+        }
+      }
+
+      if (!batch.isEmpty()) {
+        final var sent = this.send(file, batch);
+        created += sent;
+        failed += batch.size() - sent;
+      }
+    }
+
+    this.output.printf(
+      "Created %d users, %d failed.%n",
+      Long.valueOf(created),
+      Long.valueOf(failed)
+    );
+    this.output.flush();
+    return failed == 0L;
+  }
+
+  /**
+   * Send a batch of users to the server, and report each user that could
+   * not be created by its line in the input file.
+   *
+   * @return The number of users created
+   */
+
+  private int send(
+    final Path file,
+    final List<Parsed> batch)
+    throws Exception
+  {
+    final var response =
+      this.client.sendAndWaitOrThrow(
+        new IdACommandUserImport(
+          batch.stream().map(Parsed::user).toList()
+        ),
+        this.commandTimeout
+      );
+
+    for (final var error : response.errors()) {
+      this.output.printf(
+        "%s:%d: %s: %s%n",
+        file,
+        Long.valueOf(batch.get(error.index()).line()),
+        error.errorCode().id(),
+        error.message()
+      );
+    }
+    return response.created();
+  }
+}
@@ -283,8 +283,9 @@ public final class IdAFormatterPretty implements IdAFormatterType
     final PrintWriter out)
   {
     out.printf(
-      " Page %s of %s, offset %s%n",
+      " Page %s of %s%s, offset %s%n",
       Integer.toUnsignedString(page.pageIndex()),
+      page.pageCountApproximate() ? "~" : "",
       Integer.toUnsignedString(page.pageCount()),
       Long.toUnsignedString(page.pageFirstOffset())
     );
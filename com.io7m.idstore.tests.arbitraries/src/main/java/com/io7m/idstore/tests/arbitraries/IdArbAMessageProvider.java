@@ -31,9 +31,11 @@ import com.io7m.idstore.model.IdName;
 import com.io7m.idstore.model.IdPage;
 import com.io7m.idstore.model.IdShortHumanToken;
 import com.io7m.idstore.model.IdUser;
+import com.io7m.idstore.model.IdUserImportError;
 import com.io7m.idstore.model.IdUserSearchByEmailParameters;
 import com.io7m.idstore.model.IdUserSearchParameters;
 import com.io7m.idstore.model.IdUserSummary;
+import com.io7m.idstore.protocol.admin.IdABatchTransactionMode;
 import com.io7m.idstore.protocol.admin.IdACommandAdminBanCreate;
 import com.io7m.idstore.protocol.admin.IdACommandAdminBanDelete;
 import com.io7m.idstore.protocol.admin.IdACommandAdminBanGet;
@@ -54,12 +56,15 @@ import com.io7m.idstore.protocol.admin.IdACommandAdminSearchPrevious;
 import com.io7m.idstore.protocol.admin.IdACommandAdminSelf;
 import com.io7m.idstore.protocol.admin.IdACommandAdminUpdateCredentials;
 import com.io7m.idstore.protocol.admin.IdACommandAdminUpdatePasswordExpiration;
+import com.io7m.idstore.protocol.admin.IdACommandAuditExport;
 import com.io7m.idstore.protocol.admin.IdACommandAuditSearchBegin;
 import com.io7m.idstore.protocol.admin.IdACommandAuditSearchNext;
 import com.io7m.idstore.protocol.admin.IdACommandAuditSearchPrevious;
+import com.io7m.idstore.protocol.admin.IdACommandBatch;
 import com.io7m.idstore.protocol.admin.IdACommandLogin;
 import com.io7m.idstore.protocol.admin.IdACommandMailTest;
 import com.io7m.idstore.protocol.admin.IdACommandMaintenanceModeSet;
+import com.io7m.idstore.protocol.admin.IdACommandType;
 import com.io7m.idstore.protocol.admin.IdACommandUserBanCreate;
 import com.io7m.idstore.protocol.admin.IdACommandUserBanDelete;
 import com.io7m.idstore.protocol.admin.IdACommandUserBanGet;
@@ -67,8 +72,10 @@ import com.io7m.idstore.protocol.admin.IdACommandUserCreate;
 import com.io7m.idstore.protocol.admin.IdACommandUserDelete;
 import com.io7m.idstore.protocol.admin.IdACommandUserEmailAdd;
 import com.io7m.idstore.protocol.admin.IdACommandUserEmailRemove;
+import com.io7m.idstore.protocol.admin.IdACommandUserExport;
 import com.io7m.idstore.protocol.admin.IdACommandUserGet;
 import com.io7m.idstore.protocol.admin.IdACommandUserGetByEmail;
+import com.io7m.idstore.protocol.admin.IdACommandUserImport;
 import com.io7m.idstore.protocol.admin.IdACommandUserLoginHistory;
 import com.io7m.idstore.protocol.admin.IdACommandUserSearchBegin;
 import com.io7m.idstore.protocol.admin.IdACommandUserSearchByEmailBegin;
@@ -97,20 +104,25 @@ import com.io7m.idstore.protocol.admin.IdAResponseAdminSearchNext;
 import com.io7m.idstore.protocol.admin.IdAResponseAdminSearchPrevious;
 import com.io7m.idstore.protocol.admin.IdAResponseAdminSelf;
 import com.io7m.idstore.protocol.admin.IdAResponseAdminUpdate;
+import com.io7m.idstore.protocol.admin.IdAResponseAuditExport;
 import com.io7m.idstore.protocol.admin.IdAResponseAuditSearchBegin;
 import com.io7m.idstore.protocol.admin.IdAResponseAuditSearchNext;
 import com.io7m.idstore.protocol.admin.IdAResponseAuditSearchPrevious;
+import com.io7m.idstore.protocol.admin.IdAResponseBatch;
 import com.io7m.idstore.protocol.admin.IdAResponseBlame;
 import com.io7m.idstore.protocol.admin.IdAResponseError;
 import com.io7m.idstore.protocol.admin.IdAResponseLogin;
 import com.io7m.idstore.protocol.admin.IdAResponseMailTest;
 import com.io7m.idstore.protocol.admin.IdAResponseMaintenanceModeSet;
+import com.io7m.idstore.protocol.admin.IdAResponseType;
 import com.io7m.idstore.protocol.admin.IdAResponseUserBanCreate;
 import com.io7m.idstore.protocol.admin.IdAResponseUserBanDelete;
 import com.io7m.idstore.protocol.admin.IdAResponseUserBanGet;
 import com.io7m.idstore.protocol.admin.IdAResponseUserCreate;
 import com.io7m.idstore.protocol.admin.IdAResponseUserDelete;
+import com.io7m.idstore.protocol.admin.IdAResponseUserExport;
 import com.io7m.idstore.protocol.admin.IdAResponseUserGet;
+import com.io7m.idstore.protocol.admin.IdAResponseUserImport;
 import com.io7m.idstore.protocol.admin.IdAResponseUserLoginHistory;
 import com.io7m.idstore.protocol.admin.IdAResponseUserSearchBegin;
 import com.io7m.idstore.protocol.admin.IdAResponseUserSearchByEmailBegin;
@@ -119,6 +131,10 @@ import com.io7m.idstore.protocol.admin.IdAResponseUserSearchByEmailPrevious;
 import com.io7m.idstore.protocol.admin.IdAResponseUserSearchNext;
 import com.io7m.idstore.protocol.admin.IdAResponseUserSearchPrevious;
 import com.io7m.idstore.protocol.admin.IdAResponseUserUpdate;
+import com.io7m.idstore.protocol.admin.IdAUserImport;
+import com.io7m.idstore.protocol.admin.IdAUserImportPasswordHashed;
+import com.io7m.idstore.protocol.admin.IdAUserImportPasswordPlain;
+import com.io7m.idstore.protocol.admin.IdAUserImportPasswordType;
 import net.jqwik.api.Arbitraries;
 import net.jqwik.api.Arbitrary;
 import net.jqwik.api.Combinators;
@@ -126,6 +142,7 @@ import net.jqwik.api.providers.TypeUsage;
 
 import java.time.OffsetDateTime;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Optional;
 import java.util.Set;
 import java.util.UUID;
@@ -179,9 +196,11 @@ public final class IdArbAMessageProvider extends IdArbAbstractProvider
       commandAdminSelf(),
       commandAdminUpdate(),
       commandAdminUpdatePasswordExpiration(),
+      commandAuditExport(),
       commandAuditSearchBegin(),
       commandAuditSearchNext(),
       commandAuditSearchPrevious(),
+      commandBatch(),
       commandLogin(),
       commandMailTest(),
       commandMaintenanceModeSet(),
@@ -192,8 +211,10 @@ public final class IdArbAMessageProvider extends IdArbAbstractProvider
       commandUserDelete(),
       commandUserEmailAdd(),
       commandUserEmailRemove(),
+      commandUserExport(),
       commandUserGet(),
       commandUserGetByEmail(),
+      commandUserImport(),
       commandUserLoginHistory(),
       commandUserSearchBegin(),
       commandUserSearchByEmailBegin(),
@@ -217,9 +238,11 @@ public final class IdArbAMessageProvider extends IdArbAbstractProvider
       responseAdminSearchPrevious(),
       responseAdminSelf(),
       responseAdminUpdate(),
+      responseAuditExport(),
       responseAuditSearchBegin(),
       responseAuditSearchNext(),
       responseAuditSearchPrevious(),
+      responseBatch(),
       responseError(),
       responseLogin(),
       responseMailTest(),
@@ -229,7 +252,9 @@ public final class IdArbAMessageProvider extends IdArbAbstractProvider
       responseUserBanGet(),
       responseUserCreate(),
       responseUserDelete(),
+      responseUserExport(),
       responseUserGet(),
+      responseUserImport(),
       responseUserLoginHistory(),
       responseUserSearchBegin(),
       responseUserSearchByEmailBegin(),
@@ -241,6 +266,161 @@ public final class IdArbAMessageProvider extends IdArbAbstractProvider
     );
   }
 
+  /**
+   * @return A message arbitrary
+   */
+
+  public static Arbitrary<IdACommandBatch> commandBatch()
+  {
+    final var a_mode =
+      Arbitraries.of(IdABatchTransactionMode.class);
+    final var a_commands =
+      Arbitraries.<IdACommandType<?>>oneOf(List.of(
+        commandAdminBanCreate(),
+        commandAdminGet(),
+        commandAdminPermissionGrant(),
+        commandAdminSearchNext(),
+        commandAuditSearchBegin(),
+        commandMaintenanceModeSet(),
+        commandUserBanCreate(),
+        commandUserCreate(),
+        commandUserDelete(),
+        commandUserUpdatePasswordExpiration()
+      )).list().ofMaxSize(8);
+
+    return Combinators.combine(a_mode, a_commands)
+      .as(IdACommandBatch::new);
+  }
+
+  /**
+   * @return A message arbitrary
+   */
+
+  public static Arbitrary<IdAResponseBatch> responseBatch()
+  {
+    final var a_id =
+      Arbitraries.defaultFor(UUID.class);
+    final var a_committed =
+      Arbitraries.of(Boolean.TRUE, Boolean.FALSE);
+    final var a_results =
+      Arbitraries.<IdAResponseType>oneOf(List.of(
+        responseAdminBanCreate(),
+        responseAdminGet(),
+        responseAdminUpdate(),
+        responseAuditSearchBegin(),
+        responseError(),
+        responseMaintenanceModeSet(),
+        responseUserBanCreate(),
+        responseUserCreate(),
+        responseUserDelete(),
+        responseUserUpdate()
+      )).list().ofMaxSize(8);
+
+    return Combinators.combine(a_id, a_committed, a_results)
+      .as(IdAResponseBatch::new);
+  }
+
+  /**
+   * @return A message arbitrary
+   */
+
+  public static Arbitrary<IdACommandAuditExport> commandAuditExport()
+  {
+    return Combinators.combine(
+      Arbitraries.defaultFor(IdAuditSearchParameters.class),
+      Arbitraries.integers().between(1, 10000)
+    ).as(IdACommandAuditExport::new);
+  }
+
+  /**
+   * @return A message arbitrary
+   */
+
+  public static Arbitrary<IdACommandUserExport> commandUserExport()
+  {
+    return Combinators.combine(
+      Arbitraries.defaultFor(IdUserSearchParameters.class),
+      Arbitraries.integers().between(1, 10000)
+    ).as(IdACommandUserExport::new);
+  }
+
+  /**
+   * @return A message arbitrary
+   */
+
+  public static Arbitrary<IdACommandUserImport> commandUserImport()
+  {
+    final var users =
+      Combinators.combine(
+        Arbitraries.defaultFor(IdUser.class),
+        Arbitraries.of(Boolean.TRUE, Boolean.FALSE),
+        Arbitraries.strings().alpha()
+      ).as((user, hashed, text) -> {
+        final IdAUserImportPasswordType password =
+          hashed.booleanValue()
+            ? new IdAUserImportPasswordHashed(user.password())
+            : new IdAUserImportPasswordPlain(text);
+
+        return new IdAUserImport(
+          Optional.of(user.id()),
+          user.idName(),
+          user.realName(),
+          user.emails().first(),
+          password
+        );
+      });
+
+    return users.list()
+      .ofMaxSize(10)
+      .map(IdACommandUserImport::new);
+  }
+
+  /**
+   * @return A message arbitrary
+   */
+
+  public static Arbitrary<IdAResponseUserImport> responseUserImport()
+  {
+    final var errors =
+      Combinators.combine(
+        Arbitraries.integers().between(0, 10000),
+        Arbitraries.defaultFor(IdErrorCode.class),
+        Arbitraries.strings()
+      ).as(IdUserImportError::new);
+
+    return Combinators.combine(
+      Arbitraries.defaultFor(UUID.class),
+      Arbitraries.integers().between(0, 10000),
+      errors.list().ofMaxSize(10)
+    ).as(IdAResponseUserImport::new);
+  }
+
+  /**
+   * @return A message arbitrary
+   */
+
+  public static Arbitrary<IdAResponseAuditExport> responseAuditExport()
+  {
+    return Combinators.combine(
+      Arbitraries.defaultFor(UUID.class),
+      Arbitraries.defaultFor(IdAuditEvent.class).list(),
+      Arbitraries.of(Boolean.TRUE, Boolean.FALSE)
+    ).as(IdAResponseAuditExport::new);
+  }
+
+  /**
+   * @return A message arbitrary
+   */
+
+  public static Arbitrary<IdAResponseUserExport> responseUserExport()
+  {
+    return Combinators.combine(
+      Arbitraries.defaultFor(UUID.class),
+      Arbitraries.defaultFor(IdUserSummary.class).list(),
+      Arbitraries.of(Boolean.TRUE, Boolean.FALSE)
+    ).as(IdAResponseUserExport::new);
+  }
+
   /**
    * @return A message arbitrary
    */
@@ -329,16 +509,23 @@ public final class IdArbAMessageProvider extends IdArbAbstractProvider
         .list();
     final var a_i =
       Arbitraries.integers();
+    final var a_c =
+      Arbitraries.strings()
+        .optional();
+    final var a_b =
+      Arbitraries.of(Boolean.TRUE, Boolean.FALSE);
 
-    return Combinators.combine(a_id, a_s, a_i, a_i, a_i)
-      .as((id, summaries, x0, x1, x2) -> {
+    return Combinators.combine(a_id, a_s, a_i, a_i, a_i, a_c, a_b)
+      .as((id, summaries, x0, x1, x2, cursor, approximate) -> {
         return new IdAResponseUserSearchBegin(
           id,
           new IdPage<>(
             summaries,
             x0.intValue(),
             x1.intValue(),
-            x2.intValue()
+            x2.intValue(),
+            cursor,
+            approximate.booleanValue()
           )
         );
       });
@@ -357,16 +544,23 @@ public final class IdArbAMessageProvider extends IdArbAbstractProvider
         .list();
     final var a_i =
       Arbitraries.integers();
+    final var a_c =
+      Arbitraries.strings()
+        .optional();
+    final var a_b =
+      Arbitraries.of(Boolean.TRUE, Boolean.FALSE);
 
-    return Combinators.combine(a_id, a_s, a_i, a_i, a_i)
-      .as((id, summaries, x0, x1, x2) -> {
+    return Combinators.combine(a_id, a_s, a_i, a_i, a_i, a_c, a_b)
+      .as((id, summaries, x0, x1, x2, cursor, approximate) -> {
         return new IdAResponseUserSearchPrevious(
           id,
           new IdPage<>(
             summaries,
             x0.intValue(),
             x1.intValue(),
-            x2.intValue()
+            x2.intValue(),
+            cursor,
+            approximate.booleanValue()
           )
         );
       });
@@ -385,16 +579,23 @@ public final class IdArbAMessageProvider extends IdArbAbstractProvider
         .list();
     final var a_i =
       Arbitraries.integers();
+    final var a_c =
+      Arbitraries.strings()
+        .optional();
+    final var a_b =
+      Arbitraries.of(Boolean.TRUE, Boolean.FALSE);
 
-    return Combinators.combine(a_id, a_s, a_i, a_i, a_i)
-      .as((id, summaries, x0, x1, x2) -> {
+    return Combinators.combine(a_id, a_s, a_i, a_i, a_i, a_c, a_b)
+      .as((id, summaries, x0, x1, x2, cursor, approximate) -> {
         return new IdAResponseUserSearchNext(
           id,
           new IdPage<>(
             summaries,
             x0.intValue(),
             x1.intValue(),
-            x2.intValue()
+            x2.intValue(),
+            cursor,
+            approximate.booleanValue()
           )
         );
       });
@@ -574,7 +775,7 @@ public final class IdArbAMessageProvider extends IdArbAbstractProvider
 
   public static Arbitrary<IdACommandUserSearchNext> commandUserSearchNext()
   {
-    return Arbitraries.of(new IdACommandUserSearchNext());
+    return Arbitraries.strings().map(IdACommandUserSearchNext::new);
   }
 
   /**
@@ -583,7 +784,7 @@ public final class IdArbAMessageProvider extends IdArbAbstractProvider
 
   public static Arbitrary<IdACommandUserSearchPrevious> commandUserSearchPrevious()
   {
-    return Arbitraries.of(new IdACommandUserSearchPrevious());
+    return Arbitraries.strings().map(IdACommandUserSearchPrevious::new);
   }
 
   /**
@@ -602,7 +803,7 @@ public final class IdArbAMessageProvider extends IdArbAbstractProvider
 
   public static Arbitrary<IdACommandUserSearchByEmailNext> commandUserSearchByEmailNext()
   {
-    return Arbitraries.of(new IdACommandUserSearchByEmailNext());
+    return Arbitraries.strings().map(IdACommandUserSearchByEmailNext::new);
   }
 
   /**
@@ -611,7 +812,7 @@ public final class IdArbAMessageProvider extends IdArbAbstractProvider
 
   public static Arbitrary<IdACommandUserSearchByEmailPrevious> commandUserSearchByEmailPrevious()
   {
-    return Arbitraries.of(new IdACommandUserSearchByEmailPrevious());
+    return Arbitraries.strings().map(IdACommandUserSearchByEmailPrevious::new);
   }
 
   /**
@@ -669,7 +870,7 @@ public final class IdArbAMessageProvider extends IdArbAbstractProvider
 
   public static Arbitrary<IdACommandAuditSearchNext> commandAuditSearchNext()
   {
-    return Arbitraries.of(new IdACommandAuditSearchNext());
+    return Arbitraries.strings().map(IdACommandAuditSearchNext::new);
   }
 
   /**
@@ -678,7 +879,7 @@ public final class IdArbAMessageProvider extends IdArbAbstractProvider
 
   public static Arbitrary<IdACommandAuditSearchPrevious> commandAuditSearchPrevious()
   {
-    return Arbitraries.of(new IdACommandAuditSearchPrevious());
+    return Arbitraries.strings().map(IdACommandAuditSearchPrevious::new);
   }
 
   /**
@@ -723,16 +924,23 @@ public final class IdArbAMessageProvider extends IdArbAbstractProvider
         .list();
     final var a_i =
       Arbitraries.integers();
+    final var a_c =
+      Arbitraries.strings()
+        .optional();
+    final var a_b =
+      Arbitraries.of(Boolean.TRUE, Boolean.FALSE);
 
-    return Combinators.combine(a_id, a_s, a_i, a_i, a_i)
-      .as((id, summaries, x0, x1, x2) -> {
+    return Combinators.combine(a_id, a_s, a_i, a_i, a_i, a_c, a_b)
+      .as((id, summaries, x0, x1, x2, cursor, approximate) -> {
         return new IdAResponseAuditSearchBegin(
           id,
           new IdPage<>(
             summaries,
             x0.intValue(),
             x1.intValue(),
-            x2.intValue()
+            x2.intValue(),
+            cursor,
+            approximate.booleanValue()
           )
         );
       });
@@ -751,16 +959,23 @@ public final class IdArbAMessageProvider extends IdArbAbstractProvider
         .list();
     final var a_i =
       Arbitraries.integers();
+    final var a_c =
+      Arbitraries.strings()
+        .optional();
+    final var a_b =
+      Arbitraries.of(Boolean.TRUE, Boolean.FALSE);
 
-    return Combinators.combine(a_id, a_s, a_i, a_i, a_i)
-      .as((id, summaries, x0, x1, x2) -> {
+    return Combinators.combine(a_id, a_s, a_i, a_i, a_i, a_c, a_b)
+      .as((id, summaries, x0, x1, x2, cursor, approximate) -> {
         return new IdAResponseAuditSearchPrevious(
           id,
           new IdPage<>(
             summaries,
             x0.intValue(),
             x1.intValue(),
-            x2.intValue()
+            x2.intValue(),
+            cursor,
+            approximate.booleanValue()
           )
         );
       });
@@ -779,16 +994,23 @@ public final class IdArbAMessageProvider extends IdArbAbstractProvider
         .list();
     final var a_i =
       Arbitraries.integers();
+    final var a_c =
+      Arbitraries.strings()
+        .optional();
+    final var a_b =
+      Arbitraries.of(Boolean.TRUE, Boolean.FALSE);
 
-    return Combinators.combine(a_id, a_s, a_i, a_i, a_i)
-      .as((id, summaries, x0, x1, x2) -> {
+    return Combinators.combine(a_id, a_s, a_i, a_i, a_i, a_c, a_b)
+      .as((id, summaries, x0, x1, x2, cursor, approximate) -> {
         return new IdAResponseAuditSearchNext(
           id,
           new IdPage<>(
             summaries,
             x0.intValue(),
             x1.intValue(),
-            x2.intValue()
+            x2.intValue(),
+            cursor,
+            approximate.booleanValue()
           )
         );
       });
@@ -807,16 +1029,23 @@ public final class IdArbAMessageProvider extends IdArbAbstractProvider
         .list();
     final var a_i =
       Arbitraries.integers();
+    final var a_c =
+      Arbitraries.strings()
+        .optional();
+    final var a_b =
+      Arbitraries.of(Boolean.TRUE, Boolean.FALSE);
 
-    return Combinators.combine(a_id, a_s, a_i, a_i, a_i)
-      .as((id, summaries, x0, x1, x2) -> {
+    return Combinators.combine(a_id, a_s, a_i, a_i, a_i, a_c, a_b)
+      .as((id, summaries, x0, x1, x2, cursor, approximate) -> {
         return new IdAResponseUserSearchByEmailBegin(
           id,
           new IdPage<>(
             summaries,
             x0.intValue(),
             x1.intValue(),
-            x2.intValue()
+            x2.intValue(),
+            cursor,
+            approximate.booleanValue()
           )
         );
       });
@@ -835,16 +1064,23 @@ public final class IdArbAMessageProvider extends IdArbAbstractProvider
         .list();
     final var a_i =
       Arbitraries.integers();
+    final var a_c =
+      Arbitraries.strings()
+        .optional();
+    final var a_b =
+      Arbitraries.of(Boolean.TRUE, Boolean.FALSE);
 
-    return Combinators.combine(a_id, a_s, a_i, a_i, a_i)
-      .as((id, summaries, x0, x1, x2) -> {
+    return Combinators.combine(a_id, a_s, a_i, a_i, a_i, a_c, a_b)
+      .as((id, summaries, x0, x1, x2, cursor, approximate) -> {
         return new IdAResponseUserSearchByEmailPrevious(
           id,
           new IdPage<>(
             summaries,
             x0.intValue(),
             x1.intValue(),
-            x2.intValue()
+            x2.intValue(),
+            cursor,
+            approximate.booleanValue()
           )
         );
       });
@@ -863,16 +1099,23 @@ public final class IdArbAMessageProvider extends IdArbAbstractProvider
         .list();
     final var a_i =
       Arbitraries.integers();
+    final var a_c =
+      Arbitraries.strings()
+        .optional();
+    final var a_b =
+      Arbitraries.of(Boolean.TRUE, Boolean.FALSE);
 
-    return Combinators.combine(a_id, a_s, a_i, a_i, a_i)
-      .as((id, summaries, x0, x1, x2) -> {
+    return Combinators.combine(a_id, a_s, a_i, a_i, a_i, a_c, a_b)
+      .as((id, summaries, x0, x1, x2, cursor, approximate) -> {
         return new IdAResponseUserSearchByEmailNext(
           id,
           new IdPage<>(
             summaries,
             x0.intValue(),
             x1.intValue(),
-            x2.intValue()
+            x2.intValue(),
+            cursor,
+            approximate.booleanValue()
           )
         );
       });
@@ -895,7 +1138,7 @@ public final class IdArbAMessageProvider extends IdArbAbstractProvider
 
   public static Arbitrary<IdACommandAdminSearchNext> commandAdminSearchNext()
   {
-    return Arbitraries.of(new IdACommandAdminSearchNext());
+    return Arbitraries.strings().map(IdACommandAdminSearchNext::new);
   }
 
   /**
@@ -904,7 +1147,7 @@ public final class IdArbAMessageProvider extends IdArbAbstractProvider
 
   public static Arbitrary<IdACommandAdminSearchPrevious> commandAdminSearchPrevious()
   {
-    return Arbitraries.of(new IdACommandAdminSearchPrevious());
+    return Arbitraries.strings().map(IdACommandAdminSearchPrevious::new);
   }
 
   /**
@@ -923,7 +1166,7 @@ public final class IdArbAMessageProvider extends IdArbAbstractProvider
 
   public static Arbitrary<IdACommandAdminSearchByEmailNext> commandAdminSearchByEmailNext()
   {
-    return Arbitraries.of(new IdACommandAdminSearchByEmailNext());
+    return Arbitraries.strings().map(IdACommandAdminSearchByEmailNext::new);
   }
 
   /**
@@ -932,7 +1175,7 @@ public final class IdArbAMessageProvider extends IdArbAbstractProvider
 
   public static Arbitrary<IdACommandAdminSearchByEmailPrevious> commandAdminSearchByEmailPrevious()
   {
-    return Arbitraries.of(new IdACommandAdminSearchByEmailPrevious());
+    return Arbitraries.strings().map(IdACommandAdminSearchByEmailPrevious::new);
   }
 
 
@@ -949,16 +1192,23 @@ public final class IdArbAMessageProvider extends IdArbAbstractProvider
         .list();
     final var a_i =
       Arbitraries.integers();
+    final var a_c =
+      Arbitraries.strings()
+        .optional();
+    final var a_b =
+      Arbitraries.of(Boolean.TRUE, Boolean.FALSE);
 
-    return Combinators.combine(a_id, a_s, a_i, a_i, a_i)
-      .as((id, summaries, x0, x1, x2) -> {
+    return Combinators.combine(a_id, a_s, a_i, a_i, a_i, a_c, a_b)
+      .as((id, summaries, x0, x1, x2, cursor, approximate) -> {
         return new IdAResponseAdminSearchByEmailBegin(
           id,
           new IdPage<>(
             summaries,
             x0.intValue(),
             x1.intValue(),
-            x2.intValue()
+            x2.intValue(),
+            cursor,
+            approximate.booleanValue()
           )
         );
       });
@@ -977,16 +1227,23 @@ public final class IdArbAMessageProvider extends IdArbAbstractProvider
         .list();
     final var a_i =
       Arbitraries.integers();
+    final var a_c =
+      Arbitraries.strings()
+        .optional();
+    final var a_b =
+      Arbitraries.of(Boolean.TRUE, Boolean.FALSE);
 
-    return Combinators.combine(a_id, a_s, a_i, a_i, a_i)
-      .as((id, summaries, x0, x1, x2) -> {
+    return Combinators.combine(a_id, a_s, a_i, a_i, a_i, a_c, a_b)
+      .as((id, summaries, x0, x1, x2, cursor, approximate) -> {
         return new IdAResponseAdminSearchByEmailPrevious(
           id,
           new IdPage<>(
             summaries,
             x0.intValue(),
             x1.intValue(),
-            x2.intValue()
+            x2.intValue(),
+            cursor,
+            approximate.booleanValue()
           )
         );
       });
@@ -1005,16 +1262,23 @@ public final class IdArbAMessageProvider extends IdArbAbstractProvider
         .list();
     final var a_i =
       Arbitraries.integers();
+    final var a_c =
+      Arbitraries.strings()
+        .optional();
+    final var a_b =
+      Arbitraries.of(Boolean.TRUE, Boolean.FALSE);
 
-    return Combinators.combine(a_id, a_s, a_i, a_i, a_i)
-      .as((id, summaries, x0, x1, x2) -> {
+    return Combinators.combine(a_id, a_s, a_i, a_i, a_i, a_c, a_b)
+      .as((id, summaries, x0, x1, x2, cursor, approximate) -> {
         return new IdAResponseAdminSearchByEmailNext(
           id,
           new IdPage<>(
             summaries,
             x0.intValue(),
             x1.intValue(),
-            x2.intValue()
+            x2.intValue(),
+            cursor,
+            approximate.booleanValue()
           )
         );
       });
@@ -1033,16 +1297,23 @@ public final class IdArbAMessageProvider extends IdArbAbstractProvider
         .list();
     final var a_i =
       Arbitraries.integers();
+    final var a_c =
+      Arbitraries.strings()
+        .optional();
+    final var a_b =
+      Arbitraries.of(Boolean.TRUE, Boolean.FALSE);
 
-    return Combinators.combine(a_id, a_s, a_i, a_i, a_i)
-      .as((id, summaries, x0, x1, x2) -> {
+    return Combinators.combine(a_id, a_s, a_i, a_i, a_i, a_c, a_b)
+      .as((id, summaries, x0, x1, x2, cursor, approximate) -> {
         return new IdAResponseAdminSearchBegin(
           id,
           new IdPage<>(
             summaries,
             x0.intValue(),
             x1.intValue(),
-            x2.intValue()
+            x2.intValue(),
+            cursor,
+            approximate.booleanValue()
           )
         );
       });
@@ -1061,16 +1332,23 @@ public final class IdArbAMessageProvider extends IdArbAbstractProvider
         .list();
     final var a_i =
       Arbitraries.integers();
+    final var a_c =
+      Arbitraries.strings()
+        .optional();
+    final var a_b =
+      Arbitraries.of(Boolean.TRUE, Boolean.FALSE);
 
-    return Combinators.combine(a_id, a_s, a_i, a_i, a_i)
-      .as((id, summaries, x0, x1, x2) -> {
+    return Combinators.combine(a_id, a_s, a_i, a_i, a_i, a_c, a_b)
+      .as((id, summaries, x0, x1, x2, cursor, approximate) -> {
         return new IdAResponseAdminSearchPrevious(
           id,
           new IdPage<>(
             summaries,
             x0.intValue(),
             x1.intValue(),
-            x2.intValue()
+            x2.intValue(),
+            cursor,
+            approximate.booleanValue()
           )
         );
       });
@@ -1089,16 +1367,23 @@ public final class IdArbAMessageProvider extends IdArbAbstractProvider
         .list();
     final var a_i =
       Arbitraries.integers();
+    final var a_c =
+      Arbitraries.strings()
+        .optional();
+    final var a_b =
+      Arbitraries.of(Boolean.TRUE, Boolean.FALSE);
 
-    return Combinators.combine(a_id, a_s, a_i, a_i, a_i)
-      .as((id, summaries, x0, x1, x2) -> {
+    return Combinators.combine(a_id, a_s, a_i, a_i, a_i, a_c, a_b)
+      .as((id, summaries, x0, x1, x2, cursor, approximate) -> {
         return new IdAResponseAdminSearchNext(
           id,
           new IdPage<>(
             summaries,
             x0.intValue(),
             x1.intValue(),
-            x2.intValue()
+            x2.intValue(),
+            cursor,
+            approximate.booleanValue()
           )
         );
       });
@@ -0,0 +1,366 @@
+/*
+ * Copyright © 2024 Mark Raynsford <code@io7m.com> https://www.io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+
+package com.io7m.idstore.tests.benchmarks;
+
+import com.io7m.idstore.admin_client.IdAClients;
+import com.io7m.idstore.admin_client.api.IdAClientConfiguration;
+import com.io7m.idstore.admin_client.api.IdAClientConnectionParameters;
+import com.io7m.idstore.admin_client.api.IdAClientType;
+import com.io7m.idstore.model.IdAdmin;
+import com.io7m.idstore.model.IdAdminPermissionSet;
+import com.io7m.idstore.model.IdEmail;
+import com.io7m.idstore.model.IdName;
+import com.io7m.idstore.model.IdNonEmptyList;
+import com.io7m.idstore.model.IdPasswordAlgorithmRedacted;
+import com.io7m.idstore.model.IdRealName;
+import com.io7m.idstore.model.IdUser;
+import com.io7m.idstore.protocol.admin.IdACommandUserCreate;
+import com.io7m.idstore.protocol.admin.IdAResponseLogin;
+import com.io7m.idstore.protocol.admin.IdAResponseUserCreate;
+import com.io7m.idstore.protocol.admin.cb.IdACB1Messages;
+import com.io7m.verdant.core.VProtocolSupported;
+import com.io7m.verdant.core.VProtocols;
+import com.io7m.verdant.core.cb.VProtocolMessages;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.OffsetDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measure the throughput of a bulk user import driven through the admin
+ * client, comparing one-at-a-time {@code sendAndWait} calls against
+ * pipelined {@code sendAsync} calls. The client talks to a stub server that
+ * answers every command with a canned response after a configurable delay,
+ * standing in for the time the real server spends in the database, so that
+ * the benchmark measures the client rather than the server.
+ */
+
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class IdAClientBulkImportBenchmark
+{
+  private static final int USERS = 256;
+  private static final Duration TIMEOUT = Duration.ofSeconds(30L);
+
+  /**
+   * Measure the throughput of a bulk user import driven through the admin
+   * client.
+   */
+
+  public IdAClientBulkImportBenchmark()
+  {
+
+  }
+
+  /**
+   * The stub server and connected client.
+   */
+
+  @State(Scope.Benchmark)
+  public static class ClientState
+  {
+    /**
+     * The simulated server-side latency of each command, in milliseconds.
+     */
+
+    @Param({"0", "2"})
+    public int serverLatencyMillis;
+
+    /**
+     * The maximum number of requests in flight.
+     */
+
+    @Param({"16", "64"})
+    public int maximumInFlight;
+
+    private HttpServer server;
+    private IdAClientType client;
+    private List<IdACommandUserCreate> commands;
+
+    /**
+     * The stub server and connected client.
+     */
+
+    public ClientState()
+    {
+
+    }
+
+    /**
+     * Start the stub server and connect the client.
+     *
+     * @throws Exception On errors
+     */
+
+    @Setup(Level.Trial)
+    public void setup()
+      throws Exception
+    {
+      final var messages =
+        new IdACB1Messages();
+      final var password =
+        IdPasswordAlgorithmRedacted.create().createHashed("x");
+      final var now =
+        OffsetDateTime.now();
+
+      final var versions =
+        VProtocolMessages.create()
+          .serialize(
+            new VProtocols(List.of(
+              new VProtocolSupported(
+                IdACB1Messages.protocolId(),
+                1L,
+                0L,
+                "/v1/"
+              )
+            )),
+            1
+          );
+
+      final var login =
+        messages.serialize(
+          new IdAResponseLogin(
+            UUID.randomUUID(),
+            new IdAdmin(
+              UUID.randomUUID(),
+              new IdName("someone"),
+              new IdRealName("Someone"),
+              IdNonEmptyList.single(new IdEmail("someone@example.com")),
+              now,
+              now,
+              password,
+              IdAdminPermissionSet.empty()
+            )
+          )
+        );
+
+      final var created =
+        messages.serialize(
+          new IdAResponseUserCreate(
+            UUID.randomUUID(),
+            new IdUser(
+              UUID.randomUUID(),
+              new IdName("user"),
+              new IdRealName("User"),
+              IdNonEmptyList.single(new IdEmail("user@example.com")),
+              now,
+              now,
+              password
+            )
+          )
+        );
+
+      final var latency = this.serverLatencyMillis;
+      this.server =
+        HttpServer.create(
+          new InetSocketAddress(InetAddress.getLoopbackAddress(), 0),
+          1024
+        );
+      this.server.setExecutor(Executors.newVirtualThreadPerTaskExecutor());
+      this.server.createContext("/", exchange -> {
+        try (exchange) {
+          exchange.getRequestBody().readAllBytes();
+          switch (exchange.getRequestURI().getPath()) {
+            case "/" -> {
+              respond(exchange, "application/verdant+cedarbridge", versions);
+            }
+            case "/v1/login" -> {
+              respond(exchange, IdACB1Messages.contentType(), login);
+            }
+            default -> {
+              if (latency > 0) {
+                Thread.sleep(latency);
+              }
+              respond(exchange, IdACB1Messages.contentType(), created);
+            }
+          }
+        } catch (final InterruptedException e) {
+          Thread.currentThread().interrupt();
+        }
+      });
+      this.server.start();
+
+      this.client =
+        new IdAClients()
+          .create(new IdAClientConfiguration(
+            Clock.systemUTC(),
+            Locale.ROOT,
+            this.maximumInFlight
+          ));
+
+      final var address = this.server.getAddress();
+      this.client.connectOrThrow(
+        new IdAClientConnectionParameters(
+          "someone",
+          "whatever",
+          URI.create("http://%s:%d/".formatted(
+            address.getHostString(),
+            Integer.valueOf(address.getPort()))
+          ),
+          Map.of(),
+          TIMEOUT,
+          TIMEOUT
+        )
+      );
+
+      this.commands = new ArrayList<>(USERS);
+      for (int index = 0; index < USERS; ++index) {
+        final var id = UUID.randomUUID();
+        this.commands.add(
+          new IdACommandUserCreate(
+            Optional.of(id),
+            new IdName("u" + index),
+            new IdRealName("User " + index),
+            new IdEmail("%s@example.com".formatted(id)),
+            password
+          )
+        );
+      }
+    }
+
+    private static void respond(
+      final HttpExchange exchange,
+      final String contentType,
+      final byte[] data)
+      throws IOException
+    {
+      exchange.getResponseHeaders().set("Content-Type", contentType);
+      exchange.sendResponseHeaders(200, data.length);
+      exchange.getResponseBody().write(data);
+    }
+
+    /**
+     * Shut down the client and the stub server.
+     *
+     * @throws Exception On errors
+     */
+
+    @TearDown(Level.Trial)
+    public void tearDown()
+      throws Exception
+    {
+      this.client.close();
+      this.server.stop(0);
+    }
+  }
+
+  /**
+   * Import users one at a time, waiting for each response.
+   *
+   * @param state The client state
+   *
+   * @return The last response
+   *
+   * @throws Exception On errors
+   */
+
+  @Benchmark
+  @OperationsPerInvocation(USERS)
+  public IdAResponseUserCreate importSequential(
+    final ClientState state)
+    throws Exception
+  {
+    IdAResponseUserCreate last = null;
+    for (final var command : state.commands) {
+      last = state.client.sendAndWaitOrThrow(command, TIMEOUT);
+    }
+    return last;
+  }
+
+  /**
+   * Import users with many requests in flight at once.
+   *
+   * @param state The client state
+   *
+   * @return The last response
+   *
+   * @throws Exception On errors
+   */
+
+  @Benchmark
+  @OperationsPerInvocation(USERS)
+  public IdAResponseUserCreate importAsync(
+    final ClientState state)
+    throws Exception
+  {
+    final var futures =
+      new ArrayList<CompletableFuture<IdAResponseUserCreate>>(USERS);
+
+    for (final var command : state.commands) {
+      futures.add(state.client.sendAsync(command, TIMEOUT));
+    }
+
+    CompletableFuture.allOf(futures.toArray(new CompletableFuture[0]))
+      .join();
+    return futures.getLast().join();
+  }
+
+  /**
+   * Run the benchmarks.
+   *
+   * @param args The command-line arguments
+   *
+   * @throws RunnerException On errors
+   */
+
+  public static void main(
+    final String[] args)
+    throws RunnerException
+  {
+    new Runner(
+      new OptionsBuilder()
+        .include(IdAClientBulkImportBenchmark.class.getSimpleName())
+        .build()
+    ).run();
+  }
+}
@@ -0,0 +1,364 @@
+/*
+ * Copyright © 2024 Mark Raynsford <code@io7m.com> https://www.io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+
+package com.io7m.idstore.tests.benchmarks;
+
+import com.io7m.idstore.database.api.IdDatabaseAdminsQueriesType;
+import com.io7m.idstore.database.api.IdDatabaseConfiguration;
+import com.io7m.idstore.database.api.IdDatabaseCreate;
+import com.io7m.idstore.database.api.IdDatabasePoolConfiguration;
+import com.io7m.idstore.database.api.IdDatabaseTelemetry;
+import com.io7m.idstore.database.api.IdDatabaseType;
+import com.io7m.idstore.database.api.IdDatabaseUpgrade;
+import com.io7m.idstore.database.api.IdDatabaseUsersQueriesType;
+import com.io7m.idstore.database.postgres.IdDatabases;
+import com.io7m.idstore.model.IdEmail;
+import com.io7m.idstore.model.IdName;
+import com.io7m.idstore.model.IdPasswordAlgorithmRedacted;
+import com.io7m.idstore.model.IdRealName;
+import com.io7m.idstore.model.IdUser;
+import com.io7m.idstore.strings.IdStrings;
+import io.opentelemetry.api.OpenTelemetry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.OffsetDateTime;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+import static com.io7m.idstore.database.api.IdDatabaseRole.IDSTORE;
+
+/**
+ * Measure the throughput of login-shaped and command-shaped database
+ * transactions under different connection pool configurations. The
+ * benchmark requires a running PostgreSQL server with an empty
+ * {@code idstore} database owned by {@code idstore_install}, such as the
+ * container started by the test suite. The server address, port, and
+ * passwords are taken from the {@code idstore.benchmark.database.address},
+ * {@code idstore.benchmark.database.port}, and
+ * {@code idstore.benchmark.database.password} system properties.
+ */
+
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Threads(32)
+@Fork(1)
+public class IdDatabasePoolBenchmark
+{
+  private static final IdName NAME =
+    new IdName("benchmark");
+
+  /**
+   * Measure the throughput of database transactions.
+   */
+
+  public IdDatabasePoolBenchmark()
+  {
+
+  }
+
+  /**
+   * The pool configurations under test.
+   */
+
+  public enum PoolMode
+  {
+    /**
+     * A small fixed-size pool.
+     */
+
+    FIXED_4,
+
+    /**
+     * A large fixed-size pool.
+     */
+
+    FIXED_32,
+
+    /**
+     * An adaptive pool that can range between the two fixed sizes.
+     */
+
+    ADAPTIVE_4_32
+  }
+
+  /**
+   * The open database.
+   */
+
+  @State(Scope.Benchmark)
+  public static class DatabaseState
+  {
+    /**
+     * The pool configuration.
+     */
+
+    @Param({"FIXED_4", "FIXED_32", "ADAPTIVE_4_32"})
+    public PoolMode poolMode;
+
+    /**
+     * The driver's prepare threshold.
+     */
+
+    @Param({"0", "5"})
+    public int prepareThreshold;
+
+    private IdDatabaseType database;
+    private IdUser user;
+
+    /**
+     * The open database.
+     */
+
+    public DatabaseState()
+    {
+
+    }
+
+    /**
+     * Open the database and create the benchmark user.
+     *
+     * @throws Exception On errors
+     */
+
+    @Setup(Level.Trial)
+    public void setup()
+      throws Exception
+    {
+      final var password =
+        System.getProperty("idstore.benchmark.database.password", "12345678");
+
+      final var pool =
+        switch (this.poolMode) {
+          case FIXED_4 -> pool(4, 4, false);
+          case FIXED_32 -> pool(32, 32, false);
+          case ADAPTIVE_4_32 -> pool(4, 32, true);
+        };
+
+      final var configuration =
+        new IdDatabaseConfiguration(
+          "idstore_install",
+          password,
+          password,
+          Optional.empty(),
+          System.getProperty(
+            "idstore.benchmark.database.address", "127.0.0.1"),
+          Integer.parseInt(System.getProperty(
+            "idstore.benchmark.database.port", "15432")),
+          "idstore",
+          IdDatabaseCreate.CREATE_DATABASE,
+          IdDatabaseUpgrade.UPGRADE_DATABASE,
+          10_000L,
+          List.of(),
+          Duration.ofSeconds(5L),
+          pool,
+          Duration.ofSeconds(1L),
+          IdStrings.create(Locale.ROOT),
+          Clock.systemUTC()
+        );
+
+      this.database =
+        new IdDatabases()
+          .open(
+            configuration,
+            new IdDatabaseTelemetry(
+              true,
+              OpenTelemetry.noop().getMeter("x"),
+              OpenTelemetry.noop().getTracer("x")
+            ),
+            message -> {
+
+            });
+
+      this.user = this.createUser();
+    }
+
+    private IdDatabasePoolConfiguration pool(
+      final int minimum,
+      final int maximum,
+      final boolean adaptive)
+    {
+      final var defaults = IdDatabasePoolConfiguration.defaults();
+      return new IdDatabasePoolConfiguration(
+        minimum,
+        maximum,
+        adaptive,
+        defaults.connectionTimeout(),
+        defaults.maximumLifetime(),
+        this.prepareThreshold,
+        defaults.preparedStatementCacheQueries(),
+        defaults.secondaryMaximumSize()
+      );
+    }
+
+    private IdUser createUser()
+      throws Exception
+    {
+      final var password =
+        IdPasswordAlgorithmRedacted.create().createHashed("x");
+
+      try (var connection = this.database.openConnection(IDSTORE)) {
+        try (var transaction = connection.openTransaction()) {
+          final var admins =
+            transaction.queries(IdDatabaseAdminsQueriesType.class);
+          final var users =
+            transaction.queries(IdDatabaseUsersQueriesType.class);
+
+          final var existing = users.userGetForName(NAME);
+          if (existing.isPresent()) {
+            return existing.get();
+          }
+
+          final var admin =
+            admins.adminCreateInitial(
+              UUID.randomUUID(),
+              NAME,
+              new IdRealName("Benchmark"),
+              new IdEmail("admin@example.com"),
+              OffsetDateTime.now(),
+              password
+            );
+
+          transaction.adminSet(admin);
+          final var created =
+            users.userCreate(
+              UUID.randomUUID(),
+              NAME,
+              new IdRealName("Benchmark"),
+              new IdEmail("user@example.com"),
+              OffsetDateTime.now(),
+              password
+            );
+          transaction.commit();
+          return created;
+        }
+      }
+    }
+
+    /**
+     * Close the database.
+     *
+     * @throws Exception On errors
+     */
+
+    @TearDown(Level.Trial)
+    public void tearDown()
+      throws Exception
+    {
+      this.database.close();
+    }
+  }
+
+  /**
+   * The database work performed by a user login: look up the user by name,
+   * then record the login.
+   *
+   * @param state The database state
+   *
+   * @return The user
+   *
+   * @throws Exception On errors
+   */
+
+  @Benchmark
+  public IdUser login(
+    final DatabaseState state)
+    throws Exception
+  {
+    try (var connection = state.database.openConnection(IDSTORE)) {
+      try (var transaction = connection.openTransaction()) {
+        final var users =
+          transaction.queries(IdDatabaseUsersQueriesType.class);
+        final var user =
+          users.userGetForNameRequire(NAME);
+
+        transaction.userSet(user);
+        users.userLogin(user.id(), Map.of(), 100);
+        transaction.commit();
+        return user;
+      }
+    }
+  }
+
+  /**
+   * The database work performed by a simple read command.
+   *
+   * @param state The database state
+   *
+   * @return The user
+   *
+   * @throws Exception On errors
+   */
+
+  @Benchmark
+  public IdUser command(
+    final DatabaseState state)
+    throws Exception
+  {
+    try (var connection = state.database.openConnection(IDSTORE)) {
+      try (var transaction = connection.openTransaction()) {
+        final var user =
+          transaction.queries(IdDatabaseUsersQueriesType.class)
+            .userGetRequire(state.user.id());
+        transaction.commit();
+        return user;
+      }
+    }
+  }
+
+  /**
+   * Run the benchmarks.
+   *
+   * @param args The command-line arguments
+   *
+   * @throws RunnerException On errors
+   */
+
+  public static void main(
+    final String[] args)
+    throws RunnerException
+  {
+    new Runner(
+      new OptionsBuilder()
+        .include(IdDatabasePoolBenchmark.class.getSimpleName())
+        .build()
+    ).run();
+  }
+}
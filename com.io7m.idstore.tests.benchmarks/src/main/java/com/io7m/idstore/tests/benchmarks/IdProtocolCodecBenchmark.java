@@ -0,0 +1,236 @@
+/*
+ * Copyright © 2024 Mark Raynsford <code@io7m.com> https://www.io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+
+package com.io7m.idstore.tests.benchmarks;
+
+import com.io7m.idstore.model.IdEmail;
+import com.io7m.idstore.model.IdName;
+import com.io7m.idstore.model.IdNonEmptyList;
+import com.io7m.idstore.model.IdPasswordAlgorithmRedacted;
+import com.io7m.idstore.model.IdRealName;
+import com.io7m.idstore.model.IdUser;
+import com.io7m.idstore.protocol.admin.IdACommandUserCreate;
+import com.io7m.idstore.protocol.admin.IdAMessageType;
+import com.io7m.idstore.protocol.admin.IdAResponseUserCreate;
+import com.io7m.idstore.protocol.admin.cb.IdACB1Messages;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.time.OffsetDateTime;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measure the cost of decoding a command and encoding its response, as
+ * the API command handlers do for every request. The "buffered" benchmarks
+ * reproduce the old behaviour of reading the whole request into a byte
+ * array before decoding, and encoding each response into a fresh buffer;
+ * the "streamed" and "pooled" benchmarks use the current paths. Run with
+ * the GC profiler (as {@link #main(String[])} does) to see the allocation
+ * rate per operation.
+ */
+
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class IdProtocolCodecBenchmark
+{
+  /**
+   * Measure the cost of decoding a command and encoding its response.
+   */
+
+  public IdProtocolCodecBenchmark()
+  {
+
+  }
+
+  /**
+   * The messages and their encoded forms.
+   */
+
+  @State(Scope.Benchmark)
+  public static class CodecState
+  {
+    private IdACB1Messages messages;
+    private byte[] commandData;
+    private IdAResponseUserCreate response;
+
+    /**
+     * The messages and their encoded forms.
+     */
+
+    public CodecState()
+    {
+
+    }
+
+    /**
+     * Set up the messages.
+     *
+     * @throws Exception On errors
+     */
+
+    @Setup
+    public void setup()
+      throws Exception
+    {
+      this.messages =
+        new IdACB1Messages();
+
+      final var id =
+        UUID.randomUUID();
+      final var password =
+        IdPasswordAlgorithmRedacted.create().createHashed("x");
+      final var now =
+        OffsetDateTime.now();
+
+      this.commandData =
+        this.messages.serialize(
+          new IdACommandUserCreate(
+            Optional.of(id),
+            new IdName("someone"),
+            new IdRealName("Someone"),
+            new IdEmail("someone@example.com"),
+            password
+          )
+        );
+
+      this.response =
+        new IdAResponseUserCreate(
+          UUID.randomUUID(),
+          new IdUser(
+            id,
+            new IdName("someone"),
+            new IdRealName("Someone"),
+            IdNonEmptyList.single(new IdEmail("someone@example.com")),
+            now,
+            now,
+            password
+          )
+        );
+    }
+  }
+
+  /**
+   * Decode by reading the whole request into memory first.
+   *
+   * @param state The state
+   *
+   * @return The decoded message
+   *
+   * @throws Exception On errors
+   */
+
+  @Benchmark
+  public IdAMessageType decodeBuffered(
+    final CodecState state)
+    throws Exception
+  {
+    final var input = new ByteArrayInputStream(state.commandData);
+    return state.messages.parse(input.readAllBytes());
+  }
+
+  /**
+   * Decode directly from the request stream.
+   *
+   * @param state The state
+   *
+   * @return The decoded message
+   *
+   * @throws Exception On errors
+   */
+
+  @Benchmark
+  public IdAMessageType decodeStreamed(
+    final CodecState state)
+    throws Exception
+  {
+    return state.messages.parse(new ByteArrayInputStream(state.commandData));
+  }
+
+  /**
+   * Encode into a fresh, growable buffer.
+   *
+   * @param state The state
+   *
+   * @return The encoded message
+   *
+   * @throws Exception On errors
+   */
+
+  @Benchmark
+  public byte[] encodeBuffered(
+    final CodecState state)
+    throws Exception
+  {
+    final var output = new ByteArrayOutputStream();
+    state.messages.serialize(state.response, output);
+    return output.toByteArray();
+  }
+
+  /**
+   * Encode into a pooled buffer.
+   *
+   * @param state The state
+   *
+   * @return The encoded message
+   */
+
+  @Benchmark
+  public byte[] encodePooled(
+    final CodecState state)
+  {
+    return state.messages.serialize(state.response);
+  }
+
+  /**
+   * Run the benchmarks.
+   *
+   * @param args The command-line arguments
+   *
+   * @throws RunnerException On errors
+   */
+
+  public static void main(
+    final String[] args)
+    throws RunnerException
+  {
+    new Runner(
+      new OptionsBuilder()
+        .include(IdProtocolCodecBenchmark.class.getSimpleName())
+        .addProfiler(GCProfiler.class)
+        .build()
+    ).run();
+  }
+}
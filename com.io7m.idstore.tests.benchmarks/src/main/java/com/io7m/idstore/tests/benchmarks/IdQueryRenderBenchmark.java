@@ -0,0 +1,256 @@
+/*
+ * Copyright © 2024 Mark Raynsford <code@io7m.com> https://www.io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+
+package com.io7m.idstore.tests.benchmarks;
+
+import org.jooq.DSLContext;
+import org.jooq.Field;
+import org.jooq.Query;
+import org.jooq.Record;
+import org.jooq.Table;
+import org.jooq.conf.RenderNameCase;
+import org.jooq.conf.Settings;
+import org.jooq.impl.DSL;
+import org.jooq.impl.SQLDataType;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.time.OffsetDateTime;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+import static org.jooq.SQLDialect.POSTGRES;
+
+/**
+ * Measure the cost of producing the SQL text and bind values for a query,
+ * comparing queries built and rendered from the jOOQ query model on every
+ * execution against SQL rendered once and then only bound with parameters.
+ * The tables mirror the shapes of the {@code users} and {@code audit}
+ * tables; no database is required.
+ */
+
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class IdQueryRenderBenchmark
+{
+  private static final Settings SETTINGS =
+    new Settings().withRenderNameCase(RenderNameCase.LOWER);
+
+  private static final Table<Record> USERS =
+    DSL.table(DSL.name("idstore", "users"));
+  private static final Field<UUID> USERS_ID =
+    DSL.field(DSL.name("users", "id"), SQLDataType.UUID);
+  private static final List<Field<?>> USERS_FIELDS =
+    List.of(
+      USERS_ID,
+      DSL.field(DSL.name("users", "id_name"), SQLDataType.VARCHAR),
+      DSL.field(DSL.name("users", "real_name"), SQLDataType.VARCHAR),
+      DSL.field(
+        DSL.name("users", "time_created"),
+        SQLDataType.TIMESTAMPWITHTIMEZONE),
+      DSL.field(
+        DSL.name("users", "time_updated"),
+        SQLDataType.TIMESTAMPWITHTIMEZONE),
+      DSL.field(DSL.name("users", "password_algo"), SQLDataType.VARCHAR),
+      DSL.field(DSL.name("users", "password_hash"), SQLDataType.VARCHAR),
+      DSL.field(DSL.name("users", "password_salt"), SQLDataType.VARCHAR),
+      DSL.field(
+        DSL.name("users", "password_expires"),
+        SQLDataType.TIMESTAMPWITHTIMEZONE)
+    );
+
+  private static final Table<Record> AUDIT =
+    DSL.table(DSL.name("idstore", "audit"));
+  private static final Field<UUID> AUDIT_USER_ID =
+    DSL.field(DSL.name("user_id"), SQLDataType.UUID);
+  private static final Field<OffsetDateTime> AUDIT_TIME =
+    DSL.field(DSL.name("time"), SQLDataType.TIMESTAMPWITHTIMEZONE);
+  private static final Field<String> AUDIT_TYPE =
+    DSL.field(DSL.name("type"), SQLDataType.VARCHAR);
+
+  private final DSLContext context;
+  private final String userGetSQL;
+  private final String auditPutSQL;
+  private final UUID id;
+  private final OffsetDateTime time;
+
+  /**
+   * Measure the cost of producing the SQL text and bind values for a query.
+   */
+
+  public IdQueryRenderBenchmark()
+  {
+    this.context =
+      DSL.using(POSTGRES, SETTINGS);
+    this.id =
+      UUID.randomUUID();
+    this.time =
+      OffsetDateTime.now();
+
+    this.userGetSQL =
+      this.context.render(
+        DSL.select(USERS_FIELDS)
+          .from(USERS)
+          .where(USERS_ID.eq(DSL.param("id", SQLDataType.UUID)))
+      );
+
+    this.auditPutSQL =
+      this.context.render(
+        DSL.insertInto(AUDIT)
+          .set(AUDIT_TIME, DSL.param("time", AUDIT_TIME.getDataType()))
+          .set(AUDIT_TYPE, DSL.param("type", AUDIT_TYPE.getDataType()))
+          .set(AUDIT_USER_ID, DSL.param("user", AUDIT_USER_ID.getDataType()))
+      );
+  }
+
+  private static void consume(
+    final Query query,
+    final Blackhole blackhole)
+  {
+    blackhole.consume(query.getSQL());
+    blackhole.consume(query.getBindValues());
+  }
+
+  /**
+   * Build and render a user lookup on every execution, using a new context
+   * each time as every query method formerly did.
+   *
+   * @param blackhole The blackhole
+   */
+
+  @Benchmark
+  public void userGetNewContext(
+    final Blackhole blackhole)
+  {
+    consume(
+      DSL.using(POSTGRES, SETTINGS)
+        .select(USERS_FIELDS)
+        .from(USERS)
+        .where(USERS_ID.eq(this.id)),
+      blackhole
+    );
+  }
+
+  /**
+   * Build and render a user lookup on every execution.
+   *
+   * @param blackhole The blackhole
+   */
+
+  @Benchmark
+  public void userGetRendered(
+    final Blackhole blackhole)
+  {
+    consume(
+      this.context.select(USERS_FIELDS)
+        .from(USERS)
+        .where(USERS_ID.eq(this.id)),
+      blackhole
+    );
+  }
+
+  /**
+   * Bind a user lookup that was rendered ahead of time.
+   *
+   * @param blackhole The blackhole
+   */
+
+  @Benchmark
+  public void userGetPrerendered(
+    final Blackhole blackhole)
+  {
+    consume(
+      this.context.resultQuery(this.userGetSQL, DSL.val(this.id, USERS_ID)),
+      blackhole
+    );
+  }
+
+  /**
+   * Build and render an audit insertion on every execution.
+   *
+   * @param blackhole The blackhole
+   */
+
+  @Benchmark
+  public void auditPutRendered(
+    final Blackhole blackhole)
+  {
+    consume(
+      this.context.insertInto(AUDIT)
+        .set(AUDIT_TIME, this.time)
+        .set(AUDIT_TYPE, "E")
+        .set(AUDIT_USER_ID, this.id),
+      blackhole
+    );
+  }
+
+  /**
+   * Bind an audit insertion that was rendered ahead of time.
+   *
+   * @param blackhole The blackhole
+   */
+
+  @Benchmark
+  public void auditPutPrerendered(
+    final Blackhole blackhole)
+  {
+    consume(
+      this.context.query(
+        this.auditPutSQL,
+        DSL.val(this.time, AUDIT_TIME),
+        DSL.val("E", AUDIT_TYPE),
+        DSL.val(this.id, AUDIT_USER_ID)
+      ),
+      blackhole
+    );
+  }
+
+  /**
+   * Run the benchmarks.
+   *
+   * @param args The command-line arguments
+   *
+   * @throws RunnerException On errors
+   */
+
+  public static void main(
+    final String[] args)
+    throws RunnerException
+  {
+    new Runner(
+      new OptionsBuilder()
+        .include(IdQueryRenderBenchmark.class.getSimpleName())
+        .build()
+    ).run();
+  }
+}
@@ -0,0 +1,206 @@
+/*
+ * Copyright © 2024 Mark Raynsford <code@io7m.com> https://www.io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+
+package com.io7m.idstore.tests.benchmarks;
+
+import com.io7m.idstore.server.service.ratelimit.IdRateLimiter;
+import com.io7m.idstore.server.service.ratelimit.IdRateLimiterConfiguration;
+import com.io7m.idstore.server.service.telemetry.api.IdMetricsService;
+import com.io7m.idstore.server.service.telemetry.api.IdServerTelemetryNoOp;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.time.Duration;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Measure the throughput of the rate limiter under contention. The "shared"
+ * benchmarks have every thread hammering the same key (the worst case for
+ * the compare-and-set loop), the "distinct" benchmarks give each thread its
+ * own key, and the "spray" benchmarks use a fresh key for almost every
+ * operation in order to exercise the bounded key cache.
+ */
+
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@Threads(Threads.MAX)
+public class IdRateLimiterBenchmark
+{
+  /**
+   * Measure the throughput of the rate limiter under contention.
+   */
+
+  public IdRateLimiterBenchmark()
+  {
+
+  }
+
+  /**
+   * The shared limiter state.
+   */
+
+  @State(Scope.Benchmark)
+  public static class LimiterState
+  {
+    private IdRateLimiter limiter;
+
+    /**
+     * The shared limiter state.
+     */
+
+    public LimiterState()
+    {
+
+    }
+
+    /**
+     * Set up the limiter.
+     */
+
+    @Setup
+    public void setup()
+    {
+      this.limiter =
+        IdRateLimiter.create(
+          new IdMetricsService(IdServerTelemetryNoOp.noop()),
+          "benchmark",
+          new IdRateLimiterConfiguration(
+            Duration.ofMillis(1L),
+            10,
+            10_000L
+          )
+        );
+    }
+  }
+
+  /**
+   * The per-thread state.
+   */
+
+  @State(Scope.Thread)
+  public static class ThreadState
+  {
+    private static final AtomicInteger THREAD_IDS =
+      new AtomicInteger(0);
+
+    private String host;
+
+    /**
+     * The per-thread state.
+     */
+
+    public ThreadState()
+    {
+
+    }
+
+    /**
+     * Set up the thread state.
+     */
+
+    @Setup
+    public void setup()
+    {
+      this.host = "10.0.0.%d".formatted(THREAD_IDS.incrementAndGet());
+    }
+  }
+
+  /**
+   * Every thread uses the same key.
+   *
+   * @param limiter The limiter
+   *
+   * @return The result
+   */
+
+  @Benchmark
+  public boolean shared(
+    final LimiterState limiter)
+  {
+    return limiter.limiter.isAllowedByRateLimit("10.0.0.1", "", "LOGIN");
+  }
+
+  /**
+   * Every thread uses its own key.
+   *
+   * @param limiter The limiter
+   * @param thread  The thread state
+   *
+   * @return The result
+   */
+
+  @Benchmark
+  public boolean distinct(
+    final LimiterState limiter,
+    final ThreadState thread)
+  {
+    return limiter.limiter.isAllowedByRateLimit(thread.host, "", "LOGIN");
+  }
+
+  /**
+   * Every operation uses a (probably) new key.
+   *
+   * @param limiter The limiter
+   *
+   * @return The result
+   */
+
+  @Benchmark
+  public boolean spray(
+    final LimiterState limiter)
+  {
+    final var host =
+      Integer.toUnsignedString(ThreadLocalRandom.current().nextInt());
+    return limiter.limiter.isAllowedByRateLimit(host, "", "LOGIN");
+  }
+
+  /**
+   * Run the benchmarks.
+   *
+   * @param args The command-line arguments
+   *
+   * @throws RunnerException On errors
+   */
+
+  public static void main(
+    final String[] args)
+    throws RunnerException
+  {
+    new Runner(
+      new OptionsBuilder()
+        .include(IdRateLimiterBenchmark.class.getSimpleName())
+        .build()
+    ).run();
+  }
+}
@@ -0,0 +1,46 @@
+/*
+ * Copyright © 2024 Mark Raynsford <code@io7m.com> https://www.io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+
+/**
+ * Identity server (Benchmarks)
+ */
+
+open module com.io7m.idstore.tests.benchmarks
+{
+  requires static org.osgi.annotation.bundle;
+  requires static org.osgi.annotation.versioning;
+
+  requires com.io7m.idstore.admin_client.api;
+  requires com.io7m.idstore.admin_client;
+  requires com.io7m.idstore.database.api;
+  requires com.io7m.idstore.database.postgres;
+  requires com.io7m.idstore.model;
+  requires com.io7m.idstore.protocol.admin.cb;
+  requires com.io7m.idstore.protocol.admin;
+  requires com.io7m.idstore.server.service.ratelimit;
+  requires com.io7m.idstore.server.service.telemetry.api;
+  requires com.io7m.idstore.strings;
+
+  requires com.io7m.verdant.core.cb;
+  requires com.io7m.verdant.core;
+  requires io.opentelemetry.api;
+  requires jdk.httpserver;
+  requires jmh.core;
+  requires org.jooq;
+
+  exports com.io7m.idstore.tests.benchmarks;
+}
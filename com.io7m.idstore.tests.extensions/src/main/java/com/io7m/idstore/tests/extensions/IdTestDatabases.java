@@ -26,6 +26,7 @@ import com.io7m.idstore.database.api.IdDatabaseAuditQueriesType;
 import com.io7m.idstore.database.api.IdDatabaseConfiguration;
 import com.io7m.idstore.database.api.IdDatabaseCreate;
 import com.io7m.idstore.database.api.IdDatabaseException;
+import com.io7m.idstore.database.api.IdDatabasePoolConfiguration;
 import com.io7m.idstore.database.api.IdDatabaseTelemetry;
 import com.io7m.idstore.database.api.IdDatabaseTransactionType;
 import com.io7m.idstore.database.api.IdDatabaseType;
@@ -47,6 +48,7 @@ import org.junit.jupiter.api.Assertions;
 
 import java.io.IOException;
 import java.time.Clock;
+import java.time.Duration;
 import java.time.OffsetDateTime;
 import java.util.HashMap;
 import java.util.List;
@@ -101,17 +103,56 @@ public final class IdTestDatabases
     public IdDatabaseType createDatabase()
       throws IdDatabaseException
     {
-      return DATABASES.open(
-        this.databaseConfiguration,
+      return this.createDatabase(this.databaseConfiguration);
+    }
+
+    /**
+     * Create a database from this container using the given configuration.
+     *
+     * @param configuration The configuration
+     *
+     * @return A new database
+     *
+     * @throws IdDatabaseException On errors
+     */
+
+    public IdDatabaseType createDatabase(
+      final IdDatabaseConfiguration configuration)
+      throws IdDatabaseException
+    {
+      return this.createDatabase(
+        configuration,
         new IdDatabaseTelemetry(
           true,
           OpenTelemetry.noop().getMeter("x"),
           OpenTelemetry.noop().getTracer("x")
-        ),
+        )
+      );
+    }
+
+    /**
+     * Create a database from this container using the given configuration
+     * and telemetry.
+     *
+     * @param configuration The configuration
+     * @param telemetry     The telemetry
+     *
+     * @return A new database
+     *
+     * @throws IdDatabaseException On errors
+     */
+
+    public IdDatabaseType createDatabase(
+      final IdDatabaseConfiguration configuration,
+      final IdDatabaseTelemetry telemetry)
+      throws IdDatabaseException
+    {
+      return DATABASES.open(
+        configuration,
+        telemetry,
         message -> {
 
         });
-
     }
 
     /**
@@ -192,6 +233,11 @@ public final class IdTestDatabases
         "idstore",
         IdDatabaseCreate.CREATE_DATABASE,
         IdDatabaseUpgrade.UPGRADE_DATABASE,
+        10_000L,
+        List.of(),
+        Duration.ofSeconds(5L),
+        IdDatabasePoolConfiguration.defaults(),
+        Duration.ofSeconds(1L),
         IdStrings.create(Locale.ROOT),
         Clock.systemUTC()
       );
@@ -243,6 +289,11 @@ public final class IdTestDatabases
         "idstore",
         IdDatabaseCreate.CREATE_DATABASE,
         IdDatabaseUpgrade.UPGRADE_DATABASE,
+        10_000L,
+        List.of(),
+        Duration.ofSeconds(5L),
+        IdDatabasePoolConfiguration.defaults(),
+        Duration.ofSeconds(1L),
         IdStrings.create(Locale.ROOT),
         Clock.systemUTC()
       );
@@ -29,6 +29,7 @@ import com.io7m.idstore.model.IdUser;
 import com.io7m.idstore.server.api.IdServerBrandingConfiguration;
 import com.io7m.idstore.server.api.IdServerConfiguration;
 import com.io7m.idstore.server.api.IdServerException;
+import com.io7m.idstore.server.api.IdServerHTTPConfiguration;
 import com.io7m.idstore.server.api.IdServerHTTPServiceConfiguration;
 import com.io7m.idstore.server.api.IdServerHistoryConfiguration;
 import com.io7m.idstore.server.api.IdServerMailConfiguration;
@@ -227,7 +228,17 @@ public final class IdTestServers
         Duration.ofMillis(1L),
         Duration.ofMillis(3L),
         Duration.ofMillis(1L),
-        Duration.ofMillis(3L)
+        Duration.ofMillis(3L),
+        1,
+        1,
+        100,
+        100,
+        1000L,
+        false,
+        Duration.ZERO,
+        1,
+        Duration.ZERO,
+        1
       );
 
     return createWithRateLimitConfiguration(
@@ -332,7 +343,8 @@ public final class IdTestServers
     final var sessionConfiguration =
       new IdServerSessionConfiguration(
         Duration.ofHours(1L),
-        Duration.ofHours(1L)
+        Duration.ofHours(1L),
+        Optional.empty()
       );
 
     final var brandingConfiguration =
@@ -359,6 +371,7 @@ public final class IdTestServers
         userApiConfiguration,
         userViewConfiguration,
         adminApiConfiguration,
+        IdServerHTTPConfiguration.DEFAULT_REQUEST_TIMEOUT,
         sessionConfiguration,
         brandingConfiguration,
         historyConfiguration,
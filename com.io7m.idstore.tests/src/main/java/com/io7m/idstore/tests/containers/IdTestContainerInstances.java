@@ -23,6 +23,7 @@ import com.io7m.idstore.tests.extensions.IdTestDatabases;
 public final class IdTestContainerInstances
 {
   private static IdTestDatabases.IdDatabaseFixture DATABASE_FIXTURE;
+  private static IdTestDatabases.IdDatabaseFixture DATABASE_REPLICA_FIXTURE;
 
   private IdTestContainerInstances()
   {
@@ -34,6 +35,11 @@ public final class IdTestContainerInstances
     return 15432;
   }
 
+  public static int serverDatabaseReplicaPort()
+  {
+    return 15433;
+  }
+
   public static int idstoreDatabasePort()
   {
     return 55432;
@@ -66,6 +72,18 @@ public final class IdTestContainerInstances
     return DATABASE_FIXTURE;
   }
 
+  public static IdTestDatabases.IdDatabaseFixture databaseReplica(
+    final EContainerSupervisorType supervisor)
+    throws Exception
+  {
+    if (DATABASE_REPLICA_FIXTURE == null) {
+      DATABASE_REPLICA_FIXTURE =
+        IdTestDatabases.create(supervisor, serverDatabaseReplicaPort());
+    }
+    DATABASE_REPLICA_FIXTURE.reset();
+    return DATABASE_REPLICA_FIXTURE;
+  }
+
   private static int serverArchivePort()
   {
     return 40002;
@@ -45,6 +45,8 @@ import static com.io7m.idstore.database.api.IdDatabaseRole.IDSTORE;
 import static java.time.OffsetDateTime.now;
 import static java.util.Optional.empty;
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 
 @ExtendWith({ErvillaExtension.class, ZeladorExtension.class})
 @ErvillaConfiguration(disabledIfUnsupported = true, projectName = "com.io7m.idstore")
@@ -218,6 +220,90 @@ public final class IdDatabaseAuditTest
     }
   }
 
+  /**
+   * Searches that are estimated to exceed the exact count limit report
+   * approximate page counts, and the counts become exact when the last page
+   * is reached.
+   *
+   * @throws Exception On errors
+   */
+
+  @Test
+  public void testAuditSearchPagingApproximate()
+    throws Exception
+  {
+    final var adminId =
+      IdTestDatabases.createAdminInitial(
+        this.transaction, "admin", "12345678");
+
+    final var audit =
+      this.transaction.queries(IdDatabaseAuditQueriesType.class);
+
+    final var then = now();
+    for (int index = 0; index < 533; ++index) {
+      audit.auditPut(
+        adminId,
+        then.plusSeconds(index),
+        String.format("ET_%04d", Integer.valueOf(index)),
+        Map.of("x", String.format("E_%04d", Integer.valueOf(index)))
+      );
+    }
+
+    this.transaction.commit();
+
+    final var configuration =
+      DATABASE_FIXTURE.databaseConfiguration()
+        .withoutUpgradeOrCreate()
+        .withSearchExactCountLimit(0L);
+
+    try (var estimating =
+           DATABASE_FIXTURE.createDatabase(configuration);
+         var estimatingConnection =
+           estimating.openConnection(IDSTORE);
+         var estimatingTransaction =
+           estimatingConnection.openTransaction()) {
+
+      final var estimatingAudit =
+        estimatingTransaction.queries(IdDatabaseAuditQueriesType.class);
+
+      final var parameters =
+        new IdAuditSearchParameters(
+          new IdTimeRange(then, then.plusDays(1L)),
+          empty(),
+          empty(),
+          100
+        );
+
+      final var paging =
+        estimatingAudit.auditEventsSearch(parameters);
+
+      var page = paging.pageCurrent(estimatingAudit);
+      assertEquals(1, page.pageIndex());
+      assertTrue(page.pageCountApproximate());
+      checkPage(then, 0, 100, page.items());
+
+      for (int index = 2; index <= 6; ++index) {
+        page = paging.pageNext(estimatingAudit);
+        assertEquals(index, page.pageIndex());
+        assertTrue(page.pageCount() >= index);
+        checkPage(
+          then,
+          (index - 1) * 100,
+          Math.min(533, index * 100),
+          page.items()
+        );
+      }
+
+      assertFalse(page.pageCountApproximate());
+      assertEquals(6, page.pageCount());
+
+      page = paging.pageNext(estimatingAudit);
+      assertEquals(6, page.pageIndex());
+      assertEquals(6, page.pageCount());
+      assertFalse(page.pageCountApproximate());
+    }
+  }
+
   @Test
   public void testAuditSearchPaging()
     throws Exception
@@ -367,4 +453,65 @@ public final class IdDatabaseAuditTest
       ++index;
     }
   }
+
+  @Test
+  public void testAuditExport()
+    throws Exception
+  {
+    final var adminId =
+      IdTestDatabases.createAdminInitial(
+        this.transaction, "admin", "12345678");
+
+    final var audit =
+      this.transaction.queries(IdDatabaseAuditQueriesType.class);
+
+    final var then = now();
+    audit.auditPut(adminId, then.plusSeconds(1), "ET_0", Map.of("x","E0"));
+    audit.auditPut(adminId, then.plusSeconds(2), "ET_0", Map.of("x","E1"));
+    audit.auditPut(adminId, then.plusSeconds(3), "ET_0", Map.of("x","E2"));
+    audit.auditPut(adminId, then.plusSeconds(4), "ET_1", Map.of("x","F3"));
+    audit.auditPut(adminId, then.plusSeconds(5), "ET_1", Map.of("x","F4"));
+    audit.auditPut(adminId, then.plusSeconds(6), "ET_1", Map.of("x","F5"));
+    audit.auditPut(adminId, then.plusSeconds(7), "ET_2", Map.of("x","G6"));
+    audit.auditPut(adminId, then.plusSeconds(8), "ET_2", Map.of("x","G7"));
+    audit.auditPut(adminId, then.plusSeconds(9), "ET_2", Map.of("x","G8"));
+
+    this.transaction.commit();
+
+    final var parameters =
+      new IdAuditSearchParameters(
+        new IdTimeRange(then, then.plusDays(1L)),
+        empty(),
+        empty(),
+        1
+      );
+
+    try (var export = audit.auditEventsExport(parameters, 4)) {
+      {
+        final var items = export.next();
+        assertEquals(4, items.size());
+        assertEquals("E0", items.get(0).data().get("x"));
+        assertEquals("E1", items.get(1).data().get("x"));
+        assertEquals("E2", items.get(2).data().get("x"));
+        assertEquals("F3", items.get(3).data().get("x"));
+      }
+
+      {
+        final var items = export.next();
+        assertEquals(4, items.size());
+        assertEquals("F4", items.get(0).data().get("x"));
+        assertEquals("F5", items.get(1).data().get("x"));
+        assertEquals("G6", items.get(2).data().get("x"));
+        assertEquals("G7", items.get(3).data().get("x"));
+      }
+
+      {
+        final var items = export.next();
+        assertEquals(1, items.size());
+        assertEquals("G8", items.get(0).data().get("x"));
+      }
+
+      assertEquals(List.of(), export.next());
+    }
+  }
 }
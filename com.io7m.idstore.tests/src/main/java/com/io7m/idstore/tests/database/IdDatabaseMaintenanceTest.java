@@ -42,9 +42,12 @@ import org.junit.jupiter.api.extension.ExtendWith;
 
 import java.util.Optional;
 
+import static com.io7m.idstore.database.api.IdDatabaseMaintenanceTask.EXPIRE_EMAIL_VERIFICATIONS;
 import static com.io7m.idstore.database.api.IdDatabaseRole.IDSTORE;
 import static java.util.Optional.empty;
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 
 @ExtendWith({ErvillaExtension.class, ZeladorExtension.class})
 @ErvillaConfiguration(disabledIfUnsupported = true, projectName = "com.io7m.idstore")
@@ -128,4 +131,80 @@ public final class IdDatabaseMaintenanceTest
     assertEquals(empty(), emails.emailVerificationGetDeny(emailToken1));
     assertEquals(empty(), users.userBanGet(user));
   }
+
+  @Test
+  public void testExpirationBatched()
+    throws Exception
+  {
+    final var admin =
+      IdTestDatabases.createAdminInitial(
+        this.transaction, "admin", "12345678");
+    final var user =
+      IdTestDatabases.createUser(
+        this.transaction, admin, "someone", "12345678");
+
+    final var emails =
+      this.transaction.queries(IdDatabaseEmailsQueriesType.class);
+    final var maintenance =
+      this.transaction.queries(IdDatabaseMaintenanceQueriesType.class);
+
+    this.transaction.userIdSet(user);
+
+    for (int index = 0; index < 5; ++index) {
+      emails.emailVerificationCreate(
+        new IdEmailVerification(
+          user,
+          new IdEmail("someone%d@example.com".formatted(index)),
+          IdToken.generate(),
+          IdToken.generate(),
+          IdEmailVerificationOperation.EMAIL_ADD,
+          IdTestDatabases.timeNow().minusYears(30L)
+        )
+      );
+    }
+
+    assertEquals(
+      2L, maintenance.runMaintenanceTask(EXPIRE_EMAIL_VERIFICATIONS, 2));
+    assertEquals(
+      2L, maintenance.runMaintenanceTask(EXPIRE_EMAIL_VERIFICATIONS, 2));
+    assertEquals(
+      1L, maintenance.runMaintenanceTask(EXPIRE_EMAIL_VERIFICATIONS, 2));
+    assertEquals(
+      0L, maintenance.runMaintenanceTask(EXPIRE_EMAIL_VERIFICATIONS, 2));
+  }
+
+  /**
+   * Only one connection can hold the maintenance leader lock, and the lock
+   * passes to another connection when released.
+   *
+   * @throws Exception On errors
+   */
+
+  @Test
+  public void testLeaderLock()
+    throws Exception
+  {
+    try (var c0 = this.database.openConnection(IDSTORE);
+         var c1 = this.database.openConnection(IDSTORE);
+         var t0 = c0.openTransaction();
+         var t1 = c1.openTransaction()) {
+      final var q0 = t0.queries(IdDatabaseMaintenanceQueriesType.class);
+      final var q1 = t1.queries(IdDatabaseMaintenanceQueriesType.class);
+
+      assertTrue(q0.maintenanceLeaderLockTry());
+      t0.commit();
+      assertTrue(q0.maintenanceLeaderLockHeld());
+      assertFalse(q1.maintenanceLeaderLockTry());
+      assertFalse(q1.maintenanceLeaderLockHeld());
+
+      q0.maintenanceLeaderLockRelease();
+      assertFalse(q0.maintenanceLeaderLockHeld());
+      assertTrue(q1.maintenanceLeaderLockTry());
+      assertTrue(q1.maintenanceLeaderLockHeld());
+      assertFalse(q0.maintenanceLeaderLockTry());
+
+      q1.maintenanceLeaderLockRelease();
+      assertFalse(q1.maintenanceLeaderLockHeld());
+    }
+  }
 }
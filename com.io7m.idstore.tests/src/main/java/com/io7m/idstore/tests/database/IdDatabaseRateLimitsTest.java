@@ -0,0 +1,244 @@
+/*
+ * Copyright © 2024 Mark Raynsford <code@io7m.com> https://www.io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+
+package com.io7m.idstore.tests.database;
+
+import com.io7m.ervilla.api.EContainerSupervisorType;
+import com.io7m.ervilla.test_extension.ErvillaCloseAfterSuite;
+import com.io7m.ervilla.test_extension.ErvillaConfiguration;
+import com.io7m.ervilla.test_extension.ErvillaExtension;
+import com.io7m.idstore.database.api.IdDatabaseConnectionType;
+import com.io7m.idstore.database.api.IdDatabaseMaintenanceQueriesType;
+import com.io7m.idstore.database.api.IdDatabaseRateLimitsQueriesType;
+import com.io7m.idstore.database.api.IdDatabaseTransactionType;
+import com.io7m.idstore.database.api.IdDatabaseType;
+import com.io7m.idstore.server.service.ratelimit.IdRateLimiterConfiguration;
+import com.io7m.idstore.server.service.ratelimit.IdRateLimiterShared;
+import com.io7m.idstore.server.service.telemetry.api.IdMetricsServiceType;
+import com.io7m.idstore.tests.containers.IdTestContainerInstances;
+import com.io7m.idstore.tests.extensions.IdTestDatabases;
+import com.io7m.zelador.test_extension.CloseableResourcesType;
+import com.io7m.zelador.test_extension.ZeladorExtension;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+
+import java.time.Duration;
+
+import static com.io7m.idstore.database.api.IdDatabaseRole.IDSTORE;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.mock;
+
+@ExtendWith({ErvillaExtension.class, ZeladorExtension.class})
+@ErvillaConfiguration(disabledIfUnsupported = true, projectName = "com.io7m.idstore")
+public final class IdDatabaseRateLimitsTest
+{
+  private static IdTestDatabases.IdDatabaseFixture DATABASE_FIXTURE;
+  private IdDatabaseConnectionType connection;
+  private IdDatabaseTransactionType transaction;
+  private IdDatabaseType database;
+
+  @BeforeAll
+  public static void setupOnce(
+    final @ErvillaCloseAfterSuite EContainerSupervisorType containers)
+    throws Exception
+  {
+    DATABASE_FIXTURE =
+      IdTestContainerInstances.database(containers);
+  }
+
+  @BeforeEach
+  public void setup(
+    final CloseableResourcesType closeables)
+    throws Exception
+  {
+    DATABASE_FIXTURE.reset();
+
+    this.database =
+      closeables.addPerTestResource(DATABASE_FIXTURE.createDatabase());
+    this.connection =
+      closeables.addPerTestResource(this.database.openConnection(IDSTORE));
+    this.transaction =
+      closeables.addPerTestResource(this.connection.openTransaction());
+  }
+
+  /**
+   * A shared bucket permits exactly the burst size, and buckets are
+   * separated by limiter and key.
+   *
+   * @throws Exception On errors
+   */
+
+  @Test
+  public void testRateLimitBuckets()
+    throws Exception
+  {
+    final var limits =
+      this.transaction.queries(IdDatabaseRateLimitsQueriesType.class);
+    final var hour =
+      Duration.ofHours(1L);
+
+    assertEquals(
+      Duration.ZERO,
+      limits.rateLimitRecord("login", "a", hour, 3, 1L)
+    );
+    assertEquals(
+      Duration.ZERO,
+      limits.rateLimitRecord("login", "a", hour, 3, 1L)
+    );
+    assertTrue(
+      limits.rateLimitRecord("login", "a", hour, 3, 1L)
+        .compareTo(Duration.ZERO) > 0
+    );
+
+    assertEquals(
+      Duration.ZERO,
+      limits.rateLimitRecord("login", "b", hour, 3, 1L)
+    );
+    assertEquals(
+      Duration.ZERO,
+      limits.rateLimitRecord("reset", "a", hour, 3, 1L)
+    );
+  }
+
+  /**
+   * Recorded operations are always counted, and the returned wait is the
+   * time until the bucket would permit another operation.
+   *
+   * @throws Exception On errors
+   */
+
+  @Test
+  public void testRateLimitRecord()
+    throws Exception
+  {
+    final var limits =
+      this.transaction.queries(IdDatabaseRateLimitsQueriesType.class);
+    final var hour =
+      Duration.ofHours(1L);
+
+    assertEquals(
+      Duration.ZERO,
+      limits.rateLimitRecord("login", "a", hour, 3, 2L)
+    );
+
+    final var wait0 =
+      limits.rateLimitRecord("login", "a", hour, 3, 1L);
+    assertTrue(wait0.compareTo(Duration.ofMinutes(59L)) > 0);
+    assertTrue(wait0.compareTo(hour) <= 0);
+
+    final var wait1 =
+      limits.rateLimitRecord("login", "a", hour, 3, 2L);
+    assertTrue(wait1.compareTo(Duration.ofMinutes(179L)) > 0);
+    assertTrue(wait1.compareTo(hour.multipliedBy(3L)) <= 0);
+
+    final var wait2 =
+      limits.rateLimitRecord("login", "a", hour, 3, 1L);
+    assertTrue(wait2.compareTo(wait1) > 0);
+
+    assertEquals(
+      Duration.ZERO,
+      limits.rateLimitRecord("login", "a", Duration.ZERO, 1, 1L)
+    );
+  }
+
+  /**
+   * Maintenance does not discard buckets that have not yet refilled.
+   *
+   * @throws Exception On errors
+   */
+
+  @Test
+  public void testRateLimitMaintenance()
+    throws Exception
+  {
+    final var limits =
+      this.transaction.queries(IdDatabaseRateLimitsQueriesType.class);
+    final var maintenance =
+      this.transaction.queries(IdDatabaseMaintenanceQueriesType.class);
+    final var hour =
+      Duration.ofHours(1L);
+
+    final var wait0 =
+      limits.rateLimitRecord("login", "a", hour, 1, 1L);
+    assertTrue(wait0.compareTo(Duration.ofMinutes(59L)) > 0);
+
+    maintenance.runMaintenance();
+
+    final var wait1 =
+      limits.rateLimitRecord("login", "a", hour, 1, 1L);
+    assertTrue(wait1.compareTo(Duration.ofMinutes(119L)) > 0);
+  }
+
+  /**
+   * Two servers sharing a database share the same allowance.
+   *
+   * @throws Exception On errors
+   */
+
+  @Test
+  public void testRateLimitSharedServers()
+    throws Exception
+  {
+    final var configuration =
+      new IdRateLimiterConfiguration(Duration.ofHours(1L), 2, 100L);
+
+    final var server0 =
+      IdRateLimiterShared.create(
+        mock(IdMetricsServiceType.class),
+        this.database,
+        "user_login",
+        configuration,
+        System::nanoTime,
+        task -> {
+
+        }
+      );
+    final var server1 =
+      IdRateLimiterShared.create(
+        mock(IdMetricsServiceType.class),
+        this.database,
+        "user_login",
+        configuration,
+        System::nanoTime,
+        task -> {
+
+        }
+      );
+
+    /*
+     * The two servers together exhaust the shared burst of two; each server
+     * refuses the client as soon as it has reported its own operations.
+     */
+
+    assertTrue(server0.isAllowedByRateLimit("10.0.0.1", "", "LOGIN"));
+    server0.settle();
+    assertTrue(server1.isAllowedByRateLimit("10.0.0.1", "", "LOGIN"));
+    server1.settle();
+    assertFalse(server1.isAllowedByRateLimit("10.0.0.1", "", "LOGIN"));
+
+    assertTrue(server0.isAllowedByRateLimit("10.0.0.1", "", "LOGIN"));
+    server0.settle();
+    assertFalse(server0.isAllowedByRateLimit("10.0.0.1", "", "LOGIN"));
+    assertFalse(server1.isAllowedByRateLimit("10.0.0.1", "", "LOGIN"));
+
+    assertTrue(server1.isAllowedByRateLimit("10.0.0.2", "", "LOGIN"));
+  }
+}
@@ -0,0 +1,199 @@
+/*
+ * Copyright © 2024 Mark Raynsford <code@io7m.com> https://www.io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+
+package com.io7m.idstore.tests.database;
+
+import com.io7m.ervilla.api.EContainerSupervisorType;
+import com.io7m.ervilla.test_extension.ErvillaCloseAfterSuite;
+import com.io7m.ervilla.test_extension.ErvillaConfiguration;
+import com.io7m.ervilla.test_extension.ErvillaExtension;
+import com.io7m.idstore.database.api.IdDatabaseAdminsQueriesType;
+import com.io7m.idstore.database.api.IdDatabaseAuditQueriesType;
+import com.io7m.idstore.database.api.IdDatabaseReplica;
+import com.io7m.idstore.database.api.IdDatabaseRole;
+import com.io7m.idstore.database.api.IdDatabaseType;
+import com.io7m.idstore.model.IdName;
+import com.io7m.idstore.tests.containers.IdTestContainerInstances;
+import com.io7m.idstore.tests.extensions.IdTestDatabases;
+import com.io7m.zelador.test_extension.ZeladorExtension;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+
+import java.time.Duration;
+import java.time.OffsetDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import static com.io7m.idstore.database.api.IdDatabaseRole.IDSTORE;
+import static com.io7m.idstore.database.api.IdDatabaseRole.IDSTORE_READ_ONLY;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Read replica routing. The "replica" here is a second, independent
+ * database, which allows the tests to observe which database served a
+ * given connection.
+ */
+
+@ExtendWith({ErvillaExtension.class, ZeladorExtension.class})
+@ErvillaConfiguration(disabledIfUnsupported = true, projectName = "com.io7m.idstore")
+public final class IdDatabaseReplicaTest
+{
+  private static IdTestDatabases.IdDatabaseFixture DATABASE_FIXTURE;
+  private static IdTestDatabases.IdDatabaseFixture REPLICA_FIXTURE;
+  private UUID primaryAdmin;
+
+  @BeforeAll
+  public static void setupOnce(
+    final @ErvillaCloseAfterSuite EContainerSupervisorType containers)
+    throws Exception
+  {
+    DATABASE_FIXTURE =
+      IdTestContainerInstances.database(containers);
+    REPLICA_FIXTURE =
+      IdTestContainerInstances.databaseReplica(containers);
+  }
+
+  @BeforeEach
+  public void setup()
+    throws Exception
+  {
+    DATABASE_FIXTURE.reset();
+    REPLICA_FIXTURE.reset();
+
+    try (var database = DATABASE_FIXTURE.createDatabase()) {
+      this.primaryAdmin = createAdmin(database, "primary");
+    }
+    try (var database = REPLICA_FIXTURE.createDatabase()) {
+      createAdmin(database, "replica");
+    }
+  }
+
+  private static UUID createAdmin(
+    final IdDatabaseType database,
+    final String name)
+    throws Exception
+  {
+    try (var connection = database.openConnection(IDSTORE)) {
+      try (var transaction = connection.openTransaction()) {
+        return IdTestDatabases.createAdminInitial(
+          transaction,
+          name,
+          "12345678"
+        );
+      }
+    }
+  }
+
+  private static boolean adminExists(
+    final IdDatabaseType database,
+    final IdDatabaseRole role,
+    final String name)
+    throws Exception
+  {
+    try (var connection = database.openConnection(role)) {
+      try (var transaction = connection.openTransaction()) {
+        return transaction.queries(IdDatabaseAdminsQueriesType.class)
+          .adminGetForName(new IdName(name))
+          .isPresent();
+      }
+    }
+  }
+
+  /**
+   * Read-only connections are served by the replica, and all other
+   * connections by the primary.
+   *
+   * @throws Exception On errors
+   */
+
+  @Test
+  public void testReadOnlyRoutedToReplica()
+    throws Exception
+  {
+    final var configuration =
+      DATABASE_FIXTURE.databaseConfiguration()
+        .withoutUpgradeOrCreate()
+        .withReplicas(
+          List.of(new IdDatabaseReplica(
+            "127.0.0.1",
+            IdTestContainerInstances.serverDatabaseReplicaPort())),
+          Duration.ofSeconds(5L)
+        );
+
+    try (var database = DATABASE_FIXTURE.createDatabase(configuration)) {
+      assertTrue(adminExists(database, IDSTORE_READ_ONLY, "replica"));
+      assertFalse(adminExists(database, IDSTORE_READ_ONLY, "primary"));
+      assertTrue(adminExists(database, IDSTORE, "primary"));
+      assertFalse(adminExists(database, IDSTORE, "replica"));
+    }
+  }
+
+  /**
+   * Read-only connections fall back to the primary if the replica cannot
+   * be reached.
+   *
+   * @throws Exception On errors
+   */
+
+  @Test
+  public void testReadOnlyFallsBackToPrimary()
+    throws Exception
+  {
+    final var configuration =
+      DATABASE_FIXTURE.databaseConfiguration()
+        .withoutUpgradeOrCreate()
+        .withReplicas(
+          List.of(new IdDatabaseReplica("127.0.0.1", 1)),
+          Duration.ofSeconds(5L)
+        );
+
+    try (var database = DATABASE_FIXTURE.createDatabase(configuration)) {
+      assertTrue(adminExists(database, IDSTORE_READ_ONLY, "primary"));
+      assertTrue(adminExists(database, IDSTORE_READ_ONLY, "primary"));
+    }
+  }
+
+  /**
+   * Using connections in the read-only role does not affect connections
+   * that are subsequently used for writes.
+   *
+   * @throws Exception On errors
+   */
+
+  @Test
+  public void testReadOnlyRoleIsReset()
+    throws Exception
+  {
+    try (var database = DATABASE_FIXTURE.createDatabase()) {
+      for (int index = 0; index < 20; ++index) {
+        assertTrue(adminExists(database, IDSTORE_READ_ONLY, "primary"));
+
+        try (var connection = database.openConnection(IDSTORE)) {
+          try (var transaction = connection.openTransaction()) {
+            transaction.queries(IdDatabaseAuditQueriesType.class)
+              .auditPut(this.primaryAdmin, OffsetDateTime.now(), "E", Map.of());
+            transaction.commit();
+          }
+        }
+      }
+    }
+  }
+}
@@ -0,0 +1,189 @@
+/*
+ * Copyright © 2024 Mark Raynsford <code@io7m.com> https://www.io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+
+package com.io7m.idstore.tests.database;
+
+import com.io7m.ervilla.api.EContainerSupervisorType;
+import com.io7m.ervilla.test_extension.ErvillaCloseAfterSuite;
+import com.io7m.ervilla.test_extension.ErvillaConfiguration;
+import com.io7m.ervilla.test_extension.ErvillaExtension;
+import com.io7m.idstore.database.api.IdDatabaseAdminsQueriesType;
+import com.io7m.idstore.database.api.IdDatabaseAuditQueriesType;
+import com.io7m.idstore.database.api.IdDatabaseConfiguration;
+import com.io7m.idstore.database.api.IdDatabaseException;
+import com.io7m.idstore.database.api.IdDatabaseRole;
+import com.io7m.idstore.database.api.IdDatabaseType;
+import com.io7m.idstore.model.IdName;
+import com.io7m.idstore.tests.containers.IdTestContainerInstances;
+import com.io7m.idstore.tests.extensions.IdTestDatabases;
+import com.io7m.zelador.test_extension.ZeladorExtension;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+
+import java.time.OffsetDateTime;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+
+import static com.io7m.idstore.database.api.IdDatabaseRole.IDSTORE;
+import static com.io7m.idstore.database.api.IdDatabaseRole.IDSTORE_READ_ONLY;
+import static com.io7m.idstore.database.api.IdDatabaseRole.NONE;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Each database role is served by its own connection pool.
+ */
+
+@ExtendWith({ErvillaExtension.class, ZeladorExtension.class})
+@ErvillaConfiguration(disabledIfUnsupported = true, projectName = "com.io7m.idstore")
+public final class IdDatabaseRolesTest
+{
+  private static IdTestDatabases.IdDatabaseFixture DATABASE_FIXTURE;
+  private UUID admin;
+
+  @BeforeAll
+  public static void setupOnce(
+    final @ErvillaCloseAfterSuite EContainerSupervisorType containers)
+    throws Exception
+  {
+    DATABASE_FIXTURE =
+      IdTestContainerInstances.database(containers);
+  }
+
+  @BeforeEach
+  public void setup()
+    throws Exception
+  {
+    DATABASE_FIXTURE.reset();
+
+    try (var database = DATABASE_FIXTURE.createDatabase()) {
+      try (var connection = database.openConnection(IDSTORE)) {
+        try (var transaction = connection.openTransaction()) {
+          this.admin = IdTestDatabases.createAdminInitial(
+            transaction,
+            "admin",
+            "12345678"
+          );
+        }
+      }
+    }
+  }
+
+  private static boolean adminExists(
+    final IdDatabaseType database,
+    final IdDatabaseRole role)
+    throws Exception
+  {
+    try (var connection = database.openConnection(role)) {
+      try (var transaction = connection.openTransaction()) {
+        return transaction.queries(IdDatabaseAdminsQueriesType.class)
+          .adminGetForName(new IdName("admin"))
+          .isPresent();
+      }
+    }
+  }
+
+  private void auditPut(
+    final IdDatabaseType database,
+    final IdDatabaseRole role)
+    throws Exception
+  {
+    try (var connection = database.openConnection(role)) {
+      try (var transaction = connection.openTransaction()) {
+        transaction.queries(IdDatabaseAuditQueriesType.class)
+          .auditPut(this.admin, OffsetDateTime.now(), "E", Map.of());
+        transaction.commit();
+      }
+    }
+  }
+
+  private void checkRoles(
+    final IdDatabaseType database)
+    throws Exception
+  {
+    for (int index = 0; index < 20; ++index) {
+      assertTrue(adminExists(database, IDSTORE_READ_ONLY));
+      assertThrows(IdDatabaseException.class, () -> {
+        this.auditPut(database, IDSTORE_READ_ONLY);
+      });
+      assertThrows(IdDatabaseException.class, () -> {
+        adminExists(database, NONE);
+      });
+      assertTrue(adminExists(database, IDSTORE));
+      this.auditPut(database, IDSTORE);
+    }
+  }
+
+  /**
+   * Connections in each role have exactly the privileges of that role, no
+   * matter which roles were used before.
+   *
+   * @throws Exception On errors
+   */
+
+  @Test
+  public void testRolesReaderLogin()
+    throws Exception
+  {
+    try (var database = DATABASE_FIXTURE.createDatabase()) {
+      this.checkRoles(database);
+    }
+  }
+
+  /**
+   * Connections in the read-only role have exactly the privileges of that
+   * role when the reader role cannot log in.
+   *
+   * @throws Exception On errors
+   */
+
+  @Test
+  public void testRolesNoReaderLogin()
+    throws Exception
+  {
+    final var c =
+      DATABASE_FIXTURE.databaseConfiguration()
+        .withoutUpgradeOrCreate();
+
+    final var configuration =
+      new IdDatabaseConfiguration(
+        c.ownerRoleName(),
+        c.ownerRolePassword(),
+        c.workerRolePassword(),
+        Optional.empty(),
+        c.address(),
+        c.port(),
+        c.databaseName(),
+        c.create(),
+        c.upgrade(),
+        c.searchExactCountLimit(),
+        c.replicas(),
+        c.replicaMaximumLag(),
+        c.pool(),
+        c.slowQueryThreshold(),
+        c.strings(),
+        c.clock()
+      );
+
+    try (var database = DATABASE_FIXTURE.createDatabase(configuration)) {
+      this.checkRoles(database);
+    }
+  }
+}
@@ -0,0 +1,214 @@
+/*
+ * Copyright © 2024 Mark Raynsford <code@io7m.com> https://www.io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+
+package com.io7m.idstore.tests.database;
+
+import com.io7m.ervilla.api.EContainerSupervisorType;
+import com.io7m.ervilla.test_extension.ErvillaCloseAfterSuite;
+import com.io7m.ervilla.test_extension.ErvillaConfiguration;
+import com.io7m.ervilla.test_extension.ErvillaExtension;
+import com.io7m.idstore.database.api.IdDatabaseAdminsQueriesType;
+import com.io7m.idstore.database.api.IdDatabaseAuditQueriesType;
+import com.io7m.idstore.database.api.IdDatabaseException;
+import com.io7m.idstore.database.api.IdDatabaseTelemetry;
+import com.io7m.idstore.database.api.IdDatabaseTransactionType;
+import com.io7m.idstore.database.api.IdDatabaseType;
+import com.io7m.idstore.model.IdAdmin;
+import com.io7m.idstore.tests.containers.IdTestContainerInstances;
+import com.io7m.idstore.tests.extensions.IdTestDatabases;
+import com.io7m.zelador.test_extension.ZeladorExtension;
+import io.opentelemetry.api.OpenTelemetry;
+import io.opentelemetry.api.trace.Tracer;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+
+import java.time.OffsetDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import static com.io7m.idstore.database.api.IdDatabaseRole.IDSTORE;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+/**
+ * The number of statements executed by command-shaped transactions. Every
+ * statement executed by the database package runs inside a query span, so
+ * the query spans started during a transaction give its statement count.
+ */
+
+@ExtendWith({ErvillaExtension.class, ZeladorExtension.class})
+@ErvillaConfiguration(disabledIfUnsupported = true, projectName = "com.io7m.idstore")
+public final class IdDatabaseStatementCountTest
+{
+  private static IdTestDatabases.IdDatabaseFixture DATABASE_FIXTURE;
+  private CopyOnWriteArrayList<String> querySpans;
+  private IdDatabaseType database;
+  private IdAdmin admin;
+
+  @BeforeAll
+  public static void setupOnce(
+    final @ErvillaCloseAfterSuite EContainerSupervisorType containers)
+    throws Exception
+  {
+    DATABASE_FIXTURE =
+      IdTestContainerInstances.database(containers);
+  }
+
+  @BeforeEach
+  public void setup()
+    throws Exception
+  {
+    DATABASE_FIXTURE.reset();
+
+    this.querySpans =
+      new CopyOnWriteArrayList<>();
+
+    final var noop =
+      OpenTelemetry.noop().getTracer("x");
+    final Tracer tracer = name -> {
+      if (name.contains(".")) {
+        this.querySpans.add(name);
+      }
+      return noop.spanBuilder(name);
+    };
+
+    this.database =
+      DATABASE_FIXTURE.createDatabase(
+        DATABASE_FIXTURE.databaseConfiguration(),
+        new IdDatabaseTelemetry(
+          true,
+          OpenTelemetry.noop().getMeter("x"),
+          tracer
+        )
+      );
+
+    try (var connection = this.database.openConnection(IDSTORE)) {
+      try (var transaction = connection.openTransaction()) {
+        final var id =
+          IdTestDatabases.createAdminInitial(transaction, "admin", "12345678");
+        this.admin =
+          transaction.queries(IdDatabaseAdminsQueriesType.class)
+            .adminGetRequire(id);
+      }
+    }
+
+    this.querySpans.clear();
+  }
+
+  @AfterEach
+  public void tearDown()
+    throws Exception
+  {
+    this.database.close();
+  }
+
+  private static void auditPut(
+    final IdDatabaseTransactionType transaction)
+    throws IdDatabaseException
+  {
+    transaction.queries(IdDatabaseAuditQueriesType.class)
+      .auditPut(transaction.adminId(), OffsetDateTime.now(), "E", Map.of());
+    transaction.commit();
+  }
+
+  /**
+   * Setting the admin by ID verifies the ID with a query of its own.
+   *
+   * @throws Exception On errors
+   */
+
+  @Test
+  public void testAdminIdSetStatements()
+    throws Exception
+  {
+    try (var connection = this.database.openConnection(IDSTORE)) {
+      try (var transaction = connection.openTransaction()) {
+        transaction.adminIdSet(this.admin.id());
+        auditPut(transaction);
+      }
+    }
+
+    assertEquals(
+      List.of(
+        "IdDatabaseTransaction.adminIdSet",
+        "IdDatabaseAuditQueries.auditPut"
+      ),
+      this.querySpans
+    );
+  }
+
+  /**
+   * Setting an admin that has already been loaded executes no statements.
+   *
+   * @throws Exception On errors
+   */
+
+  @Test
+  public void testAdminSetStatements()
+    throws Exception
+  {
+    try (var connection = this.database.openConnection(IDSTORE)) {
+      try (var transaction = connection.openTransaction()) {
+        transaction.adminSet(this.admin);
+        auditPut(transaction);
+      }
+    }
+
+    assertEquals(
+      List.of("IdDatabaseAuditQueries.auditPut"),
+      this.querySpans
+    );
+  }
+
+  /**
+   * Audit events for an admin that does not exist are rejected by the
+   * database.
+   *
+   * @throws Exception On errors
+   */
+
+  @Test
+  public void testAdminSetNonexistent()
+    throws Exception
+  {
+    final var ghost =
+      new IdAdmin(
+        UUID.randomUUID(),
+        this.admin.idName(),
+        this.admin.realName(),
+        this.admin.emails(),
+        this.admin.timeCreated(),
+        this.admin.timeUpdated(),
+        this.admin.password(),
+        this.admin.permissions()
+      );
+
+    try (var connection = this.database.openConnection(IDSTORE)) {
+      try (var transaction = connection.openTransaction()) {
+        transaction.adminSet(ghost);
+        assertThrows(IdDatabaseException.class, () -> {
+          auditPut(transaction);
+        });
+      }
+    }
+  }
+}
@@ -31,6 +31,8 @@ import com.io7m.idstore.model.IdName;
 import com.io7m.idstore.model.IdRealName;
 import com.io7m.idstore.model.IdTimeRange;
 import com.io7m.idstore.model.IdUserColumnOrdering;
+import com.io7m.idstore.model.IdUserCreate;
+import com.io7m.idstore.model.IdUserImportError;
 import com.io7m.idstore.model.IdUserSearchByEmailParameters;
 import com.io7m.idstore.model.IdUserSearchParameters;
 import com.io7m.idstore.model.IdUserSummary;
@@ -54,6 +56,7 @@ import java.util.Set;
 import static com.io7m.idstore.database.api.IdDatabaseRole.IDSTORE;
 import static com.io7m.idstore.error_codes.IdStandardErrorCodes.EMAIL_DUPLICATE;
 import static com.io7m.idstore.error_codes.IdStandardErrorCodes.EMAIL_ONE_REQUIRED;
+import static com.io7m.idstore.error_codes.IdStandardErrorCodes.REQUEST_TIMEOUT;
 import static com.io7m.idstore.error_codes.IdStandardErrorCodes.USER_DUPLICATE_ID;
 import static com.io7m.idstore.error_codes.IdStandardErrorCodes.USER_DUPLICATE_ID_NAME;
 import static com.io7m.idstore.error_codes.IdStandardErrorCodes.USER_NONEXISTENT;
@@ -188,6 +191,114 @@ public final class IdDatabaseUsersTest
     );
   }
 
+  /**
+   * Importing users creates every user that does not conflict with an
+   * existing user or with an earlier user in the import.
+   *
+   * @throws Exception On errors
+   */
+
+  @Test
+  public void testUserImport()
+    throws Exception
+  {
+    final var adminId =
+      IdTestDatabases.createAdminInitial(this.transaction, "admin", "12345678");
+
+    this.transaction.adminIdSet(adminId);
+
+    final var users =
+      this.transaction.queries(IdDatabaseUsersQueriesType.class);
+
+    final var password =
+      IdTestDatabases.generateBadPassword();
+    final var existing =
+      users.userCreate(
+        randomUUID(),
+        new IdName("existing"),
+        new IdRealName("Existing"),
+        new IdEmail("existing@example.com"),
+        now(),
+        password
+      );
+
+    final var id0 = randomUUID();
+    final var result =
+      users.userImport(
+        List.of(
+          new IdUserCreate(
+            Optional.of(id0),
+            new IdName("new0"),
+            new IdRealName("New 0"),
+            new IdEmail("new0@example.com"),
+            password),
+          new IdUserCreate(
+            Optional.of(existing.id()),
+            new IdName("new1"),
+            new IdRealName("New 1"),
+            new IdEmail("new1@example.com"),
+            password),
+          new IdUserCreate(
+            Optional.empty(),
+            new IdName("EXISTING"),
+            new IdRealName("New 2"),
+            new IdEmail("new2@example.com"),
+            password),
+          new IdUserCreate(
+            Optional.empty(),
+            new IdName("new3"),
+            new IdRealName("New 3"),
+            new IdEmail("Existing@Example.com"),
+            password),
+          new IdUserCreate(
+            Optional.empty(),
+            new IdName("new4"),
+            new IdRealName("New 4 \"Quoted\", with commas"),
+            new IdEmail("new4@example.com"),
+            password),
+          new IdUserCreate(
+            Optional.empty(),
+            new IdName("new4"),
+            new IdRealName("New 5"),
+            new IdEmail("new5@example.com"),
+            password)
+        ),
+        now()
+      );
+
+    assertEquals(2, result.created());
+    assertEquals(
+      List.of(1, 2, 3, 5),
+      result.errors().stream().map(IdUserImportError::index).toList()
+    );
+    assertEquals(
+      List.of(
+        USER_DUPLICATE_ID,
+        USER_DUPLICATE_ID_NAME,
+        EMAIL_DUPLICATE,
+        USER_DUPLICATE_ID_NAME),
+      result.errors().stream().map(IdUserImportError::errorCode).toList()
+    );
+
+    final var user0 = users.userGetRequire(id0);
+    assertEquals("new0", user0.idName().value());
+    assertEquals("new0@example.com", user0.emails().first().value());
+    assertEquals(password.hash(), user0.password().hash());
+
+    final var user4 =
+      users.userGetForName(new IdName("new4")).orElseThrow();
+    assertEquals("New 4 \"Quoted\", with commas", user4.realName().value());
+    assertEquals("new4@example.com", user4.emails().first().value());
+
+    IdTestDatabases.checkAuditLog(
+      this.transaction,
+      eventOf("ADMIN_CREATED", entry("AdminID", adminId.toString())),
+      eventOf("USER_CREATED", entry("UserID", existing.id())),
+      eventOf("USER_CREATED", entry("UserID", user0.id())),
+      eventOf("USER_CREATED", entry("UserID", user4.id()))
+    );
+  }
+
   /**
    * Creating a user works.
    *
@@ -1186,6 +1297,113 @@ public final class IdDatabaseUsersTest
     );
   }
 
+  /**
+   * Banning replaces any existing ban, removing a ban that does not exist
+   * does nothing, and banning nonexistent users fails.
+   *
+   * @throws Exception On errors
+   */
+
+  @Test
+  public void testUserBanReplaceNonexistent()
+    throws Exception
+  {
+    final var adminId =
+      IdTestDatabases.createAdminInitial(this.transaction, "admin", "12345678");
+
+    final var user =
+      IdTestDatabases.createUser(
+        this.transaction,
+        adminId,
+        "someone",
+        "12345678");
+
+    this.transaction.adminIdSet(adminId);
+
+    final var users =
+      this.transaction.queries(IdDatabaseUsersQueriesType.class);
+
+    final var ban0 = new IdBan(user, "No reason.", Optional.empty());
+    final var ban1 = new IdBan(user, "Other reason.", Optional.empty());
+
+    users.userBanDelete(ban0);
+    assertEquals(Optional.empty(), users.userBanGet(user));
+
+    users.userBanCreate(ban0);
+    users.userBanCreate(ban1);
+    assertEquals(Optional.of(ban1), users.userBanGet(user));
+
+    final var missing =
+      new IdBan(randomUUID(), "No reason.", Optional.empty());
+
+    final var ex0 =
+      assertThrows(IdDatabaseException.class, () -> {
+        users.userBanCreate(missing);
+      });
+    assertEquals(USER_NONEXISTENT, ex0.errorCode());
+
+    final var ex1 =
+      assertThrows(IdDatabaseException.class, () -> {
+        users.userBanDelete(missing);
+      });
+    assertEquals(USER_NONEXISTENT, ex1.errorCode());
+
+    final var ex2 =
+      assertThrows(IdDatabaseException.class, () -> {
+        users.userBanCreate(
+          new IdBan(adminId, "No reason.", Optional.empty()));
+      });
+    assertEquals(USER_NONEXISTENT, ex2.errorCode());
+
+    IdTestDatabases.checkAuditLog(
+      this.transaction,
+      eventOf("ADMIN_CREATED", entry("AdminID", adminId.toString())),
+      eventOf("USER_CREATED", entry("UserID", user)),
+      eventOf("USER_BANNED", entry("UserID", user)),
+      eventOf("USER_BANNED", entry("UserID", user))
+    );
+  }
+
+  /**
+   * A transaction cannot be opened once its deadline has passed.
+   *
+   * @throws Exception On errors
+   */
+
+  @Test
+  public void testTransactionDeadlinePassed()
+    throws Exception
+  {
+    final var ex =
+      assertThrows(IdDatabaseException.class, () -> {
+        this.connection.openTransaction(now().minusSeconds(1L));
+      });
+    assertEquals(REQUEST_TIMEOUT, ex.errorCode());
+  }
+
+  /**
+   * A transaction with a deadline keeps working across commits.
+   *
+   * @throws Exception On errors
+   */
+
+  @Test
+  public void testTransactionDeadlineCommit()
+    throws Exception
+  {
+    try (var t = this.connection.openTransaction(now().plusMinutes(1L))) {
+      final var adminId =
+        IdTestDatabases.createAdminInitial(t, "admin", "12345678");
+      final var user =
+        IdTestDatabases.createUser(t, adminId, "someone", "12345678");
+      t.commit();
+
+      final var users =
+        t.queries(IdDatabaseUsersQueriesType.class);
+      assertEquals(user, users.userGetRequire(user).id());
+    }
+  }
+
   /**
    * Emails are case-insensitive.
    *
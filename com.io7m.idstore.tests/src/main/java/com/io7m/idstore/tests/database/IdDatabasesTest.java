@@ -23,6 +23,7 @@ import com.io7m.ervilla.test_extension.ErvillaExtension;
 import com.io7m.idstore.database.api.IdDatabaseConfiguration;
 import com.io7m.idstore.database.api.IdDatabaseCreate;
 import com.io7m.idstore.database.api.IdDatabaseException;
+import com.io7m.idstore.database.api.IdDatabasePoolConfiguration;
 import com.io7m.idstore.database.api.IdDatabaseTelemetry;
 import com.io7m.idstore.database.api.IdDatabaseUpgrade;
 import com.io7m.idstore.database.postgres.IdDatabases;
@@ -41,6 +42,8 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.time.Clock;
+import java.time.Duration;
+import java.util.List;
 import java.util.Locale;
 import java.util.Optional;
 
@@ -89,6 +92,11 @@ public final class IdDatabasesTest
         "idstore",
         IdDatabaseCreate.CREATE_DATABASE,
         IdDatabaseUpgrade.DO_NOT_UPGRADE_DATABASE,
+        10_000L,
+        List.of(),
+        Duration.ofSeconds(5L),
+        IdDatabasePoolConfiguration.defaults(),
+        Duration.ofSeconds(1L),
         IdStrings.create(Locale.ROOT),
         Clock.systemUTC()
       );
@@ -34,19 +34,24 @@ import com.io7m.idstore.model.IdAdminSearchByEmailParameters;
 import com.io7m.idstore.model.IdEmail;
 import com.io7m.idstore.model.IdName;
 import com.io7m.idstore.model.IdNonEmptyList;
+import com.io7m.idstore.model.IdPasswordAlgorithmPBKDF2HmacSHA256;
 import com.io7m.idstore.model.IdPasswordAlgorithmRedacted;
 import com.io7m.idstore.model.IdPasswordException;
 import com.io7m.idstore.model.IdRealName;
 import com.io7m.idstore.model.IdTimeRange;
+import com.io7m.idstore.protocol.admin.IdABatchTransactionMode;
 import com.io7m.idstore.protocol.admin.IdACommandAdminSearchByEmailBegin;
 import com.io7m.idstore.protocol.admin.IdACommandAdminSelf;
 import com.io7m.idstore.protocol.admin.IdACommandType;
+import com.io7m.idstore.protocol.admin.IdACommandUserCreate;
+import com.io7m.idstore.protocol.admin.IdACommandUserGet;
 import com.io7m.idstore.protocol.admin.IdAMessageType;
 import com.io7m.idstore.protocol.admin.IdAResponseAdminSelf;
 import com.io7m.idstore.protocol.admin.IdAResponseBlame;
 import com.io7m.idstore.protocol.admin.IdAResponseError;
 import com.io7m.idstore.protocol.admin.IdAResponseLogin;
 import com.io7m.idstore.protocol.admin.IdAResponseUserBanDelete;
+import com.io7m.idstore.protocol.admin.IdAResponseUserCreate;
 import com.io7m.idstore.protocol.admin.cb.IdACB1Messages;
 import com.io7m.idstore.tests.containers.IdTestContainerInstances;
 import com.io7m.idstore.tests.extensions.IdTestDatabases;
@@ -72,12 +77,15 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import java.time.Clock;
 import java.time.Duration;
 import java.time.OffsetDateTime;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Locale;
 import java.util.Map;
 import java.util.Optional;
 import java.util.Set;
 import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
 import java.util.concurrent.TimeUnit;
 import java.util.stream.Stream;
 
@@ -91,6 +99,8 @@ import static com.io7m.idstore.error_codes.IdStandardErrorCodes.PROTOCOL_ERROR;
 import static com.io7m.idstore.error_codes.IdStandardErrorCodes.USER_DUPLICATE_ID_NAME;
 import static com.io7m.idstore.error_codes.IdStandardErrorCodes.USER_NONEXISTENT;
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 
@@ -275,6 +285,101 @@ public final class IdAClientIT
     assertEquals(ADMIN.id(), result.admin().id());
   }
 
+  /**
+   * Asynchronous commands complete, and errors fail the returned futures.
+   *
+   * @throws Exception On errors
+   */
+
+  @Test
+  public void testSendAsync()
+    throws Exception
+  {
+    this.webServer.addResponse()
+      .forPath("/")
+      .withStatus(200)
+      .withContentType("application/verdant+cedarbridge")
+      .withFixedData(VERSION_HEADER);
+
+    this.webServer.addResponse()
+      .forPath("/v1/login")
+      .withStatus(200)
+      .withContentType(IdACB1Messages.contentType())
+      .withFixedData(MESSAGES.serialize(
+        new IdAResponseLogin(UUID.randomUUID(), ADMIN)));
+
+    for (int index = 0; index < 8; ++index) {
+      this.webServer.addResponse()
+        .forPath("/v1/command")
+        .withStatus(200)
+        .withContentType(IdACB1Messages.contentType())
+        .withFixedData(
+          MESSAGES.serialize(
+            new IdAResponseAdminSelf(UUID.randomUUID(), ADMIN))
+        );
+    }
+
+    this.webServer.addResponse()
+      .forPath("/v1/command")
+      .withStatus(400)
+      .withContentType(IdACB1Messages.contentType())
+      .withFixedData(
+        MESSAGES.serialize(
+          new IdAResponseError(
+            UUID.randomUUID(),
+            "error",
+            new IdErrorCode("error-x"),
+            Map.of(),
+            Optional.empty(),
+            IdAResponseBlame.BLAME_CLIENT
+          ))
+      );
+
+    this.client.connectOrThrow(
+      new IdAClientConnectionParameters(
+        "someone",
+        "whatever",
+        this.webServer.uri(),
+        Map.of(),
+        Duration.ofSeconds(30L),
+        Duration.ofSeconds(30L)
+      )
+    );
+
+    final var futures =
+      new ArrayList<CompletableFuture<IdAResponseAdminSelf>>();
+    for (int index = 0; index < 8; ++index) {
+      futures.add(
+        this.client.sendAsync(
+          new IdACommandAdminSelf(),
+          Duration.ofSeconds(30L)
+        )
+      );
+    }
+
+    for (final var future : futures) {
+      assertEquals(
+        ADMIN.id(),
+        future.get(30L, TimeUnit.SECONDS).admin().id()
+      );
+    }
+
+    final var failing =
+      this.client.sendAsync(
+        new IdACommandAdminSelf(),
+        Duration.ofSeconds(30L)
+      );
+
+    final var ex =
+      assertThrows(ExecutionException.class, () -> {
+        failing.get(30L, TimeUnit.SECONDS);
+      });
+
+    final var cause =
+      assertInstanceOf(IdAClientException.class, ex.getCause());
+    assertEquals(new IdErrorCode("error-x"), cause.errorCode());
+  }
+
   /**
    * The client fails if the server returns a non-response.
    *
@@ -488,6 +593,114 @@ public final class IdAClientIT
       });
   }
 
+  /**
+   * A batch in single-transaction mode stops at the first failure and
+   * commits nothing.
+   *
+   * @throws Exception On errors
+   */
+
+  @Test
+  public void testBatchSingleRollsBack()
+    throws Exception
+  {
+    this.serverFixture.createAdminInitial("admin", "12345678");
+    this.connectAdmin();
+
+    final var userId = UUID.randomUUID();
+    final var batch =
+      this.client.executeBatch(
+        IdABatchTransactionMode.BATCH_TRANSACTION_SINGLE,
+        List.of(
+          batchUserCreate(userId, "user0"),
+          batchUserCreate(UUID.randomUUID(), "user0"),
+          new IdACommandAdminSelf()
+        ),
+        Duration.ofSeconds(30L)
+      );
+
+    assertFalse(batch.committed());
+    assertEquals(2, batch.results().size());
+    assertInstanceOf(IdAResponseUserCreate.class, batch.results().get(0));
+    assertInstanceOf(IdAResponseError.class, batch.results().get(1));
+
+    final var get =
+      this.client.sendAndWaitOrThrow(
+        new IdACommandUserGet(userId),
+        Duration.ofSeconds(30L)
+      );
+    assertEquals(Optional.empty(), get.user());
+  }
+
+  /**
+   * A batch in per-command mode continues past failures and commits every
+   * successful command.
+   *
+   * @throws Exception On errors
+   */
+
+  @Test
+  public void testBatchPerCommandContinues()
+    throws Exception
+  {
+    this.serverFixture.createAdminInitial("admin", "12345678");
+    this.connectAdmin();
+
+    final var userId = UUID.randomUUID();
+    final var batch =
+      this.client.executeBatch(
+        IdABatchTransactionMode.BATCH_TRANSACTION_PER_COMMAND,
+        List.of(
+          batchUserCreate(userId, "user0"),
+          batchUserCreate(UUID.randomUUID(), "user0"),
+          new IdACommandAdminSelf()
+        ),
+        Duration.ofSeconds(30L)
+      );
+
+    assertTrue(batch.committed());
+    assertEquals(3, batch.results().size());
+    assertInstanceOf(IdAResponseUserCreate.class, batch.results().get(0));
+    assertInstanceOf(IdAResponseError.class, batch.results().get(1));
+    assertInstanceOf(IdAResponseAdminSelf.class, batch.results().get(2));
+
+    final var get =
+      this.client.sendAndWaitOrThrow(
+        new IdACommandUserGet(userId),
+        Duration.ofSeconds(30L)
+      );
+    assertEquals(userId, get.user().orElseThrow().id());
+  }
+
+  private void connectAdmin()
+    throws Exception
+  {
+    this.client.connectOrThrow(
+      new IdAClientConnectionParameters(
+        "admin",
+        "12345678",
+        this.serverFixture.server().adminAPI(),
+        Map.of(),
+        Duration.ofSeconds(30L),
+        Duration.ofSeconds(30L)
+      )
+    );
+  }
+
+  private static IdACommandUserCreate batchUserCreate(
+    final UUID id,
+    final String name)
+    throws IdPasswordException
+  {
+    return new IdACommandUserCreate(
+      Optional.of(id),
+      new IdName(name),
+      new IdRealName("Someone"),
+      new IdEmail("%s@example.com".formatted(id)),
+      IdPasswordAlgorithmPBKDF2HmacSHA256.create().createHashed("x")
+    );
+  }
+
   /**
    * A smoke test that simply executes random commands.
    */
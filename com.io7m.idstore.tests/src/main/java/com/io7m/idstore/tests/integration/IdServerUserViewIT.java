@@ -84,7 +84,17 @@ public final class IdServerUserViewIT
         Duration.ofSeconds(0L),
         Duration.ofSeconds(0L),
         Duration.ofSeconds(0L),
-        Duration.ofSeconds(0L)
+        Duration.ofSeconds(0L),
+        1,
+        1,
+        1,
+        1,
+        1000L,
+        false,
+        Duration.ZERO,
+        1,
+        Duration.ZERO,
+        1
       );
 
     this.serverFixture =
@@ -143,6 +153,18 @@ public final class IdServerUserViewIT
         this.httpClient.send(req, HttpResponse.BodyHandlers.ofString());
 
       assertTrue(res.body().contains("font-family:"));
+
+      final var tag =
+        res.headers().firstValue("ETag").orElseThrow();
+      final var reqAgain =
+        HttpRequest.newBuilder(this.viewURL("/css/style.css"))
+          .header("If-None-Match", tag)
+          .build();
+      final var resAgain =
+        this.httpClient.send(reqAgain, HttpResponse.BodyHandlers.ofString());
+
+      assertEquals(304, resAgain.statusCode());
+      assertEquals(tag, resAgain.headers().firstValue("ETag").orElseThrow());
     }
   }
 
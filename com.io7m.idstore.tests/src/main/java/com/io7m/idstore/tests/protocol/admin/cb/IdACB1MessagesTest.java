@@ -16,15 +16,25 @@
 
 package com.io7m.idstore.tests.protocol.admin.cb;
 
+import com.io7m.idstore.protocol.admin.IdACommandAdminSelf;
 import com.io7m.idstore.protocol.admin.IdAMessageType;
 import com.io7m.idstore.protocol.admin.cb.IdACB1Messages;
+import com.io7m.idstore.protocol.api.IdProtocolException;
 import net.jqwik.api.ForAll;
 import net.jqwik.api.Property;
 import org.junit.jupiter.api.Test;
 
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
 import java.util.UUID;
 
+import static com.io7m.idstore.error_codes.IdStandardErrorCodes.IO_ERROR;
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
 
 public final class IdACB1MessagesTest
 {
@@ -44,6 +54,67 @@ public final class IdACB1MessagesTest
     assertEquals(message, m);
   }
 
+  @Property(tries = 2000)
+  public void testSerializationStreamed(
+    final @ForAll IdAMessageType message)
+    throws Exception
+  {
+    final var output = new ByteArrayOutputStream();
+    MESSAGES.serialize(message, output);
+
+    final var data = output.toByteArray();
+    assertArrayEquals(MESSAGES.serialize(message), data);
+
+    final var m =
+      MESSAGES.parse(new ByteArrayInputStream(data));
+
+    assertEquals(message, m);
+  }
+
+  @Property(tries = 500)
+  public void testSerializationFramed(
+    final @ForAll List<IdAMessageType> messages)
+    throws Exception
+  {
+    final var output = new ByteArrayOutputStream();
+    for (final var message : messages) {
+      MESSAGES.serializeFramed(message, output);
+    }
+
+    final var input =
+      new ByteArrayInputStream(output.toByteArray());
+    final var received =
+      new ArrayList<IdAMessageType>();
+
+    while (true) {
+      final var m = MESSAGES.parseFramed(input);
+      if (m.isEmpty()) {
+        break;
+      }
+      received.add(m.get());
+    }
+
+    assertEquals(messages, received);
+  }
+
+  @Test
+  public void testFramedTruncated()
+    throws Exception
+  {
+    final var output = new ByteArrayOutputStream();
+    MESSAGES.serializeFramed(new IdACommandAdminSelf(), output);
+
+    final var data = output.toByteArray();
+    final var input =
+      new ByteArrayInputStream(Arrays.copyOf(data, data.length - 1));
+
+    final var ex =
+      assertThrows(IdProtocolException.class, () -> {
+        MESSAGES.parseFramed(input);
+      });
+    assertEquals(IO_ERROR, ex.errorCode());
+  }
+
   @Test
   public void testProtocolId()
   {
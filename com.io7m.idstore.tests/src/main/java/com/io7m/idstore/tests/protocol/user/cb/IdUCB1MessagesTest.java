@@ -23,8 +23,11 @@ import net.jqwik.api.ForAll;
 import net.jqwik.api.Property;
 import org.junit.jupiter.api.Test;
 
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
 import java.util.UUID;
 
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 
 public final class IdUCB1MessagesTest
@@ -45,6 +48,23 @@ public final class IdUCB1MessagesTest
     assertEquals(message, m);
   }
 
+  @Property(tries = 2000)
+  public void testSerializationStreamed(
+    final @ForAll IdUMessageType message)
+    throws Exception
+  {
+    final var output = new ByteArrayOutputStream();
+    MESSAGES.serialize(message, output);
+
+    final var data = output.toByteArray();
+    assertArrayEquals(MESSAGES.serialize(message), data);
+
+    final var m =
+      MESSAGES.parse(new ByteArrayInputStream(data));
+
+    assertEquals(message, m);
+  }
+
   @Test
   public void testProtocolId()
   {
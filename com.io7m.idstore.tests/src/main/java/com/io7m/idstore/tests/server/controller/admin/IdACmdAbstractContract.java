@@ -30,6 +30,9 @@ import com.io7m.idstore.model.IdUser;
 import com.io7m.idstore.server.api.IdServerConfiguration;
 import com.io7m.idstore.server.api.IdServerConfigurations;
 import com.io7m.idstore.server.controller.admin.IdACommandContext;
+import com.io7m.idstore.server.controller.admin.IdASearchCursorService;
+import com.io7m.idstore.server.controller.admin.IdASearchPrefetchService;
+import com.io7m.idstore.server.controller.admin.IdAUserImportHasher;
 import com.io7m.idstore.server.service.branding.IdServerBrandingServiceType;
 import com.io7m.idstore.server.service.clock.IdServerClock;
 import com.io7m.idstore.server.service.configuration.IdServerConfigurationParsers;
@@ -38,7 +41,6 @@ import com.io7m.idstore.server.service.mail.IdServerMailServiceType;
 import com.io7m.idstore.server.service.maintenance.IdClosedForMaintenanceService;
 import com.io7m.idstore.server.service.sessions.IdSessionAdmin;
 import com.io7m.idstore.server.service.sessions.IdSessionSecretIdentifier;
-import com.io7m.idstore.server.service.telemetry.api.IdMetricsServiceType;
 import com.io7m.idstore.server.service.telemetry.api.IdServerTelemetryNoOp;
 import com.io7m.idstore.server.service.telemetry.api.IdServerTelemetryServiceType;
 import com.io7m.idstore.server.service.templating.IdFMTemplateServiceType;
@@ -54,6 +56,7 @@ import org.mockito.internal.verification.Times;
 import java.nio.file.Path;
 import java.time.OffsetDateTime;
 import java.util.Locale;
+import java.util.Optional;
 import java.util.UUID;
 
 import static org.mockito.Mockito.mock;
@@ -70,11 +73,12 @@ public abstract class IdACmdAbstractContract
   private Path configFile;
   private IdServerConfiguration configuration;
   private IdServerConfigurationService configurationService;
-  private IdMetricsServiceType metrics;
   private IdFMTemplateServiceType templates;
   private IdServerMailServiceType mail;
   private IdServerBrandingServiceType branding;
   private IdClosedForMaintenanceService maintenance;
+  private IdASearchCursorService cursors;
+  private IdASearchPrefetchService prefetch;
 
   protected final Times once()
   {
@@ -171,14 +175,16 @@ public abstract class IdACmdAbstractContract
       mock(IdClosedForMaintenanceService.class);
     this.branding =
       mock(IdServerBrandingServiceType.class);
-    this.metrics =
-      mock(IdMetricsServiceType.class);
     this.templates =
       mock(IdFMTemplateServiceType.class);
     this.mail =
       mock(IdServerMailServiceType.class);
     this.configurationService =
-      new IdServerConfigurationService(this.metrics, this.configuration);
+      new IdServerConfigurationService(this.configuration);
+    this.cursors =
+      IdASearchCursorService.create(Optional.empty());
+    this.prefetch =
+      mock(IdASearchPrefetchService.class);
 
     this.services.register(
       IdClosedForMaintenanceService.class,
@@ -212,6 +218,18 @@ public abstract class IdACmdAbstractContract
       IdServerTelemetryServiceType.class,
       IdServerTelemetryNoOp.noop()
     );
+    this.services.register(
+      IdASearchCursorService.class,
+      this.cursors
+    );
+    this.services.register(
+      IdASearchPrefetchService.class,
+      this.prefetch
+    );
+    this.services.register(
+      IdAUserImportHasher.class,
+      IdAUserImportHasher.create(2)
+    );
   }
 
   @AfterEach
@@ -237,6 +255,11 @@ public abstract class IdACmdAbstractContract
     return this.maintenance;
   }
 
+  protected final IdASearchCursorService cursors()
+  {
+    return this.cursors;
+  }
+
   protected final IdACommandContext createContextAndSession(
     final IdAdmin admin)
   {
@@ -261,6 +284,11 @@ public abstract class IdACmdAbstractContract
     );
   }
 
+  protected final IdASearchPrefetchService prefetch()
+  {
+    return this.prefetch;
+  }
+
   protected final IdServerBrandingServiceType branding()
   {
     return this.branding;
@@ -123,7 +123,7 @@ public final class IdACmdAdminBanCreateTest
     assertEquals(ADMIN_NONEXISTENT, ex.errorCode());
 
     verify(transaction).queries(IdDatabaseAdminsQueriesType.class);
-    verify(transaction).adminIdSet(admin0.id());
+    verify(transaction).adminSet(admin0);
     verify(admins, this.once()).adminBanCreate(Mockito.any());
     verifyNoMoreInteractions(admins);
     verifyNoMoreInteractions(transaction);
@@ -172,7 +172,7 @@ public final class IdACmdAdminBanCreateTest
     );
 
     verify(transaction).queries(IdDatabaseAdminsQueriesType.class);
-    verify(transaction).adminIdSet(admin0.id());
+    verify(transaction).adminSet(admin0);
     verify(admins, this.once()).adminBanCreate(ban);
     verifyNoMoreInteractions(admins);
     verifyNoMoreInteractions(transaction);
@@ -117,7 +117,7 @@ public final class IdACmdAdminBanDeleteTest
     assertEquals(ADMIN_NONEXISTENT, ex.errorCode());
 
     verify(transaction).queries(IdDatabaseAdminsQueriesType.class);
-    verify(transaction).adminIdSet(admin0.id());
+    verify(transaction).adminSet(admin0);
     verify(admins, this.once()).adminBanDelete(Mockito.any());
     verifyNoMoreInteractions(admins);
     verifyNoMoreInteractions(transaction);
@@ -166,7 +166,7 @@ public final class IdACmdAdminBanDeleteTest
     );
 
     verify(transaction).queries(IdDatabaseAdminsQueriesType.class);
-    verify(transaction).adminIdSet(admin0.id());
+    verify(transaction).adminSet(admin0);
     verify(admins, this.once()).adminBanDelete(ban);
     verifyNoMoreInteractions(admins);
     verifyNoMoreInteractions(transaction);
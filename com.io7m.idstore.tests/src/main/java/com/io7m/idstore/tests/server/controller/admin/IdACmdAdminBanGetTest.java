@@ -118,7 +118,7 @@ public final class IdACmdAdminBanGetTest
     assertEquals(ADMIN_NONEXISTENT, ex.errorCode());
 
     verify(transaction).queries(IdDatabaseAdminsQueriesType.class);
-    verify(transaction).adminIdSet(admin0.id());
+    verify(transaction).adminSet(admin0);
     verify(admins, this.once()).adminBanGet(admin1.id());
     verifyNoMoreInteractions(admins);
     verifyNoMoreInteractions(transaction);
@@ -171,7 +171,7 @@ public final class IdACmdAdminBanGetTest
     /* Assert. */
 
     verify(transaction).queries(IdDatabaseAdminsQueriesType.class);
-    verify(transaction).adminIdSet(admin0.id());
+    verify(transaction).adminSet(admin0);
     verify(admins, this.once()).adminBanGet(admin1.id());
     verifyNoMoreInteractions(admins);
     verifyNoMoreInteractions(transaction);
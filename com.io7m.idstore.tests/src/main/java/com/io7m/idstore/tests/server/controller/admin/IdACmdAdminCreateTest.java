@@ -184,7 +184,7 @@ public final class IdACmdAdminCreateTest
     assertEquals(ADMIN_DUPLICATE, ex.errorCode());
 
     verify(transaction).queries(IdDatabaseAdminsQueriesType.class);
-    verify(transaction).adminIdSet(admin0.id());
+    verify(transaction).adminSet(admin0);
     verify(admins, this.once())
       .adminCreate(
         any(),
@@ -273,7 +273,7 @@ public final class IdACmdAdminCreateTest
     );
 
     verify(transaction).queries(IdDatabaseAdminsQueriesType.class);
-    verify(transaction).adminIdSet(admin0.id());
+    verify(transaction).adminSet(admin0);
     verify(admins, this.once())
       .adminCreate(
         any(),
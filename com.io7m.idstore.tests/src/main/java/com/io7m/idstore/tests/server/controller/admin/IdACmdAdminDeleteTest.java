@@ -116,7 +116,7 @@ public final class IdACmdAdminDeleteTest
     assertEquals(ADMIN_NONEXISTENT, ex.errorCode());
 
     verify(transaction).queries(IdDatabaseAdminsQueriesType.class);
-    verify(transaction).adminIdSet(admin0.id());
+    verify(transaction).adminSet(admin0);
     verify(admins, this.once()).adminDelete(adminId);
     verifyNoMoreInteractions(admins);
     verifyNoMoreInteractions(transaction);
@@ -163,7 +163,7 @@ public final class IdACmdAdminDeleteTest
     );
 
     verify(transaction).queries(IdDatabaseAdminsQueriesType.class);
-    verify(transaction).adminIdSet(admin0.id());
+    verify(transaction).adminSet(admin0);
     verify(admins, this.once()).adminDelete(adminId);
     verifyNoMoreInteractions(admins);
     verifyNoMoreInteractions(transaction);
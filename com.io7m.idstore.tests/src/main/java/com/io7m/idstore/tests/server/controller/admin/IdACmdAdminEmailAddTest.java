@@ -161,7 +161,7 @@ public final class IdACmdAdminEmailAddTest
     assertEquals(SQL_ERROR_UNIQUE, ex.errorCode());
 
     verify(transaction).queries(IdDatabaseAdminsQueriesType.class);
-    verify(transaction).adminIdSet(admin0.id());
+    verify(transaction).adminSet(admin0);
     verify(admins, this.once()).adminEmailAdd(adminId, email);
     verifyNoMoreInteractions(admins);
     verifyNoMoreInteractions(transaction);
@@ -213,7 +213,7 @@ public final class IdACmdAdminEmailAddTest
     assertEquals(SQL_ERROR, ex.errorCode());
 
     verify(transaction).queries(IdDatabaseAdminsQueriesType.class);
-    verify(transaction).adminIdSet(admin0.id());
+    verify(transaction).adminSet(admin0);
     verify(admins, this.once()).adminEmailAdd(adminId, email);
     verifyNoMoreInteractions(admins);
     verifyNoMoreInteractions(transaction);
@@ -281,7 +281,7 @@ public final class IdACmdAdminEmailAddTest
     );
 
     verify(transaction).queries(IdDatabaseAdminsQueriesType.class);
-    verify(transaction).adminIdSet(admin0.id());
+    verify(transaction).adminSet(admin0);
     verify(admins, this.once()).adminEmailAdd(admin1.id(), email);
     verify(admins, this.once()).adminGetRequire(admin1.id());
     verifyNoMoreInteractions(admins);
@@ -157,7 +157,7 @@ public final class IdACmdAdminEmailRemoveTest
     assertEquals(SQL_ERROR, ex.errorCode());
 
     verify(transaction).queries(IdDatabaseAdminsQueriesType.class);
-    verify(transaction).adminIdSet(admin0.id());
+    verify(transaction).adminSet(admin0);
     verify(admins, this.once()).adminEmailRemove(adminId, email);
     verifyNoMoreInteractions(admins);
     verifyNoMoreInteractions(transaction);
@@ -210,7 +210,7 @@ public final class IdACmdAdminEmailRemoveTest
     );
 
     verify(transaction).queries(IdDatabaseAdminsQueriesType.class);
-    verify(transaction).adminIdSet(admin0.id());
+    verify(transaction).adminSet(admin0);
     verify(admins, this.once()).adminEmailRemove(admin1.id(), email);
     verify(admins, this.once()).adminGetRequire(admin1.id());
     verifyNoMoreInteractions(admins);
@@ -172,7 +172,7 @@ public final class IdACmdAdminPermissionGrantTest
     verify(transaction)
       .queries(IdDatabaseAdminsQueriesType.class);
     verify(transaction)
-      .adminIdSet(admin0.id());
+      .adminSet(admin0);
     verify(admins, this.twice())
       .adminGetRequire(admin1.id());
     verify(admins, this.once())
@@ -18,6 +18,7 @@ package com.io7m.idstore.tests.server.controller.admin;
 
 import com.io7m.idstore.database.api.IdDatabaseAdminSearchType;
 import com.io7m.idstore.database.api.IdDatabaseAdminsQueriesType;
+import com.io7m.idstore.database.api.IdDatabaseSearchPosition;
 import com.io7m.idstore.model.IdAdminColumnOrdering;
 import com.io7m.idstore.model.IdAdminPermissionSet;
 import com.io7m.idstore.model.IdAdminSearchParameters;
@@ -112,9 +113,13 @@ public final class IdACmdAdminSearchBeginTest
 
     final var page =
       new IdPage<IdAdminSummary>(List.of(), 1, 1, 0L);
+    final var position =
+      new IdDatabaseSearchPosition(1, 1, List.of(), List.of());
 
     when(search.pageCurrent(any()))
       .thenReturn(page);
+    when(search.position())
+      .thenReturn(position);
     when(admins.adminSearch(any()))
       .thenReturn(search);
 
@@ -145,19 +150,21 @@ public final class IdACmdAdminSearchBeginTest
 
     /* Assert. */
 
-    assertEquals(
-      Optional.of(search),
-      context.session().adminSearch()
-    );
     assertEquals(
       response,
-      new IdAResponseAdminSearchBegin(context.requestId(), page)
+      new IdAResponseAdminSearchBegin(
+        context.requestId(),
+        page.withCursor(
+          this.cursors().encode(admin0.id(), parameters, position))
+      )
     );
 
     verify(admins)
       .adminSearch(parameters);
     verify(search)
       .pageCurrent(admins);
+    verify(search)
+      .position();
     verify(transaction)
       .queries(IdDatabaseAdminsQueriesType.class);
 
@@ -190,9 +197,13 @@ public final class IdACmdAdminSearchBeginTest
 
     final var page =
       new IdPage<IdAdminSummary>(List.of(), 1, 1, 0L);
+    final var position =
+      new IdDatabaseSearchPosition(1, 1, List.of(), List.of());
 
     when(search.pageCurrent(any()))
       .thenReturn(page);
+    when(search.position())
+      .thenReturn(position);
     when(admins.adminSearch(any()))
       .thenReturn(search);
 
@@ -229,19 +240,21 @@ public final class IdACmdAdminSearchBeginTest
 
     /* Assert. */
 
-    assertEquals(
-      Optional.of(search),
-      context.session().adminSearch()
-    );
     assertEquals(
       response,
-      new IdAResponseAdminSearchBegin(context.requestId(), page)
+      new IdAResponseAdminSearchBegin(
+        context.requestId(),
+        page.withCursor(
+          this.cursors().encode(admin0.id(), parametersLimited, position))
+      )
     );
 
     verify(admins)
       .adminSearch(parametersLimited);
     verify(search)
       .pageCurrent(admins);
+    verify(search)
+      .position();
     verify(transaction)
       .queries(IdDatabaseAdminsQueriesType.class);
 
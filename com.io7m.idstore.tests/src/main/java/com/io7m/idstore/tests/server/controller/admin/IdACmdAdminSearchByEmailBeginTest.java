@@ -18,6 +18,7 @@ package com.io7m.idstore.tests.server.controller.admin;
 
 import com.io7m.idstore.database.api.IdDatabaseAdminSearchByEmailType;
 import com.io7m.idstore.database.api.IdDatabaseAdminsQueriesType;
+import com.io7m.idstore.database.api.IdDatabaseSearchPosition;
 import com.io7m.idstore.model.IdAdminColumnOrdering;
 import com.io7m.idstore.model.IdAdminPermissionSet;
 import com.io7m.idstore.model.IdAdminSearchByEmailParameters;
@@ -31,7 +32,6 @@ import com.io7m.idstore.server.controller.command_exec.IdCommandExecutionFailure
 import org.junit.jupiter.api.Test;
 
 import java.util.List;
-import java.util.Optional;
 
 import static com.io7m.idstore.error_codes.IdStandardErrorCodes.SECURITY_POLICY_DENIED;
 import static com.io7m.idstore.model.IdAdminColumn.BY_IDNAME;
@@ -112,9 +112,13 @@ public final class IdACmdAdminSearchByEmailBeginTest
 
     final var page =
       new IdPage<IdAdminSummary>(List.of(), 1, 1, 0L);
+    final var position =
+      new IdDatabaseSearchPosition(1, 1, List.of(), List.of());
 
     when(search.pageCurrent(any()))
       .thenReturn(page);
+    when(search.position())
+      .thenReturn(position);
     when(admins.adminSearchByEmail(any()))
       .thenReturn(search);
 
@@ -145,19 +149,21 @@ public final class IdACmdAdminSearchByEmailBeginTest
 
     /* Assert. */
 
-    assertEquals(
-      Optional.of(search),
-      context.session().adminSearchByEmail()
-    );
     assertEquals(
       response,
-      new IdAResponseAdminSearchByEmailBegin(context.requestId(), page)
+      new IdAResponseAdminSearchByEmailBegin(
+        context.requestId(),
+        page.withCursor(
+          this.cursors().encode(admin0.id(), parameters, position))
+      )
     );
 
     verify(admins)
       .adminSearchByEmail(parameters);
     verify(search)
       .pageCurrent(admins);
+    verify(search)
+      .position();
     verify(transaction)
       .queries(IdDatabaseAdminsQueriesType.class);
 
@@ -190,9 +196,13 @@ public final class IdACmdAdminSearchByEmailBeginTest
 
     final var page =
       new IdPage<IdAdminSummary>(List.of(), 1, 1, 0L);
+    final var position =
+      new IdDatabaseSearchPosition(1, 1, List.of(), List.of());
 
     when(search.pageCurrent(any()))
       .thenReturn(page);
+    when(search.position())
+      .thenReturn(position);
     when(admins.adminSearchByEmail(any()))
       .thenReturn(search);
 
@@ -229,19 +239,21 @@ public final class IdACmdAdminSearchByEmailBeginTest
 
     /* Assert. */
 
-    assertEquals(
-      Optional.of(search),
-      context.session().adminSearchByEmail()
-    );
     assertEquals(
       response,
-      new IdAResponseAdminSearchByEmailBegin(context.requestId(), page)
+      new IdAResponseAdminSearchByEmailBegin(
+        context.requestId(),
+        page.withCursor(
+          this.cursors().encode(admin0.id(), parametersLimited, position))
+      )
     );
 
     verify(admins)
       .adminSearchByEmail(parametersLimited);
     verify(search)
       .pageCurrent(admins);
+    verify(search)
+      .position();
     verify(transaction)
       .queries(IdDatabaseAdminsQueriesType.class);
 
@@ -18,9 +18,13 @@ package com.io7m.idstore.tests.server.controller.admin;
 
 import com.io7m.idstore.database.api.IdDatabaseAdminSearchByEmailType;
 import com.io7m.idstore.database.api.IdDatabaseAdminsQueriesType;
+import com.io7m.idstore.database.api.IdDatabaseSearchPosition;
+import com.io7m.idstore.model.IdAdminColumnOrdering;
 import com.io7m.idstore.model.IdAdminPermissionSet;
+import com.io7m.idstore.model.IdAdminSearchByEmailParameters;
 import com.io7m.idstore.model.IdAdminSummary;
 import com.io7m.idstore.model.IdPage;
+import com.io7m.idstore.model.IdTimeRange;
 import com.io7m.idstore.protocol.admin.IdACommandAdminSearchByEmailNext;
 import com.io7m.idstore.protocol.admin.IdAResponseAdminSearchByEmailNext;
 import com.io7m.idstore.server.controller.admin.IdACmdAdminSearchByEmailNext;
@@ -28,10 +32,10 @@ import com.io7m.idstore.server.controller.command_exec.IdCommandExecutionFailure
 import org.junit.jupiter.api.Test;
 
 import java.util.List;
-import java.util.Optional;
 
 import static com.io7m.idstore.error_codes.IdStandardErrorCodes.API_MISUSE_ERROR;
 import static com.io7m.idstore.error_codes.IdStandardErrorCodes.SECURITY_POLICY_DENIED;
+import static com.io7m.idstore.model.IdAdminColumn.BY_IDNAME;
 import static com.io7m.idstore.model.IdAdminPermission.ADMIN_READ;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertThrows;
@@ -44,6 +48,15 @@ import static org.mockito.Mockito.when;
 public final class IdACmdAdminSearchByEmailNextTest
   extends IdACmdAbstractContract
 {
+  private static final IdAdminSearchByEmailParameters PARAMETERS =
+    new IdAdminSearchByEmailParameters(
+      IdTimeRange.largest(),
+      IdTimeRange.largest(),
+      "x",
+      new IdAdminColumnOrdering(BY_IDNAME, true),
+      100
+    );
+
   /**
    * Searching requires ADMIN_READ.
    *
@@ -68,7 +81,7 @@ public final class IdACmdAdminSearchByEmailNextTest
       assertThrows(IdCommandExecutionFailure.class, () -> {
         handler.execute(
           context,
-          new IdACommandAdminSearchByEmailNext()
+          new IdACommandAdminSearchByEmailNext("")
         );
       });
 
@@ -101,16 +114,26 @@ public final class IdACmdAdminSearchByEmailNextTest
 
     final var page =
       new IdPage<IdAdminSummary>(List.of(), 2, 3, 1L);
+    final var positionBefore =
+      new IdDatabaseSearchPosition(1, 3, List.of(), List.of());
+    final var positionAfter =
+      new IdDatabaseSearchPosition(2, 3, List.of(), List.of());
 
     when(search.pageNext(any()))
       .thenReturn(page);
+    when(search.position())
+      .thenReturn(positionAfter);
+    when(admins.adminSearchByEmail(any(), any()))
+      .thenReturn(search);
 
     final var transaction = this.transaction();
     when(transaction.queries(IdDatabaseAdminsQueriesType.class))
       .thenReturn(admins);
 
-    context.session()
-      .setAdminSearchByEmail(search);
+    final var cursorBefore =
+      this.cursors().encode(admin0.id(), PARAMETERS, positionBefore);
+    final var cursorAfter =
+      this.cursors().encode(admin0.id(), PARAMETERS, positionAfter);
 
     /* Act. */
 
@@ -119,22 +142,25 @@ public final class IdACmdAdminSearchByEmailNextTest
     final var response =
       handler.execute(
         context,
-        new IdACommandAdminSearchByEmailNext()
+        new IdACommandAdminSearchByEmailNext(cursorBefore)
       );
 
     /* Assert. */
 
-    assertEquals(
-      Optional.of(search),
-      context.session().adminSearchByEmail()
-    );
     assertEquals(
       response,
-      new IdAResponseAdminSearchByEmailNext(context.requestId(), page)
+      new IdAResponseAdminSearchByEmailNext(
+        context.requestId(),
+        page.withCursor(cursorAfter)
+      )
     );
 
+    verify(admins)
+      .adminSearchByEmail(PARAMETERS, positionBefore);
     verify(search)
       .pageNext(admins);
+    verify(search)
+      .position();
     verify(transaction)
       .queries(IdDatabaseAdminsQueriesType.class);
 
@@ -144,7 +170,8 @@ public final class IdACmdAdminSearchByEmailNextTest
   }
 
   /**
-   * It's not possible to request the next page when the first page hasn't been requested.
+   * It's not possible to request the next page when the first page hasn't
+   * been requested.
    *
    * @throws Exception On errors
    */
@@ -160,12 +187,92 @@ public final class IdACmdAdminSearchByEmailNextTest
     final var context =
       this.createContextAndSession(admin0);
 
-    final var admins =
-      mock(IdDatabaseAdminsQueriesType.class);
+    /* Act. */
 
-    final var transaction = this.transaction();
-    when(transaction.queries(IdDatabaseAdminsQueriesType.class))
-      .thenReturn(admins);
+    final var handler =
+      new IdACmdAdminSearchByEmailNext();
+    final var ex =
+      assertThrows(IdCommandExecutionFailure.class, () -> {
+        handler.execute(
+          context,
+          new IdACommandAdminSearchByEmailNext("")
+        );
+      });
+
+    /* Assert. */
+
+    assertEquals(API_MISUSE_ERROR, ex.errorCode());
+  }
+
+  /**
+   * A cursor issued to a different admin is rejected.
+   *
+   * @throws Exception On errors
+   */
+
+  @Test
+  public void testSearchingCursorOtherAdmin()
+    throws Exception
+  {
+    /* Arrange. */
+
+    final var admin0 =
+      this.createAdmin("admin0", IdAdminPermissionSet.of(ADMIN_READ));
+    final var admin1 =
+      this.createAdmin("admin1", IdAdminPermissionSet.of(ADMIN_READ));
+    final var context =
+      this.createContextAndSession(admin0);
+
+    final var cursor =
+      this.cursors().encode(
+        admin1.id(),
+        PARAMETERS,
+        new IdDatabaseSearchPosition(1, 3, List.of(), List.of())
+      );
+
+    /* Act. */
+
+    final var handler =
+      new IdACmdAdminSearchByEmailNext();
+    final var ex =
+      assertThrows(IdCommandExecutionFailure.class, () -> {
+        handler.execute(
+          context,
+          new IdACommandAdminSearchByEmailNext(cursor)
+        );
+      });
+
+    /* Assert. */
+
+    assertEquals(API_MISUSE_ERROR, ex.errorCode());
+  }
+
+  /**
+   * A cursor that has been tampered with is rejected.
+   *
+   * @throws Exception On errors
+   */
+
+  @Test
+  public void testSearchingCursorTampered()
+    throws Exception
+  {
+    /* Arrange. */
+
+    final var admin0 =
+      this.createAdmin("admin0", IdAdminPermissionSet.of(ADMIN_READ));
+    final var context =
+      this.createContextAndSession(admin0);
+
+    final var cursor =
+      this.cursors().encode(
+        admin0.id(),
+        PARAMETERS,
+        new IdDatabaseSearchPosition(1, 3, List.of(), List.of())
+      );
+    final var chars = cursor.toCharArray();
+    chars[4] = chars[4] == 'A' ? 'B' : 'A';
+    final var tampered = new String(chars);
 
     /* Act. */
 
@@ -175,7 +282,7 @@ public final class IdACmdAdminSearchByEmailNextTest
       assertThrows(IdCommandExecutionFailure.class, () -> {
         handler.execute(
           context,
-          new IdACommandAdminSearchByEmailNext()
+          new IdACommandAdminSearchByEmailNext(tampered)
         );
       });
 
@@ -18,9 +18,13 @@ package com.io7m.idstore.tests.server.controller.admin;
 
 import com.io7m.idstore.database.api.IdDatabaseAdminSearchType;
 import com.io7m.idstore.database.api.IdDatabaseAdminsQueriesType;
+import com.io7m.idstore.database.api.IdDatabaseSearchPosition;
+import com.io7m.idstore.model.IdAdminColumnOrdering;
 import com.io7m.idstore.model.IdAdminPermissionSet;
+import com.io7m.idstore.model.IdAdminSearchParameters;
 import com.io7m.idstore.model.IdAdminSummary;
 import com.io7m.idstore.model.IdPage;
+import com.io7m.idstore.model.IdTimeRange;
 import com.io7m.idstore.protocol.admin.IdACommandAdminSearchPrevious;
 import com.io7m.idstore.protocol.admin.IdAResponseAdminSearchPrevious;
 import com.io7m.idstore.server.controller.admin.IdACmdAdminSearchPrevious;
@@ -32,6 +36,7 @@ import java.util.Optional;
 
 import static com.io7m.idstore.error_codes.IdStandardErrorCodes.API_MISUSE_ERROR;
 import static com.io7m.idstore.error_codes.IdStandardErrorCodes.SECURITY_POLICY_DENIED;
+import static com.io7m.idstore.model.IdAdminColumn.BY_IDNAME;
 import static com.io7m.idstore.model.IdAdminPermission.ADMIN_READ;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertThrows;
@@ -44,6 +49,15 @@ import static org.mockito.Mockito.when;
 public final class IdACmdAdminSearchPreviousTest
   extends IdACmdAbstractContract
 {
+  private static final IdAdminSearchParameters PARAMETERS =
+    new IdAdminSearchParameters(
+      IdTimeRange.largest(),
+      IdTimeRange.largest(),
+      Optional.empty(),
+      new IdAdminColumnOrdering(BY_IDNAME, true),
+      100
+    );
+
   /**
    * Searching requires ADMIN_READ.
    *
@@ -68,7 +82,7 @@ public final class IdACmdAdminSearchPreviousTest
       assertThrows(IdCommandExecutionFailure.class, () -> {
         handler.execute(
           context,
-          new IdACommandAdminSearchPrevious()
+          new IdACommandAdminSearchPrevious("")
         );
       });
 
@@ -101,16 +115,26 @@ public final class IdACmdAdminSearchPreviousTest
 
     final var page =
       new IdPage<IdAdminSummary>(List.of(), 2, 3, 1L);
+    final var positionBefore =
+      new IdDatabaseSearchPosition(3, 3, List.of(), List.of());
+    final var positionAfter =
+      new IdDatabaseSearchPosition(2, 3, List.of(), List.of());
 
     when(search.pagePrevious(any()))
       .thenReturn(page);
+    when(search.position())
+      .thenReturn(positionAfter);
+    when(admins.adminSearch(any(), any()))
+      .thenReturn(search);
 
     final var transaction = this.transaction();
     when(transaction.queries(IdDatabaseAdminsQueriesType.class))
       .thenReturn(admins);
 
-    context.session()
-      .setAdminSearch(search);
+    final var cursorBefore =
+      this.cursors().encode(admin0.id(), PARAMETERS, positionBefore);
+    final var cursorAfter =
+      this.cursors().encode(admin0.id(), PARAMETERS, positionAfter);
 
     /* Act. */
 
@@ -119,22 +143,25 @@ public final class IdACmdAdminSearchPreviousTest
     final var response =
       handler.execute(
         context,
-        new IdACommandAdminSearchPrevious()
+        new IdACommandAdminSearchPrevious(cursorBefore)
       );
 
     /* Assert. */
 
-    assertEquals(
-      Optional.of(search),
-      context.session().adminSearch()
-    );
     assertEquals(
       response,
-      new IdAResponseAdminSearchPrevious(context.requestId(), page)
+      new IdAResponseAdminSearchPrevious(
+        context.requestId(),
+        page.withCursor(cursorAfter)
+      )
     );
 
+    verify(admins)
+      .adminSearch(PARAMETERS, positionBefore);
     verify(search)
       .pagePrevious(admins);
+    verify(search)
+      .position();
     verify(transaction)
       .queries(IdDatabaseAdminsQueriesType.class);
 
@@ -161,12 +188,92 @@ public final class IdACmdAdminSearchPreviousTest
     final var context =
       this.createContextAndSession(admin0);
 
-    final var admins =
-      mock(IdDatabaseAdminsQueriesType.class);
+    /* Act. */
 
-    final var transaction = this.transaction();
-    when(transaction.queries(IdDatabaseAdminsQueriesType.class))
-      .thenReturn(admins);
+    final var handler =
+      new IdACmdAdminSearchPrevious();
+    final var ex =
+      assertThrows(IdCommandExecutionFailure.class, () -> {
+        handler.execute(
+          context,
+          new IdACommandAdminSearchPrevious("")
+        );
+      });
+
+    /* Assert. */
+
+    assertEquals(API_MISUSE_ERROR, ex.errorCode());
+  }
+
+  /**
+   * A cursor issued to a different admin is rejected.
+   *
+   * @throws Exception On errors
+   */
+
+  @Test
+  public void testSearchingCursorOtherAdmin()
+    throws Exception
+  {
+    /* Arrange. */
+
+    final var admin0 =
+      this.createAdmin("admin0", IdAdminPermissionSet.of(ADMIN_READ));
+    final var admin1 =
+      this.createAdmin("admin1", IdAdminPermissionSet.of(ADMIN_READ));
+    final var context =
+      this.createContextAndSession(admin0);
+
+    final var cursor =
+      this.cursors().encode(
+        admin1.id(),
+        PARAMETERS,
+        new IdDatabaseSearchPosition(1, 3, List.of(), List.of())
+      );
+
+    /* Act. */
+
+    final var handler =
+      new IdACmdAdminSearchPrevious();
+    final var ex =
+      assertThrows(IdCommandExecutionFailure.class, () -> {
+        handler.execute(
+          context,
+          new IdACommandAdminSearchPrevious(cursor)
+        );
+      });
+
+    /* Assert. */
+
+    assertEquals(API_MISUSE_ERROR, ex.errorCode());
+  }
+
+  /**
+   * A cursor that has been tampered with is rejected.
+   *
+   * @throws Exception On errors
+   */
+
+  @Test
+  public void testSearchingCursorTampered()
+    throws Exception
+  {
+    /* Arrange. */
+
+    final var admin0 =
+      this.createAdmin("admin0", IdAdminPermissionSet.of(ADMIN_READ));
+    final var context =
+      this.createContextAndSession(admin0);
+
+    final var cursor =
+      this.cursors().encode(
+        admin0.id(),
+        PARAMETERS,
+        new IdDatabaseSearchPosition(1, 3, List.of(), List.of())
+      );
+    final var chars = cursor.toCharArray();
+    chars[4] = chars[4] == 'A' ? 'B' : 'A';
+    final var tampered = new String(chars);
 
     /* Act. */
 
@@ -176,7 +283,7 @@ public final class IdACmdAdminSearchPreviousTest
       assertThrows(IdCommandExecutionFailure.class, () -> {
         handler.execute(
           context,
-          new IdACommandAdminSearchPrevious()
+          new IdACommandAdminSearchPrevious(tampered)
         );
       });
 
@@ -176,7 +176,7 @@ public final class IdACmdAdminUpdateCredentialsTest
     verify(transaction)
       .queries(IdDatabaseAdminsQueriesType.class);
     verify(transaction)
-      .adminIdSet(admin0.id());
+      .adminSet(admin0);
     verify(admins, this.once())
       .adminGetRequire(admin1.id());
     verify(admins, this.once())
@@ -263,7 +263,7 @@ public final class IdACmdAdminUpdateCredentialsTest
     verify(transaction)
       .queries(IdDatabaseAdminsQueriesType.class);
     verify(transaction)
-      .adminIdSet(admin0.id());
+      .adminSet(admin0);
     verify(admins, this.once())
       .adminUpdate(
         admin1.id(),
@@ -334,7 +334,7 @@ public final class IdACmdAdminUpdateCredentialsTest
     verify(transaction)
       .queries(IdDatabaseAdminsQueriesType.class);
     verify(transaction)
-      .adminIdSet(admin0.id());
+      .adminSet(admin0);
     verify(admins, this.once())
       .adminUpdate(
         admin1.id(),
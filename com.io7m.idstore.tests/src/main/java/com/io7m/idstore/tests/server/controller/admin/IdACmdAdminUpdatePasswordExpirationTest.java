@@ -176,7 +176,7 @@ public final class IdACmdAdminUpdatePasswordExpirationTest
     verify(transaction)
       .queries(IdDatabaseAdminsQueriesType.class);
     verify(transaction)
-      .adminIdSet(admin0.id());
+      .adminSet(admin0);
     verify(admins, this.once())
       .adminGetRequire(admin1.id());
     verify(admins, this.once())
@@ -292,7 +292,7 @@ public final class IdACmdAdminUpdatePasswordExpirationTest
     verify(transaction)
       .queries(IdDatabaseAdminsQueriesType.class);
     verify(transaction)
-      .adminIdSet(admin0.id());
+      .adminSet(admin0);
     verify(admins, atLeast(1))
       .adminGetRequire(adminInput.id());
     verify(admins, this.once())
@@ -409,7 +409,7 @@ public final class IdACmdAdminUpdatePasswordExpirationTest
     verify(transaction)
       .queries(IdDatabaseAdminsQueriesType.class);
     verify(transaction)
-      .adminIdSet(admin0.id());
+      .adminSet(admin0);
     verify(admins, atLeast(1))
       .adminGetRequire(adminInput.id());
     verify(admins, this.once())
@@ -528,7 +528,7 @@ public final class IdACmdAdminUpdatePasswordExpirationTest
     verify(transaction)
       .queries(IdDatabaseAdminsQueriesType.class);
     verify(transaction)
-      .adminIdSet(admin0.id());
+      .adminSet(admin0);
     verify(admins, atLeast(1))
       .adminGetRequire(adminInput.id());
     verify(admins, this.once())
@@ -18,6 +18,7 @@ package com.io7m.idstore.tests.server.controller.admin;
 
 import com.io7m.idstore.database.api.IdDatabaseAuditEventsSearchType;
 import com.io7m.idstore.database.api.IdDatabaseAuditQueriesType;
+import com.io7m.idstore.database.api.IdDatabaseSearchPosition;
 import com.io7m.idstore.model.IdAdminPermissionSet;
 import com.io7m.idstore.model.IdAuditEvent;
 import com.io7m.idstore.model.IdAuditSearchParameters;
@@ -109,9 +110,13 @@ public final class IdACmdAuditSearchBeginTest
 
     final var page =
       new IdPage<IdAuditEvent>(List.of(), 1, 1, 0L);
+    final var position =
+      new IdDatabaseSearchPosition(1, 1, List.of(), List.of());
 
     when(search.pageCurrent(any()))
       .thenReturn(page);
+    when(search.position())
+      .thenReturn(position);
     when(audits.auditEventsSearch(any()))
       .thenReturn(search);
 
@@ -141,19 +146,21 @@ public final class IdACmdAuditSearchBeginTest
 
     /* Assert. */
 
-    assertEquals(
-      Optional.of(search),
-      context.session().auditSearch()
-    );
     assertEquals(
       response,
-      new IdAResponseAuditSearchBegin(context.requestId(), page)
+      new IdAResponseAuditSearchBegin(
+        context.requestId(),
+        page.withCursor(
+          this.cursors().encode(admin0.id(), parameters, position))
+      )
     );
 
     verify(audits)
       .auditEventsSearch(parameters);
     verify(search)
       .pageCurrent(audits);
+    verify(search)
+      .position();
     verify(transaction)
       .queries(IdDatabaseAuditQueriesType.class);
 
@@ -186,9 +193,13 @@ public final class IdACmdAuditSearchBeginTest
 
     final var page =
       new IdPage<IdAuditEvent>(List.of(), 1, 1, 0L);
+    final var position =
+      new IdDatabaseSearchPosition(1, 1, List.of(), List.of());
 
     when(search.pageCurrent(any()))
       .thenReturn(page);
+    when(search.position())
+      .thenReturn(position);
     when(audits.auditEventsSearch(any()))
       .thenReturn(search);
 
@@ -223,19 +234,21 @@ public final class IdACmdAuditSearchBeginTest
 
     /* Assert. */
 
-    assertEquals(
-      Optional.of(search),
-      context.session().auditSearch()
-    );
     assertEquals(
       response,
-      new IdAResponseAuditSearchBegin(context.requestId(), page)
+      new IdAResponseAuditSearchBegin(
+        context.requestId(),
+        page.withCursor(
+          this.cursors().encode(admin0.id(), parametersLimited, position))
+      )
     );
 
     verify(audits)
       .auditEventsSearch(parametersLimited);
     verify(search)
       .pageCurrent(audits);
+    verify(search)
+      .position();
     verify(transaction)
       .queries(IdDatabaseAuditQueriesType.class);
 
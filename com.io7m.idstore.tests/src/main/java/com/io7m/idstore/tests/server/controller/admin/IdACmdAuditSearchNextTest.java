@@ -18,12 +18,17 @@ package com.io7m.idstore.tests.server.controller.admin;
 
 import com.io7m.idstore.database.api.IdDatabaseAuditEventsSearchType;
 import com.io7m.idstore.database.api.IdDatabaseAuditQueriesType;
+import com.io7m.idstore.database.api.IdDatabaseSearchPosition;
 import com.io7m.idstore.model.IdAdminPermissionSet;
 import com.io7m.idstore.model.IdAuditEvent;
+import com.io7m.idstore.model.IdAuditSearchParameters;
 import com.io7m.idstore.model.IdPage;
+import com.io7m.idstore.model.IdTimeRange;
 import com.io7m.idstore.protocol.admin.IdACommandAuditSearchNext;
 import com.io7m.idstore.protocol.admin.IdAResponseAuditSearchNext;
 import com.io7m.idstore.server.controller.admin.IdACmdAuditSearchNext;
+import com.io7m.idstore.server.controller.admin.IdASearchKind;
+import com.io7m.idstore.server.controller.admin.IdASearchPrefetchService.IdASearchPrefetched;
 import com.io7m.idstore.server.controller.command_exec.IdCommandExecutionFailure;
 import org.junit.jupiter.api.Test;
 
@@ -36,6 +41,7 @@ import static com.io7m.idstore.model.IdAdminPermission.AUDIT_READ;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.verifyNoMoreInteractions;
@@ -44,6 +50,14 @@ import static org.mockito.Mockito.when;
 public final class IdACmdAuditSearchNextTest
   extends IdACmdAbstractContract
 {
+  private static final IdAuditSearchParameters PARAMETERS =
+    new IdAuditSearchParameters(
+      IdTimeRange.largest(),
+      Optional.empty(),
+      Optional.empty(),
+      100
+    );
+
   /**
    * Searching requires AUDIT_READ.
    *
@@ -68,7 +82,7 @@ public final class IdACmdAuditSearchNextTest
       assertThrows(IdCommandExecutionFailure.class, () -> {
         handler.execute(
           context,
-          new IdACommandAuditSearchNext()
+          new IdACommandAuditSearchNext("")
         );
       });
 
@@ -94,23 +108,33 @@ public final class IdACmdAuditSearchNextTest
     final var context =
       this.createContextAndSession(admin0);
 
-    final var audits =
+    final var audit =
       mock(IdDatabaseAuditQueriesType.class);
     final var search =
       mock(IdDatabaseAuditEventsSearchType.class);
 
     final var page =
       new IdPage<IdAuditEvent>(List.of(), 2, 3, 1L);
+    final var positionBefore =
+      new IdDatabaseSearchPosition(1, 3, List.of(), List.of());
+    final var positionAfter =
+      new IdDatabaseSearchPosition(2, 3, List.of(), List.of());
 
     when(search.pageNext(any()))
       .thenReturn(page);
+    when(search.position())
+      .thenReturn(positionAfter);
+    when(audit.auditEventsSearch(any(), any()))
+      .thenReturn(search);
 
     final var transaction = this.transaction();
     when(transaction.queries(IdDatabaseAuditQueriesType.class))
-      .thenReturn(audits);
+      .thenReturn(audit);
 
-    context.session()
-      .setAuditSearch(search);
+    final var cursorBefore =
+      this.cursors().encode(admin0.id(), PARAMETERS, positionBefore);
+    final var cursorAfter =
+      this.cursors().encode(admin0.id(), PARAMETERS, positionAfter);
 
     /* Act. */
 
@@ -119,32 +143,101 @@ public final class IdACmdAuditSearchNextTest
     final var response =
       handler.execute(
         context,
-        new IdACommandAuditSearchNext()
+        new IdACommandAuditSearchNext(cursorBefore)
       );
 
     /* Assert. */
 
-    assertEquals(
-      Optional.of(search),
-      context.session().auditSearch()
-    );
     assertEquals(
       response,
-      new IdAResponseAuditSearchNext(context.requestId(), page)
+      new IdAResponseAuditSearchNext(
+        context.requestId(),
+        page.withCursor(cursorAfter)
+      )
     );
 
+    verify(audit)
+      .auditEventsSearch(PARAMETERS, positionBefore);
     verify(search)
-      .pageNext(audits);
+      .pageNext(audit);
+    verify(search)
+      .position();
     verify(transaction)
       .queries(IdDatabaseAuditQueriesType.class);
 
     verifyNoMoreInteractions(search);
-    verifyNoMoreInteractions(audits);
+    verifyNoMoreInteractions(audit);
     verifyNoMoreInteractions(transaction);
   }
 
   /**
-   * It's not possible to request the next page when the first page hasn't been requested.
+   * A page fetched in the background is served without a database query.
+   *
+   * @throws Exception On errors
+   */
+
+  @Test
+  public void testSearchingPrefetched()
+    throws Exception
+  {
+    /* Arrange. */
+
+    final var admin0 =
+      this.createAdmin("admin0", IdAdminPermissionSet.of(AUDIT_READ));
+    final var context =
+      this.createContextAndSession(admin0);
+
+    final var page =
+      new IdPage<IdAuditEvent>(List.of(), 2, 3, 1L);
+    final var positionBefore =
+      new IdDatabaseSearchPosition(1, 3, List.of(), List.of());
+    final var positionAfter =
+      new IdDatabaseSearchPosition(2, 3, List.of(), List.of());
+
+    final var cursorBefore =
+      this.cursors().encode(admin0.id(), PARAMETERS, positionBefore);
+    final var cursorAfter =
+      this.cursors().encode(admin0.id(), PARAMETERS, positionAfter);
+
+    when(this.prefetch().take(
+      context.session().id(), IdASearchKind.AUDIT, cursorBefore))
+      .thenReturn(Optional.of(new IdASearchPrefetched<>(page, positionAfter)));
+
+    /* Act. */
+
+    final var handler =
+      new IdACmdAuditSearchNext();
+    final var response =
+      handler.execute(
+        context,
+        new IdACommandAuditSearchNext(cursorBefore)
+      );
+
+    /* Assert. */
+
+    assertEquals(
+      response,
+      new IdAResponseAuditSearchNext(
+        context.requestId(),
+        page.withCursor(cursorAfter)
+      )
+    );
+
+    verify(this.prefetch())
+      .prefetch(
+        eq(context.session().id()),
+        eq(IdASearchKind.AUDIT),
+        eq(cursorAfter),
+        eq(PARAMETERS),
+        eq(positionAfter),
+        any()
+      );
+    verifyNoMoreInteractions(this.transaction());
+  }
+
+  /**
+   * It's not possible to request the next page when the first page hasn't
+   * been requested.
    *
    * @throws Exception On errors
    */
@@ -160,12 +253,92 @@ public final class IdACmdAuditSearchNextTest
     final var context =
       this.createContextAndSession(admin0);
 
-    final var audits =
-      mock(IdDatabaseAuditQueriesType.class);
+    /* Act. */
 
-    final var transaction = this.transaction();
-    when(transaction.queries(IdDatabaseAuditQueriesType.class))
-      .thenReturn(audits);
+    final var handler =
+      new IdACmdAuditSearchNext();
+    final var ex =
+      assertThrows(IdCommandExecutionFailure.class, () -> {
+        handler.execute(
+          context,
+          new IdACommandAuditSearchNext("")
+        );
+      });
+
+    /* Assert. */
+
+    assertEquals(API_MISUSE_ERROR, ex.errorCode());
+  }
+
+  /**
+   * A cursor issued to a different admin is rejected.
+   *
+   * @throws Exception On errors
+   */
+
+  @Test
+  public void testSearchingCursorOtherAdmin()
+    throws Exception
+  {
+    /* Arrange. */
+
+    final var admin0 =
+      this.createAdmin("admin0", IdAdminPermissionSet.of(AUDIT_READ));
+    final var admin1 =
+      this.createAdmin("admin1", IdAdminPermissionSet.of(AUDIT_READ));
+    final var context =
+      this.createContextAndSession(admin0);
+
+    final var cursor =
+      this.cursors().encode(
+        admin1.id(),
+        PARAMETERS,
+        new IdDatabaseSearchPosition(1, 3, List.of(), List.of())
+      );
+
+    /* Act. */
+
+    final var handler =
+      new IdACmdAuditSearchNext();
+    final var ex =
+      assertThrows(IdCommandExecutionFailure.class, () -> {
+        handler.execute(
+          context,
+          new IdACommandAuditSearchNext(cursor)
+        );
+      });
+
+    /* Assert. */
+
+    assertEquals(API_MISUSE_ERROR, ex.errorCode());
+  }
+
+  /**
+   * A cursor that has been tampered with is rejected.
+   *
+   * @throws Exception On errors
+   */
+
+  @Test
+  public void testSearchingCursorTampered()
+    throws Exception
+  {
+    /* Arrange. */
+
+    final var admin0 =
+      this.createAdmin("admin0", IdAdminPermissionSet.of(AUDIT_READ));
+    final var context =
+      this.createContextAndSession(admin0);
+
+    final var cursor =
+      this.cursors().encode(
+        admin0.id(),
+        PARAMETERS,
+        new IdDatabaseSearchPosition(1, 3, List.of(), List.of())
+      );
+    final var chars = cursor.toCharArray();
+    chars[4] = chars[4] == 'A' ? 'B' : 'A';
+    final var tampered = new String(chars);
 
     /* Act. */
 
@@ -175,7 +348,7 @@ public final class IdACmdAuditSearchNextTest
       assertThrows(IdCommandExecutionFailure.class, () -> {
         handler.execute(
           context,
-          new IdACommandAuditSearchNext()
+          new IdACommandAuditSearchNext(tampered)
         );
       });
 
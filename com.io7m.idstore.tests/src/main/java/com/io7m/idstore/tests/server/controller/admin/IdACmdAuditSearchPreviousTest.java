@@ -18,9 +18,12 @@ package com.io7m.idstore.tests.server.controller.admin;
 
 import com.io7m.idstore.database.api.IdDatabaseAuditEventsSearchType;
 import com.io7m.idstore.database.api.IdDatabaseAuditQueriesType;
+import com.io7m.idstore.database.api.IdDatabaseSearchPosition;
 import com.io7m.idstore.model.IdAdminPermissionSet;
 import com.io7m.idstore.model.IdAuditEvent;
+import com.io7m.idstore.model.IdAuditSearchParameters;
 import com.io7m.idstore.model.IdPage;
+import com.io7m.idstore.model.IdTimeRange;
 import com.io7m.idstore.protocol.admin.IdACommandAuditSearchPrevious;
 import com.io7m.idstore.protocol.admin.IdAResponseAuditSearchPrevious;
 import com.io7m.idstore.server.controller.admin.IdACmdAuditSearchPrevious;
@@ -38,12 +41,21 @@ import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
 import static org.mockito.Mockito.verifyNoMoreInteractions;
 import static org.mockito.Mockito.when;
 
 public final class IdACmdAuditSearchPreviousTest
   extends IdACmdAbstractContract
 {
+  private static final IdAuditSearchParameters PARAMETERS =
+    new IdAuditSearchParameters(
+      IdTimeRange.largest(),
+      Optional.empty(),
+      Optional.empty(),
+      100
+    );
+
   /**
    * Searching requires AUDIT_READ.
    *
@@ -68,7 +80,7 @@ public final class IdACmdAuditSearchPreviousTest
       assertThrows(IdCommandExecutionFailure.class, () -> {
         handler.execute(
           context,
-          new IdACommandAuditSearchPrevious()
+          new IdACommandAuditSearchPrevious("")
         );
       });
 
@@ -94,23 +106,33 @@ public final class IdACmdAuditSearchPreviousTest
     final var context =
       this.createContextAndSession(admin0);
 
-    final var audits =
+    final var audit =
       mock(IdDatabaseAuditQueriesType.class);
     final var search =
       mock(IdDatabaseAuditEventsSearchType.class);
 
     final var page =
       new IdPage<IdAuditEvent>(List.of(), 2, 3, 1L);
+    final var positionBefore =
+      new IdDatabaseSearchPosition(3, 3, List.of(), List.of());
+    final var positionAfter =
+      new IdDatabaseSearchPosition(2, 3, List.of(), List.of());
 
     when(search.pagePrevious(any()))
       .thenReturn(page);
+    when(search.position())
+      .thenReturn(positionAfter);
+    when(audit.auditEventsSearch(any(), any()))
+      .thenReturn(search);
 
     final var transaction = this.transaction();
     when(transaction.queries(IdDatabaseAuditQueriesType.class))
-      .thenReturn(audits);
+      .thenReturn(audit);
 
-    context.session()
-      .setAuditSearch(search);
+    final var cursorBefore =
+      this.cursors().encode(admin0.id(), PARAMETERS, positionBefore);
+    final var cursorAfter =
+      this.cursors().encode(admin0.id(), PARAMETERS, positionAfter);
 
     /* Act. */
 
@@ -119,28 +141,32 @@ public final class IdACmdAuditSearchPreviousTest
     final var response =
       handler.execute(
         context,
-        new IdACommandAuditSearchPrevious()
+        new IdACommandAuditSearchPrevious(cursorBefore)
       );
 
     /* Assert. */
 
-    assertEquals(
-      Optional.of(search),
-      context.session().auditSearch()
-    );
     assertEquals(
       response,
-      new IdAResponseAuditSearchPrevious(context.requestId(), page)
+      new IdAResponseAuditSearchPrevious(
+        context.requestId(),
+        page.withCursor(cursorAfter)
+      )
     );
 
+    verify(audit)
+      .auditEventsSearch(PARAMETERS, positionBefore);
+    verify(search)
+      .pagePrevious(audit);
     verify(search)
-      .pagePrevious(audits);
+      .position();
     verify(transaction)
       .queries(IdDatabaseAuditQueriesType.class);
 
     verifyNoMoreInteractions(search);
-    verifyNoMoreInteractions(audits);
+    verifyNoMoreInteractions(audit);
     verifyNoMoreInteractions(transaction);
+    verifyNoInteractions(this.prefetch());
   }
 
   /**
@@ -161,12 +187,92 @@ public final class IdACmdAuditSearchPreviousTest
     final var context =
       this.createContextAndSession(admin0);
 
-    final var audits =
-      mock(IdDatabaseAuditQueriesType.class);
+    /* Act. */
 
-    final var transaction = this.transaction();
-    when(transaction.queries(IdDatabaseAuditQueriesType.class))
-      .thenReturn(audits);
+    final var handler =
+      new IdACmdAuditSearchPrevious();
+    final var ex =
+      assertThrows(IdCommandExecutionFailure.class, () -> {
+        handler.execute(
+          context,
+          new IdACommandAuditSearchPrevious("")
+        );
+      });
+
+    /* Assert. */
+
+    assertEquals(API_MISUSE_ERROR, ex.errorCode());
+  }
+
+  /**
+   * A cursor issued to a different admin is rejected.
+   *
+   * @throws Exception On errors
+   */
+
+  @Test
+  public void testSearchingCursorOtherAdmin()
+    throws Exception
+  {
+    /* Arrange. */
+
+    final var admin0 =
+      this.createAdmin("admin0", IdAdminPermissionSet.of(AUDIT_READ));
+    final var admin1 =
+      this.createAdmin("admin1", IdAdminPermissionSet.of(AUDIT_READ));
+    final var context =
+      this.createContextAndSession(admin0);
+
+    final var cursor =
+      this.cursors().encode(
+        admin1.id(),
+        PARAMETERS,
+        new IdDatabaseSearchPosition(1, 3, List.of(), List.of())
+      );
+
+    /* Act. */
+
+    final var handler =
+      new IdACmdAuditSearchPrevious();
+    final var ex =
+      assertThrows(IdCommandExecutionFailure.class, () -> {
+        handler.execute(
+          context,
+          new IdACommandAuditSearchPrevious(cursor)
+        );
+      });
+
+    /* Assert. */
+
+    assertEquals(API_MISUSE_ERROR, ex.errorCode());
+  }
+
+  /**
+   * A cursor that has been tampered with is rejected.
+   *
+   * @throws Exception On errors
+   */
+
+  @Test
+  public void testSearchingCursorTampered()
+    throws Exception
+  {
+    /* Arrange. */
+
+    final var admin0 =
+      this.createAdmin("admin0", IdAdminPermissionSet.of(AUDIT_READ));
+    final var context =
+      this.createContextAndSession(admin0);
+
+    final var cursor =
+      this.cursors().encode(
+        admin0.id(),
+        PARAMETERS,
+        new IdDatabaseSearchPosition(1, 3, List.of(), List.of())
+      );
+    final var chars = cursor.toCharArray();
+    chars[4] = chars[4] == 'A' ? 'B' : 'A';
+    final var tampered = new String(chars);
 
     /* Act. */
 
@@ -176,7 +282,7 @@ public final class IdACmdAuditSearchPreviousTest
       assertThrows(IdCommandExecutionFailure.class, () -> {
         handler.execute(
           context,
-          new IdACommandAuditSearchPrevious()
+          new IdACommandAuditSearchPrevious(tampered)
         );
       });
 
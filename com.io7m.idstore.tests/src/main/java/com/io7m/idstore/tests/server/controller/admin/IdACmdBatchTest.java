@@ -0,0 +1,70 @@
+/*
+ * Copyright © 2024 Mark Raynsford <code@io7m.com> https://www.io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+package com.io7m.idstore.tests.server.controller.admin;
+
+import com.io7m.idstore.model.IdAdminPermissionSet;
+import com.io7m.idstore.protocol.admin.IdABatchTransactionMode;
+import com.io7m.idstore.protocol.admin.IdACommandAdminSelf;
+import com.io7m.idstore.protocol.admin.IdACommandBatch;
+import com.io7m.idstore.server.controller.admin.IdACmdBatch;
+import com.io7m.idstore.server.controller.command_exec.IdCommandExecutionFailure;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static com.io7m.idstore.error_codes.IdStandardErrorCodes.API_MISUSE_ERROR;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+public final class IdACmdBatchTest
+  extends IdACmdAbstractContract
+{
+  /**
+   * Batches cannot be executed by the command executor.
+   *
+   * @throws Exception On errors
+   */
+
+  @Test
+  public void testNotAllowed()
+    throws Exception
+  {
+    /* Arrange. */
+
+    final var admin =
+      this.createAdmin("admin", IdAdminPermissionSet.empty());
+    final var context =
+      this.createContextAndSession(admin);
+
+    /* Act. */
+
+    final var handler = new IdACmdBatch();
+    final var ex =
+      assertThrows(IdCommandExecutionFailure.class, () -> {
+        handler.execute(
+          context,
+          new IdACommandBatch(
+            IdABatchTransactionMode.BATCH_TRANSACTION_SINGLE,
+            List.of(new IdACommandAdminSelf())
+          ));
+      });
+
+    /* Assert. */
+
+    assertEquals(API_MISUSE_ERROR, ex.errorCode());
+  }
+}
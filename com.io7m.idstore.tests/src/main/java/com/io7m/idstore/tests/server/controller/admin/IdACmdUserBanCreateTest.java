@@ -120,7 +120,7 @@ public final class IdACmdUserBanCreateTest
     assertEquals(USER_NONEXISTENT, ex.errorCode());
 
     verify(transaction).queries(IdDatabaseUsersQueriesType.class);
-    verify(transaction).adminIdSet(admin0.id());
+    verify(transaction).adminSet(admin0);
     verify(users, this.once()).userBanCreate(Mockito.any());
     verifyNoMoreInteractions(users);
     verifyNoMoreInteractions(transaction);
@@ -169,7 +169,7 @@ public final class IdACmdUserBanCreateTest
     );
 
     verify(transaction).queries(IdDatabaseUsersQueriesType.class);
-    verify(transaction).adminIdSet(admin0.id());
+    verify(transaction).adminSet(admin0);
     verify(users, this.once()).userBanCreate(ban);
     verifyNoMoreInteractions(users);
     verifyNoMoreInteractions(transaction);
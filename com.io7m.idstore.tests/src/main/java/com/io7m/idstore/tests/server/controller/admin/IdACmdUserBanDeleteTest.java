@@ -118,7 +118,7 @@ public final class IdACmdUserBanDeleteTest
     assertEquals(ADMIN_NONEXISTENT, ex.errorCode());
 
     verify(transaction).queries(IdDatabaseUsersQueriesType.class);
-    verify(transaction).adminIdSet(admin0.id());
+    verify(transaction).adminSet(admin0);
     verify(users, this.once()).userBanDelete(Mockito.any());
     verifyNoMoreInteractions(users);
     verifyNoMoreInteractions(transaction);
@@ -167,7 +167,7 @@ public final class IdACmdUserBanDeleteTest
     );
 
     verify(transaction).queries(IdDatabaseUsersQueriesType.class);
-    verify(transaction).adminIdSet(admin0.id());
+    verify(transaction).adminSet(admin0);
     verify(users, this.once()).userBanDelete(ban);
     verifyNoMoreInteractions(users);
     verifyNoMoreInteractions(transaction);
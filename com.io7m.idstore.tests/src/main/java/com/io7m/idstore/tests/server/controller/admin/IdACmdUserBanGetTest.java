@@ -118,7 +118,7 @@ public final class IdACmdUserBanGetTest
     assertEquals(ADMIN_NONEXISTENT, ex.errorCode());
 
     verify(transaction).queries(IdDatabaseUsersQueriesType.class);
-    verify(transaction).adminIdSet(admin0.id());
+    verify(transaction).adminSet(admin0);
     verify(admins, this.once()).userBanGet(user0.id());
     verifyNoMoreInteractions(admins);
     verifyNoMoreInteractions(transaction);
@@ -169,7 +169,7 @@ public final class IdACmdUserBanGetTest
     );
 
     verify(transaction).queries(IdDatabaseUsersQueriesType.class);
-    verify(transaction).adminIdSet(admin0.id());
+    verify(transaction).adminSet(admin0);
     verify(admins, this.once()).userBanGet(user0.id());
     verifyNoMoreInteractions(admins);
     verifyNoMoreInteractions(transaction);
@@ -145,7 +145,7 @@ public final class IdACmdUserCreateTest
     assertEquals(USER_DUPLICATE, ex.errorCode());
 
     verify(transaction).queries(IdDatabaseUsersQueriesType.class);
-    verify(transaction).adminIdSet(admin0.id());
+    verify(transaction).adminSet(admin0);
     verify(users, this.once())
       .userCreate(
         any(),
@@ -230,7 +230,7 @@ public final class IdACmdUserCreateTest
     );
 
     verify(transaction).queries(IdDatabaseUsersQueriesType.class);
-    verify(transaction).adminIdSet(admin0.id());
+    verify(transaction).adminSet(admin0);
     verify(users, this.once())
       .userCreate(
         any(),
@@ -115,7 +115,7 @@ public final class IdACmdUserDeleteTest
     assertEquals(USER_NONEXISTENT, ex.errorCode());
 
     verify(transaction).queries(IdDatabaseUsersQueriesType.class);
-    verify(transaction).adminIdSet(admin0.id());
+    verify(transaction).adminSet(admin0);
     verify(users, this.once()).userDelete(adminId);
     verifyNoMoreInteractions(users);
     verifyNoMoreInteractions(transaction);
@@ -162,7 +162,7 @@ public final class IdACmdUserDeleteTest
     );
 
     verify(transaction).queries(IdDatabaseUsersQueriesType.class);
-    verify(transaction).adminIdSet(admin0.id());
+    verify(transaction).adminSet(admin0);
     verify(users, this.once()).userDelete(adminId);
     verifyNoMoreInteractions(users);
     verifyNoMoreInteractions(transaction);
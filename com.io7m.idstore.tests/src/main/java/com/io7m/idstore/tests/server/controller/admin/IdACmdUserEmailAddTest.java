@@ -128,7 +128,7 @@ public final class IdACmdUserEmailAddTest
     assertEquals(SQL_ERROR_UNIQUE, ex.errorCode());
 
     verify(transaction).queries(IdDatabaseUsersQueriesType.class);
-    verify(transaction).adminIdSet(admin0.id());
+    verify(transaction).adminSet(admin0);
     verify(admins, this.once()).userEmailAdd(userId, email);
     verifyNoMoreInteractions(admins);
     verifyNoMoreInteractions(transaction);
@@ -181,7 +181,7 @@ public final class IdACmdUserEmailAddTest
     assertEquals(SQL_ERROR, ex.errorCode());
 
     verify(transaction).queries(IdDatabaseUsersQueriesType.class);
-    verify(transaction).adminIdSet(admin0.id());
+    verify(transaction).adminSet(admin0);
     verify(admins, this.once()).userEmailAdd(userId, email);
     verifyNoMoreInteractions(admins);
     verifyNoMoreInteractions(transaction);
@@ -248,7 +248,7 @@ public final class IdACmdUserEmailAddTest
     );
 
     verify(transaction).queries(IdDatabaseUsersQueriesType.class);
-    verify(transaction).adminIdSet(admin0.id());
+    verify(transaction).adminSet(admin0);
     verify(admins, this.once()).userEmailAdd(user0.id(), email);
     verify(admins, this.once()).userGetRequire(user0.id());
     verifyNoMoreInteractions(admins);
@@ -124,7 +124,7 @@ public final class IdACmdUserEmailRemoveTest
     assertEquals(SQL_ERROR, ex.errorCode());
 
     verify(transaction).queries(IdDatabaseUsersQueriesType.class);
-    verify(transaction).adminIdSet(admin0.id());
+    verify(transaction).adminSet(admin0);
     verify(admins, this.once()).userEmailRemove(userId, email);
     verifyNoMoreInteractions(admins);
     verifyNoMoreInteractions(transaction);
@@ -177,7 +177,7 @@ public final class IdACmdUserEmailRemoveTest
     );
 
     verify(transaction).queries(IdDatabaseUsersQueriesType.class);
-    verify(transaction).adminIdSet(admin0.id());
+    verify(transaction).adminSet(admin0);
     verify(admins, this.once()).userEmailRemove(user0.id(), email);
     verify(admins, this.once()).userGetRequire(user0.id());
     verifyNoMoreInteractions(admins);
@@ -0,0 +1,175 @@
+/*
+ * Copyright © 2024 Mark Raynsford <code@io7m.com> https://www.io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+
+package com.io7m.idstore.tests.server.controller.admin;
+
+import com.io7m.idstore.database.api.IdDatabaseUserImportResult;
+import com.io7m.idstore.database.api.IdDatabaseUsersQueriesType;
+import com.io7m.idstore.model.IdAdminPermissionSet;
+import com.io7m.idstore.model.IdEmail;
+import com.io7m.idstore.model.IdName;
+import com.io7m.idstore.model.IdRealName;
+import com.io7m.idstore.model.IdUserCreate;
+import com.io7m.idstore.model.IdUserImportError;
+import com.io7m.idstore.protocol.admin.IdACommandUserImport;
+import com.io7m.idstore.protocol.admin.IdAResponseUserImport;
+import com.io7m.idstore.protocol.admin.IdAUserImport;
+import com.io7m.idstore.protocol.admin.IdAUserImportPasswordHashed;
+import com.io7m.idstore.protocol.admin.IdAUserImportPasswordPlain;
+import com.io7m.idstore.server.controller.admin.IdACmdUserImport;
+import com.io7m.idstore.server.controller.command_exec.IdCommandExecutionFailure;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mockito;
+
+import java.util.HexFormat;
+import java.util.List;
+
+import static com.io7m.idstore.error_codes.IdStandardErrorCodes.EMAIL_DUPLICATE;
+import static com.io7m.idstore.error_codes.IdStandardErrorCodes.SECURITY_POLICY_DENIED;
+import static com.io7m.idstore.model.IdAdminPermission.USER_CREATE;
+import static java.util.Optional.empty;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoMoreInteractions;
+
+public final class IdACmdUserImportTest
+  extends IdACmdAbstractContract
+{
+  private IdAUserImport user(
+    final int index,
+    final boolean plain)
+  {
+    return new IdAUserImport(
+      empty(),
+      new IdName("user" + index),
+      new IdRealName("User " + index),
+      new IdEmail("user%d@example.com".formatted(index)),
+      plain
+        ? new IdAUserImportPasswordPlain("password" + index)
+        : new IdAUserImportPasswordHashed(this.password())
+    );
+  }
+
+  /**
+   * Importing users requires the USER_CREATE permission.
+   *
+   * @throws Exception On errors
+   */
+
+  @Test
+  public void testNotAllowed()
+    throws Exception
+  {
+    /* Arrange. */
+
+    final var admin =
+      this.createAdmin("admin", IdAdminPermissionSet.empty());
+    final var context =
+      this.createContextAndSession(admin);
+
+    /* Act. */
+
+    final var handler = new IdACmdUserImport();
+    final var ex =
+      assertThrows(IdCommandExecutionFailure.class, () -> {
+        handler.execute(
+          context,
+          new IdACommandUserImport(List.of(this.user(0, false)))
+        );
+      });
+
+    /* Assert. */
+
+    assertEquals(SECURITY_POLICY_DENIED, ex.errorCode());
+  }
+
+  /**
+   * Importing users hashes plaintext passwords and reports per-row errors.
+   *
+   * @throws Exception On errors
+   */
+
+  @Test
+  @SuppressWarnings("unchecked")
+  public void testImportOK()
+    throws Exception
+  {
+    /* Arrange. */
+
+    final var admin0 =
+      this.createAdmin("admin0", IdAdminPermissionSet.of(USER_CREATE));
+    final var context =
+      this.createContextAndSession(admin0);
+
+    final var users =
+      Mockito.mock(IdDatabaseUsersQueriesType.class);
+
+    final var error =
+      new IdUserImportError(1, EMAIL_DUPLICATE, "Email already exists");
+
+    Mockito.when(users.userImport(any(), any()))
+      .thenReturn(new IdDatabaseUserImportResult(2, List.of(error)));
+
+    final var transaction = this.transaction();
+    Mockito.when(transaction.queries(IdDatabaseUsersQueriesType.class))
+      .thenReturn(users);
+
+    /* Act. */
+
+    final var handler =
+      new IdACmdUserImport();
+    final var response =
+      handler.execute(context, new IdACommandUserImport(List.of(
+        this.user(0, false),
+        this.user(1, true),
+        this.user(2, false)
+      )));
+
+    /* Assert. */
+
+    assertEquals(
+      new IdAResponseUserImport(context.requestId(), 2, List.of(error)),
+      response
+    );
+
+    final var captor =
+      ArgumentCaptor.forClass(List.class);
+
+    verify(transaction).queries(IdDatabaseUsersQueriesType.class);
+    verify(transaction).adminSet(admin0);
+    verify(users, this.once())
+      .userImport(captor.capture(), eq(context.now()));
+    verifyNoMoreInteractions(users);
+    verifyNoMoreInteractions(transaction);
+
+    final List<IdUserCreate> created = captor.getValue();
+    assertEquals(3, created.size());
+    assertEquals(new IdName("user1"), created.get(1).idName());
+
+    final var password = created.get(1).password();
+    assertTrue(password.algorithm().check(
+      password.hash(),
+      "password1",
+      HexFormat.of().parseHex(password.salt())
+    ));
+  }
+}
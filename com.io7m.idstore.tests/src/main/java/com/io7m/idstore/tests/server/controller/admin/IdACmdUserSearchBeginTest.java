@@ -16,6 +16,7 @@
 
 package com.io7m.idstore.tests.server.controller.admin;
 
+import com.io7m.idstore.database.api.IdDatabaseSearchPosition;
 import com.io7m.idstore.database.api.IdDatabaseUserSearchType;
 import com.io7m.idstore.database.api.IdDatabaseUsersQueriesType;
 import com.io7m.idstore.model.IdAdminPermissionSet;
@@ -112,9 +113,13 @@ public final class IdACmdUserSearchBeginTest
 
     final var page =
       new IdPage<IdUserSummary>(List.of(), 1, 1, 0L);
+    final var position =
+      new IdDatabaseSearchPosition(1, 1, List.of(), List.of());
 
     when(search.pageCurrent(any()))
       .thenReturn(page);
+    when(search.position())
+      .thenReturn(position);
     when(users.userSearch(any()))
       .thenReturn(search);
 
@@ -145,19 +150,21 @@ public final class IdACmdUserSearchBeginTest
 
     /* Assert. */
 
-    assertEquals(
-      Optional.of(search),
-      context.session().userSearch()
-    );
     assertEquals(
       response,
-      new IdAResponseUserSearchBegin(context.requestId(), page)
+      new IdAResponseUserSearchBegin(
+        context.requestId(),
+        page.withCursor(
+          this.cursors().encode(admin0.id(), parameters, position))
+      )
     );
 
     verify(users)
       .userSearch(parameters);
     verify(search)
       .pageCurrent(users);
+    verify(search)
+      .position();
     verify(transaction)
       .queries(IdDatabaseUsersQueriesType.class);
 
@@ -190,9 +197,13 @@ public final class IdACmdUserSearchBeginTest
 
     final var page =
       new IdPage<IdUserSummary>(List.of(), 1, 1, 0L);
+    final var position =
+      new IdDatabaseSearchPosition(1, 1, List.of(), List.of());
 
     when(search.pageCurrent(any()))
       .thenReturn(page);
+    when(search.position())
+      .thenReturn(position);
     when(users.userSearch(any()))
       .thenReturn(search);
 
@@ -229,19 +240,21 @@ public final class IdACmdUserSearchBeginTest
 
     /* Assert. */
 
-    assertEquals(
-      Optional.of(search),
-      context.session().userSearch()
-    );
     assertEquals(
       response,
-      new IdAResponseUserSearchBegin(context.requestId(), page)
+      new IdAResponseUserSearchBegin(
+        context.requestId(),
+        page.withCursor(
+          this.cursors().encode(admin0.id(), parametersLimited, position))
+      )
     );
 
     verify(users)
       .userSearch(parametersLimited);
     verify(search)
       .pageCurrent(users);
+    verify(search)
+      .position();
     verify(transaction)
       .queries(IdDatabaseUsersQueriesType.class);
 
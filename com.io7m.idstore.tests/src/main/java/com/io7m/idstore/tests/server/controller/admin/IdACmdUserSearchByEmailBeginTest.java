@@ -16,6 +16,7 @@
 
 package com.io7m.idstore.tests.server.controller.admin;
 
+import com.io7m.idstore.database.api.IdDatabaseSearchPosition;
 import com.io7m.idstore.database.api.IdDatabaseUserSearchByEmailType;
 import com.io7m.idstore.database.api.IdDatabaseUsersQueriesType;
 import com.io7m.idstore.model.IdAdminPermissionSet;
@@ -31,7 +32,6 @@ import com.io7m.idstore.server.controller.command_exec.IdCommandExecutionFailure
 import org.junit.jupiter.api.Test;
 
 import java.util.List;
-import java.util.Optional;
 
 import static com.io7m.idstore.error_codes.IdStandardErrorCodes.SECURITY_POLICY_DENIED;
 import static com.io7m.idstore.model.IdAdminPermission.USER_READ;
@@ -112,9 +112,13 @@ public final class IdACmdUserSearchByEmailBeginTest
 
     final var page =
       new IdPage<IdUserSummary>(List.of(), 1, 1, 0L);
+    final var position =
+      new IdDatabaseSearchPosition(1, 1, List.of(), List.of());
 
     when(search.pageCurrent(any()))
       .thenReturn(page);
+    when(search.position())
+      .thenReturn(position);
     when(users.userSearchByEmail(any()))
       .thenReturn(search);
 
@@ -145,19 +149,21 @@ public final class IdACmdUserSearchByEmailBeginTest
 
     /* Assert. */
 
-    assertEquals(
-      Optional.of(search),
-      context.session().userSearchByEmail()
-    );
     assertEquals(
       response,
-      new IdAResponseUserSearchByEmailBegin(context.requestId(), page)
+      new IdAResponseUserSearchByEmailBegin(
+        context.requestId(),
+        page.withCursor(
+          this.cursors().encode(admin0.id(), parameters, position))
+      )
     );
 
     verify(users)
       .userSearchByEmail(parameters);
     verify(search)
       .pageCurrent(users);
+    verify(search)
+      .position();
     verify(transaction)
       .queries(IdDatabaseUsersQueriesType.class);
 
@@ -190,9 +196,13 @@ public final class IdACmdUserSearchByEmailBeginTest
 
     final var page =
       new IdPage<IdUserSummary>(List.of(), 1, 1, 0L);
+    final var position =
+      new IdDatabaseSearchPosition(1, 1, List.of(), List.of());
 
     when(search.pageCurrent(any()))
       .thenReturn(page);
+    when(search.position())
+      .thenReturn(position);
     when(users.userSearchByEmail(any()))
       .thenReturn(search);
 
@@ -229,19 +239,21 @@ public final class IdACmdUserSearchByEmailBeginTest
 
     /* Assert. */
 
-    assertEquals(
-      Optional.of(search),
-      context.session().userSearchByEmail()
-    );
     assertEquals(
       response,
-      new IdAResponseUserSearchByEmailBegin(context.requestId(), page)
+      new IdAResponseUserSearchByEmailBegin(
+        context.requestId(),
+        page.withCursor(
+          this.cursors().encode(admin0.id(), parametersLimited, position))
+      )
     );
 
     verify(users)
       .userSearchByEmail(parametersLimited);
     verify(search)
       .pageCurrent(users);
+    verify(search)
+      .position();
     verify(transaction)
       .queries(IdDatabaseUsersQueriesType.class);
 
@@ -16,10 +16,14 @@
 
 package com.io7m.idstore.tests.server.controller.admin;
 
+import com.io7m.idstore.database.api.IdDatabaseSearchPosition;
 import com.io7m.idstore.database.api.IdDatabaseUserSearchType;
 import com.io7m.idstore.database.api.IdDatabaseUsersQueriesType;
 import com.io7m.idstore.model.IdAdminPermissionSet;
 import com.io7m.idstore.model.IdPage;
+import com.io7m.idstore.model.IdTimeRange;
+import com.io7m.idstore.model.IdUserColumnOrdering;
+import com.io7m.idstore.model.IdUserSearchParameters;
 import com.io7m.idstore.model.IdUserSummary;
 import com.io7m.idstore.protocol.admin.IdACommandUserSearchNext;
 import com.io7m.idstore.protocol.admin.IdAResponseUserSearchNext;
@@ -33,6 +37,7 @@ import java.util.Optional;
 import static com.io7m.idstore.error_codes.IdStandardErrorCodes.API_MISUSE_ERROR;
 import static com.io7m.idstore.error_codes.IdStandardErrorCodes.SECURITY_POLICY_DENIED;
 import static com.io7m.idstore.model.IdAdminPermission.USER_READ;
+import static com.io7m.idstore.model.IdUserColumn.BY_IDNAME;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.mockito.ArgumentMatchers.any;
@@ -44,6 +49,15 @@ import static org.mockito.Mockito.when;
 public final class IdACmdUserSearchNextTest
   extends IdACmdAbstractContract
 {
+  private static final IdUserSearchParameters PARAMETERS =
+    new IdUserSearchParameters(
+      IdTimeRange.largest(),
+      IdTimeRange.largest(),
+      Optional.empty(),
+      new IdUserColumnOrdering(BY_IDNAME, true),
+      100
+    );
+
   /**
    * Searching requires USER_READ.
    *
@@ -68,7 +82,7 @@ public final class IdACmdUserSearchNextTest
       assertThrows(IdCommandExecutionFailure.class, () -> {
         handler.execute(
           context,
-          new IdACommandUserSearchNext()
+          new IdACommandUserSearchNext("")
         );
       });
 
@@ -101,16 +115,26 @@ public final class IdACmdUserSearchNextTest
 
     final var page =
       new IdPage<IdUserSummary>(List.of(), 2, 3, 1L);
+    final var positionBefore =
+      new IdDatabaseSearchPosition(1, 3, List.of(), List.of());
+    final var positionAfter =
+      new IdDatabaseSearchPosition(2, 3, List.of(), List.of());
 
     when(search.pageNext(any()))
       .thenReturn(page);
+    when(search.position())
+      .thenReturn(positionAfter);
+    when(users.userSearch(any(), any()))
+      .thenReturn(search);
 
     final var transaction = this.transaction();
     when(transaction.queries(IdDatabaseUsersQueriesType.class))
       .thenReturn(users);
 
-    context.session()
-      .setUserSearch(search);
+    final var cursorBefore =
+      this.cursors().encode(admin0.id(), PARAMETERS, positionBefore);
+    final var cursorAfter =
+      this.cursors().encode(admin0.id(), PARAMETERS, positionAfter);
 
     /* Act. */
 
@@ -119,22 +143,25 @@ public final class IdACmdUserSearchNextTest
     final var response =
       handler.execute(
         context,
-        new IdACommandUserSearchNext()
+        new IdACommandUserSearchNext(cursorBefore)
       );
 
     /* Assert. */
 
-    assertEquals(
-      Optional.of(search),
-      context.session().userSearch()
-    );
     assertEquals(
       response,
-      new IdAResponseUserSearchNext(context.requestId(), page)
+      new IdAResponseUserSearchNext(
+        context.requestId(),
+        page.withCursor(cursorAfter)
+      )
     );
 
+    verify(users)
+      .userSearch(PARAMETERS, positionBefore);
     verify(search)
       .pageNext(users);
+    verify(search)
+      .position();
     verify(transaction)
       .queries(IdDatabaseUsersQueriesType.class);
 
@@ -144,7 +171,8 @@ public final class IdACmdUserSearchNextTest
   }
 
   /**
-   * It's not possible to request the next page when the first page hasn't been requested.
+   * It's not possible to request the next page when the first page hasn't
+   * been requested.
    *
    * @throws Exception On errors
    */
@@ -160,12 +188,92 @@ public final class IdACmdUserSearchNextTest
     final var context =
       this.createContextAndSession(admin0);
 
-    final var users =
-      mock(IdDatabaseUsersQueriesType.class);
+    /* Act. */
 
-    final var transaction = this.transaction();
-    when(transaction.queries(IdDatabaseUsersQueriesType.class))
-      .thenReturn(users);
+    final var handler =
+      new IdACmdUserSearchNext();
+    final var ex =
+      assertThrows(IdCommandExecutionFailure.class, () -> {
+        handler.execute(
+          context,
+          new IdACommandUserSearchNext("")
+        );
+      });
+
+    /* Assert. */
+
+    assertEquals(API_MISUSE_ERROR, ex.errorCode());
+  }
+
+  /**
+   * A cursor issued to a different admin is rejected.
+   *
+   * @throws Exception On errors
+   */
+
+  @Test
+  public void testSearchingCursorOtherAdmin()
+    throws Exception
+  {
+    /* Arrange. */
+
+    final var admin0 =
+      this.createAdmin("admin0", IdAdminPermissionSet.of(USER_READ));
+    final var admin1 =
+      this.createAdmin("admin1", IdAdminPermissionSet.of(USER_READ));
+    final var context =
+      this.createContextAndSession(admin0);
+
+    final var cursor =
+      this.cursors().encode(
+        admin1.id(),
+        PARAMETERS,
+        new IdDatabaseSearchPosition(1, 3, List.of(), List.of())
+      );
+
+    /* Act. */
+
+    final var handler =
+      new IdACmdUserSearchNext();
+    final var ex =
+      assertThrows(IdCommandExecutionFailure.class, () -> {
+        handler.execute(
+          context,
+          new IdACommandUserSearchNext(cursor)
+        );
+      });
+
+    /* Assert. */
+
+    assertEquals(API_MISUSE_ERROR, ex.errorCode());
+  }
+
+  /**
+   * A cursor that has been tampered with is rejected.
+   *
+   * @throws Exception On errors
+   */
+
+  @Test
+  public void testSearchingCursorTampered()
+    throws Exception
+  {
+    /* Arrange. */
+
+    final var admin0 =
+      this.createAdmin("admin0", IdAdminPermissionSet.of(USER_READ));
+    final var context =
+      this.createContextAndSession(admin0);
+
+    final var cursor =
+      this.cursors().encode(
+        admin0.id(),
+        PARAMETERS,
+        new IdDatabaseSearchPosition(1, 3, List.of(), List.of())
+      );
+    final var chars = cursor.toCharArray();
+    chars[4] = chars[4] == 'A' ? 'B' : 'A';
+    final var tampered = new String(chars);
 
     /* Act. */
 
@@ -175,7 +283,7 @@ public final class IdACmdUserSearchNextTest
       assertThrows(IdCommandExecutionFailure.class, () -> {
         handler.execute(
           context,
-          new IdACommandUserSearchNext()
+          new IdACommandUserSearchNext(tampered)
         );
       });
 
@@ -176,7 +176,7 @@ public final class IdACmdUserUpdateCredentialsTest
     verify(transaction)
       .queries(IdDatabaseUsersQueriesType.class);
     verify(transaction)
-      .adminIdSet(admin0.id());
+      .adminSet(admin0);
     verify(users, this.once())
       .userGetRequire(user0.id());
     verify(users, this.once())
@@ -261,7 +261,7 @@ public final class IdACmdUserUpdateCredentialsTest
     verify(transaction)
       .queries(IdDatabaseUsersQueriesType.class);
     verify(transaction)
-      .adminIdSet(admin0.id());
+      .adminSet(admin0);
     verify(users, this.once())
       .userUpdateAsAdmin(
         user0.id(),
@@ -331,7 +331,7 @@ public final class IdACmdUserUpdateCredentialsTest
     verify(transaction)
       .queries(IdDatabaseUsersQueriesType.class);
     verify(transaction)
-      .adminIdSet(admin0.id());
+      .adminSet(admin0);
     verify(users, this.once())
       .userUpdateAsAdmin(
         user0.id(),
@@ -142,7 +142,7 @@ public final class IdACmdUserUpdatePasswordExpirationTest
     verify(transaction)
       .queries(IdDatabaseUsersQueriesType.class);
     verify(transaction)
-      .adminIdSet(admin0.id());
+      .adminSet(admin0);
     verify(users, this.once())
       .userGetRequire(any());
     verify(users, this.once())
@@ -231,7 +231,7 @@ public final class IdACmdUserUpdatePasswordExpirationTest
     verify(transaction)
       .queries(IdDatabaseUsersQueriesType.class);
     verify(transaction)
-      .adminIdSet(admin0.id());
+      .adminSet(admin0);
     verify(users, this.twice())
       .userGetRequire(user.id());
     verify(users, this.once())
@@ -314,7 +314,7 @@ public final class IdACmdUserUpdatePasswordExpirationTest
     verify(transaction)
       .queries(IdDatabaseUsersQueriesType.class);
     verify(transaction)
-      .adminIdSet(admin0.id());
+      .adminSet(admin0);
     verify(users, this.twice())
       .userGetRequire(user.id());
     verify(users, this.once())
@@ -410,7 +410,7 @@ public final class IdACmdUserUpdatePasswordExpirationTest
     verify(transaction)
       .queries(IdDatabaseUsersQueriesType.class);
     verify(transaction)
-      .adminIdSet(admin0.id());
+      .adminSet(admin0);
     verify(users, this.twice())
       .userGetRequire(user.id());
     verify(users, this.once())
@@ -0,0 +1,291 @@
+/*
+ * Copyright © 2024 Mark Raynsford <code@io7m.com> https://www.io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+
+package com.io7m.idstore.tests.server.controller.admin;
+
+import com.io7m.idstore.database.api.IdDatabaseSearchPosition;
+import com.io7m.idstore.model.IdAdminColumnOrdering;
+import com.io7m.idstore.model.IdAdminSearchByEmailParameters;
+import com.io7m.idstore.model.IdAdminSearchParameters;
+import com.io7m.idstore.model.IdAuditSearchParameters;
+import com.io7m.idstore.model.IdTimeRange;
+import com.io7m.idstore.model.IdUserColumnOrdering;
+import com.io7m.idstore.model.IdUserSearchByEmailParameters;
+import com.io7m.idstore.model.IdUserSearchParameters;
+import com.io7m.idstore.server.controller.admin.IdASearchCursorService;
+import com.io7m.idstore.tests.IdFakeClock;
+import com.io7m.idstore.tests.server.service.IdServiceContract;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.OffsetDateTime;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+import static com.io7m.idstore.model.IdAdminColumn.BY_TIME_CREATED;
+import static com.io7m.idstore.model.IdUserColumn.BY_REALNAME;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+public final class IdASearchCursorServiceTest
+  extends IdServiceContract<IdASearchCursorService>
+{
+  private static final IdTimeRange TIME_RANGE =
+    new IdTimeRange(
+      OffsetDateTime.parse("2020-01-01T00:00:00+01:00"),
+      OffsetDateTime.parse("2021-01-01T00:00:00Z")
+    );
+
+  private static final IdDatabaseSearchPosition POSITION =
+    new IdDatabaseSearchPosition(
+      2,
+      5,
+      List.of(
+        "first",
+        UUID.fromString("71f5a5a6-c3e0-4a0c-bb52-8c46ce1b1aa0"),
+        Long.valueOf(23L),
+        OffsetDateTime.parse("2020-06-01T12:00:00+02:00")
+      ),
+      List.of(
+        "last",
+        UUID.fromString("5be4a5b8-6b1c-4ec1-9d4d-6d2a0b6a8a66"),
+        Long.valueOf(-1L),
+        OffsetDateTime.parse("2020-07-01T12:00:00Z")
+      )
+    );
+
+  private <P> void checkRoundTrip(
+    final Class<P> c,
+    final P parameters)
+  {
+    final var cursors =
+      IdASearchCursorService.create(Optional.empty());
+    final var admin =
+      UUID.randomUUID();
+    final var text =
+      cursors.encode(admin, parameters, POSITION);
+    final var cursor =
+      cursors.decode(admin, c, text).orElseThrow();
+
+    assertEquals(parameters, cursor.parameters());
+    assertEquals(POSITION, cursor.position());
+  }
+
+  /**
+   * User search cursors round trip.
+   */
+
+  @Test
+  public void testRoundTripUsers()
+  {
+    this.checkRoundTrip(
+      IdUserSearchParameters.class,
+      new IdUserSearchParameters(
+        TIME_RANGE,
+        IdTimeRange.largest(),
+        Optional.of("x"),
+        new IdUserColumnOrdering(BY_REALNAME, false),
+        37
+      )
+    );
+    this.checkRoundTrip(
+      IdUserSearchByEmailParameters.class,
+      new IdUserSearchByEmailParameters(
+        TIME_RANGE,
+        IdTimeRange.largest(),
+        "example.com",
+        new IdUserColumnOrdering(BY_REALNAME, true),
+        37
+      )
+    );
+  }
+
+  /**
+   * Admin search cursors round trip.
+   */
+
+  @Test
+  public void testRoundTripAdmins()
+  {
+    this.checkRoundTrip(
+      IdAdminSearchParameters.class,
+      new IdAdminSearchParameters(
+        TIME_RANGE,
+        IdTimeRange.largest(),
+        Optional.empty(),
+        new IdAdminColumnOrdering(BY_TIME_CREATED, false),
+        10
+      )
+    );
+    this.checkRoundTrip(
+      IdAdminSearchByEmailParameters.class,
+      new IdAdminSearchByEmailParameters(
+        TIME_RANGE,
+        IdTimeRange.largest(),
+        "example.com",
+        new IdAdminColumnOrdering(BY_TIME_CREATED, true),
+        10
+      )
+    );
+  }
+
+  /**
+   * Audit search cursors round trip.
+   */
+
+  @Test
+  public void testRoundTripAudit()
+  {
+    this.checkRoundTrip(
+      IdAuditSearchParameters.class,
+      new IdAuditSearchParameters(
+        TIME_RANGE,
+        Optional.of("owner"),
+        Optional.empty(),
+        100
+      )
+    );
+  }
+
+  /**
+   * A cursor cannot be used for a different kind of search.
+   */
+
+  @Test
+  public void testWrongKind()
+  {
+    final var cursors =
+      IdASearchCursorService.create(Optional.empty());
+    final var admin =
+      UUID.randomUUID();
+    final var text =
+      cursors.encode(admin, IdAuditSearchParameters.defaults(), POSITION);
+
+    assertEquals(
+      Optional.empty(),
+      cursors.decode(admin, IdUserSearchParameters.class, text)
+    );
+  }
+
+  /**
+   * Servers sharing a secret accept each other's cursors; servers with
+   * different secrets do not.
+   */
+
+  @Test
+  public void testSecrets()
+  {
+    final var cursors0 =
+      IdASearchCursorService.create(Optional.of("secret"));
+    final var cursors1 =
+      IdASearchCursorService.create(Optional.of("secret"));
+    final var cursors2 =
+      IdASearchCursorService.create(Optional.of("other"));
+    final var admin =
+      UUID.randomUUID();
+    final var parameters =
+      IdAuditSearchParameters.defaults();
+    final var text =
+      cursors0.encode(admin, parameters, POSITION);
+
+    assertEquals(
+      parameters,
+      cursors1.decode(admin, IdAuditSearchParameters.class, text)
+        .orElseThrow()
+        .parameters()
+    );
+    assertEquals(
+      Optional.empty(),
+      cursors2.decode(admin, IdAuditSearchParameters.class, text)
+    );
+  }
+
+  /**
+   * Cursors are accepted until they are older than the cursor lifetime,
+   * and are rejected afterwards.
+   */
+
+  @Test
+  public void testExpired()
+  {
+    final var clock =
+      new IdFakeClock();
+    final var cursors =
+      IdASearchCursorService.create(
+        clock,
+        Duration.ofMinutes(10L),
+        Optional.empty()
+      );
+    final var admin =
+      UUID.randomUUID();
+    final var parameters =
+      IdAuditSearchParameters.defaults();
+
+    clock.setTime(Instant.parse("2020-01-01T00:00:00Z"));
+    final var text =
+      cursors.encode(admin, parameters, POSITION);
+
+    clock.setTime(Instant.parse("2020-01-01T00:09:00Z"));
+    assertEquals(
+      parameters,
+      cursors.decode(admin, IdAuditSearchParameters.class, text)
+        .orElseThrow()
+        .parameters()
+    );
+
+    clock.setTime(Instant.parse("2020-01-01T00:11:00Z"));
+    assertEquals(
+      Optional.empty(),
+      cursors.decode(admin, IdAuditSearchParameters.class, text)
+    );
+  }
+
+  /**
+   * Garbage is rejected.
+   */
+
+  @Test
+  public void testGarbage()
+  {
+    final var cursors =
+      IdASearchCursorService.create(Optional.empty());
+    final var admin =
+      UUID.randomUUID();
+
+    assertEquals(
+      Optional.empty(),
+      cursors.decode(admin, IdAuditSearchParameters.class, "!")
+    );
+    assertEquals(
+      Optional.empty(),
+      cursors.decode(admin, IdAuditSearchParameters.class, "AAAA")
+    );
+  }
+
+  @Override
+  protected IdASearchCursorService createInstanceA()
+  {
+    return IdASearchCursorService.create(Optional.empty());
+  }
+
+  @Override
+  protected IdASearchCursorService createInstanceB()
+  {
+    return IdASearchCursorService.create(Optional.empty());
+  }
+}
@@ -0,0 +1,375 @@
+/*
+ * Copyright © 2024 Mark Raynsford <code@io7m.com> https://www.io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+
+package com.io7m.idstore.tests.server.controller.admin;
+
+import com.io7m.idstore.database.api.IdDatabaseConnectionType;
+import com.io7m.idstore.database.api.IdDatabaseException;
+import com.io7m.idstore.database.api.IdDatabaseSearchPosition;
+import com.io7m.idstore.database.api.IdDatabaseTransactionType;
+import com.io7m.idstore.database.api.IdDatabaseType;
+import com.io7m.idstore.model.IdPage;
+import com.io7m.idstore.server.controller.admin.IdASearchKind;
+import com.io7m.idstore.server.controller.admin.IdASearchPrefetchService;
+import com.io7m.idstore.server.controller.admin.IdASearchPrefetchService.IdASearchPrefetched;
+import com.io7m.idstore.server.service.sessions.IdSessionSecretIdentifier;
+import com.io7m.idstore.server.service.telemetry.api.IdMetricsServiceType;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static com.io7m.idstore.database.api.IdDatabaseRole.IDSTORE_READ_ONLY;
+import static com.io7m.idstore.error_codes.IdStandardErrorCodes.SQL_ERROR;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.atLeastOnce;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.timeout;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+public final class IdASearchPrefetchServiceTest
+{
+  private static final IdDatabaseSearchPosition POSITION_1 =
+    new IdDatabaseSearchPosition(1, 3, List.of(), List.of());
+  private static final IdDatabaseSearchPosition POSITION_2 =
+    new IdDatabaseSearchPosition(2, 3, List.of(), List.of());
+  private static final IdDatabaseSearchPosition POSITION_3 =
+    new IdDatabaseSearchPosition(3, 3, List.of(), List.of());
+
+  private IdMetricsServiceType metrics;
+  private IdDatabaseType database;
+  private IdDatabaseConnectionType connection;
+  private IdDatabaseTransactionType transaction;
+  private IdASearchPrefetchService prefetch;
+  private IdSessionSecretIdentifier session;
+  private AtomicInteger fetches;
+
+  @BeforeEach
+  public void setup()
+    throws Exception
+  {
+    this.metrics =
+      mock(IdMetricsServiceType.class);
+    this.database =
+      mock(IdDatabaseType.class);
+    this.connection =
+      mock(IdDatabaseConnectionType.class);
+    this.transaction =
+      mock(IdDatabaseTransactionType.class);
+    this.session =
+      IdSessionSecretIdentifier.generate();
+    this.fetches =
+      new AtomicInteger(0);
+
+    when(this.database.openConnection(IDSTORE_READ_ONLY))
+      .thenReturn(this.connection);
+    when(this.connection.openTransaction())
+      .thenReturn(this.transaction);
+
+    this.prefetch =
+      IdASearchPrefetchService.create(this.database, this.metrics);
+  }
+
+  @AfterEach
+  public void tearDown()
+  {
+    this.prefetch.close();
+  }
+
+  private IdASearchPrefetched<String> fetchNext(
+    final IdDatabaseTransactionType t,
+    final String parameters,
+    final IdDatabaseSearchPosition position)
+  {
+    assertEquals(this.transaction, t);
+    this.fetches.incrementAndGet();
+    return new IdASearchPrefetched<>(
+      new IdPage<>(List.of(parameters), position.pageIndex() + 1, 3, 0L),
+      new IdDatabaseSearchPosition(
+        position.pageIndex() + 1,
+        position.pageCount(),
+        List.of(),
+        List.of()
+      )
+    );
+  }
+
+  private Optional<IdASearchPrefetched<String>> awaitTake(
+    final String cursor)
+    throws InterruptedException
+  {
+    final var deadline = Instant.now().plus(Duration.ofSeconds(5L));
+    while (Instant.now().isBefore(deadline)) {
+      final Optional<IdASearchPrefetched<String>> r =
+        this.prefetch.take(this.session, IdASearchKind.AUDIT, cursor);
+      if (r.isPresent()) {
+        return r;
+      }
+      Thread.sleep(10L);
+    }
+    return Optional.empty();
+  }
+
+  /**
+   * A prefetched page can be taken exactly once.
+   *
+   * @throws Exception On errors
+   */
+
+  @Test
+  public void testPrefetchTakeOnce()
+    throws Exception
+  {
+    this.prefetch.prefetch(
+      this.session,
+      IdASearchKind.AUDIT,
+      "c1",
+      "p",
+      POSITION_1,
+      this::fetchNext
+    );
+
+    final var taken = this.awaitTake("c1").orElseThrow();
+    assertEquals(List.of("p"), taken.page().items());
+    assertEquals(POSITION_2, taken.position());
+
+    assertTrue(
+      this.prefetch.take(this.session, IdASearchKind.AUDIT, "c1").isEmpty()
+    );
+
+    verify(this.metrics, times(1))
+      .onSearchPrefetch("audit", "hit");
+    verify(this.metrics, atLeastOnce())
+      .onSearchPrefetch("audit", "miss");
+    verify(this.transaction, times(1))
+      .close();
+    verify(this.connection, times(1))
+      .close();
+  }
+
+  /**
+   * Nothing is fetched when the current page is the last page.
+   *
+   * @throws Exception On errors
+   */
+
+  @Test
+  public void testPrefetchLastPage()
+    throws Exception
+  {
+    this.prefetch.prefetch(
+      this.session,
+      IdASearchKind.AUDIT,
+      "c3",
+      "p",
+      POSITION_3,
+      this::fetchNext
+    );
+
+    Thread.sleep(100L);
+    assertEquals(0, this.fetches.get());
+  }
+
+  /**
+   * Pages are only served to the session and kind of search that requested
+   * them.
+   *
+   * @throws Exception On errors
+   */
+
+  @Test
+  public void testPrefetchOtherSession()
+    throws Exception
+  {
+    this.prefetch.prefetch(
+      this.session,
+      IdASearchKind.AUDIT,
+      "c1",
+      "p",
+      POSITION_1,
+      this::fetchNext
+    );
+    this.awaitFetches(1);
+
+    assertTrue(
+      this.prefetch.take(
+        IdSessionSecretIdentifier.generate(),
+        IdASearchKind.AUDIT,
+        "c1"
+      ).isEmpty()
+    );
+    assertTrue(
+      this.prefetch.take(this.session, IdASearchKind.USERS, "c1").isEmpty()
+    );
+    assertTrue(this.awaitTake("c1").isPresent());
+  }
+
+  /**
+   * Discarding a search discards the prefetched page.
+   *
+   * @throws Exception On errors
+   */
+
+  @Test
+  public void testPrefetchDiscard()
+    throws Exception
+  {
+    this.prefetch.prefetch(
+      this.session,
+      IdASearchKind.AUDIT,
+      "c1",
+      "p",
+      POSITION_1,
+      this::fetchNext
+    );
+    this.awaitStored();
+
+    this.prefetch.discard(this.session, IdASearchKind.AUDIT);
+    assertTrue(
+      this.prefetch.take(this.session, IdASearchKind.AUDIT, "c1").isEmpty()
+    );
+
+    verify(this.metrics, times(1))
+      .onSearchPrefetch("audit", "discarded");
+  }
+
+  /**
+   * A newer prefetch for the same search replaces an older one.
+   *
+   * @throws Exception On errors
+   */
+
+  @Test
+  public void testPrefetchReplaces()
+    throws Exception
+  {
+    this.prefetch.prefetch(
+      this.session,
+      IdASearchKind.AUDIT,
+      "c1",
+      "p",
+      POSITION_1,
+      this::fetchNext
+    );
+    this.awaitStored();
+
+    this.prefetch.prefetch(
+      this.session,
+      IdASearchKind.AUDIT,
+      "c2",
+      "p",
+      POSITION_2,
+      this::fetchNext
+    );
+
+    final var taken = this.awaitTake("c2").orElseThrow();
+    assertEquals(POSITION_3, taken.position());
+    assertTrue(
+      this.prefetch.take(this.session, IdASearchKind.AUDIT, "c1").isEmpty()
+    );
+
+    verify(this.metrics, times(1))
+      .onSearchPrefetch("audit", "discarded");
+  }
+
+  /**
+   * A page is only served for the cursor that it was fetched for, and
+   * presenting a different cursor does not consume it.
+   *
+   * @throws Exception On errors
+   */
+
+  @Test
+  public void testPrefetchOtherCursor()
+    throws Exception
+  {
+    this.prefetch.prefetch(
+      this.session,
+      IdASearchKind.AUDIT,
+      "c1",
+      "p",
+      POSITION_1,
+      this::fetchNext
+    );
+    this.awaitStored();
+
+    assertTrue(
+      this.prefetch.take(this.session, IdASearchKind.AUDIT, "c0").isEmpty()
+    );
+    assertTrue(
+      this.prefetch.take(this.session, IdASearchKind.AUDIT, "c1").isPresent()
+    );
+  }
+
+  /**
+   * Failing fetches are ignored.
+   *
+   * @throws Exception On errors
+   */
+
+  @Test
+  public void testPrefetchFails()
+    throws Exception
+  {
+    this.prefetch.prefetch(
+      this.session,
+      IdASearchKind.AUDIT,
+      "c1",
+      "p",
+      POSITION_1,
+      (t, p, q) -> {
+        this.fetches.incrementAndGet();
+        throw new IdDatabaseException(
+          "Failed", SQL_ERROR, Map.of(), Optional.empty());
+      }
+    );
+
+    this.awaitFetches(1);
+    Thread.sleep(100L);
+    assertTrue(
+      this.prefetch.take(this.session, IdASearchKind.AUDIT, "c1").isEmpty()
+    );
+  }
+
+  private void awaitStored()
+    throws Exception
+  {
+    verify(this.connection, timeout(5_000L))
+      .close();
+    Thread.sleep(100L);
+  }
+
+  private void awaitFetches(
+    final int count)
+    throws InterruptedException
+  {
+    final var deadline = Instant.now().plus(Duration.ofSeconds(5L));
+    while (this.fetches.get() < count && Instant.now().isBefore(deadline)) {
+      Thread.sleep(10L);
+    }
+    assertEquals(count, this.fetches.get());
+  }
+}
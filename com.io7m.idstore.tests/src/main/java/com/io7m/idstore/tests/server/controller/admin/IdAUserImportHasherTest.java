@@ -0,0 +1,118 @@
+/*
+ * Copyright © 2024 Mark Raynsford <code@io7m.com> https://www.io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+
+package com.io7m.idstore.tests.server.controller.admin;
+
+import com.io7m.idstore.server.controller.admin.IdAUserImportHasher;
+import com.io7m.idstore.tests.server.service.IdServiceContract;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public final class IdAUserImportHasherTest
+  extends IdServiceContract<IdAUserImportHasher>
+{
+  /**
+   * Results are returned in index order, and are computed on the dedicated
+   * hashing threads, never on the common pool.
+   *
+   * @throws Exception On errors
+   */
+
+  @Test
+  public void testMapOrdered()
+    throws Exception
+  {
+    final var threads =
+      ConcurrentHashMap.<String>newKeySet();
+
+    try (var hasher = IdAUserImportHasher.create(3)) {
+      final var results =
+        hasher.map(1000, i -> {
+          threads.add(Thread.currentThread().getName());
+          return Integer.valueOf(i * 2);
+        });
+
+      assertEquals(
+        IntStream.range(0, 1000).map(i -> i * 2).boxed().toList(),
+        results
+      );
+    }
+
+    assertFalse(threads.isEmpty());
+    assertTrue(threads.size() <= 3);
+    for (final var name : threads) {
+      assertTrue(
+        name.startsWith("com.io7m.idstore.user_import_hash-"),
+        name
+      );
+    }
+  }
+
+  /**
+   * Mapping over nothing yields nothing.
+   *
+   * @throws Exception On errors
+   */
+
+  @Test
+  public void testMapEmpty()
+    throws Exception
+  {
+    try (var hasher = IdAUserImportHasher.create(2)) {
+      assertEquals(List.of(), hasher.map(0, Integer::valueOf));
+    }
+  }
+
+  /**
+   * Exceptions raised by the function are rethrown.
+   *
+   * @throws Exception On errors
+   */
+
+  @Test
+  public void testMapFails()
+    throws Exception
+  {
+    try (var hasher = IdAUserImportHasher.create(2)) {
+      assertThrows(IllegalStateException.class, () -> {
+        hasher.map(10, i -> {
+          throw new IllegalStateException("Failed " + i);
+        });
+      });
+    }
+  }
+
+  @Override
+  protected IdAUserImportHasher createInstanceA()
+  {
+    return IdAUserImportHasher.create(1);
+  }
+
+  @Override
+  protected IdAUserImportHasher createInstanceB()
+  {
+    return IdAUserImportHasher.create(1);
+  }
+}
@@ -43,7 +43,6 @@ import com.io7m.idstore.server.service.telemetry.api.IdEventAdminLoginAuthentica
 import com.io7m.idstore.server.service.telemetry.api.IdEventAdminLoginRateLimitExceeded;
 import com.io7m.idstore.server.service.telemetry.api.IdEventServiceType;
 import com.io7m.idstore.server.service.telemetry.api.IdMetricsService;
-import com.io7m.idstore.server.service.telemetry.api.IdMetricsServiceType;
 import com.io7m.idstore.server.service.telemetry.api.IdServerTelemetryNoOp;
 import com.io7m.idstore.strings.IdStrings;
 import com.io7m.idstore.tests.IdFakeClock;
@@ -93,7 +92,6 @@ public final class IdAdminLoginServiceTest extends IdServiceContract<IdAdminLogi
   private IdRateLimitAdminLoginServiceType rateLimit;
   private Path directory;
   private IdServerConfigurationService configurationService;
-  private IdMetricsServiceType metrics;
 
   private static Times once()
   {
@@ -162,12 +160,10 @@ public final class IdAdminLoginServiceTest extends IdServiceContract<IdAdminLogi
       );
     this.events =
       mock(IdEventServiceType.class);
-    this.metrics =
-      mock(IdMetricsServiceType.class);
     this.rateLimit =
       mock(IdRateLimitAdminLoginServiceType.class);
     this.configurationService =
-      new IdServerConfigurationService(this.metrics, configuration);
+      new IdServerConfigurationService(configuration);
 
     this.login =
       new IdAdminLoginService(
@@ -204,7 +200,7 @@ public final class IdAdminLoginServiceTest extends IdServiceContract<IdAdminLogi
   public void testUserNonexistent()
     throws Exception
   {
-    when(this.rateLimit.isAllowedByRateLimit(any()))
+    when(this.rateLimit.isAllowedByRateLimit(any(), any()))
       .thenReturn(Boolean.TRUE);
     when(this.admins.adminGetForNameRequire(any()))
       .thenThrow(new IdDatabaseException(
@@ -230,6 +226,8 @@ public final class IdAdminLoginServiceTest extends IdServiceContract<IdAdminLogi
     verify(this.admins, once()).adminGetForNameRequire(any());
     verifyNoMoreInteractions(this.admins);
     verifyNoMoreInteractions(this.events);
+    verify(this.rateLimit, once())
+      .onLoginFailed("www.example.com", "nonexistent");
   }
 
   /**
@@ -242,7 +240,7 @@ public final class IdAdminLoginServiceTest extends IdServiceContract<IdAdminLogi
   public void testDatabaseError0()
     throws Exception
   {
-    when(this.rateLimit.isAllowedByRateLimit(any()))
+    when(this.rateLimit.isAllowedByRateLimit(any(), any()))
       .thenReturn(Boolean.TRUE);
     when(this.admins.adminGetForNameRequire(any()))
       .thenThrow(new IdDatabaseException("", SQL_ERROR, Map.of(), empty()));
@@ -276,7 +274,7 @@ public final class IdAdminLoginServiceTest extends IdServiceContract<IdAdminLogi
   public void testUserBanned()
     throws Exception
   {
-    when(this.rateLimit.isAllowedByRateLimit(any()))
+    when(this.rateLimit.isAllowedByRateLimit(any(), any()))
       .thenReturn(Boolean.TRUE);
 
     final var admin =
@@ -319,7 +317,7 @@ public final class IdAdminLoginServiceTest extends IdServiceContract<IdAdminLogi
   public void testUserBannedNotExpired()
     throws Exception
   {
-    when(this.rateLimit.isAllowedByRateLimit(any()))
+    when(this.rateLimit.isAllowedByRateLimit(any(), any()))
       .thenReturn(Boolean.TRUE);
 
     final var admin =
@@ -365,7 +363,7 @@ public final class IdAdminLoginServiceTest extends IdServiceContract<IdAdminLogi
   public void testUserWrongPassword()
     throws Exception
   {
-    when(this.rateLimit.isAllowedByRateLimit(any()))
+    when(this.rateLimit.isAllowedByRateLimit(any(), any()))
       .thenReturn(Boolean.TRUE);
 
     final var admin =
@@ -399,6 +397,8 @@ public final class IdAdminLoginServiceTest extends IdServiceContract<IdAdminLogi
         "www.example.com",
         admin.id()));
     verifyNoMoreInteractions(this.events);
+    verify(this.rateLimit, once())
+      .onLoginFailed("www.example.com", "admin");
   }
 
   /**
@@ -411,7 +411,7 @@ public final class IdAdminLoginServiceTest extends IdServiceContract<IdAdminLogi
   public void testUserCorrectPassword()
     throws Exception
   {
-    when(this.rateLimit.isAllowedByRateLimit(any()))
+    when(this.rateLimit.isAllowedByRateLimit(any(), any()))
       .thenReturn(Boolean.TRUE);
 
     final var admin =
@@ -455,7 +455,7 @@ public final class IdAdminLoginServiceTest extends IdServiceContract<IdAdminLogi
   public void testUserRateLimited()
     throws Exception
   {
-    when(this.rateLimit.isAllowedByRateLimit(any()))
+    when(this.rateLimit.isAllowedByRateLimit(any(), any()))
       .thenReturn(Boolean.FALSE);
 
     final var ex =
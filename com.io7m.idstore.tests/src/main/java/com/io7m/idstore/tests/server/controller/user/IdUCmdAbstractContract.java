@@ -36,7 +36,6 @@ import com.io7m.idstore.server.service.ratelimit.IdRateLimitEmailVerificationSer
 import com.io7m.idstore.server.service.sessions.IdSessionSecretIdentifier;
 import com.io7m.idstore.server.service.sessions.IdSessionUser;
 import com.io7m.idstore.server.service.telemetry.api.IdEventServiceType;
-import com.io7m.idstore.server.service.telemetry.api.IdMetricsServiceType;
 import com.io7m.idstore.server.service.telemetry.api.IdServerTelemetryNoOp;
 import com.io7m.idstore.server.service.telemetry.api.IdServerTelemetryServiceType;
 import com.io7m.idstore.server.service.templating.IdFMTemplateServiceType;
@@ -73,7 +72,6 @@ public abstract class IdUCmdAbstractContract
   private IdServerBrandingServiceType branding;
   private IdRateLimitEmailVerificationServiceType rateLimit;
   private IdEventServiceType eventService;
-  private IdMetricsServiceType metrics;
 
   protected final Times once()
   {
@@ -157,10 +155,8 @@ public abstract class IdUCmdAbstractContract
       IdStrings.create(Locale.ROOT);
     this.templates =
       mock(IdFMTemplateServiceType.class);
-    this.metrics =
-      mock(IdMetricsServiceType.class);
     this.configurations =
-      new IdServerConfigurationService(this.metrics, configuration);
+      new IdServerConfigurationService(configuration);
     this.mail =
       mock(IdServerMailServiceType.class);
     this.branding =
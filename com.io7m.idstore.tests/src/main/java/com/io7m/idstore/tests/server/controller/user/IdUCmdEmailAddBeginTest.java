@@ -228,7 +228,7 @@ public final class IdUCmdEmailAddBeginTest
       .queries(IdDatabaseEmailsQueriesType.class);
 
     verify(transaction, atLeast(1))
-      .userIdSet(user0.id());
+      .userSet(user0);
 
     verify(emails, this.once())
       .emailExists(eq(email));
@@ -380,7 +380,7 @@ public final class IdUCmdEmailAddBeginTest
       .queries(IdDatabaseEmailsQueriesType.class);
 
     verify(transaction, atLeast(1))
-      .userIdSet(user0.id());
+      .userSet(user0);
 
     verify(emails, this.once())
       .emailExists(eq(email));
@@ -504,7 +504,7 @@ public final class IdUCmdEmailAddBeginTest
       .queries(IdDatabaseEmailsQueriesType.class);
 
     verify(transaction, atLeast(1))
-      .userIdSet(user0.id());
+      .userSet(user0);
 
     verify(emails, this.once())
       .emailExists(eq(email));
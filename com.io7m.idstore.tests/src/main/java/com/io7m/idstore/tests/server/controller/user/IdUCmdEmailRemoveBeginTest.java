@@ -268,7 +268,7 @@ public final class IdUCmdEmailRemoveBeginTest
       .queries(IdDatabaseEmailsQueriesType.class);
 
     verify(transaction, atLeast(1))
-      .userIdSet(user0.id());
+      .userSet(user0);
 
     verify(emails, this.once())
       .emailVerificationCreate(argThat(verification -> {
@@ -411,7 +411,7 @@ public final class IdUCmdEmailRemoveBeginTest
       .queries(IdDatabaseEmailsQueriesType.class);
 
     verify(transaction, atLeast(1))
-      .userIdSet(user0.id());
+      .userSet(user0);
 
     verify(emails, this.once())
       .emailVerificationCreate(argThat(verification -> {
@@ -520,7 +520,7 @@ public final class IdUCmdEmailRemoveBeginTest
       .queries(IdDatabaseEmailsQueriesType.class);
 
     verify(transaction, atLeast(1))
-      .userIdSet(user0.id());
+      .userSet(user0);
 
     verify(emails, this.once())
       .emailVerificationCreate(argThat(verification -> {
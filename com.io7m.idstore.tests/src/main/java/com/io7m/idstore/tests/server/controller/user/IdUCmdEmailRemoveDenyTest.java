@@ -306,7 +306,7 @@ public final class IdUCmdEmailRemoveDenyTest
     );
 
     verify(transaction, this.once())
-      .userIdSet(user0.id());
+      .userSet(user0);
     verify(transaction, this.once())
       .queries(IdDatabaseEmailsQueriesType.class);
 
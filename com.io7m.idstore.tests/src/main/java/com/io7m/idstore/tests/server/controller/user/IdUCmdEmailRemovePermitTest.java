@@ -310,7 +310,7 @@ public final class IdUCmdEmailRemovePermitTest
     );
 
     verify(transaction, this.once())
-      .userIdSet(user0.id());
+      .userSet(user0);
     verify(transaction, this.once())
       .queries(IdDatabaseEmailsQueriesType.class);
     verify(transaction, this.once())
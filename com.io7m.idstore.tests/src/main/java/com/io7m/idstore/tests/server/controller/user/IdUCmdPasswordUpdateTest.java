@@ -116,7 +116,7 @@ public final class IdUCmdPasswordUpdateTest
     verify(transaction)
       .queries(IdDatabaseUsersQueriesType.class);
     verify(transaction)
-      .userIdSet(user0.id());
+      .userSet(user0);
 
     verifyNoMoreInteractions(users);
     verifyNoMoreInteractions(transaction);
@@ -106,7 +106,7 @@ public final class IdUCmdRealnameUpdateTest
     verify(transaction)
       .queries(IdDatabaseUsersQueriesType.class);
     verify(transaction)
-      .userIdSet(user0.id());
+      .userSet(user0);
 
     verifyNoMoreInteractions(users);
     verifyNoMoreInteractions(transaction);
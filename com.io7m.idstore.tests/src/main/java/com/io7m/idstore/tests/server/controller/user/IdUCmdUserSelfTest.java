@@ -79,7 +79,7 @@ public final class IdUCmdUserSelfTest
     verify(transaction)
       .queries(IdDatabaseUsersQueriesType.class);
     verify(transaction)
-      .userIdSet(user0.id());
+      .userSet(user0);
 
     verifyNoMoreInteractions(users);
     verifyNoMoreInteractions(transaction);
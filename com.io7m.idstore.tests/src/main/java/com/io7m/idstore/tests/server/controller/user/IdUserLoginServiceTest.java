@@ -42,7 +42,6 @@ import com.io7m.idstore.server.service.telemetry.api.IdEventUserLoggedIn;
 import com.io7m.idstore.server.service.telemetry.api.IdEventUserLoginAuthenticationFailed;
 import com.io7m.idstore.server.service.telemetry.api.IdEventUserLoginRateLimitExceeded;
 import com.io7m.idstore.server.service.telemetry.api.IdMetricsService;
-import com.io7m.idstore.server.service.telemetry.api.IdMetricsServiceType;
 import com.io7m.idstore.server.service.telemetry.api.IdServerTelemetryNoOp;
 import com.io7m.idstore.strings.IdStrings;
 import com.io7m.idstore.tests.IdFakeClock;
@@ -93,7 +92,6 @@ public final class IdUserLoginServiceTest extends IdServiceContract<IdUserLoginS
   private Path directory;
   private IdRateLimitUserLoginServiceType rateLimit;
   private IdEventServiceType events;
-  private IdMetricsServiceType metrics;
 
   private static Times once()
   {
@@ -164,13 +162,11 @@ public final class IdUserLoginServiceTest extends IdServiceContract<IdUserLoginS
     this.events =
       mock(IdEventServiceType.class);
 
-    when(this.rateLimit.isAllowedByRateLimit(any()))
+    when(this.rateLimit.isAllowedByRateLimit(any(), any()))
       .thenReturn(Boolean.TRUE);
 
-    this.metrics =
-      mock(IdMetricsServiceType.class);
     this.configurationService =
-      new IdServerConfigurationService(this.metrics, configuration);
+      new IdServerConfigurationService(configuration);
     this.login =
       new IdUserLoginService(
         this.serverClock,
@@ -226,6 +222,8 @@ public final class IdUserLoginServiceTest extends IdServiceContract<IdUserLoginS
     verify(this.users, once()).userGetForNameRequire(any());
     verifyNoMoreInteractions(this.users);
     verifyNoMoreInteractions(this.events);
+    verify(this.rateLimit, once())
+      .onLoginFailed("127.0.0.1", "nonexistent");
   }
 
   /**
@@ -383,6 +381,8 @@ public final class IdUserLoginServiceTest extends IdServiceContract<IdUserLoginS
       .emit(new IdEventUserLoginAuthenticationFailed("127.0.0.1", user.id()));
 
     verifyNoMoreInteractions(this.events);
+    verify(this.rateLimit, once())
+      .onLoginFailed("127.0.0.1", "user");
   }
 
   /**
@@ -402,7 +402,7 @@ public final class IdUserLoginServiceTest extends IdServiceContract<IdUserLoginS
       .thenReturn(admin);
     when(this.users.userBanGet(any()))
       .thenReturn(empty());
-    when(this.rateLimit.isAllowedByRateLimit(any()))
+    when(this.rateLimit.isAllowedByRateLimit(any(), any()))
       .thenReturn(Boolean.FALSE);
 
     final var ex =
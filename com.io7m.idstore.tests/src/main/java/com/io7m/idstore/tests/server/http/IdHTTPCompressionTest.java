@@ -0,0 +1,114 @@
+/*
+ * Copyright © 2024 Mark Raynsford <code@io7m.com> https://www.io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+
+package com.io7m.idstore.tests.server.http;
+
+import com.github.luben.zstd.ZstdInputStream;
+import com.io7m.idstore.server.http.IdHTTPCompression;
+import org.junit.jupiter.api.DynamicTest;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestFactory;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+import java.util.stream.Stream;
+import java.util.zip.GZIPInputStream;
+
+import static com.io7m.idstore.server.http.IdHTTPContentEncoding.GZIP;
+import static com.io7m.idstore.server.http.IdHTTPContentEncoding.IDENTITY;
+import static com.io7m.idstore.server.http.IdHTTPContentEncoding.ZSTD;
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public final class IdHTTPCompressionTest
+{
+  private static byte[] text()
+  {
+    return "idstore ".repeat(1000).getBytes(StandardCharsets.UTF_8);
+  }
+
+  /**
+   * Content encodings are negotiated correctly.
+   *
+   * @return The tests
+   */
+
+  @TestFactory
+  public Stream<DynamicTest> testNegotiate()
+  {
+    return Stream.of(
+      Map.entry("", IDENTITY),
+      Map.entry("identity", IDENTITY),
+      Map.entry("gzip", GZIP),
+      Map.entry("x-gzip", GZIP),
+      Map.entry("zstd", ZSTD),
+      Map.entry("gzip, zstd", ZSTD),
+      Map.entry("zstd;q=0.5, gzip", GZIP),
+      Map.entry("gzip;q=0, zstd;q=0", IDENTITY),
+      Map.entry("br, deflate", IDENTITY),
+      Map.entry("*", ZSTD),
+      Map.entry("*;q=0.1, gzip;q=0.9", GZIP),
+      Map.entry("zstd;q=0, *", GZIP),
+      Map.entry("gzip;q=nonsense", IDENTITY)
+    ).map(e -> {
+      return DynamicTest.dynamicTest("testNegotiate_" + e.getKey(), () -> {
+        assertEquals(e.getValue(), IdHTTPCompression.negotiate(e.getKey()));
+      });
+    });
+  }
+
+  /**
+   * Gzip compression round-trips.
+   *
+   * @throws IOException On errors
+   */
+
+  @Test
+  public void testGzipRoundTrip()
+    throws IOException
+  {
+    final var data = text();
+    final var compressed = IdHTTPCompression.compress(GZIP, data);
+    assertTrue(compressed.length < data.length);
+
+    try (var s = new GZIPInputStream(new ByteArrayInputStream(compressed))) {
+      assertArrayEquals(data, s.readAllBytes());
+    }
+  }
+
+  /**
+   * Zstandard compression round-trips.
+   *
+   * @throws IOException On errors
+   */
+
+  @Test
+  public void testZstdRoundTrip()
+    throws IOException
+  {
+    final var data = text();
+    final var compressed = IdHTTPCompression.compress(ZSTD, data);
+    assertTrue(compressed.length < data.length);
+
+    try (var s = new ZstdInputStream(new ByteArrayInputStream(compressed))) {
+      assertArrayEquals(data, s.readAllBytes());
+    }
+  }
+}
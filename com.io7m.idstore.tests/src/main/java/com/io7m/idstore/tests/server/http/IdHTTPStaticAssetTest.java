@@ -0,0 +1,132 @@
+/*
+ * Copyright © 2024 Mark Raynsford <code@io7m.com> https://www.io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+
+package com.io7m.idstore.tests.server.http;
+
+import com.io7m.idstore.server.http.IdHTTPStaticAsset;
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+
+import static com.io7m.idstore.server.http.IdHTTPContentEncoding.GZIP;
+import static com.io7m.idstore.server.http.IdHTTPContentEncoding.IDENTITY;
+import static com.io7m.idstore.server.http.IdHTTPContentEncoding.ZSTD;
+import static com.io7m.idstore.server.http.IdHTTPStaticAsset.CACHE_IMMUTABLE;
+import static com.io7m.idstore.server.http.IdHTTPStaticAsset.CACHE_REVALIDATE;
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public final class IdHTTPStaticAssetTest
+{
+  private static final byte[] TEXT =
+    "body { color: red; }\n".repeat(100).getBytes(StandardCharsets.UTF_8);
+
+  private static IdHTTPStaticAsset asset()
+  {
+    return IdHTTPStaticAsset.create("text/css", TEXT, "abcd");
+  }
+
+  /**
+   * Uncompressed requests receive the original data and a strong entity tag.
+   */
+
+  @Test
+  public void testIdentity()
+  {
+    final var r = asset().respond("", "", null);
+    assertEquals(200, r.statusCode());
+    assertEquals(IDENTITY, r.contentEncoding());
+    assertEquals("\"abcd\"", r.entityTag());
+    assertEquals(CACHE_REVALIDATE, r.cacheControl());
+    assertArrayEquals(TEXT, r.data());
+  }
+
+  /**
+   * Fingerprinted requests may be cached indefinitely.
+   */
+
+  @Test
+  public void testFingerprinted()
+  {
+    assertEquals(
+      CACHE_IMMUTABLE,
+      asset().respond("", "", "abcd").cacheControl()
+    );
+    assertEquals(
+      CACHE_REVALIDATE,
+      asset().respond("", "", "ffff").cacheControl()
+    );
+  }
+
+  /**
+   * Precompressed variants are served with their own entity tags.
+   */
+
+  @Test
+  public void testCompressedVariants()
+  {
+    final var a = asset();
+
+    final var z = a.respond("gzip, zstd", "", null);
+    assertEquals(ZSTD, z.contentEncoding());
+    assertEquals("\"abcd-zstd\"", z.entityTag());
+    assertTrue(z.data().length < TEXT.length);
+
+    final var g = a.respond("gzip", "", null);
+    assertEquals(GZIP, g.contentEncoding());
+    assertEquals("\"abcd-gzip\"", g.entityTag());
+    assertTrue(g.data().length < TEXT.length);
+
+    assertArrayEquals(z.data(), a.respond("zstd", "", null).data());
+  }
+
+  /**
+   * Matching entity tags produce 304 responses.
+   */
+
+  @Test
+  public void testNotModified()
+  {
+    final var a = asset();
+
+    final var r0 = a.respond("gzip", "\"x\", \"abcd-gzip\"", null);
+    assertTrue(r0.isNotModified());
+    assertEquals(0, r0.data().length);
+    assertEquals("\"abcd-gzip\"", r0.entityTag());
+
+    assertTrue(a.respond("", "W/\"abcd\"", null).isNotModified());
+    assertTrue(a.respond("", "*", null).isNotModified());
+    assertFalse(a.respond("", "\"abcd-gzip\"", null).isNotModified());
+    assertFalse(a.respond("gzip", "\"abcd\"", null).isNotModified());
+  }
+
+  /**
+   * Variants that would not be smaller are not kept.
+   */
+
+  @Test
+  public void testIncompressible()
+  {
+    final var tiny = new byte[]{(byte) 'x'};
+    final var a = IdHTTPStaticAsset.create("text/plain", tiny, "0000");
+    final var r = a.respond("zstd, gzip", "", null);
+    assertEquals(IDENTITY, r.contentEncoding());
+    assertArrayEquals(tiny, r.data());
+  }
+}
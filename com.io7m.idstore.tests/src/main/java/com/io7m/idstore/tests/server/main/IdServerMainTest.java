@@ -126,4 +126,13 @@ public final class IdServerMainTest
     });
     assertEquals(0, r);
   }
+
+  @Test
+  public void testHelpUserImport()
+  {
+    final var r = IdMain.mainExitless(new String[]{
+      "help", "user-import"
+    });
+    assertEquals(0, r);
+  }
 }
@@ -19,6 +19,7 @@ package com.io7m.idstore.tests.server.service.branding;
 import com.io7m.idstore.server.api.IdServerBrandingConfiguration;
 import com.io7m.idstore.server.service.branding.IdServerBrandingService;
 import com.io7m.idstore.server.service.branding.IdServerBrandingServiceType;
+import com.io7m.idstore.server.service.templating.IdFMAssetPaths;
 import com.io7m.idstore.server.service.templating.IdFMTemplateService;
 import com.io7m.idstore.server.service.templating.IdFMTemplateServiceType;
 import com.io7m.idstore.server.service.templating.IdFMTemplateType;
@@ -94,6 +95,55 @@ public final class IdServerBrandingTest
     assertTrue(isValidCSS(branding.xButtonCSS(), CSS21));
   }
 
+  /**
+   * Asset hashes are computed and published as fingerprinted URLs.
+   *
+   * @throws IOException On errors
+   */
+
+  @Test
+  public void testAssetFingerprints()
+    throws IOException
+  {
+    final var templatesReal =
+      IdFMTemplateService.create();
+
+    assertEquals(
+      IdFMAssetPaths.unversioned(),
+      templatesReal.assetPaths()
+    );
+
+    final var branding =
+      IdServerBrandingService.create(
+        templatesReal,
+        new IdServerBrandingConfiguration(
+          "idstore",
+          Optional.empty(),
+          Optional.empty(),
+          Optional.empty()
+        )
+      );
+
+    final var css = branding.cssAsset();
+    assertArrayEquals(branding.css().getBytes(UTF_8), css.data());
+    assertEquals(64, css.hash().length());
+    assertTrue(branding.resetCSSAsset().data().length > 0);
+
+    final var paths = templatesReal.assetPaths();
+    assertEquals(
+      "/css/style.css?v=" + css.hash(),
+      paths.styleCss());
+    assertEquals(
+      "/css/reset.css?v=" + branding.resetCSSAsset().hash(),
+      paths.resetCss());
+    assertEquals(
+      "/css/xbutton.css?v=" + branding.xButtonCSSAsset().hash(),
+      paths.xButtonCss());
+    assertEquals(
+      "/logo?v=" + branding.logoAsset().hash(),
+      paths.logo());
+  }
+
   /**
    * Extra login text can be read.
    *
@@ -21,23 +21,28 @@ import com.io7m.anethum.slf4j.ParseStatusLogging;
 import com.io7m.idstore.server.api.IdServerConfiguration;
 import com.io7m.idstore.server.api.IdServerConfigurationFile;
 import com.io7m.idstore.server.api.IdServerConfigurations;
+import com.io7m.idstore.server.api.IdServerHTTPConfiguration;
+import com.io7m.idstore.server.api.IdServerMaintenanceConfiguration;
+import com.io7m.idstore.server.api.IdServerMaintenanceScheduleDaily;
+import com.io7m.idstore.server.api.IdServerMaintenanceScheduleInterval;
 import com.io7m.idstore.server.service.configuration.IdServerConfigurationParsers;
 import com.io7m.idstore.server.service.configuration.IdServerConfigurationSerializers;
 import com.io7m.idstore.server.service.configuration.IdServerConfigurationService;
-import com.io7m.idstore.server.service.telemetry.api.IdMetricsService;
 import com.io7m.idstore.tests.IdTestDirectories;
 import com.io7m.idstore.tests.server.service.IdServiceContract;
 import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
-import org.mockito.Mockito;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.io.IOException;
 import java.nio.file.Path;
 import java.time.Clock;
+import java.time.Duration;
+import java.time.LocalTime;
 import java.util.Locale;
+import java.util.Set;
 
 import static com.io7m.blackthorne.core.BTPreserveLexical.DISCARD_LEXICAL_INFORMATION;
 import static org.junit.jupiter.api.Assertions.assertEquals;
@@ -82,13 +87,75 @@ public final class IdServerConfigurationServiceTest
     assertTrue(ot.logs().isPresent());
     assertTrue(ot.metrics().isPresent());
     assertTrue(ot.traces().isPresent());
+
+    final var policy = ot.metrics().orElseThrow().attributePolicy();
+    assertEquals(16, policy.hashBuckets());
+    assertEquals(5, policy.heavyHitters());
+    assertEquals(Set.of("127.0.0.1", "::1"), policy.allowedHosts());
+    assertEquals(Set.of("someone"), policy.allowedUsers());
+    assertEquals(
+      Set.of("example.com", "example.org"),
+      policy.allowedMailDomains()
+    );
+
+    final var rateLimit = c.rateLimit();
+    assertEquals(Duration.ofSeconds(6L), rateLimit.userLoginRateLimit());
+    assertEquals(3, rateLimit.userLoginBurst());
+    assertEquals(1, rateLimit.adminLoginBurst());
+    assertEquals(5000L, rateLimit.maximumTrackedKeys());
+    assertTrue(rateLimit.shared());
+    assertEquals(Duration.ofSeconds(2L), rateLimit.loginNetworkRateLimit());
+    assertEquals(50, rateLimit.loginNetworkBurst());
+    assertEquals(Duration.ofSeconds(10L), rateLimit.loginAccountRateLimit());
+    assertEquals(3, rateLimit.loginAccountBurst());
+
+    final var pool = c.databaseConfiguration().pool();
+    assertEquals(2, pool.minimumSize());
+    assertEquals(20, pool.maximumSize());
+    assertTrue(pool.adaptive());
+    assertEquals(Duration.ofSeconds(5L), pool.connectionTimeout());
+    assertEquals(Duration.ofMinutes(10L), pool.maximumLifetime());
+    assertEquals(0, pool.prepareThreshold());
+    assertEquals(128, pool.preparedStatementCacheQueries());
+    assertEquals(3, pool.secondaryMaximumSize());
+    assertEquals(
+      Duration.ofMillis(250L),
+      c.databaseConfiguration().slowQueryThreshold()
+    );
+
+    final var maintenance = c.maintenanceConfiguration();
+    assertEquals(
+      new IdServerMaintenanceScheduleDaily(LocalTime.of(3, 30)),
+      maintenance.schedule()
+    );
+    assertEquals(250, maintenance.batchSize());
+
+    assertEquals(Duration.ofSeconds(10L), c.requestTimeout());
   }
 
   @Test
   public void testConfig3()
     throws Exception
   {
-    this.roundTrip("server-config-3.xml");
+    final var c = this.roundTrip("server-config-3.xml");
+
+    final var maintenance = c.maintenanceConfiguration();
+    assertEquals(
+      new IdServerMaintenanceScheduleInterval(Duration.ofMinutes(15L)),
+      maintenance.schedule()
+    );
+    assertEquals(
+      IdServerMaintenanceConfiguration.DEFAULT_BATCH_SIZE,
+      maintenance.batchSize()
+    );
+    assertEquals(
+      IdServerHTTPConfiguration.DEFAULT_REQUEST_TIMEOUT,
+      c.requestTimeout()
+    );
+    assertEquals(
+      Duration.ofSeconds(1L),
+      c.databaseConfiguration().slowQueryThreshold()
+    );
   }
 
   private IdServerConfiguration roundTrip(
@@ -175,10 +242,7 @@ public final class IdServerConfigurationServiceTest
           configFile
         );
 
-      return new IdServerConfigurationService(
-        Mockito.mock(IdMetricsService.class),
-        configuration
-      );
+      return new IdServerConfigurationService(configuration);
     } catch (final Exception e) {
       throw new IllegalStateException(e);
     }
@@ -208,10 +272,7 @@ public final class IdServerConfigurationServiceTest
           configFile
         );
 
-      return new IdServerConfigurationService(
-        Mockito.mock(IdMetricsService.class),
-        configuration
-      );
+      return new IdServerConfigurationService(configuration);
     } catch (final Exception e) {
       throw new IllegalStateException(e);
     }
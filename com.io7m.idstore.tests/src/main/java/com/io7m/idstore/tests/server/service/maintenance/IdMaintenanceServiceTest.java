@@ -0,0 +1,316 @@
+/*
+ * Copyright © 2024 Mark Raynsford <code@io7m.com> https://www.io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+
+package com.io7m.idstore.tests.server.service.maintenance;
+
+import com.io7m.idstore.database.api.IdDatabaseConnectionType;
+import com.io7m.idstore.database.api.IdDatabaseMaintenanceQueriesType;
+import com.io7m.idstore.database.api.IdDatabaseMaintenanceTask;
+import com.io7m.idstore.database.api.IdDatabaseRole;
+import com.io7m.idstore.database.api.IdDatabaseTransactionType;
+import com.io7m.idstore.database.api.IdDatabaseType;
+import com.io7m.idstore.server.api.IdServerConfiguration;
+import com.io7m.idstore.server.api.IdServerMaintenanceConfiguration;
+import com.io7m.idstore.server.api.IdServerMaintenanceScheduleInterval;
+import com.io7m.idstore.server.service.clock.IdServerClock;
+import com.io7m.idstore.server.service.configuration.IdServerConfigurationService;
+import com.io7m.idstore.server.service.maintenance.IdMaintenanceService;
+import com.io7m.idstore.server.service.telemetry.api.IdMetricsService;
+import com.io7m.idstore.server.service.telemetry.api.IdServerTelemetryNoOp;
+import com.io7m.idstore.server.service.tls.IdTLSContextServiceType;
+import org.junit.jupiter.api.Test;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static com.io7m.idstore.database.api.IdDatabaseMaintenanceTask.EXPIRE_BANS;
+import static com.io7m.idstore.database.api.IdDatabaseMaintenanceTask.EXPIRE_RATE_LIMITS;
+import static com.io7m.idstore.database.api.IdDatabaseMaintenanceTask.UPDATE_INITIAL_ADMIN_PERMISSIONS;
+import static org.mockito.ArgumentMatchers.any;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.timeout;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+public final class IdMaintenanceServiceTest
+{
+  /**
+   * With a batch size of one, batched tasks run until a batch affects no
+   * records, and tasks that are not batched run exactly once even though
+   * they affect a full batch.
+   *
+   * @throws Exception On errors
+   */
+
+  @Test
+  public void testBatchSizeOne()
+    throws Exception
+  {
+    final var configuration =
+      mock(IdServerConfiguration.class);
+    final var configurationService =
+      mock(IdServerConfigurationService.class);
+    final var database =
+      mock(IdDatabaseType.class);
+    final var connection =
+      mock(IdDatabaseConnectionType.class);
+    final var transaction =
+      mock(IdDatabaseTransactionType.class);
+    final var queries =
+      mock(IdDatabaseMaintenanceQueriesType.class);
+
+    when(configurationService.configuration())
+      .thenReturn(configuration);
+    when(configuration.maintenanceConfiguration())
+      .thenReturn(new IdServerMaintenanceConfiguration(
+        Optional.empty(),
+        new IdServerMaintenanceScheduleInterval(Duration.ofHours(1L)),
+        1
+      ));
+
+    when(database.openConnection(IdDatabaseRole.IDSTORE))
+      .thenReturn(connection);
+    when(connection.openTransaction())
+      .thenReturn(transaction);
+    when(transaction.queries(IdDatabaseMaintenanceQueriesType.class))
+      .thenReturn(queries);
+    when(queries.maintenanceLeaderLockTry())
+      .thenReturn(Boolean.TRUE);
+
+    /*
+     * There are two expired bans, and one initial admin whose permissions
+     * are updated on every run.
+     */
+
+    final var bans = new AtomicInteger(2);
+    when(queries.runMaintenanceTask(any(), anyInt()))
+      .thenAnswer(invocation -> {
+        final IdDatabaseMaintenanceTask task = invocation.getArgument(0);
+        return switch (task) {
+          case EXPIRE_BANS ->
+            Long.valueOf(bans.getAndDecrement() > 0 ? 1L : 0L);
+          case UPDATE_INITIAL_ADMIN_PERMISSIONS -> Long.valueOf(1L);
+          default -> Long.valueOf(0L);
+        };
+      });
+
+    final var telemetry =
+      IdServerTelemetryNoOp.noop();
+
+    try (var ignored = IdMaintenanceService.create(
+      new IdServerClock(Clock.systemUTC()),
+      telemetry,
+      new IdMetricsService(telemetry),
+      configurationService,
+      mock(IdTLSContextServiceType.class),
+      database)) {
+
+      verify(queries, timeout(10_000L))
+        .runMaintenanceTask(UPDATE_INITIAL_ADMIN_PERMISSIONS, 1);
+
+      /*
+       * Give a runaway loop the chance to run the task again.
+       */
+
+      Thread.sleep(250L);
+    }
+
+    verify(queries, times(1))
+      .runMaintenanceTask(UPDATE_INITIAL_ADMIN_PERMISSIONS, 1);
+    verify(queries, times(3))
+      .runMaintenanceTask(EXPIRE_BANS, 1);
+    verify(queries, times(1))
+      .runMaintenanceTask(EXPIRE_RATE_LIMITS, 1);
+  }
+
+  /**
+   * Maintenance runs again each time the interval elapses, including
+   * intervals shorter than a second.
+   *
+   * @throws Exception On errors
+   */
+
+  @Test
+  public void testRepeats()
+    throws Exception
+  {
+    final var configuration =
+      mock(IdServerConfiguration.class);
+    final var configurationService =
+      mock(IdServerConfigurationService.class);
+    final var database =
+      mock(IdDatabaseType.class);
+    final var connection =
+      mock(IdDatabaseConnectionType.class);
+    final var transaction =
+      mock(IdDatabaseTransactionType.class);
+    final var queries =
+      mock(IdDatabaseMaintenanceQueriesType.class);
+
+    when(configurationService.configuration())
+      .thenReturn(configuration);
+    when(configuration.maintenanceConfiguration())
+      .thenReturn(new IdServerMaintenanceConfiguration(
+        Optional.empty(),
+        new IdServerMaintenanceScheduleInterval(Duration.ofMillis(100L)),
+        100
+      ));
+
+    when(database.openConnection(IdDatabaseRole.IDSTORE))
+      .thenReturn(connection);
+    when(connection.openTransaction())
+      .thenReturn(transaction);
+    when(transaction.queries(IdDatabaseMaintenanceQueriesType.class))
+      .thenReturn(queries);
+    when(queries.maintenanceLeaderLockTry())
+      .thenReturn(Boolean.TRUE);
+    when(queries.maintenanceLeaderLockHeld())
+      .thenReturn(Boolean.TRUE);
+    when(queries.runMaintenanceTask(any(), anyInt()))
+      .thenReturn(Long.valueOf(0L));
+
+    final var telemetry =
+      IdServerTelemetryNoOp.noop();
+
+    try (var ignored = IdMaintenanceService.create(
+      new IdServerClock(Clock.systemUTC()),
+      telemetry,
+      new IdMetricsService(telemetry),
+      configurationService,
+      mock(IdTLSContextServiceType.class),
+      database)) {
+
+      verify(queries, timeout(10_000L).atLeast(3))
+        .runMaintenanceTask(UPDATE_INITIAL_ADMIN_PERMISSIONS, 100);
+    }
+  }
+
+  /**
+   * Only one of two servers is the maintenance leader, and the other server
+   * takes over when the leader closes.
+   *
+   * @throws Exception On errors
+   */
+
+  @Test
+  public void testLeaderFailover()
+    throws Exception
+  {
+    final var lock =
+      new AtomicReference<IdDatabaseMaintenanceQueriesType>();
+    final var queries0 =
+      mock(IdDatabaseMaintenanceQueriesType.class);
+    final var queries1 =
+      mock(IdDatabaseMaintenanceQueriesType.class);
+
+    try (var service0 = this.createLeaderCandidate(lock, queries0)) {
+      verify(queries0, timeout(10_000L))
+        .runMaintenanceTask(UPDATE_INITIAL_ADMIN_PERMISSIONS, 100);
+      assertTrue(service0.isLeader());
+
+      try (var service1 = this.createLeaderCandidate(lock, queries1)) {
+        verify(queries1, timeout(10_000L).atLeast(2))
+          .maintenanceLeaderLockTry();
+        assertFalse(service1.isLeader());
+        verify(queries1, times(0))
+          .runMaintenanceTask(any(), anyInt());
+
+        service0.close();
+        verify(queries0, times(1))
+          .maintenanceLeaderLockRelease();
+        assertFalse(service0.isLeader());
+
+        verify(queries1, timeout(10_000L))
+          .runMaintenanceTask(UPDATE_INITIAL_ADMIN_PERMISSIONS, 100);
+        assertTrue(service1.isLeader());
+      }
+    }
+  }
+
+  /*
+   * Create a maintenance service whose database shares a simulated
+   * advisory lock with other services.
+   */
+
+  private IdMaintenanceService createLeaderCandidate(
+    final AtomicReference<IdDatabaseMaintenanceQueriesType> lock,
+    final IdDatabaseMaintenanceQueriesType queries)
+    throws Exception
+  {
+    final var configuration =
+      mock(IdServerConfiguration.class);
+    final var configurationService =
+      mock(IdServerConfigurationService.class);
+    final var database =
+      mock(IdDatabaseType.class);
+    final var connection =
+      mock(IdDatabaseConnectionType.class);
+    final var transaction =
+      mock(IdDatabaseTransactionType.class);
+
+    when(configurationService.configuration())
+      .thenReturn(configuration);
+    when(configuration.maintenanceConfiguration())
+      .thenReturn(new IdServerMaintenanceConfiguration(
+        Optional.empty(),
+        new IdServerMaintenanceScheduleInterval(Duration.ofMillis(100L)),
+        100
+      ));
+
+    when(database.openConnection(IdDatabaseRole.IDSTORE))
+      .thenReturn(connection);
+    when(connection.openTransaction())
+      .thenReturn(transaction);
+    when(transaction.queries(IdDatabaseMaintenanceQueriesType.class))
+      .thenReturn(queries);
+
+    when(queries.maintenanceLeaderLockTry())
+      .thenAnswer(invocation -> {
+        return Boolean.valueOf(
+          lock.compareAndSet(null, queries) || lock.get() == queries
+        );
+      });
+    when(queries.maintenanceLeaderLockHeld())
+      .thenAnswer(invocation -> Boolean.valueOf(lock.get() == queries));
+    doAnswer(invocation -> {
+      lock.compareAndSet(queries, null);
+      return null;
+    }).when(queries).maintenanceLeaderLockRelease();
+    when(queries.runMaintenanceTask(any(), anyInt()))
+      .thenReturn(Long.valueOf(0L));
+
+    final var telemetry =
+      IdServerTelemetryNoOp.noop();
+
+    return IdMaintenanceService.create(
+      new IdServerClock(Clock.systemUTC()),
+      telemetry,
+      new IdMetricsService(telemetry),
+      configurationService,
+      mock(IdTLSContextServiceType.class),
+      database
+    );
+  }
+}
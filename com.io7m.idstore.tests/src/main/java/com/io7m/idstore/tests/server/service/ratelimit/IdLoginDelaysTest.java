@@ -0,0 +1,156 @@
+/*
+ * Copyright © 2024 Mark Raynsford <code@io7m.com> https://www.io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+
+package com.io7m.idstore.tests.server.service.ratelimit;
+
+import com.io7m.idstore.server.service.ratelimit.IdLoginDelays;
+import com.io7m.idstore.server.service.telemetry.api.IdMetricsServiceType;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static com.io7m.idstore.model.IdUserDomain.USER;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+
+public final class IdLoginDelaysTest
+{
+  private IdMetricsServiceType metrics;
+  private AtomicLong time;
+  private IdLoginDelays delays;
+
+  @BeforeEach
+  public void setup()
+  {
+    this.metrics = mock(IdMetricsServiceType.class);
+    this.time = new AtomicLong(1_000_000_000L);
+    this.delays =
+      IdLoginDelays.create(
+        this.metrics,
+        USER,
+        Duration.ofSeconds(1L),
+        100L,
+        this.time::get
+      );
+  }
+
+  /**
+   * Logins with no recent failures are not delayed.
+   */
+
+  @Test
+  public void testNoFailures()
+  {
+    assertEquals(Duration.ZERO, this.delays.delayFor("10.0.0.1", "someone"));
+    verify(this.metrics).onLoginPauseTime(USER, Duration.ZERO);
+  }
+
+  /**
+   * The delay doubles with each failure, up to a limit.
+   */
+
+  @Test
+  public void testFailuresGrow()
+  {
+    this.delays.onLoginFailed("10.0.0.1", "someone");
+    assertEquals(
+      Duration.ofSeconds(1L),
+      this.delays.delayFor("10.0.0.1", "someone"));
+
+    this.delays.onLoginFailed("10.0.0.1", "someone");
+    assertEquals(
+      Duration.ofSeconds(2L),
+      this.delays.delayFor("10.0.0.1", "someone"));
+
+    for (int index = 0; index < 100; ++index) {
+      this.delays.onLoginFailed("10.0.0.1", "someone");
+    }
+    assertEquals(
+      Duration.ofSeconds(1L << IdLoginDelays.MAXIMUM_DOUBLINGS),
+      this.delays.delayFor("10.0.0.1", "someone"));
+  }
+
+  /**
+   * Failures are tracked per host and per account independently.
+   */
+
+  @Test
+  public void testFailuresPerHostAndAccount()
+  {
+    this.delays.onLoginFailed("10.0.0.1", "someone");
+    this.delays.onLoginFailed("10.0.0.1", "someone");
+
+    assertEquals(
+      Duration.ofSeconds(2L),
+      this.delays.delayFor("10.0.0.1", "other"));
+    assertEquals(
+      Duration.ofSeconds(2L),
+      this.delays.delayFor("10.0.0.2", "SOMEONE"));
+    assertEquals(
+      Duration.ZERO,
+      this.delays.delayFor("10.0.0.2", "other"));
+  }
+
+  /**
+   * A successful login clears the account failures, but not the host
+   * failures.
+   */
+
+  @Test
+  public void testSuccessClearsAccount()
+  {
+    this.delays.onLoginFailed("10.0.0.1", "someone");
+    this.delays.onLoginSucceeded("10.0.0.2", "someone");
+
+    assertEquals(
+      Duration.ZERO,
+      this.delays.delayFor("10.0.0.2", "someone"));
+    assertEquals(
+      Duration.ofSeconds(1L),
+      this.delays.delayFor("10.0.0.1", "other"));
+  }
+
+  /**
+   * Failures are forgotten after a period of inactivity.
+   */
+
+  @Test
+  public void testFailuresExpire()
+  {
+    this.delays.onLoginFailed("10.0.0.1", "someone");
+    this.time.addAndGet(IdLoginDelays.FAILURE_WINDOW.plusSeconds(1L).toNanos());
+
+    assertEquals(
+      Duration.ZERO,
+      this.delays.delayFor("10.0.0.1", "someone"));
+  }
+
+  /**
+   * Disabled delays never delay anything.
+   */
+
+  @Test
+  public void testDisabled()
+  {
+    final var disabled = IdLoginDelays.disabled(this.metrics, USER);
+    disabled.onLoginFailed("10.0.0.1", "someone");
+    assertEquals(Duration.ZERO, disabled.delayFor("10.0.0.1", "someone"));
+  }
+}
@@ -0,0 +1,240 @@
+/*
+ * Copyright © 2024 Mark Raynsford <code@io7m.com> https://www.io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+
+package com.io7m.idstore.tests.server.service.ratelimit;
+
+import com.io7m.idstore.database.api.IdDatabaseConnectionType;
+import com.io7m.idstore.database.api.IdDatabaseException;
+import com.io7m.idstore.database.api.IdDatabaseRateLimitsQueriesType;
+import com.io7m.idstore.database.api.IdDatabaseTransactionType;
+import com.io7m.idstore.database.api.IdDatabaseType;
+import com.io7m.idstore.server.service.ratelimit.IdRateLimiterConfiguration;
+import com.io7m.idstore.server.service.ratelimit.IdRateLimiterShared;
+import com.io7m.idstore.server.service.telemetry.api.IdMetricsServiceType;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static com.io7m.idstore.database.api.IdDatabaseRole.IDSTORE;
+import static com.io7m.idstore.error_codes.IdStandardErrorCodes.SQL_ERROR;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+public final class IdRateLimiterSharedTest
+{
+  private IdMetricsServiceType metrics;
+  private AtomicLong time;
+  private IdDatabaseType database;
+  private IdDatabaseConnectionType connection;
+  private IdDatabaseTransactionType transaction;
+  private IdDatabaseRateLimitsQueriesType queries;
+
+  @BeforeEach
+  public void setup()
+    throws Exception
+  {
+    this.metrics =
+      mock(IdMetricsServiceType.class);
+    this.time =
+      new AtomicLong(1_000_000_000L);
+    this.database =
+      mock(IdDatabaseType.class);
+    this.connection =
+      mock(IdDatabaseConnectionType.class);
+    this.transaction =
+      mock(IdDatabaseTransactionType.class);
+    this.queries =
+      mock(IdDatabaseRateLimitsQueriesType.class);
+
+    when(this.database.openConnection(IDSTORE))
+      .thenReturn(this.connection);
+    when(this.connection.openTransaction())
+      .thenReturn(this.transaction);
+    when(this.transaction.queries(IdDatabaseRateLimitsQueriesType.class))
+      .thenReturn(this.queries);
+  }
+
+  private IdRateLimiterShared create(
+    final Duration interval,
+    final int burst)
+  {
+    return IdRateLimiterShared.create(
+      this.metrics,
+      this.database,
+      "test",
+      new IdRateLimiterConfiguration(interval, burst, 100L),
+      this.time::get,
+      task -> {
+
+      }
+    );
+  }
+
+  /**
+   * Deciding an operation never touches the database; operations refused
+   * by the local limiter are never reported.
+   *
+   * @throws Exception On errors
+   */
+
+  @Test
+  public void testLocalPrefilter()
+    throws Exception
+  {
+    when(this.queries.rateLimitRecord(
+      anyString(), anyString(), any(), anyInt(), anyLong()))
+      .thenReturn(Duration.ZERO);
+
+    final var limiter = this.create(Duration.ofSeconds(10L), 1);
+    assertTrue(limiter.isAllowedByRateLimit("h", "u", "op"));
+    assertFalse(limiter.isAllowedByRateLimit("h", "u", "op"));
+    assertFalse(limiter.isAllowedByRateLimit("h", "u", "op"));
+    verify(this.database, times(0)).openConnection(any());
+
+    limiter.settle();
+    verify(this.database, times(1)).openConnection(IDSTORE);
+    verify(this.transaction, times(1)).commit();
+    verify(this.queries, times(1))
+      .rateLimitRecord(
+        eq("test"),
+        anyString(),
+        eq(Duration.ofSeconds(10L)),
+        eq(1),
+        eq(1L)
+      );
+
+    limiter.settle();
+    verify(this.database, times(1)).openConnection(IDSTORE);
+  }
+
+  /**
+   * Operations are reported to the database in batches, one count per key.
+   *
+   * @throws Exception On errors
+   */
+
+  @Test
+  public void testSettleAggregates()
+    throws Exception
+  {
+    when(this.queries.rateLimitRecord(
+      anyString(), anyString(), any(), anyInt(), anyLong()))
+      .thenReturn(Duration.ZERO);
+
+    final var limiter = this.create(Duration.ofSeconds(10L), 3);
+    assertTrue(limiter.isAllowedByRateLimit("h", "u", "op"));
+    assertTrue(limiter.isAllowedByRateLimit("h", "u", "op"));
+    assertTrue(limiter.isAllowedByRateLimit("h", "u", "op"));
+    assertTrue(limiter.isAllowedByRateLimit("i", "u", "op"));
+
+    limiter.settle();
+    verify(this.database, times(1)).openConnection(IDSTORE);
+    verify(this.queries, times(1))
+      .rateLimitRecord(eq("test"), anyString(), any(), eq(3), eq(3L));
+    verify(this.queries, times(1))
+      .rateLimitRecord(eq("test"), anyString(), any(), eq(3), eq(1L));
+  }
+
+  /**
+   * Keys that have exhausted the shared limiter are refused locally until
+   * the shared bucket would permit another operation.
+   *
+   * @throws Exception On errors
+   */
+
+  @Test
+  public void testSharedRefused()
+    throws Exception
+  {
+    when(this.queries.rateLimitRecord(
+      anyString(), anyString(), any(), anyInt(), anyLong()))
+      .thenReturn(Duration.ofSeconds(5L));
+
+    final var limiter = this.create(Duration.ofSeconds(1L), 3);
+    assertTrue(limiter.isAllowedByRateLimit("h", "u", "op"));
+    limiter.settle();
+
+    assertFalse(limiter.isAllowedByRateLimit("h", "u", "op"));
+    assertFalse(limiter.isAllowedByRateLimit("h", "u", "op"));
+    verify(this.metrics, times(2))
+      .onRateLimitTriggered("test", "h", "u", "op");
+
+    this.time.addAndGet(Duration.ofSeconds(4L).toNanos());
+    assertFalse(limiter.isAllowedByRateLimit("h", "u", "op"));
+
+    this.time.addAndGet(Duration.ofSeconds(2L).toNanos());
+    assertTrue(limiter.isAllowedByRateLimit("h", "u", "op"));
+    verify(this.database, times(1)).openConnection(IDSTORE);
+  }
+
+  /**
+   * If the database is unavailable, the local limiter decides.
+   *
+   * @throws Exception On errors
+   */
+
+  @Test
+  public void testSharedUnavailable()
+    throws Exception
+  {
+    when(this.database.openConnection(IDSTORE))
+      .thenThrow(new IdDatabaseException(
+        "Unavailable",
+        SQL_ERROR,
+        Map.of(),
+        Optional.empty()
+      ));
+
+    final var limiter = this.create(Duration.ofSeconds(10L), 2);
+    assertTrue(limiter.isAllowedByRateLimit("h", "u", "op"));
+    limiter.settle();
+    assertTrue(limiter.isAllowedByRateLimit("h", "u", "op"));
+    limiter.settle();
+    assertFalse(limiter.isAllowedByRateLimit("h", "u", "op"));
+  }
+
+  /**
+   * A zero interval disables the limiter entirely.
+   *
+   * @throws Exception On errors
+   */
+
+  @Test
+  public void testDisabled()
+    throws Exception
+  {
+    final var limiter = this.create(Duration.ZERO, 1);
+    for (int index = 0; index < 100; ++index) {
+      assertTrue(limiter.isAllowedByRateLimit("h", "u", "op"));
+    }
+    limiter.settle();
+    verify(this.database, times(0)).openConnection(any());
+  }
+}
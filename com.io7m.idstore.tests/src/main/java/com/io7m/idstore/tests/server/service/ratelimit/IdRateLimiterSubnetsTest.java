@@ -0,0 +1,192 @@
+/*
+ * Copyright © 2024 Mark Raynsford <code@io7m.com> https://www.io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+
+package com.io7m.idstore.tests.server.service.ratelimit;
+
+import com.io7m.idstore.server.service.ratelimit.IdRateLimitPrefix;
+import com.io7m.idstore.server.service.ratelimit.IdRateLimitUserLoginService;
+import com.io7m.idstore.server.service.ratelimit.IdRateLimiterConfiguration;
+import com.io7m.idstore.server.service.ratelimit.IdRateLimiterSubnets;
+import com.io7m.idstore.server.service.telemetry.api.IdMetricsServiceType;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+public final class IdRateLimiterSubnetsTest
+{
+  private IdMetricsServiceType metrics;
+  private AtomicLong time;
+
+  @BeforeEach
+  public void setup()
+  {
+    this.metrics = mock(IdMetricsServiceType.class);
+    this.time = new AtomicLong(1_000_000_000L);
+  }
+
+  private IdRateLimiterSubnets create(
+    final int networkBurst,
+    final int userBurst)
+  {
+    return IdRateLimiterSubnets.create(
+      this.metrics,
+      "login",
+      "LOGIN",
+      new IdRateLimiterConfiguration(Duration.ofMinutes(1L), networkBurst, 100L),
+      new IdRateLimiterConfiguration(Duration.ofMinutes(1L), userBurst, 100L),
+      this.time::get
+    );
+  }
+
+  /**
+   * Address prefixes are computed correctly.
+   */
+
+  @Test
+  public void testPrefixes()
+  {
+    assertEquals(
+      "10.1.2.0/24",
+      IdRateLimitPrefix.of("10.1.2.3", 24, 48).orElseThrow().toString()
+    );
+    assertEquals(
+      "10.1.2.3/32",
+      IdRateLimitPrefix.of("10.1.2.3", 32, 64).orElseThrow().toString()
+    );
+    assertEquals(
+      "2001:db8:1:0::/48",
+      IdRateLimitPrefix.of("2001:db8:1:2:3:4:5:6", 24, 48)
+        .orElseThrow()
+        .toString()
+    );
+    assertEquals(
+      "2001:db8:1:2::/64",
+      IdRateLimitPrefix.of("[2001:db8:1:2::1]", 32, 64)
+        .orElseThrow()
+        .toString()
+    );
+    assertEquals(
+      "192.0.2.0/24",
+      IdRateLimitPrefix.of("::ffff:192.0.2.1", 24, 48)
+        .orElseThrow()
+        .toString()
+    );
+
+    assertEquals(Optional.empty(), IdRateLimitPrefix.of("example.com", 24, 48));
+    assertEquals(Optional.empty(), IdRateLimitPrefix.of("256.0.0.1", 24, 48));
+    assertEquals(Optional.empty(), IdRateLimitPrefix.of("1.2.3", 24, 48));
+    assertEquals(Optional.empty(), IdRateLimitPrefix.of("1:2", 24, 48));
+    assertEquals(Optional.empty(), IdRateLimitPrefix.of("", 24, 48));
+  }
+
+  /**
+   * IPv6 hosts are limited per /64.
+   */
+
+  @Test
+  public void testHostKey()
+  {
+    assertEquals("10.1.2.3/32", IdRateLimiterSubnets.hostKey("10.1.2.3"));
+    assertEquals(
+      IdRateLimiterSubnets.hostKey("2001:db8:1:2::1"),
+      IdRateLimiterSubnets.hostKey("2001:db8:1:2:ffff:ffff:ffff:ffff")
+    );
+    assertEquals("unknown", IdRateLimiterSubnets.hostKey("unknown"));
+  }
+
+  /**
+   * Rotating through the addresses of a network doesn't evade the network
+   * limit.
+   */
+
+  @Test
+  public void testNetworkRotation()
+  {
+    final var limiter = this.create(3, 1000);
+
+    assertTrue(limiter.isAllowedByRateLimit("2001:db8:1:1::1", "a"));
+    assertTrue(limiter.isAllowedByRateLimit("2001:db8:1:2::1", "b"));
+    assertTrue(limiter.isAllowedByRateLimit("2001:db8:1:3::1", "c"));
+    assertFalse(limiter.isAllowedByRateLimit("2001:db8:1:4::1", "d"));
+    assertTrue(limiter.isAllowedByRateLimit("2001:db8:2:1::1", "e"));
+
+    assertTrue(limiter.isAllowedByRateLimit("192.0.2.1", "a"));
+    assertTrue(limiter.isAllowedByRateLimit("192.0.2.2", "b"));
+    assertTrue(limiter.isAllowedByRateLimit("192.0.2.3", "c"));
+    assertFalse(limiter.isAllowedByRateLimit("192.0.2.4", "d"));
+    assertTrue(limiter.isAllowedByRateLimit("192.0.3.1", "e"));
+
+    verify(this.metrics, times(2))
+      .onRateLimitTriggered(eq("login_network"), anyString(), anyString(), eq("LOGIN"));
+
+    this.time.addAndGet(Duration.ofMinutes(1L).toNanos());
+    assertTrue(limiter.isAllowedByRateLimit("2001:db8:1:4::1", "d"));
+    assertEquals(4L, limiter.trackedNetworks());
+  }
+
+  /**
+   * Distributing attempts over many networks doesn't evade the per-account
+   * limit, and account names are compared case-insensitively.
+   */
+
+  @Test
+  public void testAccount()
+  {
+    final var limiter = this.create(1000, 2);
+
+    assertTrue(limiter.isAllowedByRateLimit("192.0.2.1", "someone"));
+    assertTrue(limiter.isAllowedByRateLimit("198.51.100.1", "SOMEONE"));
+    assertFalse(limiter.isAllowedByRateLimit("203.0.113.1", "Someone"));
+    assertTrue(limiter.isAllowedByRateLimit("203.0.113.1", "other"));
+
+    verify(this.metrics, times(1))
+      .onRateLimitTriggered("login_user", "203.0.113.1", "Someone", "LOGIN");
+  }
+
+  /**
+   * The login service applies every level.
+   */
+
+  @Test
+  public void testLoginService()
+  {
+    final var service =
+      IdRateLimitUserLoginService.create(
+        this.metrics,
+        new IdRateLimiterConfiguration(Duration.ofMinutes(1L), 1, 100L),
+        new IdRateLimiterConfiguration(Duration.ofMinutes(1L), 100, 100L),
+        new IdRateLimiterConfiguration(Duration.ofMinutes(1L), 100, 100L),
+        Duration.ZERO
+      );
+
+    assertTrue(service.isAllowedByRateLimit("2001:db8:1:2::1", "a"));
+    assertFalse(service.isAllowedByRateLimit("2001:db8:1:2::2", "b"));
+    assertTrue(service.isAllowedByRateLimit("2001:db8:1:3::1", "c"));
+  }
+}
@@ -0,0 +1,203 @@
+/*
+ * Copyright © 2024 Mark Raynsford <code@io7m.com> https://www.io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+
+package com.io7m.idstore.tests.server.service.ratelimit;
+
+import com.io7m.idstore.server.service.ratelimit.IdRateLimiter;
+import com.io7m.idstore.server.service.ratelimit.IdRateLimiterConfiguration;
+import com.io7m.idstore.server.service.telemetry.api.IdMetricsServiceType;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+public final class IdRateLimiterTest
+{
+  private IdMetricsServiceType metrics;
+  private AtomicLong time;
+
+  @BeforeEach
+  public void setup()
+  {
+    this.metrics = mock(IdMetricsServiceType.class);
+    this.time = new AtomicLong(1_000_000_000L);
+  }
+
+  private IdRateLimiter create(
+    final Duration interval,
+    final int burst,
+    final long maximumKeys)
+  {
+    return IdRateLimiter.create(
+      this.metrics,
+      "test",
+      new IdRateLimiterConfiguration(interval, burst, maximumKeys),
+      this.time::get
+    );
+  }
+
+  /**
+   * A limiter with a burst of one allows exactly one operation per interval.
+   */
+
+  @Test
+  public void testSingle()
+  {
+    final var limiter = this.create(Duration.ofSeconds(10L), 1, 100L);
+
+    assertTrue(limiter.isAllowedByRateLimit("h", "u", "op"));
+    assertFalse(limiter.isAllowedByRateLimit("h", "u", "op"));
+
+    this.time.addAndGet(Duration.ofSeconds(9L).toNanos());
+    assertFalse(limiter.isAllowedByRateLimit("h", "u", "op"));
+
+    this.time.addAndGet(Duration.ofSeconds(1L).toNanos());
+    assertTrue(limiter.isAllowedByRateLimit("h", "u", "op"));
+    assertFalse(limiter.isAllowedByRateLimit("h", "u", "op"));
+
+    verify(this.metrics, times(3))
+      .onRateLimitTriggered(anyString(), anyString(), anyString(), anyString());
+  }
+
+  /**
+   * "10 attempts per minute, burst 3".
+   */
+
+  @Test
+  public void testBurst()
+  {
+    final var limiter = this.create(Duration.ofSeconds(6L), 3, 100L);
+
+    assertTrue(limiter.isAllowedByRateLimit("h", "u", "op"));
+    assertTrue(limiter.isAllowedByRateLimit("h", "u", "op"));
+    assertTrue(limiter.isAllowedByRateLimit("h", "u", "op"));
+    assertFalse(limiter.isAllowedByRateLimit("h", "u", "op"));
+
+    /*
+     * One token is replenished every six seconds.
+     */
+
+    this.time.addAndGet(Duration.ofSeconds(6L).toNanos());
+    assertTrue(limiter.isAllowedByRateLimit("h", "u", "op"));
+    assertFalse(limiter.isAllowedByRateLimit("h", "u", "op"));
+
+    /*
+     * Over a minute, at most ten (plus the burst) operations are allowed.
+     */
+
+    var allowed = 0;
+    for (int second = 0; second < 60; ++second) {
+      this.time.addAndGet(Duration.ofSeconds(1L).toNanos());
+      if (limiter.isAllowedByRateLimit("h", "u", "op")) {
+        ++allowed;
+      }
+    }
+    assertEquals(10, allowed);
+
+    /*
+     * Other keys are unaffected.
+     */
+
+    assertTrue(limiter.isAllowedByRateLimit("h", "v", "op"));
+    assertTrue(limiter.isAllowedByRateLimit("i", "u", "op"));
+  }
+
+  /**
+   * A zero interval disables rate limiting.
+   */
+
+  @Test
+  public void testDisabled()
+  {
+    final var limiter = this.create(Duration.ZERO, 1, 100L);
+
+    for (int index = 0; index < 100; ++index) {
+      assertTrue(limiter.isAllowedByRateLimit("h", "u", "op"));
+    }
+    assertEquals(0L, limiter.trackedKeys());
+  }
+
+  /**
+   * The number of tracked keys is bounded.
+   */
+
+  @Test
+  public void testBounded()
+  {
+    final var limiter = this.create(Duration.ofMinutes(10L), 1, 100L);
+
+    for (int index = 0; index < 10_000; ++index) {
+      limiter.isAllowedByRateLimit("10.0.0.%d".formatted(index), "", "op");
+    }
+
+    assertTrue(
+      limiter.trackedKeys() <= 100L,
+      "Tracked keys %d must be <= 100".formatted(limiter.trackedKeys())
+    );
+  }
+
+  /**
+   * Idle keys expire once their buckets would have been refilled.
+   */
+
+  @Test
+  public void testExpires()
+  {
+    final var limiter = this.create(Duration.ofSeconds(1L), 2, 100L);
+
+    assertTrue(limiter.isAllowedByRateLimit("h", "u", "op"));
+    assertEquals(1L, limiter.trackedKeys());
+
+    this.time.addAndGet(Duration.ofSeconds(3L).toNanos());
+    assertEquals(0L, limiter.trackedKeys());
+  }
+
+  /**
+   * Invalid configurations are rejected.
+   */
+
+  @Test
+  public void testInvalid()
+  {
+    assertThrows(IllegalArgumentException.class, () -> {
+      new IdRateLimiterConfiguration(Duration.ofSeconds(-1L), 1, 1L);
+    });
+    assertThrows(IllegalArgumentException.class, () -> {
+      new IdRateLimiterConfiguration(Duration.ofSeconds(1L), 0, 1L);
+    });
+    assertThrows(IllegalArgumentException.class, () -> {
+      new IdRateLimiterConfiguration(Duration.ofSeconds(1L), 1, 0L);
+    });
+    assertThrows(ArithmeticException.class, () -> {
+      new IdRateLimiterConfiguration(
+        Duration.ofDays(365L * 100L),
+        Integer.MAX_VALUE,
+        1L
+      );
+    });
+  }
+}
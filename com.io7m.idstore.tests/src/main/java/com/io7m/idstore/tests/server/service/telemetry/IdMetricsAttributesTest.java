@@ -0,0 +1,202 @@
+/*
+ * Copyright © 2024 Mark Raynsford <code@io7m.com> https://www.io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+
+package com.io7m.idstore.tests.server.service.telemetry;
+
+import com.io7m.idstore.model.IdEmail;
+import com.io7m.idstore.server.api.IdServerOpenTelemetryConfiguration.IdMetricsAttributePolicy;
+import com.io7m.idstore.server.service.telemetry.api.IdMetricsAttributes;
+import com.io7m.idstore.server.service.telemetry.api.IdMetricsHeavyHitters;
+import org.junit.jupiter.api.Test;
+
+import java.util.HashSet;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public final class IdMetricsAttributesTest
+{
+  /**
+   * Allow-listed values are published verbatim.
+   */
+
+  @Test
+  public void testAllowed()
+  {
+    final var attributes =
+      new IdMetricsAttributes(
+        new IdMetricsAttributePolicy(
+          8,
+          10,
+          Set.of("127.0.0.1"),
+          Set.of("grouch"),
+          Set.of("example.com")
+        ),
+        0x0706050403020100L,
+        0x0f0e0d0c0b0a0908L
+      );
+
+    assertEquals("127.0.0.1", attributes.host("127.0.0.1"));
+    assertEquals("grouch", attributes.user("grouch"));
+    assertEquals("", attributes.user(""));
+    assertEquals(
+      "example.com",
+      attributes.mailDomain(new IdEmail("someone@example.com"))
+    );
+  }
+
+  /**
+   * Values that are not allow-listed are hashed into a bounded number of
+   * buckets, consistently.
+   */
+
+  @Test
+  public void testBucketsBounded()
+  {
+    final var attributes =
+      new IdMetricsAttributes(
+        new IdMetricsAttributePolicy(8, 10, Set.of(), Set.of(), Set.of()),
+        0x0706050403020100L,
+        0x0f0e0d0c0b0a0908L
+      );
+
+    final var seen = new HashSet<String>();
+    for (int index = 0; index < 10_000; ++index) {
+      final var host = "10.0.%d.%d".formatted(index / 256, index % 256);
+      final var bucket = attributes.host(host);
+      assertTrue(bucket.startsWith("bucket-"), bucket);
+      assertEquals(bucket, attributes.host(host));
+      seen.add(bucket);
+    }
+
+    assertEquals(8, seen.size());
+    assertEquals(
+      attributes.mailDomain(new IdEmail("a@example.net")),
+      attributes.mailDomain(new IdEmail("b@example.net"))
+    );
+  }
+
+  /**
+   * Values whose Java hash codes collide are not forced into the same bucket.
+   */
+
+  @Test
+  public void testBucketsKeyed()
+  {
+    assertEquals("Aa".hashCode(), "BB".hashCode());
+
+    final var policy =
+      new IdMetricsAttributePolicy(8, 10, Set.of(), Set.of(), Set.of());
+
+    var separated = false;
+    for (long key = 0L; key < 16L; ++key) {
+      final var attributes = new IdMetricsAttributes(policy, key, ~key);
+      if (!attributes.user("Aa").equals(attributes.user("BB"))) {
+        separated = true;
+        break;
+      }
+    }
+    assertTrue(separated);
+  }
+
+  /**
+   * The heaviest hitters are retained even when the table overflows.
+   */
+
+  @Test
+  public void testHeavyHitters()
+  {
+    final var hitters = new IdMetricsHeavyHitters<String>(5);
+
+    for (int index = 0; index < 1000; ++index) {
+      hitters.record("attacker");
+      if (index % 2 == 0) {
+        hitters.record("noisy");
+      }
+      hitters.record("once-%d".formatted(index));
+    }
+
+    final var top = hitters.snapshot();
+    assertEquals(5, top.size());
+    assertEquals("attacker", top.get(0).key());
+    assertEquals(1000L, top.get(0).count());
+    assertEquals("noisy", top.get(1).key());
+    assertEquals(500L, top.get(1).count());
+  }
+
+  /**
+   * A key that was once the heaviest hitter but has stopped occurring is
+   * replaced by a key that is occurring now, once the counts decay.
+   */
+
+  @Test
+  public void testHeavyHittersDecay()
+  {
+    final var hitters = new IdMetricsHeavyHitters<String>(2);
+
+    for (int index = 0; index < 1000; ++index) {
+      hitters.record("old");
+    }
+    for (int index = 0; index < 500; ++index) {
+      hitters.record("other");
+    }
+    hitters.decay();
+
+    for (int interval = 0; interval < 12; ++interval) {
+      for (int index = 0; index < 10; ++index) {
+        hitters.record("new");
+      }
+      hitters.decay();
+    }
+
+    final var top = hitters.snapshot();
+    assertEquals("new", top.get(0).key());
+    assertTrue(top.stream().noneMatch(h -> "old".equals(h.key())));
+  }
+
+  /**
+   * Decaying halves counts and forgets keys whose counts reach zero.
+   */
+
+  @Test
+  public void testHeavyHittersDecayForgets()
+  {
+    final var hitters = new IdMetricsHeavyHitters<String>(5);
+    hitters.record("a");
+    hitters.record("b");
+    hitters.record("b");
+    hitters.decay();
+
+    final var top = hitters.snapshot();
+    assertEquals(1, top.size());
+    assertEquals("b", top.get(0).key());
+    assertEquals(1L, top.get(0).count());
+  }
+
+  /**
+   * A zero-capacity table tracks nothing.
+   */
+
+  @Test
+  public void testHeavyHittersDisabled()
+  {
+    final var hitters = new IdMetricsHeavyHitters<String>(0);
+    hitters.record("x");
+    assertEquals(0, hitters.snapshot().size());
+  }
+}
@@ -31,6 +31,7 @@ open module com.io7m.idstore.tests
   requires com.io7m.idstore.protocol.user;
   requires com.io7m.idstore.server.api;
   requires com.io7m.idstore.server.controller;
+  requires com.io7m.idstore.server.http;
   requires com.io7m.idstore.server.security;
   requires com.io7m.idstore.server.service.branding;
   requires com.io7m.idstore.server.service.clock;
@@ -42,12 +43,14 @@ open module com.io7m.idstore.tests
   requires com.io7m.idstore.server.service.sessions;
   requires com.io7m.idstore.server.service.telemetry.api;
   requires com.io7m.idstore.server.service.templating;
+  requires com.io7m.idstore.server.service.tls;
   requires com.io7m.idstore.server.vanilla;
   requires com.io7m.idstore.shell.admin;
   requires com.io7m.idstore.strings;
   requires com.io7m.idstore.tests.extensions;
   requires com.io7m.idstore.user_client;
 
+  requires com.github.luben.zstd_jni;
   requires com.helger.css;
   requires com.io7m.anethum.api;
   requires com.io7m.anethum.slf4j;
@@ -94,15 +97,18 @@ open module com.io7m.idstore.tests
   exports com.io7m.idstore.tests.server.controller.user_pwreset;
   exports com.io7m.idstore.tests.server.events;
   exports com.io7m.idstore.tests.server.health;
+  exports com.io7m.idstore.tests.server.http;
   exports com.io7m.idstore.tests.server.main;
   exports com.io7m.idstore.tests.server.security;
   exports com.io7m.idstore.tests.server.service.branding;
   exports com.io7m.idstore.tests.server.service.configuration;
   exports com.io7m.idstore.tests.server.service.clock;
   exports com.io7m.idstore.tests.server.service.mail;
+  exports com.io7m.idstore.tests.server.service.maintenance;
   exports com.io7m.idstore.tests.server.service.ratelimit;
   exports com.io7m.idstore.tests.server.service.reqlimit;
   exports com.io7m.idstore.tests.server.service.sessions;
+  exports com.io7m.idstore.tests.server.service.telemetry;
   exports com.io7m.idstore.tests.server.service.templating;
   exports com.io7m.idstore.tests.server.service;
   exports com.io7m.idstore.tests.server;
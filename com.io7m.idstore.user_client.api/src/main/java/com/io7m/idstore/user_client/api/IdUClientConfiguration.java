@@ -26,23 +26,34 @@ import java.util.Objects;
 /**
  * The user client configuration.
  *
- * @param openTelemetry      The OpenTelemetry API
- * @param clock              The clock used for timeouts
- * @param locale             The locale
+ * @param openTelemetry           The OpenTelemetry API
+ * @param clock                   The clock used for timeouts
+ * @param locale                  The locale
+ * @param maximumRequestsInFlight The maximum number of asynchronous requests
+ *                                that may be in flight at any given time
  */
 
 public record IdUClientConfiguration(
   OpenTelemetry openTelemetry,
   Clock clock,
-  Locale locale)
+  Locale locale,
+  int maximumRequestsInFlight)
   implements HBConfigurationType
 {
+  /**
+   * The default maximum number of asynchronous requests in flight.
+   */
+
+  public static final int DEFAULT_MAXIMUM_REQUESTS_IN_FLIGHT = 64;
+
   /**
    * The user client configuration.
    *
-   * @param openTelemetry      The OpenTelemetry API
-   * @param clock              The clock used for timeouts
-   * @param locale             The locale
+   * @param openTelemetry           The OpenTelemetry API
+   * @param clock                   The clock used for timeouts
+   * @param locale                  The locale
+   * @param maximumRequestsInFlight The maximum number of asynchronous requests
+   *                                that may be in flight at any given time
    */
 
   public IdUClientConfiguration
@@ -50,5 +61,29 @@ public record IdUClientConfiguration(
     Objects.requireNonNull(openTelemetry, "openTelemetry");
     Objects.requireNonNull(clock, "clock");
     Objects.requireNonNull(locale, "locale");
+
+    if (maximumRequestsInFlight < 1) {
+      throw new IllegalArgumentException(
+        "Maximum requests in flight must be positive (got %d)"
+          .formatted(Integer.valueOf(maximumRequestsInFlight))
+      );
+    }
+  }
+
+  /**
+   * The user client configuration, using
+   * {@link #DEFAULT_MAXIMUM_REQUESTS_IN_FLIGHT}.
+   *
+   * @param openTelemetry The OpenTelemetry API
+   * @param clock         The clock used for timeouts
+   * @param locale        The locale
+   */
+
+  public IdUClientConfiguration(
+    final OpenTelemetry openTelemetry,
+    final Clock clock,
+    final Locale locale)
+  {
+    this(openTelemetry, clock, locale, DEFAULT_MAXIMUM_REQUESTS_IN_FLIGHT);
   }
 }
@@ -28,6 +28,7 @@ import com.io7m.idstore.protocol.user.IdUResponseError;
 import com.io7m.idstore.protocol.user.IdUResponseType;
 
 import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.TimeoutException;
 
 /**
@@ -108,4 +109,29 @@ public interface IdUClientType
       default -> (R) r;
     };
   }
+
+  /**
+   * Send a command without waiting for the response. Several commands may be
+   * in flight at once, multiplexed over the client's connection; the number
+   * of commands in flight is bounded by the client configuration, and this
+   * method blocks until a slot is available if the bound has been reached.
+   * The returned future completes exceptionally with an
+   * {@link IdUClientException} if the server returns an error. Unlike
+   * {@link #sendAndWait(HBMessageType, Duration)}, expired sessions are not
+   * transparently renewed.
+   *
+   * @param command The command
+   * @param timeout The timeout
+   * @param <R>     The type of results
+   *
+   * @return The future result
+   *
+   * @throws IdUClientException   If the client is not connected
+   * @throws InterruptedException On interruption
+   */
+
+  <R extends IdUResponseType> CompletableFuture<R> sendAsync(
+    IdUCommandType<R> command,
+    Duration timeout)
+    throws IdUClientException, InterruptedException;
 }
@@ -58,6 +58,7 @@ public final class IdUClients implements IdUClientFactoryType
 
     final Supplier<HttpClient> clients = () -> {
       return HttpClient.newBuilder()
+        .version(HttpClient.Version.HTTP_2)
         .cookieHandler(new CookieManager())
         .executor(Executors.newVirtualThreadPerTaskExecutor())
         .build();
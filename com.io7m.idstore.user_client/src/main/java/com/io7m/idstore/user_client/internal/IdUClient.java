@@ -18,7 +18,12 @@
 package com.io7m.idstore.user_client.internal;
 
 import com.io7m.hibiscus.api.HBClientAbstract;
+import com.io7m.idstore.error_codes.IdStandardErrorCodes;
+import com.io7m.idstore.protocol.user.IdUCommandType;
 import com.io7m.idstore.protocol.user.IdUMessageType;
+import com.io7m.idstore.protocol.user.IdUResponseError;
+import com.io7m.idstore.protocol.user.IdUResponseType;
+import com.io7m.idstore.strings.IdStringConstants;
 import com.io7m.idstore.strings.IdStrings;
 import com.io7m.idstore.user_client.api.IdUClientConfiguration;
 import com.io7m.idstore.user_client.api.IdUClientConnectionParameters;
@@ -26,6 +31,14 @@ import com.io7m.idstore.user_client.api.IdUClientException;
 import com.io7m.idstore.user_client.api.IdUClientType;
 
 import java.net.http.HttpClient;
+import java.nio.channels.ClosedChannelException;
+import java.time.Duration;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.atomic.AtomicReference;
 import java.util.function.Supplier;
 
 /**
@@ -39,6 +52,9 @@ public final class IdUClient
   IdUClientException>
   implements IdUClientType
 {
+  private final AtomicReference<IdUTransportType> asyncTransport;
+  private final IdStrings strings;
+
   /**
    * The client.
    *
@@ -51,9 +67,63 @@ public final class IdUClient
     final IdUClientConfiguration inConfiguration,
     final IdStrings inStrings,
     final Supplier<HttpClient> inHttpClients)
+  {
+    this(
+      inConfiguration,
+      inStrings,
+      inHttpClients,
+      new AtomicReference<>()
+    );
+  }
+
+  private IdUClient(
+    final IdUClientConfiguration inConfiguration,
+    final IdStrings inStrings,
+    final Supplier<HttpClient> inHttpClients,
+    final AtomicReference<IdUTransportType> inAsyncTransport)
   {
     super(
-      new IdUHandlerDisconnected(inConfiguration, inStrings, inHttpClients)
+      new IdUHandlerDisconnected(
+        inConfiguration,
+        inStrings,
+        inHttpClients,
+        inAsyncTransport
+      )
     );
+
+    this.strings =
+      Objects.requireNonNull(inStrings, "inStrings");
+    this.asyncTransport =
+      Objects.requireNonNull(inAsyncTransport, "inAsyncTransport");
+  }
+
+  @Override
+  public <R extends IdUResponseType> CompletableFuture<R> sendAsync(
+    final IdUCommandType<R> command,
+    final Duration timeout)
+    throws IdUClientException, InterruptedException
+  {
+    Objects.requireNonNull(command, "command");
+    Objects.requireNonNull(timeout, "timeout");
+
+    final var transport = this.asyncTransport.get();
+    if (transport == null) {
+      throw new IdUClientException(
+        this.strings.format(IdStringConstants.ERROR_CLOSED_CHANNEL),
+        new ClosedChannelException(),
+        IdStandardErrorCodes.API_MISUSE_ERROR,
+        Map.of(),
+        Optional.empty(),
+        Optional.empty()
+      );
+    }
+
+    return transport.sendAsync(command, timeout)
+      .thenApply(response -> {
+        if (response instanceof final IdUResponseError error) {
+          throw new CompletionException(IdUClientException.ofError(error));
+        }
+        return command.responseClass().cast(response);
+      });
   }
 }
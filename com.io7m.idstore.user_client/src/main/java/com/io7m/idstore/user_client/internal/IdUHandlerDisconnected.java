@@ -19,6 +19,7 @@ package com.io7m.idstore.user_client.internal;
 import com.io7m.hibiscus.api.HBClientHandlerType;
 import com.io7m.hibiscus.api.HBConnectionError;
 import com.io7m.hibiscus.api.HBConnectionResultType;
+import com.io7m.hibiscus.api.HBConnectionSucceeded;
 import com.io7m.hibiscus.api.HBTransportClosed;
 import com.io7m.hibiscus.api.HBTransportType;
 import com.io7m.idstore.protocol.user.IdUMessageType;
@@ -29,6 +30,7 @@ import com.io7m.idstore.user_client.api.IdUClientException;
 
 import java.net.http.HttpClient;
 import java.util.Objects;
+import java.util.concurrent.atomic.AtomicReference;
 import java.util.function.Supplier;
 
 /**
@@ -39,19 +41,23 @@ final class IdUHandlerDisconnected extends IdUHandlerAbstract
 {
   private final HBTransportType<IdUMessageType, IdUClientException> transport;
   private final Supplier<HttpClient> httpClients;
+  private final AtomicReference<IdUTransportType> asyncTransport;
 
   /**
    * Construct a handler.
    *
-   * @param inConfiguration The configuration
-   * @param inStrings       The string resources
+   * @param inConfiguration  The configuration
+   * @param inStrings        The string resources
    * @param inHttpClients    The HTTP client supplier
+   * @param inAsyncTransport The holder for the transport used by
+   *                         asynchronous sends once connected
    */
 
   IdUHandlerDisconnected(
     final IdUClientConfiguration inConfiguration,
     final IdStrings inStrings,
-    final Supplier<HttpClient> inHttpClients)
+    final Supplier<HttpClient> inHttpClients,
+    final AtomicReference<IdUTransportType> inAsyncTransport)
   {
     super(inConfiguration, inStrings);
 
@@ -59,6 +65,8 @@ final class IdUHandlerDisconnected extends IdUHandlerAbstract
       new HBTransportClosed<>(IdUClientException::ofException);
     this.httpClients =
       Objects.requireNonNull(inHttpClients, "inHttpClients");
+    this.asyncTransport =
+      Objects.requireNonNull(inAsyncTransport, "inAsyncTransport");
   }
 
   @Override
@@ -93,7 +101,13 @@ final class IdUHandlerDisconnected extends IdUHandlerAbstract
           newTransport
         );
 
-      return newHandler.doConnect(parameters);
+      final var result =
+        newHandler.doConnect(parameters);
+
+      if (result instanceof HBConnectionSucceeded<?, ?, ?, ?>) {
+        this.asyncTransport.set(newTransport);
+      }
+      return result;
     } catch (final IdUClientException e) {
       return new HBConnectionError<>(e);
     }
@@ -77,6 +77,7 @@ public final class IdUProtocolNegotiation
 
     final var request =
       HttpRequest.newBuilder(base)
+        .header("Accept-Encoding", IdUCompression.ACCEPT_ENCODING)
         .GET()
         .build();
 
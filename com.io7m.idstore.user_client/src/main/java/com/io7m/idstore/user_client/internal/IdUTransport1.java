@@ -35,6 +35,7 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.io.IOException;
+import java.io.InputStream;
 import java.net.URI;
 import java.net.http.HttpClient;
 import java.net.http.HttpRequest;
@@ -45,7 +46,10 @@ import java.util.HashMap;
 import java.util.Map;
 import java.util.Objects;
 import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
 import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.Semaphore;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.TimeoutException;
 
@@ -57,7 +61,7 @@ import static com.io7m.idstore.strings.IdStringConstants.EXPECTED_CONTENT_TYPE;
 import static com.io7m.idstore.strings.IdStringConstants.EXPECTED_RESPONSE_TYPE;
 import static com.io7m.idstore.strings.IdStringConstants.RECEIVED_CONTENT_TYPE;
 import static com.io7m.idstore.strings.IdStringConstants.RECEIVED_RESPONSE_TYPE;
-import static com.io7m.idstore.user_client.internal.IdUCompression.decompressResponse;
+import static com.io7m.idstore.user_client.internal.IdUCompression.decompressStream;
 
 /**
  * The version 1 transport.
@@ -75,6 +79,7 @@ public final class IdUTransport1
   private final HttpClient http;
   private final IdStrings strings;
   private final LinkedBlockingQueue<MessageAndResponse> inbox;
+  private final Semaphore inFlight;
 
   private record MessageAndResponse(
     IdUMessageType sent,
@@ -86,15 +91,18 @@ public final class IdUTransport1
   /**
    * The version 1 transport.
    *
-   * @param inStrings    The string resources
-   * @param inHttpClient The HTTP client
-   * @param baseURI      The base URI
+   * @param inStrings                 The string resources
+   * @param inHttpClient              The HTTP client
+   * @param baseURI                   The base URI
+   * @param maximumRequestsInFlight   The maximum number of asynchronous
+   *                                  requests in flight
    */
 
   public IdUTransport1(
     final IdStrings inStrings,
     final HttpClient inHttpClient,
-    final URI baseURI)
+    final URI baseURI,
+    final int maximumRequestsInFlight)
   {
     this.http =
       Objects.requireNonNull(inHttpClient, "inHttpClient");
@@ -103,6 +111,8 @@ public final class IdUTransport1
 
     this.inbox =
       new LinkedBlockingQueue<>();
+    this.inFlight =
+      new Semaphore(maximumRequestsInFlight, true);
 
     this.messages =
       new IdUCB1Messages();
@@ -152,6 +162,20 @@ public final class IdUTransport1
     InterruptedException,
     IdUClientException,
     IdProtocolException
+  {
+    final var response =
+      this.http.send(
+        this.commandRequest(targetURI, command, timeout),
+        HttpResponse.BodyHandlers.ofInputStream()
+      );
+
+    return this.processResponse(command, response);
+  }
+
+  private HttpRequest commandRequest(
+    final URI targetURI,
+    final IdUCommandType<?> command,
+    final Optional<Duration> timeout)
   {
     final var data =
       this.messages.serialize(command);
@@ -159,16 +183,18 @@ public final class IdUTransport1
     final var requestBuilder =
       HttpRequest.newBuilder()
         .uri(targetURI)
+        .header("Accept-Encoding", IdUCompression.ACCEPT_ENCODING)
         .POST(HttpRequest.BodyPublishers.ofByteArray(data));
 
     timeout.ifPresent(requestBuilder::timeout);
+    return requestBuilder.build();
+  }
 
-    final var response =
-      this.http.send(
-        requestBuilder.build(),
-        HttpResponse.BodyHandlers.ofByteArray()
-      );
-
+  private MessageAndResponse processResponse(
+    final IdUCommandType<?> command,
+    final HttpResponse<InputStream> response)
+    throws IOException, IdUClientException, IdProtocolException
+  {
     LOG.debug("Write: Status {}", Integer.valueOf(response.statusCode()));
 
     final var responseHeaders =
@@ -184,16 +210,19 @@ public final class IdUTransport1
 
     final var expectedContentType = IdUCB1Messages.contentType();
     if (!contentType.equals(expectedContentType)) {
+      response.body().close();
       throw this.errorContentType(contentType, expectedContentType);
     }
 
     /*
-     * Parse the response message, decompressing if necessary. If the
+     * Parse the response message, decompressing as the body is read. If the
      * parsed message isn't a response... fail.
      */
 
-    final var responseMessage =
-      this.messages.parse(decompressResponse(response, responseHeaders));
+    final IdUMessageType responseMessage;
+    try (var stream = decompressStream(response.body(), responseHeaders)) {
+      responseMessage = this.messages.parse(stream);
+    }
 
     if (!(responseMessage instanceof IdUResponseType)) {
       throw this.errorUnexpectedResponseType(command, responseMessage);
@@ -319,6 +348,15 @@ public final class IdUTransport1
     return new HBReadResponse<>(r.sent(), r.received());
   }
 
+  private URI targetURIFor(
+    final IdUMessageType message)
+  {
+    return switch (message) {
+      case final IdUCommandLogin ignored -> this.loginURI;
+      default -> this.commandURI;
+    };
+  }
+
   @Override
   public void send(
     final IdUMessageType message)
@@ -330,22 +368,11 @@ public final class IdUTransport1
 
     try {
       this.inbox.put(
-        switch (message) {
-          case final IdUCommandLogin m -> {
-            yield this.sendMessage(
-              message,
-              this.loginURI,
-              Optional.empty()
-            );
-          }
-          default -> {
-            yield this.sendMessage(
-              message,
-              this.commandURI,
-              Optional.empty()
-            );
-          }
-        }
+        this.sendMessage(
+          message,
+          this.targetURIFor(message),
+          Optional.empty()
+        )
       );
     } catch (final IOException | IdProtocolException e) {
       throw IdUClientException.ofException(e);
@@ -363,10 +390,7 @@ public final class IdUTransport1
 
     try {
       final var targetURI =
-        switch (message) {
-          case final IdUCommandLogin ignored -> this.loginURI;
-          default -> this.commandURI;
-        };
+        this.targetURIFor(message);
 
       final var data =
         this.messages.serialize(message);
@@ -397,26 +421,66 @@ public final class IdUTransport1
     }
 
     try {
-      return (
-        switch (message) {
-          case final IdUCommandLogin m -> {
-            yield this.sendMessage(
-              message,
-              this.loginURI,
-              Optional.of(timeout)
-            );
-          }
-          default -> {
-            yield this.sendMessage(
-              message,
-              this.commandURI,
-              Optional.of(timeout)
-            );
-          }
-        }
+      return this.sendMessage(
+        message,
+        this.targetURIFor(message),
+        Optional.of(timeout)
       ).received();
     } catch (final IOException | IdProtocolException e) {
       throw IdUClientException.ofException(e);
     }
   }
+
+  @Override
+  public CompletableFuture<IdUMessageType> sendAsync(
+    final IdUMessageType message,
+    final Duration timeout)
+    throws IdUClientException, InterruptedException
+  {
+    Objects.requireNonNull(timeout, "timeout");
+
+    if (this.isClosed()) {
+      throw this.errorClosed();
+    }
+    if (!(message instanceof final IdUCommandType<?> command)) {
+      throw this.errorNotCommand(message);
+    }
+
+    final var request =
+      this.commandRequest(
+        this.targetURIFor(message),
+        command,
+        Optional.of(timeout)
+      );
+
+    /*
+     * Block the caller until a slot is available. The slot is released
+     * only once the response body has been fully consumed.
+     */
+
+    this.inFlight.acquire();
+
+    final CompletableFuture<HttpResponse<InputStream>> future;
+    try {
+      future = this.http.sendAsync(
+        request,
+        HttpResponse.BodyHandlers.ofInputStream()
+      );
+    } catch (final RuntimeException e) {
+      this.inFlight.release();
+      throw IdUClientException.ofException(e);
+    }
+
+    return future
+      .thenApply(response -> {
+        try {
+          return this.processResponse(command, response).received();
+        } catch (final IOException
+                       | IdProtocolException
+                       | IdUClientException e) {
+          throw new CompletionException(IdUClientException.ofException(e));
+        }
+      })
+      .whenComplete((ignored0, ignored1) -> this.inFlight.release());
+  }
 }
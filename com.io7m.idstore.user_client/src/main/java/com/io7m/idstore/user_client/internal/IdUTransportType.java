@@ -21,6 +21,9 @@ import com.io7m.hibiscus.api.HBTransportType;
 import com.io7m.idstore.protocol.user.IdUMessageType;
 import com.io7m.idstore.user_client.api.IdUClientException;
 
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+
 /**
  * The type of message transports.
  */
@@ -28,5 +31,22 @@ import com.io7m.idstore.user_client.api.IdUClientException;
 public interface IdUTransportType
   extends HBTransportType<IdUMessageType, IdUClientException>
 {
+  /**
+   * Send a message without waiting for the response. The number of
+   * requests that may be in flight at once is bounded; if the limit has been
+   * reached, this method blocks until a slot becomes available.
+   *
+   * @param message The message
+   * @param timeout The timeout
+   *
+   * @return A future representing the response, which may be an error
+   *
+   * @throws IdUClientException   On errors
+   * @throws InterruptedException On interruption
+   */
 
+  CompletableFuture<IdUMessageType> sendAsync(
+    IdUMessageType message,
+    Duration timeout)
+    throws IdUClientException, InterruptedException;
 }
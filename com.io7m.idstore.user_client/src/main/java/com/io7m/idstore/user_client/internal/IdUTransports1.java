@@ -63,7 +63,8 @@ public final class IdUTransports1
     return new IdUTransport1(
       inStrings,
       inHttpClient,
-      inBaseURI
+      inBaseURI,
+      configuration.maximumRequestsInFlight()
     );
   }
 }
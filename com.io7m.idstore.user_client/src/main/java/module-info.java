@@ -30,6 +30,7 @@ module com.io7m.idstore.user_client
   requires com.io7m.idstore.protocol.user;
   requires com.io7m.idstore.strings;
 
+  requires com.github.luben.zstd_jni;
   requires com.io7m.genevan.core;
   requires com.io7m.hibiscus.api;
   requires com.io7m.jxtrand.vanilla;